@@ -273,11 +273,13 @@ public class PostgresServerCatalogTargetProcessor extends CatalogTargetProcessor
             templates = configuredTemplates;
         }
 
-        try
-        {
-            DataSource jdbcDataSource = assetConnector.getDataSource();
-            Connection jdbcConnection = jdbcDataSource.getConnection();
+        DataSource jdbcDataSource = assetConnector.getDataSource();
 
+        /*
+         * The connection is returned to the connection pool of the asset connector at the end of the refresh.
+         */
+        try (Connection jdbcConnection = jdbcDataSource.getConnection())
+        {
             final String sqlCommand1 = "SELECT datname, datistemplate, datallowconn from pg_database;";
 
             PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand1);
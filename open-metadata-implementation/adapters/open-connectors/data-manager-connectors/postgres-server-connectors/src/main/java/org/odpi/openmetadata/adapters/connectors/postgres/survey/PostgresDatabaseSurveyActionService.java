@@ -50,45 +50,50 @@ public class PostgresDatabaseSurveyActionService extends SurveyActionServiceConn
             assetConnector.start();
 
             DataSource jdbcDataSource = assetConnector.getDataSource();
-            Connection jdbcConnection = jdbcDataSource.getConnection();
 
-            String databaseName = assetConnector.getDatabaseName();
-
-            if (databaseName == null)
-            {
-                auditLog.logMessage(methodName, PostgresAuditCode.NO_DATABASES.getMessageDefinition(surveyActionServiceName,
-                                                                                                    assetStore.getQualifiedName(),
-                                                                                                    assetStore.getAssetGUID()));
-            }
-            else
+            /*
+             * The connection is returned to the connector's connection pool when the survey completes.
+             */
+            try (Connection jdbcConnection = jdbcDataSource.getConnection())
             {
-                annotationStore.setAnalysisStep(AnalysisStep.MEASURE_RESOURCE.getName());
+                String databaseName = assetConnector.getDatabaseName();
+
+                if (databaseName == null)
+                {
+                    auditLog.logMessage(methodName, PostgresAuditCode.NO_DATABASES.getMessageDefinition(surveyActionServiceName,
+                                                                                                        assetStore.getQualifiedName(),
+                                                                                                        assetStore.getAssetGUID()));
+                }
+                else
+                {
+                    annotationStore.setAnalysisStep(AnalysisStep.MEASURE_RESOURCE.getName());
 
-                List<String> validDatabases = Collections.singletonList(databaseName);
+                    List<String> validDatabases = Collections.singletonList(databaseName);
 
-                PostgresDatabaseStatsExtractor statsExtractor = new PostgresDatabaseStatsExtractor(validDatabases,
-                                                                                                   this);
+                    PostgresDatabaseStatsExtractor statsExtractor = new PostgresDatabaseStatsExtractor(validDatabases,
+                                                                                                       this);
 
-                statsExtractor.getDatabaseStatistics(jdbcConnection);
+                    statsExtractor.getDatabaseStatistics(jdbcConnection);
 
-                annotationStore.setAnalysisStep(AnalysisStep.PROFILING_ASSOCIATED_RESOURCES.getName());
+                    annotationStore.setAnalysisStep(AnalysisStep.PROFILING_ASSOCIATED_RESOURCES.getName());
 
-                statsExtractor.getSchemaStatistics(databaseName, jdbcConnection);
+                    statsExtractor.getSchemaStatistics(databaseName, jdbcConnection);
 
-                List<AnnotationProperties> annotations = statsExtractor.getAnnotations();
-                if (annotations != null)
-                {
-                    for (AnnotationProperties annotation : annotations)
+                    List<AnnotationProperties> annotations = statsExtractor.getAnnotations();
+                    if (annotations != null)
                     {
-                        if (super.isActive())
+                        for (AnnotationProperties annotation : annotations)
                         {
-                            annotationStore.addAnnotation(annotation, surveyContext.getAssetGUID());
+                            if (super.isActive())
+                            {
+                                annotationStore.addAnnotation(annotation, surveyContext.getAssetGUID());
+                            }
                         }
                     }
                 }
-            }
 
-            jdbcConnection.commit();
+                jdbcConnection.commit();
+            }
         }
         catch (ConnectorCheckedException error)
         {
@@ -64,85 +64,91 @@ public class PostgresServerSurveyActionService extends SurveyActionServiceConnec
             annotationStore.setAnalysisStep(AnalysisStep.PROFILING_ASSOCIATED_RESOURCES.getName());
 
             DataSource jdbcDataSource = assetConnector.getDataSource();
-            Connection jdbcConnection = jdbcDataSource.getConnection();
 
-            final String sqlCommand1 = "SELECT oid, datname, datistemplate, datallowconn from pg_database;";
+            /*
+             * The connections are returned to the connection pools when the survey completes.
+             */
+            try (Connection jdbcConnection = jdbcDataSource.getConnection())
+            {
+                final String sqlCommand1 = "SELECT oid, datname, datistemplate, datallowconn from pg_database;";
 
-            PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand1);
+                PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand1);
 
-            ResultSet resultSet = preparedStatement.executeQuery();
+                ResultSet resultSet = preparedStatement.executeQuery();
 
-            List<String> validDatabases = new ArrayList<>();
+                List<String> validDatabases = new ArrayList<>();
 
-            while (resultSet.next())
-            {
-                /*
-                 * This first test removes databases that are templates or do not allow connections.
-                 */
-                if ((! resultSet.getBoolean("datistemplate")) &&
-                        (resultSet.getBoolean("datallowconn")))
+                while (resultSet.next())
                 {
-                    String databaseName = resultSet.getString("datname");
+                    /*
+                     * This first test removes databases that are templates or do not allow connections.
+                     */
+                    if ((! resultSet.getBoolean("datistemplate")) &&
+                            (resultSet.getBoolean("datallowconn")))
+                    {
+                        String databaseName = resultSet.getString("datname");
 
-                    validDatabases.add(databaseName);
+                        validDatabases.add(databaseName);
+                    }
                 }
-            }
 
-            resultSet.close();
-            preparedStatement.close();
+                resultSet.close();
+                preparedStatement.close();
 
-            if (validDatabases.isEmpty())
-            {
-                auditLog.logMessage(methodName, PostgresAuditCode.NO_DATABASES.getMessageDefinition(surveyActionServiceName,
-                                                                                                    assetStore.getQualifiedName(),
-                                                                                                    assetStore.getAssetGUID()));
-            }
-            else
-            {
-                List<String> excludedDatabases = super.getArrayConfigurationProperty(PostgresConfigurationProperty.EXCLUDE_DATABASE_LIST.getName(),
-                                                                                     connectionBean.getConfigurationProperties(),
-                                                                                     Collections.singletonList("postgres"));
+                if (validDatabases.isEmpty())
+                {
+                    auditLog.logMessage(methodName, PostgresAuditCode.NO_DATABASES.getMessageDefinition(surveyActionServiceName,
+                                                                                                        assetStore.getQualifiedName(),
+                                                                                                        assetStore.getAssetGUID()));
+                }
+                else
+                {
+                    List<String> excludedDatabases = super.getArrayConfigurationProperty(PostgresConfigurationProperty.EXCLUDE_DATABASE_LIST.getName(),
+                                                                                         connectionBean.getConfigurationProperties(),
+                                                                                         Collections.singletonList("postgres"));
 
-                List<String> includedDatabases = super.getArrayConfigurationProperty(PostgresConfigurationProperty.INCLUDE_DATABASE_LIST.getName(),
-                                                                                     connectionBean.getConfigurationProperties());
+                    List<String> includedDatabases = super.getArrayConfigurationProperty(PostgresConfigurationProperty.INCLUDE_DATABASE_LIST.getName(),
+                                                                                         connectionBean.getConfigurationProperties());
 
-                List<String> surveyDatabases = new ArrayList<>();
+                    List<String> surveyDatabases = new ArrayList<>();
 
-                for (String databaseName : validDatabases)
-                {
-                    if (surveyContext.elementShouldBeSurveyed(databaseName, excludedDatabases, includedDatabases))
+                    for (String databaseName : validDatabases)
                     {
-                        surveyDatabases.add(databaseName);
+                        if (surveyContext.elementShouldBeSurveyed(databaseName, excludedDatabases, includedDatabases))
+                        {
+                            surveyDatabases.add(databaseName);
+                        }
                     }
-                }
 
-                PostgresDatabaseStatsExtractor statsExtractor = new PostgresDatabaseStatsExtractor(surveyDatabases,
-                                                                                                   this);
+                    PostgresDatabaseStatsExtractor statsExtractor = new PostgresDatabaseStatsExtractor(surveyDatabases,
+                                                                                                       this);
 
-                statsExtractor.getDatabaseStatistics(jdbcConnection);
+                    statsExtractor.getDatabaseStatistics(jdbcConnection);
 
-                jdbcConnection.commit();
+                    jdbcConnection.commit();
 
-                annotationStore.setAnalysisStep(AnalysisStep.PRODUCE_INVENTORY.getName());
+                    annotationStore.setAnalysisStep(AnalysisStep.PRODUCE_INVENTORY.getName());
 
-                for (String databaseName : surveyDatabases)
-                {
-                    java.sql.Connection databaseSpecificConnection = this.getDatabaseConnection(assetConnector, databaseName);
-
-                    if (databaseSpecificConnection != null)
+                    for (String databaseName : surveyDatabases)
                     {
-                        statsExtractor.getSchemaStatistics(databaseName, databaseSpecificConnection);
+                        try (java.sql.Connection databaseSpecificConnection = this.getDatabaseConnection(assetConnector, databaseName))
+                        {
+                            if (databaseSpecificConnection != null)
+                            {
+                                statsExtractor.getSchemaStatistics(databaseName, databaseSpecificConnection);
+                            }
+                        }
                     }
-                }
 
-                List<AnnotationProperties> annotations = statsExtractor.getAnnotations();
-                if (annotations != null)
-                {
-                    for (AnnotationProperties annotation : annotations)
+                    List<AnnotationProperties> annotations = statsExtractor.getAnnotations();
+                    if (annotations != null)
                     {
-                        if (super.isActive())
+                        for (AnnotationProperties annotation : annotations)
                         {
-                            annotationStore.addAnnotation(annotation, surveyContext.getAssetGUID());
+                            if (super.isActive())
+                            {
+                                annotationStore.addAnnotation(annotation, surveyContext.getAssetGUID());
+                            }
                         }
                     }
                 }
@@ -166,7 +172,7 @@ public class PostgresServerSurveyActionService extends SurveyActionServiceConnec
      * "postgres" database which describes the whole server.
      *
      * @param databaseName name of the database
-     * @return jdbc connection
+     * @return jdbc connection that the caller must close, or null if the database can not be reached
      */
     private java.sql.Connection getDatabaseConnection(JDBCResourceConnector serverConnector,
                                                       String                databaseName)
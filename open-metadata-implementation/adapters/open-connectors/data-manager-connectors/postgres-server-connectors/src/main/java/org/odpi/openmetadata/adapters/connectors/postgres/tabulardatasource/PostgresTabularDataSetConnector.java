@@ -360,6 +360,11 @@ public class PostgresTabularDataSetConnector extends ConnectorBase implements Wr
     {
         try
         {
+            if (databaseConnection != null)
+            {
+                databaseConnection.close();
+            }
+
             super.disconnect();
         }
         catch (Exception  exec)
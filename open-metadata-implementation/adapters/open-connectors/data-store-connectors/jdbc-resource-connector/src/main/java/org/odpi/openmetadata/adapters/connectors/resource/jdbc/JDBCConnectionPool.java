@@ -0,0 +1,986 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ffdc.JDBCAuditCode;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCConnectionPoolMetrics;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * JDBCConnectionPool is a bounded pool of connections to a database.  A connection is taken from the pool with
+ * getConnection() and returned to the pool when the caller closes it.  Any work that was not committed when the
+ * connection is returned is rolled back.  When all connections are in use, requests wait for a connection to be
+ * returned, up to a maximum wait time.
+ * <br><br>
+ * Connections that have been unused for a while are checked before they are handed out, and connections that
+ * have been idle for longer than the idle timeout are closed by a housekeeping thread.  The same thread reports
+ * connections that have been in use for longer than the leak detection threshold, along with the stack of the
+ * code that took them.  Since this stack is recorded each time a connection is taken from the pool, leak
+ * detection is off unless a threshold is set.
+ * <br><br>
+ * A pool is shared by all the JDBC resource connectors in the JVM that connect to the same database URL with
+ * the same credentials and pool settings.  A connector with a different password or setting gets a pool of its
+ * own, so it never uses connections opened with another connector's credentials.  Messages about a shared pool
+ * go to the audit log of the connector that created it.  The pool is closed when the last of these connectors
+ * disconnects.
+ */
+public class JDBCConnectionPool
+{
+    /*
+     * The pools in use, keyed by database URL, user, a hash of the password and the pool settings.
+     */
+    private static final Map<String, JDBCConnectionPool> sharedPools = new HashMap<>();
+
+    /*
+     * Connections returned to the pool within the validation interval are handed out again without checking them.
+     */
+    private static final long validationIntervalMillis    = 1000L;
+    private static final int  validationTimeoutSeconds    = 5;
+    private static final long minHousekeepingPeriodMillis = 1000L;
+    private static final long maxHousekeepingPeriodMillis = 30000L;
+
+    private final String   poolKey;
+    private final String   databaseName;
+    private final String   databaseURL;
+    private final String   userId;
+    private final String   password;
+    private final int      maxConnections;
+    private final long     maxWaitMillis;
+    private final long     idleTimeoutMillis;
+    private final long     leakDetectionThresholdMillis;
+    private final AuditLog auditLog;
+
+    private final ReentrantLock            lock                = new ReentrantLock();
+    private final Condition                connectionAvailable = lock.newCondition();
+    private final Deque<PooledConnection>  idleConnections     = new ArrayDeque<>();
+    private final Set<PooledConnection>    activeConnections   = new HashSet<>();
+    private final ScheduledExecutorService housekeeper;
+
+    /*
+     * These values are protected by the lock.
+     */
+    private int     pendingConnections     = 0;
+    private int     waitingRequests        = 0;
+    private boolean closed                 = false;
+    private long    connectionsCreated     = 0L;
+    private long    connectionsClosed      = 0L;
+    private long    idleConnectionsEvicted = 0L;
+    private long    validationFailures     = 0L;
+    private long    leaksDetected          = 0L;
+    private long    connectionRequests     = 0L;
+    private long    connectionTimeouts     = 0L;
+    private long    totalWaitTimeNanos     = 0L;
+
+    /*
+     * Protected by sharedPools.
+     */
+    private int referenceCount = 0;
+
+    private static final Logger log = LoggerFactory.getLogger(JDBCConnectionPool.class);
+
+
+    /**
+     * Return the pool for the database, credentials and settings, creating it if this is the first request for it.
+     * Each call must be matched by a call to release() when the caller no longer needs the pool.
+     *
+     * @param databaseName name of the database to use in messages
+     * @param databaseURL connection URL for the database
+     * @param userId user to connect as - null to use the credentials in the URL
+     * @param password password for the user
+     * @param maxConnections maximum number of connections in the pool
+     * @param maxWaitSeconds maximum time a request waits for a connection
+     * @param idleTimeoutSeconds time an unused connection stays open - 0 means idle connections are kept open
+     * @param leakDetectionThresholdSeconds time a connection can be in use before it is reported - 0 turns leak detection off
+     * @param auditLog logging destination
+     * @return connection pool
+     */
+    static JDBCConnectionPool acquirePool(String   databaseName,
+                                          String   databaseURL,
+                                          String   userId,
+                                          String   password,
+                                          int      maxConnections,
+                                          int      maxWaitSeconds,
+                                          int      idleTimeoutSeconds,
+                                          int      leakDetectionThresholdSeconds,
+                                          AuditLog auditLog)
+    {
+        final String methodName = "acquirePool";
+
+        String poolKey = getPoolKey(databaseURL,
+                                    userId,
+                                    password,
+                                    maxConnections,
+                                    maxWaitSeconds,
+                                    idleTimeoutSeconds,
+                                    leakDetectionThresholdSeconds);
+
+        synchronized (sharedPools)
+        {
+            JDBCConnectionPool connectionPool = sharedPools.get(poolKey);
+
+            if ((connectionPool != null) && (auditLog != null))
+            {
+                auditLog.logMessage(methodName,
+                                    JDBCAuditCode.CONNECTION_POOL_SHARED.getMessageDefinition(databaseName,
+                                                                                              Integer.toString(connectionPool.maxConnections)));
+            }
+
+            if (connectionPool == null)
+            {
+                connectionPool = new JDBCConnectionPool(poolKey,
+                                                        databaseName,
+                                                        databaseURL,
+                                                        userId,
+                                                        password,
+                                                        maxConnections,
+                                                        maxWaitSeconds,
+                                                        idleTimeoutSeconds,
+                                                        leakDetectionThresholdSeconds,
+                                                        auditLog);
+
+                sharedPools.put(poolKey, connectionPool);
+            }
+
+            connectionPool.referenceCount++;
+
+            return connectionPool;
+        }
+    }
+
+
+    /**
+     * Return the key of the pool in the shared pools.  The password is hashed so that it is not held in the key.
+     *
+     * @param databaseURL connection URL for the database
+     * @param userId user to connect as - null to use the credentials in the URL
+     * @param password password for the user
+     * @param maxConnections maximum number of connections in the pool
+     * @param maxWaitSeconds maximum time a request waits for a connection
+     * @param idleTimeoutSeconds time an unused connection stays open
+     * @param leakDetectionThresholdSeconds time a connection can be in use before it is reported
+     * @return pool key
+     */
+    private static String getPoolKey(String databaseURL,
+                                     String userId,
+                                     String password,
+                                     int    maxConnections,
+                                     int    maxWaitSeconds,
+                                     int    idleTimeoutSeconds,
+                                     int    leakDetectionThresholdSeconds)
+    {
+        String passwordHash = "";
+
+        if (password != null)
+        {
+            try
+            {
+                passwordHash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8)));
+            }
+            catch (NoSuchAlgorithmException error)
+            {
+                throw new IllegalStateException(error);
+            }
+        }
+
+        return databaseURL + "::" + userId + "::" + passwordHash + "::" + maxConnections + "::" + maxWaitSeconds +
+                       "::" + idleTimeoutSeconds + "::" + leakDetectionThresholdSeconds;
+    }
+
+
+    /**
+     * Create a connection pool.  No connections are opened until they are requested.
+     *
+     * @param poolKey key of the pool in the shared pools
+     * @param databaseName name of the database to use in messages
+     * @param databaseURL connection URL for the database
+     * @param userId user to connect as - null to use the credentials in the URL
+     * @param password password for the user
+     * @param maxConnections maximum number of connections in the pool
+     * @param maxWaitSeconds maximum time a request waits for a connection
+     * @param idleTimeoutSeconds time an unused connection stays open - 0 means idle connections are kept open
+     * @param leakDetectionThresholdSeconds time a connection can be in use before it is reported - 0 turns leak detection off
+     * @param auditLog logging destination
+     */
+    private JDBCConnectionPool(String   poolKey,
+                               String   databaseName,
+                               String   databaseURL,
+                               String   userId,
+                               String   password,
+                               int      maxConnections,
+                               int      maxWaitSeconds,
+                               int      idleTimeoutSeconds,
+                               int      leakDetectionThresholdSeconds,
+                               AuditLog auditLog)
+    {
+        final String methodName = "JDBCConnectionPool";
+
+        this.poolKey                      = poolKey;
+        this.databaseName                 = databaseName;
+        this.databaseURL                  = databaseURL;
+        this.userId                       = userId;
+        this.password                     = password;
+        this.maxConnections               = Math.max(maxConnections, 1);
+        this.maxWaitMillis                = TimeUnit.SECONDS.toMillis(Math.max(maxWaitSeconds, 0));
+        this.idleTimeoutMillis            = TimeUnit.SECONDS.toMillis(Math.max(idleTimeoutSeconds, 0));
+        this.leakDetectionThresholdMillis = TimeUnit.SECONDS.toMillis(Math.max(leakDetectionThresholdSeconds, 0));
+        this.auditLog                     = auditLog;
+
+        /*
+         * The housekeeping thread runs often enough to notice idle connections and leaks soon after they pass
+         * their time limits.
+         */
+        long housekeepingPeriodMillis = maxHousekeepingPeriodMillis;
+
+        if (idleTimeoutMillis > 0)
+        {
+            housekeepingPeriodMillis = Math.min(housekeepingPeriodMillis, idleTimeoutMillis / 2);
+        }
+
+        if (leakDetectionThresholdMillis > 0)
+        {
+            housekeepingPeriodMillis = Math.min(housekeepingPeriodMillis, leakDetectionThresholdMillis / 2);
+        }
+
+        housekeepingPeriodMillis = Math.max(housekeepingPeriodMillis, minHousekeepingPeriodMillis);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable ->
+                                                                      {
+                                                                          Thread thread = new Thread(runnable, "JDBCConnectionPool:" + databaseName);
+                                                                          thread.setDaemon(true);
+                                                                          return thread;
+                                                                      });
+
+        this.housekeeper.scheduleWithFixedDelay(this::housekeeping,
+                                                housekeepingPeriodMillis,
+                                                housekeepingPeriodMillis,
+                                                TimeUnit.MILLISECONDS);
+
+        if (auditLog != null)
+        {
+            auditLog.logMessage(methodName,
+                                JDBCAuditCode.CONNECTION_POOL_STARTED.getMessageDefinition(databaseName,
+                                                                                           Integer.toString(this.maxConnections),
+                                                                                           Long.toString(TimeUnit.MILLISECONDS.toSeconds(idleTimeoutMillis)),
+                                                                                           Long.toString(TimeUnit.MILLISECONDS.toSeconds(maxWaitMillis))));
+        }
+    }
+
+
+    /**
+     * Return a connection from the pool, opening a new connection if none are free and the pool is not full.
+     * The connection is returned to the pool when it is closed.
+     *
+     * @return connection with auto-commit turned off
+     * @throws SQLException the pool is closed, no connection was returned to the pool within the maximum wait time,
+     * or the database rejected a new connection
+     */
+    public Connection getConnection() throws SQLException
+    {
+        long startTime = System.nanoTime();
+        long deadline  = startTime + TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+
+        lock.lock();
+
+        try
+        {
+            connectionRequests++;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        while (true)
+        {
+            PooledConnection pooledConnection;
+
+            lock.lock();
+
+            try
+            {
+                while (idleConnections.isEmpty() && (this.getOpenConnectionCount() >= maxConnections))
+                {
+                    this.validatePoolIsOpen();
+
+                    long remainingWait = deadline - System.nanoTime();
+
+                    if (remainingWait <= 0)
+                    {
+                        connectionTimeouts++;
+
+                        throw new SQLTransientConnectionException("The connection pool for database " + databaseName + " has " +
+                                                                          activeConnections.size() + " connections in use and none was returned within " +
+                                                                          maxWaitMillis + " milliseconds");
+                    }
+
+                    waitingRequests++;
+
+                    try
+                    {
+                        connectionAvailable.awaitNanos(remainingWait);
+                    }
+                    catch (InterruptedException interrupted)
+                    {
+                        Thread.currentThread().interrupt();
+
+                        throw new SQLTransientConnectionException("Interrupted while waiting for a connection to database " + databaseName, interrupted);
+                    }
+                    finally
+                    {
+                        waitingRequests--;
+                    }
+                }
+
+                this.validatePoolIsOpen();
+
+                pooledConnection = idleConnections.pollFirst();
+
+                if (pooledConnection == null)
+                {
+                    /*
+                     * Reserve the space in the pool for the new connection while it is opened outside the lock.
+                     */
+                    pendingConnections++;
+                }
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            if (pooledConnection == null)
+            {
+                return this.checkOut(this.openConnection(), startTime, true);
+            }
+            else if (this.isUsable(pooledConnection))
+            {
+                return this.checkOut(pooledConnection, startTime, false);
+            }
+            else
+            {
+                lock.lock();
+
+                try
+                {
+                    validationFailures++;
+                }
+                finally
+                {
+                    lock.unlock();
+                }
+
+                this.closePhysicalConnection(pooledConnection);
+            }
+        }
+    }
+
+
+    /**
+     * Return the number of connections that are open or being opened.  The caller holds the lock.
+     *
+     * @return count
+     */
+    private int getOpenConnectionCount()
+    {
+        return activeConnections.size() + idleConnections.size() + pendingConnections;
+    }
+
+
+    /**
+     * Throw an exception if the pool has been closed.  The caller holds the lock.
+     *
+     * @throws SQLException the pool is closed
+     */
+    private void validatePoolIsOpen() throws SQLException
+    {
+        if (closed)
+        {
+            throw new SQLException("The connection pool for database " + databaseName + " is closed");
+        }
+    }
+
+
+    /**
+     * Open a new connection to the database.  The space for it in the pool has already been reserved.
+     *
+     * @return pooled connection
+     * @throws SQLException the database rejected the connection
+     */
+    private PooledConnection openConnection() throws SQLException
+    {
+        final String methodName = "openConnection";
+
+        Connection physicalConnection = null;
+
+        try
+        {
+            if ((userId == null) || (password == null))
+            {
+                physicalConnection = DriverManager.getConnection(databaseURL);
+            }
+            else
+            {
+                physicalConnection = DriverManager.getConnection(databaseURL, userId, password);
+            }
+
+            physicalConnection.setAutoCommit(false);
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    JDBCAuditCode.CONNECTOR_CONNECTED_TO_DATABASE.getMessageDefinition(databaseName,
+                                                                                                       Long.toString(Thread.currentThread().getId()),
+                                                                                                       Thread.currentThread().getName()));
+            }
+
+            return new PooledConnection(physicalConnection);
+        }
+        catch (SQLException | RuntimeException error)
+        {
+            if (physicalConnection != null)
+            {
+                this.closeQuietly(physicalConnection);
+            }
+
+            lock.lock();
+
+            try
+            {
+                pendingConnections--;
+                connectionAvailable.signal();
+            }
+            finally
+            {
+                lock.unlock();
+            }
+
+            throw error;
+        }
+    }
+
+
+    /**
+     * Check that a connection from the idle list can still be used.  Connections that were returned very recently
+     * are trusted.
+     *
+     * @param pooledConnection connection to check
+     * @return true if the connection can be handed out
+     */
+    private boolean isUsable(PooledConnection pooledConnection)
+    {
+        try
+        {
+            if (pooledConnection.physicalConnection.isClosed())
+            {
+                return false;
+            }
+
+            if (System.currentTimeMillis() - pooledConnection.lastReturnedTime < validationIntervalMillis)
+            {
+                return true;
+            }
+
+            return pooledConnection.physicalConnection.isValid(validationTimeoutSeconds);
+        }
+        catch (SQLException error)
+        {
+            return false;
+        }
+    }
+
+
+    /**
+     * Record that the connection is in use and return the handle that the caller uses to access it.
+     *
+     * @param pooledConnection connection to hand out
+     * @param startTime time that the request for the connection started
+     * @param newConnection was the connection just opened?
+     * @return connection handle
+     */
+    private Connection checkOut(PooledConnection pooledConnection,
+                                long             startTime,
+                                boolean          newConnection)
+    {
+        Thread thread = Thread.currentThread();
+
+        pooledConnection.checkOutTime   = System.currentTimeMillis();
+        pooledConnection.threadId       = thread.getId();
+        pooledConnection.threadName     = thread.getName();
+        pooledConnection.leakReported   = false;
+        pooledConnection.checkOutTrace  = null;
+
+        if (leakDetectionThresholdMillis > 0)
+        {
+            pooledConnection.checkOutTrace = new Exception("Connection to database " + databaseName + " taken from the pool by thread " +
+                                                                   thread.getName() + " (" + thread.getId() + ")");
+        }
+
+        lock.lock();
+
+        try
+        {
+            if (newConnection)
+            {
+                pendingConnections--;
+                connectionsCreated++;
+            }
+
+            activeConnections.add(pooledConnection);
+            totalWaitTimeNanos += System.nanoTime() - startTime;
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return (Connection)Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                  new Class<?>[]{Connection.class},
+                                                  new ConnectionHandle(pooledConnection));
+    }
+
+
+    /**
+     * Return a connection to the pool.  Uncommitted work is rolled back.  The connection is closed if it is
+     * broken or the pool has been closed.
+     *
+     * @param pooledConnection connection that the caller has finished with
+     */
+    private void returnConnection(PooledConnection pooledConnection)
+    {
+        boolean reusable = this.resetConnection(pooledConnection.physicalConnection);
+
+        lock.lock();
+
+        try
+        {
+            activeConnections.remove(pooledConnection);
+
+            if (reusable && (! closed))
+            {
+                pooledConnection.lastReturnedTime = System.currentTimeMillis();
+                pooledConnection.checkOutTrace    = null;
+
+                /*
+                 * The most recently used connection is handed out first so that the prepared statements cached for
+                 * it are reused, and unused connections age out of the pool.
+                 */
+                idleConnections.addFirst(pooledConnection);
+            }
+            else
+            {
+                reusable = false;
+            }
+
+            connectionAvailable.signal();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        if (! reusable)
+        {
+            this.closePhysicalConnection(pooledConnection);
+        }
+    }
+
+
+    /**
+     * Discard any uncommitted work on a connection that is being returned to the pool.
+     *
+     * @param physicalConnection connection to the database
+     * @return true if the connection can be reused
+     */
+    private boolean resetConnection(Connection physicalConnection)
+    {
+        try
+        {
+            if (physicalConnection.isClosed())
+            {
+                return false;
+            }
+
+            if (physicalConnection.getAutoCommit())
+            {
+                physicalConnection.setAutoCommit(false);
+            }
+            else
+            {
+                physicalConnection.rollback();
+            }
+
+            return true;
+        }
+        catch (SQLException error)
+        {
+            log.debug("Unable to reset connection to database " + databaseName, error);
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Close idle connections that have passed the idle timeout and report connections that have been in use
+     * for longer than the leak detection threshold.
+     */
+    private void housekeeping()
+    {
+        final String methodName = "housekeeping";
+
+        List<PooledConnection> evictedConnections   = new ArrayList<>();
+        List<PooledConnection> suspectedLeaks       = new ArrayList<>();
+        long                   currentTime          = System.currentTimeMillis();
+
+        lock.lock();
+
+        try
+        {
+            if (idleTimeoutMillis > 0)
+            {
+                Iterator<PooledConnection> iterator = idleConnections.iterator();
+
+                while (iterator.hasNext())
+                {
+                    PooledConnection pooledConnection = iterator.next();
+
+                    if (currentTime - pooledConnection.lastReturnedTime > idleTimeoutMillis)
+                    {
+                        iterator.remove();
+                        evictedConnections.add(pooledConnection);
+                    }
+                }
+
+                idleConnectionsEvicted += evictedConnections.size();
+            }
+
+            if (leakDetectionThresholdMillis > 0)
+            {
+                for (PooledConnection pooledConnection : activeConnections)
+                {
+                    if ((! pooledConnection.leakReported) && (currentTime - pooledConnection.checkOutTime > leakDetectionThresholdMillis))
+                    {
+                        pooledConnection.leakReported = true;
+                        suspectedLeaks.add(pooledConnection);
+                    }
+                }
+
+                leaksDetected += suspectedLeaks.size();
+            }
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        for (PooledConnection pooledConnection : evictedConnections)
+        {
+            this.closePhysicalConnection(pooledConnection);
+        }
+
+        for (PooledConnection pooledConnection : suspectedLeaks)
+        {
+            String inUseTime = Long.toString(currentTime - pooledConnection.checkOutTime);
+
+            if (auditLog != null)
+            {
+                auditLog.logException(methodName,
+                                      JDBCAuditCode.CONNECTION_LEAK_SUSPECTED.getMessageDefinition(databaseName,
+                                                                                                   Long.toString(pooledConnection.threadId),
+                                                                                                   pooledConnection.threadName,
+                                                                                                   inUseTime),
+                                      pooledConnection.checkOutTrace);
+            }
+            else
+            {
+                log.warn("Connection to database " + databaseName + " taken by thread " + pooledConnection.threadName +
+                                 " has been in use for " + inUseTime + " milliseconds", pooledConnection.checkOutTrace);
+            }
+        }
+    }
+
+
+    /**
+     * Return the current state of the pool.
+     *
+     * @return metrics
+     */
+    public JDBCConnectionPoolMetrics getMetrics()
+    {
+        JDBCConnectionPoolMetrics metrics = new JDBCConnectionPoolMetrics();
+
+        lock.lock();
+
+        try
+        {
+            metrics.setMaxConnections(maxConnections);
+            metrics.setActiveConnections(activeConnections.size());
+            metrics.setIdleConnections(idleConnections.size());
+            metrics.setWaitingRequests(waitingRequests);
+            metrics.setConnectionsCreated(connectionsCreated);
+            metrics.setConnectionsClosed(connectionsClosed);
+            metrics.setIdleConnectionsEvicted(idleConnectionsEvicted);
+            metrics.setValidationFailures(validationFailures);
+            metrics.setLeaksDetected(leaksDetected);
+            metrics.setConnectionRequests(connectionRequests);
+            metrics.setConnectionTimeouts(connectionTimeouts);
+            metrics.setTotalWaitTimeMillis(TimeUnit.NANOSECONDS.toMillis(totalWaitTimeNanos));
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        return metrics;
+    }
+
+
+    /**
+     * Release the caller's use of the pool.  The pool is closed when it has no more users.
+     */
+    void release()
+    {
+        synchronized (sharedPools)
+        {
+            referenceCount--;
+
+            if (referenceCount > 0)
+            {
+                return;
+            }
+
+            sharedPools.remove(poolKey);
+        }
+
+        this.close();
+    }
+
+
+    /**
+     * Close all the connections in the pool, including any that are still in use, and stop the housekeeping thread.
+     */
+    private void close()
+    {
+        List<PooledConnection> pooledConnections = new ArrayList<>();
+
+        lock.lock();
+
+        try
+        {
+            closed = true;
+
+            pooledConnections.addAll(idleConnections);
+            pooledConnections.addAll(activeConnections);
+
+            idleConnections.clear();
+            activeConnections.clear();
+
+            connectionAvailable.signalAll();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+
+        housekeeper.shutdownNow();
+
+        for (PooledConnection pooledConnection : pooledConnections)
+        {
+            this.closePhysicalConnection(pooledConnection);
+        }
+    }
+
+
+    /**
+     * Close the connection to the database for a connection that has been removed from the pool.
+     *
+     * @param pooledConnection connection to close
+     */
+    private void closePhysicalConnection(PooledConnection pooledConnection)
+    {
+        this.closeQuietly(pooledConnection.physicalConnection);
+
+        lock.lock();
+
+        try
+        {
+            connectionsClosed++;
+
+            /*
+             * There is now space in the pool for a new connection.
+             */
+            connectionAvailable.signal();
+        }
+        finally
+        {
+            lock.unlock();
+        }
+    }
+
+
+    /**
+     * Close a connection to the database, ignoring errors.
+     *
+     * @param physicalConnection connection to close
+     */
+    private void closeQuietly(Connection physicalConnection)
+    {
+        try
+        {
+            physicalConnection.close();
+        }
+        catch (Exception error)
+        {
+            // Ignore error - the connection is no longer needed and may be broken already.
+        }
+    }
+
+
+    /**
+     * PooledConnection holds a connection to the database along with the information the pool keeps about its use.
+     */
+    private static class PooledConnection
+    {
+        final Connection physicalConnection;
+
+        long      lastReturnedTime = 0L;
+        long      checkOutTime     = 0L;
+        long      threadId         = 0L;
+        String    threadName       = null;
+        Exception checkOutTrace    = null;
+        boolean   leakReported     = false;
+
+
+        /**
+         * Wrap a newly opened connection.
+         *
+         * @param physicalConnection connection to the database
+         */
+        PooledConnection(Connection physicalConnection)
+        {
+            this.physicalConnection = physicalConnection;
+        }
+    }
+
+
+    /**
+     * ConnectionHandle is the implementation behind the connection that is returned to the caller of getConnection().
+     * It passes requests through to the connection to the database, except close() which returns the connection
+     * to the pool.  Once it has been closed, the handle can not be used again.
+     */
+    private class ConnectionHandle implements InvocationHandler
+    {
+        private final    PooledConnection pooledConnection;
+        private volatile boolean          returned = false;
+
+
+        /**
+         * Create a handle for a connection that has been taken from the pool.
+         *
+         * @param pooledConnection connection taken from the pool
+         */
+        ConnectionHandle(PooledConnection pooledConnection)
+        {
+            this.pooledConnection = pooledConnection;
+        }
+
+
+        /**
+         * Process a call to the connection.
+         *
+         * @param proxy the connection that the caller is using
+         * @param method method called
+         * @param args parameters of the call
+         * @return result of the call
+         * @throws Throwable exception from the connection to the database
+         */
+        @Override
+        public Object invoke(Object   proxy,
+                             Method   method,
+                             Object[] args) throws Throwable
+        {
+            switch (method.getName())
+            {
+                case "close" ->
+                {
+                    if (! returned)
+                    {
+                        returned = true;
+                        returnConnection(pooledConnection);
+                    }
+
+                    return null;
+                }
+                case "isClosed" ->
+                {
+                    return returned || pooledConnection.physicalConnection.isClosed();
+                }
+                case "equals" ->
+                {
+                    return proxy == args[0];
+                }
+                case "hashCode" ->
+                {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" ->
+                {
+                    return "Pooled connection to " + databaseName + (returned ? " (returned)" : "");
+                }
+                case "unwrap" ->
+                {
+                    /*
+                     * The connection to the database is exposed so that objects cached for a connection, such as
+                     * prepared statements, can be shared by the handles for it.
+                     */
+                    if ((args[0] instanceof Class<?> requestedInterface) && (requestedInterface.isInstance(pooledConnection.physicalConnection)))
+                    {
+                        return pooledConnection.physicalConnection;
+                    }
+                }
+                case "isValid" ->
+                {
+                    if (returned)
+                    {
+                        return false;
+                    }
+                }
+            }
+
+            if (returned)
+            {
+                throw new SQLException("The connection to database " + databaseName + " has been returned to the connection pool");
+            }
+
+            try
+            {
+                return method.invoke(pooledConnection.physicalConnection, args);
+            }
+            catch (InvocationTargetException error)
+            {
+                throw error.getCause();
+            }
+        }
+    }
+}
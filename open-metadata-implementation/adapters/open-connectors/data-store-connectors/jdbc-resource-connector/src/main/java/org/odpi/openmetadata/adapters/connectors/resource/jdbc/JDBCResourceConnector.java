@@ -6,6 +6,7 @@ package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.controls.JDBCConfigurationProperty;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ffdc.JDBCAuditCode;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ffdc.JDBCErrorCode;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCConnectionPoolMetrics;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
@@ -23,8 +24,10 @@ import java.io.PrintWriter;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * JDBCResourceConnector provides a resource connector to work with JDBC Databases.  The JDBC interface works using
@@ -32,6 +35,7 @@ import java.util.Map;
  * dispensing connectors via a data source object. This object implements the  {@link DataSource} interface in order
  * to get a {@link Connection} to target database. This is done via a static inner class,
  * since {@link DataSource#getConnection()} clashes with {@link ConnectorBase#getConnection()}.
+ * The connections come from a {@link JDBCConnectionPool} and are returned to it when the caller closes them.
  */
 public class JDBCResourceConnector extends ConnectorBase implements AuditLoggingComponent
 {
@@ -39,6 +43,31 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     private String                          jdbcDatabaseName   = null;
     private String                          jdbcDatabaseURL    = null;
     private JDBCConnectorAsDataSource       jdbcDataSource     = null;
+    private JDBCConnectionPool              connectionPool     = null;
+    private int                             statementCacheSize = defaultStatementCacheSize;
+    private int                             poolMaxSize        = defaultPoolMaxSize;
+    private int                             poolMaxWait        = defaultPoolMaxWait;
+    private int                             poolIdleTimeout    = defaultPoolIdleTimeout;
+    private int                             poolLeakThreshold  = defaultPoolLeakThreshold;
+
+    /*
+     * Prepared statements for parameterized SQL are kept open for each connection and reused when the same
+     * SQL text is issued again.
+     */
+    private final Map<Connection, PreparedStatementCache> statementCaches = new ConcurrentHashMap<>();
+
+    private static final int defaultStatementCacheSize = 100;
+    private static final int defaultPoolMaxSize        = 10;
+    private static final int defaultPoolMaxWait        = 30;
+    private static final int defaultPoolIdleTimeout    = 600;
+    private static final int defaultPoolLeakThreshold  = 0;
+
+    /*
+     * PostgreSQL allows up to 65535 placeholders in a statement.  Multi-row inserts are split so that each
+     * statement stays within this limit and within a sensible number of rows.
+     */
+    private static final int maxParametersPerStatement = 65535;
+    private static final int maxRowsPerInsert          = 1000;
 
 
     private static final Logger log = LoggerFactory.getLogger(JDBCResourceConnector.class);
@@ -139,6 +168,41 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                 }
             }
 
+            Object statementCacheSizeOption = configurationProperties.get(JDBCConfigurationProperty.JDBC_STATEMENT_CACHE_SIZE.getName());
+
+            if (statementCacheSizeOption != null)
+            {
+                statementCacheSize = Integer.parseInt(statementCacheSizeOption.toString());
+            }
+
+            Object poolMaxSizeOption = configurationProperties.get(JDBCConfigurationProperty.JDBC_POOL_MAX_SIZE.getName());
+
+            if (poolMaxSizeOption != null)
+            {
+                poolMaxSize = Integer.parseInt(poolMaxSizeOption.toString());
+            }
+
+            Object poolMaxWaitOption = configurationProperties.get(JDBCConfigurationProperty.JDBC_POOL_MAX_WAIT.getName());
+
+            if (poolMaxWaitOption != null)
+            {
+                poolMaxWait = Integer.parseInt(poolMaxWaitOption.toString());
+            }
+
+            Object poolIdleTimeoutOption = configurationProperties.get(JDBCConfigurationProperty.JDBC_POOL_IDLE_TIMEOUT.getName());
+
+            if (poolIdleTimeoutOption != null)
+            {
+                poolIdleTimeout = Integer.parseInt(poolIdleTimeoutOption.toString());
+            }
+
+            Object poolLeakThresholdOption = configurationProperties.get(JDBCConfigurationProperty.JDBC_POOL_LEAK_DETECTION_THRESHOLD.getName());
+
+            if (poolLeakThresholdOption != null)
+            {
+                poolLeakThreshold = Integer.parseInt(poolLeakThresholdOption.toString());
+            }
+
             Object driverManagerClassName = configurationProperties.get(JDBCConfigurationProperty.JDBC_DRIVER_MANAGER_CLASS_NAME.getName());
 
             if (driverManagerClassName != null)
@@ -159,6 +223,19 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
             }
         }
 
+        /*
+         * Connectors that use the same database with the same user share a connection pool.
+         */
+        connectionPool = JDBCConnectionPool.acquirePool(jdbcDatabaseName,
+                                                        jdbcDatabaseURL,
+                                                        connectionBean.getUserId(),
+                                                        connectionBean.getClearPassword(),
+                                                        poolMaxSize,
+                                                        poolMaxWait,
+                                                        poolIdleTimeout,
+                                                        poolLeakThreshold,
+                                                        auditLog);
+
         jdbcDataSource = new JDBCConnectorAsDataSource(jdbcDatabaseName, auditLog);
     }
 
@@ -177,7 +254,9 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     /**
      * Return the DataSource implementation for this database.
      * This supports creating the connection to the database.
-     * Notice that DataSources are created per thread.
+     * Each call to getConnection() takes a connection from the connection pool.  The caller must close the
+     * connection when it has finished with it to return it to the pool.  Work that is not committed before the
+     * connection is closed is rolled back.
      *
      * @return DataSource
      */
@@ -187,6 +266,22 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     }
 
 
+    /**
+     * Return the current state of the connection pool used by this connector.
+     *
+     * @return metrics or null if the connector is not started
+     */
+    public JDBCConnectionPoolMetrics getConnectionPoolMetrics()
+    {
+        if (connectionPool != null)
+        {
+            return connectionPool.getMetrics();
+        }
+
+        return null;
+    }
+
+
     /**
      * Issue the supplied DDL statements.
      *
@@ -242,6 +337,109 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     }
 
 
+    /**
+     * Issue a parameterized SQL command that expects no results.  The command is a template with a
+     * question mark placeholder for each parameter.  The prepared statement is cached for the connection
+     * so that repeated commands with the same template reuse it.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate command to issue
+     * @param parameters values for the placeholders in the order they appear in the template
+     * @throws PropertyServerException something went wrong
+     */
+    public void issueSQLCommand(java.sql.Connection jdbcConnection,
+                                String              sqlTemplate,
+                                List<JDBCDataValue> parameters) throws PropertyServerException
+    {
+        final String methodName = "issueSQLCommand";
+
+        try
+        {
+            log.debug(sqlTemplate);
+
+            PreparedStatement preparedStatement = this.getPreparedStatement(jdbcConnection, sqlTemplate, parameters);
+
+            preparedStatement.execute();
+
+            this.releasePreparedStatement(preparedStatement);
+        }
+        catch (SQLException sqlException)
+        {
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlTemplate,
+                                                                                                          methodName,
+                                                                                                          sqlException.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
+    }
+
+
+    /**
+     * Issue the same parameterized SQL command for each set of parameters as a single JDBC batch.  This sends the
+     * commands to the database together rather than making a round trip for each one.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate command to issue
+     * @param parameterSets list of values for the placeholders, one list per command
+     * @throws PropertyServerException something went wrong
+     */
+    public void issueSQLCommandBatch(java.sql.Connection       jdbcConnection,
+                                     String                    sqlTemplate,
+                                     List<List<JDBCDataValue>> parameterSets) throws PropertyServerException
+    {
+        final String methodName = "issueSQLCommandBatch";
+
+        if ((parameterSets == null) || (parameterSets.isEmpty()))
+        {
+            return;
+        }
+
+        if (parameterSets.size() == 1)
+        {
+            this.issueSQLCommand(jdbcConnection, sqlTemplate, parameterSets.get(0));
+            return;
+        }
+
+        try
+        {
+            log.debug(sqlTemplate + " (batch of " + parameterSets.size() + ")");
+
+            PreparedStatement preparedStatement = this.getPreparedStatement(jdbcConnection, sqlTemplate, null);
+
+            for (List<JDBCDataValue> parameters : parameterSets)
+            {
+                int parameterIndex = 1;
+
+                for (JDBCDataValue parameter : parameters)
+                {
+                    this.setParameter(preparedStatement, parameterIndex, parameter);
+                    parameterIndex++;
+                }
+
+                preparedStatement.addBatch();
+            }
+
+            preparedStatement.executeBatch();
+
+            this.releasePreparedStatement(preparedStatement);
+        }
+        catch (SQLException sqlException)
+        {
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlTemplate,
+                                                                                                          methodName,
+                                                                                                          sqlException.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
+    }
+
+
     /**
      * Issue a rollback on the connection when a SQL error occurs.
      *
@@ -473,6 +671,415 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     }
 
 
+    /**
+     * Retrieve the row that matches a parameterized where clause.  The where clause has a question mark
+     * placeholder for each parameter.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table to query
+     * @param whereClause condition describing how to match the desired columns
+     * @param parameters values for the placeholders in the order they appear in the where clause
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return row consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public Map<String, JDBCDataValue> getMatchingRow(java.sql.Connection  jdbcConnection,
+                                                     String               tableName,
+                                                     String               whereClause,
+                                                     List<JDBCDataValue>  parameters,
+                                                     Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        final String methodName = "getMatchingRow";
+
+        String sqlTemplate = "SELECT * FROM " + tableName + " WHERE " + whereClause;
+
+        try
+        {
+            log.debug(sqlTemplate);
+
+            PreparedStatement preparedStatement = this.getPreparedStatement(jdbcConnection, sqlTemplate, parameters);
+
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            Map<String, JDBCDataValue> results = this.getRowFromResultSet(resultSet, columnNameTypeMap);
+
+            resultSet.close();
+            this.releasePreparedStatement(preparedStatement);
+
+            return results;
+        }
+        catch (SQLException sqlException)
+        {
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlTemplate,
+                                                                                                          methodName,
+                                                                                                          sqlException.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
+    }
+
+
+    /**
+     * Retrieve the rows that match a parameterized where clause.  The where clause has a question mark
+     * placeholder for each parameter.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table to query
+     * @param whereClause condition describing how to match the desired columns
+     * @param parameters values for the placeholders in the order they appear in the where clause
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return list of rows consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public List<Map<String, JDBCDataValue>> getMatchingRows(java.sql.Connection  jdbcConnection,
+                                                            String               tableName,
+                                                            String               whereClause,
+                                                            List<JDBCDataValue>  parameters,
+                                                            Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        return this.getMatchingRows(jdbcConnection,
+                                    "SELECT * FROM " + tableName + " WHERE " + whereClause,
+                                    parameters,
+                                    columnNameTypeMap);
+    }
+
+
+    /**
+     * Retrieve the rows returned by a parameterized query.  The query is a template with a question mark
+     * placeholder for each parameter.  The prepared statement is cached for the connection so that repeated
+     * queries with the same template reuse it, along with any plan the database has built for it.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate query to issue
+     * @param parameters values for the placeholders in the order they appear in the template
+     * @param columnNameTypeMap map of resulting column names and values to include in the results
+     * @return list of rows consisting of column names to data values that represent the requested row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public List<Map<String, JDBCDataValue>> getMatchingRows(java.sql.Connection  jdbcConnection,
+                                                            String               sqlTemplate,
+                                                            List<JDBCDataValue>  parameters,
+                                                            Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        List<Map<String, JDBCDataValue>> results = new ArrayList<>();
+
+        try (JDBCRowCursor rowCursor = this.getRowCursor(jdbcConnection, sqlTemplate, parameters, 0))
+        {
+            while (rowCursor.next())
+            {
+                results.add(rowCursor.getRow(columnNameTypeMap));
+            }
+        }
+
+        if (! results.isEmpty())
+        {
+            return results;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Issue a parameterized query and return a cursor over the rows that it returns.  The rows are fetched from
+     * the database in batches of the fetch size as the cursor moves forward, so the caller can process large
+     * results without holding all the rows in memory.  The database only honours the fetch size when the
+     * connection is not in auto-commit mode.  The prepared statement is taken from the statement cache for
+     * the connection while the cursor is open, so queries issued while processing the rows (even with the same
+     * template) use their own statements.  The caller must close the cursor.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate query to issue
+     * @param parameters values for the placeholders in the order they appear in the template
+     * @param fetchSize number of rows to fetch from the database at a time (0 means the driver's default)
+     * @return cursor positioned before the first row
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public JDBCRowCursor getRowCursor(java.sql.Connection jdbcConnection,
+                                      String              sqlTemplate,
+                                      List<JDBCDataValue> parameters,
+                                      int                 fetchSize) throws PropertyServerException
+    {
+        final String methodName = "getRowCursor";
+
+        PreparedStatement preparedStatement = null;
+
+        try
+        {
+            log.debug(sqlTemplate);
+
+            preparedStatement = this.getPreparedStatement(jdbcConnection, sqlTemplate, parameters, true);
+            preparedStatement.setFetchSize(fetchSize);
+
+            ResultSet resultSet = preparedStatement.executeQuery();
+
+            return new JDBCRowCursor(this, jdbcConnection, sqlTemplate, preparedStatement, resultSet);
+        }
+        catch (SQLException sqlException)
+        {
+            if (preparedStatement != null)
+            {
+                try
+                {
+                    preparedStatement.close();
+                }
+                catch (SQLException closeError)
+                {
+                    // Ignore error - the original exception is reported.
+                }
+            }
+
+            throw this.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+        }
+    }
+
+
+    /**
+     * Issue a rollback after a SQL error and return the exception to report it to the caller.
+     *
+     * @param jdbcConnection connection with the error
+     * @param sqlCommand SQL that was issued
+     * @param methodName calling method
+     * @param sqlException original exception
+     * @return exception to throw
+     */
+    PropertyServerException getSQLException(java.sql.Connection jdbcConnection,
+                                            String              sqlCommand,
+                                            String              methodName,
+                                            SQLException        sqlException)
+    {
+        this.rollbackAfterException(jdbcConnection, sqlException);
+
+        return new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                       sqlCommand,
+                                                                                                       methodName,
+                                                                                                       sqlException.getMessage()),
+                                           this.getClass().getName(),
+                                           methodName,
+                                           sqlException);
+    }
+
+
+    /**
+     * Return a prepared statement for the SQL template with the parameters set.  If the statement cache is
+     * in use, the statement is retrieved from (or added to) the cache for the connection.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate SQL with question mark placeholders
+     * @param parameters values for the placeholders in the order they appear in the template (may be null)
+     * @return prepared statement ready to execute
+     * @throws SQLException problem preparing the statement or setting a parameter
+     */
+    private PreparedStatement getPreparedStatement(java.sql.Connection jdbcConnection,
+                                                   String              sqlTemplate,
+                                                   List<JDBCDataValue> parameters) throws SQLException
+    {
+        return this.getPreparedStatement(jdbcConnection, sqlTemplate, parameters, false);
+    }
+
+
+    /**
+     * Return a prepared statement for the SQL template with the parameters set.  If the statement cache is
+     * in use, the statement is retrieved from (or added to) the cache for the connection.  A statement that is
+     * checked out is removed from the cache until it is handed back with returnPreparedStatement.
+     *
+     * @param jdbcConnection connection to use
+     * @param sqlTemplate SQL with question mark placeholders
+     * @param parameters values for the placeholders in the order they appear in the template (may be null)
+     * @param checkOut should the statement be removed from the cache while it is in use?
+     * @return prepared statement ready to execute
+     * @throws SQLException problem preparing the statement or setting a parameter
+     */
+    private PreparedStatement getPreparedStatement(java.sql.Connection jdbcConnection,
+                                                   String              sqlTemplate,
+                                                   List<JDBCDataValue> parameters,
+                                                   boolean             checkOut) throws SQLException
+    {
+        PreparedStatement preparedStatement;
+
+        if (statementCacheSize > 0)
+        {
+            /*
+             * The connections handed out by the pool are handles to the connection to the database.  The cache is
+             * kept for the connection to the database so that it is reused each time the connection is taken from the pool.
+             */
+            Connection             physicalConnection = this.getPhysicalConnection(jdbcConnection);
+            PreparedStatementCache statementCache     = statementCaches.get(physicalConnection);
+
+            if (statementCache == null)
+            {
+                this.removeClosedConnectionCaches();
+
+                statementCache = new PreparedStatementCache(statementCacheSize);
+                statementCaches.put(physicalConnection, statementCache);
+            }
+
+            if (checkOut)
+            {
+                preparedStatement = statementCache.remove(sqlTemplate);
+            }
+            else
+            {
+                preparedStatement = statementCache.get(sqlTemplate);
+            }
+
+            if ((preparedStatement == null) || (preparedStatement.isClosed()))
+            {
+                preparedStatement = jdbcConnection.prepareStatement(sqlTemplate);
+
+                if (! checkOut)
+                {
+                    statementCache.put(sqlTemplate, preparedStatement);
+                }
+            }
+            else
+            {
+                preparedStatement.clearParameters();
+            }
+        }
+        else
+        {
+            preparedStatement = jdbcConnection.prepareStatement(sqlTemplate);
+        }
+
+        if (parameters != null)
+        {
+            int parameterIndex = 1;
+
+            for (JDBCDataValue parameter : parameters)
+            {
+                this.setParameter(preparedStatement, parameterIndex, parameter);
+                parameterIndex++;
+            }
+        }
+
+        return preparedStatement;
+    }
+
+
+    /**
+     * Return the connection to the database behind a connection handed out by the connection pool.
+     *
+     * @param jdbcConnection connection supplied by the caller
+     * @return connection to the database
+     */
+    private Connection getPhysicalConnection(java.sql.Connection jdbcConnection)
+    {
+        try
+        {
+            Connection physicalConnection = jdbcConnection.unwrap(Connection.class);
+
+            if (physicalConnection != null)
+            {
+                return physicalConnection;
+            }
+        }
+        catch (SQLException error)
+        {
+            // Not a wrapper - use the connection as supplied.
+        }
+
+        return jdbcConnection;
+    }
+
+
+    /**
+     * Set the value of one of the placeholders in a prepared statement.
+     *
+     * @param preparedStatement statement to update
+     * @param parameterIndex index of the placeholder (starting at 1)
+     * @param jdbcDataValue value and type
+     * @throws SQLException the value is not compatible with the type
+     */
+    private void setParameter(PreparedStatement preparedStatement,
+                              int               parameterIndex,
+                              JDBCDataValue     jdbcDataValue) throws SQLException
+    {
+        if (jdbcDataValue.getScaleOrLength() == 0)
+        {
+            preparedStatement.setObject(parameterIndex,
+                                        jdbcDataValue.getDataValue(),
+                                        jdbcDataValue.getTargetSQLType());
+        }
+        else
+        {
+            preparedStatement.setObject(parameterIndex,
+                                        jdbcDataValue.getDataValue(),
+                                        jdbcDataValue.getTargetSQLType(),
+                                        jdbcDataValue.getScaleOrLength());
+        }
+    }
+
+
+    /**
+     * Release a prepared statement returned by getPreparedStatement.  Cached statements stay open for reuse.
+     *
+     * @param preparedStatement statement that is no longer needed
+     * @throws SQLException problem closing the statement
+     */
+    private void releasePreparedStatement(PreparedStatement preparedStatement) throws SQLException
+    {
+        if (statementCacheSize <= 0)
+        {
+            preparedStatement.close();
+        }
+    }
+
+
+    /**
+     * Hand back a prepared statement that was checked out of the statement cache.  It is returned to the cache
+     * unless another statement for the same template has been cached while it was checked out, or the cache
+     * is not in use, in which case it is closed.
+     *
+     * @param jdbcConnection connection that the statement belongs to
+     * @param sqlTemplate SQL that the statement was prepared for
+     * @param preparedStatement statement that is no longer needed
+     * @throws SQLException problem closing the statement
+     */
+    void returnPreparedStatement(java.sql.Connection jdbcConnection,
+                                 String              sqlTemplate,
+                                 PreparedStatement   preparedStatement) throws SQLException
+    {
+        if ((statementCacheSize > 0) && (! preparedStatement.isClosed()))
+        {
+            PreparedStatementCache statementCache = statementCaches.get(this.getPhysicalConnection(jdbcConnection));
+
+            if ((statementCache != null) && (! statementCache.containsKey(sqlTemplate)))
+            {
+                preparedStatement.setFetchSize(0);
+                statementCache.put(sqlTemplate, preparedStatement);
+
+                return;
+            }
+        }
+
+        preparedStatement.close();
+    }
+
+
+    /**
+     * Remove the statement caches for connections that have been closed.  This is called when a new connection
+     * is seen, which is when the connection pool has replaced a connection.
+     */
+    private void removeClosedConnectionCaches()
+    {
+        statementCaches.keySet().removeIf(connection ->
+        {
+            try
+            {
+                return connection.isClosed();
+            }
+            catch (SQLException error)
+            {
+                return true;
+            }
+        });
+    }
+
+
     /**
      * Retrieve the number of rows in the table.
      *
@@ -800,29 +1407,12 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
         {
             log.debug(sqlCommand);
 
-            PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand);
-
-            int parameterIndex = 1;
-            for (String columnName : columnNameValueMap.keySet())
-            {
-                JDBCDataValue jdbcDataValue = columnNameValueMap.get(columnName);
-
-                if (jdbcDataValue.getScaleOrLength() == 0)
-                {
-                    preparedStatement.setObject(parameterIndex,
-                                                jdbcDataValue.getDataValue(),
-                                                jdbcDataValue.getTargetSQLType());
-                }
-                else
-                {
-                    preparedStatement.setObject(parameterIndex,
-                                                jdbcDataValue.getDataValue(),
-                                                jdbcDataValue.getTargetSQLType(),
-                                                jdbcDataValue.getScaleOrLength());
-                }
-
-                parameterIndex++;
-            }
+            /*
+             * The values are listed in the same order as the column names in the SQL command.
+             */
+            PreparedStatement preparedStatement = this.getPreparedStatement(jdbcConnection,
+                                                                            sqlCommand,
+                                                                            new ArrayList<>(columnNameValueMap.values()));
 
             int rowsInserted = preparedStatement.executeUpdate();
 
@@ -834,7 +1424,7 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                                                                                                           sqlCommand));
             }
 
-            preparedStatement.close();
+            this.releasePreparedStatement(preparedStatement);
         }
         catch (SQLException sqlException)
         {
@@ -851,7 +1441,9 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
 
     /**
-     * Prepare an INSERT SQL statement with all the columns for each of the new rows filled out.
+     * Insert each of the new rows into the table.  Rows with the same columns are inserted together using
+     * multi-row INSERT statements so that the rows are sent to the database in a few round trips rather than
+     * one per row.
      *
      * @param jdbcConnection connection to use
      * @param tableName name of the table where the row is to be added
@@ -862,13 +1454,122 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
                                     String                           tableName,
                                     List<Map<String, JDBCDataValue>> rows) throws PropertyServerException
     {
-        if (rows != null)
+        if ((rows == null) || (rows.isEmpty()))
         {
+            return;
+        }
+
+        if (rows.size() == 1)
+        {
+            this.insertRowIntoTable(jdbcConnection, tableName, rows.get(0));
+            return;
+        }
+
+        /*
+         * The mappers only include the columns that have values so the rows are grouped by their columns.
+         */
+        Map<String, List<Map<String, JDBCDataValue>>> rowsByColumns = new LinkedHashMap<>();
+
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            if (row != null)
+            {
+                rowsByColumns.computeIfAbsent(this.getColumnNames(row), columnNames -> new ArrayList<>()).add(row);
+            }
+        }
+
+        for (List<Map<String, JDBCDataValue>> rowsWithSameColumns : rowsByColumns.values())
+        {
+            List<String> columnNames = new ArrayList<>(rowsWithSameColumns.get(0).keySet());
+            int          rowsPerInsert = Math.max(1, Math.min(maxRowsPerInsert, maxParametersPerStatement / Math.max(1, columnNames.size())));
+
+            for (int startRow = 0; startRow < rowsWithSameColumns.size(); startRow = startRow + rowsPerInsert)
+            {
+                int endRow = Math.min(startRow + rowsPerInsert, rowsWithSameColumns.size());
+
+                this.insertRowGroupIntoTable(jdbcConnection,
+                                             tableName,
+                                             columnNames,
+                                             rowsWithSameColumns.subList(startRow, endRow));
+            }
+        }
+    }
+
+
+    /**
+     * Insert a group of rows that have the same columns into a table with a single multi-row INSERT statement.
+     * The statement is not cached because its text depends on the number of rows.
+     *
+     * @param jdbcConnection connection to use
+     * @param tableName name of the table where the rows are to be added
+     * @param columnNames names of the columns in each row
+     * @param rows rows to add
+     * @throws PropertyServerException problem executing the command
+     */
+    private void insertRowGroupIntoTable(java.sql.Connection              jdbcConnection,
+                                         String                           tableName,
+                                         List<String>                     columnNames,
+                                         List<Map<String, JDBCDataValue>> rows) throws PropertyServerException
+    {
+        final String methodName = "insertRowsIntoTable";
+
+        if (rows.size() == 1)
+        {
+            this.insertRowIntoTable(jdbcConnection, tableName, rows.get(0));
+            return;
+        }
+
+        StringBuilder sqlCommand   = new StringBuilder("INSERT INTO " + tableName + " (" + String.join(", ", columnNames) + ") values ");
+        String        placeholders = "(" + this.getPlaceholders(columnNames.size()) + ")";
+
+        for (int rowNumber = 0; rowNumber < rows.size(); rowNumber++)
+        {
+            if (rowNumber > 0)
+            {
+                sqlCommand.append(", ");
+            }
+
+            sqlCommand.append(placeholders);
+        }
+
+        sqlCommand.append(" ON CONFLICT DO NOTHING");
+
+        try (PreparedStatement preparedStatement = jdbcConnection.prepareStatement(sqlCommand.toString()))
+        {
+            log.debug(sqlCommand.toString());
+
+            int parameterIndex = 1;
+
             for (Map<String, JDBCDataValue> row : rows)
             {
-                insertRowIntoTable(jdbcConnection, tableName, row);
+                for (String columnName : columnNames)
+                {
+                    this.setParameter(preparedStatement, parameterIndex, row.get(columnName));
+                    parameterIndex++;
+                }
+            }
+
+            int rowsInserted = preparedStatement.executeUpdate();
+
+            if ((rowsInserted > rows.size()) && (auditLog != null))
+            {
+                auditLog.logMessage(methodName,
+                                    JDBCAuditCode.UNEXPECTED_ROW_COUNT_FROM_DATABASE.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          Integer.toString(rowsInserted),
+                                                                                                          sqlCommand.toString()));
             }
         }
+        catch (SQLException sqlException)
+        {
+            this.rollbackAfterException(jdbcConnection, sqlException);
+            throw new PropertyServerException(JDBCErrorCode.UNEXPECTED_SQL_EXCEPTION.getMessageDefinition(jdbcDatabaseName,
+                                                                                                          sqlCommand.toString(),
+                                                                                                          methodName,
+                                                                                                          sqlException.getMessage()),
+                                              this.getClass().getName(),
+                                              methodName,
+                                              sqlException);
+        }
     }
 
 
@@ -967,6 +1668,13 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
      */
     private synchronized void disconnectKnownDataSources()
     {
+        for (PreparedStatementCache statementCache : statementCaches.values())
+        {
+            statementCache.closeStatements();
+        }
+
+        statementCaches.clear();
+
         try
         {
             jdbcDataSource.disconnect();
@@ -980,6 +1688,78 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
     }
 
 
+    /**
+     * PreparedStatementCache holds the prepared statements for a single JDBC connection, keyed by their SQL text.
+     * It is only used by the thread that owns the connection.  When it is full, the least recently used statement
+     * is closed and removed.
+     */
+    static class PreparedStatementCache extends LinkedHashMap<String, PreparedStatement>
+    {
+        private final int maxStatements;
+
+
+        /**
+         * Create an empty cache.
+         *
+         * @param maxStatements maximum number of statements to keep open
+         */
+        PreparedStatementCache(int maxStatements)
+        {
+            super(16, 0.75f, true);
+
+            this.maxStatements = maxStatements;
+        }
+
+
+        /**
+         * Close the least recently used statement when the cache is full.
+         *
+         * @param eldest least recently used entry
+         * @return true if the entry is to be removed
+         */
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest)
+        {
+            if (size() > maxStatements)
+            {
+                try
+                {
+                    eldest.getValue().close();
+                }
+                catch (SQLException error)
+                {
+                    // Ignore error - the statement is no longer needed.
+                }
+
+                return true;
+            }
+
+            return false;
+        }
+
+
+        /**
+         * Close all the statements in the cache.
+         */
+        void closeStatements()
+        {
+            for (PreparedStatement preparedStatement : this.values())
+            {
+                try
+                {
+                    preparedStatement.close();
+                }
+                catch (SQLException error)
+                {
+                    // Ignore error - in shutdown and the connection may be closed already.
+                }
+            }
+
+            this.clear();
+        }
+    }
+
+
     /**
      * JDBCConnectorAsDataSource provides the inner class for DataSource.
      */
@@ -988,8 +1768,6 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
         private final String   databaseName;
         private final AuditLog auditLog;
 
-        private final Map<Long, Connection> knownConnections = new HashMap<>();
-
 
         /**
          * Construct the data source wrapper.
@@ -1006,53 +1784,22 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
 
         /**
-         * Attempts to establish a connection with the data source that this DataSource object represents.
+         * Take a connection from the connection pool.  The connection is returned to the pool when it is closed.
          *
          * @return a JDBC connection to the data source
-         * @throws SQLException if a database access error occurs
+         * @throws SQLException if a database access error occurs or no connection is free within the maximum wait time
          */
         @Override
-        public synchronized Connection getConnection() throws SQLException
+        public Connection getConnection() throws SQLException
         {
             final String methodName = "dataSource.getConnection";
 
-            Connection jdbcConnection = null;
             try
             {
-                jdbcConnection = this.knownConnections.get(Thread.currentThread().getId());
-
-                if ((jdbcConnection == null) || (jdbcConnection.isClosed()))
-                {
-                    if ((connectionBean.getUserId() == null) || (connectionBean.getClearPassword() == null))
-                    {
-                        jdbcConnection = DriverManager.getConnection(connectionBean.getEndpoint().getNetworkAddress());
-                    }
-                    else
-                    {
-                        jdbcConnection = DriverManager.getConnection(connectionBean.getEndpoint().getNetworkAddress(),
-                                                                     connectionBean.getUserId(),
-                                                                     connectionBean.getClearPassword());
-                    }
-
-                    jdbcConnection.setAutoCommit(false);
-
-                    this.knownConnections.put(Thread.currentThread().getId(), jdbcConnection);
-
-                    if (auditLog != null)
-                    {
-                        auditLog.logMessage(methodName, JDBCAuditCode.CONNECTOR_CONNECTED_TO_DATABASE.getMessageDefinition(databaseName, Long.toString(Thread.currentThread().getId()), Thread.currentThread().getName()));
-                    }
-                }
-
-                return jdbcConnection;
+                return connectionPool.getConnection();
             }
             catch (SQLException error)
             {
-                if (jdbcConnection != null)
-                {
-                    rollbackAfterException(jdbcConnection, error);
-                }
-
                 if (auditLog != null)
                 {
                     auditLog.logException(methodName,
@@ -1236,34 +1983,31 @@ public class JDBCResourceConnector extends ConnectorBase implements AuditLogging
 
 
         /**
-         * Free up any connections held since the data source is no longer needed.
+         * Release the connection pool since the data source is no longer needed.  The pool closes its
+         * connections when no other connector is using it.
          */
         public  void disconnect()
         {
             final String methodName = "disconnect";
 
-            if (auditLog != null)
+            if (connectionPool != null)
             {
-                String numberOfConnections = "zero";
-
-                if (! knownConnections.isEmpty())
+                if (auditLog != null)
                 {
-                    numberOfConnections = Integer.toString(knownConnections.size());
-                }
+                    JDBCConnectionPoolMetrics metrics             = connectionPool.getMetrics();
+                    int                       openConnections     = metrics.getActiveConnections() + metrics.getIdleConnections();
+                    String                    numberOfConnections = "zero";
 
-                auditLog.logMessage(methodName, JDBCAuditCode.CONNECTOR_STOPPING.getMessageDefinition(jdbcDatabaseName, numberOfConnections));
-            }
+                    if (openConnections > 0)
+                    {
+                        numberOfConnections = Integer.toString(openConnections);
+                    }
 
-            for (Connection connection : this.knownConnections.values())
-            {
-                try
-                {
-                    connection.close();
-                }
-                catch (Exception error)
-                {
-                    // Ignore error - in shutdown and the connection may be in error already.
+                    auditLog.logMessage(methodName, JDBCAuditCode.CONNECTOR_STOPPING.getMessageDefinition(jdbcDatabaseName, numberOfConnections));
                 }
+
+                connectionPool.release();
+                connectionPool = null;
             }
         }
     }
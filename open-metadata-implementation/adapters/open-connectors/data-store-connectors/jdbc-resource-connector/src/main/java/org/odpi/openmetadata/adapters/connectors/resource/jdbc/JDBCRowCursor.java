@@ -0,0 +1,329 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * JDBCRowCursor steps forward through the rows returned by a query without holding them in memory.  The rows
+ * are fetched from the database in batches of the fetch size requested when the cursor was created.  The cursor
+ * is also the view of the current row: the column values are read from it by column index, or by column name,
+ * and are only decoded when they are requested.  A row can be copied into a column map with getRow if it needs
+ * to outlive the move to the next row.
+ * <br><br>
+ * The cursor holds the prepared statement for the query until it is closed, so it must be closed by the
+ * caller, typically with a try-with-resources block.  Like the JDBC connection it was created from, it is
+ * single threaded.
+ */
+public class JDBCRowCursor implements AutoCloseable
+{
+    private final JDBCResourceConnector jdbcResourceConnector;
+    private final Connection            jdbcConnection;
+    private final String                sqlTemplate;
+    private final PreparedStatement     preparedStatement;
+    private final ResultSet             resultSet;
+
+    private Map<String, Integer> columnIndexes = null;
+    private boolean              closed        = false;
+
+
+    /**
+     * Constructor is called by the JDBCResourceConnector once the query has been executed.
+     *
+     * @param jdbcResourceConnector connector that issued the query
+     * @param jdbcConnection connection used for the query
+     * @param sqlTemplate query that was issued
+     * @param preparedStatement statement that was executed
+     * @param resultSet results of the query
+     */
+    JDBCRowCursor(JDBCResourceConnector jdbcResourceConnector,
+                  Connection            jdbcConnection,
+                  String                sqlTemplate,
+                  PreparedStatement     preparedStatement,
+                  ResultSet             resultSet)
+    {
+        this.jdbcResourceConnector = jdbcResourceConnector;
+        this.jdbcConnection        = jdbcConnection;
+        this.sqlTemplate           = sqlTemplate;
+        this.preparedStatement     = preparedStatement;
+        this.resultSet             = resultSet;
+    }
+
+
+    /**
+     * Move to the next row.
+     *
+     * @return true if there is another row; false if all the rows have been read
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public boolean next() throws PropertyServerException
+    {
+        final String methodName = "next";
+
+        try
+        {
+            return resultSet.next();
+        }
+        catch (SQLException sqlException)
+        {
+            throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+        }
+    }
+
+
+    /**
+     * Return the index of the named column in the results.  The indexes are looked up once for the
+     * cursor so that callers can read the columns of each row by index.
+     *
+     * @param columnName name of the column
+     * @return index of the column (starting at 1) or 0 if the column is not in the results
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public int getColumnIndex(String columnName) throws PropertyServerException
+    {
+        final String methodName = "getColumnIndex";
+
+        if (columnIndexes == null)
+        {
+            try
+            {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+
+                columnIndexes = new HashMap<>();
+
+                /*
+                 * The first occurrence of a column name is used, as it is with ResultSet.findColumn.
+                 */
+                for (int columnIndex = metaData.getColumnCount(); columnIndex > 0; columnIndex--)
+                {
+                    columnIndexes.put(metaData.getColumnLabel(columnIndex).toLowerCase(), columnIndex);
+                }
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+
+        Integer columnIndex = columnIndexes.get(columnName.toLowerCase());
+
+        if (columnIndex != null)
+        {
+            return columnIndex;
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Return the value of a column in the current row as a string.
+     *
+     * @param columnIndex index of the column
+     * @return value or null if the value is null or the column is not in the results
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public String getString(int columnIndex) throws PropertyServerException
+    {
+        final String methodName = "getString";
+
+        if (columnIndex > 0)
+        {
+            try
+            {
+                return resultSet.getString(columnIndex);
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the value of a numeric column in the current row as a long.
+     *
+     * @param columnIndex index of the column
+     * @return value or null if the value is null or the column is not in the results
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public Long getLong(int columnIndex) throws PropertyServerException
+    {
+        final String methodName = "getLong";
+
+        if (columnIndex > 0)
+        {
+            try
+            {
+                long value = resultSet.getLong(columnIndex);
+
+                if (! resultSet.wasNull())
+                {
+                    return value;
+                }
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the value of a timestamp column in the current row.
+     *
+     * @param columnIndex index of the column
+     * @return value or null if the value is null or the column is not in the results
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public Date getDate(int columnIndex) throws PropertyServerException
+    {
+        final String methodName = "getDate";
+
+        if (columnIndex > 0)
+        {
+            try
+            {
+                return resultSet.getTimestamp(columnIndex);
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the value of a column in the current row, decoded for its SQL type in the same way as the
+     * column maps returned by the JDBCResourceConnector.
+     *
+     * @param columnIndex index of the column
+     * @param sqlType SQL type of the column from java.sql.Types
+     * @return value or null if the value is null, the type is not supported or the column is not in the results
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public JDBCDataValue getDataValue(int columnIndex,
+                                      int sqlType) throws PropertyServerException
+    {
+        final String methodName = "getDataValue";
+
+        if (columnIndex > 0)
+        {
+            try
+            {
+                JDBCDataValue dataValue = switch (sqlType)
+                {
+                    case Types.VARCHAR   -> new JDBCDataValue(resultSet.getString(columnIndex), sqlType);
+                    case Types.ARRAY     -> new JDBCDataValue(resultSet.getArray(columnIndex), sqlType);
+                    case Types.BOOLEAN   -> new JDBCDataValue(resultSet.getBoolean(columnIndex), sqlType);
+                    case Types.DATE      -> new JDBCDataValue(resultSet.getDate(columnIndex), sqlType);
+                    case Types.INTEGER,
+                            Types.NUMERIC -> new JDBCDataValue(resultSet.getInt(columnIndex), sqlType);
+                    case Types.TIMESTAMP -> new JDBCDataValue(resultSet.getTimestamp(columnIndex), sqlType);
+                    case Types.BIGINT    -> new JDBCDataValue(resultSet.getBigDecimal(columnIndex), sqlType);
+                    default              -> null;
+                };
+
+                if ((dataValue != null) && (dataValue.getDataValue() != null))
+                {
+                    return dataValue;
+                }
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Copy the current row into a map of column names to values.  Only the requested columns that have a
+     * value are included.
+     *
+     * @param columnNameTypeMap map of column names to SQL types for the columns to include
+     * @return row consisting of column names to data values
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    public Map<String, JDBCDataValue> getRow(Map<String, Integer> columnNameTypeMap) throws PropertyServerException
+    {
+        Map<String, JDBCDataValue> row = new HashMap<>();
+
+        for (Map.Entry<String, Integer> columnNameType : columnNameTypeMap.entrySet())
+        {
+            JDBCDataValue dataValue = this.getDataValue(this.getColumnIndex(columnNameType.getKey()), columnNameType.getValue());
+
+            if (dataValue != null)
+            {
+                row.put(columnNameType.getKey(), dataValue);
+            }
+        }
+
+        return row;
+    }
+
+
+    /**
+     * Close the results and hand the prepared statement back to the JDBCResourceConnector.
+     *
+     * @throws PropertyServerException there was a problem calling the database
+     */
+    @Override
+    public void close() throws PropertyServerException
+    {
+        final String methodName = "close";
+
+        if (! closed)
+        {
+            closed = true;
+
+            try
+            {
+                resultSet.close();
+                jdbcResourceConnector.returnPreparedStatement(jdbcConnection, sqlTemplate, preparedStatement);
+            }
+            catch (SQLException sqlException)
+            {
+                throw jdbcResourceConnector.getSQLException(jdbcConnection, sqlTemplate, methodName, sqlException);
+            }
+        }
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "JDBCRowCursor{" +
+                "sqlTemplate='" + sqlTemplate + '\'' +
+                ", closed=" + closed +
+                '}';
+    }
+}
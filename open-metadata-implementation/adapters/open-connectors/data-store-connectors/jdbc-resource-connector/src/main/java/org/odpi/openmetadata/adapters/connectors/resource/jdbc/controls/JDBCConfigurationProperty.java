@@ -54,6 +54,37 @@ public enum JDBCConfigurationProperty
      */
     JDBC_CONNECTION_TIMEOUT("jdbcConnectionTimeout", "Sets the maximum time in seconds that this data source will wait while attempting to connect to a database. The default value is 0 which means use the system default timeout, if any; otherwise it means no timeout.", DataType.INT.getDisplayName(), "10"),
 
+    /**
+     * Sets the maximum number of prepared statements kept open for each JDBC connection so that parameterized
+     * queries with the same SQL text reuse the statement (and the plan the database built for it).
+     * The default value is 100.  A value of 0 turns the cache off.
+     */
+    JDBC_STATEMENT_CACHE_SIZE("jdbcStatementCacheSize", "Sets the maximum number of prepared statements kept open for each JDBC connection so that parameterized queries with the same SQL text reuse the statement (and the plan the database built for it). The default value is 100.  A value of 0 turns the cache off.", DataType.INT.getDisplayName(), "100"),
+
+    /**
+     * Sets the maximum number of connections to the database that are held in the connection pool.
+     * Requests for a connection when all of them are in use wait for one to be returned.  The default value is 10.
+     */
+    JDBC_POOL_MAX_SIZE("jdbcPoolMaxSize", "Sets the maximum number of connections to the database that are held in the connection pool. Requests for a connection when all of them are in use wait for one to be returned.  The default value is 10.", DataType.INT.getDisplayName(), "10"),
+
+    /**
+     * Sets the maximum time in seconds that a request waits for a connection to be returned to a full connection pool
+     * before it fails.  The default value is 30.
+     */
+    JDBC_POOL_MAX_WAIT("jdbcPoolMaxWait", "Sets the maximum time in seconds that a request waits for a connection to be returned to a full connection pool before it fails.  The default value is 30.", DataType.INT.getDisplayName(), "30"),
+
+    /**
+     * Sets the time in seconds that a connection can stay unused in the connection pool before it is closed.
+     * The default value is 600.  A value of 0 means idle connections are kept open.
+     */
+    JDBC_POOL_IDLE_TIMEOUT("jdbcPoolIdleTimeout", "Sets the time in seconds that a connection can stay unused in the connection pool before it is closed. The default value is 600.  A value of 0 means idle connections are kept open.", DataType.INT.getDisplayName(), "600"),
+
+    /**
+     * Sets the time in seconds that a connection can be in use before the connector logs a message that it may
+     * have been leaked (not closed by the code that took it from the pool).  The default value is 60.  A value of 0 turns leak detection off.
+     */
+    JDBC_POOL_LEAK_DETECTION_THRESHOLD("jdbcPoolLeakDetectionThreshold", "Sets the time in seconds that a connection can be in use before the connector logs a message that it may have been leaked (not closed by the code that took it from the pool).  The stack of the code that takes each connection is recorded while leak detection is on, so it is best used while investigating a leak.  The default value is 0, which turns leak detection off.", DataType.INT.getDisplayName(), "0"),
+
 
     ;
 
@@ -0,0 +1,61 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres;
+
+import java.util.List;
+
+/**
+ * Defines an index on one of the tables in a database schema.  The index may be on columns or on expressions
+ * over the columns, and may use any of PostgreSQL's index access methods.
+ */
+public interface PostgreSQLIndex
+{
+    /**
+     * Return the name of the index.
+     *
+     * @return name
+     */
+    String getIndexName();
+
+
+    /**
+     * Return the name of the table that the index is defined on.
+     *
+     * @return name
+     */
+    String getTableName();
+
+
+    /**
+     * Return the optional description of the index.
+     *
+     * @return text
+     */
+    String getIndexDescription();
+
+
+    /**
+     * Return the index access method, such as btree or gin.
+     *
+     * @return name of access method
+     */
+    String getIndexMethod();
+
+
+    /**
+     * Return the columns or expressions that are indexed, in order.  Each entry may include an operator class,
+     * for example "property_value gin_trgm_ops".
+     *
+     * @return list of column names or expressions
+     */
+    List<String> getIndexedExpressions();
+
+
+    /**
+     * Return the name of the PostgreSQL extension that supplies the operator class used by the index.
+     *
+     * @return name of extension or null if the index only uses built-in operator classes
+     */
+    String getRequiredExtension();
+}
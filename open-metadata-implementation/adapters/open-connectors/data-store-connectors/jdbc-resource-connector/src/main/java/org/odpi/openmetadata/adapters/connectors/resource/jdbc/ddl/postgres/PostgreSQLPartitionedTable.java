@@ -0,0 +1,47 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres;
+
+/**
+ * Defines a table that is range partitioned on one of its columns.  The table is created with a default
+ * partition that holds the rows that do not fall into any of the other partitions, including the rows where
+ * the partition column is null.  The range partitions are added and detached by the owner of the schema.
+ * PostgreSQL does not allow a primary key that leaves out the partition column, so the table has a unique index
+ * over the primary keys and the partition column instead.  This index only stops two rows having the same primary
+ * keys if they also have the same value in the partition column.
+ */
+public interface PostgreSQLPartitionedTable extends PostgreSQLTable
+{
+    /**
+     * Return the column that the table is partitioned on.
+     *
+     * @return column
+     */
+    PostgreSQLColumn getPartitionColumn();
+
+
+    /**
+     * Return the name of the default partition.
+     *
+     * @return name
+     */
+    default String getDefaultPartitionName()
+    {
+        return getTableName() + "_default";
+    }
+
+
+    /**
+     * Return whether the default partition only holds the rows where the partition column is null.  If it does,
+     * the default partition is created with a check constraint that says so.  PostgreSQL then knows that none
+     * of the rows in the default partition belong in a new range partition, and does not need to scan the
+     * default partition when the range partition is added.
+     *
+     * @return boolean
+     */
+    default boolean isDefaultPartitionForNulls()
+    {
+        return false;
+    }
+}
@@ -9,17 +9,45 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterExcept
 import java.util.*;
 
 /**
- * Builds up the definition of a schema, its tables, columns, primary keys, foreign keys and comments.
+ * Builds up the definition of a schema, its tables, columns, primary keys, foreign keys, indexes and comments.
  */
 public class PostgreSQLSchemaDDL
 {
     private final String                schemaName;
     private final String                schemaDescription;
     private final List<PostgreSQLTable> tables;
+    private final List<PostgreSQLIndex> indexes;
 
+
+    /**
+     * Constructor for a schema without additional indexes.
+     *
+     * @param schemaName name of the schema
+     * @param schemaDescription description of the schema
+     * @param tables list of tables in the schema
+     * @throws InvalidParameterException the schema name is null
+     */
     public PostgreSQLSchemaDDL(String                schemaName,
                                String                schemaDescription,
                                List<PostgreSQLTable> tables) throws InvalidParameterException
+    {
+        this(schemaName, schemaDescription, tables, null);
+    }
+
+
+    /**
+     * Constructor for a schema with indexes.
+     *
+     * @param schemaName name of the schema
+     * @param schemaDescription description of the schema
+     * @param tables list of tables in the schema
+     * @param indexes list of indexes on the tables (maybe null)
+     * @throws InvalidParameterException the schema name is null
+     */
+    public PostgreSQLSchemaDDL(String                schemaName,
+                               String                schemaDescription,
+                               List<PostgreSQLTable> tables,
+                               List<PostgreSQLIndex> indexes) throws InvalidParameterException
     {
         if (schemaName == null)
         {
@@ -35,6 +63,7 @@ public class PostgreSQLSchemaDDL
         this.schemaName        = schemaName;
         this.schemaDescription = schemaDescription;
         this.tables            = tables;
+        this.indexes           = indexes;
     }
 
 
@@ -65,12 +94,19 @@ public class PostgreSQLSchemaDDL
                     /*
                      * Define the table and its columns
                      */
-                    ddlStatements.add("create table if not exists " +
-                                              table.getTableName() + "(" +
-                                              this.getColumnsDDL(table.getTableName(),
-                                                                 table.getPrimaryKeys(),
-                                                                 table.getDataColumns(),
-                                                                 table.getForeignKeys()) + ");");
+                    if (table instanceof PostgreSQLPartitionedTable partitionedTable)
+                    {
+                        ddlStatements.addAll(this.getPartitionedTableDDL(partitionedTable));
+                    }
+                    else
+                    {
+                        ddlStatements.add("create table if not exists " +
+                                                  table.getTableName() + "(" +
+                                                  this.getColumnsDDL(table.getTableName(),
+                                                                     table.getPrimaryKeys(),
+                                                                     table.getDataColumns(),
+                                                                     table.getForeignKeys()) + ");");
+                    }
 
                     if (table.getNewColumns() != null)
                     {
@@ -98,6 +134,132 @@ public class PostgreSQLSchemaDDL
             }
         }
 
+        ddlStatements.addAll(this.getIndexDDLStatements());
+
+        return ddlStatements;
+    }
+
+
+    /**
+     * Returns the list of DDL statements to define the indexes.  Any extensions needed by the indexes are
+     * created first.  The statements can be issued on their own to add indexes to an existing schema.
+     *
+     * @return list of statements
+     */
+    public List<String> getIndexDDLStatements()
+    {
+        List<String> ddlStatements = new ArrayList<>();
+
+        if (indexes != null)
+        {
+            Set<String> extensions = new HashSet<>();
+
+            for (PostgreSQLIndex index : indexes)
+            {
+                if ((index != null) && (index.getRequiredExtension() != null) && (extensions.add(index.getRequiredExtension())))
+                {
+                    ddlStatements.add("create extension if not exists " + index.getRequiredExtension() + ";");
+                }
+            }
+
+            for (PostgreSQLIndex index : indexes)
+            {
+                if (index != null)
+                {
+                    ddlStatements.add("create index if not exists " + index.getIndexName() +
+                                              " on " + index.getTableName() +
+                                              " using " + index.getIndexMethod() +
+                                              " (" + String.join(", ", index.getIndexedExpressions()) + ");");
+
+                    if (index.getIndexDescription() != null)
+                    {
+                        ddlStatements.add(getComment("index",
+                                                     index.getIndexName(),
+                                                     index.getIndexDescription()));
+                    }
+                }
+            }
+        }
+
+        return ddlStatements;
+    }
+
+
+    /**
+     * Return the DDL for a range partitioned table.  The new columns are included in the table definition
+     * because the partition column must exist when the table is created.  The primary keys are enforced by a
+     * unique index that includes the partition column.  Null values are treated as equal in this index
+     * (PostgreSQL 15 or later) so that rows with no value in the partition column still have unique keys.
+     * Rows with different values in the partition column are not checked against each other.
+     *
+     * @param table partitioned table
+     * @return list of statements
+     */
+    private List<String> getPartitionedTableDDL(PostgreSQLPartitionedTable table)
+    {
+        List<String> ddlStatements = new ArrayList<>();
+
+        List<PostgreSQLColumn> dataColumns = new ArrayList<>();
+
+        if (table.getDataColumns() != null)
+        {
+            dataColumns.addAll(table.getDataColumns());
+        }
+
+        if (table.getNewColumns() != null)
+        {
+            for (PostgreSQLColumn newColumn : table.getNewColumns())
+            {
+                if (! dataColumns.contains(newColumn))
+                {
+                    dataColumns.add(newColumn);
+                }
+            }
+        }
+
+        String partitionColumnName = table.getPartitionColumn().getColumnName();
+
+        ddlStatements.add("create table if not exists " +
+                                  table.getTableName() + "(" +
+                                  this.getColumnsDDL(table.getTableName(),
+                                                     table.getPrimaryKeys(),
+                                                     dataColumns,
+                                                     table.getForeignKeys(),
+                                                     false) +
+                                  ") partition by range (" + partitionColumnName + ");");
+
+        if (table.getPrimaryKeys() != null)
+        {
+            List<String> keyColumnNames = new ArrayList<>();
+
+            for (PostgreSQLColumn primaryKey : table.getPrimaryKeys())
+            {
+                if (primaryKey != null)
+                {
+                    keyColumnNames.add(primaryKey.getColumnName());
+                }
+            }
+
+            keyColumnNames.add(partitionColumnName);
+
+            ddlStatements.add("create unique index if not exists " + table.getTableName() + "_pk" +
+                                      " on " + table.getTableName() +
+                                      " (" + String.join(", ", keyColumnNames) + ") nulls not distinct;");
+        }
+
+        if (table.isDefaultPartitionForNulls())
+        {
+            ddlStatements.add("create table if not exists " + table.getDefaultPartitionName() +
+                                      " partition of " + table.getTableName() +
+                                      " (constraint " + table.getDefaultPartitionName() + "_nulls check (" + partitionColumnName + " is null))" +
+                                      " default;");
+        }
+        else
+        {
+            ddlStatements.add("create table if not exists " + table.getDefaultPartitionName() +
+                                      " partition of " + table.getTableName() + " default;");
+        }
+
         return ddlStatements;
     }
 
@@ -135,6 +297,27 @@ public class PostgreSQLSchemaDDL
                                  List<PostgreSQLColumn>     primaryKeys,
                                  List<PostgreSQLColumn>     dataColumns,
                                  List<PostgreSQLForeignKey> foreignKeys)
+    {
+        return getColumnsDDL(tableName, primaryKeys, dataColumns, foreignKeys, true);
+    }
+
+
+    /**
+     * Return the DDL for all the columns in a table with the constraints for foreign keys and, optionally,
+     * primary keys.
+     *
+     * @param tableName name of table
+     * @param primaryKeys list of columns that are the primary keys (maybe null)
+     * @param dataColumns list of non-primary key columns (maybe null)
+     * @param foreignKeys this of foreign key constraints for any column listed above (maybe null)
+     * @param primaryKeyConstraint should the primary keys constraint be added?
+     * @return string
+     */
+    private String getColumnsDDL(String                     tableName,
+                                 List<PostgreSQLColumn>     primaryKeys,
+                                 List<PostgreSQLColumn>     dataColumns,
+                                 List<PostgreSQLForeignKey> foreignKeys,
+                                 boolean                    primaryKeyConstraint)
     {
         Map<String, PostgreSQLForeignKey> foreignKeyMap = new HashMap<>();
 
@@ -158,9 +341,14 @@ public class PostgreSQLSchemaDDL
             firstColumn = false;
         }
 
-        return  columnDefinitions +
-                getColumnsDDL(dataColumns, foreignKeyMap, firstColumn) +
-                addPrimaryKeysConstraint(tableName, primaryKeys);
+        columnDefinitions = columnDefinitions + getColumnsDDL(dataColumns, foreignKeyMap, firstColumn);
+
+        if (primaryKeyConstraint)
+        {
+            return columnDefinitions + addPrimaryKeysConstraint(tableName, primaryKeys);
+        }
+
+        return columnDefinitions;
     }
 
 
@@ -57,6 +57,33 @@ public enum JDBCAuditCode implements AuditLogMessageSet
                            "The connector is attempting to clean up the connection after an error.",
                            "Diagnose and fix the cause of the original exception.  Check that subsequent requests execute successfully."),
 
+    /**
+     * JDBC-RESOURCE-CONNECTOR-0005 - The JDBC resource connector for database {0} has detected that a connection taken from its connection pool by thread {2} ({1}) has not been returned after {3} milliseconds
+     */
+    CONNECTION_LEAK_SUSPECTED("JDBC-RESOURCE-CONNECTOR-0005",
+                              AuditLogRecordSeverityLevel.ERROR,
+                              "The JDBC resource connector for database {0} has detected that a connection taken from its connection pool by thread {2} ({1}) has not been returned after {3} milliseconds",
+                              "The connection is still counted as in use and so the pool has fewer connections to hand out to other requests.  The stack trace of the code that took the connection is included with this message.",
+                              "Check the code that took the connection to ensure it closes the connection when it has finished with it.  If the request is legitimately long-running, increase the jdbcPoolLeakDetectionThreshold configuration property."),
+
+    /**
+     * JDBC-RESOURCE-CONNECTOR-0006 - The JDBC resource connector for database {0} has created a connection pool for up to {1} connections; idle connections are closed after {2} seconds and requests wait up to {3} seconds for a free connection
+     */
+    CONNECTION_POOL_STARTED("JDBC-RESOURCE-CONNECTOR-0006",
+                            AuditLogRecordSeverityLevel.INFO,
+                            "The JDBC resource connector for database {0} has created a connection pool for up to {1} connections; idle connections are closed after {2} seconds and requests wait up to {3} seconds for a free connection",
+                            "Connections are opened as they are needed, up to the maximum size of the pool.  Connections returned to the pool are reused by later requests.",
+                            "No specific action is required.  The pool is configured with the jdbcPoolMaxSize, jdbcPoolIdleTimeout and jdbcPoolMaxWait configuration properties."),
+
+    /**
+     * JDBC-RESOURCE-CONNECTOR-0007 - The JDBC resource connector for database {0} is using an existing connection pool for up to {1} connections that was created by another connector with the same settings
+     */
+    CONNECTION_POOL_SHARED("JDBC-RESOURCE-CONNECTOR-0007",
+                           AuditLogRecordSeverityLevel.INFO,
+                           "The JDBC resource connector for database {0} is using an existing connection pool for up to {1} connections that was created by another connector with the same settings",
+                           "The connections in the pool are shared by the connectors that use it.  Messages about the pool, such as suspected connection leaks, are logged by the connector that created it.",
+                           "No specific action is required.  A connector with a different database URL, user, password or pool settings uses its own pool."),
+
     /**
      * JDBC-RESOURCE-CONNECTOR-0009 - JDBC resource connector is closing all {0} connection(s) to database {1} and is shutting down
      */
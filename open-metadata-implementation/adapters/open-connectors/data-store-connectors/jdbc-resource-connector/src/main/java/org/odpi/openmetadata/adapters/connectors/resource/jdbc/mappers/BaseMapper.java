@@ -7,9 +7,11 @@ package org.odpi.openmetadata.adapters.connectors.resource.jdbc.mappers;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCRowCursor;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ffdc.JDBCErrorCode;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.ColumnType;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
 import java.io.Serializable;
@@ -365,6 +367,142 @@ public class BaseMapper
     }
 
 
+    /**
+     * Retrieve a string value from a specific column of the current row of a cursor.
+     *
+     * @param columnName name of column to interrogate
+     * @param rowCursor cursor positioned on a row from the database
+     * @param isRequired is this value required
+     * @return string value
+     * @throws RepositoryErrorException missing value or problem reading the row
+     */
+    public String getStringPropertyFromColumn(String        columnName,
+                                              JDBCRowCursor rowCursor,
+                                              boolean       isRequired) throws RepositoryErrorException
+    {
+        final String methodName = "getStringPropertyFromColumn";
+
+        try
+        {
+            String newValue = rowCursor.getString(rowCursor.getColumnIndex(columnName));
+
+            if ((isRequired) && (newValue == null))
+            {
+                throw new RepositoryErrorException(JDBCErrorCode.MISSING_DATABASE_VALUE.getMessageDefinition(columnName,
+                                                                                                             methodName,
+                                                                                                             this.getClass().getName()),
+                                                   this.getClass().getName(),
+                                                   methodName);
+            }
+
+            return newValue;
+        }
+        catch (PropertyServerException error)
+        {
+            throw this.getCursorException(error, methodName);
+        }
+    }
+
+
+    /**
+     * Retrieve a date value from a specific column of the current row of a cursor.
+     *
+     * @param columnName name of column to interrogate
+     * @param rowCursor cursor positioned on a row from the database
+     * @param isRequired is this value required
+     * @return date value
+     * @throws RepositoryErrorException missing value or problem reading the row
+     */
+    public Date getDatePropertyFromColumn(String        columnName,
+                                          JDBCRowCursor rowCursor,
+                                          boolean       isRequired) throws RepositoryErrorException
+    {
+        final String methodName = "getDatePropertyFromColumn";
+
+        try
+        {
+            Date newValue = rowCursor.getDate(rowCursor.getColumnIndex(columnName));
+
+            if ((isRequired) && (newValue == null))
+            {
+                throw new RepositoryErrorException(JDBCErrorCode.MISSING_DATABASE_VALUE.getMessageDefinition(columnName,
+                                                                                                             methodName,
+                                                                                                             this.getClass().getName()),
+                                                   this.getClass().getName(),
+                                                   methodName);
+            }
+
+            return newValue;
+        }
+        catch (PropertyServerException error)
+        {
+            throw this.getCursorException(error, methodName);
+        }
+    }
+
+
+    /**
+     * Retrieve a long value from a specific column of the current row of a cursor.
+     *
+     * @param columnName name of column to interrogate
+     * @param rowCursor cursor positioned on a row from the database
+     * @param isRequired is this value required
+     * @return long value
+     * @throws RepositoryErrorException missing value or problem reading the row
+     */
+    public long getLongPropertyFromColumn(String        columnName,
+                                          JDBCRowCursor rowCursor,
+                                          boolean       isRequired) throws RepositoryErrorException
+    {
+        final String methodName = "getLongPropertyFromColumn";
+
+        try
+        {
+            Long newValue = rowCursor.getLong(rowCursor.getColumnIndex(columnName));
+
+            if (newValue != null)
+            {
+                return newValue;
+            }
+
+            if (isRequired)
+            {
+                throw new RepositoryErrorException(JDBCErrorCode.MISSING_DATABASE_VALUE.getMessageDefinition(columnName,
+                                                                                                             methodName,
+                                                                                                             this.getClass().getName()),
+                                                   this.getClass().getName(),
+                                                   methodName);
+            }
+
+            return 0L;
+        }
+        catch (PropertyServerException error)
+        {
+            throw this.getCursorException(error, methodName);
+        }
+    }
+
+
+    /**
+     * Wrap an error from reading a row of a cursor.
+     *
+     * @param error error from the cursor
+     * @param methodName calling method
+     * @return exception to throw
+     */
+    private RepositoryErrorException getCursorException(PropertyServerException error,
+                                                        String                  methodName)
+    {
+        return new RepositoryErrorException(JDBCErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(connectorName,
+                                                                                                    error.getClass().getName(),
+                                                                                                    methodName,
+                                                                                                    error.getMessage()),
+                                            this.getClass().getName(),
+                                            methodName,
+                                            error);
+    }
+
+
     /**
      * Ensure any single quote in a property value is escaped.
      *
@@ -0,0 +1,323 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties;
+
+/**
+ * JDBCConnectionPoolMetrics is a snapshot of the state of the connection pool used by a JDBC resource connector.
+ * The counts of connections describe the pool at the time of the snapshot.  The other values are totals since
+ * the pool was created.
+ */
+public class JDBCConnectionPoolMetrics
+{
+    private int  maxConnections          = 0;
+    private int  activeConnections       = 0;
+    private int  idleConnections         = 0;
+    private int  waitingRequests         = 0;
+    private long connectionsCreated      = 0L;
+    private long connectionsClosed       = 0L;
+    private long idleConnectionsEvicted  = 0L;
+    private long validationFailures      = 0L;
+    private long leaksDetected           = 0L;
+    private long connectionRequests      = 0L;
+    private long connectionTimeouts      = 0L;
+    private long totalWaitTimeMillis     = 0L;
+
+
+    /**
+     * Default constructor
+     */
+    public JDBCConnectionPoolMetrics()
+    {
+    }
+
+
+    /**
+     * Return the maximum number of connections that the pool can hold.
+     *
+     * @return count
+     */
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+
+    /**
+     * Set up the maximum number of connections that the pool can hold.
+     *
+     * @param maxConnections count
+     */
+    public void setMaxConnections(int maxConnections)
+    {
+        this.maxConnections = maxConnections;
+    }
+
+
+    /**
+     * Return the number of connections that are currently in use.
+     *
+     * @return count
+     */
+    public int getActiveConnections()
+    {
+        return activeConnections;
+    }
+
+
+    /**
+     * Set up the number of connections that are currently in use.
+     *
+     * @param activeConnections count
+     */
+    public void setActiveConnections(int activeConnections)
+    {
+        this.activeConnections = activeConnections;
+    }
+
+
+    /**
+     * Return the number of open connections that are waiting in the pool to be used.
+     *
+     * @return count
+     */
+    public int getIdleConnections()
+    {
+        return idleConnections;
+    }
+
+
+    /**
+     * Set up the number of open connections that are waiting in the pool to be used.
+     *
+     * @param idleConnections count
+     */
+    public void setIdleConnections(int idleConnections)
+    {
+        this.idleConnections = idleConnections;
+    }
+
+
+    /**
+     * Return the number of requests that are waiting for a connection to be returned to the pool.
+     *
+     * @return count
+     */
+    public int getWaitingRequests()
+    {
+        return waitingRequests;
+    }
+
+
+    /**
+     * Set up the number of requests that are waiting for a connection to be returned to the pool.
+     *
+     * @param waitingRequests count
+     */
+    public void setWaitingRequests(int waitingRequests)
+    {
+        this.waitingRequests = waitingRequests;
+    }
+
+
+    /**
+     * Return the number of connections that the pool has opened to the database.
+     *
+     * @return count
+     */
+    public long getConnectionsCreated()
+    {
+        return connectionsCreated;
+    }
+
+
+    /**
+     * Set up the number of connections that the pool has opened to the database.
+     *
+     * @param connectionsCreated count
+     */
+    public void setConnectionsCreated(long connectionsCreated)
+    {
+        this.connectionsCreated = connectionsCreated;
+    }
+
+
+    /**
+     * Return the number of connections that the pool has closed.
+     *
+     * @return count
+     */
+    public long getConnectionsClosed()
+    {
+        return connectionsClosed;
+    }
+
+
+    /**
+     * Set up the number of connections that the pool has closed.
+     *
+     * @param connectionsClosed count
+     */
+    public void setConnectionsClosed(long connectionsClosed)
+    {
+        this.connectionsClosed = connectionsClosed;
+    }
+
+
+    /**
+     * Return the number of connections that were closed because they were unused for longer than the idle timeout.
+     *
+     * @return count
+     */
+    public long getIdleConnectionsEvicted()
+    {
+        return idleConnectionsEvicted;
+    }
+
+
+    /**
+     * Set up the number of connections that were closed because they were unused for longer than the idle timeout.
+     *
+     * @param idleConnectionsEvicted count
+     */
+    public void setIdleConnectionsEvicted(long idleConnectionsEvicted)
+    {
+        this.idleConnectionsEvicted = idleConnectionsEvicted;
+    }
+
+
+    /**
+     * Return the number of connections that were found to be broken when they were taken from the pool.
+     *
+     * @return count
+     */
+    public long getValidationFailures()
+    {
+        return validationFailures;
+    }
+
+
+    /**
+     * Set up the number of connections that were found to be broken when they were taken from the pool.
+     *
+     * @param validationFailures count
+     */
+    public void setValidationFailures(long validationFailures)
+    {
+        this.validationFailures = validationFailures;
+    }
+
+
+    /**
+     * Return the number of connections that were in use for longer than the leak detection threshold.
+     *
+     * @return count
+     */
+    public long getLeaksDetected()
+    {
+        return leaksDetected;
+    }
+
+
+    /**
+     * Set up the number of connections that were in use for longer than the leak detection threshold.
+     *
+     * @param leaksDetected count
+     */
+    public void setLeaksDetected(long leaksDetected)
+    {
+        this.leaksDetected = leaksDetected;
+    }
+
+
+    /**
+     * Return the number of requests for a connection.
+     *
+     * @return count
+     */
+    public long getConnectionRequests()
+    {
+        return connectionRequests;
+    }
+
+
+    /**
+     * Set up the number of requests for a connection.
+     *
+     * @param connectionRequests count
+     */
+    public void setConnectionRequests(long connectionRequests)
+    {
+        this.connectionRequests = connectionRequests;
+    }
+
+
+    /**
+     * Return the number of requests for a connection that failed because no connection was returned to the pool
+     * within the maximum wait time.
+     *
+     * @return count
+     */
+    public long getConnectionTimeouts()
+    {
+        return connectionTimeouts;
+    }
+
+
+    /**
+     * Set up the number of requests for a connection that failed because no connection was returned to the pool
+     * within the maximum wait time.
+     *
+     * @param connectionTimeouts count
+     */
+    public void setConnectionTimeouts(long connectionTimeouts)
+    {
+        this.connectionTimeouts = connectionTimeouts;
+    }
+
+
+    /**
+     * Return the total time that requests have waited for a connection to be returned to the pool.
+     *
+     * @return milliseconds
+     */
+    public long getTotalWaitTimeMillis()
+    {
+        return totalWaitTimeMillis;
+    }
+
+
+    /**
+     * Set up the total time that requests have waited for a connection to be returned to the pool.
+     *
+     * @param totalWaitTimeMillis milliseconds
+     */
+    public void setTotalWaitTimeMillis(long totalWaitTimeMillis)
+    {
+        this.totalWaitTimeMillis = totalWaitTimeMillis;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "JDBCConnectionPoolMetrics{" +
+                "maxConnections=" + maxConnections +
+                ", activeConnections=" + activeConnections +
+                ", idleConnections=" + idleConnections +
+                ", waitingRequests=" + waitingRequests +
+                ", connectionsCreated=" + connectionsCreated +
+                ", connectionsClosed=" + connectionsClosed +
+                ", idleConnectionsEvicted=" + idleConnectionsEvicted +
+                ", validationFailures=" + validationFailures +
+                ", leaksDetected=" + leaksDetected +
+                ", connectionRequests=" + connectionRequests +
+                ", connectionTimeouts=" + connectionTimeouts +
+                ", totalWaitTimeMillis=" + totalWaitTimeMillis +
+                '}';
+    }
+}
@@ -0,0 +1,177 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verify that rows are inserted with multi-row INSERT statements and that repeated commands are sent as a
+ * JDBC batch.  The connection is a proxy that records the statements rather than a connection to a database.
+ */
+public class JDBCBatchWriteTest
+{
+    private final List<String> preparedSQL   = new ArrayList<>();
+    private final List<Object> boundValues   = new ArrayList<>();
+    private       int          batchedCount  = 0;
+    private       int          executedCount = 0;
+
+
+    @Test
+    public void testRowsAreInsertedTogether() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        List<Map<String, JDBCDataValue>> rows = new ArrayList<>();
+
+        for (int rowNumber = 0; rowNumber < 3; rowNumber++)
+        {
+            rows.add(this.getRow("guid-" + rowNumber, "name-" + rowNumber));
+        }
+
+        jdbcResourceConnector.insertRowsIntoTable(this.getConnection(), "test_table", rows);
+
+        assertEquals(preparedSQL.size(), 1);
+        assertEquals(preparedSQL.get(0), "INSERT INTO test_table (instance_guid, property_name) values (?,?), (?,?), (?,?) ON CONFLICT DO NOTHING");
+        assertEquals(boundValues, List.of("guid-0", "name-0", "guid-1", "name-1", "guid-2", "name-2"));
+        assertEquals(executedCount, 1);
+    }
+
+
+    @Test
+    public void testRowsWithDifferentColumns() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        List<Map<String, JDBCDataValue>> rows = new ArrayList<>();
+
+        rows.add(this.getRow("guid-0", "name-0"));
+        rows.add(this.getRow("guid-1", null));
+        rows.add(this.getRow("guid-2", "name-2"));
+
+        jdbcResourceConnector.insertRowsIntoTable(this.getConnection(), "test_table", rows);
+
+        assertEquals(preparedSQL.size(), 2);
+        assertEquals(preparedSQL.get(0), "INSERT INTO test_table (instance_guid, property_name) values (?,?), (?,?) ON CONFLICT DO NOTHING");
+        assertEquals(preparedSQL.get(1), "INSERT INTO test_table (instance_guid) values (?) ON CONFLICT DO NOTHING");
+        assertEquals(executedCount, 2);
+    }
+
+
+    @Test
+    public void testCommandsAreBatched() throws Exception
+    {
+        JDBCResourceConnector     jdbcResourceConnector = new JDBCResourceConnector();
+        List<List<JDBCDataValue>> parameterSets         = new ArrayList<>();
+
+        for (int commandNumber = 0; commandNumber < 3; commandNumber++)
+        {
+            parameterSets.add(List.of(new JDBCDataValue("guid-" + commandNumber, Types.VARCHAR)));
+        }
+
+        jdbcResourceConnector.issueSQLCommandBatch(this.getConnection(), "delete from test_table where instance_guid = ?", parameterSets);
+
+        assertEquals(preparedSQL.size(), 1);
+        assertEquals(boundValues, List.of("guid-0", "guid-1", "guid-2"));
+        assertEquals(batchedCount, 3);
+        assertEquals(executedCount, 1);
+    }
+
+
+    /**
+     * Create a row.
+     *
+     * @param guid value for the first column
+     * @param propertyName value for the second column, or null to leave it out
+     * @return row
+     */
+    private Map<String, JDBCDataValue> getRow(String guid,
+                                              String propertyName)
+    {
+        Map<String, JDBCDataValue> row = new LinkedHashMap<>();
+
+        row.put("instance_guid", new JDBCDataValue(guid, Types.VARCHAR));
+
+        if (propertyName != null)
+        {
+            row.put("property_name", new JDBCDataValue(propertyName, Types.VARCHAR));
+        }
+
+        return row;
+    }
+
+
+    /**
+     * Return a connection that records the statements that are prepared and the values bound to them.
+     *
+     * @return proxy connection
+     */
+    private Connection getConnection()
+    {
+        preparedSQL.clear();
+        boundValues.clear();
+        batchedCount  = 0;
+        executedCount = 0;
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   (connection, method, arguments) -> switch (method.getName())
+                                                   {
+                                                       case "prepareStatement" -> this.getPreparedStatement((String) arguments[0]);
+                                                       case "unwrap" -> connection;
+                                                       case "isClosed" -> false;
+                                                       case "hashCode" -> System.identityHashCode(connection);
+                                                       case "equals" -> connection == arguments[0];
+                                                       default -> null;
+                                                   });
+    }
+
+
+    /**
+     * Return a prepared statement that records the values bound to it and the number of times it is executed.
+     *
+     * @param sql statement text
+     * @return proxy statement
+     */
+    private PreparedStatement getPreparedStatement(String sql)
+    {
+        preparedSQL.add(sql);
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                          new Class<?>[]{PreparedStatement.class},
+                                                          (statement, method, arguments) -> switch (method.getName())
+                                                          {
+                                                              case "setObject" ->
+                                                              {
+                                                                  boundValues.add(arguments[1]);
+                                                                  yield null;
+                                                              }
+                                                              case "addBatch" ->
+                                                              {
+                                                                  batchedCount++;
+                                                                  yield null;
+                                                              }
+                                                              case "executeUpdate", "execute" ->
+                                                              {
+                                                                  executedCount++;
+                                                                  yield method.getReturnType() == boolean.class ? Boolean.FALSE : 1;
+                                                              }
+                                                              case "executeBatch" ->
+                                                              {
+                                                                  executedCount++;
+                                                                  yield new int[batchedCount];
+                                                              }
+                                                              case "isClosed" -> false;
+                                                              default -> null;
+                                                          });
+    }
+}
@@ -0,0 +1,390 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCConnectionPoolMetrics;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that the connection pool bounds the number of connections, reuses returned connections, discards
+ * broken ones and reports idle and leaked connections.  The connections come from a driver registered by the
+ * test that does not need a database.
+ */
+public class JDBCConnectionPoolTest
+{
+    private static final String urlPrefix = "jdbc:pooltest:";
+
+    private static final AtomicInteger urlCount   = new AtomicInteger();
+    private static final AtomicInteger rollbacks  = new AtomicInteger();
+    private static       Driver        testDriver = null;
+
+
+    @BeforeClass
+    public void registerDriver() throws SQLException
+    {
+        testDriver = new TestDriver();
+        DriverManager.registerDriver(testDriver);
+    }
+
+
+    @AfterClass
+    public void deregisterDriver() throws SQLException
+    {
+        DriverManager.deregisterDriver(testDriver);
+    }
+
+
+    @Test
+    public void testPoolIsBounded() throws Exception
+    {
+        JDBCConnectionPool pool = getPool(2, 1, 0, 0);
+
+        try
+        {
+            Connection first  = pool.getConnection();
+            Connection second = pool.getConnection();
+
+            long startTime = System.currentTimeMillis();
+
+            expectThrows(SQLTransientConnectionException.class, pool::getConnection);
+
+            assertTrue(System.currentTimeMillis() - startTime >= 900);
+
+            JDBCConnectionPoolMetrics metrics = pool.getMetrics();
+
+            assertEquals(metrics.getActiveConnections(), 2);
+            assertEquals(metrics.getConnectionsCreated(), 2L);
+            assertEquals(metrics.getConnectionTimeouts(), 1L);
+            assertEquals(metrics.getConnectionRequests(), 3L);
+
+            first.close();
+            second.close();
+
+            assertEquals(pool.getMetrics().getIdleConnections(), 2);
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+
+    @Test
+    public void testReturnedConnectionIsReused() throws Exception
+    {
+        JDBCConnectionPool pool = getPool(5, 1, 0, 0);
+
+        try
+        {
+            int startRollbacks = rollbacks.get();
+
+            Connection first = pool.getConnection();
+            Connection physicalConnection = first.unwrap(Connection.class);
+
+            first.close();
+            first.close();
+
+            assertTrue(first.isClosed());
+            expectThrows(SQLException.class, first::createStatement);
+            assertEquals(rollbacks.get() - startRollbacks, 1);
+
+            Connection second = pool.getConnection();
+
+            assertNotSame(second, first);
+            assertSame(second.unwrap(Connection.class), physicalConnection);
+            assertFalse(second.isClosed());
+            assertEquals(pool.getMetrics().getConnectionsCreated(), 1L);
+
+            second.close();
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+
+    @Test
+    public void testWaitingRequestGetsReturnedConnection() throws Exception
+    {
+        JDBCConnectionPool pool = getPool(1, 10, 0, 0);
+
+        try
+        {
+            Connection held = pool.getConnection();
+
+            CompletableFuture<Connection> waiting = CompletableFuture.supplyAsync(() ->
+            {
+                try
+                {
+                    return pool.getConnection();
+                }
+                catch (SQLException error)
+                {
+                    throw new IllegalStateException(error);
+                }
+            });
+
+            Thread.sleep(200);
+            assertFalse(waiting.isDone());
+            assertEquals(pool.getMetrics().getWaitingRequests(), 1);
+
+            held.close();
+
+            Connection handedOver = waiting.get(5, TimeUnit.SECONDS);
+
+            assertSame(handedOver.unwrap(Connection.class), held.unwrap(Connection.class));
+            assertEquals(pool.getMetrics().getConnectionsCreated(), 1L);
+
+            handedOver.close();
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+
+    @Test
+    public void testBrokenConnectionIsReplaced() throws Exception
+    {
+        JDBCConnectionPool pool = getPool(1, 1, 0, 0);
+
+        try
+        {
+            Connection first              = pool.getConnection();
+            Connection physicalConnection = first.unwrap(Connection.class);
+
+            first.close();
+            physicalConnection.close();
+
+            Connection second = pool.getConnection();
+
+            assertNotSame(second.unwrap(Connection.class), physicalConnection);
+            assertEquals(pool.getMetrics().getValidationFailures(), 1L);
+            assertEquals(pool.getMetrics().getConnectionsCreated(), 2L);
+
+            second.close();
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+
+    @Test
+    public void testIdleConnectionsAreEvictedAndLeaksReported() throws Exception
+    {
+        JDBCConnectionPool pool = getPool(5, 1, 1, 1);
+
+        try
+        {
+            Connection leaked = pool.getConnection();
+            Connection idle   = pool.getConnection();
+
+            idle.close();
+
+            Thread.sleep(3000);
+
+            JDBCConnectionPoolMetrics metrics = pool.getMetrics();
+
+            assertEquals(metrics.getIdleConnections(), 0);
+            assertEquals(metrics.getIdleConnectionsEvicted(), 1L);
+            assertEquals(metrics.getConnectionsClosed(), 1L);
+            assertEquals(metrics.getActiveConnections(), 1);
+            assertEquals(metrics.getLeaksDetected(), 1L);
+
+            leaked.close();
+        }
+        finally
+        {
+            pool.release();
+        }
+    }
+
+
+    @Test
+    public void testPoolIsSharedAndClosedByLastUser() throws Exception
+    {
+        String databaseURL = urlPrefix + urlCount.incrementAndGet();
+
+        JDBCConnectionPool first  = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "pw", 2, 1, 0, 0, null);
+        JDBCConnectionPool second = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "pw", 2, 1, 0, 0, null);
+
+        assertSame(second, first);
+        assertEquals(first.getMetrics().getMaxConnections(), 2);
+
+        Connection connection = first.getConnection();
+
+        first.release();
+        assertFalse(connection.isClosed());
+
+        second.release();
+        assertTrue(connection.isClosed());
+        expectThrows(SQLException.class, second::getConnection);
+    }
+
+
+    @Test
+    public void testDifferentCredentialsOrSettingsGetTheirOwnPool()
+    {
+        String databaseURL = urlPrefix + urlCount.incrementAndGet();
+
+        JDBCConnectionPool pool          = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "pw", 2, 1, 0, 0, null);
+        JDBCConnectionPool otherPassword = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "wrong", 2, 1, 0, 0, null);
+        JDBCConnectionPool otherSize     = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "pw", 5, 1, 0, 0, null);
+        JDBCConnectionPool otherLeaks    = JDBCConnectionPool.acquirePool("test", databaseURL, "user", "pw", 2, 1, 0, 30, null);
+
+        try
+        {
+            assertNotSame(otherPassword, pool);
+            assertNotSame(otherSize, pool);
+            assertNotSame(otherLeaks, pool);
+            assertEquals(otherSize.getMetrics().getMaxConnections(), 5);
+        }
+        finally
+        {
+            pool.release();
+            otherPassword.release();
+            otherSize.release();
+            otherLeaks.release();
+        }
+    }
+
+
+    /**
+     * Create a pool for a database that no other test uses.
+     *
+     * @param maxConnections maximum connections
+     * @param maxWaitSeconds maximum wait
+     * @param idleTimeoutSeconds idle timeout
+     * @param leakThresholdSeconds leak detection threshold
+     * @return pool
+     */
+    private JDBCConnectionPool getPool(int maxConnections,
+                                       int maxWaitSeconds,
+                                       int idleTimeoutSeconds,
+                                       int leakThresholdSeconds)
+    {
+        return JDBCConnectionPool.acquirePool("test",
+                                              urlPrefix + urlCount.incrementAndGet(),
+                                              null,
+                                              null,
+                                              maxConnections,
+                                              maxWaitSeconds,
+                                              idleTimeoutSeconds,
+                                              leakThresholdSeconds,
+                                              null);
+    }
+
+
+    /**
+     * Create a connection that only supports the calls made by the pool.
+     *
+     * @return connection
+     */
+    private static Connection newTestConnection()
+    {
+        boolean[] state = new boolean[]{false, true}; // closed, autoCommit
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   (proxy, method, args) ->
+        {
+            switch (method.getName())
+            {
+                case "close" -> state[0] = true;
+                case "isClosed" -> { return state[0]; }
+                case "isValid" -> { return ! state[0]; }
+                case "getAutoCommit" -> { return state[1]; }
+                case "setAutoCommit" -> state[1] = (Boolean) args[0];
+                case "rollback" -> rollbacks.incrementAndGet();
+                case "unwrap" -> { return proxy; }
+                case "hashCode" -> { return System.identityHashCode(proxy); }
+                case "equals" -> { return proxy == args[0]; }
+                case "toString" -> { return "TestConnection"; }
+                default -> throw new SQLFeatureNotSupportedException(method.getName());
+            }
+
+            return null;
+        });
+    }
+
+
+    /**
+     * Driver for the test URLs.
+     */
+    private static class TestDriver implements Driver
+    {
+        @Override
+        public Connection connect(String url, Properties info)
+        {
+            if (acceptsURL(url))
+            {
+                return newTestConnection();
+            }
+
+            return null;
+        }
+
+        @Override
+        public boolean acceptsURL(String url)
+        {
+            return url.startsWith(urlPrefix);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info)
+        {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion()
+        {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion()
+        {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant()
+        {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException
+        {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the row cursor reads the rows one at a time with the requested fetch size, and that the prepared
+ * statement it holds is kept out of the statement cache until the cursor is closed.  The connection is a proxy
+ * that returns fixed rows rather than a connection to a database.
+ */
+public class JDBCRowCursorTest
+{
+    private static final String[]   columnNames = {"instance_guid", "version"};
+    private static final Object[][] rows        = {{"guid-0", 1L}, {"guid-1", null}, {"guid-2", 3L}};
+
+    private final List<String>  preparedSQL      = new ArrayList<>();
+    private final List<Integer> fetchSizes       = new ArrayList<>();
+    private       int           closedStatements = 0;
+
+
+    @Test
+    public void testRowsAreReadByIndex() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        List<String>          guids                 = new ArrayList<>();
+        List<Long>            versions              = new ArrayList<>();
+
+        try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(this.getConnection(), "select * from test_table", null, 2))
+        {
+            int guidIndex    = rowCursor.getColumnIndex("instance_guid");
+            int versionIndex = rowCursor.getColumnIndex("VERSION");
+
+            assertEquals(guidIndex, 1);
+            assertEquals(versionIndex, 2);
+            assertEquals(rowCursor.getColumnIndex("property_name"), 0);
+
+            while (rowCursor.next())
+            {
+                guids.add(rowCursor.getString(guidIndex));
+                versions.add(rowCursor.getLong(versionIndex));
+                assertNull(rowCursor.getString(0));
+            }
+        }
+
+        assertEquals(guids, List.of("guid-0", "guid-1", "guid-2"));
+        assertEquals(versions.get(0), Long.valueOf(1L));
+        assertNull(versions.get(1));
+        assertEquals(versions.get(2), Long.valueOf(3L));
+        assertEquals(fetchSizes, List.of(2, 0));
+    }
+
+
+    @Test
+    public void testRowIsCopied() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+
+        List<Map<String, JDBCDataValue>> results = jdbcResourceConnector.getMatchingRows(this.getConnection(),
+                                                                                         "select * from test_table",
+                                                                                         new ArrayList<>(),
+                                                                                         Map.of("instance_guid", Types.VARCHAR,
+                                                                                                "property_name", Types.VARCHAR));
+
+        assertEquals(results.size(), 3);
+        assertEquals(results.get(1).get("instance_guid").getDataValue(), "guid-1");
+        assertFalse(results.get(1).containsKey("property_name"));
+    }
+
+
+    @Test
+    public void testStatementIsCheckedOut() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        Connection            connection            = this.getConnection();
+        int                   rowCount              = 0;
+
+        try (JDBCRowCursor outerCursor = jdbcResourceConnector.getRowCursor(connection, "select * from test_table", null, 10))
+        {
+            while (outerCursor.next())
+            {
+                try (JDBCRowCursor innerCursor = jdbcResourceConnector.getRowCursor(connection, "select * from test_table", null, 10))
+                {
+                    assertTrue(innerCursor.next());
+                }
+
+                rowCount++;
+            }
+        }
+
+        assertEquals(rowCount, 3);
+        assertEquals(preparedSQL.size(), 2);
+        assertEquals(closedStatements, 1);
+
+        try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(connection, "select * from test_table", null, 10))
+        {
+            assertTrue(rowCursor.next());
+        }
+
+        assertEquals(preparedSQL.size(), 2);
+    }
+
+
+    /**
+     * Return a connection that records the statements that are prepared.
+     *
+     * @return proxy connection
+     */
+    private Connection getConnection()
+    {
+        preparedSQL.clear();
+        fetchSizes.clear();
+        closedStatements = 0;
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   (connection, method, arguments) -> switch (method.getName())
+                                                   {
+                                                       case "prepareStatement" -> this.getPreparedStatement((String) arguments[0]);
+                                                       case "unwrap" -> connection;
+                                                       case "isClosed" -> false;
+                                                       case "hashCode" -> System.identityHashCode(connection);
+                                                       case "equals" -> connection == arguments[0];
+                                                       default -> null;
+                                                   });
+    }
+
+
+    /**
+     * Return a prepared statement that records its fetch size and returns the fixed rows.
+     *
+     * @param sql statement text
+     * @return proxy statement
+     */
+    private PreparedStatement getPreparedStatement(String sql)
+    {
+        preparedSQL.add(sql);
+
+        boolean[] closed = {false};
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                          new Class<?>[]{PreparedStatement.class},
+                                                          (statement, method, arguments) -> switch (method.getName())
+                                                          {
+                                                              case "setFetchSize" ->
+                                                              {
+                                                                  fetchSizes.add((Integer) arguments[0]);
+                                                                  yield null;
+                                                              }
+                                                              case "executeQuery" -> this.getResultSet();
+                                                              case "close" ->
+                                                              {
+                                                                  closed[0] = true;
+                                                                  closedStatements++;
+                                                                  yield null;
+                                                              }
+                                                              case "isClosed" -> closed[0];
+                                                              case "hashCode" -> System.identityHashCode(statement);
+                                                              case "equals" -> statement == arguments[0];
+                                                              default -> null;
+                                                          });
+    }
+
+
+    /**
+     * Return a result set over the fixed rows.
+     *
+     * @return proxy result set
+     */
+    private ResultSet getResultSet()
+    {
+        int[]     currentRow = {-1};
+        boolean[] wasNull    = {false};
+
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(ResultSetMetaData.class.getClassLoader(),
+                                                                                new Class<?>[]{ResultSetMetaData.class},
+                                                                                (data, method, arguments) -> switch (method.getName())
+                                                                                {
+                                                                                    case "getColumnCount" -> columnNames.length;
+                                                                                    case "getColumnLabel" -> columnNames[(Integer) arguments[0] - 1];
+                                                                                    default -> null;
+                                                                                });
+
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                                                  new Class<?>[]{ResultSet.class},
+                                                  (resultSet, method, arguments) -> switch (method.getName())
+                                                  {
+                                                      case "next" -> ++currentRow[0] < rows.length;
+                                                      case "getMetaData" -> metaData;
+                                                      case "getString" -> rows[currentRow[0]][(Integer) arguments[0] - 1];
+                                                      case "getLong" ->
+                                                      {
+                                                          Object value = rows[currentRow[0]][(Integer) arguments[0] - 1];
+
+                                                          wasNull[0] = (value == null);
+                                                          yield value == null ? 0L : value;
+                                                      }
+                                                      case "wasNull" -> wasNull[0];
+                                                      default -> null;
+                                                  });
+    }
+}
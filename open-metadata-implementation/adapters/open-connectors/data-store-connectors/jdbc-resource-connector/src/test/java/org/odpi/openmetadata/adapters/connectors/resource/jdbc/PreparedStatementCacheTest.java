@@ -0,0 +1,218 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.connectors.resource.jdbc;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that prepared statements are reused for repeated SQL templates, that the least recently used statement
+ * is closed when the cache is full, and that the cache belongs to the connection to the database rather than
+ * to the handles that the connection pool hands out for it.  The connections and statements are proxies that
+ * record how they are used rather than connections to a database.
+ */
+public class PreparedStatementCacheTest
+{
+    private static final String updateTemplate = "update test_table set property_value = ? where instance_guid = ?";
+    private static final String deleteTemplate = "delete from test_table where instance_guid = ?";
+
+    private final List<String>        preparedSQL    = new ArrayList<>();
+    private final List<TestStatement> testStatements = new ArrayList<>();
+
+
+    @Test
+    public void testRepeatedTemplateReusesStatement() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        Connection            physicalConnection    = this.getPhysicalConnection();
+
+        jdbcResourceConnector.issueSQLCommand(physicalConnection, updateTemplate, this.getParameters("value-1", "guid-1"));
+        jdbcResourceConnector.issueSQLCommand(physicalConnection, updateTemplate, this.getParameters("value-2", "guid-2"));
+        jdbcResourceConnector.issueSQLCommand(physicalConnection, deleteTemplate, List.of(new JDBCDataValue("guid-1", Types.VARCHAR)));
+
+        /*
+         * The parameters are not part of the key, so both updates use the same statement.
+         */
+        assertEquals(preparedSQL, List.of(updateTemplate, deleteTemplate));
+        assertEquals(testStatements.get(0).executions.get(), 2);
+        assertEquals(testStatements.get(0).parameterClears.get(), 1);
+        assertFalse(testStatements.get(0).closed);
+    }
+
+
+    @Test
+    public void testPooledHandlesShareStatements() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = new JDBCResourceConnector();
+        Connection            physicalConnection    = this.getPhysicalConnection();
+        Connection            otherConnection       = this.getPhysicalConnection();
+
+        jdbcResourceConnector.issueSQLCommand(this.getHandle(physicalConnection), updateTemplate, this.getParameters("value-1", "guid-1"));
+        jdbcResourceConnector.issueSQLCommand(this.getHandle(physicalConnection), updateTemplate, this.getParameters("value-2", "guid-2"));
+
+        assertEquals(preparedSQL.size(), 1);
+        assertEquals(testStatements.get(0).executions.get(), 2);
+
+        /*
+         * A different connection to the database has its own statements.
+         */
+        jdbcResourceConnector.issueSQLCommand(this.getHandle(otherConnection), updateTemplate, this.getParameters("value-3", "guid-3"));
+
+        assertEquals(preparedSQL.size(), 2);
+        assertEquals(testStatements.get(1).executions.get(), 1);
+    }
+
+
+    @Test
+    public void testLeastRecentlyUsedStatementIsClosed() throws Exception
+    {
+        JDBCResourceConnector.PreparedStatementCache statementCache = new JDBCResourceConnector.PreparedStatementCache(2);
+
+        PreparedStatement first  = this.getStatement("select 1");
+        PreparedStatement second = this.getStatement("select 2");
+        PreparedStatement third  = this.getStatement("select 3");
+
+        statementCache.put("select 1", first);
+        statementCache.put("select 2", second);
+
+        /*
+         * Using the first statement makes the second one the least recently used.
+         */
+        assertSame(statementCache.get("select 1"), first);
+
+        statementCache.put("select 3", third);
+
+        assertEquals(statementCache.size(), 2);
+        assertNull(statementCache.get("select 2"));
+        assertTrue(testStatements.get(1).closed);
+        assertFalse(testStatements.get(0).closed);
+        assertFalse(testStatements.get(2).closed);
+
+        statementCache.closeStatements();
+
+        assertTrue(statementCache.isEmpty());
+        assertTrue(testStatements.get(0).closed);
+        assertTrue(testStatements.get(2).closed);
+    }
+
+
+    /**
+     * Return the parameters for the update command.
+     *
+     * @param propertyValue value for the first placeholder
+     * @param guid value for the second placeholder
+     * @return parameters
+     */
+    private List<JDBCDataValue> getParameters(String propertyValue,
+                                              String guid)
+    {
+        return List.of(new JDBCDataValue(propertyValue, Types.VARCHAR), new JDBCDataValue(guid, Types.VARCHAR));
+    }
+
+
+    /**
+     * Return a connection to the database that records the statements that are prepared.
+     *
+     * @return proxy connection
+     */
+    private Connection getPhysicalConnection()
+    {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   (connection, method, arguments) -> switch (method.getName())
+                                                   {
+                                                       case "prepareStatement" -> this.getStatement((String) arguments[0]);
+                                                       case "unwrap" -> connection;
+                                                       case "isClosed" -> false;
+                                                       case "hashCode" -> System.identityHashCode(connection);
+                                                       case "equals" -> connection == arguments[0];
+                                                       default -> null;
+                                                   });
+    }
+
+
+    /**
+     * Return a handle for a connection to the database, in the way that the connection pool does.  Each call
+     * returns a new handle.
+     *
+     * @param physicalConnection connection to the database
+     * @return proxy connection
+     */
+    private Connection getHandle(Connection physicalConnection)
+    {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                                                   new Class<?>[]{Connection.class},
+                                                   (connection, method, arguments) -> switch (method.getName())
+                                                   {
+                                                       case "unwrap" -> physicalConnection;
+                                                       case "hashCode" -> System.identityHashCode(connection);
+                                                       case "equals" -> connection == arguments[0];
+                                                       default -> method.invoke(physicalConnection, arguments);
+                                                   });
+    }
+
+
+    /**
+     * Return a prepared statement that records how it is used.
+     *
+     * @param sql statement text
+     * @return proxy statement
+     */
+    private PreparedStatement getStatement(String sql)
+    {
+        TestStatement testStatement = new TestStatement();
+
+        preparedSQL.add(sql);
+        testStatements.add(testStatement);
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                                                          new Class<?>[]{PreparedStatement.class},
+                                                          (statement, method, arguments) -> switch (method.getName())
+                                                          {
+                                                              case "execute" ->
+                                                              {
+                                                                  testStatement.executions.incrementAndGet();
+                                                                  yield Boolean.FALSE;
+                                                              }
+                                                              case "clearParameters" ->
+                                                              {
+                                                                  testStatement.parameterClears.incrementAndGet();
+                                                                  yield null;
+                                                              }
+                                                              case "close" ->
+                                                              {
+                                                                  testStatement.closed = true;
+                                                                  yield null;
+                                                              }
+                                                              case "isClosed" -> testStatement.closed;
+                                                              case "hashCode" -> System.identityHashCode(statement);
+                                                              case "equals" -> statement == arguments[0];
+                                                              default -> null;
+                                                          });
+    }
+
+
+    /**
+     * Records how a prepared statement is used.
+     */
+    private static class TestStatement
+    {
+        private final AtomicInteger executions      = new AtomicInteger();
+        private final AtomicInteger parameterClears = new AtomicInteger();
+        private       boolean       closed          = false;
+    }
+}
@@ -4,21 +4,18 @@ package org.odpi.openmetadata.adapters.eventbus.topic.inmemory;
 
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
+import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.IncomingEvent;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 
-import java.util.ArrayList;
-import java.util.List;
-
 
 /**
  * InMemoryOpenMetadataTopicConnector provides a concrete implementation of the OpenMetadataTopicConnector that
- * uses an in-memory list as the event/messaging infrastructure.  This connector is used internally
+ * uses the incoming event queue of the OpenMetadataTopicConnector as the event/messaging infrastructure.
+ * Each event sent is handed straight to the listener thread without waiting.  This connector is used internally
  * in the OMRS to pass events received on the OMRS Topic to the OMAS Topic Listeners.
  */
 public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnector
 {
-    private volatile List<String> inMemoryOMRSTopic = new ArrayList<>();
-
     /**
      * Constructor
      */
@@ -28,53 +25,40 @@ public class InMemoryOpenMetadataTopicConnector extends OpenMetadataTopicConnect
     }
 
     /**
-     * Supports putting events to the in memory OMRS Topic
-     *
-     * @param newEvent  event to publish
-     */
-    private synchronized void putEvent(String  newEvent)
-    {
-        inMemoryOMRSTopic.add(newEvent);
-    }
-
-
-    /**
-     * Returns all the events found on the in memory OMRS Topic.
+     * Sends the supplied event to the topic.
      *
-     * @return list of received events.
+     * @param event  OMRSEvent object containing the event properties.
      */
-    private synchronized List<String> getEvents()
+    @Override
+    public void sendEvent(String event)
     {
-        List<String>   receivedEvents = inMemoryOMRSTopic;
-        inMemoryOMRSTopic = new ArrayList<>();
-
-        return receivedEvents;
+        super.deliverIncomingEvent(new IncomingEvent(event, String.valueOf(event.hashCode())));
     }
 
 
     /**
-     * Sends the supplied event to the topic.
+     * The events are passed to the listener thread as they are sent so it does not need to poll for them.
      *
-     * @param event  OMRSEvent object containing the event properties.
+     * @return false
      */
     @Override
-    public void sendEvent(String event)
+    protected boolean isPollingForEvents()
     {
-        this.putEvent(event);
-
+        return false;
     }
 
 
     /**
-     * Look to see if there is one of more new events to process.
+     * The senders are threads in the same server, such as the listener threads of other topics, so they must not
+     * wait for this topic's listeners.  Otherwise, two topics whose listeners send events to each other could
+     * each wait for the other.
      *
-     * @return a list of received events or null
+     * @return false
      */
-    @SuppressWarnings(value = "deprecation")
     @Override
-    protected List<String> checkForEvents()
+    protected boolean isIncomingEventQueueBounded()
     {
-        return this.getEvents();
+        return false;
     }
 
 
@@ -52,9 +52,6 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     private String       topicName          = null;
     private String       serverId           = null;
 
-    /* this buffer is for consumed events */
-    private final List<IncomingEvent> incomingEventsList = Collections.synchronizedList(new ArrayList<>());
-
     private KafkaConsumerExecutor consumerExecutor = null;
     private KafkaProducerExecutor producerExecutor = null;
 
@@ -407,36 +404,37 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
         if (producer != null)
         {
             log.debug("Sending event");
-            producer.sendEvent(event);
+            producer.sendEvent(super.encodeOutgoingEvent(event));
         }
     }
 
 
     /**
-     * Look to see if there is one of more new events to process.
+     * The consumer passes the events to the listener thread as they are received so it does not need to poll for them.
      *
-     * @return a list of received events or null
+     * @return false
      */
     @Override
-    protected List<IncomingEvent> checkForIncomingEvents()
+    protected boolean isPollingForEvents()
     {
-        List<IncomingEvent> newEvents = null;
-
-        // This method is called periodically from a independent thread managed by OpenMetadataTopic
-        // (superclass) so it should not block.
-
-        if ((incomingEventsList != null) && (!incomingEventsList.isEmpty()))
-        {
-            log.debug("Checking for events.  Number of found events: {}", incomingEventsList.size());
-            newEvents = new ArrayList<>(incomingEventsList);
+        return false;
+    }
 
-            // empty incomingEventsList otherwise same events will be sent again
-            incomingEventsList.removeAll(newEvents);
-        }
 
-        return newEvents;
+    /**
+     * The consumer must keep polling Kafka, so it never waits for space on the incoming event queue.  Instead, it
+     * stops fetching new events while the number of events on the queue is above the event_bus_max_queue_size
+     * property.  It still polls when it is close to the Kafka poll timeout, so the queue can go above this size.
+     *
+     * @return false
+     */
+    @Override
+    protected boolean isIncomingEventQueueBounded()
+    {
+        return false;
     }
 
+
     /**
      * Distribute events to other listeners.
      *
@@ -445,7 +443,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
     void distributeToListeners(IncomingEvent event)
     {
         log.debug("distribute event to listeners" + event);
-        incomingEventsList.add(event);
+        super.deliverIncomingEvent(event);
     }
 
 
@@ -523,7 +521,7 @@ public class KafkaOpenMetadataTopicConnector extends OpenMetadataTopicConnector
      * @return int
      */
     int getNumberOfUnprocessedEvents() {
-    	return incomingEventsList.size();
+    	return super.getIncomingEventCount();
     }
 
     private class KafkaStatusChecker {
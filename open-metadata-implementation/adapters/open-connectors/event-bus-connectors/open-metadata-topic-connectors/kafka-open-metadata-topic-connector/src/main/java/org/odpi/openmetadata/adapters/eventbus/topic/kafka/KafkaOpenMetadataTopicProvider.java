@@ -42,6 +42,7 @@ public class KafkaOpenMetadataTopicProvider extends OpenMetadataTopicProvider
                       consumerPropertyName,
                       serverIdPropertyName,
                       sleepTimeProperty,
+                      OpenMetadataTopicProvider.EVENT_ENCODING_PROPERTY_NAME,
                       OpenMetadataTopicProvider.EVENT_DIRECTION_PROPERTY_NAME),
               List.of(OpenMetadataTopic.class.getName(),
                       AuditLoggingComponent.class.getName()),
@@ -146,6 +146,20 @@ public class HarvestOpenMetadataCatalogTargetProcessor extends CatalogTargetProc
                                                 methodName,
                                                 error);
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 
 
@@ -405,6 +419,20 @@ public class HarvestOpenMetadataCatalogTargetProcessor extends CatalogTargetProc
                                                 methodName,
                                                 error);
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 
     /**
@@ -149,6 +149,20 @@ public class HarvestSurveysCatalogTargetProcessor extends CatalogTargetProcessor
                                                methodName,
                                                error);
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 
 
@@ -244,6 +258,20 @@ public class HarvestSurveysCatalogTargetProcessor extends CatalogTargetProcessor
                                                 error);
 
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 
 
@@ -2291,5 +2319,19 @@ public class HarvestSurveysCatalogTargetProcessor extends CatalogTargetProcessor
                                                                                                     error.getMessage()),
                                   error);
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 }
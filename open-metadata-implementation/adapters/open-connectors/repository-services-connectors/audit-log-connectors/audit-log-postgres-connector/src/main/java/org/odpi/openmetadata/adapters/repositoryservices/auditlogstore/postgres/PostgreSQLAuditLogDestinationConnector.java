@@ -156,6 +156,20 @@ public class PostgreSQLAuditLogDestinationConnector extends OMRSAuditLogStoreCon
                                                methodName,
                                                error);
         }
+        finally
+        {
+            if (databaseConnection != null)
+            {
+                try
+                {
+                    databaseConnection.close();
+                }
+                catch (Exception closeError)
+                {
+                    // ignore
+                }
+            }
+        }
     }
 
 
@@ -385,6 +399,20 @@ public class PostgreSQLAuditLogDestinationConnector extends OMRSAuditLogStoreCon
             {
                 log.error("Unusable JDBC Audit Log Store: " + connectorName, error);
             }
+            finally
+            {
+                if (databaseConnection != null)
+                {
+                    try
+                    {
+                        databaseConnection.close();
+                    }
+                    catch (Exception closeError)
+                    {
+                        // ignore
+                    }
+                }
+            }
         }
 
         return logRecord.getGUID();
@@ -0,0 +1,535 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * InMemoryInstanceHistory holds the previous versions of a stored instance with the latest version first.
+ * The most recent versions are held as objects.  Once there are more than a few of them, they are serialized and
+ * compressed into a block.  Successive versions of an instance are mostly the same, so each block is much smaller
+ * than the versions it holds.  Blocks are decoded only when the history is iterated, and only as far as the
+ * iteration goes, so a point-in-time query that is satisfied by a recent version does not decode the older blocks.
+ * <br><br>
+ * The history is immutable.  Adding a version returns a new history, with the versions that fall outside the
+ * retention policy removed, which the stored instance then publishes to readers.
+ *
+ * @param <T> type of instance
+ */
+class InMemoryInstanceHistory<T extends InstanceAuditHeader> implements Iterable<T>, Serializable
+{
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /*
+     * Number of versions held as objects before they are compressed into a block.
+     */
+    private static final int recentVersionLimit = 8;
+
+    private static final InMemoryInstanceHistory<?> emptyHistory = new InMemoryInstanceHistory<>(Collections.emptyList(),
+                                                                                                 Collections.emptyList());
+
+    private final List<T>              recentVersions;
+    private final List<CompactedBlock> compactedBlocks;
+    private final int                  size;
+
+
+    /**
+     * The policy that controls which previous versions of an instance are retained.
+     *
+     * @param maxVersions maximum number of previous versions to retain (negative means no limit; zero means
+     *                    only the current version is kept)
+     * @param retentionPeriod number of milliseconds that a version is retained after it is superseded (negative
+     *                        means no limit)
+     */
+    record RetentionPolicy(int  maxVersions,
+                           long retentionPeriod)
+    {
+        /**
+         * Retain every version.
+         */
+        static final RetentionPolicy ALL_VERSIONS = new RetentionPolicy(-1, -1);
+
+        /**
+         * Retain only the current version.
+         */
+        static final RetentionPolicy CURRENT_VERSION = new RetentionPolicy(0, -1);
+    }
+
+
+    /**
+     * A group of versions that have been serialized and compressed.
+     *
+     * @param compressedVersions compressed form of the list of versions (latest first)
+     * @param versionCount number of versions in the block
+     * @param oldestVersionTime time that the oldest version in the block became current
+     */
+    private record CompactedBlock(byte[] compressedVersions,
+                                  int    versionCount,
+                                  Date   oldestVersionTime) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * Return a history with no versions.
+     *
+     * @param <T> type of instance
+     * @return empty history
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends InstanceAuditHeader> InMemoryInstanceHistory<T> empty()
+    {
+        return (InMemoryInstanceHistory<T>) emptyHistory;
+    }
+
+
+    /**
+     * Constructor used when the history changes.
+     *
+     * @param recentVersions versions held as objects (latest first)
+     * @param compactedBlocks older versions in compressed blocks (latest block first)
+     */
+    private InMemoryInstanceHistory(List<T>              recentVersions,
+                                    List<CompactedBlock> compactedBlocks)
+    {
+        int versionCount = recentVersions.size();
+
+        for (CompactedBlock compactedBlock : compactedBlocks)
+        {
+            versionCount = versionCount + compactedBlock.versionCount();
+        }
+
+        this.recentVersions  = recentVersions;
+        this.compactedBlocks = compactedBlocks;
+        this.size            = versionCount;
+    }
+
+
+    /**
+     * Return the number of versions in the history.
+     *
+     * @return count
+     */
+    int size()
+    {
+        return size;
+    }
+
+
+    /**
+     * Return whether the history has any versions.
+     *
+     * @return boolean
+     */
+    boolean isEmpty()
+    {
+        return size == 0;
+    }
+
+
+    /**
+     * Return the number of versions held as objects.
+     *
+     * @return count
+     */
+    int getRecentVersionCount()
+    {
+        return recentVersions.size();
+    }
+
+
+    /**
+     * Return the number of compressed blocks holding the older versions.
+     *
+     * @return count
+     */
+    int getCompactedBlockCount()
+    {
+        return compactedBlocks.size();
+    }
+
+
+    /**
+     * Return the number of bytes used by the compressed blocks.
+     *
+     * @return byte count
+     */
+    long getCompactedByteCount()
+    {
+        long byteCount = 0L;
+
+        for (CompactedBlock compactedBlock : compactedBlocks)
+        {
+            byteCount = byteCount + compactedBlock.compressedVersions().length;
+        }
+
+        return byteCount;
+    }
+
+
+    /**
+     * Return the latest version in the history.
+     *
+     * @return instance or null if the history is empty
+     */
+    T getLatest()
+    {
+        if (! recentVersions.isEmpty())
+        {
+            return recentVersions.get(0);
+        }
+
+        if (! compactedBlocks.isEmpty())
+        {
+            return decode(compactedBlocks.get(0)).get(0);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return every version in the history, latest first.  This decodes all the compressed blocks.
+     *
+     * @return list of versions
+     */
+    List<T> getVersions()
+    {
+        if (compactedBlocks.isEmpty())
+        {
+            return recentVersions;
+        }
+
+        List<T> versions = new ArrayList<>(size);
+
+        for (T version : this)
+        {
+            versions.add(version);
+        }
+
+        return versions;
+    }
+
+
+    /**
+     * Step through the versions, latest first.  Each compressed block is decoded when the iteration reaches it.
+     *
+     * @return iterator
+     */
+    @Override
+    public Iterator<T> iterator()
+    {
+        return new Iterator<>()
+        {
+            private Iterator<T> currentVersions = recentVersions.iterator();
+            private int         nextBlock       = 0;
+
+
+            /**
+             * Return whether there is another version, decoding the next block if necessary.
+             *
+             * @return boolean
+             */
+            @Override
+            public boolean hasNext()
+            {
+                while ((! currentVersions.hasNext()) && (nextBlock < compactedBlocks.size()))
+                {
+                    currentVersions = decode(compactedBlocks.get(nextBlock)).iterator();
+                    nextBlock++;
+                }
+
+                return currentVersions.hasNext();
+            }
+
+
+            /**
+             * Return the next version.
+             *
+             * @return instance
+             */
+            @Override
+            public T next()
+            {
+                if (! hasNext())
+                {
+                    throw new NoSuchElementException();
+                }
+
+                return currentVersions.next();
+            }
+        };
+    }
+
+
+    /**
+     * Return a new history with the supplied version added as the latest version.  The versions that fall outside
+     * the retention policy are removed.
+     *
+     * @param version version that has been superseded
+     * @param supersededTime time that the version was superseded
+     * @param retentionPolicy policy for the versions to retain
+     * @return new history
+     */
+    InMemoryInstanceHistory<T> addLatest(T               version,
+                                         Date            supersededTime,
+                                         RetentionPolicy retentionPolicy)
+    {
+        if (retentionPolicy.maxVersions() == 0)
+        {
+            return empty();
+        }
+
+        List<T>              newRecentVersions  = new ArrayList<>(recentVersions.size() + 1);
+        List<CompactedBlock> newCompactedBlocks = compactedBlocks;
+
+        newRecentVersions.add(version);
+        newRecentVersions.addAll(recentVersions);
+
+        if (newRecentVersions.size() > recentVersionLimit)
+        {
+            newCompactedBlocks = new ArrayList<>(compactedBlocks.size() + 1);
+            newCompactedBlocks.add(encode(newRecentVersions));
+            newCompactedBlocks.addAll(compactedBlocks);
+            newRecentVersions = new ArrayList<>();
+        }
+
+        return new InMemoryInstanceHistory<>(Collections.unmodifiableList(newRecentVersions),
+                                             Collections.unmodifiableList(newCompactedBlocks)).retain(supersededTime, retentionPolicy);
+    }
+
+
+    /**
+     * Return a new history with the supplied version added as the oldest version.  This is used to keep the last
+     * version of a relationship that is removed because one of its entities is deleted.
+     *
+     * @param version version to add
+     * @return new history
+     */
+    InMemoryInstanceHistory<T> addOldest(T version)
+    {
+        if (compactedBlocks.isEmpty())
+        {
+            List<T> newRecentVersions = new ArrayList<>(recentVersions);
+
+            newRecentVersions.add(version);
+
+            return new InMemoryInstanceHistory<>(Collections.unmodifiableList(newRecentVersions), compactedBlocks);
+        }
+
+        int                  lastBlock          = compactedBlocks.size() - 1;
+        List<T>              oldestVersions     = new ArrayList<>(decode(compactedBlocks.get(lastBlock)));
+        List<CompactedBlock> newCompactedBlocks = new ArrayList<>(compactedBlocks);
+
+        oldestVersions.add(version);
+        newCompactedBlocks.set(lastBlock, encode(oldestVersions));
+
+        return new InMemoryInstanceHistory<>(recentVersions, Collections.unmodifiableList(newCompactedBlocks));
+    }
+
+
+    /**
+     * Return a history with the versions that fall outside the retention policy removed.  A version falls outside
+     * the retention period once the version that replaced it became current before the start of the period.
+     * Whole blocks are removed for the retention period, so a block is kept while any of its versions are within
+     * the period.
+     *
+     * @param supersededTime time that the latest version in the history was superseded
+     * @param retentionPolicy policy for the versions to retain
+     * @return this history or a new history
+     */
+    private InMemoryInstanceHistory<T> retain(Date            supersededTime,
+                                              RetentionPolicy retentionPolicy)
+    {
+        List<T>              retainedVersions = recentVersions;
+        List<CompactedBlock> retainedBlocks   = compactedBlocks;
+
+        if (retentionPolicy.retentionPeriod() >= 0)
+        {
+            long cutoffTime = System.currentTimeMillis() - retentionPolicy.retentionPeriod();
+            Date endTime    = supersededTime;
+            int  versionNumber;
+
+            for (versionNumber = 0; versionNumber < retainedVersions.size(); versionNumber++)
+            {
+                if ((endTime != null) && (endTime.getTime() < cutoffTime))
+                {
+                    break;
+                }
+
+                endTime = getStartTime(retainedVersions.get(versionNumber));
+            }
+
+            int blockNumber = 0;
+
+            if (versionNumber == retainedVersions.size())
+            {
+                for (blockNumber = 0; blockNumber < retainedBlocks.size(); blockNumber++)
+                {
+                    if ((endTime != null) && (endTime.getTime() < cutoffTime))
+                    {
+                        break;
+                    }
+
+                    endTime = retainedBlocks.get(blockNumber).oldestVersionTime();
+                }
+            }
+
+            retainedVersions = retainedVersions.subList(0, versionNumber);
+            retainedBlocks   = retainedBlocks.subList(0, blockNumber);
+        }
+
+        if (retentionPolicy.maxVersions() >= 0)
+        {
+            if (retainedVersions.size() >= retentionPolicy.maxVersions())
+            {
+                retainedVersions = retainedVersions.subList(0, retentionPolicy.maxVersions());
+                retainedBlocks   = Collections.emptyList();
+            }
+            else
+            {
+                int remainingVersions = retentionPolicy.maxVersions() - retainedVersions.size();
+                int blockNumber;
+
+                for (blockNumber = 0; blockNumber < retainedBlocks.size(); blockNumber++)
+                {
+                    CompactedBlock compactedBlock = retainedBlocks.get(blockNumber);
+
+                    if (compactedBlock.versionCount() > remainingVersions)
+                    {
+                        break;
+                    }
+
+                    remainingVersions = remainingVersions - compactedBlock.versionCount();
+                }
+
+                if (blockNumber < retainedBlocks.size())
+                {
+                    /*
+                     * The last retained block is only partly within the limit, so it is compressed again with
+                     * just the versions that are retained.
+                     */
+                    List<CompactedBlock> newCompactedBlocks = new ArrayList<>(retainedBlocks.subList(0, blockNumber));
+
+                    if (remainingVersions > 0)
+                    {
+                        newCompactedBlocks.add(encode(decode(retainedBlocks.get(blockNumber)).subList(0, remainingVersions)));
+                    }
+
+                    retainedBlocks = newCompactedBlocks;
+                }
+            }
+        }
+
+        InMemoryInstanceHistory<T> retainedHistory = new InMemoryInstanceHistory<>(Collections.unmodifiableList(new ArrayList<>(retainedVersions)),
+                                                                                   Collections.unmodifiableList(new ArrayList<>(retainedBlocks)));
+
+        /*
+         * Removing versions always reduces the size, so an unchanged size means nothing was removed.
+         */
+        if (retainedHistory.size() == size)
+        {
+            return this;
+        }
+
+        return retainedHistory;
+    }
+
+
+    /**
+     * Return the time that a version became current.
+     *
+     * @param version version of the instance
+     * @return time
+     */
+    static Date getStartTime(InstanceAuditHeader version)
+    {
+        if (version.getUpdateTime() != null)
+        {
+            return version.getUpdateTime();
+        }
+
+        return version.getCreateTime();
+    }
+
+
+    /**
+     * Serialize and compress a list of versions.
+     *
+     * @param versions versions to compress (latest first)
+     * @return compressed block
+     */
+    private CompactedBlock encode(List<T> versions)
+    {
+        ByteArrayOutputStream bytes    = new ByteArrayOutputStream();
+        Deflater              deflater = new Deflater(Deflater.BEST_SPEED);
+
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(new DeflaterOutputStream(bytes, deflater)))
+        {
+            objectStream.writeObject(new ArrayList<>(versions));
+        }
+        catch (IOException error)
+        {
+            throw new UncheckedIOException(error);
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return new CompactedBlock(bytes.toByteArray(), versions.size(), getStartTime(versions.get(versions.size() - 1)));
+    }
+
+
+    /**
+     * Decompress and deserialize a block of versions.
+     *
+     * @param compactedBlock compressed block
+     * @return list of versions (latest first)
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> decode(CompactedBlock compactedBlock)
+    {
+        Inflater inflater = new Inflater();
+
+        try (ObjectInputStream objectStream = new ObjectInputStream(new InflaterInputStream(new ByteArrayInputStream(compactedBlock.compressedVersions()),
+                                                                                            inflater)))
+        {
+            return (List<T>) objectStream.readObject();
+        }
+        catch (IOException error)
+        {
+            throw new UncheckedIOException(error);
+        }
+        catch (ClassNotFoundException error)
+        {
+            throw new IllegalStateException(error);
+        }
+        finally
+        {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * InMemoryInstanceIndex maps a key (such as a type name or classification name) to the unique identifiers of the
+ * instances that have had that key in any of their stored versions.  Because the index covers historical versions,
+ * it returns candidates that must be checked against the version selected for the query.  An instance is only
+ * removed from the index when it is purged.  The index may be read and updated concurrently.  Each key is updated
+ * atomically so an instance added under a key is never lost when another instance is removed from it.
+ */
+class InMemoryInstanceIndex
+{
+    private final Map<String, Set<String>> keyToGUIDs = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> guidToKeys = new ConcurrentHashMap<>();
+
+
+    /**
+     * Add an instance to the index under the supplied key.
+     *
+     * @param key value to index on
+     * @param guid unique identifier of the instance
+     */
+    void add(String key,
+             String guid)
+    {
+        if ((key != null) && (guid != null))
+        {
+            addToSet(guidToKeys, guid, key);
+            addToSet(keyToGUIDs, key, guid);
+        }
+    }
+
+
+    /**
+     * Return the unique identifiers of the instances indexed under any of the supplied keys.
+     *
+     * @param keys values to look up
+     * @return set of unique identifiers (empty if none)
+     */
+    Set<String> get(Collection<String> keys)
+    {
+        Set<String> guids = new HashSet<>();
+
+        for (String key : keys)
+        {
+            Set<String> keyGUIDs = keyToGUIDs.get(key);
+
+            if (keyGUIDs != null)
+            {
+                guids.addAll(keyGUIDs);
+            }
+        }
+
+        return guids;
+    }
+
+
+    /**
+     * Remove an instance from the index.
+     *
+     * @param guid unique identifier of the instance
+     */
+    void remove(String guid)
+    {
+        Set<String> keys = guidToKeys.remove(guid);
+
+        if (keys != null)
+        {
+            for (String key : keys)
+            {
+                keyToGUIDs.computeIfPresent(key, (indexKey, keyGUIDs) ->
+                {
+                    keyGUIDs.remove(guid);
+
+                    if (keyGUIDs.isEmpty())
+                    {
+                        return null;
+                    }
+
+                    return keyGUIDs;
+                });
+            }
+        }
+    }
+
+
+    /**
+     * Add a value to the set stored in the map under the supplied key, creating the set if needed.
+     *
+     * @param map map to update
+     * @param key key of the set
+     * @param value value to add
+     */
+    private static void addToSet(Map<String, Set<String>> map,
+                                 String                   key,
+                                 String                   value)
+    {
+        map.compute(key, (mapKey, values) ->
+        {
+            Set<String> updatedValues = values;
+
+            if (updatedValues == null)
+            {
+                updatedValues = ConcurrentHashMap.newKeySet();
+            }
+
+            updatedValues.add(value);
+
+            return updatedValues;
+        });
+    }
+}
@@ -9,15 +9,18 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.ClassificationCondition;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.EndMatchCriteria;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchClassifications;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
+import java.io.IOException;
 import java.util.*;
 
 /**
@@ -57,6 +60,54 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Set the policy for the previous versions of each instance that are kept.
+     *
+     * @param retentionPolicy policy for the retained versions
+     */
+    void setRetentionPolicy(InMemoryInstanceHistory.RetentionPolicy retentionPolicy)
+    {
+        repositoryStore.setRetentionPolicy(retentionPolicy);
+    }
+
+
+    /**
+     * Set the strategy used to create the GUIDs for new instances.
+     *
+     * @param guidStrategy strategy for new GUIDs
+     */
+    void setGUIDStrategy(OMRSGUIDStrategy guidStrategy)
+    {
+        repositoryStore.setGUIDStrategy(guidStrategy);
+    }
+
+
+    /**
+     * Restore the contents of the repository from its journal and then record each change in the journal.
+     *
+     * @param journal journal for the repository
+     * @return counts of the restored instances and replayed changes
+     * @throws IOException problem reading the journal
+     * @throws RepositoryErrorException problem applying a change from the journal
+     */
+    InMemoryOMRSStoreJournal.RecoveryResult startPersistence(InMemoryOMRSStoreJournal journal) throws IOException,
+                                                                                                       RepositoryErrorException
+    {
+        return repositoryStore.startPersistence(journal);
+    }
+
+
+    /**
+     * Stop recording changes in the journal and close it.
+     *
+     * @throws IOException problem closing the journal
+     */
+    void stopPersistence() throws IOException
+    {
+        repositoryStore.stopPersistence();
+    }
+
+
     /* ===================================================
      * Group 3: Locating entity and relationship instances
      */
@@ -217,7 +268,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        EntityDetail  entity = repositoryStore.timeWarpEntityStore(asOfTime).get(guid);
+        EntityDetail  entity = repositoryStore.getEntity(guid, asOfTime);
         if (entity == null)
         {
             EntityProxy  entityProxy = repositoryStore.getEntityProxy(guid);
@@ -306,9 +357,10 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
         List<Relationship> entityRelationships = new ArrayList<>();
 
-        Map<String, Relationship>   relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
-
-        for (Relationship  storedRelationship : relationshipStore.values())
+        /*
+         * The store's adjacency index returns only the relationships connected to this entity.
+         */
+        for (Relationship  storedRelationship : repositoryStore.getRelationshipsForEntity(entityGUID, asOfTime))
         {
             if (storedRelationship != null)
             {
@@ -399,6 +451,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                 PagingErrorException,
                                                                                                 UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByProperty";
+
         /*
          * Validate parameters
          */
@@ -417,13 +471,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected using the store's type and classification indexes and then
+         * each one is checked against the search criteria.
          */
         List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        Iterable<EntityDetail>     candidateEntities = this.getCandidateEntities(entityTypeGUID,
+                                                                                 null,
+                                                                                 limitResultsByClassification,
+                                                                                 asOfTime,
+                                                                                 methodName);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -496,6 +554,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                       PagingErrorException,
                                                                                       UserNotAuthorizedException
     {
+        final String  methodName = "findEntities";
+
         /*
          * Validate parameters
          */
@@ -514,13 +574,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected using the store's type and classification indexes and then
+         * each one is checked against the search criteria.
          */
         List<EntityDetail>         foundEntities = new ArrayList<>();
-        Map<String, EntityDetail>  entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
+        Iterable<EntityDetail>     candidateEntities = this.getCandidateEntities(entityTypeGUID,
+                                                                                 entitySubtypeGUIDs,
+                                                                                 this.getCandidateClassificationNames(searchClassifications),
+                                                                                 asOfTime,
+                                                                                 methodName);
 
-        for (EntityDetail  entity : entityStore.values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -594,6 +658,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                                                        PagingErrorException,
                                                                                                        UserNotAuthorizedException
     {
+        final String  methodName = "findEntitiesByClassification";
+
         /*
          * Validate parameters
          */
@@ -612,16 +678,21 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected using the store's type and classification indexes and then
+         * each one is checked against the search criteria.
          */
-        Map<String, EntityDetail>   entityStore = repositoryStore.timeWarpEntityStore(asOfTime);
         List<EntityDetail>          foundEntities = new ArrayList<>();
 
         List<String>                classificationList = new ArrayList<>();
         classificationList.add(classificationName);
 
-        for (EntityDetail  entity : entityStore.values())
+        Iterable<EntityDetail>      candidateEntities = this.getCandidateEntities(entityTypeGUID,
+                                                                                  null,
+                                                                                  classificationList,
+                                                                                  asOfTime,
+                                                                                  methodName);
+
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -743,12 +814,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Process operation
          *
-         * This is a brute force implementation of locating in entity since it iterates through all
-         * the stored entities.
+         * The candidate entities are selected using the store's type and classification indexes and then
+         * each one is checked against the search criteria.
          */
         List<EntityDetail>   foundEntities = new ArrayList<>();
+        Iterable<EntityDetail> candidateEntities = this.getCandidateEntities(entityTypeGUID,
+                                                                           null,
+                                                                           limitResultsByClassification,
+                                                                           asOfTime,
+                                                                           methodName);
 
-        for (EntityDetail  entity : repositoryStore.timeWarpEntityStore(asOfTime).values())
+        for (EntityDetail  entity : candidateEntities)
         {
             if (entity != null)
             {
@@ -769,6 +845,136 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Return the entities from the store that may match the requested types and classifications.  The
+     * returned entities still need to be checked against all the search criteria.
+     *
+     * @param entityTypeGUID unique identifier of the requested type (null means any type)
+     * @param entitySubtypeGUIDs optional list of subtypes of the requested type (null means all subtypes)
+     * @param classificationNames names of classifications where the entity must have at least one (null means
+     *                            classifications are not used to select the entities)
+     * @param asOfTime time for the query (null means now)
+     * @param methodName calling method
+     * @return candidate entities
+     * @throws TypeErrorException one of the types is not known
+     */
+    private Iterable<EntityDetail> getCandidateEntities(String       entityTypeGUID,
+                                                        List<String> entitySubtypeGUIDs,
+                                                        List<String> classificationNames,
+                                                        Date         asOfTime,
+                                                        String       methodName) throws TypeErrorException
+    {
+        final String  typeGUIDParameterName = "entityTypeGUID";
+        final String  subtypeGUIDParameterName = "entitySubtypeGUIDs";
+
+        Set<String>  typeNames = null;
+        Set<String>  candidateClassificationNames = null;
+
+        if (entitySubtypeGUIDs != null)
+        {
+            typeNames = new HashSet<>();
+
+            for (String subtypeGUID : entitySubtypeGUIDs)
+            {
+                if (subtypeGUID != null)
+                {
+                    TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, subtypeGUIDParameterName, subtypeGUID, methodName);
+
+                    addTypeNameAndSubTypes(typeDef.getName(), typeNames);
+                }
+            }
+        }
+        else if (entityTypeGUID != null)
+        {
+            typeNames = new HashSet<>();
+
+            TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, typeGUIDParameterName, entityTypeGUID, methodName);
+
+            addTypeNameAndSubTypes(typeDef.getName(), typeNames);
+        }
+
+        if (classificationNames != null)
+        {
+            candidateClassificationNames = new HashSet<>();
+
+            for (String classificationName : classificationNames)
+            {
+                if (classificationName != null)
+                {
+                    addTypeNameAndSubTypes(classificationName, candidateClassificationNames);
+                }
+            }
+        }
+
+        return repositoryStore.getCandidateEntities(typeNames, candidateClassificationNames, asOfTime);
+    }
+
+
+    /**
+     * Add the type name and the names of all of its subtypes to the supplied set.
+     *
+     * @param typeName name of the type
+     * @param typeNames set to add to
+     */
+    private void addTypeNameAndSubTypes(String      typeName,
+                                        Set<String> typeNames)
+    {
+        typeNames.add(typeName);
+
+        List<String> subTypeNames = repositoryHelper.getSubTypesOf(repositoryName, typeName);
+
+        if (subTypeNames != null)
+        {
+            typeNames.addAll(subTypeNames);
+        }
+    }
+
+
+    /**
+     * Return the names of the classifications that can be used to select candidate entities for a
+     * findEntities request.  An entity must have one of the returned classifications to match the
+     * request.  Null is returned when the classification conditions can not be used to select the entities.
+     *
+     * @param searchClassifications classification conditions from the request
+     * @return list of classification names or null
+     */
+    private List<String> getCandidateClassificationNames(SearchClassifications searchClassifications)
+    {
+        if ((searchClassifications == null) ||
+            (searchClassifications.getConditions() == null) ||
+            (searchClassifications.getConditions().isEmpty()) ||
+            (searchClassifications.getMatchCriteria() == null))
+        {
+            return null;
+        }
+
+        List<String> classificationNames = new ArrayList<>();
+
+        for (ClassificationCondition condition : searchClassifications.getConditions())
+        {
+            if ((condition != null) && (condition.getName() != null))
+            {
+                classificationNames.add(condition.getName());
+
+                if (searchClassifications.getMatchCriteria() == MatchCriteria.ALL)
+                {
+                    /*
+                     * The entity must have every classification so one of them is enough to select the candidates.
+                     */
+                    return classificationNames;
+                }
+            }
+        }
+
+        if (searchClassifications.getMatchCriteria() == MatchCriteria.ANY)
+        {
+            return classificationNames;
+        }
+
+        return null;
+    }
+
+
 
     /**
      * Returns a relationship indicating if the relationship is stored in the metadata collection.
@@ -873,7 +1079,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         /*
          * Perform operation
          */
-        Relationship  relationship = repositoryStore.timeWarpRelationshipStore(asOfTime).get(guid);
+        Relationship  relationship = repositoryStore.getRelationship(guid, asOfTime);
 
         repositoryValidator.validateRelationshipFromStore(repositoryName, guid, relationship, methodName);
         repositoryValidator.validateRelationshipIsNotDeleted(repositoryName, relationship, methodName);
@@ -1042,9 +1248,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
          * the stored entities.
          */
         List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : repositoryStore.getRelationships(asOfTime))
         {
             if (relationship != null)
             {
@@ -1142,9 +1347,8 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
          * the stored entities.
          */
         List<Relationship>         foundRelationships = new ArrayList<>();
-        Map<String, Relationship>  relationshipStore = repositoryStore.timeWarpRelationshipStore(asOfTime);
 
-        for (Relationship  relationship : relationshipStore.values())
+        for (Relationship  relationship : repositoryStore.getRelationships(asOfTime))
         {
             if (relationship != null)
             {
@@ -1248,7 +1452,7 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
          */
         List<Relationship>  foundRelationships = new ArrayList<>();
 
-        for (Relationship  relationship : repositoryStore.timeWarpRelationshipStore(asOfTime).values())
+        for (Relationship  relationship : repositoryStore.getRelationships(asOfTime))
         {
             if (relationship != null)
             {
@@ -1754,36 +1958,17 @@ public class InMemoryOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
 
 
         /*
-         * Locate/purge relationships for entity
+         * Locate/purge relationships for entity.  The entity is already deleted so the relationships are
+         * retrieved directly from the store's adjacency index.  This includes relationships that were deleted
+         * along with the entity.
          */
-        try
+        for (Relationship relationship : repositoryStore.getRelationshipsForEntity(deletedEntityGUID, null))
         {
-            List<Relationship> relationships = this.getRelationshipsForEntity(userId,
-                                                                              deletedEntityGUID,
-                                                                              null,
-                                                                              0,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              null,
-                                                                              10000);
-
-
-            if (relationships != null)
+            if (relationship != null)
             {
-                for (Relationship relationship : relationships)
-                {
-                    if (relationship != null)
-                    {
-                        repositoryStore.removeRelationshipFromStore(relationship);
-                    }
-                }
+                repositoryStore.removeRelationshipFromStore(relationship);
             }
         }
-        catch (Exception  error)
-        {
-            // nothing to do - keep going
-        }
 
         /*
          * Validation is complete - ok to remove the entity
@@ -3,16 +3,32 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.InMemoryOMRSStoreJournal.Change;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.InMemoryOMRSStoreJournal.ChangeType;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc.InMemoryErrorCode;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.Serial;
+import java.io.Serializable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * InMemoryOMRSMetadataStore provides the in memory store for the InMemoryRepositoryConnector.
+ * The stores and indexes are concurrent maps and there is no lock for the store as a whole.  Each stored
+ * instance serializes its own updates and publishes an immutable set of versions, so requests that read
+ * the store do not wait for updates to other instances, or for updates to the instance they are reading.
+ * <br><br>
+ * When persistence is started, each change is applied to the store and appended to the journal while holding
+ * the journal's lock, so the journal records the changes in the order they were made.  The journal replays
+ * these changes through the same methods when the store is restored.
  */
 class InMemoryOMRSMetadataStore
 {
@@ -20,8 +36,34 @@ class InMemoryOMRSMetadataStore
     private final OMRSRepositoryHelper repositoryHelper;
     private final String               localMetadataCollectionId;
 
-    private volatile Map<String, StoredEntity>       entityStore       = new HashMap<>();
-    private volatile Map<String, StoredRelationship> relationshipStore = new HashMap<>();
+    private final Map<String, StoredEntity>          entityStore       = new ConcurrentHashMap<>();
+    private final Map<String, StoredRelationship>    relationshipStore = new ConcurrentHashMap<>();
+
+    /*
+     * Adjacency index from entity GUID to the GUIDs of the relationships that connect to it in any stored version.
+     * It is used to avoid scanning the whole relationship store when the relationships for a single entity are
+     * requested.
+     */
+    private final Map<String, Set<String>>           entityRelationshipIndex = new ConcurrentHashMap<>();
+
+    /*
+     * Indexes from the name of an entity's type, and the names of its classifications, to the GUIDs of the
+     * entities that have used them in any stored version.  They are used by the find operations to locate
+     * candidate entities without visiting every entity in the store.
+     */
+    private final InMemoryInstanceIndex              entityTypeIndex           = new InMemoryInstanceIndex();
+    private final InMemoryInstanceIndex              entityClassificationIndex = new InMemoryInstanceIndex();
+
+    /*
+     * Optional journal that keeps the contents of the store on disk.
+     */
+    private volatile InMemoryOMRSStoreJournal        journal = null;
+
+    /*
+     * Policy for the previous versions of each instance that are kept.  It is applied as each instance changes.
+     */
+    private volatile InMemoryInstanceHistory.RetentionPolicy retentionPolicy = InMemoryInstanceHistory.RetentionPolicy.ALL_VERSIONS;
+    private volatile OMRSGUIDStrategy                        guidStrategy    = OMRSGUIDStrategy.RANDOM;
 
     private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSMetadataStore.class);
 
@@ -35,11 +77,11 @@ class InMemoryOMRSMetadataStore
      * @param versionEndTime time when this version was superseded
      * @return boolean flag - true means it is valid
      */
-    static synchronized List<Classification> getClassificationsForInclusiveDate(String               classificationName,
-                                                                                Date                 fromTime,
-                                                                                Date                 toTime,
-                                                                                List<Classification> classifications,
-                                                                                Date                 versionEndTime)
+    static List<Classification> getClassificationsForInclusiveDate(String               classificationName,
+                                                                   Date                 fromTime,
+                                                                   Date                 toTime,
+                                                                   List<Classification> classifications,
+                                                                   Date                 versionEndTime)
     {
         if ((classifications != null) && (! classifications.isEmpty()))
         {
@@ -79,10 +121,10 @@ class InMemoryOMRSMetadataStore
      * @param versionEndTime time when this version was superseded
      * @return boolean flag - true means it is valid
      */
-    static synchronized boolean checkInclusiveDate(Date                fromTime,
-                                                   Date                toTime,
-                                                   InstanceAuditHeader instanceHeader,
-                                                   Date                versionEndTime)
+    static boolean checkInclusiveDate(Date                fromTime,
+                                      Date                toTime,
+                                      InstanceAuditHeader instanceHeader,
+                                      Date                versionEndTime)
     {
         Date versionStartTime = instanceHeader.getUpdateTime();
 
@@ -133,7 +175,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntityDetail  getEntity(String guid)
+    EntityDetail  getEntity(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -152,7 +194,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the entity
      * @return entity object
      */
-    synchronized EntitySummary  getEntitySummary(String guid)
+    EntitySummary  getEntitySummary(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -178,7 +220,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier
      * @return entity proxy object
      */
-    synchronized EntityProxy  getEntityProxy(String guid)
+    EntityProxy  getEntityProxy(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -192,27 +234,161 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Return an entity store that contains entities as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the entity identified by the guid as it was at the time supplied in the asOfTime parameter.
+     * Only the versions of the requested entity are examined.
+     *
+     * @param guid - unique identifier for the entity
+     * @param asOfTime - time for the entity (or null means now)
+     * @return entity object or null
+     */
+    EntityDetail  getEntity(String guid,
+                            Date   asOfTime)
+    {
+        StoredEntity storedEntity = entityStore.get(guid);
+
+        if (storedEntity != null)
+        {
+            return storedEntity.getEntity(asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the entities as they were at the time supplied in the asOfTime parameter.  The store is not copied.
+     * The version of each entity is selected as the caller steps through the results - for current queries this
+     * is the latest version and for historical queries it is the version that was active at the asOfTime.
+     * Entities that did not exist at the asOfTime are skipped.
      *
      * @param asOfTime - time for the store (or null means now)
-     * @return entity store for the requested time
+     * @return entities for the requested time
      */
-    synchronized Map<String, EntityDetail>  timeWarpEntityStore(Date asOfTime)
+    Iterable<EntityDetail>  getEntities(Date asOfTime)
     {
-        Map<String, EntityDetail>  timeWarpedEntityStore = new HashMap<>();
+        return () -> entityStore.values()
+                                .stream()
+                                .map(storedEntity -> storedEntity.getEntity(asOfTime))
+                                .filter(Objects::nonNull)
+                                .iterator();
+    }
+
+
+    /**
+     * Return the entities, as they were at the time supplied in the asOfTime parameter, that may match the supplied
+     * type names and classification names.  The type and classification indexes are used to select the candidate
+     * entities so the cost of the query is proportional to the number of entities of the requested types (or with
+     * the requested classifications) rather than the size of the store.  The results are a superset of the
+     * matching entities and must be filtered by the caller.
+     *
+     * @param typeNames names of the types (including subtypes) that the entity may have - null means any type
+     * @param classificationNames names of classifications where the entity must have at least one - null means
+     *                            classifications are not used to select the entities
+     * @param asOfTime - time for the store (or null means now)
+     * @return candidate entities
+     */
+    Iterable<EntityDetail> getCandidateEntities(Collection<String> typeNames,
+                                                Collection<String> classificationNames,
+                                                Date               asOfTime)
+    {
+        if ((typeNames == null) && (classificationNames == null))
+        {
+            return getEntities(asOfTime);
+        }
 
-        for (StoredEntity storedEntity : entityStore.values())
+        List<EntityDetail> candidateEntities = new ArrayList<>();
+
+        Set<String> typeCandidates           = null;
+        Set<String> classificationCandidates = null;
+
+        if (typeNames != null)
+        {
+            typeCandidates = entityTypeIndex.get(typeNames);
+        }
+
+        if (classificationNames != null)
         {
-            EntityDetail entityDetail = storedEntity.getEntity(asOfTime);
+            classificationCandidates = entityClassificationIndex.get(classificationNames);
+        }
 
-            if (entityDetail != null)
+        /*
+         * Step through the smaller set of candidates, skipping any that are not in the other set.
+         */
+        Set<String> candidateGUIDs = typeCandidates;
+        Set<String> otherGUIDs     = classificationCandidates;
+
+        if ((candidateGUIDs == null) || ((otherGUIDs != null) && (otherGUIDs.size() < candidateGUIDs.size())))
+        {
+            candidateGUIDs = classificationCandidates;
+            otherGUIDs     = typeCandidates;
+        }
+
+        for (String guid : candidateGUIDs)
+        {
+            if ((otherGUIDs == null) || (otherGUIDs.contains(guid)))
             {
-                timeWarpedEntityStore.put(entityDetail.getGUID(), entityDetail);
+                StoredEntity storedEntity = entityStore.get(guid);
+
+                if (storedEntity != null)
+                {
+                    EntityDetail entityDetail = storedEntity.getEntity(asOfTime);
+
+                    if (entityDetail != null)
+                    {
+                        candidateEntities.add(entityDetail);
+                    }
+                }
             }
         }
 
-        return timeWarpedEntityStore;
+        return candidateEntities;
+    }
+
+
+    /**
+     * Add the current version of a stored entity (and its proxy) to the type and classification indexes.
+     *
+     * @param guid - unique identifier of the entity
+     */
+    private void indexEntity(String guid)
+    {
+        StoredEntity storedEntity = entityStore.get(guid);
+
+        if (storedEntity != null)
+        {
+            indexEntity(guid, storedEntity.getEntity());
+            indexEntity(guid, storedEntity.getEntityProxy());
+        }
+    }
+
+
+    /**
+     * Add the type and classifications of a version of an entity to the indexes.
+     *
+     * @param guid - unique identifier of the entity
+     * @param entity - version of the entity (or its proxy)
+     */
+    private void indexEntity(String        guid,
+                             EntitySummary entity)
+    {
+        if (entity != null)
+        {
+            if (entity.getType() != null)
+            {
+                entityTypeIndex.add(entity.getType().getTypeDefName(), guid);
+            }
+
+            if (entity.getClassifications() != null)
+            {
+                for (Classification classification : entity.getClassifications())
+                {
+                    if (classification != null)
+                    {
+                        entityClassificationIndex.add(classification.getName(), guid);
+                    }
+                }
+            }
+        }
     }
 
 
@@ -222,7 +398,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the relationship
      * @return relationship object
      */
-    synchronized Relationship  getRelationship(String guid)
+    Relationship  getRelationship(String guid)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -236,27 +412,430 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Return a relationship store that contains relationships as they were at the time supplied in the asOfTime
-     * parameter
+     * Return the relationship identified by the guid as it was at the time supplied in the asOfTime parameter.
+     * Only the versions of the requested relationship are examined.
+     *
+     * @param guid - unique identifier for the relationship
+     * @param asOfTime - time for the relationship (or null means now)
+     * @return relationship object or null
+     */
+    Relationship  getRelationship(String guid,
+                                  Date   asOfTime)
+    {
+        StoredRelationship storedRelationship = relationshipStore.get(guid);
+
+        if (storedRelationship != null)
+        {
+            return storedRelationship.getRelationship(asOfTime);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the relationships as they were at the time supplied in the asOfTime parameter.  The store is not
+     * copied.  The version of each relationship is selected as the caller steps through the results.
+     * Relationships that did not exist at the asOfTime are skipped.
      *
      * @param asOfTime - time for the store (or null means now)
-     * @return relationship store for the requested time
+     * @return relationships for the requested time
      */
-    synchronized Map<String, Relationship>  timeWarpRelationshipStore(Date         asOfTime)
+    Iterable<Relationship>  getRelationships(Date asOfTime)
     {
-        Map<String, Relationship>  timeWarpedRelationshipStore = new HashMap<>();
+        return () -> relationshipStore.values()
+                                      .stream()
+                                      .map(storedRelationship -> storedRelationship.getRelationship(asOfTime))
+                                      .filter(Objects::nonNull)
+                                      .iterator();
+    }
+
 
-        for (StoredRelationship storedRelationship : relationshipStore.values())
+    /**
+     * Return the relationships connected to an entity as they were at the time supplied in the asOfTime parameter.
+     * The relationships are located through the adjacency index so only the relationships that have been connected
+     * to the entity are examined.
+     *
+     * @param entityGUID - unique identifier of the entity
+     * @param asOfTime - time for the store (or null means now)
+     * @return list of relationships (empty if none)
+     */
+    List<Relationship> getRelationshipsForEntity(String entityGUID,
+                                                 Date   asOfTime)
+    {
+        List<Relationship> entityRelationships = new ArrayList<>();
+        Set<String>        relationshipGUIDs   = entityRelationshipIndex.get(entityGUID);
+
+        if (relationshipGUIDs != null)
         {
-            Relationship relationship = storedRelationship.getRelationship(asOfTime);
+            for (String relationshipGUID : relationshipGUIDs)
+            {
+                StoredRelationship storedRelationship = relationshipStore.get(relationshipGUID);
 
-            if (relationship != null)
+                if (storedRelationship != null)
+                {
+                    Relationship relationship = storedRelationship.getRelationship(asOfTime);
+
+                    /*
+                     * The index covers every version of the relationship so check the ends of the selected version.
+                     */
+                    if ((relationship != null) &&
+                        ((entityGUID.equals(getEntityOneGUID(relationship))) || (entityGUID.equals(getEntityTwoGUID(relationship)))))
+                    {
+                        entityRelationships.add(relationship);
+                    }
+                }
+            }
+        }
+
+        return entityRelationships;
+    }
+
+
+    /**
+     * Add the relationship to the adjacency index of each of its ends.
+     *
+     * @param relationship - relationship that has been stored
+     */
+    private void indexRelationship(Relationship relationship)
+    {
+        if (relationship != null)
+        {
+            indexRelationship(getEntityOneGUID(relationship), relationship.getGUID());
+            indexRelationship(getEntityTwoGUID(relationship), relationship.getGUID());
+        }
+    }
+
+
+    /**
+     * Add a relationship to the adjacency index of an entity.
+     *
+     * @param entityGUID - unique identifier of the entity
+     * @param relationshipGUID - unique identifier of the relationship
+     */
+    private void indexRelationship(String entityGUID,
+                                   String relationshipGUID)
+    {
+        if ((entityGUID != null) && (relationshipGUID != null))
+        {
+            entityRelationshipIndex.compute(entityGUID, (guid, relationshipGUIDs) ->
+            {
+                Set<String> updatedRelationshipGUIDs = relationshipGUIDs;
+
+                if (updatedRelationshipGUIDs == null)
+                {
+                    updatedRelationshipGUIDs = ConcurrentHashMap.newKeySet();
+                }
+
+                updatedRelationshipGUIDs.add(relationshipGUID);
+
+                return updatedRelationshipGUIDs;
+            });
+        }
+    }
+
+
+    /**
+     * Remove a relationship from the adjacency index of every entity that it has been connected to.
+     *
+     * @param relationshipGUID - unique identifier of the relationship
+     * @param storedRelationship - stored relationship with all of its versions
+     */
+    private void unindexRelationship(String             relationshipGUID,
+                                     StoredRelationship storedRelationship)
+    {
+        for (String entityGUID : storedRelationship.getEntityGUIDs())
+        {
+            entityRelationshipIndex.computeIfPresent(entityGUID, (guid, relationshipGUIDs) ->
             {
-                timeWarpedRelationshipStore.put(relationship.getGUID(), relationship);
+                relationshipGUIDs.remove(relationshipGUID);
+
+                if (relationshipGUIDs.isEmpty())
+                {
+                    return null;
+                }
+
+                return relationshipGUIDs;
+            });
+        }
+    }
+
+
+    /**
+     * Return the unique identifier of the entity at end 1 of a relationship.
+     *
+     * @param relationship - relationship
+     * @return guid or null
+     */
+    private static String getEntityOneGUID(Relationship relationship)
+    {
+        if (relationship.getEntityOneProxy() != null)
+        {
+            return relationship.getEntityOneProxy().getGUID();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the unique identifier of the entity at end 2 of a relationship.
+     *
+     * @param relationship - relationship
+     * @return guid or null
+     */
+    private static String getEntityTwoGUID(Relationship relationship)
+    {
+        if (relationship.getEntityTwoProxy() != null)
+        {
+            return relationship.getEntityTwoProxy().getGUID();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Set the policy for the previous versions of each instance that are kept.  The policy is applied to an
+     * instance when it next changes.
+     *
+     * @param retentionPolicy policy for the retained versions
+     */
+    void setRetentionPolicy(InMemoryInstanceHistory.RetentionPolicy retentionPolicy)
+    {
+        this.retentionPolicy = retentionPolicy;
+    }
+
+
+    /**
+     * Set the strategy used to create the GUIDs for new instances.
+     *
+     * @param guidStrategy strategy for new GUIDs
+     */
+    void setGUIDStrategy(OMRSGUIDStrategy guidStrategy)
+    {
+        this.guidStrategy = guidStrategy;
+    }
+
+
+    /**
+     * Load the contents of the store from the journal and then record each change in the journal.
+     *
+     * @param journal journal for the store
+     * @return counts of the restored instances and replayed changes
+     * @throws IOException problem reading the journal
+     * @throws RepositoryErrorException problem applying a change from the journal
+     */
+    InMemoryOMRSStoreJournal.RecoveryResult startPersistence(InMemoryOMRSStoreJournal journal) throws IOException,
+                                                                                                       RepositoryErrorException
+    {
+        InMemoryOMRSStoreJournal.RecoveryResult recoveryResult = journal.recover(this::restoreInstance, this::applyChange);
+
+        this.journal = journal;
+
+        return recoveryResult;
+    }
+
+
+    /**
+     * Stop recording changes in the journal and close it.
+     *
+     * @throws IOException problem closing the journal
+     */
+    void stopPersistence() throws IOException
+    {
+        InMemoryOMRSStoreJournal currentJournal = journal;
+
+        if (currentJournal != null)
+        {
+            synchronized (currentJournal)
+            {
+                journal = null;
             }
+
+            currentJournal.close();
         }
+    }
 
-        return timeWarpedRelationshipStore;
+
+    /**
+     * Apply a change to the store and, if persistence is started, append it to the journal.  The change is
+     * appended after it is applied so that a change that fails is never written to the journal, where it would
+     * fail again each time the store is restored.  The journal is checked before the change is applied so
+     * that, if it has been closed, the store is unchanged.  A snapshot of the store is started when the journal
+     * has recorded enough changes since the last one.
+     *
+     * @param change change to make
+     * @return result of the change
+     * @throws RepositoryErrorException problem applying the change
+     */
+    private Object recordChange(Change change) throws RepositoryErrorException
+    {
+        final String methodName = "recordChange";
+
+        InMemoryOMRSStoreJournal currentJournal = journal;
+
+        if (currentJournal == null)
+        {
+            return applyChange(change);
+        }
+
+        synchronized (currentJournal)
+        {
+            this.resolveNewGUID(change);
+
+            if (! currentJournal.isOpen())
+            {
+                throw getJournalWriteError(change, new IOException("The journal for " + repositoryName + " is not open"), methodName);
+            }
+
+            Object result = applyChange(change);
+
+            try
+            {
+                currentJournal.append(change);
+
+                if (currentJournal.isSnapshotDue())
+                {
+                    currentJournal.startSnapshot(getInstanceStates());
+                }
+            }
+            catch (IOException error)
+            {
+                throw getJournalWriteError(change, error, methodName);
+            }
+
+            return result;
+        }
+    }
+
+
+    /**
+     * Make sure that the GUID of a new instance does not clash with an existing instance before the change is
+     * written to the journal.  This means the change creates the same instance when it is replayed.
+     *
+     * @param change change to make
+     */
+    private void resolveNewGUID(Change change)
+    {
+        if ((change.changeType() == ChangeType.CREATE_ENTITY) && (change.instance() instanceof EntityDetail entity))
+        {
+            while (entityStore.containsKey(entity.getGUID()))
+            {
+                entity.setGUID(generateGUID(entity.getType().getTypeDefName(), guidStrategy.getNewGUID()));
+            }
+        }
+        else if ((change.changeType() == ChangeType.CREATE_RELATIONSHIP) && (change.instance() instanceof Relationship relationship))
+        {
+            while (relationshipStore.containsKey(relationship.getGUID()))
+            {
+                relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), guidStrategy.getNewGUID()));
+            }
+        }
+    }
+
+
+    /**
+     * Return the exception for a journal that can not be written.
+     *
+     * @param change change being recorded
+     * @param error exception from the journal
+     * @param methodName calling method
+     * @return exception to throw
+     */
+    private OMRSLogicErrorException getJournalWriteError(Change      change,
+                                                         IOException error,
+                                                         String      methodName)
+    {
+        return new OMRSLogicErrorException(InMemoryErrorCode.JOURNAL_WRITE_ERROR.getMessageDefinition(repositoryName,
+                                                                                                     change.changeType().name(),
+                                                                                                     error.getClass().getName(),
+                                                                                                     error.getMessage()),
+                                           this.getClass().getName(),
+                                           methodName,
+                                           error);
+    }
+
+
+    /**
+     * Make a change to the store.  This is used for new changes and for changes replayed from the journal.
+     *
+     * @param change change to make
+     * @return result of the change
+     * @throws RepositoryErrorException problem generating an entity proxy - probably bad entity
+     */
+    private Object applyChange(Change change) throws RepositoryErrorException
+    {
+        return switch (change.changeType())
+        {
+            case CREATE_ENTITY                -> storeNewEntity((EntityDetail) change.instance());
+            case SAVE_ENTITY                  -> storeEntity((EntityDetail) change.instance());
+            case SAVE_ENTITY_PROXY            -> storeEntityProxy((EntityProxy) change.instance());
+            case SAVE_CLASSIFICATION          -> storeClassification(change.guid(), (Classification) change.instance());
+            case REMOVE_ENTITY_CLASSIFICATION -> storeEntityClassificationRemoval(change.guid(), change.classificationName());
+            case REMOVE_PROXY_CLASSIFICATION  -> storeProxyClassificationRemoval(change.guid(), change.classificationName());
+            case PURGE_ENTITY                 -> storeEntityPurge(change.guid());
+            case CREATE_RELATIONSHIP          -> storeNewRelationship((Relationship) change.instance());
+            case SAVE_RELATIONSHIP            -> storeRelationship((Relationship) change.instance());
+            case REMOVE_RELATIONSHIP          -> storeRelationshipRemoval((Relationship) change.instance(), change.changeTime());
+            case PURGE_RELATIONSHIP           -> storeRelationshipPurge(change.guid());
+        };
+    }
+
+
+    /**
+     * Return the state of every instance in the store for a snapshot.  The states refer to the published versions
+     * of each instance, which do not change, so the snapshot can be written while the store continues to change.
+     *
+     * @return list of instance states
+     */
+    private List<Serializable> getInstanceStates()
+    {
+        List<Serializable> instanceStates = new ArrayList<>(entityStore.size() + relationshipStore.size());
+
+        for (Map.Entry<String, StoredEntity> storedEntity : entityStore.entrySet())
+        {
+            instanceStates.add(storedEntity.getValue().getState(storedEntity.getKey()));
+        }
+
+        for (Map.Entry<String, StoredRelationship> storedRelationship : relationshipStore.entrySet())
+        {
+            instanceStates.add(new StoredRelationshipState(storedRelationship.getKey(), storedRelationship.getValue().versions));
+        }
+
+        return instanceStates;
+    }
+
+
+    /**
+     * Add an instance loaded from a snapshot to the store and its indexes.
+     *
+     * @param instanceState state of the instance
+     */
+    private void restoreInstance(Serializable instanceState)
+    {
+        if (instanceState instanceof StoredEntityState entityState)
+        {
+            entityStore.put(entityState.guid(), new StoredEntity(entityState));
+
+            indexEntity(entityState.guid());
+
+            for (EntityDetail historicalEntity : entityState.versions().entityHistory())
+            {
+                indexEntity(entityState.guid(), historicalEntity);
+            }
+        }
+        else if (instanceState instanceof StoredRelationshipState relationshipState)
+        {
+            StoredRelationship storedRelationship = new StoredRelationship(relationshipState.versions());
+
+            relationshipStore.put(relationshipState.guid(), storedRelationship);
+
+            for (String entityGUID : storedRelationship.getEntityGUIDs())
+            {
+                indexRelationship(entityGUID, relationshipState.guid());
+            }
+        }
     }
 
 
@@ -267,35 +846,64 @@ class InMemoryOMRSMetadataStore
      * @return entity with potentially updated GUID
      * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
      */
-    synchronized EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    EntityDetail createEntityInStore(EntityDetail entity) throws RepositoryErrorException
     {
-        entity.setGUID(generateGUID(entity.getType().getTypeDefName(), entity.getGUID()));
+        entity.setGUID(generateGUID(entity.getType().getTypeDefName(), this.getNewGUID(entity.getGUID())));
+
+        return (EntityDetail) recordChange(new Change(ChangeType.CREATE_ENTITY, null, entity, null, null));
+    }
 
+
+    /**
+     * Add a new entity to the entity store.
+     *
+     * @param entity - new version of the entity
+     * @return entity with potentially updated GUID
+     * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
+     */
+    private EntityDetail storeNewEntity(EntityDetail entity) throws RepositoryErrorException
+    {
         StoredEntity newStoredEntity = new StoredEntity(entity);
 
         /*
          * There is a small chance the randomly generated GUID will clash with an existing entity.
          * If this happens a new GUID is generated for the entity and the process repeats.
          */
-        StoredEntity existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
-
-        while (existingStoredEntity != null)
+        while (entityStore.putIfAbsent(entity.getGUID(), newStoredEntity) != null)
         {
-            entityStore.put(entity.getGUID(), existingStoredEntity);
-            entity.setGUID(generateGUID(entity.getType().getTypeDefName(), UUID.randomUUID().toString()));
+            entity.setGUID(generateGUID(entity.getType().getTypeDefName(), guidStrategy.getNewGUID()));
             newStoredEntity = new StoredEntity(entity);
-            existingStoredEntity = entityStore.put(entity.getGUID(), newStoredEntity);
         }
 
+        indexEntity(entity.getGUID());
+
         return entity;
     }
 
 
+    /**
+     * Return the GUID for a new instance.  The GUID supplied by the repository helper is random, so it is
+     * replaced if the repository is configured to use a different strategy.
+     *
+     * @param guid GUID supplied by the repository helper
+     * @return GUID from the configured strategy
+     */
+    private String getNewGUID(String guid)
+    {
+        if (guidStrategy == OMRSGUIDStrategy.RANDOM)
+        {
+            return guid;
+        }
+
+        return guidStrategy.getNewGUID();
+    }
+
+
     /**
      * Create a GUID that includes the type name.  This is to help with debugging.
      *
      * @param typeName typeName of element.
-     * @param guid random UUID.
+     * @param guid UUID from the GUID strategy.
      * @return composite GUID
      */
     private String generateGUID(String typeName,
@@ -310,27 +918,38 @@ class InMemoryOMRSMetadataStore
      *
      * @param relationship - new version of the relationship
      * @return relationship with potentially updated GUID
+     * @throws RepositoryErrorException problem recording the change
      */
-    synchronized Relationship createRelationshipInStore(Relationship relationship)
+    Relationship createRelationshipInStore(Relationship relationship) throws RepositoryErrorException
     {
-        relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), relationship.getGUID()));
+        relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), this.getNewGUID(relationship.getGUID())));
+
+        return (Relationship) recordChange(new Change(ChangeType.CREATE_RELATIONSHIP, null, relationship, null, null));
+    }
 
+
+    /**
+     * Add a new relationship to the relationship store.
+     *
+     * @param relationship - new version of the relationship
+     * @return relationship with potentially updated GUID
+     */
+    private Relationship storeNewRelationship(Relationship relationship)
+    {
         StoredRelationship newStoredRelationship = new StoredRelationship(relationship);
 
         /*
          * There is a small chance the randomly generated GUID will clash with an existing relationship.
          * If this happens a new GUID is generated for the relationship and the process repeats.
          */
-        StoredRelationship existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
-
-        while (existingStoredRelationship != null)
+        while (relationshipStore.putIfAbsent(relationship.getGUID(), newStoredRelationship) != null)
         {
-            relationshipStore.put(relationship.getGUID(), existingStoredRelationship);
-            relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), UUID.randomUUID().toString()));
+            relationship.setGUID(generateGUID(relationship.getType().getTypeDefName(), guidStrategy.getNewGUID()));
             newStoredRelationship = new StoredRelationship(relationship);
-            existingStoredRelationship = relationshipStore.put(relationship.getGUID(), newStoredRelationship);
         }
 
+        indexRelationship(relationship);
+
         return relationship;
     }
 
@@ -341,39 +960,47 @@ class InMemoryOMRSMetadataStore
      * @param entityDetail - entity object to add
      * @throws RepositoryErrorException unable to create proxy
      */
-    synchronized void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
+    void addEntityToStore(EntityDetail entityDetail) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+        recordChange(new Change(ChangeType.SAVE_ENTITY, null, entityDetail, null, null));
+    }
 
-        if (storedEntity == null)
-        {
-            entityStore.put(entityDetail.getGUID(), new StoredEntity(entityDetail));
-        }
-        else
-        {
-            storedEntity.saveEntity(entityDetail);
-        }
+
+    /**
+     * Save an entity proxy to the entity store.
+     *
+     * @param entityProxy - entity proxy object to add
+     * @throws RepositoryErrorException problem recording the change
+     */
+    void addEntityProxyToStore(EntityProxy entityProxy) throws RepositoryErrorException
+    {
+        recordChange(new Change(ChangeType.SAVE_ENTITY_PROXY, null, entityProxy, null, null));
     }
 
 
-
     /**
      * Save an entity proxy to the entity store.
      *
      * @param entityProxy - entity proxy object to add
+     * @return null
      */
-    synchronized void addEntityProxyToStore(EntityProxy entityProxy)
+    private Object storeEntityProxy(EntityProxy entityProxy)
     {
         StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
 
         if (storedEntity == null)
         {
-            entityStore.put(entityProxy.getGUID(), new StoredEntity(entityProxy));
+            storedEntity = entityStore.putIfAbsent(entityProxy.getGUID(), new StoredEntity(entityProxy));
         }
-        else
+
+        if (storedEntity != null)
         {
             storedEntity.saveEntityProxy(entityProxy);
         }
+
+        indexEntity(entityProxy.getGUID());
+
+        return null;
     }
 
 
@@ -381,19 +1008,11 @@ class InMemoryOMRSMetadataStore
      * Save an entity proxy to the entity store.
      *
      * @param relationship - entity proxy object to add
+     * @throws RepositoryErrorException problem recording the change
      */
-    synchronized void addRelationshipToStore(Relationship relationship)
+    void addRelationshipToStore(Relationship relationship) throws RepositoryErrorException
     {
-        StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
-
-        if (storedRelationship == null)
-        {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
-        }
-        else
-        {
-            storedRelationship.saveRelationship(relationship);
-        }
+        recordChange(new Change(ChangeType.SAVE_RELATIONSHIP, null, relationship, null, null));
     }
 
 
@@ -404,18 +1023,54 @@ class InMemoryOMRSMetadataStore
      * @param entity - new version of the entity
      * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
      */
-    synchronized void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    void updateEntityInStore(EntityDetail entity) throws RepositoryErrorException
+    {
+        recordChange(new Change(ChangeType.SAVE_ENTITY, null, entity, null, null));
+    }
+
+
+    /**
+     * Save a new version of an entity to the entity store.  The stored entity keeps the previous versions
+     * in its history.
+     *
+     * @param entity - new version of the entity
+     * @return null
+     * @throws RepositoryErrorException problem generating entity proxy - probably bad entity
+     */
+    private Object storeEntity(EntityDetail entity) throws RepositoryErrorException
     {
         StoredEntity storedEntity = entityStore.get(entity.getGUID());
 
         if (storedEntity == null)
         {
-            entityStore.put(entity.getGUID(), new StoredEntity(entity));
+            storedEntity = entityStore.putIfAbsent(entity.getGUID(), new StoredEntity(entity));
         }
-        else
+
+        /*
+         * The entity is saved into the existing stored entity if the new stored entity was not added.
+         */
+        if (storedEntity != null)
         {
             storedEntity.saveEntity(entity);
         }
+
+        indexEntity(entity.getGUID());
+
+        return null;
+    }
+
+
+    /**
+     * Maintain a classification within the entity proxy.
+     *
+     * @param entityGUID unique identifier of entity
+     * @param classification classification to update
+     * @throws RepositoryErrorException problem recording the change
+     */
+    void saveClassification(String          entityGUID,
+                            Classification  classification) throws RepositoryErrorException
+    {
+        recordChange(new Change(ChangeType.SAVE_CLASSIFICATION, entityGUID, classification, null, null));
     }
 
 
@@ -424,16 +1079,21 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityGUID unique identifier of entity
      * @param classification classification to update
+     * @return null
      */
-    synchronized void saveClassification(String          entityGUID,
-                                         Classification  classification)
+    private Object storeClassification(String          entityGUID,
+                                       Classification  classification)
     {
         StoredEntity storedEntity = entityStore.get(entityGUID);
 
         if (storedEntity != null)
         {
            storedEntity.saveClassification(classification);
+
+           indexEntity(entityGUID);
         }
+
+        return null;
     }
 
 
@@ -442,11 +1102,26 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityDetail entity
      * @param classificationName name of classification to remove
+     * @throws RepositoryErrorException problem recording the change
+     */
+    EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
+                                                String       classificationName) throws RepositoryErrorException
+    {
+        return (EntityDetail) recordChange(new Change(ChangeType.REMOVE_ENTITY_CLASSIFICATION, entityDetail.getGUID(), null, classificationName, null));
+    }
+
+
+    /**
+     * Maintain a classification within the entity.
+     *
+     * @param entityGUID unique identifier of entity
+     * @param classificationName name of classification to remove
+     * @return updated entity
      */
-    synchronized EntityDetail removeClassificationFromEntity(EntityDetail entityDetail,
-                                                             String       classificationName)
+    private EntityDetail storeEntityClassificationRemoval(String entityGUID,
+                                                          String classificationName)
     {
-        StoredEntity storedEntity = entityStore.get(entityDetail.getGUID());
+        StoredEntity storedEntity = entityStore.get(entityGUID);
 
         if (storedEntity != null)
         {
@@ -462,11 +1137,26 @@ class InMemoryOMRSMetadataStore
      *
      * @param entityProxy entity
      * @param classificationName name of classification to remove
+     * @throws RepositoryErrorException problem recording the change
      */
-    synchronized Classification removeClassificationFromProxy(EntityProxy entityProxy,
-                                                              String      classificationName)
+    Classification removeClassificationFromProxy(EntityProxy entityProxy,
+                                                 String      classificationName) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(entityProxy.getGUID());
+        return (Classification) recordChange(new Change(ChangeType.REMOVE_PROXY_CLASSIFICATION, entityProxy.getGUID(), null, classificationName, null));
+    }
+
+
+    /**
+     * Maintain a classification within the entity proxy.
+     *
+     * @param entityGUID unique identifier of entity
+     * @param classificationName name of classification to remove
+     * @return removed classification
+     */
+    private Classification storeProxyClassificationRemoval(String entityGUID,
+                                                           String classificationName)
+    {
+        StoredEntity storedEntity = entityStore.get(entityGUID);
 
         if (storedEntity != null)
         {
@@ -482,19 +1172,38 @@ class InMemoryOMRSMetadataStore
      * can be restored.  The history is maintained with the latest changes first in the list.
      *
      * @param relationship - new version of the relationship
+     * @throws RepositoryErrorException problem recording the change
+     */
+    void updateRelationshipInStore(Relationship relationship) throws RepositoryErrorException
+    {
+        recordChange(new Change(ChangeType.SAVE_RELATIONSHIP, null, relationship, null, null));
+    }
+
+
+    /**
+     * Save a new version of a relationship to the relationship store.  The stored relationship keeps the
+     * previous versions in its history.
+     *
+     * @param relationship - new version of the relationship
+     * @return null
      */
-    synchronized void updateRelationshipInStore(Relationship relationship)
+    private Object storeRelationship(Relationship relationship)
     {
         StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
 
         if (storedRelationship == null)
         {
-            relationshipStore.put(relationship.getGUID(), new StoredRelationship(relationship));
+            storedRelationship = relationshipStore.putIfAbsent(relationship.getGUID(), new StoredRelationship(relationship));
         }
-        else
+
+        if (storedRelationship != null)
         {
             storedRelationship.saveRelationship(relationship);
         }
+
+        indexRelationship(relationship);
+
+        return null;
     }
 
 
@@ -505,7 +1214,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the required element
      * @return - previous version of this relationship - or null if not found
      */
-    synchronized Relationship retrievePreviousVersionOfRelationship(String   guid)
+    Relationship retrievePreviousVersionOfRelationship(String   guid)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -525,7 +1234,7 @@ class InMemoryOMRSMetadataStore
      * @param guid - unique identifier for the required element
      * @return - previous version of this Entity - or null if not found
      */
-    synchronized EntityDetail retrievePreviousVersionOfEntity(String   guid)
+    EntityDetail retrievePreviousVersionOfEntity(String   guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -544,7 +1253,7 @@ class InMemoryOMRSMetadataStore
      * @param guid unique identifier of the entity
      * @return list of classifications or null
      */
-    synchronized List<Classification> getHomeClassifications(String guid)
+    List<Classification> getHomeClassifications(String guid)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -566,10 +1275,10 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized List<EntityDetail> getEntityHistory(String  guid,
-                                                     Date    fromTime,
-                                                     Date    toTime,
-                                                     boolean oldestFirst)
+    List<EntityDetail> getEntityHistory(String  guid,
+                                        Date    fromTime,
+                                        Date    toTime,
+                                        boolean oldestFirst)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -592,11 +1301,11 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized List<Classification> getClassificationHistory(String  guid,
-                                                               String  classificationName,
-                                                               Date    fromTime,
-                                                               Date    toTime,
-                                                               boolean oldestFirst)
+    List<Classification> getClassificationHistory(String  guid,
+                                                  String  classificationName,
+                                                  Date    fromTime,
+                                                  Date    toTime,
+                                                  boolean oldestFirst)
     {
         StoredEntity storedEntity = entityStore.get(guid);
 
@@ -618,10 +1327,10 @@ class InMemoryOMRSMetadataStore
      * @param oldestFirst ordering
      * @return list of instance versions
      */
-    synchronized  List<Relationship> getRelationshipHistory(String  guid,
-                                                            Date    fromTime,
-                                                            Date    toTime,
-                                                            boolean oldestFirst)
+    List<Relationship> getRelationshipHistory(String  guid,
+                                              Date    fromTime,
+                                              Date    toTime,
+                                              boolean oldestFirst)
     {
         StoredRelationship storedRelationship = relationshipStore.get(guid);
 
@@ -638,15 +1347,29 @@ class InMemoryOMRSMetadataStore
      * Remove all record of an entity - including its history.
      *
      * @param guid - entity to remove
+     * @throws RepositoryErrorException problem recording the change
      */
-    synchronized void purgeEntityFromStore(String guid)
+    void purgeEntityFromStore(String guid) throws RepositoryErrorException
     {
-        StoredEntity storedEntity = entityStore.get(guid);
+        recordChange(new Change(ChangeType.PURGE_ENTITY, guid, null, null, null));
+    }
 
-        if (storedEntity != null)
-        {
-            entityStore.remove(guid);
-        }
+
+    /**
+     * Remove all record of an entity - including its history.
+     *
+     * @param guid - entity to remove
+     * @return null
+     */
+    private Object storeEntityPurge(String guid)
+    {
+        entityStore.remove(guid);
+
+        entityTypeIndex.remove(guid);
+        entityClassificationIndex.remove(guid);
+        entityRelationshipIndex.remove(guid);
+
+        return null;
     }
 
 
@@ -655,19 +1378,43 @@ class InMemoryOMRSMetadataStore
      * This occurs when an entity is deleted.
      *
      * @param relationship - relationship to remove
+     * @throws RepositoryErrorException problem recording the change
+     */
+    void removeRelationshipFromStore(Relationship     relationship) throws RepositoryErrorException
+    {
+        recordChange(new Change(ChangeType.REMOVE_RELATIONSHIP, relationship.getGUID(), relationship, null, new Date()));
+    }
+
+
+    /**
+     * Remove a relationship from the active store and add it to the history store.
+     *
+     * @param relationship - relationship to remove
+     * @param deleteTime - time of the removal
+     * @return null
      */
-    synchronized void removeRelationshipFromStore(Relationship     relationship)
+    private Object storeRelationshipRemoval(Relationship relationship,
+                                            Date         deleteTime)
     {
         StoredRelationship storedRelationship = relationshipStore.get(relationship.getGUID());
 
         if (storedRelationship == null)
         {
-            storedRelationship = new StoredRelationship(relationship);
+            StoredRelationship newStoredRelationship = new StoredRelationship(relationship);
 
-            relationshipStore.put(relationship.getGUID(), storedRelationship);
+            storedRelationship = relationshipStore.putIfAbsent(relationship.getGUID(), newStoredRelationship);
+
+            if (storedRelationship == null)
+            {
+                storedRelationship = newStoredRelationship;
+
+                indexRelationship(relationship);
+            }
         }
 
-        storedRelationship.purgeRelationship();
+        storedRelationship.purgeRelationship(deleteTime);
+
+        return null;
     }
 
 
@@ -675,29 +1422,124 @@ class InMemoryOMRSMetadataStore
      * Remove a reference relationship from the active store and add it to the history store.
      *
      * @param guid - relationship to remove
+     * @throws RepositoryErrorException problem recording the change
      */
-    synchronized void purgeRelationshipFromStore(String guid)
+    void purgeRelationshipFromStore(String guid) throws RepositoryErrorException
     {
-        StoredRelationship storedRelationship = relationshipStore.get(guid);
+        recordChange(new Change(ChangeType.PURGE_RELATIONSHIP, guid, null, null, null));
+    }
+
+
+    /**
+     * Remove all record of a relationship - including its history.
+     *
+     * @param guid - relationship to remove
+     * @return null
+     */
+    private Object storeRelationshipPurge(String guid)
+    {
+        StoredRelationship storedRelationship = relationshipStore.remove(guid);
 
         if (storedRelationship != null)
         {
-            relationshipStore.remove(guid);
+            unindexRelationship(guid, storedRelationship);
         }
+
+        return null;
+    }
+
+
+    /**
+     * The versions of an entity that are visible to readers.  A new instance is published each time the
+     * entity, its proxy or its classifications change.
+     *
+     * @param entity current version of the entity (null if only the proxy is known)
+     * @param entityProxy current version of the entity proxy
+     * @param entityHistory previous versions of the entity with the latest version first
+     */
+    private record StoredEntityVersions(EntityDetail                          entity,
+                                        EntityProxy                           entityProxy,
+                                        InMemoryInstanceHistory<EntityDetail> entityHistory) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * The versions of a relationship that are visible to readers.  A new instance is published each time the
+     * relationship changes.
+     *
+     * @param relationship current version of the relationship (null if it has been removed)
+     * @param relationshipHistory previous versions of the relationship with the latest version first
+     * @param unilateralDeleteTime time that the relationship was removed because one of its entities was deleted
+     */
+    private record StoredRelationshipVersions(Relationship                          relationship,
+                                              InMemoryInstanceHistory<Relationship> relationshipHistory,
+                                              Date                                  unilateralDeleteTime) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * The state of an entity that is written to a snapshot.
+     *
+     * @param guid unique identifier of the entity
+     * @param versions published versions of the entity
+     * @param homeClassifications classifications that belong to the local metadata collection
+     */
+    private record StoredEntityState(String                        guid,
+                                     StoredEntityVersions          versions,
+                                     List<HomeClassificationState> homeClassifications) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * The state of a home classification that is written to a snapshot.
+     *
+     * @param classificationName name of the classification
+     * @param latestClassification latest version of the classification (null if deleted)
+     * @param deletedVersionNumber version number of the classification when it was deleted
+     */
+    private record HomeClassificationState(String         classificationName,
+                                           Classification latestClassification,
+                                           long           deletedVersionNumber) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * The state of a relationship that is written to a snapshot.
+     *
+     * @param guid unique identifier of the relationship
+     * @param versions published versions of the relationship
+     */
+    private record StoredRelationshipState(String                     guid,
+                                           StoredRelationshipVersions versions) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
     }
 
 
     /**
      * Provides storage for an entity, its proxy and classifications.  It is proactively keeping the stored entity
-     * and entity proxy up-to-date with the latest known classifications.
+     * and entity proxy up-to-date with the latest known classifications.  Updates are serialized on the stored
+     * entity and publish a new StoredEntityVersions.  Readers take the published versions without locking, and
+     * the published instances are not changed after they are published.
      */
     private class StoredEntity
     {
-        private final Map<String, HomeClassification> homeClassifications = new HashMap<>();
-        private final List<EntityDetail>              entityHistory       = new ArrayList<>();
+        private final Map<String, HomeClassification> homeClassifications = new ConcurrentHashMap<>();
 
-        private EntityDetail entity = null;
-        private EntityProxy  entityProxy = null;
+        private volatile StoredEntityVersions versions = new StoredEntityVersions(null, null, InMemoryInstanceHistory.empty());
 
         /**
          * Constructor for when the first element stored is an entity
@@ -721,6 +1563,45 @@ class InMemoryOMRSMetadataStore
         }
 
 
+        /**
+         * Constructor for an entity restored from a snapshot.
+         *
+         * @param entityState state of the entity from the snapshot
+         */
+        StoredEntity(StoredEntityState entityState)
+        {
+            for (HomeClassificationState homeClassificationState : entityState.homeClassifications())
+            {
+                homeClassifications.put(homeClassificationState.classificationName(),
+                                        new HomeClassification(homeClassificationState.latestClassification(),
+                                                               homeClassificationState.deletedVersionNumber()));
+            }
+
+            versions = entityState.versions();
+        }
+
+
+        /**
+         * Return the state of the entity for a snapshot.
+         *
+         * @param guid unique identifier of the entity
+         * @return entity state
+         */
+        StoredEntityState getState(String guid)
+        {
+            List<HomeClassificationState> homeClassificationStates = new ArrayList<>();
+
+            for (Map.Entry<String, HomeClassification> homeClassification : homeClassifications.entrySet())
+            {
+                homeClassificationStates.add(new HomeClassificationState(homeClassification.getKey(),
+                                                                         homeClassification.getValue().latestClassification,
+                                                                         homeClassification.getValue().deletedVersionNumber));
+            }
+
+            return new StoredEntityState(guid, versions, homeClassificationStates);
+        }
+
+
         /**
          * Retrieve and save any classifications that belong to the local metadata collection.
          *
@@ -820,7 +1701,7 @@ class InMemoryOMRSMetadataStore
          *
          * @return list of classifications or null
          */
-        synchronized List<Classification> getHomeClassifications()
+        List<Classification> getHomeClassifications()
         {
             if (! homeClassifications.isEmpty())
             {
@@ -861,7 +1742,7 @@ class InMemoryOMRSMetadataStore
             try
             {
                 EntityDetail updatedEntity = repositoryHelper.deleteClassificationFromEntity(repositoryName,
-                                                                                             entity,
+                                                                                             versions.entity(),
                                                                                              classificationName,
                                                                                              methodName);
 
@@ -873,7 +1754,7 @@ class InMemoryOMRSMetadataStore
                 log.info(error.toString());
             }
 
-            return this.entity;
+            return versions.entity();
         }
 
 
@@ -895,11 +1776,11 @@ class InMemoryOMRSMetadataStore
                 removedClassification = homeClassification.getHomeClassification();
             }
 
-            if ((removedClassification == null) && (this.entity != null))
+            if ((removedClassification == null) && (versions.entity() != null))
             {
                 try
                 {
-                    removedClassification = repositoryHelper.getClassificationFromEntity(repositoryName, this.entity, classificationName, methodName);
+                    removedClassification = repositoryHelper.getClassificationFromEntity(repositoryName, versions.entity(), classificationName, methodName);
                 }
                 catch (Exception error)
                 {
@@ -908,11 +1789,11 @@ class InMemoryOMRSMetadataStore
                 }
             }
 
-            if ((removedClassification == null) && (this.entityProxy != null))
+            if ((removedClassification == null) && (versions.entityProxy() != null))
             {
                 try
                 {
-                    removedClassification = repositoryHelper.getClassificationFromEntity(repositoryName, this.entityProxy, classificationName, methodName);
+                    removedClassification = repositoryHelper.getClassificationFromEntity(repositoryName, versions.entityProxy(), classificationName, methodName);
                 }
                 catch (Exception error)
                 {
@@ -926,12 +1807,12 @@ class InMemoryOMRSMetadataStore
                 homeClassification.deleteClassification(removedClassification);
             }
 
-            if (this.entity != null)
+            if (versions.entity() != null)
             {
                 try
                 {
                     EntityDetail updatedEntity = repositoryHelper.deleteClassificationFromEntity(repositoryName,
-                                                                                                this.entity,
+                                                                                                versions.entity(),
                                                                                                 classificationName,
                                                                                                 methodName);
                     this.saveEntity(updatedEntity);
@@ -943,12 +1824,12 @@ class InMemoryOMRSMetadataStore
                 }
             }
 
-            if (this.entityProxy != null)
+            if (versions.entityProxy() != null)
             {
                 try
                 {
                     EntityProxy updatedProxy = repositoryHelper.deleteClassificationFromEntity(repositoryName,
-                                                                                               this.entityProxy,
+                                                                                               versions.entityProxy(),
                                                                                                classificationName,
                                                                                                methodName);
                     this.saveEntityProxy(updatedProxy);
@@ -972,25 +1853,38 @@ class InMemoryOMRSMetadataStore
          */
         synchronized void saveEntity(EntityDetail entity) throws RepositoryErrorException
         {
+            StoredEntityVersions                  currentVersions = versions;
+            EntityDetail                          currentEntity   = currentVersions.entity();
+            InMemoryInstanceHistory<EntityDetail> entityHistory   = currentVersions.entityHistory();
+            EntityDetail                          updatedEntity;
+
             saveHomeClassifications(entity);
 
             /*
              * The test of the version is >= to ensure updates to classifications (that do not change the entity version) are stored.
              * The history contains the intermediate versions of the entity caused by classification changes.
              */
-            if ((this.entity == null) || (entity.getVersion() >= this.entity.getVersion()))
+            if ((currentEntity == null) || (entity.getVersion() >= currentEntity.getVersion()))
             {
-                if (this.entity != null)
+                if (currentEntity != null)
                 {
-                    entityHistory.add(0, this.entity);
+                    entityHistory = entityHistory.addLatest(currentEntity,
+                                                            InMemoryInstanceHistory.getStartTime(entity),
+                                                            retentionPolicy);
                 }
 
-                this.entity = new EntityDetail(entity);
+                updatedEntity = new EntityDetail(entity);
+            }
+            else
+            {
+                updatedEntity = new EntityDetail(currentEntity);
             }
 
-            addHomeClassifications(this.entity);
+            addHomeClassifications(updatedEntity);
 
-            this.entityProxy = repositoryHelper.getNewEntityProxy(repositoryName, this.entity);
+            EntityProxy updatedEntityProxy = repositoryHelper.getNewEntityProxy(repositoryName, updatedEntity);
+
+            versions = new StoredEntityVersions(updatedEntity, updatedEntityProxy, entityHistory);
         }
 
 
@@ -1006,19 +1900,31 @@ class InMemoryOMRSMetadataStore
              * be a later version than the entity.  However, the entity should catch up through replication
              * within the cohort (as long as events are flowing).
              */
+            StoredEntityVersions currentVersions = versions;
+            EntityProxy          updatedEntityProxy;
+            EntityDetail         updatedEntity = null;
+
             saveHomeClassifications(entityProxy);
 
-            if ((this.entityProxy == null) || (entityProxy.getVersion() >= this.entityProxy.getVersion()))
+            if ((currentVersions.entityProxy() == null) || (entityProxy.getVersion() >= currentVersions.entityProxy().getVersion()))
             {
-                this.entityProxy = new EntityProxy(entityProxy);
+                updatedEntityProxy = new EntityProxy(entityProxy);
+            }
+            else
+            {
+                updatedEntityProxy = new EntityProxy(currentVersions.entityProxy());
             }
 
-            addHomeClassifications(this.entityProxy);
+            addHomeClassifications(updatedEntityProxy);
 
-            if (this.entity != null)
+            if (currentVersions.entity() != null)
             {
-                addHomeClassifications(this.entity);
+                updatedEntity = new EntityDetail(currentVersions.entity());
+
+                addHomeClassifications(updatedEntity);
             }
+
+            versions = new StoredEntityVersions(updatedEntity, updatedEntityProxy, currentVersions.entityHistory());
         }
 
 
@@ -1033,16 +1939,18 @@ class InMemoryOMRSMetadataStore
 
             if (classification != null)
             {
+                StoredEntityVersions currentVersions = versions;
+
                 saveHomeClassification(classification);
 
-                if (this.entity != null)
+                if (currentVersions.entity() != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entity, new Classification(classification), methodName);
+                    repositoryHelper.addClassificationToEntity(repositoryName, currentVersions.entity(), new Classification(classification), methodName);
                 }
 
-                if (this.entityProxy != null)
+                if (currentVersions.entityProxy() != null)
                 {
-                    repositoryHelper.addClassificationToEntity(repositoryName, this.entityProxy, new Classification(classification), methodName);
+                    repositoryHelper.addClassificationToEntity(repositoryName, currentVersions.entityProxy(), new Classification(classification), methodName);
                 }
             }
         }
@@ -1053,9 +1961,9 @@ class InMemoryOMRSMetadataStore
          *
          * @return entity object
          */
-        synchronized EntityDetail  getEntity()
+        EntityDetail  getEntity()
         {
-            return entity;
+            return versions.entity();
         }
 
 
@@ -1064,9 +1972,9 @@ class InMemoryOMRSMetadataStore
          *
          * @return entity proxy object
          */
-        synchronized EntityProxy  getEntityProxy()
+        EntityProxy  getEntityProxy()
         {
-            return entityProxy;
+            return versions.entityProxy();
         }
 
 
@@ -1076,14 +1984,17 @@ class InMemoryOMRSMetadataStore
          * @param asOfTime time to use on the query
          * @return selected instance
          */
-        synchronized EntityDetail getEntity(Date asOfTime)
+        EntityDetail getEntity(Date asOfTime)
         {
+            StoredEntityVersions currentVersions = versions;
+            EntityDetail         entity          = currentVersions.entity();
+
             if (asOfTime == null)
             {
-                return getEntity();
+                return entity;
             }
 
-            if (this.entity != null)
+            if (entity != null)
             {
                 /*
                  * The requested time is before the element was created.
@@ -1110,7 +2021,7 @@ class InMemoryOMRSMetadataStore
                 }
             }
 
-            for (EntityDetail historicalEntity : entityHistory)
+            for (EntityDetail historicalEntity : currentVersions.entityHistory())
             {
                 if (historicalEntity.getUpdateTime() == null)
                 {
@@ -1142,21 +2053,24 @@ class InMemoryOMRSMetadataStore
          * @param oldestFirst ordering of results
          * @return list of versions of this relationship
          */
-        synchronized List<EntityDetail> getEntityHistory(Date    fromTime,
-                                                         Date    toTime,
-                                                         boolean oldestFirst)
+        List<EntityDetail> getEntityHistory(Date    fromTime,
+                                            Date    toTime,
+                                            boolean oldestFirst)
         {
-            List<EntityDetail> historyResults = new ArrayList<>();
+            StoredEntityVersions                  currentVersions = versions;
+            EntityDetail                          entity          = currentVersions.entity();
+            InMemoryInstanceHistory<EntityDetail> entityHistory   = currentVersions.entityHistory();
+            List<EntityDetail>                    historyResults  = new ArrayList<>();
 
             /*
              * Do not have a full entity
              */
-            if (this.entity == null)
+            if (entity == null)
             {
                 return null;
             }
 
-            if ((toTime != null) && (toTime.before(this.entity.getCreateTime())))
+            if ((toTime != null) && (toTime.before(entity.getCreateTime())))
             {
                 /*
                  * The entity is known - but the query time is from before the instance existed.
@@ -1167,20 +2081,20 @@ class InMemoryOMRSMetadataStore
             /*
              * The current version of the entity is in range.
              */
-            if (checkInclusiveDate(fromTime, toTime, this.entity, null))
+            if (checkInclusiveDate(fromTime, toTime, entity, null))
             {
-                historyResults.add(this.entity);
+                historyResults.add(entity);
             }
 
-            if (! this.entityHistory.isEmpty())
+            if (! entityHistory.isEmpty())
             {
                 /*
                  * The period when an instance is active is from its updateTime to the updateTime of the next element.
                  * The entityHistory has the latest version first.
                  */
-                Date followingUpdateTime = this.entity.getUpdateTime();
+                Date followingUpdateTime = entity.getUpdateTime();
 
-                for (EntityDetail historicalInstance : this.entityHistory)
+                for (EntityDetail historicalInstance : entityHistory)
                 {
                     if (checkInclusiveDate(fromTime, toTime, historicalInstance, followingUpdateTime))
                     {
@@ -1217,20 +2131,24 @@ class InMemoryOMRSMetadataStore
          * @param oldestFirst ordering of results
          * @return list of versions of this relationship
          */
-        synchronized List<Classification> getClassificationHistory(String  classificationName,
-                                                                   Date    fromTime,
-                                                                   Date    toTime,
-                                                                   boolean oldestFirst)
+        List<Classification> getClassificationHistory(String  classificationName,
+                                                      Date    fromTime,
+                                                      Date    toTime,
+                                                      boolean oldestFirst)
         {
+            StoredEntityVersions                  currentVersions = versions;
+            EntityDetail                          entity          = currentVersions.entity();
+            InMemoryInstanceHistory<EntityDetail> entityHistory   = currentVersions.entityHistory();
+
             /*
              * Do not have a full entity
              */
-            if (this.entity == null)
+            if (entity == null)
             {
                 return null;
             }
 
-            if ((toTime != null) && (toTime.before(this.entity.getCreateTime())))
+            if ((toTime != null) && (toTime.before(entity.getCreateTime())))
             {
                 /*
                  * The entity is known - but the query time is from before the instance existed.
@@ -1246,7 +2164,7 @@ class InMemoryOMRSMetadataStore
             List<Classification> matches = getClassificationsForInclusiveDate(classificationName,
                                                                               fromTime,
                                                                               toTime,
-                                                                              this.entity.getClassifications(),
+                                                                              entity.getClassifications(),
                                                                               null);
 
             if (matches != null)
@@ -1257,15 +2175,15 @@ class InMemoryOMRSMetadataStore
                 }
             }
 
-            if (! this.entityHistory.isEmpty())
+            if (! entityHistory.isEmpty())
             {
                 /*
                  * The period when an instance is active is from its updateTime to the updateTime of the next element.
                  * The entityHistory has the latest version first.
                  */
-                Date followingUpdateTime = this.entity.getUpdateTime();
+                Date followingUpdateTime = entity.getUpdateTime();
 
-                for (EntityDetail historicalInstance : this.entityHistory)
+                for (EntityDetail historicalInstance : entityHistory)
                 {
                     matches = getClassificationsForInclusiveDate(classificationName,
                                                                  fromTime,
@@ -1319,14 +2237,9 @@ class InMemoryOMRSMetadataStore
          *
          * @return first element in the history
          */
-        synchronized EntityDetail retrievePreviousVersion()
+        EntityDetail retrievePreviousVersion()
         {
-            if (! entityHistory.isEmpty())
-            {
-                return entityHistory.get(0);
-            }
-
-            return null;
+            return versions.entityHistory().getLatest();
         }
 
 
@@ -1350,12 +2263,26 @@ class InMemoryOMRSMetadataStore
             }
 
 
+            /**
+             * Constructor for a classification restored from a snapshot.
+             *
+             * @param latestClassification latest version of the classification (null if deleted)
+             * @param deletedVersionNumber version number of the classification when it was deleted
+             */
+            HomeClassification(Classification latestClassification,
+                               long           deletedVersionNumber)
+            {
+                this.latestClassification = latestClassification;
+                this.deletedVersionNumber = deletedVersionNumber;
+            }
+
+
             /**
              * Return the saved classification (if any)
              *
              * @return active classification or null if the classification has been deleted
              */
-            synchronized Classification getHomeClassification()
+            Classification getHomeClassification()
             {
                 return this.latestClassification;
             }
@@ -1412,14 +2339,12 @@ class InMemoryOMRSMetadataStore
 
 
     /**
-     * Class to manage the storage of relationships.
+     * Class to manage the storage of relationships.  Updates are serialized on the stored relationship and
+     * publish a new StoredRelationshipVersions.  Readers take the published versions without locking.
      */
     private class StoredRelationship
     {
-        private final List<Relationship> relationshipHistory = new ArrayList<>();
-
-        private volatile Relationship relationship         = null;
-        private volatile Date         unilateralDeleteTime = null;
+        private volatile StoredRelationshipVersions versions = new StoredRelationshipVersions(null, InMemoryInstanceHistory.empty(), null);
 
 
         /**
@@ -1433,6 +2358,17 @@ class InMemoryOMRSMetadataStore
         }
 
 
+        /**
+         * Constructor for a relationship restored from a snapshot.
+         *
+         * @param versions versions of the relationship from the snapshot
+         */
+        StoredRelationship(StoredRelationshipVersions versions)
+        {
+            this.versions = versions;
+        }
+
+
         /**
          * Save the new instance in the store and move the current instance to the front of the history.
          *
@@ -1440,43 +2376,102 @@ class InMemoryOMRSMetadataStore
          */
         synchronized void saveRelationship(Relationship relationship)
         {
-            if (this.relationship != null)
+            StoredRelationshipVersions            currentVersions     = versions;
+            InMemoryInstanceHistory<Relationship> relationshipHistory = currentVersions.relationshipHistory();
+
+            if (currentVersions.relationship() != null)
             {
-                this.relationshipHistory.add(0, this.relationship);
+                relationshipHistory = relationshipHistory.addLatest(currentVersions.relationship(),
+                                                                    InMemoryInstanceHistory.getStartTime(relationship),
+                                                                    retentionPolicy);
             }
 
-            this.relationship = refreshRelationshipProxies(relationship);
+            versions = new StoredRelationshipVersions(refreshRelationshipProxies(relationship),
+                                                      relationshipHistory,
+                                                      currentVersions.unilateralDeleteTime());
         }
 
 
         /**
          * Remove the current version of the instance.  The history is still in place.
+         *
+         * @param deleteTime time of the removal
          **/
-        synchronized void purgeRelationship()
+        synchronized void purgeRelationship(Date deleteTime)
         {
-            if (this.relationship != null)
+            StoredRelationshipVersions            currentVersions      = versions;
+            InMemoryInstanceHistory<Relationship> relationshipHistory  = currentVersions.relationshipHistory();
+            Date                                  unilateralDeleteTime = currentVersions.unilateralDeleteTime();
+
+            if (currentVersions.relationship() != null)
             {
-                this.relationshipHistory.add(this.relationship);
-                this.unilateralDeleteTime = new Date();
+                relationshipHistory = relationshipHistory.addOldest(currentVersions.relationship());
+                unilateralDeleteTime = deleteTime;
             }
 
-            this.relationship = null;
+            versions = new StoredRelationshipVersions(null, relationshipHistory, unilateralDeleteTime);
         }
 
 
         /**
-         * Retrieve the current instance.
+         * Return the unique identifiers of the entities that this relationship has connected to in any of its versions.
          *
-         * @return selected instance
+         * @return set of entity guids
          */
-        synchronized Relationship getRelationship()
+        Set<String> getEntityGUIDs()
         {
-            if (relationship != null)
+            StoredRelationshipVersions currentVersions = versions;
+            Set<String>                entityGUIDs     = new HashSet<>();
+
+            if (currentVersions.relationship() != null)
+            {
+                addEntityGUIDs(currentVersions.relationship(), entityGUIDs);
+            }
+
+            for (Relationship relationshipVersion : currentVersions.relationshipHistory())
             {
-                return refreshRelationshipProxies(this.relationship);
+                if (relationshipVersion != null)
+                {
+                    addEntityGUIDs(relationshipVersion, entityGUIDs);
+                }
+            }
+
+            return entityGUIDs;
+        }
+
+
+        /**
+         * Add the unique identifiers of the ends of a version of the relationship to the supplied set.
+         *
+         * @param relationshipVersion version of the relationship
+         * @param entityGUIDs set to add to
+         */
+        private void addEntityGUIDs(Relationship relationshipVersion,
+                                    Set<String>  entityGUIDs)
+        {
+            String entityOneGUID = getEntityOneGUID(relationshipVersion);
+            String entityTwoGUID = getEntityTwoGUID(relationshipVersion);
+
+            if (entityOneGUID != null)
+            {
+                entityGUIDs.add(entityOneGUID);
+            }
+
+            if (entityTwoGUID != null)
+            {
+                entityGUIDs.add(entityTwoGUID);
             }
+        }
+
 
-            return relationship;
+        /**
+         * Retrieve the current instance.
+         *
+         * @return selected instance
+         */
+        Relationship getRelationship()
+        {
+            return refreshRelationshipProxies(versions.relationship());
         }
 
 
@@ -1486,14 +2481,17 @@ class InMemoryOMRSMetadataStore
          * @param asOfTime time to use on the query
          * @return selected instance
          */
-        synchronized Relationship getRelationship(Date asOfTime)
+        Relationship getRelationship(Date asOfTime)
         {
+            StoredRelationshipVersions currentVersions = versions;
+            Relationship               relationship    = currentVersions.relationship();
+
             if (asOfTime == null)
             {
-                return getRelationship();
+                return refreshRelationshipProxies(relationship);
             }
 
-            if (this.relationship != null)
+            if (relationship != null)
             {
                 /*
                  * The requested time is before the element was created.
@@ -1520,7 +2518,7 @@ class InMemoryOMRSMetadataStore
                 }
             }
 
-            for (Relationship historicalRelationship : relationshipHistory)
+            for (Relationship historicalRelationship : currentVersions.relationshipHistory())
             {
                 if (historicalRelationship.getUpdateTime() == null)
                 {
@@ -1551,22 +2549,26 @@ class InMemoryOMRSMetadataStore
          * @param oldestFirst ordering of results
          * @return list of versions of this relationship
          */
-        synchronized List<Relationship> getRelationshipHistory(Date    fromTime,
-                                                               Date    toTime,
-                                                               boolean oldestFirst)
+        List<Relationship> getRelationshipHistory(Date    fromTime,
+                                                  Date    toTime,
+                                                  boolean oldestFirst)
         {
-            List<Relationship> historyResults = new ArrayList<>();
-            Date               followingUpdateTime;
+            StoredRelationshipVersions            currentVersions      = versions;
+            Relationship                          relationship         = currentVersions.relationship();
+            InMemoryInstanceHistory<Relationship> relationshipHistory  = currentVersions.relationshipHistory();
+            Date                                  unilateralDeleteTime = currentVersions.unilateralDeleteTime();
+            List<Relationship>                    historyResults       = new ArrayList<>();
+            Date                                  followingUpdateTime;
 
             /*
              * Do not have a relationship
              */
-            if (this.relationship == null)
+            if (relationship == null)
             {
                 return null;
             }
 
-            if ((toTime != null) && (toTime.before(this.relationship.getCreateTime())))
+            if ((toTime != null) && (toTime.before(relationship.getCreateTime())))
             {
                 /*
                  * The relationship is known - but the query time is from before the instance existed.
@@ -1591,24 +2593,24 @@ class InMemoryOMRSMetadataStore
             }
             else
             {
-                if (checkInclusiveDate(fromTime, toTime, this.relationship, null))
+                if (checkInclusiveDate(fromTime, toTime, relationship, null))
                 {
                     /*
                      * The current version of the relationship is in range.
                      */
-                    historyResults.add(this.relationship);
+                    historyResults.add(relationship);
                 }
 
-                followingUpdateTime = this.relationship.getUpdateTime();
+                followingUpdateTime = relationship.getUpdateTime();
             }
 
-            if (! this.relationshipHistory.isEmpty())
+            if (! relationshipHistory.isEmpty())
             {
                 /*
                  * The period when an instance is active is from its updateTime to the updateTime of the next element.
                  * The relationshipHistory has the latest version first.
                  */
-                for (Relationship historicalInstance : this.relationshipHistory)
+                for (Relationship historicalInstance : relationshipHistory)
                 {
                     if (checkInclusiveDate(fromTime, toTime, historicalInstance, followingUpdateTime))
                     {
@@ -1641,14 +2643,9 @@ class InMemoryOMRSMetadataStore
          *
          * @return first element in the history
          */
-        synchronized Relationship retrievePreviousVersion()
+        Relationship retrievePreviousVersion()
         {
-            if (! relationshipHistory.isEmpty())
-            {
-                return relationshipHistory.get(0);
-            }
-
-            return null;
+            return versions.relationshipHistory().getLatest();
         }
 
 
@@ -1658,7 +2655,7 @@ class InMemoryOMRSMetadataStore
          * @param storedRelationship relationship retrieved from one of the relationship stores.
          * @return a cloned relationship with the latest proxies.
          */
-        private synchronized Relationship refreshRelationshipProxies(Relationship storedRelationship)
+        private Relationship refreshRelationshipProxies(Relationship storedRelationship)
         {
             if (storedRelationship != null)
             {
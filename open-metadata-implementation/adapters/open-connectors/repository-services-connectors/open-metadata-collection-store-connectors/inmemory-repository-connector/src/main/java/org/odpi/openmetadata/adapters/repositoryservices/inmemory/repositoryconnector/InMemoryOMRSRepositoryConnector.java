@@ -3,17 +3,37 @@
 package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
 
 
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.controls.InMemoryConfigurationProperty;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc.InMemoryAuditCode;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc.InMemoryErrorCode;
+import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.UUID;
 
 /**
  * The InMemoryOMRSRepositoryConnector is a connector to a local in memory repository.  It is used for test,
  * small scale fixed or temporary repositories where the initial content comes from open metadata archives and
- * other members of connected open metadata repository cohorts.
+ * other members of connected open metadata repository cohorts.  If the persistenceDirectory configuration
+ * property is set, the contents of the repository are kept in a snapshot and write-ahead log in that directory
+ * and are restored when the connector starts.  The historyRetention configuration property limits the previous
+ * versions of each instance that are kept.
  */
 public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
 {
+    private static final int    defaultSnapshotInterval        = 10000;
+    private static final String historyRetentionAllVersions    = "allVersions";
+    private static final String historyRetentionLastVersions   = "lastVersions";
+    private static final String historyRetentionTimeWindow     = "timeWindow";
+    private static final String historyRetentionCurrentVersion = "currentVersion";
+
+    private InMemoryOMRSStoreJournal journal = null;
+
+
     /**
      * Default constructor used by the OCF Connector Provider.
      */
@@ -51,4 +71,153 @@ public class InMemoryOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                                       repositoryValidator,
                                                                       super.metadataCollectionId);
     }
-}
\ No newline at end of file
+
+
+    /**
+     * Indicates that the connector is completely configured and can begin processing.  If persistence is
+     * configured, the contents of the repository are restored from the persistence directory.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     * @throws UserNotAuthorizedException the connector was disconnected before/during start
+     */
+    @Override
+    public void start() throws ConnectorCheckedException, UserNotAuthorizedException
+    {
+        final String methodName = "start";
+
+        super.start();
+
+        if (super.metadataCollection instanceof InMemoryOMRSMetadataCollection inMemoryMetadataCollection)
+        {
+            inMemoryMetadataCollection.setRetentionPolicy(this.getRetentionPolicy(methodName));
+            inMemoryMetadataCollection.setGUIDStrategy(OMRSGUIDStrategy.getGUIDStrategy(super.getStringConfigurationProperty(InMemoryConfigurationProperty.GUID_STRATEGY.getName(),
+                                                                                                                            connectionBean.getConfigurationProperties())));
+        }
+
+        String persistenceDirectory = super.getStringConfigurationProperty(InMemoryConfigurationProperty.PERSISTENCE_DIRECTORY.getName(),
+                                                                           connectionBean.getConfigurationProperties());
+
+        if ((persistenceDirectory != null) && (super.metadataCollection instanceof InMemoryOMRSMetadataCollection inMemoryMetadataCollection))
+        {
+            int snapshotInterval = super.getIntConfigurationProperty(InMemoryConfigurationProperty.SNAPSHOT_INTERVAL.getName(),
+                                                                     connectionBean.getConfigurationProperties());
+
+            if (snapshotInterval <= 0)
+            {
+                snapshotInterval = defaultSnapshotInterval;
+            }
+
+            journal = new InMemoryOMRSStoreJournal(super.serverName,
+                                                   Paths.get(persistenceDirectory),
+                                                   snapshotInterval,
+                                                   super.getBooleanConfigurationProperty(InMemoryConfigurationProperty.SYNC_LOG_WRITES.getName(),
+                                                                                         connectionBean.getConfigurationProperties()));
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName, InMemoryAuditCode.RESTORING_REPOSITORY.getMessageDefinition(super.serverName, persistenceDirectory));
+            }
+
+            try
+            {
+                InMemoryOMRSStoreJournal.RecoveryResult recoveryResult = inMemoryMetadataCollection.startPersistence(journal);
+
+                if (auditLog != null)
+                {
+                    auditLog.logMessage(methodName,
+                                        InMemoryAuditCode.REPOSITORY_RESTORED.getMessageDefinition(super.serverName,
+                                                                                                   Long.toString(recoveryResult.restoredInstanceCount()),
+                                                                                                   Long.toString(recoveryResult.replayedChangeCount())));
+                }
+            }
+            catch (Exception error)
+            {
+                throw new ConnectorCheckedException(InMemoryErrorCode.PERSISTENCE_DIRECTORY_ERROR.getMessageDefinition(super.serverName,
+                                                                                                                       persistenceDirectory,
+                                                                                                                       error.getClass().getName(),
+                                                                                                                       error.getMessage()),
+                                                    this.getClass().getName(),
+                                                    methodName,
+                                                    error);
+            }
+        }
+    }
+
+
+    /**
+     * Return the policy for the previous versions of each instance that are kept, from the configuration properties.
+     *
+     * @param methodName calling method
+     * @return retention policy
+     * @throws ConnectorCheckedException the historyRetention configuration property is not recognized
+     */
+    private InMemoryInstanceHistory.RetentionPolicy getRetentionPolicy(String methodName) throws ConnectorCheckedException
+    {
+        String historyRetention = super.getStringConfigurationProperty(InMemoryConfigurationProperty.HISTORY_RETENTION.getName(),
+                                                                       connectionBean.getConfigurationProperties());
+
+        if ((historyRetention == null) || (historyRetentionAllVersions.equals(historyRetention)))
+        {
+            return InMemoryInstanceHistory.RetentionPolicy.ALL_VERSIONS;
+        }
+        else if (historyRetentionLastVersions.equals(historyRetention))
+        {
+            int maxVersions = super.getIntConfigurationProperty(InMemoryConfigurationProperty.HISTORY_RETENTION_VERSIONS.getName(),
+                                                                connectionBean.getConfigurationProperties());
+
+            return new InMemoryInstanceHistory.RetentionPolicy(Math.max(maxVersions, 0), -1);
+        }
+        else if (historyRetentionTimeWindow.equals(historyRetention))
+        {
+            long retentionPeriod = super.getLongConfigurationProperty(InMemoryConfigurationProperty.HISTORY_RETENTION_PERIOD.getName(),
+                                                                      connectionBean.getConfigurationProperties());
+
+            return new InMemoryInstanceHistory.RetentionPolicy(-1, Math.max(retentionPeriod, 0L) * 60000L);
+        }
+        else if (historyRetentionCurrentVersion.equals(historyRetention))
+        {
+            return InMemoryInstanceHistory.RetentionPolicy.CURRENT_VERSION;
+        }
+
+        throw new ConnectorCheckedException(InMemoryErrorCode.INVALID_HISTORY_RETENTION.getMessageDefinition(super.serverName, historyRetention),
+                                            this.getClass().getName(),
+                                            methodName);
+    }
+
+
+    /**
+     * Free up any resources held since the connector is no longer needed.  The write-ahead log is closed once
+     * any snapshot in progress is complete.
+     *
+     * @throws ConnectorCheckedException there is a problem within the connector.
+     */
+    @Override
+    public void disconnect() throws ConnectorCheckedException
+    {
+        final String methodName = "disconnect";
+
+        if ((journal != null) && (super.metadataCollection instanceof InMemoryOMRSMetadataCollection inMemoryMetadataCollection))
+        {
+            try
+            {
+                inMemoryMetadataCollection.stopPersistence();
+            }
+            catch (IOException error)
+            {
+                if (auditLog != null)
+                {
+                    auditLog.logException(methodName,
+                                          InMemoryAuditCode.UNEXPECTED_EXCEPTION.getMessageDefinition(super.serverName,
+                                                                                                      error.getClass().getName(),
+                                                                                                      methodName,
+                                                                                                      error.getMessage()),
+                                          error);
+                }
+            }
+
+            journal = null;
+        }
+
+        super.disconnect();
+    }
+}
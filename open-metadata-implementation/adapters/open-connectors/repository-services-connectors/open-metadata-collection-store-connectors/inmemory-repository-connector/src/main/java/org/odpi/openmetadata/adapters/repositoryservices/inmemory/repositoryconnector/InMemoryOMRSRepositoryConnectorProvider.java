@@ -4,6 +4,7 @@ package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositorycon
 
 
 import org.odpi.openmetadata.adapters.connectors.EgeriaOpenConnectorDefinition;
+import org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.controls.InMemoryConfigurationProperty;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 
 /**
@@ -32,6 +33,8 @@ public class InMemoryOMRSRepositoryConnectorProvider extends OMRSRepositoryConne
     {
         super(EgeriaOpenConnectorDefinition.IN_MEMORY_REPOSITORY_CONNECTOR,
               connectorClassName,
-              null);
+              InMemoryConfigurationProperty.getRecognizedConfigurationProperties());
+
+        super.supportedConfigurationProperties = InMemoryConfigurationProperty.getConfigurationPropertyTypes();
     }
 }
\ No newline at end of file
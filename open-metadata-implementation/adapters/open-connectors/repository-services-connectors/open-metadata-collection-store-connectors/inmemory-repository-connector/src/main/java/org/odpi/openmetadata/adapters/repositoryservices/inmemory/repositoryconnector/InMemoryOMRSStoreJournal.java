@@ -0,0 +1,689 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceAuditHeader;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serial;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * InMemoryOMRSStoreJournal keeps the contents of an in-memory metadata store in a local directory so that they
+ * survive a restart.  Each change to the store is appended to a write-ahead log.  After a configurable number of
+ * changes, the state of the store is written to a compacted snapshot by a background thread and the logs it
+ * covers are removed.  On startup, the latest snapshot is memory-mapped and loaded, and then the logs written
+ * since the snapshot are replayed.
+ * <br><br>
+ * The logs are numbered by generation.  Taking a snapshot starts a new generation so the store can continue to
+ * change while the snapshot is written.  The snapshot records the first generation that it does not cover.
+ * Each log record carries its length and checksum so a record that was only partly written when the
+ * server stopped is detected and ignored.
+ * <br><br>
+ * The caller must hold the journal's lock while it applies a change to the store and appends it to the log,
+ * so the log matches the order in which the changes were made.  Only the changes that were applied
+ * successfully are appended, so each change in the log can be replayed.
+ */
+class InMemoryOMRSStoreJournal
+{
+    private static final int    snapshotFormatIdentifier = 0x45474D53;
+    private static final int    snapshotFormatVersion    = 2;
+    private static final String snapshotFileName         = "snapshot.bin";
+    private static final String logFilePrefix            = "journal-";
+    private static final String logFileSuffix            = ".log";
+    private static final int    snapshotResetInterval    = 1000;
+    private static final long   maxMappedRegionSize      = 1L << 30;
+
+    private static final Logger log = LoggerFactory.getLogger(InMemoryOMRSStoreJournal.class);
+
+    private final String          repositoryName;
+    private final Path            directory;
+    private final int             snapshotInterval;
+    private final boolean         syncWrites;
+    private final ExecutorService snapshotExecutor;
+
+    private FileChannel logChannel           = null;
+    private long        logGeneration        = 0L;
+    private int         changesSinceSnapshot = 0;
+    private Future<?>   snapshotInProgress   = null;
+
+
+    /**
+     * The type of change recorded in the write-ahead log.  Each type matches a method of the
+     * InMemoryOMRSMetadataStore that changes its contents.
+     */
+    enum ChangeType
+    {
+        CREATE_ENTITY,
+        SAVE_ENTITY,
+        SAVE_ENTITY_PROXY,
+        SAVE_CLASSIFICATION,
+        REMOVE_ENTITY_CLASSIFICATION,
+        REMOVE_PROXY_CLASSIFICATION,
+        PURGE_ENTITY,
+        CREATE_RELATIONSHIP,
+        SAVE_RELATIONSHIP,
+        REMOVE_RELATIONSHIP,
+        PURGE_RELATIONSHIP
+    }
+
+
+    /**
+     * A change to the store.  The values that are not needed for the type of change are null.
+     *
+     * @param changeType type of change
+     * @param guid unique identifier of the instance that is changed
+     * @param instance new version of the entity, entity proxy, classification or relationship
+     * @param classificationName name of the classification that is removed
+     * @param changeTime time of the change when it is not recorded in the instance
+     */
+    record Change(ChangeType          changeType,
+                  String              guid,
+                  InstanceAuditHeader instance,
+                  String              classificationName,
+                  Date                changeTime) implements Serializable
+    {
+        @Serial
+        private static final long serialVersionUID = 1L;
+    }
+
+
+    /**
+     * Applies a change read from the write-ahead log to the store.
+     */
+    @FunctionalInterface
+    interface ChangeConsumer
+    {
+        /**
+         * Apply the change.
+         *
+         * @param change change from the log
+         * @throws RepositoryErrorException the change could not be applied
+         */
+        void apply(Change change) throws RepositoryErrorException;
+    }
+
+
+    /**
+     * The result of restoring a store from its snapshot and logs.
+     *
+     * @param restoredInstanceCount number of instances loaded from the snapshot
+     * @param replayedChangeCount number of changes replayed from the logs
+     */
+    record RecoveryResult(long restoredInstanceCount,
+                          long replayedChangeCount)
+    {
+    }
+
+
+    /**
+     * Constructor supplies the location of the journal and how it is written.
+     *
+     * @param repositoryName name of the repository - used for logging
+     * @param directory directory for the snapshot and logs
+     * @param snapshotInterval number of logged changes that trigger a new snapshot
+     * @param syncWrites force each change to disk before returning to the caller
+     */
+    InMemoryOMRSStoreJournal(String  repositoryName,
+                             Path    directory,
+                             int     snapshotInterval,
+                             boolean syncWrites)
+    {
+        this.repositoryName = repositoryName;
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        this.syncWrites = syncWrites;
+        this.snapshotExecutor = Executors.newSingleThreadExecutor(runnable ->
+        {
+            Thread thread = new Thread(runnable, "InMemorySnapshot-" + repositoryName);
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+
+    /**
+     * Return the directory used by the journal.
+     *
+     * @return path name
+     */
+    Path getDirectory()
+    {
+        return directory;
+    }
+
+
+    /**
+     * Load the latest snapshot and replay the logs that follow it.  A new log is then opened for the changes
+     * that follow.
+     *
+     * @param snapshotConsumer receives each instance state stored in the snapshot
+     * @param changeConsumer receives each change from the logs in the order they were made
+     * @return counts of the restored instances and replayed changes
+     * @throws IOException problem reading the directory
+     * @throws RepositoryErrorException problem applying a change
+     */
+    synchronized RecoveryResult recover(Consumer<Serializable> snapshotConsumer,
+                                        ChangeConsumer         changeConsumer) throws IOException,
+                                                                                      RepositoryErrorException
+    {
+        Files.createDirectories(directory);
+
+        long restoredInstanceCount = 0L;
+        long replayedChangeCount   = 0L;
+        long firstLogGeneration    = 0L;
+        Path snapshotFile          = directory.resolve(snapshotFileName);
+
+        if (Files.exists(snapshotFile))
+        {
+            try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ))
+            {
+                DataInputStream headerStream = new DataInputStream(new MappedFileInputStream(channel));
+
+                if ((headerStream.readInt() != snapshotFormatIdentifier) || (headerStream.readInt() != snapshotFormatVersion))
+                {
+                    throw new IOException("File " + snapshotFile + " is not a snapshot in a supported format");
+                }
+
+                firstLogGeneration = headerStream.readLong();
+
+                long              instanceCount = headerStream.readLong();
+                ObjectInputStream objectStream  = new ObjectInputStream(headerStream);
+
+                for (long i = 0; i < instanceCount; i++)
+                {
+                    snapshotConsumer.accept((Serializable) objectStream.readObject());
+                    restoredInstanceCount++;
+                }
+            }
+            catch (ClassNotFoundException error)
+            {
+                throw new IOException(error);
+            }
+        }
+
+        for (long generation : getLogGenerations())
+        {
+            if (generation >= firstLogGeneration)
+            {
+                replayedChangeCount = replayedChangeCount + replayLog(getLogFile(generation), changeConsumer);
+            }
+
+            logGeneration = Math.max(logGeneration, generation);
+        }
+
+        logGeneration = Math.max(logGeneration, firstLogGeneration);
+
+        /*
+         * The last log may end with a partly written record so the changes that follow go to a new log.
+         */
+        openLog(logGeneration + 1);
+
+        return new RecoveryResult(restoredInstanceCount, replayedChangeCount);
+    }
+
+
+    /**
+     * Return the generation numbers of the logs in the directory, oldest first.
+     *
+     * @return list of generation numbers
+     * @throws IOException problem reading the directory
+     */
+    private List<Long> getLogGenerations() throws IOException
+    {
+        List<Long> generations = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            files.forEach(file ->
+            {
+                String fileName = file.getFileName().toString();
+
+                if ((fileName.startsWith(logFilePrefix)) && (fileName.endsWith(logFileSuffix)))
+                {
+                    try
+                    {
+                        generations.add(Long.parseLong(fileName.substring(logFilePrefix.length(),
+                                                                          fileName.length() - logFileSuffix.length())));
+                    }
+                    catch (NumberFormatException error)
+                    {
+                        log.debug("Ignoring file {} in {}", fileName, directory);
+                    }
+                }
+            });
+        }
+
+        generations.sort(Long::compare);
+
+        return generations;
+    }
+
+
+    /**
+     * Return the path name of the log for a generation.
+     *
+     * @param generation generation number
+     * @return path name
+     */
+    private Path getLogFile(long generation)
+    {
+        return directory.resolve(String.format("%s%016d%s", logFilePrefix, generation, logFileSuffix));
+    }
+
+
+    /**
+     * Pass the changes in a log to the consumer.  Reading stops at the first record that is incomplete or does
+     * not match its checksum since this is where the writer stopped.
+     *
+     * @param logFile log to read
+     * @param changeConsumer receives each change
+     * @return number of changes replayed
+     * @throws IOException problem reading the log
+     * @throws RepositoryErrorException problem applying a change
+     */
+    private long replayLog(Path           logFile,
+                           ChangeConsumer changeConsumer) throws IOException, RepositoryErrorException
+    {
+        long replayedChangeCount = 0L;
+        long remainingLength     = Files.size(logFile);
+
+        try (DataInputStream logStream = new DataInputStream(new BufferedInputStream(Files.newInputStream(logFile))))
+        {
+            while (remainingLength >= Integer.BYTES + Long.BYTES)
+            {
+                int  recordLength = logStream.readInt();
+                long checksum     = logStream.readLong();
+
+                remainingLength = remainingLength - Integer.BYTES - Long.BYTES;
+
+                if ((recordLength < 0) || (recordLength > remainingLength))
+                {
+                    log.warn("Ignoring the end of log {} after change {} since the last record is incomplete", logFile, replayedChangeCount);
+                    return replayedChangeCount;
+                }
+
+                byte[] record = new byte[recordLength];
+
+                logStream.readFully(record);
+                remainingLength = remainingLength - recordLength;
+
+                CRC32 crc = new CRC32();
+
+                crc.update(record);
+
+                if (crc.getValue() != checksum)
+                {
+                    log.warn("Ignoring the end of log {} after change {} since the record checksum does not match", logFile, replayedChangeCount);
+                    return replayedChangeCount;
+                }
+
+                try (ObjectInputStream recordStream = new ObjectInputStream(new ByteArrayInputStream(record)))
+                {
+                    changeConsumer.apply((Change) recordStream.readObject());
+                    replayedChangeCount++;
+                }
+                catch (ClassNotFoundException error)
+                {
+                    throw new IOException(error);
+                }
+            }
+        }
+
+        return replayedChangeCount;
+    }
+
+
+    /**
+     * Open a new log.
+     *
+     * @param generation generation number of the new log
+     * @throws IOException problem creating the log
+     */
+    private void openLog(long generation) throws IOException
+    {
+        FileChannel newLogChannel = FileChannel.open(getLogFile(generation),
+                                                     StandardOpenOption.CREATE,
+                                                     StandardOpenOption.WRITE,
+                                                     StandardOpenOption.APPEND);
+
+        if (logChannel != null)
+        {
+            logChannel.force(false);
+            logChannel.close();
+        }
+
+        logChannel = newLogChannel;
+        logGeneration = generation;
+    }
+
+
+    /**
+     * Return whether the log is open for new changes.
+     *
+     * @return boolean
+     */
+    synchronized boolean isOpen()
+    {
+        return logChannel != null;
+    }
+
+
+    /**
+     * Append a change to the log.
+     *
+     * @param change change that has been applied to the store
+     * @throws IOException problem writing the log
+     */
+    synchronized void append(Change change) throws IOException
+    {
+        if (logChannel == null)
+        {
+            throw new IOException("The journal for " + repositoryName + " is not open");
+        }
+
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream recordStream = new ObjectOutputStream(recordBytes))
+        {
+            recordStream.writeObject(change);
+        }
+
+        byte[] record = recordBytes.toByteArray();
+        CRC32  crc    = new CRC32();
+
+        crc.update(record);
+
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + Long.BYTES + record.length);
+
+        buffer.putInt(record.length);
+        buffer.putLong(crc.getValue());
+        buffer.put(record);
+        buffer.flip();
+
+        while (buffer.hasRemaining())
+        {
+            logChannel.write(buffer);
+        }
+
+        if (syncWrites)
+        {
+            logChannel.force(false);
+        }
+
+        changesSinceSnapshot++;
+    }
+
+
+    /**
+     * Return whether enough changes have been logged to take a new snapshot.  Only one snapshot is written
+     * at a time.
+     *
+     * @return boolean
+     */
+    synchronized boolean isSnapshotDue()
+    {
+        return (changesSinceSnapshot >= snapshotInterval) && ((snapshotInProgress == null) || (snapshotInProgress.isDone()));
+    }
+
+
+    /**
+     * Start writing a snapshot.  The supplied states must not change after they are passed to the journal.
+     * A new log is started for the changes that follow, and the snapshot is written in the background.
+     * The older logs are removed once the snapshot is complete.
+     *
+     * @param instanceStates state of each instance in the store
+     * @throws IOException problem starting the new log
+     */
+    synchronized void startSnapshot(List<Serializable> instanceStates) throws IOException
+    {
+        long firstUncoveredGeneration = logGeneration + 1;
+
+        openLog(firstUncoveredGeneration);
+        changesSinceSnapshot = 0;
+
+        snapshotInProgress = snapshotExecutor.submit(() ->
+        {
+            try
+            {
+                writeSnapshot(instanceStates, firstUncoveredGeneration);
+                removeLogs(firstUncoveredGeneration);
+            }
+            catch (Exception error)
+            {
+                log.error("Unable to write snapshot for repository {} in {}", repositoryName, directory, error);
+            }
+        });
+    }
+
+
+    /**
+     * Write the snapshot to a temporary file and then move it into place so that a complete snapshot is always
+     * available.
+     *
+     * @param instanceStates state of each instance in the store
+     * @param firstUncoveredGeneration first log generation that is not included in the snapshot
+     * @throws IOException problem writing the snapshot
+     */
+    private void writeSnapshot(List<Serializable> instanceStates,
+                               long               firstUncoveredGeneration) throws IOException
+    {
+        Path temporaryFile = directory.resolve(snapshotFileName + ".tmp");
+
+        try (FileOutputStream fileStream = new FileOutputStream(temporaryFile.toFile()))
+        {
+            DataOutputStream headerStream = new DataOutputStream(new BufferedOutputStream(fileStream));
+
+            headerStream.writeInt(snapshotFormatIdentifier);
+            headerStream.writeInt(snapshotFormatVersion);
+            headerStream.writeLong(firstUncoveredGeneration);
+            headerStream.writeLong(instanceStates.size());
+
+            ObjectOutputStream objectStream = new ObjectOutputStream(headerStream);
+            int                count        = 0;
+
+            for (Serializable instanceState : instanceStates)
+            {
+                objectStream.writeObject(instanceState);
+
+                /*
+                 * Resetting the stream stops it holding a reference to every object written so far.
+                 */
+                if (++count % snapshotResetInterval == 0)
+                {
+                    objectStream.reset();
+                }
+            }
+
+            objectStream.flush();
+            fileStream.getFD().sync();
+        }
+
+        Files.move(temporaryFile, directory.resolve(snapshotFileName), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /**
+     * Remove the logs that are covered by the latest snapshot.
+     *
+     * @param firstUncoveredGeneration first log generation that is not included in the snapshot
+     * @throws IOException problem reading the directory
+     */
+    private void removeLogs(long firstUncoveredGeneration) throws IOException
+    {
+        for (long generation : getLogGenerations())
+        {
+            if (generation < firstUncoveredGeneration)
+            {
+                Files.deleteIfExists(getLogFile(generation));
+            }
+        }
+    }
+
+
+    /**
+     * Wait for any snapshot in progress and close the log.
+     *
+     * @throws IOException problem closing the log
+     */
+    void close() throws IOException
+    {
+        snapshotExecutor.shutdown();
+
+        try
+        {
+            if (! snapshotExecutor.awaitTermination(5, TimeUnit.MINUTES))
+            {
+                log.warn("Snapshot for repository {} did not complete before shutdown", repositoryName);
+            }
+        }
+        catch (InterruptedException error)
+        {
+            Thread.currentThread().interrupt();
+        }
+
+        synchronized (this)
+        {
+            if (logChannel != null)
+            {
+                logChannel.force(false);
+                logChannel.close();
+                logChannel = null;
+            }
+        }
+    }
+
+
+    /**
+     * Reads a file through a series of memory-mapped regions.
+     */
+    private static class MappedFileInputStream extends InputStream
+    {
+        private final FileChannel channel;
+        private final long        size;
+        private long              nextRegionPosition = 0L;
+        private MappedByteBuffer  region             = null;
+
+
+        /**
+         * Constructor supplies the open file.
+         *
+         * @param channel open file
+         * @throws IOException problem reading the size of the file
+         */
+        MappedFileInputStream(FileChannel channel) throws IOException
+        {
+            this.channel = channel;
+            this.size = channel.size();
+        }
+
+
+        /**
+         * Make sure the current region has data to read, mapping the next region if needed.
+         *
+         * @return false if the end of the file is reached
+         * @throws IOException problem mapping the file
+         */
+        private boolean nextRegion() throws IOException
+        {
+            if ((region != null) && (region.hasRemaining()))
+            {
+                return true;
+            }
+
+            if (nextRegionPosition >= size)
+            {
+                return false;
+            }
+
+            long regionSize = Math.min(maxMappedRegionSize, size - nextRegionPosition);
+
+            region = channel.map(FileChannel.MapMode.READ_ONLY, nextRegionPosition, regionSize);
+            nextRegionPosition = nextRegionPosition + regionSize;
+
+            return true;
+        }
+
+
+        /**
+         * Read the next byte.
+         *
+         * @return byte value or -1 at the end of the file
+         * @throws IOException problem mapping the file
+         */
+        @Override
+        public int read() throws IOException
+        {
+            if (nextRegion())
+            {
+                return region.get() & 0xFF;
+            }
+
+            return -1;
+        }
+
+
+        /**
+         * Read bytes into an array.
+         *
+         * @param bytes array to fill
+         * @param offset position in the array to start
+         * @param length maximum number of bytes to read
+         * @return number of bytes read or -1 at the end of the file
+         * @throws IOException problem mapping the file
+         */
+        @Override
+        public int read(byte[] bytes,
+                        int    offset,
+                        int    length) throws IOException
+        {
+            if (length == 0)
+            {
+                return 0;
+            }
+
+            if (nextRegion())
+            {
+                int readLength = Math.min(length, region.remaining());
+
+                region.get(bytes, offset, readLength);
+
+                return readLength;
+            }
+
+            return -1;
+        }
+    }
+}
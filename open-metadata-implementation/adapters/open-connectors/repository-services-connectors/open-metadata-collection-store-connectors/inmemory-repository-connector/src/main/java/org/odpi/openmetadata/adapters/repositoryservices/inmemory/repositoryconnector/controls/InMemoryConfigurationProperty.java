@@ -0,0 +1,162 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.controls;
+
+
+import org.odpi.openmetadata.frameworks.openmetadata.specificationproperties.ConfigurationPropertyType;
+import org.odpi.openmetadata.frameworks.openmetadata.types.DataType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * InMemoryConfigurationProperty provides the definitions for the configuration properties used to
+ * control the optional persistence of the in-memory repository and the versions of each instance that it keeps.
+ */
+public enum InMemoryConfigurationProperty
+{
+    PERSISTENCE_DIRECTORY("persistenceDirectory", "Optional directory used to keep the repository contents on disk.  Changes are appended to a write-ahead log in this directory and periodically compacted into a snapshot.  On restart, the latest snapshot is loaded and the log is replayed.  If it is not specified, the repository contents are lost when the server stops.", DataType.STRING.getDisplayName(), "data/servers/~{serverName}~/repository"),
+    SNAPSHOT_INTERVAL("snapshotInterval", "Optional number of changes written to the write-ahead log before a new snapshot is taken.  The default is 10000.", DataType.INT.getDisplayName(), "10000"),
+    SYNC_LOG_WRITES("syncLogWrites", "Optional flag to force each change to disk before the request completes.  This protects against the loss of recent changes if the operating system fails, at the cost of slower updates.  The default is false.", DataType.BOOLEAN.getDisplayName(), "true"),
+    HISTORY_RETENTION("historyRetention", "Optional policy for the previous versions of each instance that are kept: allVersions, lastVersions (see historyRetentionVersions), timeWindow (see historyRetentionPeriod) or currentVersion.  Previous versions are needed for queries with an asOfTime and for the history requests.  The default is allVersions.", DataType.STRING.getDisplayName(), "lastVersions"),
+    HISTORY_RETENTION_VERSIONS("historyRetentionVersions", "Number of previous versions of each instance that are kept when historyRetention is lastVersions.", DataType.INT.getDisplayName(), "10"),
+    HISTORY_RETENTION_PERIOD("historyRetentionPeriod", "Number of minutes that a previous version of an instance is kept after it is superseded when historyRetention is timeWindow.", DataType.INT.getDisplayName(), "1440"),
+    GUID_STRATEGY("guidStrategy", "Optional strategy for the GUIDs of new instances: random or time-ordered.  Time-ordered GUIDs start with their creation time so that they sort in the order they were created.  The default is random.", DataType.STRING.getDisplayName(), "time-ordered"),
+    ;
+
+    public final String           name;
+    public final String           description;
+    public final String           dataType;
+    public final String           example;
+
+
+    /**
+     * Create a specific Enum constant.
+     *
+     * @param name name of the request parameter
+     * @param description description of the request parameter
+     * @param dataType type of value of the request parameter
+     * @param example example of the request parameter
+     */
+    InMemoryConfigurationProperty(String name,
+                                  String description,
+                                  String dataType,
+                                  String example)
+    {
+        this.name        = name;
+        this.description = description;
+        this.dataType    = dataType;
+        this.example     = example;
+    }
+
+
+    /**
+     * Return the name of the request parameter.
+     *
+     * @return string name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Return the description of the request parameter.
+     *
+     * @return text
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * Return the data type for the request parameter.
+     *
+     * @return data type name
+     */
+    public String getDataType()
+    {
+        return dataType;
+    }
+
+
+    /**
+     * Return an example of the request parameter to help users understand how to set it up.
+     *
+     * @return example
+     */
+    public String getExample()
+    {
+        return example;
+    }
+
+
+    /**
+     * Retrieve all the defined configuration properties
+     *
+     * @return list
+     */
+    public static List<ConfigurationPropertyType> getConfigurationPropertyTypes()
+    {
+        List<ConfigurationPropertyType> configurationPropertyTypes = new ArrayList<>();
+
+        for (InMemoryConfigurationProperty configurationProperty : InMemoryConfigurationProperty.values())
+        {
+            configurationPropertyTypes.add(configurationProperty.getConfigurationPropertyType());
+        }
+
+        return configurationPropertyTypes;
+    }
+
+
+    /**
+     * Retrieve all the names of the defined configuration properties
+     *
+     * @return list
+     */
+    public static List<String> getRecognizedConfigurationProperties()
+    {
+        List<String> configurationPropertyTypes = new ArrayList<>();
+
+        for (InMemoryConfigurationProperty configurationProperty : InMemoryConfigurationProperty.values())
+        {
+            configurationPropertyTypes.add(configurationProperty.getName());
+        }
+
+        return configurationPropertyTypes;
+    }
+
+
+
+    /**
+     * Return a summary of this enum to use in a service provider.
+     *
+     * @return request parameter type
+     */
+    public ConfigurationPropertyType getConfigurationPropertyType()
+    {
+        ConfigurationPropertyType requestParameterType = new ConfigurationPropertyType();
+
+        requestParameterType.setName(name);
+        requestParameterType.setDescription(description);
+        requestParameterType.setDataType(dataType);
+        requestParameterType.setExample(example);
+
+        return requestParameterType;
+    }
+
+    /**
+     * Output of this enum class and main value.
+     *
+     * @return string showing enum value
+     */
+    @Override
+    public String toString()
+    {
+        return "InMemoryConfigurationProperty{ name=" + name + "}";
+    }
+}
@@ -0,0 +1,130 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLogRecordSeverityLevel;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageDefinition;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.AuditLogMessageSet;
+
+/**
+ * The InMemoryAuditCode is used to define the message content for the Audit Log.
+ * The 5 fields in the enum are:
+ * <ul>
+ *     <li>Log Message Id - to uniquely identify the message</li>
+ *     <li>Severity - is this an event, decision, action, error or exception</li>
+ *     <li>Log Message Text - includes placeholder to allow additional values to be captured</li>
+ *     <li>Additional Information - further parameters and data relating to the audit message (optional)</li>
+ *     <li>SystemAction - describes the result of the situation</li>
+ *     <li>UserAction - describes how a user should correct the situation</li>
+ * </ul>
+ */
+public enum InMemoryAuditCode implements AuditLogMessageSet 
+{
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-0001 - The in-memory repository connector {0} is restoring its contents from persistence directory {1}
+     */
+    RESTORING_REPOSITORY("IN-MEMORY-REPOSITORY-CONNECTOR-0001",
+                         AuditLogRecordSeverityLevel.STARTUP,
+                         "The in-memory repository connector {0} is restoring its contents from persistence directory {1}",
+                         "The connector is loading the latest snapshot and replaying the write-ahead log.",
+                         "Check for errors following this message."),
+
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-0002 - The in-memory repository connector {0} has restored {1} instances from its snapshot and replayed {2} changes from its write-ahead log
+     */
+    REPOSITORY_RESTORED("IN-MEMORY-REPOSITORY-CONNECTOR-0002",
+                        AuditLogRecordSeverityLevel.STARTUP,
+                        "The in-memory repository connector {0} has restored {1} instances from its snapshot and replayed {2} changes from its write-ahead log",
+                        "The connector is ready to process requests.  New changes are appended to the write-ahead log.",
+                        "No action is required.  This is part of the normal operation of the connector."),
+
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-0003 - The in-memory repository connector {0} received an unexpected {1} exception during method {2}; the error message was: {3}
+     */
+    UNEXPECTED_EXCEPTION("IN-MEMORY-REPOSITORY-CONNECTOR-0003",
+                         AuditLogRecordSeverityLevel.EXCEPTION,
+                         "The in-memory repository connector {0} received an unexpected {1} exception during method {2}; the error message was: {3}",
+                         "The connector is not able to complete the requested work.",
+                         "Use the details from the error message to determine the cause of the error and correct it."),
+    ;
+
+    private final String                      logMessageId;
+    private final AuditLogRecordSeverityLevel severity;
+    private final String                      logMessage;
+    private final String                      systemAction;
+    private final String                      userAction;
+
+
+    /**
+     * The constructor for InMemoryAuditCode expects to be passed one of the enumeration rows defined in
+     * InMemoryAuditCode above.   For example:
+     * <p>
+     * InMemoryAuditCode   auditCode = InMemoryAuditCode.RESTORING_REPOSITORY;
+     * <p>
+     * This will expand out to the 5 parameters shown below.
+     *
+     * @param messageId    - unique id for the message
+     * @param severity     - the severity of the message
+     * @param message      - text for the message
+     * @param systemAction - description of the action taken by the system when the condition happened
+     * @param userAction   - instructions for resolving the situation, if any
+     */
+    InMemoryAuditCode(String                      messageId,
+                      AuditLogRecordSeverityLevel severity,
+                      String                      message,
+                      String                      systemAction,
+                      String                      userAction)
+    {
+        this.logMessageId = messageId;
+        this.severity = severity;
+        this.logMessage = message;
+        this.systemAction = systemAction;
+        this.userAction = userAction;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AuditLogMessageDefinition getMessageDefinition()
+    {
+        return new AuditLogMessageDefinition(logMessageId,
+                                             severity,
+                                             logMessage,
+                                             systemAction,
+                                             userAction);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public AuditLogMessageDefinition getMessageDefinition(String ...params)
+    {
+        AuditLogMessageDefinition messageDefinition = new AuditLogMessageDefinition(logMessageId,
+                                                                                    severity,
+                                                                                    logMessage,
+                                                                                    systemAction,
+                                                                                    userAction);
+        messageDefinition.setMessageParameters(params);
+        return messageDefinition;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "AuditCode{" +
+                       "logMessageId='" + logMessageId + '\'' +
+                       ", severity=" + severity +
+                       ", logMessage='" + logMessage + '\'' +
+                       ", systemAction='" + systemAction + '\'' +
+                       ", userAction='" + userAction + '\'' +
+                       '}';
+    }
+}
@@ -0,0 +1,132 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc;
+
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageDefinition;
+import org.odpi.openmetadata.frameworks.auditlog.messagesets.ExceptionMessageSet;
+
+/**
+ * The InMemoryErrorCode is used to define first failure data capture (FFDC) for errors that occur when working with
+ * the in-memory repository.  It is used in conjunction with both Checked and Runtime (unchecked) exceptions.
+ * <br><br>
+ * The 5 fields in the enum are:
+ * <ul>
+ *   <li>HTTP Error Code - for translating between REST and JAVA - Typically the numbers used are:</li>
+ *   <li><ul>
+ *     <li>500 - internal error</li>
+ *     <li>400 - invalid parameters</li>
+ *     <li>404 - not found</li>
+ *   </ul></li>
+ *   <li>Error Message Id - to uniquely identify the message</li>
+ *   <li>Error Message Text - includes placeholder to allow additional values to be captured</li>
+ *   <li>SystemAction - describes the result of the error</li>
+ *   <li>UserAction - describes how a AssetConsumerInterface should correct the error</li>
+ * </ul>
+ */
+public enum InMemoryErrorCode implements ExceptionMessageSet
+{
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-400-001 - The {0} in-memory repository connector does not support a historyRetention value of {1}; the supported values are allVersions, lastVersions, timeWindow and currentVersion
+     */
+    INVALID_HISTORY_RETENTION(400, "IN-MEMORY-REPOSITORY-CONNECTOR-400-001",
+                              "The {0} in-memory repository connector does not support a historyRetention value of {1}; the supported values are allVersions, lastVersions, timeWindow and currentVersion",
+                              "The connector is not able to determine which versions of each instance to keep.  The server does not start.",
+                              "Correct the historyRetention configuration property in the repository connection and restart the server."),
+
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-500-001 - The {0} in-memory repository connector is unable to use persistence directory {1}; the {2} exception was returned with message: {3}
+     */
+    PERSISTENCE_DIRECTORY_ERROR(500, "IN-MEMORY-REPOSITORY-CONNECTOR-500-001",
+                                "The {0} in-memory repository connector is unable to use persistence directory {1}; the {2} exception was returned with message: {3}",
+                                "The connector is not able to restore the repository contents from the snapshot and write-ahead log in the directory.  The server does not start.",
+                                "Use the details from the error message to correct the problem with the directory and restart the server.  If the directory contents are damaged, restore them from a backup, or remove them to start with an empty repository."),
+
+    /**
+     * IN-MEMORY-REPOSITORY-CONNECTOR-500-002 - The {0} in-memory repository connector is unable to write a {1} change to its write-ahead log; the {2} exception was returned with message: {3}
+     */
+    JOURNAL_WRITE_ERROR(500, "IN-MEMORY-REPOSITORY-CONNECTOR-500-002",
+                        "The {0} in-memory repository connector is unable to write a {1} change to its write-ahead log; the {2} exception was returned with message: {3}",
+                        "The change is visible in memory but it will be lost when the server restarts.",
+                        "Use the details from the error message to correct the problem with the persistence directory (for example, a full file system) and restart the server."),
+    ;
+
+    private final int    httpErrorCode;
+    private final String errorMessageId;
+    private final String errorMessage;
+    private final String systemAction;
+    private final String userAction;
+
+
+    /**
+     * The constructor expects to be passed one of the enumeration rows defined above.
+     *
+     * @param httpErrorCode   error code to use over REST calls
+     * @param errorMessageId   unique id for the message
+     * @param errorMessage   text for the message
+     * @param systemAction   description of the action taken by the system when the error condition happened
+     * @param userAction   instructions for resolving the error
+     */
+    InMemoryErrorCode(int httpErrorCode, String errorMessageId, String errorMessage, String systemAction, String userAction)
+    {
+        this.httpErrorCode = httpErrorCode;
+        this.errorMessageId = errorMessageId;
+        this.errorMessage = errorMessage;
+        this.systemAction = systemAction;
+        this.userAction = userAction;
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are no message inserts.
+     *
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition()
+    {
+        return new ExceptionMessageDefinition(httpErrorCode,
+                                              errorMessageId,
+                                              errorMessage,
+                                              systemAction,
+                                              userAction);
+    }
+
+
+    /**
+     * Retrieve a message definition object for an exception.  This method is used when there are values to be inserted into the message.
+     *
+     * @param params array of parameters (all strings).  They are inserted into the message according to the numbering in the message text.
+     * @return message definition object.
+     */
+    @Override
+    public ExceptionMessageDefinition getMessageDefinition(String... params)
+    {
+        ExceptionMessageDefinition messageDefinition = new ExceptionMessageDefinition(httpErrorCode,
+                                                                                      errorMessageId,
+                                                                                      errorMessage,
+                                                                                      systemAction,
+                                                                                      userAction);
+
+        messageDefinition.setMessageParameters(params);
+
+        return messageDefinition;
+    }
+
+
+    /**
+     * JSON-style toString
+     *
+     * @return string of property names and values for this enum
+     */
+    @Override
+    public String toString()
+    {
+        return "ErrorCode{" +
+                       "httpErrorCode=" + httpErrorCode +
+                       ", errorMessageId='" + errorMessageId + '\'' +
+                       ", errorMessage='" + errorMessage + '\'' +
+                       ", systemAction='" + systemAction + '\'' +
+                       ", userAction='" + userAction + '\'' +
+                       '}';
+    }
+}
@@ -0,0 +1,7 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+/**
+ * Defines the audit and error logging messages used by the in-memory repository connector.
+ */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector.ffdc;
\ No newline at end of file
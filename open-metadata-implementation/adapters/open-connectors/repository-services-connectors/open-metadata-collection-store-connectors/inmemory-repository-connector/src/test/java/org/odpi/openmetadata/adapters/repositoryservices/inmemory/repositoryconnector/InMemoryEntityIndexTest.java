@@ -0,0 +1,159 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Verify that the type and classification indexes narrow the candidate entities for a query to the entities of the
+ * requested type (or with the requested classification), however many other entities are in the store.
+ */
+public class InMemoryEntityIndexTest
+{
+    private static final String repositoryName       = "testRepository";
+    private static final String metadataCollectionId = "testMetadataCollectionId";
+    private static final String commonTypeName       = "CommonType";
+    private static final String rareTypeName         = "RareType";
+    private static final String classificationName   = "RareClassification";
+    private static final int    rarePopulation       = 10;
+
+
+    @Test
+    public void testIndexesNarrowCandidates() throws Exception
+    {
+        InMemoryOMRSMetadataStore smallStore = getStore(1000);
+        InMemoryOMRSMetadataStore largeStore = getStore(10000);
+
+        assertEquals(count(smallStore.getCandidateEntities(Collections.singleton(rareTypeName), null, null)), rarePopulation);
+        assertEquals(count(largeStore.getCandidateEntities(Collections.singleton(rareTypeName), null, null)), rarePopulation);
+        assertEquals(count(largeStore.getCandidateEntities(null, Collections.singleton(classificationName), null)), rarePopulation);
+        assertEquals(count(largeStore.getCandidateEntities(Collections.singleton(rareTypeName),
+                                                           Collections.singleton(classificationName),
+                                                           null)), rarePopulation);
+        assertEquals(count(largeStore.getCandidateEntities(Collections.singleton(commonTypeName),
+                                                           Collections.singleton(classificationName),
+                                                           null)), 0);
+        assertEquals(count(largeStore.getCandidateEntities(null, null, null)), 10000 + rarePopulation);
+    }
+
+
+    @Test
+    public void testPurgedEntityIsRemovedFromIndexes() throws Exception
+    {
+        InMemoryOMRSMetadataStore store      = getStore(100);
+        EntityDetail              rareEntity = store.getCandidateEntities(Collections.singleton(rareTypeName), null, null).iterator().next();
+
+        store.purgeEntityFromStore(rareEntity.getGUID());
+
+        assertEquals(count(store.getCandidateEntities(Collections.singleton(rareTypeName), null, null)), rarePopulation - 1);
+        assertEquals(count(store.getCandidateEntities(null, Collections.singleton(classificationName), null)), rarePopulation - 1);
+    }
+
+
+    /**
+     * Return the number of entities returned by a query.
+     *
+     * @param entities results of the query
+     * @return count
+     */
+    private int count(Iterable<EntityDetail> entities)
+    {
+        int count = 0;
+
+        for (EntityDetail ignored : entities)
+        {
+            count++;
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Create a store with the requested number of common entities and a small number of rare, classified entities.
+     *
+     * @param commonPopulation number of common entities
+     * @return populated store
+     * @throws Exception problem creating the store
+     */
+    private InMemoryOMRSMetadataStore getStore(int commonPopulation) throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  proxy  = new EntityProxy();
+
+            proxy.setGUID(entity.getGUID());
+            proxy.setType(entity.getType());
+            proxy.setClassifications(entity.getClassifications());
+
+            return proxy;
+        });
+
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore(repositoryName, repositoryHelper, metadataCollectionId);
+
+        for (int i = 0; i < commonPopulation; i++)
+        {
+            store.createEntityInStore(getEntity(commonTypeName, false));
+        }
+
+        for (int i = 0; i < rarePopulation; i++)
+        {
+            store.createEntityInStore(getEntity(rareTypeName, true));
+        }
+
+        return store;
+    }
+
+
+    /**
+     * Create a new entity.
+     *
+     * @param typeName name of the entity's type
+     * @param classified should the entity be classified
+     * @return entity
+     */
+    private EntityDetail getEntity(String  typeName,
+                                   boolean classified)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, typeName + "GUID", typeName, 1L));
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(1L);
+        entity.setCreateTime(new Date());
+
+        if (classified)
+        {
+            Classification classification = new Classification();
+
+            classification.setName(classificationName);
+            classification.setMetadataCollectionId(metadataCollectionId);
+            classification.setVersion(1L);
+            classification.setCreateTime(new Date());
+
+            entity.setClassifications(Collections.singletonList(classification));
+        }
+
+        return entity;
+    }
+}
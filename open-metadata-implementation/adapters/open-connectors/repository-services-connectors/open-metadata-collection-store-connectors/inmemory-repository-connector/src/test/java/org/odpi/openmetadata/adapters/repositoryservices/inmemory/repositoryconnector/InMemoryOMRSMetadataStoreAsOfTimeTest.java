@@ -0,0 +1,165 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that point-in-time reads of the in-memory store select the version of each instance that was active
+ * at the requested time, and that current reads see the latest version.
+ */
+public class InMemoryOMRSMetadataStoreAsOfTimeTest
+{
+    private static final String repositoryName       = "testRepository";
+    private static final String metadataCollectionId = "testMetadataCollectionId";
+    private static final String typeName             = "TestType";
+
+
+    @Test
+    public void testVersionSelectedForAsOfTime() throws Exception
+    {
+        InMemoryOMRSMetadataStore store = getStore();
+
+        Date         beforeCreate = new Date(1000L);
+        Date         createTime   = new Date(2000L);
+        Date         betweenTimes = new Date(3000L);
+        Date         updateTime   = new Date(4000L);
+        EntityDetail entity       = getEntity(createTime);
+
+        store.createEntityInStore(entity);
+
+        EntityDetail updatedEntity = new EntityDetail(entity);
+
+        updatedEntity.setVersion(2L);
+        updatedEntity.setUpdateTime(updateTime);
+        store.updateEntityInStore(updatedEntity);
+
+        assertNull(store.getEntity(entity.getGUID(), beforeCreate));
+        assertEquals(store.getEntity(entity.getGUID(), betweenTimes).getVersion(), 1L);
+        assertEquals(store.getEntity(entity.getGUID(), updateTime).getVersion(), 2L);
+        assertEquals(store.getEntity(entity.getGUID(), null).getVersion(), 2L);
+        assertNull(store.getEntity(UUID.randomUUID().toString(), null));
+
+        assertTrue(getEntities(store, beforeCreate).isEmpty());
+        assertEquals(getEntities(store, betweenTimes).get(0).getVersion(), 1L);
+        assertEquals(getEntities(store, null).get(0).getVersion(), 2L);
+
+        assertEquals(getEntities(store.getCandidateEntities(Collections.singleton(typeName), null, betweenTimes)).get(0).getVersion(), 1L);
+        assertTrue(getEntities(store.getCandidateEntities(Collections.singleton(typeName), null, beforeCreate)).isEmpty());
+    }
+
+
+    @Test
+    public void testCurrentViewSeesLaterChanges() throws Exception
+    {
+        InMemoryOMRSMetadataStore store    = getStore();
+        Iterable<EntityDetail>    entities = store.getEntities(null);
+
+        assertTrue(getEntities(entities).isEmpty());
+
+        store.createEntityInStore(getEntity(new Date()));
+
+        /*
+         * The view is evaluated as it is iterated rather than when it is requested.
+         */
+        assertEquals(getEntities(entities).size(), 1);
+    }
+
+
+    /**
+     * Return the entities in the store at the requested time.
+     *
+     * @param store store to read
+     * @param asOfTime time for the store (or null means now)
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntities(InMemoryOMRSMetadataStore store,
+                                           Date                      asOfTime)
+    {
+        return getEntities(store.getEntities(asOfTime));
+    }
+
+
+    /**
+     * Step through the entities returned by a query.
+     *
+     * @param entities results of the query
+     * @return list of entities
+     */
+    private List<EntityDetail> getEntities(Iterable<EntityDetail> entities)
+    {
+        List<EntityDetail> results = new ArrayList<>();
+
+        for (EntityDetail entity : entities)
+        {
+            results.add(entity);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Create an empty store.
+     *
+     * @return store
+     * @throws Exception problem creating the store
+     */
+    private InMemoryOMRSMetadataStore getStore() throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  proxy  = new EntityProxy();
+
+            proxy.setGUID(entity.getGUID());
+            proxy.setType(entity.getType());
+            proxy.setVersion(entity.getVersion());
+
+            return proxy;
+        });
+
+        return new InMemoryOMRSMetadataStore(repositoryName, repositoryHelper, metadataCollectionId);
+    }
+
+
+    /**
+     * Create a new entity.
+     *
+     * @param createTime time the entity was created
+     * @return entity
+     */
+    private EntityDetail getEntity(Date createTime)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, typeName + "GUID", typeName, 1L));
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(1L);
+        entity.setCreateTime(createTime);
+
+        return entity;
+    }
+}
@@ -0,0 +1,233 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Stress the in-memory store with concurrent readers and writers.  The readers must always find the entities
+ * and the version history of each entity must still be complete once the writers finish.
+ */
+public class InMemoryOMRSMetadataStoreConcurrencyTest
+{
+    private static final String repositoryName       = "testRepository";
+    private static final String metadataCollectionId = "testMetadataCollectionId";
+    private static final String typeName             = "TestType";
+    private static final int    entityCount          = 1000;
+    private static final int    writerCount          = 2;
+    private static final int    readerCount          = 4;
+    private static final long   phaseDuration        = 1000;
+
+
+    @Test
+    public void testReadsWhileWritesInFlight() throws Exception
+    {
+        InMemoryOMRSMetadataStore store     = getStore();
+        List<String>              guids     = new ArrayList<>();
+        Queue<Throwable>          errors    = new ConcurrentLinkedQueue<>();
+        AtomicBoolean             stopWrite = new AtomicBoolean(false);
+        long[]                    updates   = new long[entityCount];
+
+        for (int i = 0; i < entityCount; i++)
+        {
+            guids.add(store.createEntityInStore(getEntity()).getGUID());
+        }
+
+        /*
+         * Each writer owns a distinct set of entities so the expected number of versions is known.
+         */
+        List<Thread> writers = new ArrayList<>();
+
+        for (int w = 0; w < writerCount; w++)
+        {
+            final int writerNumber = w;
+
+            writers.add(new Thread(() ->
+            {
+                try
+                {
+                    while (! stopWrite.get())
+                    {
+                        for (int i = writerNumber; i < entityCount; i = i + writerCount)
+                        {
+                            EntityDetail updatedEntity = new EntityDetail(store.getEntity(guids.get(i)));
+
+                            updatedEntity.setVersion(updatedEntity.getVersion() + 1);
+                            updatedEntity.setUpdateTime(new Date());
+                            store.updateEntityInStore(updatedEntity);
+                            updates[i]++;
+
+                            if (stopWrite.get())
+                            {
+                                break;
+                            }
+                        }
+                    }
+                }
+                catch (Throwable error)
+                {
+                    errors.add(error);
+                }
+            }));
+        }
+
+        for (Thread writer : writers)
+        {
+            writer.start();
+        }
+
+        runReaders(store, guids, readerCount, errors);
+
+        stopWrite.set(true);
+
+        for (Thread writer : writers)
+        {
+            writer.join();
+        }
+
+        assertTrue(errors.isEmpty(), "Errors: " + errors);
+
+        /*
+         * Each update is in the history, latest first.
+         */
+        for (int i = 0; i < entityCount; i++)
+        {
+            List<EntityDetail> history = store.getEntityHistory(guids.get(i), null, null, false);
+
+            assertNotNull(history);
+            assertEquals(history.size(), updates[i] + 1);
+
+            for (int v = 0; v < history.size(); v++)
+            {
+                assertEquals(history.get(v).getVersion(), updates[i] + 1 - v);
+            }
+        }
+    }
+
+
+    /**
+     * Run the requested number of reader threads for the phase duration.
+     *
+     * @param store store to read
+     * @param guids entities to read
+     * @param readerCount number of threads
+     * @param errors queue of errors from the threads
+     * @throws InterruptedException interrupted while waiting for the readers
+     */
+    private void runReaders(InMemoryOMRSMetadataStore store,
+                                 List<String>              guids,
+                                 int                       readerCount,
+                                 Queue<Throwable>          errors) throws InterruptedException
+    {
+        AtomicBoolean stopRead = new AtomicBoolean(false);
+        List<Thread>  readers  = new ArrayList<>();
+
+        for (int r = 0; r < readerCount; r++)
+        {
+            readers.add(new Thread(() ->
+            {
+                try
+                {
+                    while (! stopRead.get())
+                    {
+                        String guid = guids.get(ThreadLocalRandom.current().nextInt(guids.size()));
+
+                        EntityDetail entity = store.getEntity(guid);
+
+                        if (entity == null)
+                        {
+                            throw new IllegalStateException("Entity " + guid + " not found");
+                        }
+
+                        store.getEntityProxy(guid);
+                        store.getRelationshipsForEntity(guid, null);
+                    }
+                }
+                catch (Throwable error)
+                {
+                    errors.add(error);
+                }
+            }));
+        }
+
+        for (Thread reader : readers)
+        {
+            reader.start();
+        }
+
+        Thread.sleep(phaseDuration);
+        stopRead.set(true);
+
+        for (Thread reader : readers)
+        {
+            reader.join();
+        }
+    }
+
+
+    /**
+     * Create an empty store.
+     *
+     * @return store
+     * @throws Exception problem creating the store
+     */
+    private InMemoryOMRSMetadataStore getStore() throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  proxy  = new EntityProxy();
+
+            proxy.setGUID(entity.getGUID());
+            proxy.setType(entity.getType());
+            proxy.setVersion(entity.getVersion());
+
+            return proxy;
+        });
+
+        return new InMemoryOMRSMetadataStore(repositoryName, repositoryHelper, metadataCollectionId);
+    }
+
+
+    /**
+     * Create a new entity.
+     *
+     * @return entity
+     */
+    private EntityDetail getEntity()
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, typeName + "GUID", typeName, 1L));
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(1L);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+}
@@ -0,0 +1,339 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstancePropertyCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the in-memory store keeps the previous versions of each instance selected by its retention policy,
+ * that compacted history is decoded correctly when it is requested, and that older versions are held in
+ * compressed blocks that take less than half the space of the same versions serialized without compression.
+ */
+public class InMemoryOMRSMetadataStoreRetentionTest
+{
+    private static final String repositoryName       = "testRepository";
+    private static final String metadataCollectionId = "testMetadataCollectionId";
+    private static final String typeName             = "TestType";
+    private static final long   hour                 = 3600000L;
+
+
+    @Test
+    public void testCompactedHistoryIsComplete() throws Exception
+    {
+        InMemoryOMRSMetadataStore store    = getStore(InMemoryInstanceHistory.RetentionPolicy.ALL_VERSIONS);
+        long                      baseTime = System.currentTimeMillis() - 100 * hour;
+        String                    guid     = createEntity(store, 50, baseTime);
+
+        List<EntityDetail> history = store.getEntityHistory(guid, null, null, false);
+
+        assertEquals(history.size(), 50);
+
+        for (int v = 0; v < history.size(); v++)
+        {
+            assertEquals(history.get(v).getVersion(), 50L - v);
+        }
+
+        assertEquals(store.getEntity(guid, new Date(baseTime + 10 * hour)).getVersion(), 11L);
+        assertEquals(store.getEntity(guid, new Date(baseTime)).getVersion(), 1L);
+        assertEquals(store.retrievePreviousVersionOfEntity(guid).getVersion(), 49L);
+    }
+
+
+    @Test
+    public void testLastVersionsRetention() throws Exception
+    {
+        InMemoryOMRSMetadataStore store    = getStore(new InMemoryInstanceHistory.RetentionPolicy(12, -1));
+        long                      baseTime = System.currentTimeMillis() - 100 * hour;
+        String                    guid     = createEntity(store, 30, baseTime);
+
+        List<EntityDetail> history = store.getEntityHistory(guid, null, null, false);
+
+        assertEquals(history.size(), 13);
+        assertEquals(history.get(12).getVersion(), 18L);
+        assertEquals(store.getEntity(guid, new Date(baseTime + 20 * hour)).getVersion(), 21L);
+        assertNull(store.getEntity(guid, new Date(baseTime + 10 * hour)));
+    }
+
+
+    @Test
+    public void testTimeWindowRetention() throws Exception
+    {
+        InMemoryOMRSMetadataStore store    = getStore(new InMemoryInstanceHistory.RetentionPolicy(-1, 15 * hour + hour / 2));
+        long                      baseTime = System.currentTimeMillis() - 29 * hour;
+        String                    guid     = createEntity(store, 30, baseTime);
+
+        /*
+         * The versions superseded in the last fifteen and a half hours are kept.  These are the versions that
+         * became current at 14 hours or more after the base time.
+         */
+        List<EntityDetail> history = store.getEntityHistory(guid, null, null, false);
+
+        assertTrue(history.size() >= 16);
+        assertTrue(history.get(history.size() - 1).getVersion() <= 15L);
+        assertEquals(store.getEntity(guid, new Date(baseTime + 14 * hour)).getVersion(), 15L);
+        assertTrue(history.size() < 30);
+    }
+
+
+    @Test
+    public void testCurrentVersionRetention() throws Exception
+    {
+        InMemoryOMRSMetadataStore store    = getStore(InMemoryInstanceHistory.RetentionPolicy.CURRENT_VERSION);
+        long                      baseTime = System.currentTimeMillis() - 100 * hour;
+        String                    guid     = createEntity(store, 10, baseTime);
+
+        assertEquals(store.getEntityHistory(guid, null, null, false).size(), 1);
+        assertEquals(store.getEntity(guid, null).getVersion(), 10L);
+        assertNull(store.getEntity(guid, new Date(baseTime + hour)));
+        assertNull(store.retrievePreviousVersionOfEntity(guid));
+    }
+
+
+    @Test
+    public void testOlderVersionsAreCompacted()
+    {
+        long baseTime = System.currentTimeMillis() - 100 * hour;
+
+        InMemoryInstanceHistory<EntityDetail> history = getHistory(40, baseTime, InMemoryInstanceHistory.RetentionPolicy.ALL_VERSIONS);
+
+        /*
+         * Each time there are more than eight recent versions, all of them are compressed into a new block.
+         */
+        assertEquals(history.size(), 40);
+        assertEquals(history.getCompactedBlockCount(), 4);
+        assertEquals(history.getRecentVersionCount(), 4);
+        assertEquals(history.getLatest().getVersion(), 40L);
+        assertEquals(history.getVersions().get(39).getVersion(), 1L);
+    }
+
+
+    @Test
+    public void testCompactionSavesSpace() throws Exception
+    {
+        long baseTime = System.currentTimeMillis() - 100 * hour;
+
+        InMemoryInstanceHistory<EntityDetail> history = getHistory(40, baseTime, InMemoryInstanceHistory.RetentionPolicy.ALL_VERSIONS);
+
+        /*
+         * The versions in the compressed blocks are the ones after the recent versions.  Serializing them as one
+         * list shares the class descriptions between them, so it is smaller than serializing each block separately.
+         */
+        List<EntityDetail> versions          = history.getVersions();
+        List<EntityDetail> compactedVersions = new ArrayList<>(versions.subList(history.getRecentVersionCount(), versions.size()));
+        long               serializedSize    = getSerializedSize(compactedVersions);
+
+        assertEquals(compactedVersions.size(), 36);
+        assertTrue(history.getCompactedByteCount() < serializedSize / 2,
+                   "Compressed blocks use " + history.getCompactedByteCount() + " bytes against " + serializedSize + " bytes");
+    }
+
+
+    @Test
+    public void testRetentionLimitTrimsCompactedBlocks()
+    {
+        long baseTime = System.currentTimeMillis() - 100 * hour;
+
+        InMemoryInstanceHistory<EntityDetail> history = getHistory(30, baseTime, new InMemoryInstanceHistory.RetentionPolicy(12, -1));
+
+        /*
+         * The three latest versions are held as objects and the other nine are in the one block that is kept.
+         */
+        assertEquals(history.size(), 12);
+        assertEquals(history.getRecentVersionCount(), 3);
+        assertEquals(history.getCompactedBlockCount(), 1);
+        assertEquals(history.getVersions().get(11).getVersion(), 19L);
+
+        InMemoryInstanceHistory<EntityDetail> currentOnly = getHistory(30, baseTime, InMemoryInstanceHistory.RetentionPolicy.CURRENT_VERSION);
+
+        assertTrue(currentOnly.isEmpty());
+        assertEquals(currentOnly.getCompactedBlockCount(), 0);
+        assertEquals(currentOnly.getRecentVersionCount(), 0);
+    }
+
+
+    /**
+     * Return the size of a list of versions when it is serialized without compression.
+     *
+     * @param versions versions to serialize
+     * @return byte count
+     * @throws IOException problem serializing the versions
+     */
+    private long getSerializedSize(List<EntityDetail> versions) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream objectStream = new ObjectOutputStream(bytes))
+        {
+            objectStream.writeObject(new ArrayList<>(versions));
+        }
+
+        return bytes.size();
+    }
+
+
+    /**
+     * Build the history of an entity that has been superseded the requested number of times.
+     *
+     * @param versionCount number of versions in the history
+     * @param baseTime time of the first version
+     * @param retentionPolicy policy for the versions to retain
+     * @return history
+     */
+    private InMemoryInstanceHistory<EntityDetail> getHistory(int                                     versionCount,
+                                                             long                                    baseTime,
+                                                             InMemoryInstanceHistory.RetentionPolicy retentionPolicy)
+    {
+        String                                guid    = UUID.randomUUID().toString();
+        InMemoryInstanceHistory<EntityDetail> history = InMemoryInstanceHistory.empty();
+
+        for (int v = 1; v <= versionCount; v++)
+        {
+            history = history.addLatest(getEntity(guid, v, baseTime), new Date(baseTime + v * hour), retentionPolicy);
+        }
+
+        return history;
+    }
+
+
+    /**
+     * Create an entity and update it until it has the requested number of versions.  Each version becomes
+     * current an hour after the previous version.
+     *
+     * @param store store to update
+     * @param versionCount number of versions
+     * @param baseTime time of the first version
+     * @return unique identifier of the entity
+     * @throws Exception problem updating the store
+     */
+    private String createEntity(InMemoryOMRSMetadataStore store,
+                                int                       versionCount,
+                                long                      baseTime) throws Exception
+    {
+        String guid = store.createEntityInStore(getEntity(UUID.randomUUID().toString(), 1, baseTime)).getGUID();
+
+        for (int v = 2; v <= versionCount; v++)
+        {
+            store.updateEntityInStore(getEntity(guid, v, baseTime));
+        }
+
+        return guid;
+    }
+
+
+    /**
+     * Create an empty store.
+     *
+     * @param retentionPolicy policy for the versions that are kept
+     * @return store
+     * @throws Exception problem creating the store
+     */
+    private InMemoryOMRSMetadataStore getStore(InMemoryInstanceHistory.RetentionPolicy retentionPolicy) throws Exception
+    {
+        /*
+         * The mock does not record its invocations, so it does not hold on to the versions passed to it.
+         */
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class, withSettings().stubOnly());
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+            EntityProxy  proxy  = new EntityProxy();
+
+            proxy.setGUID(entity.getGUID());
+            proxy.setType(entity.getType());
+            proxy.setVersion(entity.getVersion());
+
+            return proxy;
+        });
+
+        InMemoryOMRSMetadataStore store = new InMemoryOMRSMetadataStore(repositoryName, repositoryHelper, metadataCollectionId);
+
+        store.setRetentionPolicy(retentionPolicy);
+
+        return store;
+    }
+
+
+    /**
+     * Create a version of an entity.  Version 1 is created at the base time and each later version is
+     * updated an hour after the previous version.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version number
+     * @param baseTime time of the first version
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   version,
+                                   long   baseTime)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, typeName + "GUID", typeName, 1L));
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(version);
+        entity.setCreatedBy("testUser");
+        entity.setCreateTime(new Date(baseTime));
+
+        if (version > 1)
+        {
+            entity.setUpdatedBy("testUser");
+            entity.setUpdateTime(new Date(baseTime + (version - 1) * hour));
+        }
+
+        InstanceProperties properties = new InstanceProperties();
+
+        properties.setProperty("qualifiedName", getStringValue(typeName + "::" + guid));
+        properties.setProperty("displayName", getStringValue("Test entity " + guid));
+        properties.setProperty("description", getStringValue("Version " + version + " of an entity used to test its history."));
+
+        entity.setProperties(properties);
+
+        return entity;
+    }
+
+
+    /**
+     * Create a string property value.
+     *
+     * @param value string
+     * @return property value
+     */
+    private PrimitivePropertyValue getStringValue(String value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setInstancePropertyCategory(InstancePropertyCategory.PRIMITIVE);
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        return propertyValue;
+    }
+}
@@ -0,0 +1,390 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.inmemory.repositoryconnector;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceType;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+import static org.testng.Assert.fail;
+
+/**
+ * Verify that the contents of an in-memory store are restored from its snapshot and write-ahead log.
+ */
+public class InMemoryOMRSStoreJournalTest
+{
+    private static final String repositoryName       = "testRepository";
+    private static final String metadataCollectionId = "testMetadataCollectionId";
+    private static final String entityTypeName       = "TestEntityType";
+    private static final String relationshipTypeName = "TestRelationshipType";
+    private static final long   failingVersion       = 99L;
+
+    private Path directory = null;
+
+
+    @BeforeMethod
+    public void createDirectory() throws IOException
+    {
+        directory = Files.createTempDirectory("inmemory-journal");
+    }
+
+
+    @AfterMethod
+    public void removeDirectory() throws IOException
+    {
+        try (Stream<Path> files = Files.walk(directory))
+        {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList())
+            {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+
+    @Test
+    public void testRestoreFromLog() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = getStore();
+        InMemoryOMRSStoreJournal  journal = new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false);
+
+        store.startPersistence(journal);
+
+        List<String> guids = populate(store);
+
+        store.stopPersistence();
+
+        InMemoryOMRSMetadataStore               restoredStore  = getStore();
+        InMemoryOMRSStoreJournal.RecoveryResult recoveryResult = restoredStore.startPersistence(new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false));
+
+        assertEquals(recoveryResult.restoredInstanceCount(), 0L);
+        assertTrue(recoveryResult.replayedChangeCount() > 0L);
+        verifyContents(restoredStore, guids);
+
+        restoredStore.stopPersistence();
+    }
+
+
+    @Test
+    public void testRestoreFromSnapshotAndLog() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = getStore();
+        InMemoryOMRSStoreJournal  journal = new InMemoryOMRSStoreJournal(repositoryName, directory, 5, false);
+
+        store.startPersistence(journal);
+
+        List<String> guids = populate(store);
+
+        store.stopPersistence();
+
+        assertTrue(Files.exists(directory.resolve("snapshot.bin")));
+
+        InMemoryOMRSMetadataStore               restoredStore  = getStore();
+        InMemoryOMRSStoreJournal.RecoveryResult recoveryResult = restoredStore.startPersistence(new InMemoryOMRSStoreJournal(repositoryName, directory, 5, false));
+
+        assertTrue(recoveryResult.restoredInstanceCount() > 0L);
+        verifyContents(restoredStore, guids);
+
+        /*
+         * The restored store continues to record changes.
+         */
+        EntityDetail entity = getEntity();
+
+        restoredStore.createEntityInStore(entity);
+        restoredStore.stopPersistence();
+
+        InMemoryOMRSMetadataStore secondRestoredStore = getStore();
+
+        secondRestoredStore.startPersistence(new InMemoryOMRSStoreJournal(repositoryName, directory, 5, false));
+
+        verifyContents(secondRestoredStore, guids);
+        assertNotNull(secondRestoredStore.getEntity(entity.getGUID()));
+
+        secondRestoredStore.stopPersistence();
+    }
+
+
+    @Test
+    public void testIncompleteLogRecordIsIgnored() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = getStore();
+        InMemoryOMRSStoreJournal  journal = new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false);
+
+        store.startPersistence(journal);
+
+        List<String> guids = populate(store);
+
+        store.stopPersistence();
+
+        /*
+         * Simulate a record that was only partly written when the server stopped.
+         */
+        Path logFile;
+
+        try (Stream<Path> files = Files.list(directory))
+        {
+            logFile = files.filter(file -> file.getFileName().toString().endsWith(".log"))
+                           .filter(file -> file.toFile().length() > 0)
+                           .findFirst()
+                           .orElseThrow();
+        }
+
+        Files.write(logFile, new byte[] { 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 42 }, StandardOpenOption.APPEND);
+
+        InMemoryOMRSMetadataStore restoredStore = getStore();
+
+        restoredStore.startPersistence(new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false));
+
+        verifyContents(restoredStore, guids);
+
+        restoredStore.stopPersistence();
+    }
+
+
+    @Test
+    public void testFailedJournalWriteLeavesStoreUnchanged() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = getStore();
+        InMemoryOMRSStoreJournal  journal = new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false);
+
+        store.startPersistence(journal);
+
+        /*
+         * Closing the journal underneath the store means the next change can not be written.
+         */
+        journal.close();
+
+        EntityDetail entity = getEntity();
+
+        try
+        {
+            store.createEntityInStore(entity);
+            fail("The change should not be made when the journal can not be written");
+        }
+        catch (OMRSLogicErrorException expected)
+        {
+            assertNull(store.getEntity(entity.getGUID()));
+        }
+
+        store.stopPersistence();
+    }
+
+
+    @Test
+    public void testFailedChangeIsNotReplayed() throws Exception
+    {
+        InMemoryOMRSMetadataStore store   = getStore();
+        InMemoryOMRSStoreJournal  journal = new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false);
+
+        store.startPersistence(journal);
+
+        String       guid          = store.createEntityInStore(getEntity()).getGUID();
+        EntityDetail failedVersion = new EntityDetail(store.getEntity(guid));
+
+        failedVersion.setVersion(failingVersion);
+
+        expectThrows(RepositoryErrorException.class, () -> store.updateEntityInStore(failedVersion));
+
+        EntityDetail nextVersion = new EntityDetail(store.getEntity(guid));
+
+        nextVersion.setVersion(2L);
+        nextVersion.setUpdateTime(new Date());
+        store.updateEntityInStore(nextVersion);
+
+        store.stopPersistence();
+
+        /*
+         * The store restarts with the changes that were made, and the change that failed is not in the log.
+         */
+        InMemoryOMRSMetadataStore               restoredStore  = getStore();
+        InMemoryOMRSStoreJournal.RecoveryResult recoveryResult = restoredStore.startPersistence(new InMemoryOMRSStoreJournal(repositoryName, directory, 1000000, false));
+
+        assertEquals(recoveryResult.replayedChangeCount(), 2L);
+        assertEquals(restoredStore.getEntity(guid).getVersion(), 2L);
+
+        restoredStore.stopPersistence();
+    }
+
+
+    /**
+     * Make a series of changes to the store.
+     *
+     * @param store store to change
+     * @return unique identifiers of the updated entity, purged entity, current relationship and removed relationship
+     * @throws Exception problem updating the store
+     */
+    private List<String> populate(InMemoryOMRSMetadataStore store) throws Exception
+    {
+        EntityDetail updatedEntity = store.createEntityInStore(getEntity());
+        EntityDetail purgedEntity  = store.createEntityInStore(getEntity());
+        EntityDetail otherEntity   = store.createEntityInStore(getEntity());
+
+        for (long version = 2; version <= 4; version++)
+        {
+            EntityDetail nextVersion = new EntityDetail(store.getEntity(updatedEntity.getGUID()));
+
+            nextVersion.setVersion(version);
+            nextVersion.setUpdateTime(new Date());
+            store.updateEntityInStore(nextVersion);
+        }
+
+        Relationship currentRelationship = store.createRelationshipInStore(getRelationship(updatedEntity, otherEntity));
+        Relationship removedRelationship = store.createRelationshipInStore(getRelationship(purgedEntity, otherEntity));
+
+        store.removeRelationshipFromStore(removedRelationship);
+        store.purgeEntityFromStore(purgedEntity.getGUID());
+
+        List<String> guids = new ArrayList<>();
+
+        guids.add(updatedEntity.getGUID());
+        guids.add(purgedEntity.getGUID());
+        guids.add(currentRelationship.getGUID());
+        guids.add(removedRelationship.getGUID());
+
+        return guids;
+    }
+
+
+    /**
+     * Check the restored store matches the changes made by populate.
+     *
+     * @param store restored store
+     * @param guids unique identifiers returned by populate
+     */
+    private void verifyContents(InMemoryOMRSMetadataStore store,
+                                List<String>              guids)
+    {
+        EntityDetail updatedEntity = store.getEntity(guids.get(0));
+
+        assertNotNull(updatedEntity);
+        assertEquals(updatedEntity.getVersion(), 4L);
+        assertEquals(store.getEntityHistory(guids.get(0), null, null, false).size(), 4);
+        assertTrue(store.getCandidateEntities(Collections.singleton(entityTypeName), null, null).iterator().hasNext());
+
+        assertNull(store.getEntity(guids.get(1)));
+
+        assertNotNull(store.getRelationship(guids.get(2)));
+        assertEquals(store.getRelationshipsForEntity(guids.get(0), null).size(), 1);
+
+        assertNull(store.getRelationship(guids.get(3)));
+        assertNotNull(store.retrievePreviousVersionOfRelationship(guids.get(3)));
+    }
+
+
+    /**
+     * Create an empty store.
+     *
+     * @return store
+     * @throws Exception problem creating the store
+     */
+    private InMemoryOMRSMetadataStore getStore() throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getNewEntityProxy(anyString(), any(EntityDetail.class))).thenAnswer(invocation ->
+        {
+            EntityDetail entity = invocation.getArgument(1);
+
+            return getProxy(entity);
+        });
+
+        /*
+         * Saving this version of an entity always fails, so it fails again if it is replayed.
+         */
+        when(repositoryHelper.getNewEntityProxy(anyString(), argThat((EntityDetail entity) -> (entity != null) && (entity.getVersion() == failingVersion))))
+                .thenThrow(RepositoryErrorException.class);
+
+        return new InMemoryOMRSMetadataStore(repositoryName, repositoryHelper, metadataCollectionId);
+    }
+
+
+    /**
+     * Create a new entity.
+     *
+     * @return entity
+     */
+    private EntityDetail getEntity()
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(new InstanceType(TypeDefCategory.ENTITY_DEF, entityTypeName + "GUID", entityTypeName, 1L));
+        entity.setMetadataCollectionId(metadataCollectionId);
+        entity.setVersion(1L);
+        entity.setCreateTime(new Date());
+
+        return entity;
+    }
+
+
+    /**
+     * Create the proxy for an entity.
+     *
+     * @param entity entity
+     * @return proxy
+     */
+    private static EntityProxy getProxy(EntityDetail entity)
+    {
+        EntityProxy proxy = new EntityProxy();
+
+        proxy.setGUID(entity.getGUID());
+        proxy.setType(entity.getType());
+        proxy.setVersion(entity.getVersion());
+
+        return proxy;
+    }
+
+
+    /**
+     * Create a new relationship between two entities.
+     *
+     * @param entityOne entity at end 1
+     * @param entityTwo entity at end 2
+     * @return relationship
+     */
+    private Relationship getRelationship(EntityDetail entityOne,
+                                         EntityDetail entityTwo)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(UUID.randomUUID().toString());
+        relationship.setType(new InstanceType(TypeDefCategory.RELATIONSHIP_DEF, relationshipTypeName + "GUID", relationshipTypeName, 1L));
+        relationship.setMetadataCollectionId(metadataCollectionId);
+        relationship.setVersion(1L);
+        relationship.setCreateTime(new Date());
+        relationship.setEntityOneProxy(getProxy(entityOne));
+        relationship.setEntityTwoProxy(getProxy(entityTwo));
+
+        return relationship;
+    }
+}
@@ -3,6 +3,8 @@
 package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector;
 
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.HistoryPartitionManager;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.IndexAdvisor;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSDynamicTypeMetadataCollectionBase;
@@ -18,6 +20,7 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefSummary;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -33,6 +36,7 @@ import java.util.List;
 public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataCollectionBase
 {
     private final PostgresOMRSMetadataStore  repositoryStore;
+    private final OMRSGUIDStrategy           guidStrategy;
 
 
     /**
@@ -46,6 +50,9 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
      * @param isReadOnly should the repository run in readOnly mode?
      * @param defaultAsOfTime what is the default value for asOfTime?
      * @param jdbcResourceConnector connector to access the database
+     * @param indexAdvisor records the use of properties in queries (maybe null)
+     * @param historyPartitionManager maintains the partitions of the history tables (null if they are not partitioned)
+     * @param guidStrategy how the GUIDs of new instances are created
      * @param metadataCollectionId unique Identifier of the metadata collection id.
      */
     protected PostgresOMRSMetadataCollection(PostgresOMRSRepositoryConnector parentConnector,
@@ -55,6 +62,9 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                              boolean                         isReadOnly,
                                              Date                            defaultAsOfTime,
                                              JDBCResourceConnector           jdbcResourceConnector,
+                                             IndexAdvisor                    indexAdvisor,
+                                             HistoryPartitionManager         historyPartitionManager,
+                                             OMRSGUIDStrategy                guidStrategy,
                                              String                          metadataCollectionId)
     {
         /*
@@ -70,7 +80,26 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                              metadataCollectionId,
                                                              isReadOnly,
                                                              defaultAsOfTime,
-                                                             jdbcResourceConnector);
+                                                             jdbcResourceConnector,
+                                                             indexAdvisor,
+                                                             historyPartitionManager);
+
+        this.guidStrategy = guidStrategy;
+    }
+
+
+    /**
+     * Replace the random GUID that the repository helper gives a new instance if the repository is configured
+     * with a different GUID strategy.
+     *
+     * @param newInstance new entity or relationship
+     */
+    private void setNewGUID(InstanceHeader newInstance)
+    {
+        if ((guidStrategy != null) && (guidStrategy != OMRSGUIDStrategy.RANDOM))
+        {
+            newInstance.setGUID(guidStrategy.getNewGUID());
+        }
     }
 
 
@@ -1130,6 +1159,9 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                  typeDef.getName(),
                                                                  initialProperties,
                                                                  initialClassifications);
+
+        this.setNewGUID(newEntity);
+
         /*
          * If an initial status is supplied then override the default value.
          */
@@ -1211,6 +1243,8 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                  initialProperties,
                                                                  initialClassifications);
 
+        this.setNewGUID(newEntity);
+
         /*
          * If an initial status is supplied then override the default value.
          */
@@ -2694,6 +2728,9 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
                                                                           userId,
                                                                           typeDef.getName(),
                                                                           initialProperties);
+
+        this.setNewGUID(relationship);
+
         /*
          * See if there is a proxy for entity 1
          */
@@ -2799,6 +2836,8 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
         relationship.setMetadataCollectionName(externalSourceName);
         relationship.setReplicatedBy(metadataCollectionId);
 
+        this.setNewGUID(relationship);
+
         /*
          * See if there is a proxy for entity 1
          */
@@ -4112,6 +4151,102 @@ public class PostgresOMRSMetadataCollection extends OMRSDynamicTypeMetadataColle
     }
 
 
+    /**
+     * Save the entities and relationships supplied in the instance graph as a reference copies.
+     * The id of the home metadata collection is already set up in the instances.
+     * Any instances from the home metadata collection are ignored.  The instances are validated in the same way
+     * as the single instance methods and then saved together in one database transaction.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param instances instances to save.
+     * @throws InvalidParameterException the relationship is null.
+     * @throws RepositoryErrorException a problem communicating with the metadata repository where
+     *                                    the metadata collection is stored.
+     * @throws TypeErrorException the requested type is not known, or not supported in the metadata repository
+     *                            hosting the metadata collection.
+     * @throws PropertyErrorException one or more of the requested properties are not defined, or have different
+     *                                  characteristics in the TypeDef for this relationship's type.
+     * @throws UserNotAuthorizedException the userId is not permitted to perform this operation.
+     */
+    @Override
+    public void saveInstanceReferenceCopies(String          userId,
+                                            InstanceGraph   instances) throws InvalidParameterException,
+                                                                              RepositoryErrorException,
+                                                                              TypeErrorException,
+                                                                              PropertyErrorException,
+                                                                              UserNotAuthorizedException
+    {
+        final String methodName                = "saveInstanceReferenceCopies";
+        final String entityParameterName       = "entity";
+        final String relationshipParameterName = "relationship";
+
+        /*
+         * Validate parameters
+         */
+        this.validateRepositoryConnector(methodName);
+        parentConnector.validateRepositoryIsActive(methodName);
+        repositoryValidator.validateUserId(repositoryName, userId, methodName);
+
+        if (instances != null)
+        {
+            List<EntityDetail> entities      = new ArrayList<>();
+            List<Relationship> relationships = new ArrayList<>();
+
+            if (instances.getEntities() != null)
+            {
+                for (EntityDetail entity : instances.getEntities())
+                {
+                    if ((entity != null) && (! metadataCollectionId.equals(entity.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            entityParameterName,
+                                                                            entity,
+                                                                            auditLog,
+                                                                            methodName);
+
+                        TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, entityParameterName, entity.getType().getTypeDefGUID(), methodName);
+
+                        repositoryValidator.validatePropertiesForType(repositoryName,
+                                                                      entityParameterName,
+                                                                      typeDef,
+                                                                      entity.getProperties(),
+                                                                      methodName);
+                        entities.add(entity);
+                    }
+                }
+            }
+
+            if (instances.getRelationships() != null)
+            {
+                for (Relationship relationship : instances.getRelationships())
+                {
+                    if ((relationship != null) && (! metadataCollectionId.equals(relationship.getMetadataCollectionId())))
+                    {
+                        repositoryValidator.validateReferenceInstanceHeader(repositoryName,
+                                                                            metadataCollectionId,
+                                                                            relationshipParameterName,
+                                                                            relationship,
+                                                                            auditLog,
+                                                                            methodName);
+
+                        TypeDef typeDef = repositoryHelper.getTypeDef(repositoryName, relationshipParameterName, relationship.getType().getTypeDefGUID(), methodName);
+
+                        repositoryValidator.validatePropertiesForType(repositoryName,
+                                                                      relationshipParameterName,
+                                                                      typeDef,
+                                                                      relationship.getProperties(),
+                                                                      methodName);
+                        relationships.add(relationship);
+                    }
+                }
+            }
+
+            repositoryStore.saveInstances(entities, relationships);
+        }
+    }
+
+
     /**
      * Remove the reference copy of the relationship from the local repository. This method can be used to
      * remove reference copies from the local cohort, repositories that have left the cohort,
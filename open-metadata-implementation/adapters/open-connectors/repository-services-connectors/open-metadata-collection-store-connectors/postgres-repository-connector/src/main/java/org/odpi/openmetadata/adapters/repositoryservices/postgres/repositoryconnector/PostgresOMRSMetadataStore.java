@@ -4,7 +4,10 @@ package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositorycon
 
 
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.ContinuationTokenCache;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.DatabaseStore;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.HistoryPartitionManager;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.IndexAdvisor;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.QueryBuilder;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ClassificationMapper;
@@ -28,13 +31,24 @@ import java.util.*;
  */
 class PostgresOMRSMetadataStore
 {
-    private final String                repositoryName;
-    private final OMRSRepositoryHelper  repositoryHelper;
-    private final String                localMetadataCollectionId;
-    private final boolean               isReadOnly;
-    private final Date                  defaultAsOfTime;
-    private final JDBCResourceConnector jdbcResourceConnector;
+    private final String                  repositoryName;
+    private final OMRSRepositoryHelper    repositoryHelper;
+    private final String                  localMetadataCollectionId;
+    private final boolean                 isReadOnly;
+    private final Date                    defaultAsOfTime;
+    private final JDBCResourceConnector   jdbcResourceConnector;
+    private final IndexAdvisor            indexAdvisor;
+    private final HistoryPartitionManager historyPartitionManager;
+
+    /*
+     * Continuation tokens for the pages returned by queries.  They are used when the next page is requested.
+     * The tokens are removed whenever this repository changes the stored instances.
+     */
+    private static final int  maxContinuationTokens   = 1000;
+    private static final long maxContinuationTokenAge = 60000L;
 
+    private final ContinuationTokenCache continuationTokenCache = new ContinuationTokenCache(maxContinuationTokens,
+                                                                                             maxContinuationTokenAge);
 
 
     /**
@@ -46,13 +60,17 @@ class PostgresOMRSMetadataStore
      * @param isReadOnly should the repository run in readOnly mode?
      * @param defaultAsOfTime what is the default value for asOfTime?
      * @param jdbcResourceConnector connector to access the database
+     * @param indexAdvisor records the use of properties in queries (maybe null)
+     * @param historyPartitionManager maintains the partitions of the history tables (null if they are not partitioned)
      */
-    PostgresOMRSMetadataStore(String                repositoryName,
-                              OMRSRepositoryHelper  repositoryHelper,
-                              String                localMetadataCollectionId,
-                              boolean               isReadOnly,
-                              Date                  defaultAsOfTime,
-                              JDBCResourceConnector jdbcResourceConnector)
+    PostgresOMRSMetadataStore(String                  repositoryName,
+                              OMRSRepositoryHelper    repositoryHelper,
+                              String                  localMetadataCollectionId,
+                              boolean                 isReadOnly,
+                              Date                    defaultAsOfTime,
+                              JDBCResourceConnector   jdbcResourceConnector,
+                              IndexAdvisor            indexAdvisor,
+                              HistoryPartitionManager historyPartitionManager)
     {
         this.repositoryName = repositoryName;
         this.repositoryHelper = repositoryHelper;
@@ -60,6 +78,29 @@ class PostgresOMRSMetadataStore
         this.isReadOnly = isReadOnly;
         this.defaultAsOfTime = defaultAsOfTime;
         this.jdbcResourceConnector = jdbcResourceConnector;
+        this.indexAdvisor = indexAdvisor;
+        this.historyPartitionManager = historyPartitionManager;
+    }
+
+
+    /**
+     * Create the access to the database for a request.  If the history tables are partitioned, this is where
+     * the partitions for a new month are created.
+     *
+     * @return database store
+     * @throws RepositoryErrorException problem connecting to the database
+     */
+    private DatabaseStore getDatabaseStore() throws RepositoryErrorException
+    {
+        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
+
+        if (historyPartitionManager != null)
+        {
+            historyPartitionManager.maintainPartitionsIfDue();
+            databaseStore.setPartitionedHistory(true);
+        }
+
+        return databaseStore;
     }
 
 
@@ -94,26 +135,28 @@ class PostgresOMRSMetadataStore
         final String methodName = "getEntity";
         final String guidParameterName = "guid";
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
-        databaseStore.disconnect();
-
-        if (storedEntity != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            if (storedEntity.isProxy())
+            EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
+            databaseStore.disconnect();
+
+            if (storedEntity != null)
             {
-                throw new EntityProxyOnlyException(OMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(guid,
-                                                                                                        repositoryName,
-                                                                                                        guidParameterName,
-                                                                                                        methodName),
-                                                   this.getClass().getName(),
-                                                   methodName);
+                if (storedEntity.isProxy())
+                {
+                    throw new EntityProxyOnlyException(OMRSErrorCode.ENTITY_PROXY_ONLY.getMessageDefinition(guid,
+                                                                                                            repositoryName,
+                                                                                                            guidParameterName,
+                                                                                                            methodName),
+                                                       this.getClass().getName(),
+                                                       methodName);
+                }
+
+                return storedEntity.getEntityDetail();
             }
 
-            return storedEntity.getEntityDetail();
+            return null;
         }
-
-        return null;
     }
 
 
@@ -143,23 +186,25 @@ class PostgresOMRSMetadataStore
      */
     EntitySummary  getEntitySummary(String guid) throws RepositoryErrorException
     {
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(null));
-        databaseStore.disconnect();
-
-        if (storedEntity != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            if (storedEntity.getEntityDetail() != null)
-            {
-                return storedEntity.getEntityDetail();
-            }
-            else
+            EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(null));
+            databaseStore.disconnect();
+
+            if (storedEntity != null)
             {
-                return storedEntity.getEntityProxy();
+                if (storedEntity.getEntityDetail() != null)
+                {
+                    return storedEntity.getEntityDetail();
+                }
+                else
+                {
+                    return storedEntity.getEntityProxy();
+                }
             }
-        }
 
-        return null;
+            return null;
+        }
     }
 
 
@@ -172,16 +217,18 @@ class PostgresOMRSMetadataStore
      */
     EntityProxy  getEntityProxy(String guid, Date asOfTime) throws RepositoryErrorException
     {
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
-        databaseStore.disconnect();
-
-        if (storedEntity != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            return storedEntity.getEntityProxy();
-        }
+            EntityMapper storedEntity = databaseStore.getEntityFromStore(guid, getAsOfTime(asOfTime));
+            databaseStore.disconnect();
 
-        return null;
+            if (storedEntity != null)
+            {
+                return storedEntity.getEntityProxy();
+            }
+
+            return null;
+        }
     }
 
 
@@ -240,6 +287,8 @@ class PostgresOMRSMetadataStore
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         entityQueryBuilder.setPaging(fromEntityElement, pageSize);
+        entityQueryBuilder.setContinuationTokenCache(continuationTokenCache);
+        entityQueryBuilder.setIndexAdvisor(indexAdvisor);
 
         QueryBuilder classificationQueryBuilder = null;
 
@@ -252,15 +301,18 @@ class PostgresOMRSMetadataStore
 
             classificationQueryBuilder.setLimitResultsByClassification(limitResultsByClassification);
             classificationQueryBuilder.setAsOfTime(asOfTime);
+            classificationQueryBuilder.setIndexAdvisor(indexAdvisor);
         }
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
-                                                                                      classificationQueryBuilder,
-                                                                                      asOfTime);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
+                                                                                          classificationQueryBuilder,
+                                                                                          asOfTime);
+            databaseStore.disconnect();
 
-        return this.getEntitiesFromMappers(entityMappers);
+            return this.getEntitiesFromMappers(entityMappers);
+        }
     }
 
 
@@ -315,6 +367,8 @@ class PostgresOMRSMetadataStore
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         entityQueryBuilder.setPaging(fromEntityElement, pageSize);
+        entityQueryBuilder.setContinuationTokenCache(continuationTokenCache);
+        entityQueryBuilder.setIndexAdvisor(indexAdvisor);
 
         QueryBuilder classificationQueryBuilder = null;
 
@@ -327,14 +381,17 @@ class PostgresOMRSMetadataStore
 
             classificationQueryBuilder.setLimitResultsByClassification(limitResultsByClassification);
             classificationQueryBuilder.setAsOfTime(asOfTime);
+            classificationQueryBuilder.setIndexAdvisor(indexAdvisor);
         }
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
-                                                                                      classificationQueryBuilder,
-                                                                                      asOfTime);
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
+                                                                                          classificationQueryBuilder,
+                                                                                          asOfTime);
 
-        return this.getEntitiesFromMappers(entityMappers);
+            return this.getEntitiesFromMappers(entityMappers);
+        }
     }
 
 
@@ -389,6 +446,8 @@ class PostgresOMRSMetadataStore
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         entityQueryBuilder.setPaging(fromEntityElement, pageSize);
+        entityQueryBuilder.setContinuationTokenCache(continuationTokenCache);
+        entityQueryBuilder.setIndexAdvisor(indexAdvisor);
 
         if (matchClassifications != null)
         {
@@ -399,14 +458,17 @@ class PostgresOMRSMetadataStore
 
             classificationQueryBuilder.setSearchClassifications(matchClassifications);
             classificationQueryBuilder.setAsOfTime(asOfTime);
+            classificationQueryBuilder.setIndexAdvisor(indexAdvisor);
         }
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
-                                                                                      classificationQueryBuilder,
-                                                                                      asOfTime);
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
+                                                                                          classificationQueryBuilder,
+                                                                                          asOfTime);
 
-        return this.getEntitiesFromMappers(entityMappers);
+            return this.getEntitiesFromMappers(entityMappers);
+        }
     }
 
 
@@ -464,18 +526,23 @@ class PostgresOMRSMetadataStore
         entityQueryBuilder.setAsOfTime(asOfTime);
         entityQueryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         entityQueryBuilder.setPaging(fromEntityElement, pageSize);
+        entityQueryBuilder.setContinuationTokenCache(continuationTokenCache);
+        entityQueryBuilder.setIndexAdvisor(indexAdvisor);
 
         classificationQueryBuilder.setLimitResultsByClassification(Collections.singletonList(classificationName));
         classificationQueryBuilder.setMatchProperties(matchClassificationProperties, matchCriteria);
         classificationQueryBuilder.setAsOfTime(asOfTime);
+        classificationQueryBuilder.setIndexAdvisor(indexAdvisor);
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
-                                                                                      classificationQueryBuilder,
-                                                                                      asOfTime);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<EntityMapper> entityMappers = databaseStore.retrieveEntitiesByProperties(entityQueryBuilder,
+                                                                                          classificationQueryBuilder,
+                                                                                          asOfTime);
+            databaseStore.disconnect();
 
-        return this.getEntitiesFromMappers(entityMappers);
+            return this.getEntitiesFromMappers(entityMappers);
+        }
     }
 
 
@@ -527,16 +594,18 @@ class PostgresOMRSMetadataStore
      */
     Relationship getRelationship(String guid) throws RepositoryErrorException
     {
-        DatabaseStore      databaseStore      = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        RelationshipMapper storedRelationship = databaseStore.getRelationshipFromStore(guid, getAsOfTime(null));
-        databaseStore.disconnect();
-
-        if (storedRelationship != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            return storedRelationship.getRelationship();
-        }
+            RelationshipMapper storedRelationship = databaseStore.getRelationshipFromStore(guid, getAsOfTime(null));
+            databaseStore.disconnect();
 
-        return null;
+            if (storedRelationship != null)
+            {
+                return storedRelationship.getRelationship();
+            }
+
+            return null;
+        }
     }
 
 
@@ -551,16 +620,18 @@ class PostgresOMRSMetadataStore
     Relationship  getRelationship(String guid,
                                   Date   asOfTime) throws RepositoryErrorException
     {
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        RelationshipMapper storedRelationship = databaseStore.getRelationshipFromStore(guid, asOfTime);
-        databaseStore.disconnect();
-
-        if (storedRelationship != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            return storedRelationship.getRelationship();
-        }
+            RelationshipMapper storedRelationship = databaseStore.getRelationshipFromStore(guid, asOfTime);
+            databaseStore.disconnect();
 
-        return null;
+            if (storedRelationship != null)
+            {
+                return storedRelationship.getRelationship();
+            }
+
+            return null;
+        }
     }
 
 
@@ -607,13 +678,17 @@ class PostgresOMRSMetadataStore
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         queryBuilder.setPaging(fromRelationshipElement, pageSize);
+        queryBuilder.setContinuationTokenCache(continuationTokenCache);
+        queryBuilder.setIndexAdvisor(indexAdvisor);
         queryBuilder.setRelationshipEndGUID(entityGUID);
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationships(queryBuilder, getAsOfTime(asOfTime));
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationships(queryBuilder, getAsOfTime(asOfTime));
+            databaseStore.disconnect();
 
-        return getRelationshipsFromMappers(storedRelationships);
+            return getRelationshipsFromMappers(storedRelationships);
+        }
     }
 
 
@@ -705,12 +780,16 @@ class PostgresOMRSMetadataStore
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         queryBuilder.setPaging(fromRelationshipElement, pageSize);
+        queryBuilder.setContinuationTokenCache(continuationTokenCache);
+        queryBuilder.setIndexAdvisor(indexAdvisor);
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
+            databaseStore.disconnect();
 
-        return getRelationshipsFromMappers(storedRelationships);
+            return getRelationshipsFromMappers(storedRelationships);
+        }
     }
 
 
@@ -764,12 +843,16 @@ class PostgresOMRSMetadataStore
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         queryBuilder.setPaging(fromRelationshipElement, pageSize);
+        queryBuilder.setContinuationTokenCache(continuationTokenCache);
+        queryBuilder.setIndexAdvisor(indexAdvisor);
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
+            databaseStore.disconnect();
 
-        return getRelationshipsFromMappers(storedRelationships);
+            return getRelationshipsFromMappers(storedRelationships);
+        }
     }
 
 
@@ -826,12 +909,16 @@ class PostgresOMRSMetadataStore
         queryBuilder.setAsOfTime(asOfTime);
         queryBuilder.setSequencingOrder(sequencingOrder, sequencingProperty);
         queryBuilder.setPaging(fromRelationshipElement, pageSize);
+        queryBuilder.setContinuationTokenCache(continuationTokenCache);
+        queryBuilder.setIndexAdvisor(indexAdvisor);
 
-        DatabaseStore  databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            List<RelationshipMapper> storedRelationships = databaseStore.retrieveRelationshipsByProperties(queryBuilder, asOfTime);
+            databaseStore.disconnect();
 
-        return getRelationshipsFromMappers(storedRelationships);
+            return getRelationshipsFromMappers(storedRelationships);
+        }
     }
 
 
@@ -850,26 +937,75 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            EntityMapper storedEntity = databaseStore.getEntityForUpdate(entityDetail.getGUID());
+
+            if (storedEntity == null)
+            {
+                databaseStore.addEntityToStore(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+                databaseStore.disconnect();
+                return entityDetail;
+            }
+            else if (entityDetail.getVersion() > storedEntity.getEntityDetail().getVersion())
+            {
+                databaseStore.updatePreviousEntityVersionEndTime(storedEntity, databaseStore.getVersionEndDate(entityDetail.getUpdateTime()));
 
-        EntityMapper storedEntity = databaseStore.getEntityForUpdate(entityDetail.getGUID());
+                databaseStore.addEntityToStore(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+                databaseStore.disconnect();
+                return entityDetail;
+            }
 
-        if (storedEntity == null)
+            return storedEntity.getEntityDetail();
+        }
+        finally
         {
-            databaseStore.addEntityToStore(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
-            databaseStore.disconnect();
-            return entityDetail;
+            continuationTokenCache.invalidate();
         }
-        else if (entityDetail.getVersion() > storedEntity.getEntityDetail().getVersion())
+    }
+
+
+    /**
+     * Save a group of entities and relationships in one database transaction.  This is the bulk load path used
+     * for batches of reference copies.  Each instance is only saved if it is new or has a later version than
+     * the stored one.
+     *
+     * @param entities entities to save
+     * @param relationships relationships to save
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    void saveInstances(List<EntityDetail> entities,
+                       List<Relationship> relationships) throws RepositoryErrorException
+    {
+        final String methodName = "saveInstances";
+
+        if (isReadOnly)
         {
-            databaseStore.updatePreviousEntityVersionEndTime(storedEntity, databaseStore.getVersionEndDate(entityDetail.getUpdateTime()));
+            throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
+        }
 
-            databaseStore.addEntityToStore(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
-            databaseStore.disconnect();
-            return entityDetail;
+        List<EntityMapper>       entityMappers       = new ArrayList<>();
+        List<RelationshipMapper> relationshipMappers = new ArrayList<>();
+
+        for (EntityDetail entityDetail : entities)
+        {
+            entityMappers.add(new EntityMapper(entityDetail, repositoryHelper, repositoryName));
+        }
+
+        for (Relationship relationship : relationships)
+        {
+            relationshipMappers.add(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
         }
 
-        return storedEntity.getEntityDetail();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            databaseStore.saveInstances(entityMappers, relationshipMappers);
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 
 
@@ -888,9 +1024,15 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        databaseStore.addEntityProxyToStore(new EntityMapper(entityProxy, repositoryHelper, repositoryName));
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            databaseStore.addEntityProxyToStore(new EntityMapper(entityProxy, repositoryHelper, repositoryName));
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 
 
@@ -910,25 +1052,30 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            RelationshipMapper storedRelationship = databaseStore.getRelationshipForUpdate(relationship.getGUID());
 
-        RelationshipMapper storedRelationship = databaseStore.getRelationshipForUpdate(relationship.getGUID());
+            if (storedRelationship == null)
+            {
+                databaseStore.addRelationshipToStore(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
+                databaseStore.disconnect();
+                return relationship;
+            }
+            else if (relationship.getVersion() > storedRelationship.getRelationship().getVersion())
+            {
+                databaseStore.updatePreviousRelationshipVersionEndTime(storedRelationship, databaseStore.getVersionEndDate(relationship.getUpdateTime()));
+                databaseStore.addRelationshipToStore(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
+                databaseStore.disconnect();
+                return relationship;
+            }
 
-        if (storedRelationship == null)
-        {
-            databaseStore.addRelationshipToStore(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
-            databaseStore.disconnect();
-            return relationship;
+            return storedRelationship.getRelationship();
         }
-        else if (relationship.getVersion() > storedRelationship.getRelationship().getVersion())
+        finally
         {
-            databaseStore.updatePreviousRelationshipVersionEndTime(storedRelationship, databaseStore.getVersionEndDate(relationship.getUpdateTime()));
-            databaseStore.addRelationshipToStore(new RelationshipMapper(relationship, repositoryHelper, repositoryName));
-            databaseStore.disconnect();
-            return relationship;
+            continuationTokenCache.invalidate();
         }
-
-        return storedRelationship.getRelationship();
     }
 
 
@@ -949,58 +1096,63 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-
-        ClassificationMapper storedClassification = databaseStore.getClassificationForUpdate(entityGUID, classification.getName());
-
-        if ((storedClassification == null) || (storedClassification.getClassification() == null))
-        {
-            databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
-        }
-        else if (classification.getVersion() > storedClassification.getClassification().getVersion())
-        {
-            /*
-             * Update the previous version of the classification to the end time of the current version
-             */
-            databaseStore.updatePreviousClassificationVersionEndTime(storedClassification, databaseStore.getVersionEndDate(classification.getUpdateTime()));
-            databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
-        }
-        else
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            /*
-             * Has the classification been deleted and now a new one is being created?
-             */
-            Classification originallyStoredClassification = storedClassification.getClassification();
-
-            if ((classification.getVersion() == 1) &&
-                    (originallyStoredClassification.getStatus() == InstanceStatus.DELETED) &&
-                    (originallyStoredClassification.getUpdateTime().getTime() < classification.getCreateTime().getTime()))
+            ClassificationMapper storedClassification = databaseStore.getClassificationForUpdate(entityGUID, classification.getName());
+
+            if ((storedClassification == null) || (storedClassification.getClassification() == null))
             {
-                Set<String> modifiedByList = new HashSet<>();
-                modifiedByList.add(classification.getCreatedBy());
-                modifiedByList.add(originallyStoredClassification.getCreatedBy());
-                if (originallyStoredClassification.getMaintainedBy() != null)
-                {
-                    modifiedByList.addAll(originallyStoredClassification.getMaintainedBy());
-                }
-                if (originallyStoredClassification.getUpdatedBy() != null)
+                databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
+            }
+            else if (classification.getVersion() > storedClassification.getClassification().getVersion())
+            {
+                /*
+                 * Update the previous version of the classification to the end time of the current version
+                 */
+                databaseStore.updatePreviousClassificationVersionEndTime(storedClassification, databaseStore.getVersionEndDate(classification.getUpdateTime()));
+                databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
+            }
+            else
+            {
+                /*
+                 * Has the classification been deleted and now a new one is being created?
+                 */
+                Classification originallyStoredClassification = storedClassification.getClassification();
+
+                if ((classification.getVersion() == 1) &&
+                        (originallyStoredClassification.getStatus() == InstanceStatus.DELETED) &&
+                        (originallyStoredClassification.getUpdateTime().getTime() < classification.getCreateTime().getTime()))
                 {
-                    modifiedByList.add(originallyStoredClassification.getUpdatedBy());
-                }
-                classification.setMaintainedBy(new ArrayList<>(modifiedByList));
-                classification.setVersion(originallyStoredClassification.getVersion() + 1);
-                classification.setUpdatedBy(classification.getCreatedBy());
-                classification.setUpdateTime(new Date());
+                    Set<String> modifiedByList = new HashSet<>();
+                    modifiedByList.add(classification.getCreatedBy());
+                    modifiedByList.add(originallyStoredClassification.getCreatedBy());
+                    if (originallyStoredClassification.getMaintainedBy() != null)
+                    {
+                        modifiedByList.addAll(originallyStoredClassification.getMaintainedBy());
+                    }
+                    if (originallyStoredClassification.getUpdatedBy() != null)
+                    {
+                        modifiedByList.add(originallyStoredClassification.getUpdatedBy());
+                    }
+                    classification.setMaintainedBy(new ArrayList<>(modifiedByList));
+                    classification.setVersion(originallyStoredClassification.getVersion() + 1);
+                    classification.setUpdatedBy(classification.getCreatedBy());
+                    classification.setUpdateTime(new Date());
 
-                classification.setCreatedBy(originallyStoredClassification.getCreatedBy());
-                classification.setCreateTime(originallyStoredClassification.getCreateTime());
+                    classification.setCreatedBy(originallyStoredClassification.getCreatedBy());
+                    classification.setCreateTime(originallyStoredClassification.getCreateTime());
 
-                databaseStore.updatePreviousClassificationVersionEndTime(storedClassification, databaseStore.getVersionEndDate(classification.getUpdateTime()));
-                databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
+                    databaseStore.updatePreviousClassificationVersionEndTime(storedClassification, databaseStore.getVersionEndDate(classification.getUpdateTime()));
+                    databaseStore.saveClassification(new ClassificationMapper(entityGUID, classification, repositoryHelper, repositoryName));
+                }
             }
-        }
 
-        databaseStore.disconnect();
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 
 
@@ -1014,21 +1166,23 @@ class PostgresOMRSMetadataStore
      */
     Relationship retrievePreviousVersionOfRelationship(Relationship currentRelationship) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> storedRelationships = databaseStore.getRelationshipHistoryFromStore(currentRelationship.getGUID(), null, null, true);
-        databaseStore.disconnect();
-
-        if ((storedRelationships != null) && (storedRelationships.size() > 1))
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            RelationshipMapper relationshipMapper = storedRelationships.get(storedRelationships.size() - 2);
+            List<RelationshipMapper> storedRelationships = databaseStore.getRelationshipHistoryFromStore(currentRelationship.getGUID(), null, null, true);
+            databaseStore.disconnect();
 
-            if (relationshipMapper != null)
+            if ((storedRelationships != null) && (storedRelationships.size() > 1))
             {
-                return relationshipMapper.getRelationship();
+                RelationshipMapper relationshipMapper = storedRelationships.get(storedRelationships.size() - 2);
+
+                if (relationshipMapper != null)
+                {
+                    return relationshipMapper.getRelationship();
+                }
             }
-        }
 
-        return null;
+            return null;
+        }
     }
 
 
@@ -1042,34 +1196,36 @@ class PostgresOMRSMetadataStore
      */
     EntityDetail retrievePreviousVersionOfEntity(EntityDetail  currentEntity) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> storedEntities = databaseStore.getEntityHistoryFromStore(currentEntity.getGUID(),
-                                                                                    null,
-                                                                                    null,
-                                                                                    true);
-        databaseStore.disconnect();
-
-        if ((storedEntities != null) && (storedEntities.size() > 1))
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            EntityMapper entityMapper = storedEntities.get(storedEntities.size() - 2);
+            List<EntityMapper> storedEntities = databaseStore.getEntityHistoryFromStore(currentEntity.getGUID(),
+                                                                                        null,
+                                                                                        null,
+                                                                                        true);
+            databaseStore.disconnect();
 
-            if (entityMapper != null)
+            if ((storedEntities != null) && (storedEntities.size() > 1))
             {
-                /*
-                 * This should be null if only the entity proxy was previously known.
-                 */
-                try
-                {
-                    return entityMapper.getEntityDetail();
-                }
-                catch (RepositoryErrorException onlyAProxy)
+                EntityMapper entityMapper = storedEntities.get(storedEntities.size() - 2);
+
+                if (entityMapper != null)
                 {
-                    return null;
+                    /*
+                     * This should be null if only the entity proxy was previously known.
+                     */
+                    try
+                    {
+                        return entityMapper.getEntityDetail();
+                    }
+                    catch (RepositoryErrorException onlyAProxy)
+                    {
+                        return null;
+                    }
                 }
             }
-        }
 
-        return null;
+            return null;
+        }
     }
 
 
@@ -1082,26 +1238,28 @@ class PostgresOMRSMetadataStore
      */
     List<Classification> getHomeClassifications(String guid) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<ClassificationMapper> classificationMappers = databaseStore.getHomeClassifications(guid, localMetadataCollectionId, getAsOfTime(null));
-        databaseStore.disconnect();
-
-        if (classificationMappers != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            List<Classification> classifications = new ArrayList<>();
+            List<ClassificationMapper> classificationMappers = databaseStore.getHomeClassifications(guid, localMetadataCollectionId, getAsOfTime(null));
+            databaseStore.disconnect();
 
-            for (ClassificationMapper classificationMapper : classificationMappers)
+            if (classificationMappers != null)
             {
-                if (classificationMapper != null)
+                List<Classification> classifications = new ArrayList<>();
+
+                for (ClassificationMapper classificationMapper : classificationMappers)
                 {
-                    classifications.add(classificationMapper.getClassification());
+                    if (classificationMapper != null)
+                    {
+                        classifications.add(classificationMapper.getClassification());
+                    }
                 }
+
+                return classifications;
             }
 
-            return classifications;
+            return null;
         }
-
-        return null;
     }
 
 
@@ -1120,29 +1278,31 @@ class PostgresOMRSMetadataStore
                                         Date    toTime,
                                         boolean oldestFirst) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<EntityMapper> entityMappers = databaseStore.getEntityHistoryFromStore(guid, fromTime, toTime, oldestFirst);
-        databaseStore.disconnect();
-
-        if (entityMappers != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            List<EntityDetail> historyResults = new ArrayList<>();
+            List<EntityMapper> entityMappers = databaseStore.getEntityHistoryFromStore(guid, fromTime, toTime, oldestFirst);
+            databaseStore.disconnect();
 
-            for (EntityMapper entityMapper : entityMappers)
+            if (entityMappers != null)
             {
-                if (entityMapper != null)
+                List<EntityDetail> historyResults = new ArrayList<>();
+
+                for (EntityMapper entityMapper : entityMappers)
                 {
-                    if (! entityMapper.isProxy())
+                    if (entityMapper != null)
                     {
-                        historyResults.add(entityMapper.getEntityDetail());
+                        if (! entityMapper.isProxy())
+                        {
+                            historyResults.add(entityMapper.getEntityDetail());
+                        }
                     }
                 }
+
+                return historyResults;
             }
 
-            return historyResults;
+            return null;
         }
-
-        return null;
     }
 
 
@@ -1163,26 +1323,28 @@ class PostgresOMRSMetadataStore
                                                   Date    toTime,
                                                   boolean oldestFirst) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<ClassificationMapper> classificationMappers = databaseStore.getClassificationHistoryFromStore(guid, classificationName, fromTime, toTime, oldestFirst);
-        databaseStore.disconnect();
-
-        if (classificationMappers != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            List<Classification> historyResults = new ArrayList<>();
+            List<ClassificationMapper> classificationMappers = databaseStore.getClassificationHistoryFromStore(guid, classificationName, fromTime, toTime, oldestFirst);
+            databaseStore.disconnect();
 
-            for (ClassificationMapper classificationMapper : classificationMappers)
+            if (classificationMappers != null)
             {
-                if (classificationMapper != null)
+                List<Classification> historyResults = new ArrayList<>();
+
+                for (ClassificationMapper classificationMapper : classificationMappers)
                 {
-                    historyResults.add(classificationMapper.getClassification());
+                    if (classificationMapper != null)
+                    {
+                        historyResults.add(classificationMapper.getClassification());
+                    }
                 }
+
+                return historyResults;
             }
 
-            return historyResults;
+            return null;
         }
-
-        return null;
     }
 
 
@@ -1201,26 +1363,28 @@ class PostgresOMRSMetadataStore
                                               Date    toTime,
                                               boolean oldestFirst) throws RepositoryErrorException
     {
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        List<RelationshipMapper> relationshipMappers = databaseStore.getRelationshipHistoryFromStore(guid, fromTime, toTime, oldestFirst);
-        databaseStore.disconnect();
-
-        if (relationshipMappers != null)
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
         {
-            List<Relationship> historyResults = new ArrayList<>();
+            List<RelationshipMapper> relationshipMappers = databaseStore.getRelationshipHistoryFromStore(guid, fromTime, toTime, oldestFirst);
+            databaseStore.disconnect();
 
-            for (RelationshipMapper relationshipMapper : relationshipMappers)
+            if (relationshipMappers != null)
             {
-                if (relationshipMapper != null)
+                List<Relationship> historyResults = new ArrayList<>();
+
+                for (RelationshipMapper relationshipMapper : relationshipMappers)
                 {
-                    historyResults.add(relationshipMapper.getRelationship());
+                    if (relationshipMapper != null)
+                    {
+                        historyResults.add(relationshipMapper.getRelationship());
+                    }
                 }
+
+                return historyResults;
             }
 
-            return historyResults;
+            return null;
         }
-
-        return null;
     }
 
 
@@ -1240,9 +1404,15 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        databaseStore.purgeClassification(entityGUID, classificationName);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            databaseStore.purgeClassification(entityGUID, classificationName);
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 
 
@@ -1261,9 +1431,15 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        databaseStore.purgeEntity(guid);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            databaseStore.purgeEntity(guid);
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 
 
@@ -1282,8 +1458,14 @@ class PostgresOMRSMetadataStore
             throw new RepositoryErrorException(PostgresErrorCode.READ_ONLY_MODE.getMessageDefinition(repositoryName), this.getClass().getName(), methodName);
         }
 
-        DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper);
-        databaseStore.purgeRelationship(guid);
-        databaseStore.disconnect();
+        try (DatabaseStore databaseStore = this.getDatabaseStore())
+        {
+            databaseStore.purgeRelationship(guid);
+            databaseStore.disconnect();
+        }
+        finally
+        {
+            continuationTokenCache.invalidate();
+        }
     }
 }
@@ -7,18 +7,25 @@ import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConne
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.controls.PostgresConfigurationProperty;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.DatabaseStore;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.HistoryPartitionManager;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database.IndexAdvisor;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresAuditCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ControlMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndexType;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
 import org.odpi.openmetadata.frameworks.connectors.Connector;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -29,6 +36,7 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
 {
     private final static String supportedSchemaVersion = "V1.0";
     private JDBCResourceConnector jdbcResourceConnector = null;
+    private IndexAdvisor          indexAdvisor          = null;
 
     /**
      * Default constructor used by the OCF Connector Provider.
@@ -71,11 +79,16 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
                                 jdbcResourceConnector.start();
                             }
 
-                            validateRepositoryControlTable(jdbcResourceConnector);
+                            List<RepositoryIndexType> searchIndexTypes        = this.getSearchIndexTypes();
+                            HistoryPartitionManager   historyPartitionManager = this.getHistoryPartitionManager(jdbcResourceConnector);
 
-                            boolean isReadOnly = this.getRepositoryMode();
+                            validateRepositoryControlTable(jdbcResourceConnector, searchIndexTypes, historyPartitionManager);
+
+                            boolean isReadOnly      = this.getRepositoryMode();
                             Date    defaultAsOfTime = this.getDefaultAsOfTime();
 
+                            indexAdvisor = this.getIndexAdvisor(jdbcResourceConnector, searchIndexTypes);
+
                             /*
                              * Initialize the metadata collection only once the connector is properly set up.
                              */
@@ -86,6 +99,9 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
                                                                                           isReadOnly,
                                                                                           defaultAsOfTime,
                                                                                           jdbcResourceConnector,
+                                                                                          indexAdvisor,
+                                                                                          historyPartitionManager,
+                                                                                          this.getGUIDStrategy(),
                                                                                           metadataCollectionId);
                             break;
                         }
@@ -117,71 +133,84 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
      * Check that the schema is in place and the repository control table is correct.
      *
      * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param searchIndexTypes categories of search index to define
+     * @param historyPartitionManager maintains the partitions of the history tables (null if they are not partitioned)
      * @throws RepositoryErrorException problem connecting to the database
      */
-    private void validateRepositoryControlTable(JDBCResourceConnector jdbcResourceConnector) throws RepositoryErrorException
+    private void validateRepositoryControlTable(JDBCResourceConnector     jdbcResourceConnector,
+                                                List<RepositoryIndexType> searchIndexTypes,
+                                                HistoryPartitionManager   historyPartitionManager) throws RepositoryErrorException
     {
         final String methodName = "validateRepositoryControlTable";
 
         auditLog.logMessage(methodName, PostgresAuditCode.STARTING_REPOSITORY.getMessageDefinition(repositoryName, jdbcResourceConnector.getDatabaseName()));
 
-        String schemaName = super.getStringConfigurationProperty(PostgresConfigurationProperty.DATABASE_SCHEMA.getName(),
-                                                                 connectionBean.getConfigurationProperties());
-
-        if (schemaName == null)
-        {
-            schemaName = "repository_" + serverName;
-        }
+        String schemaName = this.getSchemaName();
 
         try
         {
-            loadDDL(jdbcResourceConnector, schemaName);
-
-            DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
-                                                            repositoryName,
-                                                            repositoryHelper);
+            loadDDL(jdbcResourceConnector, schemaName, searchIndexTypes, historyPartitionManager != null);
 
-            ControlMapper controlMapper = databaseStore.getControlTable();
+            if (historyPartitionManager != null)
+            {
+                historyPartitionManager.maintainPartitions(new Date());
+            }
 
-            if (controlMapper == null)
+            try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector,
+                                                                 repositoryName,
+                                                                 repositoryHelper))
             {
-                if (metadataCollectionId == null)
+                ControlMapper controlMapper = databaseStore.getControlTable();
+
+                if (controlMapper == null)
+                {
+                    if (metadataCollectionId == null)
+                    {
+                        metadataCollectionId = UUID.randomUUID().toString();
+                    }
+
+                    controlMapper = new ControlMapper(repositoryName, serverName, metadataCollectionId, supportedSchemaVersion);
+
+                    databaseStore.saveControlTable(controlMapper);
+                }
+                else if (! serverName.equals(controlMapper.getServerName()))
+                {
+                    throw new RepositoryErrorException(PostgresErrorCode.CONTROL_SERVER_MISMATCH.getMessageDefinition(repositoryName,
+                                                                                                                      schemaName,
+                                                                                                                      controlMapper.getServerName()),
+                                                       this.getClass().getName(),
+                                                       methodName);
+                }
+                else if (! supportedSchemaVersion.equals(controlMapper.getSchemaVersion()))
+                {
+                    throw new RepositoryErrorException(PostgresErrorCode.CONTROL_SCHEMA_VERSION_MISMATCH.getMessageDefinition(repositoryName,
+                                                                                                                              schemaName,
+                                                                                                                              controlMapper.getSchemaVersion()),
+                                                       this.getClass().getName(),
+                                                       methodName);
+                }
+                else if (metadataCollectionId == null)
                 {
-                    metadataCollectionId = UUID.randomUUID().toString();
+                    metadataCollectionId = controlMapper.getLocalMetadataCollectionGUID();
+                }
+                else if (! metadataCollectionId.equals(controlMapper.getLocalMetadataCollectionGUID()))
+                {
+                    throw new RepositoryErrorException(PostgresErrorCode.CONTROL_MC_ID_MISMATCH.getMessageDefinition(repositoryName,
+                                                                                                                     schemaName,
+                                                                                                                     controlMapper.getLocalMetadataCollectionGUID(),
+                                                                                                                     metadataCollectionId),
+                                                       this.getClass().getName(),
+                                                       methodName);
                 }
 
-                controlMapper = new ControlMapper(repositoryName, serverName, metadataCollectionId, supportedSchemaVersion);
+                if (databaseStore.isCurrentVersionPopulationNeeded())
+                {
+                    auditLog.logMessage(methodName, PostgresAuditCode.POPULATING_CURRENT_VERSION_TABLES.getMessageDefinition(repositoryName, schemaName));
 
-                databaseStore.saveControlTable(controlMapper);
-            }
-            else if (! serverName.equals(controlMapper.getServerName()))
-            {
-                throw new RepositoryErrorException(PostgresErrorCode.CONTROL_SERVER_MISMATCH.getMessageDefinition(repositoryName,
-                                                                                                                  schemaName,
-                                                                                                                  controlMapper.getServerName()),
-                                                   this.getClass().getName(),
-                                                   methodName);
-            }
-            else if (! supportedSchemaVersion.equals(controlMapper.getSchemaVersion()))
-            {
-                throw new RepositoryErrorException(PostgresErrorCode.CONTROL_SCHEMA_VERSION_MISMATCH.getMessageDefinition(repositoryName,
-                                                                                                                          schemaName,
-                                                                                                                          controlMapper.getSchemaVersion()),
-                                                   this.getClass().getName(),
-                                                   methodName);
-            }
-            else if (metadataCollectionId == null)
-            {
-                metadataCollectionId = controlMapper.getLocalMetadataCollectionGUID();
-            }
-            else if (! metadataCollectionId.equals(controlMapper.getLocalMetadataCollectionGUID()))
-            {
-                throw new RepositoryErrorException(PostgresErrorCode.CONTROL_MC_ID_MISMATCH.getMessageDefinition(repositoryName,
-                                                                                                                 schemaName,
-                                                                                                                 controlMapper.getLocalMetadataCollectionGUID(),
-                                                                                                                 metadataCollectionId),
-                                                   this.getClass().getName(),
-                                                   methodName);
+                    databaseStore.populateCurrentVersionTables();
+                }
+
+                databaseStore.disconnect();
             }
         }
         catch (RepositoryErrorException error)
@@ -208,13 +237,37 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
 
 
     /**
-     * Check that the tables for the repository are defined.
+     * Return the name of the database schema from the configuration properties.
+     *
+     * @return schema name
+     */
+    private String getSchemaName()
+    {
+        String schemaName = super.getStringConfigurationProperty(PostgresConfigurationProperty.DATABASE_SCHEMA.getName(),
+                                                                 connectionBean.getConfigurationProperties());
+
+        if (schemaName == null)
+        {
+            schemaName = "repository_" + serverName;
+        }
+
+        return schemaName;
+    }
+
+
+    /**
+     * Check that the tables and search indexes for the repository are defined.
      *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
      * @param schemaName name of the schema
+     * @param searchIndexTypes categories of search index to define
+     * @param partitionHistoryTables should the history tables be partitioned on the version end time?
      * @throws RepositoryErrorException problem with the DDL
      */
-    private void loadDDL(JDBCResourceConnector jdbcResourceConnector,
-                         String                schemaName) throws RepositoryErrorException
+    private void loadDDL(JDBCResourceConnector     jdbcResourceConnector,
+                         String                    schemaName,
+                         List<RepositoryIndexType> searchIndexTypes,
+                         boolean                   partitionHistoryTables) throws RepositoryErrorException
     {
         final String methodName = "loadDDL";
 
@@ -222,13 +275,16 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
 
         try
         {
-            java.sql.Connection jdbcConnection = jdbcResourceConnector.getDataSource().getConnection();
-
             PostgreSQLSchemaDDL postgreSQLSchemaDDL = new PostgreSQLSchemaDDL(schemaName,
                                                                               repositoryName,
-                                                                              RepositoryTable.getTables());
-            jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, postgreSQLSchemaDDL.getDDLStatements());
-            jdbcConnection.commit();
+                                                                              RepositoryTable.getTables(partitionHistoryTables),
+                                                                              RepositoryIndex.getIndexes(searchIndexTypes));
+
+            try (java.sql.Connection jdbcConnection = jdbcResourceConnector.getDataSource().getConnection())
+            {
+                jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, postgreSQLSchemaDDL.getDDLStatements());
+                jdbcConnection.commit();
+            }
         }
         catch (Exception error)
         {
@@ -277,6 +333,132 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
     }
 
 
+    /**
+     * Extract the categories of search index to define from the configuration properties.  Unrecognized names
+     * are ignored.
+     *
+     * @return list of index types (empty if there are none)
+     */
+    private List<RepositoryIndexType> getSearchIndexTypes()
+    {
+        List<RepositoryIndexType> searchIndexTypes = new ArrayList<>();
+
+        List<String> searchIndexNames = super.getArrayConfigurationProperty(PostgresConfigurationProperty.SEARCH_INDEXES.getName(),
+                                                                           connectionBean.getConfigurationProperties());
+
+        if (searchIndexNames != null)
+        {
+            for (String searchIndexName : searchIndexNames)
+            {
+                RepositoryIndexType indexType = RepositoryIndexType.getIndexType(searchIndexName.trim());
+
+                if ((indexType != null) && (! searchIndexTypes.contains(indexType)))
+                {
+                    searchIndexTypes.add(indexType);
+                }
+            }
+        }
+
+        return searchIndexTypes;
+    }
+
+
+    /**
+     * Create the index advisor according to the indexAdvisorMode configuration property.  If it is set to 'off',
+     * there is no advisor.  If it is set to 'create' the advisor creates the missing indexes, otherwise it
+     * recommends them.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @param searchIndexTypes categories of search index that are defined
+     * @return advisor or null
+     */
+    private IndexAdvisor getIndexAdvisor(JDBCResourceConnector     jdbcResourceConnector,
+                                         List<RepositoryIndexType> searchIndexTypes)
+    {
+        final String methodName = "getIndexAdvisor";
+
+        String indexAdvisorMode = super.getStringConfigurationProperty(PostgresConfigurationProperty.INDEX_ADVISOR_MODE.getName(),
+                                                                       connectionBean.getConfigurationProperties());
+
+        if (! "off".equals(indexAdvisorMode) && ! "create".equals(indexAdvisorMode))
+        {
+            indexAdvisorMode = "recommend";
+        }
+
+        auditLog.logMessage(methodName, PostgresAuditCode.SEARCH_INDEXES.getMessageDefinition(repositoryName,
+                                                                                              searchIndexTypes.toString(),
+                                                                                              indexAdvisorMode));
+
+        if ("off".equals(indexAdvisorMode))
+        {
+            return null;
+        }
+
+        return new IndexAdvisor(repositoryName,
+                                this.getSchemaName(),
+                                auditLog,
+                                jdbcResourceConnector,
+                                searchIndexTypes,
+                                "create".equals(indexAdvisorMode));
+    }
+
+
+    /**
+     * Create the manager for the partitions of the history tables if the partitionHistoryTables configuration
+     * property is set.  The history tables can only be partitioned when they are created, so there is no manager
+     * if the schema already has unpartitioned history tables.
+     *
+     * @param jdbcResourceConnector resource connector for JDBC (started)
+     * @return manager or null
+     * @throws RepositoryErrorException problem connecting to the database
+     */
+    private HistoryPartitionManager getHistoryPartitionManager(JDBCResourceConnector jdbcResourceConnector) throws RepositoryErrorException
+    {
+        final String methodName = "getHistoryPartitionManager";
+
+        if (! super.getBooleanConfigurationProperty(PostgresConfigurationProperty.PARTITION_HISTORY_TABLES.getName(),
+                                                    connectionBean.getConfigurationProperties()))
+        {
+            return null;
+        }
+
+        String schemaName = this.getSchemaName();
+
+        HistoryPartitionManager historyPartitionManager = new HistoryPartitionManager(repositoryName,
+                                                                                      schemaName,
+                                                                                      auditLog,
+                                                                                      jdbcResourceConnector,
+                                                                                      super.getIntConfigurationProperty(PostgresConfigurationProperty.HISTORY_RETENTION_MONTHS.getName(),
+                                                                                                                        connectionBean.getConfigurationProperties()));
+
+        if (historyPartitionManager.isUnpartitionedSchema())
+        {
+            auditLog.logMessage(methodName, PostgresAuditCode.HISTORY_NOT_PARTITIONED.getMessageDefinition(repositoryName, schemaName));
+
+            return null;
+        }
+
+        auditLog.logMessage(methodName, PostgresAuditCode.HISTORY_PARTITIONING.getMessageDefinition(repositoryName,
+                                                                                                    schemaName,
+                                                                                                    Integer.toString(historyPartitionManager.getRetentionMonths())));
+
+        return historyPartitionManager;
+    }
+
+
+    /**
+     * Return the strategy for creating the GUIDs of new instances from the guidStrategy configuration
+     * property (default is random).
+     *
+     * @return strategy
+     */
+    private OMRSGUIDStrategy getGUIDStrategy()
+    {
+        return OMRSGUIDStrategy.getGUIDStrategy(super.getStringConfigurationProperty(PostgresConfigurationProperty.GUID_STRATEGY.getName(),
+                                                                                     connectionBean.getConfigurationProperties()));
+    }
+
+
     /**
      * Return the defaultAsOfTime setting from the configuration property (default is null).
      *
@@ -311,6 +493,11 @@ public class PostgresOMRSRepositoryConnector extends OMRSRepositoryConnector
     @Override
     public void disconnect() throws ConnectorCheckedException
     {
+        if (indexAdvisor != null)
+        {
+            indexAdvisor.shutdown();
+        }
+
         if (jdbcResourceConnector != null)
         {
             jdbcResourceConnector.disconnect();
@@ -23,6 +23,11 @@ public enum PostgresConfigurationProperty
     SECRETS_COLLECTION_NAME ("secretsCollectionName", "The name of the secrets collection.", DataType.STRING.getDisplayName(), "~{postgreSQLServerCollectionName}~"),
     DEFAULT_AS_OF_TIME ("defaultAsOfTime", "Optional value that changes the default value for 'asOfTime'. The 'asOfTime' parameter is used on queries to control which point in time to take the open metadata from.  The standard default is 'null' which means use the current time. If the 'defaultAsOfTime' option is specified then, by default, queries will use the supplied asOfTime value.  This can be overridden on individual requests.  Creates, updates, deletes continue to be appended to the database.  The mode recent data can be retrieved by setting the asOfTime to the current time on queries.", DataType.DATE.getDisplayName(), null),
     REPOSITORY_MODE ("repositoryMode", "Optional value that controls which functions are active in the repository. If it is set to 'readOnly' the repository is switched into read-only mode.  Any other value (or if it is not specified) results in a read-write repository.", DataType.DATE.getDisplayName(), "yyyy/MM/dd HH:mm:ss"),
+    SEARCH_INDEXES ("searchIndexes", "Optional list of the categories of search index to define on the current version tables.  The categories are 'composite' (btree indexes on attribute name), 'trigram' (GIN indexes for string-contains and regular expression searches that need the pg_trgm extension) and 'expression' (btree indexes for exact matches on property values of any length).  The default is no search indexes.", DataType.ARRAY_STRING.getDisplayName(), "composite,trigram,expression"),
+    INDEX_ADVISOR_MODE ("indexAdvisorMode", "Optional value that controls the index advisor.  The advisor records the property names and operators used in queries.  If it is set to 'create', the advisor creates a missing search index once it has been needed by enough queries; if it is set to 'off', nothing is recorded.  Any other value (or if it is not specified) means the advisor only recommends the missing indexes in the audit log.", DataType.STRING.getDisplayName(), "recommend"),
+    PARTITION_HISTORY_TABLES ("partitionHistoryTables", "Optional value that, when it is set to 'true' for a new repository, creates the history tables partitioned by month on the version end time.  The versions that are no longer the latest version move into the time partitions and history and asOfTime queries only read the partitions they need.  It needs PostgreSQL 15 or later and has no effect on a schema that was created without partitions.", DataType.BOOLEAN.getDisplayName(), "true"),
+    HISTORY_RETENTION_MONTHS ("historyRetentionMonths", "Optional number of months of history to keep attached to the partitioned history tables.  Older partitions are detached from the history tables and left in the schema for archiving.  The default of 0 means the partitions are never detached.", DataType.INT.getDisplayName(), "24"),
+    GUID_STRATEGY ("guidStrategy", "Optional value that controls how the GUIDs of new entities and relationships are created.  If it is set to 'time-ordered', the GUIDs are time-ordered (version 7) UUIDs, so new rows are added at the end of the primary key indexes rather than at random places in them.  Any other value (or if it is not specified) results in random (version 4) UUIDs.", DataType.STRING.getDisplayName(), "time-ordered"),
     ;
 
     public final String           name;
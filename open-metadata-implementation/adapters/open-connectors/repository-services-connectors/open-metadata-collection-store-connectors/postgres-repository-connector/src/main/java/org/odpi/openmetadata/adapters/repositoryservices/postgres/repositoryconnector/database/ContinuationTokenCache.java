@@ -0,0 +1,143 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ContinuationTokenCache remembers the continuation token returned with each page of results so that a caller that
+ * pages through the results using the starting element (such as the MetadataCollectionIterator) has the next page
+ * located from the last row of the previous page rather than by skipping over all the rows before it.
+ * The tokens are keyed by the query and the element number of the first result on the next page.  The least
+ * recently used tokens are removed once the cache is full.
+ * <br><br>
+ * A token only locates the same page as the offset while the stored instances are unchanged.  The cache is
+ * therefore cleared each time the repository is updated, and a token that was created by a query that started
+ * before the update is not saved.  Tokens also expire after a short time, in case the database is updated
+ * by another server.  Each token is removed when it is used, so it locates the next page for one walk through
+ * the results.
+ */
+public class ContinuationTokenCache
+{
+    private final Map<String, CachedToken> continuationTokens;
+    private final long                     maxTokenAgeMillis;
+
+    /*
+     * Incremented each time the cache is cleared.  Protected by this object.
+     */
+    private long generation = 0L;
+
+
+    /**
+     * A token with the time it was saved.
+     *
+     * @param continuationToken token
+     * @param saveTime time the token was saved
+     */
+    private record CachedToken(String continuationToken,
+                               long   saveTime)
+    {
+    }
+
+
+    /**
+     * Constructor
+     *
+     * @param maxTokens maximum number of tokens to keep
+     * @param maxTokenAgeMillis time a token is kept before it expires
+     */
+    public ContinuationTokenCache(int  maxTokens,
+                                  long maxTokenAgeMillis)
+    {
+        this.maxTokenAgeMillis  = maxTokenAgeMillis;
+        this.continuationTokens = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedToken> eldest)
+            {
+                return size() > maxTokens;
+            }
+        };
+    }
+
+
+    /**
+     * Return the current generation of the cache.  This is called before a query runs and passed back with the
+     * token it creates, so that a token based on instances that have since changed is not saved.
+     *
+     * @return generation number
+     */
+    public synchronized long getGeneration()
+    {
+        return generation;
+    }
+
+
+    /**
+     * Remove and return the continuation token for the page of a query that starts at the requested element.
+     *
+     * @param querySignature hash of the query
+     * @param fromElement starting element
+     * @return token or null if there is no token or it has expired
+     */
+    public synchronized String take(String querySignature,
+                                    int    fromElement)
+    {
+        CachedToken cachedToken = continuationTokens.remove(this.getKey(querySignature, fromElement));
+
+        if ((cachedToken == null) || (System.currentTimeMillis() - cachedToken.saveTime() > maxTokenAgeMillis))
+        {
+            return null;
+        }
+
+        return cachedToken.continuationToken();
+    }
+
+
+    /**
+     * Save the continuation token for the page of a query that starts at the requested element.  The token is
+     * not saved if the cache has been cleared since the query started.
+     *
+     * @param querySignature hash of the query
+     * @param nextElement starting element of the next page
+     * @param continuationToken token
+     * @param queryGeneration generation of the cache when the query started
+     */
+    public synchronized void put(String querySignature,
+                                 int    nextElement,
+                                 String continuationToken,
+                                 long   queryGeneration)
+    {
+        if (queryGeneration == generation)
+        {
+            continuationTokens.put(this.getKey(querySignature, nextElement),
+                                   new CachedToken(continuationToken, System.currentTimeMillis()));
+        }
+    }
+
+
+    /**
+     * Remove all the tokens because the stored instances have changed.
+     */
+    public synchronized void invalidate()
+    {
+        generation++;
+        continuationTokens.clear();
+    }
+
+
+    /**
+     * Return the key for a token.
+     *
+     * @param querySignature hash of the query
+     * @param element starting element of the page
+     * @return key
+     */
+    private String getKey(String querySignature,
+                          int    element)
+    {
+        return querySignature + ":" + element;
+    }
+}
@@ -5,6 +5,8 @@ package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositorycon
 
 
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCRowCursor;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLColumn;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.mappers.BaseMapper;
 import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
@@ -12,24 +14,40 @@ import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconn
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
 import java.util.*;
 
 /**
  * Manages the connection between the repository connector and the database.
- * Note, a single JDBC Connection can only be used from a single thread.
+ * Note, a single JDBC Connection can only be used from a single thread.  The connection is taken from the
+ * connection pool of the JDBC resource connector when the store is created and returned when it is closed.
  */
-public class DatabaseStore
+public class DatabaseStore implements AutoCloseable
 {
+    /*
+     * The number of rows fetched from the database at a time for queries whose rows are processed as they are read.
+     */
+    private static final int queryFetchSize = 500;
+
     private final JDBCResourceConnector jdbcResourceConnector;
     private final java.sql.Connection   jdbcConnection;
     private final String                repositoryName;
     private final OMRSRepositoryHelper  repositoryHelper;
 
-    private final BaseMapper baseMapper;
+    private final BaseMapper             baseMapper;
+    private final EntityAggregateDecoder entityAggregateDecoder;
+
+    private boolean aggregateEntityQueries = true;
+    private boolean partitionedHistory     = false;
 
     /**
      * Create access to the entity store.
@@ -48,7 +66,8 @@ public class DatabaseStore
         this.repositoryName        = repositoryName;
         this.repositoryHelper      = repositoryHelper;
 
-        this.baseMapper = new BaseMapper(repositoryName);
+        this.baseMapper             = new BaseMapper(repositoryName);
+        this.entityAggregateDecoder = new EntityAggregateDecoder(repositoryHelper, repositoryName);
 
         try
         {
@@ -67,6 +86,33 @@ public class DatabaseStore
     }
 
 
+    /**
+     * Set whether queries that return a list of entities retrieve the properties and classifications of the
+     * entities in the same request as the entities (the default), or with separate queries on the attribute
+     * and classification tables.
+     *
+     * @param aggregateEntityQueries true to use a single aggregate query
+     */
+    public void setAggregateEntityQueries(boolean aggregateEntityQueries)
+    {
+        this.aggregateEntityQueries = aggregateEntityQueries;
+    }
+
+
+    /**
+     * Set whether the history tables are partitioned on the version end time.  If they are, the version end
+     * time is also set in the attribute rows of a version when it is closed out, so the attribute rows move into
+     * the same time partition as the version, and the queries for the attribute rows are limited to the
+     * partitions that can hold them.
+     *
+     * @param partitionedHistory true if the history tables are partitioned
+     */
+    public void setPartitionedHistory(boolean partitionedHistory)
+    {
+        this.partitionedHistory = partitionedHistory;
+    }
+
+
     /**
      * Extract the repository control table from the database schema.  This is used to validate that the
      * server is using the correct repository.
@@ -177,11 +223,14 @@ public class DatabaseStore
 
         try
         {
+            List<JDBCDataValue> parameters = this.getParameters(entityGUID, classificationName);
+
             Map<String, JDBCDataValue> classificationRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
-                                                                                                RepositoryTable.CLASSIFICATION.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID +
-                                                                                                        "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "'" +
-                                                                                                        getAsOfTimeClause(null),
+                                                                                                RepositoryTable.CLASSIFICATION.getQueryTableName(null),
+                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                                                                                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?" +
+                                                                                                        getAsOfTimeClause(null, parameters),
+                                                                                                parameters,
                                                                                                 RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             if (classificationRow != null)
@@ -190,14 +239,15 @@ public class DatabaseStore
 
                 long version = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID +
-                        "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName +
-                        "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ? and " +
+                        RepositoryColumn.VERSION.getColumnName() + " = ?";
 
 
                 List<Map<String, JDBCDataValue>> classificationProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                   whereClause,
+                                                                                                                  this.getParameters(entityGUID, classificationName, version),
                                                                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
                 return new ClassificationMapper(classificationRow, classificationProperties, repositoryHelper, repositoryName);
             }
@@ -236,11 +286,13 @@ public class DatabaseStore
 
         try
         {
-            String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = '" + localMetadataCollectionId + "' " + this.getAsOfTimeClause(asOfTime) + ";";
+            List<JDBCDataValue> parameters  = this.getParameters(guid, localMetadataCollectionId);
+            String              whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.METADATA_COLLECTION_GUID.getColumnName() + " = ? " + this.getAsOfTimeClause(asOfTime, parameters);
 
             List<Map<String, JDBCDataValue>> classifications = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                     RepositoryTable.CLASSIFICATION.getTableName(),
+                                                                                                     RepositoryTable.CLASSIFICATION.getQueryTableName(asOfTime),
                                                                                                      whereClause,
+                                                                                                     parameters,
                                                                                                      RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             List<ClassificationMapper> classificationMappers = null;
@@ -256,11 +308,12 @@ public class DatabaseStore
                         String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), classificationRow, true);
                         long   version            = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                        String classificationWhereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version + " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "';";
+                        String classificationWhereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ? and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?";
 
                         List<Map<String, JDBCDataValue>> classificationProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                           classificationWhereClause,
+                                                                                                                          this.getParameters(guid, version, classificationName),
                                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
                         ClassificationMapper classificationMapper = new ClassificationMapper(classificationRow,
@@ -304,9 +357,12 @@ public class DatabaseStore
 
         try
         {
+            List<JDBCDataValue> parameters = this.getParameters(guid);
+
             Map<String, JDBCDataValue> entityRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
-                                                                                        RepositoryTable.ENTITY.getTableName(),
-                                                                                        RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime),
+                                                                                        RepositoryTable.ENTITY.getQueryTableName(asOfTime),
+                                                                                        RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, parameters),
+                                                                                        parameters,
                                                                                         RepositoryTable.ENTITY.getColumnNameTypeMap());
 
             return this.getCompleteEntityFromStore(guid, entityRow, asOfTime);
@@ -340,9 +396,12 @@ public class DatabaseStore
 
         try
         {
+            List<JDBCDataValue> parameters = this.getParameters(guid);
+
             Map<String, JDBCDataValue> relationshipRow = jdbcResourceConnector.getMatchingRow(jdbcConnection,
-                                                                                              RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                              RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime),
+                                                                                              RepositoryTable.RELATIONSHIP.getQueryTableName(asOfTime),
+                                                                                              RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, parameters),
+                                                                                              parameters,
                                                                                               RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             return this.getCompleteRelationshipFromStore(guid, relationshipRow, asOfTime);
@@ -375,37 +434,62 @@ public class DatabaseStore
     {
         final String methodName = "retrieveEntitiesByProperties";
 
-        String sqlEntityQuery = "select distinct * from " + RepositoryTable.ENTITY.getTableName() + " where " + entityQueryBuilder.getAsOfTimeWhereClause();
+        List<JDBCDataValue> parameters     = new ArrayList<>();
+        String              sqlEntityQuery = "select distinct * from " + entityQueryBuilder.getPrincipleQueryTableName() + " where " + entityQueryBuilder.getAsOfTimeWhereClause(parameters);
 
         try
         {
-            List<Map<String, JDBCDataValue>> entityRows;
-
             if (classificationQueryBuilder == null)
             {
-                entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                   sqlEntityQuery + entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
-                                                                   RepositoryTable.ENTITY.getColumnNameTypeMap());
+                sqlEntityQuery = sqlEntityQuery + entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters);
             }
             else
             {
+                /*
+                 * The placeholders are filled in the order they appear in the query so the classification
+                 * sub-query is built before the paging clause.
+                 */
                 String sqlClassificationQuery =
                         "select " + RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()) +
-                                " from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause();
-
-                entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                   sqlEntityQuery + " and " +
-                                                                           RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.ENTITY.getTableName()) +
-                                                                           " in (" + sqlClassificationQuery + ")" +
-                                                                           entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
-                                                                   RepositoryTable.ENTITY.getColumnNameTypeMap());
+                                " from " + classificationQueryBuilder.getPrincipleQueryTableName() +
+                                " where " + classificationQueryBuilder.getAsOfTimeWhereClause(parameters);
+
+                sqlEntityQuery = sqlEntityQuery + " and " +
+                        RepositoryColumn.INSTANCE_GUID.getColumnName(RepositoryTable.ENTITY.getTableName()) +
+                        " in (" + sqlClassificationQuery + ")" +
+                        entityQueryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters);
             }
 
-            if (entityRows != null)
+            Map<String, EntityMapper> entityMappers;
+
+            if (aggregateEntityQueries)
+            {
+                entityMappers = this.getEntityAggregatesFromStore(sqlEntityQuery, entityQueryBuilder, parameters, asOfTime);
+
+                if (entityMappers != null)
+                {
+                    List<EntityMapper> entityList = new ArrayList<>(entityMappers.values());
+
+                    entityQueryBuilder.setPageResults(entityList.get(entityList.size() - 1).getEntityTableRow(), entityList.size());
+
+                    return entityList;
+                }
+            }
+            else
             {
-                Map<String, EntityMapper> entityMappers = this.getCompleteEntitiesFromStore(entityRows, asOfTime);
-                return new ArrayList<>(entityMappers.values());
+                List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                    sqlEntityQuery,
+                                                                                                    parameters,
+                                                                                                    RepositoryTable.ENTITY.getColumnNameTypeMap());
+
+                entityMappers = this.getCompleteEntitiesFromStore(entityRows, asOfTime);
+
+                if (entityMappers != null)
+                {
+                    entityQueryBuilder.setPageResults(entityRows.get(entityRows.size() - 1), entityMappers.size());
+
+                    return new ArrayList<>(entityMappers.values());
+                }
             }
         }
         catch (PropertyServerException sqlException)
@@ -436,15 +520,19 @@ public class DatabaseStore
     {
         final String methodName = "retrieveRelationships";
 
-        String sqQuery = "select distinct * from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " + queryBuilder.getAsOfTimeWhereClause();
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              sqQuery    = "select distinct * from " + queryBuilder.getPrincipleQueryTableName() + " where " + queryBuilder.getAsOfTimeWhereClause(parameters);
         try
         {
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                      sqQuery + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName()),
+                                                                                                      sqQuery + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName(), parameters),
+                                                                                                      parameters,
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
             {
+                queryBuilder.setPageResults(relationshipRows.get(relationshipRows.size() - 1), relationshipRows.size());
+
                 return this.getCompleteRelationshipsFromStore(relationshipRows, asOfTime);
             }
         }
@@ -476,16 +564,22 @@ public class DatabaseStore
     {
         final String methodName = "retrieveRelationshipsByProperties";
 
-        String sqlQuery = "select distinct * from " + RepositoryTable.RELATIONSHIP.getTableName() + " where " + queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName());
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              sqlQuery   = "select distinct * from " + queryBuilder.getPrincipleQueryTableName() + " where " + queryBuilder.getAsOfTimeWhereClause(parameters);
+
+        sqlQuery = sqlQuery + queryBuilder.getSequenceAndPaging(RepositoryTable.RELATIONSHIP.getTableName(), parameters);
 
         try
         {
             List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                       sqlQuery,
+                                                                                                      parameters,
                                                                                                       RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
 
             if (relationshipRows != null)
             {
+                queryBuilder.setPageResults(relationshipRows.get(relationshipRows.size() - 1), relationshipRows.size());
+
                 return this.getCompleteRelationshipsFromStore(relationshipRows, asOfTime);
             }
         }
@@ -527,13 +621,14 @@ public class DatabaseStore
 
                 if (versionObject != null)
                 {
-                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " +
-                            RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "' and " +
-                            RepositoryColumn.VERSION.getColumnName() + " = " + versionObject;
+                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                            RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ? and " +
+                            RepositoryColumn.VERSION.getColumnName() + " = ?";
 
                     List<Map<String, JDBCDataValue>> matchingRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
                                                                                                           whereClause,
+                                                                                                          this.getParameters(guid, classificationName, versionObject),
                                                                                                           RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
 
@@ -583,14 +678,18 @@ public class DatabaseStore
 
                 if (versionObject != null)
                 {
-                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + versionObject;
+                    String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?";
 
                     List<Map<String, JDBCDataValue>> entityProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                               RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
                                                                                                               whereClause,
+                                                                                                              this.getParameters(guid, versionObject),
                                                                                                               RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
-                    Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" + getAsOfTimeClause(asOfTime));
+                    List<JDBCDataValue> classificationParameters = this.getParameters(guid);
+                    String              classificationClause     = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" + getAsOfTimeClause(asOfTime, classificationParameters);
+
+                    Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(classificationClause, classificationParameters, asOfTime);
 
                     return new EntityMapper(entityRow,
                                             entityProperties,
@@ -639,11 +738,12 @@ public class DatabaseStore
                 String end1GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_1_GUID.getColumnName(), relationshipRow, true);
                 String end2GUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.END_2_GUID.getColumnName(), relationshipRow, true);
 
-                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+                String whereClause = RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.VERSION.getColumnName() + " = ?";
 
                 List<Map<String, JDBCDataValue>> relationshipProperties = jdbcResourceConnector.getMatchingRows(jdbcConnection,
                                                                                                                 RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName(),
                                                                                                                 whereClause,
+                                                                                                                this.getParameters(guid, version),
                                                                                                                 RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getColumnNameTypeMap());
 
                 EntityMapper end1Mapper = this.getEntityFromStore(end1GUID, asOfTime);
@@ -694,12 +794,35 @@ public class DatabaseStore
                 queryBuilder.setGUIDList(entityGUIDs);
                 queryBuilder.setAsOfTime(asOfTime);
 
-                List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                    RepositoryTable.ENTITY.getTableName(),
-                                                                                                    queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName()),
-                                                                                                    RepositoryTable.ENTITY.getColumnNameTypeMap());
+                List<JDBCDataValue> parameters  = new ArrayList<>();
+                String              whereClause = queryBuilder.getAsOfTimeWhereClause(parameters);
+
+                whereClause = whereClause + queryBuilder.getSequenceAndPaging(RepositoryTable.ENTITY.getTableName(), parameters);
+
+                Map<String, EntityMapper> entityMappers;
+
+                if (aggregateEntityQueries)
+                {
+                    entityMappers = this.getEntityAggregatesFromStore("select * from " + queryBuilder.getPrincipleQueryTableName() + " where " + whereClause,
+                                                                      queryBuilder,
+                                                                      parameters,
+                                                                      asOfTime);
+                }
+                else
+                {
+                    List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                        queryBuilder.getPrincipleQueryTableName(),
+                                                                                                        whereClause,
+                                                                                                        parameters,
+                                                                                                        RepositoryTable.ENTITY.getColumnNameTypeMap());
+
+                    entityMappers = this.getCompleteEntitiesFromStore(entityRows, asOfTime);
+                }
 
-                return this.getCompleteEntitiesFromStore(entityRows, asOfTime);
+                if (entityMappers != null)
+                {
+                    return entityMappers;
+                }
             }
             catch (PropertyServerException sqlException)
             {
@@ -717,6 +840,150 @@ public class DatabaseStore
     }
 
 
+    /**
+     * Retrieve the entities returned by a query together with their properties and classifications in a single
+     * request to the database.  The entity query is wrapped in an outer query that adds the matching attribute
+     * rows and classifications to each entity row as JSON aggregates.  The rows are returned in the order of the
+     * entity query.  Null is returned if there were no instances returned from the query.
+     *
+     * @param entityQuery query that returns rows from the entity table
+     * @param entityQueryBuilder query builder that set the ordering of the entity query
+     * @param entityParameters values for the placeholders in the entity query
+     * @param asOfTime time for the database query
+     * @return map of guids to entity mappers in the order returned by the entity query
+     * @throws PropertyServerException problem communicating with the database
+     * @throws RepositoryErrorException problem mapping the values returned
+     */
+    private Map<String, EntityMapper> getEntityAggregatesFromStore(String              entityQuery,
+                                                                   QueryBuilder        entityQueryBuilder,
+                                                                   List<JDBCDataValue> entityParameters,
+                                                                   Date                asOfTime) throws PropertyServerException,
+                                                                                                            RepositoryErrorException
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        String              sqlQuery   = this.getEntityAggregateQuery(entityQuery, entityQueryBuilder, entityParameters, asOfTime, parameters);
+
+        Map<String, EntityMapper> entityMappers = new LinkedHashMap<>();
+
+        /*
+         * Each row is decoded as it is read so that only one row of JSON aggregates is held at a time.
+         */
+        try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection, sqlQuery, parameters, queryFetchSize))
+        {
+            while (rowCursor.next())
+            {
+                String instanceGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), rowCursor, true);
+
+                /*
+                 * As with the separate queries, the first row returned for each instance GUID is used.
+                 */
+                if (! entityMappers.containsKey(instanceGUID))
+                {
+                    entityMappers.put(instanceGUID, entityAggregateDecoder.getEntityMapper(rowCursor.getRow(entityAggregateDecoder.getColumnNameTypeMap())));
+                }
+            }
+        }
+
+        if (! entityMappers.isEmpty())
+        {
+            return entityMappers;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Build the entity aggregate query.  The attribute rows are matched on the version of the entity.
+     * The classifications are matched by asOfTime because their versions are independent of the entity versions.
+     * The placeholders for the classification clause come before those of the entity query because the
+     * aggregates are in the select list.
+     *
+     * @param entityQuery query that returns rows from the entity table
+     * @param entityQueryBuilder query builder that set the ordering of the entity query
+     * @param entityParameters values for the placeholders in the entity query
+     * @param asOfTime time for the database query
+     * @param parameters list of parameters for the query that the values for the whole query are added to
+     * @return SQL query
+     * @throws RepositoryErrorException problem building the classification clause
+     */
+    private String getEntityAggregateQuery(String              entityQuery,
+                                           QueryBuilder        entityQueryBuilder,
+                                           List<JDBCDataValue> entityParameters,
+                                           Date                asOfTime,
+                                           List<JDBCDataValue> parameters) throws RepositoryErrorException
+    {
+        final String entityAlias                  = "e";
+        final String entityAttributeAlias         = "a";
+        final String classificationAlias          = "c";
+        final String classificationAttributeAlias = "ca";
+
+        QueryBuilder classificationQueryBuilder = new QueryBuilder(RepositoryTable.CLASSIFICATION.getTableName(),
+                                                                   RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
+                                                                   repositoryHelper,
+                                                                   repositoryName);
+
+        classificationQueryBuilder.setAsOfTime(asOfTime);
+
+        String classificationAsOfTimeClause = classificationQueryBuilder.getAsOfTimeWhereClause(parameters);
+
+        parameters.addAll(entityParameters);
+
+        String sqlEntityQuery = entityQuery.trim();
+
+        if (sqlEntityQuery.endsWith(";"))
+        {
+            sqlEntityQuery = sqlEntityQuery.substring(0, sqlEntityQuery.length() - 1);
+        }
+
+        /*
+         * PostgreSQL does not promise to keep the order of a sub-query in the query that wraps it, so the ordering
+         * of the entity query, including the instance GUID that breaks ties, is repeated on the outer query.
+         */
+        return "select " + entityAlias + ".*, " +
+                "(select json_agg(" + entityAttributeAlias + ") from " + RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName() + " " + entityAttributeAlias +
+                " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(entityAttributeAlias) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(entityAlias) +
+                " and " + RepositoryColumn.VERSION.getColumnName(entityAttributeAlias) + " = " + RepositoryColumn.VERSION.getColumnName(entityAlias) +
+                this.getAttributeVersionEndTimeClause(entityAttributeAlias, entityAlias) +
+                ") as " + EntityAggregateDecoder.ATTRIBUTE_ROWS_COLUMN + ", " +
+                "(select json_agg(json_build_object('" + EntityAggregateDecoder.CLASSIFICATION_FIELD + "', " + classificationAlias +
+                ", '" + EntityAggregateDecoder.ATTRIBUTES_FIELD + "', " +
+                "(select json_agg(" + classificationAttributeAlias + ") from " + RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName() + " " + classificationAttributeAlias +
+                " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(classificationAttributeAlias) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(classificationAlias) +
+                " and " + RepositoryColumn.VERSION.getColumnName(classificationAttributeAlias) + " = " + RepositoryColumn.VERSION.getColumnName(classificationAlias) +
+                " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName(classificationAttributeAlias) + " = " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName(classificationAlias) +
+                this.getAttributeVersionEndTimeClause(classificationAttributeAlias, classificationAlias) +
+                "))) from " + RepositoryTable.CLASSIFICATION.getQueryTable(asOfTime).getTableName() + " " + classificationAlias +
+                " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(classificationAlias) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(entityAlias) +
+                " and " + classificationAsOfTimeClause +
+                ") as " + EntityAggregateDecoder.CLASSIFICATION_ROWS_COLUMN +
+                " from (" + sqlEntityQuery + ") " + entityAlias +
+                entityQueryBuilder.getSequencingOrder(entityAlias).stripTrailing() + ";";
+    }
+
+
+    /**
+     * Return the condition that limits the lookup of the attribute rows of a version to the partition that holds
+     * them.  The attribute rows have the same version end time as their version, or none if they have not been
+     * closed out.  There is no condition if the history tables are not partitioned.
+     *
+     * @param attributeAlias alias of the attribute table
+     * @param instanceAlias alias of the instance table
+     * @return SQL fragment
+     */
+    private String getAttributeVersionEndTimeClause(String attributeAlias,
+                                                    String instanceAlias)
+    {
+        if (partitionedHistory)
+        {
+            return " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName(attributeAlias) + " is null or " +
+                    RepositoryColumn.VERSION_END_TIME.getColumnName(attributeAlias) + " = " + RepositoryColumn.VERSION_END_TIME.getColumnName(instanceAlias) + ")";
+        }
+
+        return "";
+    }
+
+
     /**
      * Retrieve the related information for a list of entities that were identified in a query.
      * Null is returned if there were no instances returned from the query.
@@ -750,7 +1017,12 @@ public class DatabaseStore
             queryBuilder.setGUIDList(new ArrayList<>(databaseResultRowsMap.keySet()));
             queryBuilder.setAsOfTime(asOfTime);
 
-            Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(queryBuilder.getAsOfTimeWhereClause() + queryBuilder.getSequenceAndPaging(RepositoryTable.CLASSIFICATION.getTableName()));
+            List<JDBCDataValue> parameters  = new ArrayList<>();
+            String              whereClause = queryBuilder.getAsOfTimeWhereClause(parameters);
+
+            whereClause = whereClause + queryBuilder.getSequenceAndPaging(RepositoryTable.CLASSIFICATION.getTableName(), parameters);
+
+            Map<String, List<ClassificationMapper>> classificationMappersForEntityGUIDs = getClassificationMappersForEntityGUIDs(whereClause, parameters, asOfTime);
 
             /*
              * All of the information is assembled to build the entity mappers.
@@ -862,16 +1134,15 @@ public class DatabaseStore
 
         try
         {
-            Map<String, DatabaseResultRows> databaseResultRowsMap = new HashMap<>();
+            Map<String, DatabaseResultRows> databaseResultRowsMap = new LinkedHashMap<>();
 
             QueryBuilder queryBuilder = new QueryBuilder(principleTable.getTableName(),
                                                          attributesTable.getTableName(),
                                                          repositoryHelper,
                                                          repositoryName);
             List<String> instanceGUIDs  = new ArrayList<>();
-
-            StringBuilder instanceWhereClause = new StringBuilder();
-            boolean       firstInstance       = true;
+            List<Long>   versions       = new ArrayList<>();
+            Date         earliestEnd    = null;
 
             /*
              * Step through the results and use the first row returned for each instance GUID.
@@ -892,19 +1163,15 @@ public class DatabaseStore
                     /*
                      * The retrieve of the properties is by version for speed.
                      */
-                    long version = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), instanceRow, true);
+                    versions.add(baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), instanceRow, true));
 
-                    if (firstInstance)
-                    {
-                        firstInstance = false;
-                    }
-                    else
+                    Date versionEndTime = baseMapper.getDatePropertyFromColumn(RepositoryColumn.VERSION_END_TIME.getColumnName(), instanceRow, false);
+
+                    if ((versionEndTime != null) && ((earliestEnd == null) || (versionEndTime.before(earliestEnd))))
                     {
-                        instanceWhereClause.append(" or ");
+                        earliestEnd = versionEndTime;
                     }
 
-                    instanceWhereClause.append(queryBuilder.getPrimaryKeysClause(instanceGUID, version, null));
-
                     DatabaseResultRows databaseResultRows = new DatabaseResultRows();
                     databaseResultRows.principleTableRow = instanceRow;
 
@@ -915,16 +1182,35 @@ public class DatabaseStore
             /*
              * Retrieve the attribute rows and organize them by instance GUID.
              */
-            List<Map<String, JDBCDataValue>> attributeRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                   attributesTable.getTableName(),
-                                                                                                   instanceWhereClause.toString(),
-                                                                                                   attributesTable.getColumnNameTypeMap());
+            List<JDBCDataValue> parameters          = new ArrayList<>();
+            String              instanceWhereClause = queryBuilder.getPrimaryKeysClause(instanceGUIDs, versions, null, parameters);
 
-            if (attributeRows != null)
+            if (partitionedHistory)
             {
-                for (Map<String, JDBCDataValue> attributeRow : attributeRows)
+                /*
+                 * The attribute rows have the same version end time as their version (or none if they have not
+                 * been closed out) so the query only needs to read the partitions from the earliest end time.
+                 */
+                if (earliestEnd == null)
+                {
+                    instanceWhereClause = "(" + instanceWhereClause + ") and " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null";
+                }
+                else
                 {
-                    String instanceGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), attributeRow, true);
+                    instanceWhereClause = "(" + instanceWhereClause + ") and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " +
+                            RepositoryColumn.VERSION_END_TIME.getColumnName() + " >= ?)";
+                    this.addParameter(parameters, earliestEnd);
+                }
+            }
+
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "SELECT * FROM " + attributesTable.getTableName() + " WHERE " + instanceWhereClause,
+                                                                              parameters,
+                                                                              queryFetchSize))
+            {
+                while (rowCursor.next())
+                {
+                    String instanceGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), rowCursor, true);
 
                     DatabaseResultRows databaseResultRows = databaseResultRowsMap.get(instanceGUID);
 
@@ -933,7 +1219,7 @@ public class DatabaseStore
                         databaseResultRows.propertyTableRows = new ArrayList<>();
                     }
 
-                    databaseResultRows.propertyTableRows.add(attributeRow);
+                    databaseResultRows.propertyTableRows.add(rowCursor.getRow(attributesTable.getColumnNameTypeMap()));
                 }
             }
 
@@ -956,10 +1242,14 @@ public class DatabaseStore
      * Return the list of classifications for each of the requested entityGUIDs.
      *
      * @param whereClause the lists the required guids and the asOfTime.
+     * @param parameters values for the placeholders in the where clause
+     * @param asOfTime time for the database query
      * @return map of guids to lists of associated classification mappers (maybe empty but not null)
      * @throws RepositoryErrorException unexpected problem retrieving related information from the database.
      */
-    private Map<String, List<ClassificationMapper>> getClassificationMappersForEntityGUIDs(String whereClause) throws RepositoryErrorException
+    private Map<String, List<ClassificationMapper>> getClassificationMappersForEntityGUIDs(String              whereClause,
+                                                                                           List<JDBCDataValue> parameters,
+                                                                                           Date                asOfTime) throws RepositoryErrorException
     {
         final String methodName = "getClassificationMappersForEntityGUIDs";
 
@@ -971,8 +1261,9 @@ public class DatabaseStore
              * Retrieve the rows of classifications for the requested entities at the requested time.
              */
             List<Map<String, JDBCDataValue>> classifications = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                     RepositoryTable.CLASSIFICATION.getTableName(),
+                                                                                                     RepositoryTable.CLASSIFICATION.getQueryTableName(asOfTime),
                                                                                                      whereClause,
+                                                                                                     parameters,
                                                                                                      RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
 
             if (classifications != null)
@@ -989,9 +1280,9 @@ public class DatabaseStore
                                                                                        repositoryHelper,
                                                                                        repositoryName);
 
-                StringBuilder classificationWhereClause = new StringBuilder();
-
-                boolean       firstClassification       = true;
+                List<String> instanceGUIDs       = new ArrayList<>();
+                List<Long>   versions            = new ArrayList<>();
+                List<String> classificationNames = new ArrayList<>();
 
                 for (Map<String, JDBCDataValue> classificationRow : classifications)
                 {
@@ -999,16 +1290,9 @@ public class DatabaseStore
                     String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), classificationRow, true);
                     long   version            = baseMapper.getLongPropertyFromColumn(RepositoryColumn.VERSION.getColumnName(), classificationRow, true);
 
-                    if (firstClassification)
-                    {
-                        firstClassification = false;
-                    }
-                    else
-                    {
-                        classificationWhereClause.append(" or ");
-                    }
-
-                    classificationWhereClause.append(queryBuilder.getPrimaryKeysClause(instanceGUID, version, classificationName));
+                    instanceGUIDs.add(instanceGUID);
+                    versions.add(version);
+                    classificationNames.add(classificationName);
 
                     DatabaseResultRows databaseResultRows = mapperResultRowsMap.get(instanceGUID);
 
@@ -1044,17 +1328,19 @@ public class DatabaseStore
                  * Now we know which versions of each classification we need for each entity, we can retrieve all of the attributes for all of these entities.
                  * The returned rows are then organizes with their classification into mapperResultRowsMap.
                  */
-                List<Map<String, JDBCDataValue>> classificationAttributes = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                                  RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
-                                                                                                                  classificationWhereClause.toString(),
-                                                                                                                  RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap());
-
-                if (classificationAttributes != null)
+                List<JDBCDataValue> attributeParameters       = new ArrayList<>();
+                String              classificationWhereClause = queryBuilder.getPrimaryKeysClause(instanceGUIDs, versions, classificationNames, attributeParameters);
+
+                try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                                  "SELECT * FROM " + RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName() +
+                                                                                          " WHERE " + classificationWhereClause,
+                                                                                  attributeParameters,
+                                                                                  queryFetchSize))
                 {
-                    for (Map<String, JDBCDataValue> classificationAttributeRow : classificationAttributes)
+                    while (rowCursor.next())
                     {
-                        String instanceGUID       = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), classificationAttributeRow, true);
-                        String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), classificationAttributeRow, true);
+                        String instanceGUID       = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), rowCursor, true);
+                        String classificationName = baseMapper.getStringPropertyFromColumn(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), rowCursor, true);
 
                         DatabaseResultRows databaseResultRows = mapperResultRowsMap.get(instanceGUID);
 
@@ -1065,7 +1351,7 @@ public class DatabaseStore
                             classificationAttributesMapperResults.propertyTableRows = new ArrayList<>();
                         }
 
-                        classificationAttributesMapperResults.propertyTableRows.add(classificationAttributeRow);
+                        classificationAttributesMapperResults.propertyTableRows.add(rowCursor.getRow(RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap()));
                     }
                 }
 
@@ -1155,16 +1441,19 @@ public class DatabaseStore
 
         try
         {
-            List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                RepositoryTable.ENTITY.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" +
-                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst),
-                                                                                                RepositoryTable.ENTITY.getColumnNameTypeMap());
+            List<JDBCDataValue> parameters = this.getParameters(guid);
 
-            if (entityRows != null)
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "SELECT * FROM " + RepositoryTable.ENTITY.getTableName() +
+                                                                                      " WHERE " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                                                      getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                              parameters,
+                                                                              queryFetchSize))
             {
-                for (Map<String, JDBCDataValue> entityRow : entityRows)
+                while (rowCursor.next())
                 {
+                    Map<String, JDBCDataValue> entityRow = rowCursor.getRow(RepositoryTable.ENTITY.getColumnNameTypeMap());
+
                     Date versionEndTime = baseMapper.getDatePropertyFromColumn(RepositoryColumn.VERSION_END_TIME.getColumnName(), entityRow, false);
 
                     entityMappers.add(this.getCompleteEntityFromStore(guid, entityRow, versionEndTime));
@@ -1214,18 +1503,21 @@ public class DatabaseStore
 
         try
         {
-            List<Map<String, JDBCDataValue>> matchingRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                RepositoryTable.CLASSIFICATION.getTableName(),
-                                                                                                RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "' and " +
-                                                                                                        RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "'" +
-                                                                                                        getDateRangeClause(fromTime, toTime, oldestFirst),
-                                                                                                RepositoryTable.CLASSIFICATION.getColumnNameTypeMap());
+            List<JDBCDataValue> parameters = this.getParameters(guid, classificationName);
 
-            if (matchingRows != null)
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "SELECT * FROM " + RepositoryTable.CLASSIFICATION.getTableName() +
+                                                                                      " WHERE " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " +
+                                                                                      RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?" +
+                                                                                      getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                              parameters,
+                                                                              queryFetchSize))
             {
-                for (Map<String, JDBCDataValue> classificationRow : matchingRows)
+                while (rowCursor.next())
                 {
-                    classificationMappers.add(this.getCompleteClassificationFromStore(guid, classificationName, classificationRow));
+                    classificationMappers.add(this.getCompleteClassificationFromStore(guid,
+                                                                                      classificationName,
+                                                                                      rowCursor.getRow(RepositoryTable.CLASSIFICATION.getColumnNameTypeMap())));
                 }
             }
         }
@@ -1270,16 +1562,19 @@ public class DatabaseStore
 
         try
         {
-            List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                      RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "'" +
-                                                                                                              getDateRangeClause(fromTime, toTime, oldestFirst),
-                                                                                                      RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
+            List<JDBCDataValue> parameters = this.getParameters(guid);
 
-            if (relationshipRows != null)
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "SELECT * FROM " + RepositoryTable.RELATIONSHIP.getTableName() +
+                                                                                      " WHERE " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                                                      getDateRangeClause(fromTime, toTime, oldestFirst, parameters),
+                                                                              parameters,
+                                                                              queryFetchSize))
             {
-                for (Map<String, JDBCDataValue> relationshipRow : relationshipRows)
+                while (rowCursor.next())
                 {
+                    Map<String, JDBCDataValue> relationshipRow = rowCursor.getRow(RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
+
                     Date asOfTime = baseMapper.getDatePropertyFromColumn(RepositoryColumn.VERSION_START_TIME.getColumnName(), relationshipRow, true);
                     relationshipMappers.add(this.getCompleteRelationshipFromStore(guid, relationshipRow, asOfTime));
                 }
@@ -1309,9 +1604,11 @@ public class DatabaseStore
      * Create the part of the where clause that ensures that the correct version is returned.
      *
      * @param asOfTime database time to issue the query for - null means the latest version
+     * @param parameters list of query parameters that the values for the clause are added to
      * @return fragment of SQL
      */
-    private String getAsOfTimeClause(Date asOfTime)
+    private String getAsOfTimeClause(Date                asOfTime,
+                                     List<JDBCDataValue> parameters)
     {
         if (asOfTime == null)
         {
@@ -1319,7 +1616,10 @@ public class DatabaseStore
         }
         else
         {
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " <= '" + asOfTime + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + asOfTime + "'))";
+            this.addParameter(parameters, asOfTime);
+            this.addParameter(parameters, asOfTime);
+
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " <= ? and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?))";
         }
     }
 
@@ -1330,11 +1630,13 @@ public class DatabaseStore
      * @param fromTime starting time
      * @param toTime ending time
      * @param oldestFirst ordering
+     * @param parameters list of query parameters that the values for the clause are added to
      * @return fragment of SQL
      */
-    private String getDateRangeClause(Date    fromTime,
-                                      Date    toTime,
-                                      boolean oldestFirst)
+    private String getDateRangeClause(Date                fromTime,
+                                      Date                toTime,
+                                      boolean             oldestFirst,
+                                      List<JDBCDataValue> parameters)
     {
         if ((fromTime == null) && (toTime == null))
         {
@@ -1342,15 +1644,65 @@ public class DatabaseStore
         }
         else if (fromTime == null)
         {
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + toTime + "')" + getOrderByDateClause(oldestFirst);
+            this.addParameter(parameters, toTime);
+
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < ?)" + getOrderByDateClause(oldestFirst);
         }
         else if (toTime == null)
         {
-            return " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + fromTime + "')" + getOrderByDateClause(oldestFirst);
+            this.addParameter(parameters, fromTime);
+
+            return " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?)" + getOrderByDateClause(oldestFirst);
         }
         else
         {
-            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + toTime + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + fromTime + "'))" + getOrderByDateClause(oldestFirst);
+            this.addParameter(parameters, toTime);
+            this.addParameter(parameters, fromTime);
+
+            return " and (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < ? and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > ?))" + getOrderByDateClause(oldestFirst);
+        }
+    }
+
+
+    /**
+     * Return the values for the placeholders of a SQL command in the order that they appear in the command.
+     *
+     * @param values string, number or date values
+     * @return list of parameters
+     */
+    private List<JDBCDataValue> getParameters(Object... values)
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+
+        for (Object value : values)
+        {
+            this.addParameter(parameters, value);
+        }
+
+        return parameters;
+    }
+
+
+    /**
+     * Add the value for the next placeholder of a SQL command.
+     *
+     * @param parameters list of parameters
+     * @param value string, number or date value
+     */
+    private void addParameter(List<JDBCDataValue> parameters,
+                              Object              value)
+    {
+        if (value instanceof Date date)
+        {
+            parameters.add(new JDBCDataValue(new Timestamp(date.getTime()), Types.TIMESTAMP));
+        }
+        else if (value instanceof Number number)
+        {
+            parameters.add(new JDBCDataValue(number.longValue(), Types.BIGINT));
+        }
+        else
+        {
+            parameters.add(new JDBCDataValue(value == null ? null : value.toString(), Types.VARCHAR));
         }
     }
 
@@ -1376,7 +1728,8 @@ public class DatabaseStore
 
     /**
      * Add an entity to the database.  Its header information (and effectivity dates) goes into the
-     * entity table. The properties go into the entity attribute values table.
+     * entity table. The properties go into the entity attribute values table.  The new version also
+     * replaces the previous version in the current version tables.
      *
      * @param entityMapper details about the entity
      * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
@@ -1387,13 +1740,14 @@ public class DatabaseStore
 
         try
         {
-            jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                     RepositoryTable.ENTITY.getTableName(),
-                                                     entityMapper.getEntityTableRow());
+            InstanceWriteBatch writeBatch = new InstanceWriteBatch();
+
+            writeBatch.addVersion(RepositoryTable.ENTITY,
+                                  RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                  entityMapper.getEntityTableRow(),
+                                  entityMapper.getEntityPropertiesTableRows());
 
-            jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                      RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
-                                                      entityMapper.getEntityPropertiesTableRows());
+            writeBatch.write(jdbcResourceConnector, jdbcConnection);
 
             /*
              * Classifications are updated independently of entities.  Therefore, we only update them if the version of
@@ -1478,13 +1832,14 @@ public class DatabaseStore
                 /*
                  * The entity proxy is only added if there is no known entity.
                  */
-                jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                         RepositoryTable.ENTITY.getTableName(),
-                                                         entityMapper.getEntityTableRow());
+                InstanceWriteBatch writeBatch = new InstanceWriteBatch();
 
-                jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                          RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
-                                                          entityMapper.getUniquePropertiesTableRows());
+                writeBatch.addVersion(RepositoryTable.ENTITY,
+                                      RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                      entityMapper.getEntityTableRow(),
+                                      entityMapper.getUniquePropertiesTableRows());
+
+                writeBatch.write(jdbcResourceConnector, jdbcConnection);
 
                 saveClassifications(entityMapper.getClassificationMappers());
             }
@@ -1521,7 +1876,8 @@ public class DatabaseStore
 
 
     /**
-     * Maintain a classification within the entity.
+     * Maintain a classification within the entity.  The new version also replaces the previous version in the
+     * current version tables.
      *
      * @param classificationMapper classification to update
      * @throws RepositoryErrorException problem communicating with the database
@@ -1534,13 +1890,14 @@ public class DatabaseStore
         {
             try
             {
-                jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                         RepositoryTable.CLASSIFICATION.getTableName(),
-                                                         classificationMapper.getClassificationTableRow());
+                InstanceWriteBatch writeBatch = new InstanceWriteBatch();
+
+                writeBatch.addVersion(RepositoryTable.CLASSIFICATION,
+                                      RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE,
+                                      classificationMapper.getClassificationTableRow(),
+                                      classificationMapper.getClassificationPropertiesTableRows());
 
-                jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                          RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName(),
-                                                          classificationMapper.getClassificationPropertiesTableRows());
+                writeBatch.write(jdbcResourceConnector, jdbcConnection);
             }
             catch (PropertyServerException sqlException)
             {
@@ -1558,7 +1915,8 @@ public class DatabaseStore
 
     /**
      * Add a relationship to the database.  Its header information (and effectivity dates) goes into the
-     * relationship table. The properties go into the relationship attribute values table.
+     * relationship table. The properties go into the relationship attribute values table.  The new version also
+     * replaces the previous version in the current version tables.
      *
      * @param relationshipMapper details about the relationship
      * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
@@ -1575,13 +1933,173 @@ public class DatabaseStore
             this.addEntityProxyToStore(relationshipMapper.getEnd1Mapper());
             this.addEntityProxyToStore(relationshipMapper.getEnd2Mapper());
 
-            jdbcResourceConnector.insertRowIntoTable(jdbcConnection,
-                                                     RepositoryTable.RELATIONSHIP.getTableName(),
-                                                     relationshipMapper.getRelationshipTableRow());
+            InstanceWriteBatch writeBatch = new InstanceWriteBatch();
+
+            writeBatch.addVersion(RepositoryTable.RELATIONSHIP,
+                                  RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                  relationshipMapper.getRelationshipTableRow(),
+                                  relationshipMapper.getRelationshipPropertiesTableRows());
+
+            writeBatch.write(jdbcResourceConnector, jdbcConnection);
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Save a group of entities and relationships, such as the instances from a batch of reference copies, in one
+     * pass.  The stored versions are retrieved with one query per table and then all the changes are written
+     * together through an InstanceWriteBatch.  As with the single instance methods, an instance is only saved
+     * if it is new or later than the stored version, and entity proxies are only added for unknown entities.
+     * The classifications of each entity are saved if they are later than the stored classifications, even if
+     * the entity itself is unchanged.
+     *
+     * @param entityMappers entities to save
+     * @param relationshipMappers relationships to save
+     * @throws RepositoryErrorException problem communicating with the database, or mapping the values returned
+     */
+    public void saveInstances(List<EntityMapper>       entityMappers,
+                              List<RelationshipMapper> relationshipMappers) throws RepositoryErrorException
+    {
+        final String methodName = "saveInstances";
+
+        try
+        {
+            InstanceWriteBatch writeBatch = new InstanceWriteBatch();
+
+            /*
+             * Only the latest version of each instance in the group is of interest.  Classifications are
+             * versioned independently of their entity, so the classifications from every supplied entity
+             * are passed to addClassifications, which picks the latest version of each one.
+             */
+            Map<String, EntityMapper>  latestEntities        = new LinkedHashMap<>();
+            List<ClassificationMapper> classificationMappers = new ArrayList<>();
+
+            if (entityMappers != null)
+            {
+                for (EntityMapper entityMapper : entityMappers)
+                {
+                    EntityDetail entityDetail = entityMapper.getEntityDetail();
+                    EntityMapper otherMapper  = latestEntities.get(entityDetail.getGUID());
+
+                    if ((otherMapper == null) || (entityDetail.getVersion() > otherMapper.getEntityDetail().getVersion()))
+                    {
+                        latestEntities.put(entityDetail.getGUID(), entityMapper);
+                    }
+
+                    if (entityMapper.getClassificationMappers() != null)
+                    {
+                        classificationMappers.addAll(entityMapper.getClassificationMappers());
+                    }
+                }
+            }
+
+            Map<String, RelationshipMapper> latestRelationships = new LinkedHashMap<>();
+            Set<String>                     entityGUIDs         = new HashSet<>(latestEntities.keySet());
+
+            if (relationshipMappers != null)
+            {
+                for (RelationshipMapper relationshipMapper : relationshipMappers)
+                {
+                    Relationship       relationship = relationshipMapper.getRelationship();
+                    RelationshipMapper otherMapper  = latestRelationships.get(relationship.getGUID());
+
+                    if ((otherMapper == null) || (relationship.getVersion() > otherMapper.getRelationship().getVersion()))
+                    {
+                        latestRelationships.put(relationship.getGUID(), relationshipMapper);
+                    }
+
+                    entityGUIDs.add(relationship.getEntityOneProxy().getGUID());
+                    entityGUIDs.add(relationship.getEntityTwoProxy().getGUID());
+                }
+            }
+
+            Map<String, Long> storedEntityVersions       = this.getCurrentVersions(RepositoryTable.CURRENT_ENTITY, entityGUIDs);
+            Map<String, Long> storedRelationshipVersions = this.getCurrentVersions(RepositoryTable.CURRENT_RELATIONSHIP, latestRelationships.keySet());
+
+            for (EntityMapper entityMapper : latestEntities.values())
+            {
+                EntityDetail entityDetail  = entityMapper.getEntityDetail();
+                Long         storedVersion = storedEntityVersions.get(entityDetail.getGUID());
+
+                if ((storedVersion == null) || (entityDetail.getVersion() > storedVersion))
+                {
+                    if (storedVersion != null)
+                    {
+                        this.addEndVersionCommands(writeBatch,
+                                                   RepositoryTable.ENTITY,
+                                                   this.getParameters(this.getVersionEndDate(entityDetail.getUpdateTime()),
+                                                                      entityDetail.getGUID(),
+                                                                      storedVersion));
+                    }
+
+                    writeBatch.addVersion(RepositoryTable.ENTITY,
+                                          RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                          entityMapper.getEntityTableRow(),
+                                          entityMapper.getEntityPropertiesTableRows());
+
+                    storedEntityVersions.put(entityDetail.getGUID(), entityDetail.getVersion());
+                }
+            }
+
+            for (RelationshipMapper relationshipMapper : latestRelationships.values())
+            {
+                Relationship relationship  = relationshipMapper.getRelationship();
+                Long         storedVersion = storedRelationshipVersions.get(relationship.getGUID());
+
+                if ((storedVersion == null) || (relationship.getVersion() > storedVersion))
+                {
+                    /*
+                     * The entity proxies are only added if the entity is unknown.
+                     */
+                    for (EntityMapper endMapper : List.of(relationshipMapper.getEnd1Mapper(), relationshipMapper.getEnd2Mapper()))
+                    {
+                        EntityProxy entityProxy = endMapper.getEntityProxy();
+
+                        if (! storedEntityVersions.containsKey(entityProxy.getGUID()))
+                        {
+                            writeBatch.addVersion(RepositoryTable.ENTITY,
+                                                  RepositoryTable.ENTITY_ATTRIBUTE_VALUE,
+                                                  endMapper.getEntityTableRow(),
+                                                  endMapper.getUniquePropertiesTableRows());
 
-            jdbcResourceConnector.insertRowsIntoTable(jdbcConnection,
-                                                      RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName(),
-                                                      relationshipMapper.getRelationshipPropertiesTableRows());
+                            storedEntityVersions.put(entityProxy.getGUID(), entityProxy.getVersion());
+
+                            if (endMapper.getClassificationMappers() != null)
+                            {
+                                classificationMappers.addAll(endMapper.getClassificationMappers());
+                            }
+                        }
+                    }
+
+                    if (storedVersion != null)
+                    {
+                        this.addEndVersionCommands(writeBatch,
+                                                   RepositoryTable.RELATIONSHIP,
+                                                   this.getParameters(this.getVersionEndDate(relationship.getUpdateTime()),
+                                                                      relationship.getGUID(),
+                                                                      storedVersion));
+                    }
+
+                    writeBatch.addVersion(RepositoryTable.RELATIONSHIP,
+                                          RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE,
+                                          relationshipMapper.getRelationshipTableRow(),
+                                          relationshipMapper.getRelationshipPropertiesTableRows());
+                }
+            }
+
+            this.addClassifications(writeBatch, classificationMappers);
+
+            writeBatch.write(jdbcResourceConnector, jdbcConnection);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1596,6 +2114,238 @@ public class DatabaseStore
     }
 
 
+    /**
+     * Add the classifications from a group of entities to a write batch.  Classifications are updated
+     * independently of entities so each one is only saved if it is new or has a version later than the stored one.
+     *
+     * @param writeBatch batch of changes to add to
+     * @param classificationMappers classifications from the entities
+     * @throws RepositoryErrorException problem mapping the values
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private void addClassifications(InstanceWriteBatch         writeBatch,
+                                    List<ClassificationMapper> classificationMappers) throws RepositoryErrorException,
+                                                                                              PropertyServerException
+    {
+        Map<String, ClassificationMapper> latestClassifications = new LinkedHashMap<>();
+        Set<String>                       entityGUIDs           = new HashSet<>();
+
+        for (ClassificationMapper classificationMapper : classificationMappers)
+        {
+            String               key         = this.getClassificationKey(classificationMapper.getEntityGUID(), classificationMapper.getClassification().getName());
+            ClassificationMapper otherMapper = latestClassifications.get(key);
+
+            if ((otherMapper == null) || (classificationMapper.getClassification().getVersion() > otherMapper.getClassification().getVersion()))
+            {
+                latestClassifications.put(key, classificationMapper);
+            }
+
+            entityGUIDs.add(classificationMapper.getEntityGUID());
+        }
+
+        Map<String, Long> storedVersions = this.getCurrentVersions(RepositoryTable.CURRENT_CLASSIFICATION, entityGUIDs);
+
+        for (Map.Entry<String, ClassificationMapper> classificationEntry : latestClassifications.entrySet())
+        {
+            ClassificationMapper classificationMapper = classificationEntry.getValue();
+            Classification       classification       = classificationMapper.getClassification();
+            Long                 storedVersion        = storedVersions.get(classificationEntry.getKey());
+
+            if ((storedVersion == null) || (classification.getVersion() > storedVersion))
+            {
+                if (storedVersion != null)
+                {
+                    this.addEndVersionCommands(writeBatch,
+                                               RepositoryTable.CLASSIFICATION,
+                                               this.getParameters(this.getVersionEndDate(classification.getUpdateTime()),
+                                                                  classificationMapper.getEntityGUID(),
+                                                                  classification.getName(),
+                                                                  storedVersion));
+                }
+
+                writeBatch.addVersion(RepositoryTable.CLASSIFICATION,
+                                      RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE,
+                                      classificationMapper.getClassificationTableRow(),
+                                      classificationMapper.getClassificationPropertiesTableRows());
+            }
+        }
+    }
+
+
+    /**
+     * Return the versions stored in a current version table for the instances with the requested guids.
+     * For classifications, the map is keyed by the entity guid and classification name.
+     *
+     * @param currentTable current version table
+     * @param guids unique identifiers of the instances (or entities for classifications)
+     * @return map of instance key to stored version
+     * @throws RepositoryErrorException problem mapping the values
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private Map<String, Long> getCurrentVersions(RepositoryTable currentTable,
+                                                 Set<String>     guids) throws RepositoryErrorException,
+                                                                               PropertyServerException
+    {
+        final int maxGUIDsPerQuery = 1000;
+
+        Map<String, Long> storedVersions = new HashMap<>();
+        List<String>      columnNames    = new ArrayList<>();
+
+        for (PostgreSQLColumn keyColumn : currentTable.getPrimaryKeys())
+        {
+            columnNames.add(keyColumn.getColumnName());
+        }
+
+        columnNames.add(RepositoryColumn.VERSION.getColumnName());
+
+        /*
+         * The columns are selected in a fixed order so that they can be read from each row by index.
+         */
+        final int guidIndex               = 1;
+        final int versionIndex            = columnNames.size();
+        final int classificationNameIndex = columnNames.indexOf(RepositoryColumn.CLASSIFICATION_NAME.getColumnName()) + 1;
+
+        List<String> guidList = new ArrayList<>(guids);
+
+        for (int startGUID = 0; startGUID < guidList.size(); startGUID = startGUID + maxGUIDsPerQuery)
+        {
+            List<String>        queryGUIDs = guidList.subList(startGUID, Math.min(startGUID + maxGUIDsPerQuery, guidList.size()));
+            List<JDBCDataValue> parameters = this.getParameters(queryGUIDs.toArray());
+
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "select " + String.join(", ", columnNames) +
+                                                                                      " from " + currentTable.getTableName() +
+                                                                                      " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() +
+                                                                                      " in (" + String.join(", ", Collections.nCopies(queryGUIDs.size(), "?")) + ")",
+                                                                              parameters,
+                                                                              queryFetchSize))
+            {
+                while (rowCursor.next())
+                {
+                    String key = rowCursor.getString(guidIndex);
+
+                    if (classificationNameIndex > 0)
+                    {
+                        key = this.getClassificationKey(key, rowCursor.getString(classificationNameIndex));
+                    }
+
+                    Long version = rowCursor.getLong(versionIndex);
+
+                    if (version != null)
+                    {
+                        storedVersions.put(key, version);
+                    }
+                }
+            }
+        }
+
+        return storedVersions;
+    }
+
+
+    /**
+     * Return the key used to identify a classification in a group of classifications.
+     *
+     * @param entityGUID unique identifier of the classified entity
+     * @param classificationName name of the classification
+     * @return key
+     */
+    private String getClassificationKey(String entityGUID,
+                                        String classificationName)
+    {
+        return entityGUID + "::" + classificationName;
+    }
+
+
+    /**
+     * Return the command that sets the version end time of a stored version in a history table.  The parameters
+     * are the end time followed by the primary key values of the stored version.
+     *
+     * @param historyTable table holding all versions of the instances
+     * @return SQL command with placeholders
+     */
+    private String getEndVersionCommand(RepositoryTable historyTable)
+    {
+        return this.getEndVersionCommand(historyTable, historyTable);
+    }
+
+
+    /**
+     * Return the command that sets the version end time of the rows in a history table that belong to a
+     * stored version and have not been closed out.  The rows are located with the primary keys of the version's
+     * instance table, so this command can also close out the attribute rows of the version.
+     *
+     * @param historyTable table holding all versions of the instances or their attributes
+     * @param keyTable table holding all versions of the instances
+     * @return SQL command with placeholders
+     */
+    private String getEndVersionCommand(RepositoryTable historyTable,
+                                        RepositoryTable keyTable)
+    {
+        StringBuilder keyClause = new StringBuilder();
+
+        for (PostgreSQLColumn keyColumn : keyTable.getPrimaryKeys())
+        {
+            if (! keyClause.isEmpty())
+            {
+                keyClause.append(" and ");
+            }
+
+            keyClause.append(keyColumn.getColumnName()).append(" = ?");
+        }
+
+        /*
+         * Only rows that are still open are updated.  With partitioned history tables, this limits the update to
+         * the partition of open versions, and a version that has already been closed out keeps its end time.
+         */
+        return "update " + historyTable.getTableName() +
+                " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = ?" +
+                " where " + keyClause +
+                " and " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null";
+    }
+
+
+    /**
+     * Add the commands that close out a stored version to a write batch.  The attribute rows are only
+     * closed out when the history tables are partitioned.
+     *
+     * @param writeBatch batch of changes
+     * @param historyTable table holding all versions of the instances
+     * @param parameters end time followed by the primary key values of the stored version
+     */
+    private void addEndVersionCommands(InstanceWriteBatch  writeBatch,
+                                       RepositoryTable     historyTable,
+                                       List<JDBCDataValue> parameters)
+    {
+        writeBatch.addCommand(this.getEndVersionCommand(historyTable), parameters);
+
+        if (partitionedHistory)
+        {
+            writeBatch.addCommand(this.getEndVersionCommand(historyTable.getAttributeTable(), historyTable), parameters);
+        }
+    }
+
+
+    /**
+     * Set the version end time of a stored version.  The attribute rows are only closed out when the history
+     * tables are partitioned.
+     *
+     * @param historyTable table holding all versions of the instances
+     * @param parameters end time followed by the primary key values of the stored version
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private void updateVersionEndTime(RepositoryTable     historyTable,
+                                      List<JDBCDataValue> parameters) throws PropertyServerException
+    {
+        jdbcResourceConnector.issueSQLCommand(jdbcConnection, this.getEndVersionCommand(historyTable), parameters);
+
+        if (partitionedHistory)
+        {
+            jdbcResourceConnector.issueSQLCommand(jdbcConnection, this.getEndVersionCommand(historyTable.getAttributeTable(), historyTable), parameters);
+        }
+    }
+
+
     /**
      * Update the version end date in an entity to the database.
      *
@@ -1610,10 +2360,10 @@ public class DatabaseStore
 
         try
         {
-            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
-                                                  "update " + RepositoryTable.ENTITY.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTime +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityMapper.getEntityDetail().getGUID() + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + entityMapper.getEntityDetail().getVersion() + ";");
+            this.updateVersionEndTime(RepositoryTable.ENTITY,
+                                      this.getParameters(versionEndTime,
+                                                         entityMapper.getEntityDetail().getGUID(),
+                                                         entityMapper.getEntityDetail().getVersion()));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1642,12 +2392,11 @@ public class DatabaseStore
 
         try
         {
-            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
-                                                  "update " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTime +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + classificationMapper.getEntityGUID() +
-                                                          "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationMapper.getClassification().getName() +
-                                                          "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + classificationMapper.getClassification().getVersion() + ";");
+            this.updateVersionEndTime(RepositoryTable.CLASSIFICATION,
+                                      this.getParameters(versionEndTime,
+                                                         classificationMapper.getEntityGUID(),
+                                                         classificationMapper.getClassification().getName(),
+                                                         classificationMapper.getClassification().getVersion()));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1676,10 +2425,101 @@ public class DatabaseStore
 
         try
         {
-            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
-                                                  "update " + RepositoryTable.RELATIONSHIP.getTableName() +
-                                                          " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = '" + versionEndTime +
-                                                          "' where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + relationshipMapper.getRelationship().getGUID() + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + relationshipMapper.getRelationship().getVersion() + ";");
+            this.updateVersionEndTime(RepositoryTable.RELATIONSHIP,
+                                      this.getParameters(versionEndTime,
+                                                         relationshipMapper.getRelationship().getGUID(),
+                                                         relationshipMapper.getRelationship().getVersion()));
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Remove an instance and its attributes from the current version tables.
+     *
+     * @param currentTable current version table for the instance
+     * @param currentAttributeTable current version table for the instance's attributes
+     * @param keyClause where clause that identifies the instance in both tables
+     * @param keyParameters values for the placeholders in the where clause
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private void deleteCurrentVersion(RepositoryTable     currentTable,
+                                      RepositoryTable     currentAttributeTable,
+                                      String              keyClause,
+                                      List<JDBCDataValue> keyParameters) throws PropertyServerException
+    {
+        jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                              "delete from " + currentTable.getTableName() + " where " + keyClause,
+                                              keyParameters);
+        jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                              "delete from " + currentAttributeTable.getTableName() + " where " + keyClause,
+                                              keyParameters);
+    }
+
+
+    /**
+     * Determine whether the current version tables need to be populated from the history tables.  This is the
+     * case for a repository that was created before the current version tables were introduced.
+     *
+     * @return true if there are entities in the history tables but none in the current version tables
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public boolean isCurrentVersionPopulationNeeded() throws RepositoryErrorException
+    {
+        final String methodName = "isCurrentVersionPopulationNeeded";
+
+        try
+        {
+            List<Map<String, JDBCDataValue>> entityRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                                "select " + RepositoryColumn.INSTANCE_GUID.getColumnName() +
+                                                                                                        " from " + RepositoryTable.ENTITY.getTableName() +
+                                                                                                        " where not exists (select 1 from " + RepositoryTable.CURRENT_ENTITY.getTableName() + ")" +
+                                                                                                        " limit 1;",
+                                                                                                RepositoryTable.ENTITY.getColumnNameTypeMap());
+
+            return (entityRows != null) && (! entityRows.isEmpty());
+        }
+        catch (PropertyServerException sqlException)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           sqlException.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           sqlException.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               sqlException);
+        }
+    }
+
+
+    /**
+     * Copy the latest version of each instance, and its attributes, from the history tables into the current
+     * version tables.
+     *
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public void populateCurrentVersionTables() throws RepositoryErrorException
+    {
+        final String methodName = "populateCurrentVersionTables";
+
+        try
+        {
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_ENTITY);
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_RELATIONSHIP);
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_CLASSIFICATION);
+
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_ENTITY_ATTRIBUTE_VALUE, RepositoryTable.CURRENT_ENTITY);
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE, RepositoryTable.CURRENT_RELATIONSHIP);
+            this.populateCurrentVersionTable(RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE, RepositoryTable.CURRENT_CLASSIFICATION);
         }
         catch (PropertyServerException sqlException)
         {
@@ -1694,6 +2534,72 @@ public class DatabaseStore
     }
 
 
+    /**
+     * Copy the rows that have no version end time from a history table into its current version table.
+     *
+     * @param currentTable current version table
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private void populateCurrentVersionTable(RepositoryTable currentTable) throws PropertyServerException
+    {
+        RepositoryTable historyTable = currentTable.getHistoryTable();
+
+        jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                              "insert into " + currentTable.getTableName() +
+                                                      " (" + String.join(", ", historyTable.getColumnNames()) + ")" +
+                                                      " select " + String.join(", ", historyTable.getQualifiedColumnNames()) +
+                                                      " from " + historyTable.getTableName() +
+                                                      " where " + RepositoryColumn.VERSION_END_TIME.getColumnName(historyTable.getTableName()) + " is null" +
+                                                      " on conflict do nothing;");
+    }
+
+
+    /**
+     * Copy the attribute rows for the versions in a current version table from the history attribute table
+     * into its current version table.
+     *
+     * @param currentAttributeTable current version table for the attributes
+     * @param currentTable current version table for the instances that own the attributes
+     * @throws PropertyServerException problem communicating with the database
+     */
+    private void populateCurrentVersionTable(RepositoryTable currentAttributeTable,
+                                             RepositoryTable currentTable) throws PropertyServerException
+    {
+        RepositoryTable historyAttributeTable = currentAttributeTable.getHistoryTable();
+        StringBuilder   joinClause            = new StringBuilder();
+
+        for (PostgreSQLColumn keyColumn : currentTable.getPrimaryKeys())
+        {
+            joinClause.append(currentTable.getTableName()).append(".").append(keyColumn.getColumnName());
+            joinClause.append(" = ");
+            joinClause.append(historyAttributeTable.getTableName()).append(".").append(keyColumn.getColumnName());
+            joinClause.append(" and ");
+        }
+
+        joinClause.append(RepositoryColumn.VERSION.getColumnName(currentTable.getTableName()));
+        joinClause.append(" = ");
+        joinClause.append(RepositoryColumn.VERSION.getColumnName(historyAttributeTable.getTableName()));
+
+        /*
+         * The history attribute tables have a version end time that the current version tables do not need.
+         */
+        List<String> qualifiedColumnNames = new ArrayList<>();
+
+        for (String columnName : currentAttributeTable.getColumnNames())
+        {
+            qualifiedColumnNames.add(historyAttributeTable.getTableName() + "." + columnName);
+        }
+
+        jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                              "insert into " + currentAttributeTable.getTableName() +
+                                                      " (" + String.join(", ", currentAttributeTable.getColumnNames()) + ")" +
+                                                      " select " + String.join(", ", qualifiedColumnNames) +
+                                                      " from " + historyAttributeTable.getTableName() +
+                                                      " join " + currentTable.getTableName() + " on " + joinClause +
+                                                      " on conflict do nothing;");
+    }
+
+
     /**
      * Purge a classification from the database
      *
@@ -1710,7 +2616,12 @@ public class DatabaseStore
         {
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + entityGUID + "' and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = '" + classificationName + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?",
+                                                  this.getParameters(entityGUID, classificationName));
+            this.deleteCurrentVersion(RepositoryTable.CURRENT_CLASSIFICATION,
+                                      RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE,
+                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ? and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() + " = ?",
+                                      this.getParameters(entityGUID, classificationName));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1740,34 +2651,51 @@ public class DatabaseStore
 
         try
         {
-            List<Map<String, JDBCDataValue>> relationshipRows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
-                                                                                                      RepositoryTable.RELATIONSHIP.getTableName(),
-                                                                                                      "(" + RepositoryColumn.END_1_GUID.getColumnName() + " = '" + guid +
-                                                                                                      "' or " + RepositoryColumn.END_2_GUID.getColumnName() + " = '" + guid + "')",
-                                                                                                      RepositoryTable.RELATIONSHIP.getColumnNameTypeMap());
+            Set<String> relationshipGUIDs = new LinkedHashSet<>();
 
-            if (relationshipRows != null)
+            try (JDBCRowCursor rowCursor = jdbcResourceConnector.getRowCursor(jdbcConnection,
+                                                                              "select " + RepositoryColumn.INSTANCE_GUID.getColumnName() +
+                                                                                      " from " + RepositoryTable.RELATIONSHIP.getTableName() +
+                                                                                      " where (" + RepositoryColumn.END_1_GUID.getColumnName() + " = ? or " +
+                                                                                      RepositoryColumn.END_2_GUID.getColumnName() + " = ?)",
+                                                                              this.getParameters(guid, guid),
+                                                                              queryFetchSize))
             {
-                for (Map<String, JDBCDataValue> relationshipRow : relationshipRows)
+                while (rowCursor.next())
                 {
-                    String relationshipGUID = baseMapper.getStringPropertyFromColumn(RepositoryColumn.INSTANCE_GUID.getColumnName(), relationshipRow, true);
-
-                    this.purgeRelationship(relationshipGUID);
+                    relationshipGUIDs.add(rowCursor.getString(1));
                 }
             }
 
+            for (String relationshipGUID : relationshipGUIDs)
+            {
+                this.purgeRelationship(relationshipGUID);
+            }
+
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.ENTITY.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
+            this.deleteCurrentVersion(RepositoryTable.CURRENT_ENTITY,
+                                      RepositoryTable.CURRENT_ENTITY_ATTRIBUTE_VALUE,
+                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                      this.getParameters(guid));
+            this.deleteCurrentVersion(RepositoryTable.CURRENT_CLASSIFICATION,
+                                      RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE,
+                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                      this.getParameters(guid));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1798,10 +2726,16 @@ public class DatabaseStore
         {
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.RELATIONSHIP.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
             jdbcResourceConnector.issueSQLCommand(jdbcConnection,
                                                   "delete from " + RepositoryTable.RELATIONSHIP_ATTRIBUTE_VALUE.getTableName() +
-                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + guid + "';");
+                                                          " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                                  this.getParameters(guid));
+            this.deleteCurrentVersion(RepositoryTable.CURRENT_RELATIONSHIP,
+                                      RepositoryTable.CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE,
+                                      RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?",
+                                      this.getParameters(guid));
         }
         catch (PropertyServerException sqlException)
         {
@@ -1817,13 +2751,15 @@ public class DatabaseStore
 
 
     /**
-     * Free up the connection since the request is over.
+     * Commit the work done through this store and return the connection to the connection pool since the
+     * request is over.
      *
-     * @throws RepositoryErrorException problem closing connection
+     * @throws RepositoryErrorException problem committing the work
      */
     public void disconnect() throws RepositoryErrorException
     {
         final String methodName = "disconnect";
+
         try
         {
             jdbcConnection.commit();
@@ -1836,6 +2772,30 @@ public class DatabaseStore
                                                                                                            sqlException.getMessage()),
                                                this.getClass().getName(),
                                                methodName,
-                                               sqlException);        }
+                                               sqlException);
+        }
+        finally
+        {
+            this.close();
+        }
+    }
+
+
+    /**
+     * Return the connection to the connection pool.  Any work that has not been committed is rolled back.
+     * This is called at the end of a try-with-resources block so the connection is returned even when the
+     * request fails.  It does nothing if the connection has already been returned.
+     */
+    @Override
+    public void close()
+    {
+        try
+        {
+            jdbcConnection.close();
+        }
+        catch (SQLException sqlException)
+        {
+            // Ignore error - the pool discards connections that are broken.
+        }
     }
 }
@@ -0,0 +1,371 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ClassificationMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.EntityMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EntityAggregateDecoder builds entity mappers from the rows returned by an entity aggregate query.  Each row
+ * holds the columns of the entity table plus two JSON columns.  The first is an array of the entity's
+ * attribute rows.  The second is an array of its classifications, each with its own array of attribute rows.
+ * The JSON is decoded in a single pass with a streaming parser into the same column maps that the mappers
+ * receive from the separate table queries.
+ */
+public class EntityAggregateDecoder
+{
+    /**
+     * Column holding the entity_attribute_value rows for the entity as a JSON array.
+     */
+    public static final String ATTRIBUTE_ROWS_COLUMN = "attribute_rows";
+
+    /**
+     * Column holding the classifications for the entity as a JSON array.
+     */
+    public static final String CLASSIFICATION_ROWS_COLUMN = "classification_rows";
+
+    /**
+     * Field in each classification object holding the classification table row.
+     */
+    public static final String CLASSIFICATION_FIELD = "classification";
+
+    /**
+     * Field in each classification object holding the classification_attribute_value rows.
+     */
+    public static final String ATTRIBUTES_FIELD = "attributes";
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final Map<String, Integer> aggregateColumnTypes;
+    private final Map<String, Integer> entityAttributeColumnTypes;
+    private final Map<String, Integer> classificationColumnTypes;
+    private final Map<String, Integer> classificationAttributeColumnTypes;
+
+    private final OMRSRepositoryHelper repositoryHelper;
+    private final String               repositoryName;
+
+
+    /**
+     * Constructor
+     *
+     * @param repositoryHelper helper passed to the mappers
+     * @param repositoryName name of this repository
+     */
+    public EntityAggregateDecoder(OMRSRepositoryHelper repositoryHelper,
+                                  String               repositoryName)
+    {
+        this.repositoryHelper = repositoryHelper;
+        this.repositoryName   = repositoryName;
+
+        this.aggregateColumnTypes = RepositoryTable.ENTITY.getColumnNameTypeMap();
+        this.aggregateColumnTypes.put(ATTRIBUTE_ROWS_COLUMN, Types.VARCHAR);
+        this.aggregateColumnTypes.put(CLASSIFICATION_ROWS_COLUMN, Types.VARCHAR);
+
+        this.entityAttributeColumnTypes         = RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getColumnNameTypeMap();
+        this.classificationColumnTypes          = RepositoryTable.CLASSIFICATION.getColumnNameTypeMap();
+        this.classificationAttributeColumnTypes = RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE.getColumnNameTypeMap();
+    }
+
+
+    /**
+     * Return the name to type map for the columns returned by the entity aggregate query.
+     *
+     * @return map
+     */
+    public Map<String, Integer> getColumnNameTypeMap()
+    {
+        return aggregateColumnTypes;
+    }
+
+
+    /**
+     * Build the entity mapper for a row returned by the entity aggregate query.  The JSON columns are removed from
+     * the row so that it only contains the entity table columns.
+     *
+     * @param aggregateRow row from the entity aggregate query
+     * @return entity mapper
+     * @throws RepositoryErrorException the JSON in the row could not be decoded
+     */
+    public EntityMapper getEntityMapper(Map<String, JDBCDataValue> aggregateRow) throws RepositoryErrorException
+    {
+        final String methodName = "getEntityMapper";
+
+        JDBCDataValue attributeRows      = aggregateRow.remove(ATTRIBUTE_ROWS_COLUMN);
+        JDBCDataValue classificationRows = aggregateRow.remove(CLASSIFICATION_ROWS_COLUMN);
+
+        try
+        {
+            return new EntityMapper(aggregateRow,
+                                    this.getAttributeRows(attributeRows),
+                                    this.getClassificationMappers(classificationRows),
+                                    repositoryHelper,
+                                    repositoryName);
+        }
+        catch (IOException | RuntimeException error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Decode the entity attribute rows.
+     *
+     * @param attributeRows value of the attribute rows column
+     * @return list of rows or null if the entity has no attributes
+     * @throws IOException the JSON is not valid
+     */
+    private List<Map<String, JDBCDataValue>> getAttributeRows(JDBCDataValue attributeRows) throws IOException
+    {
+        String json = this.getJSON(attributeRows);
+
+        if (json == null)
+        {
+            return null;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(json))
+        {
+            parser.nextToken();
+
+            return this.readRows(parser, entityAttributeColumnTypes);
+        }
+    }
+
+
+    /**
+     * Decode the classifications and build a mapper for each one.
+     *
+     * @param classificationRows value of the classification rows column
+     * @return list of classification mappers or null if the entity has no classifications
+     * @throws IOException the JSON is not valid
+     */
+    private List<ClassificationMapper> getClassificationMappers(JDBCDataValue classificationRows) throws IOException
+    {
+        String json = this.getJSON(classificationRows);
+
+        if (json == null)
+        {
+            return null;
+        }
+
+        try (JsonParser parser = jsonFactory.createParser(json))
+        {
+            if (parser.nextToken() != JsonToken.START_ARRAY)
+            {
+                return null;
+            }
+
+            List<ClassificationMapper> classificationMappers = new ArrayList<>();
+
+            while (parser.nextToken() == JsonToken.START_OBJECT)
+            {
+                Map<String, JDBCDataValue>       classificationRow = null;
+                List<Map<String, JDBCDataValue>> attributeRows     = null;
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME)
+                {
+                    String fieldName = parser.currentName();
+
+                    parser.nextToken();
+
+                    if (CLASSIFICATION_FIELD.equals(fieldName))
+                    {
+                        classificationRow = this.readRow(parser, classificationColumnTypes);
+                    }
+                    else if (ATTRIBUTES_FIELD.equals(fieldName))
+                    {
+                        attributeRows = this.readRows(parser, classificationAttributeColumnTypes);
+                    }
+                    else
+                    {
+                        parser.skipChildren();
+                    }
+                }
+
+                if (classificationRow != null)
+                {
+                    classificationMappers.add(new ClassificationMapper(classificationRow,
+                                                                       attributeRows,
+                                                                       repositoryHelper,
+                                                                       repositoryName));
+                }
+            }
+
+            if (! classificationMappers.isEmpty())
+            {
+                return classificationMappers;
+            }
+
+            return null;
+        }
+    }
+
+
+    /**
+     * Return the JSON text from one of the aggregate columns.
+     *
+     * @param dataValue value from the row
+     * @return JSON or null if the column was null
+     */
+    private String getJSON(JDBCDataValue dataValue)
+    {
+        if ((dataValue != null) && (dataValue.getDataValue() != null))
+        {
+            return dataValue.getDataValue().toString();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Read an array of table rows.  The parser is positioned on the start of the array (or a null value).
+     *
+     * @param parser JSON parser
+     * @param columnNameTypeMap columns to extract
+     * @return list of rows or null if the array is empty
+     * @throws IOException the JSON is not valid
+     */
+    private List<Map<String, JDBCDataValue>> readRows(JsonParser           parser,
+                                                      Map<String, Integer> columnNameTypeMap) throws IOException
+    {
+        if (parser.currentToken() != JsonToken.START_ARRAY)
+        {
+            parser.skipChildren();
+            return null;
+        }
+
+        List<Map<String, JDBCDataValue>> rows = new ArrayList<>();
+
+        while (parser.nextToken() == JsonToken.START_OBJECT)
+        {
+            rows.add(this.readRow(parser, columnNameTypeMap));
+        }
+
+        if (! rows.isEmpty())
+        {
+            return rows;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Read a table row.  The parser is positioned on the start of the object.  As with rows read from a
+     * result set, null values and columns that are not in the table definition are left out.
+     *
+     * @param parser JSON parser
+     * @param columnNameTypeMap columns to extract
+     * @return row
+     * @throws IOException the JSON is not valid
+     */
+    private Map<String, JDBCDataValue> readRow(JsonParser           parser,
+                                               Map<String, Integer> columnNameTypeMap) throws IOException
+    {
+        Map<String, JDBCDataValue> row = new HashMap<>();
+
+        if (parser.currentToken() != JsonToken.START_OBJECT)
+        {
+            parser.skipChildren();
+            return row;
+        }
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME)
+        {
+            String    columnName = parser.currentName();
+            JsonToken valueToken = parser.nextToken();
+            Integer   sqlType    = columnNameTypeMap.get(columnName);
+
+            if ((sqlType == null) || (valueToken == JsonToken.VALUE_NULL))
+            {
+                parser.skipChildren();
+            }
+            else
+            {
+                Object value = this.getValue(parser, sqlType);
+
+                if (value != null)
+                {
+                    row.put(columnName, new JDBCDataValue(value, sqlType));
+                }
+            }
+        }
+
+        return row;
+    }
+
+
+    /**
+     * Convert the current JSON value into the Java type used for the column type.
+     * PostgreSQL writes timestamps in JSON using the ISO format without a time zone.
+     *
+     * @param parser JSON parser positioned on the value
+     * @param sqlType type of the column from java.sql.Types
+     * @return value or null if the type is not supported or the value is not a scalar
+     * @throws IOException the JSON value does not match the type
+     */
+    private Object getValue(JsonParser parser,
+                            int        sqlType) throws IOException
+    {
+        switch (sqlType)
+        {
+            case Types.VARCHAR ->
+            {
+                if (parser.currentToken().isScalarValue())
+                {
+                    return parser.getValueAsString();
+                }
+            }
+            case Types.BIGINT ->
+            {
+                return parser.getValueAsLong();
+            }
+            case Types.INTEGER, Types.NUMERIC ->
+            {
+                return parser.getValueAsInt();
+            }
+            case Types.BOOLEAN ->
+            {
+                return parser.getValueAsBoolean();
+            }
+            case Types.TIMESTAMP ->
+            {
+                return Timestamp.valueOf(LocalDateTime.parse(parser.getValueAsString().replace(' ', 'T')));
+            }
+            case Types.DATE ->
+            {
+                return java.sql.Date.valueOf(LocalDate.parse(parser.getValueAsString()));
+            }
+        }
+
+        parser.skipChildren();
+        return null;
+    }
+}
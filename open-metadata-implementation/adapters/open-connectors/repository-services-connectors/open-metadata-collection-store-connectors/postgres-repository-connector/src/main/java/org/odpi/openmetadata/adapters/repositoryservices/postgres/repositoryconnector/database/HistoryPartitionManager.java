@@ -0,0 +1,443 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresAuditCode;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+
+import java.sql.Connection;
+import java.sql.Types;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * HistoryPartitionManager maintains the monthly partitions of the history tables when they are partitioned on
+ * the version end time.  Each history table has a default partition for the latest versions (no end time),
+ * a partition for the versions that ended before the repository was created, and a partition for each month.
+ * The monthly partitions are created a few months ahead so that a version that is closed out always has a
+ * partition to move into.  Partitions that only hold versions older than the retention period are detached
+ * from the history tables, which leaves them in the schema as standalone tables that can be archived or
+ * dropped without touching the current data.  The manager is shared by all the requests to the repository.
+ * <br><br>
+ * The default partition can only hold versions with no end time.  This lets PostgreSQL add a partition without
+ * scanning the default partition for rows that belong in it, but it means a version that is closed out must have
+ * a partition for its end time.  A reference copy can close out a version with an end time from long ago, so
+ * once partitions have been detached, a partition is added for the versions that end before the retention period.
+ */
+public class HistoryPartitionManager
+{
+    /*
+     * The number of months after the current month that have partitions ready.
+     */
+    private static final int monthsAhead = 3;
+
+    /*
+     * The time to wait before trying again if the maintenance fails.
+     */
+    private static final long retryInterval = 60 * 60 * 1000L;
+
+    private static final String partitionNameColumn = "partition_name";
+    private static final String tableKindColumn     = "relkind";
+    private static final String monthlyPrefix       = "_p";
+    private static final String earlierPrefix       = "_before_p";
+    private static final String latePrefix          = "_late_p";
+
+    private static final DateTimeFormatter partitionSuffixFormat = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final DateTimeFormatter boundFormat           = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final String                repositoryName;
+    private final String                schemaName;
+    private final AuditLog              auditLog;
+    private final JDBCResourceConnector jdbcResourceConnector;
+    private final int                   retentionMonths;
+
+    private volatile long nextMaintenanceTime = 0L;
+
+
+    /**
+     * Constructor.
+     *
+     * @param repositoryName name of this repository
+     * @param schemaName name of the database schema holding the repository
+     * @param auditLog logging destination
+     * @param jdbcResourceConnector connector to the database
+     * @param retentionMonths number of months of history to keep attached (0 means keep all)
+     */
+    public HistoryPartitionManager(String                repositoryName,
+                                   String                schemaName,
+                                   AuditLog              auditLog,
+                                   JDBCResourceConnector jdbcResourceConnector,
+                                   int                   retentionMonths)
+    {
+        this.repositoryName        = repositoryName;
+        this.schemaName            = schemaName;
+        this.auditLog              = auditLog;
+        this.jdbcResourceConnector = jdbcResourceConnector;
+        this.retentionMonths       = retentionMonths;
+    }
+
+
+    /**
+     * Return the number of months of history that is kept attached to the history tables.
+     *
+     * @return number of months (0 means keep all)
+     */
+    public int getRetentionMonths()
+    {
+        return retentionMonths;
+    }
+
+
+    /**
+     * Determine whether the schema already has history tables that were created without partitions.  Tables can
+     * not be changed into partitioned tables, so the repository must continue to use them as they are.
+     *
+     * @return true if there are unpartitioned history tables
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public boolean isUnpartitionedSchema() throws RepositoryErrorException
+    {
+        final String methodName = "isUnpartitionedSchema";
+
+        try (Connection jdbcConnection = jdbcResourceConnector.getDataSource().getConnection())
+        {
+            boolean unpartitioned = false;
+
+            for (RepositoryTable historyTable : RepositoryTable.getHistoryTables())
+            {
+                List<Map<String, JDBCDataValue>> rows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                              "select " + tableKindColumn + " from pg_class where oid = to_regclass(?)",
+                                                                                              this.getParameters(historyTable.getTableName()),
+                                                                                              Map.of(tableKindColumn, Types.VARCHAR));
+
+                if ((rows != null) && (! rows.isEmpty()) && (rows.get(0).get(tableKindColumn) != null))
+                {
+                    unpartitioned = unpartitioned || "r".equals(rows.get(0).get(tableKindColumn).getDataValue());
+                }
+            }
+
+            jdbcConnection.commit();
+
+            return unpartitioned;
+        }
+        catch (Exception error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Maintain the partitions if a new month has started since they were last maintained.  This is called
+     * before each request to the repository, so a failure is logged rather than returned to the caller.
+     */
+    public void maintainPartitionsIfDue()
+    {
+        final String methodName = "maintainPartitionsIfDue";
+
+        long now = System.currentTimeMillis();
+
+        if (now >= nextMaintenanceTime)
+        {
+            try
+            {
+                this.maintainPartitions(new Date(now));
+            }
+            catch (RepositoryErrorException error)
+            {
+                nextMaintenanceTime = now + retryInterval;
+
+                if (auditLog != null)
+                {
+                    auditLog.logException(methodName,
+                                          PostgresAuditCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                      error.getClass().getName(),
+                                                                                                      methodName,
+                                                                                                      error.getMessage()),
+                                          error);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Create the partitions that are needed from the current month onwards and detach the partitions that are
+     * older than the retention period.
+     *
+     * @param now current time
+     * @throws RepositoryErrorException problem communicating with the database
+     */
+    public synchronized void maintainPartitions(Date now) throws RepositoryErrorException
+    {
+        final String methodName = "maintainPartitions";
+
+        YearMonth currentMonth = YearMonth.from(now.toInstant().atZone(ZoneId.systemDefault()));
+        YearMonth cutoffMonth  = null;
+
+        if (retentionMonths > 0)
+        {
+            cutoffMonth = currentMonth.minusMonths(retentionMonths);
+        }
+
+        try (Connection jdbcConnection = jdbcResourceConnector.getDataSource().getConnection())
+        {
+            for (RepositoryTable historyTable : RepositoryTable.getHistoryTables())
+            {
+                List<String> partitionNames = this.getPartitionNames(jdbcConnection, historyTable);
+                List<String> ddlStatements  = this.getCreatePartitionStatements(historyTable, partitionNames, currentMonth);
+
+                if (! ddlStatements.isEmpty())
+                {
+                    jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, ddlStatements);
+                }
+
+                if (cutoffMonth != null)
+                {
+                    String  latePartitionName = historyTable.getTableName() + latePrefix + cutoffMonth.format(partitionSuffixFormat);
+                    boolean detached          = false;
+
+                    for (String partitionName : partitionNames)
+                    {
+                        YearMonth upperBound = this.getUpperBound(historyTable, partitionName);
+
+                        if ((upperBound != null) && (! upperBound.isAfter(cutoffMonth)) && (! partitionName.equals(latePartitionName)))
+                        {
+                            detached = true;
+
+                            jdbcResourceConnector.issueSQLCommand(jdbcConnection,
+                                                                  "alter table " + historyTable.getTableName() + " detach partition " + partitionName + ";");
+
+                            if (auditLog != null)
+                            {
+                                auditLog.logMessage(methodName,
+                                                    PostgresAuditCode.HISTORY_PARTITION_DETACHED.getMessageDefinition(repositoryName,
+                                                                                                                      partitionName,
+                                                                                                                      historyTable.getTableName(),
+                                                                                                                      this.getBound(upperBound)));
+                            }
+                        }
+                    }
+
+                    /*
+                     * The versions that are closed out with an end time in a detached partition need a
+                     * partition to go to because they are not allowed in the default partition.
+                     */
+                    if (detached)
+                    {
+                        jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection,
+                                                                     List.of("create table if not exists " + latePartitionName +
+                                                                                     " partition of " + historyTable.getTableName() +
+                                                                                     " for values from (minvalue) to ('" + this.getBound(cutoffMonth) + "');"));
+                    }
+                }
+            }
+
+            jdbcConnection.commit();
+
+            nextMaintenanceTime = currentMonth.plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        catch (Exception error)
+        {
+            throw new RepositoryErrorException(PostgresErrorCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                                           error.getClass().getName(),
+                                                                                                           methodName,
+                                                                                                           error.getMessage()),
+                                               this.getClass().getName(),
+                                               methodName,
+                                               error);
+        }
+    }
+
+
+    /**
+     * Return the names of the partitions that are attached to a history table.
+     *
+     * @param jdbcConnection connection to the database
+     * @param historyTable partitioned table
+     * @return list of partition names
+     * @throws Exception problem communicating with the database
+     */
+    private List<String> getPartitionNames(Connection      jdbcConnection,
+                                           RepositoryTable historyTable) throws Exception
+    {
+        List<String> partitionNames = new ArrayList<>();
+
+        List<Map<String, JDBCDataValue>> rows = jdbcResourceConnector.getMatchingRows(jdbcConnection,
+                                                                                      "select child.relname as " + partitionNameColumn +
+                                                                                              " from pg_inherits inherits" +
+                                                                                              " join pg_class child on child.oid = inherits.inhrelid" +
+                                                                                              " where inherits.inhparent = to_regclass(?)",
+                                                                                      this.getParameters(historyTable.getTableName()),
+                                                                                      Map.of(partitionNameColumn, Types.VARCHAR));
+
+        if (rows != null)
+        {
+            for (Map<String, JDBCDataValue> row : rows)
+            {
+                if (row.get(partitionNameColumn) != null)
+                {
+                    partitionNames.add(row.get(partitionNameColumn).getDataValue().toString());
+                }
+            }
+        }
+
+        return partitionNames;
+    }
+
+
+    /**
+     * Return the statements that create the missing partitions of a history table.  When the table has no time
+     * partitions yet, a partition is created for the versions that ended before the current month.  After that,
+     * there is a partition for each month from the month after the latest existing partition (or the current
+     * month) until a few months ahead.
+     *
+     * @param historyTable partitioned table
+     * @param partitionNames names of the existing partitions
+     * @param currentMonth month of the maintenance
+     * @return list of statements (empty if nothing is missing)
+     */
+    List<String> getCreatePartitionStatements(RepositoryTable historyTable,
+                                              List<String>    partitionNames,
+                                              YearMonth       currentMonth)
+    {
+        List<String> ddlStatements = new ArrayList<>();
+        YearMonth    latestMonth   = null;
+
+        for (String partitionName : partitionNames)
+        {
+            YearMonth upperBound = this.getUpperBound(historyTable, partitionName);
+
+            if ((upperBound != null) && ((latestMonth == null) || (upperBound.isAfter(latestMonth))))
+            {
+                latestMonth = upperBound;
+            }
+        }
+
+        YearMonth month = currentMonth;
+
+        if (latestMonth == null)
+        {
+            ddlStatements.add("create table if not exists " + historyTable.getTableName() + earlierPrefix + currentMonth.format(partitionSuffixFormat) +
+                                      " partition of " + historyTable.getTableName() +
+                                      " for values from (minvalue) to ('" + this.getBound(currentMonth) + "');");
+        }
+        else if (latestMonth.isBefore(currentMonth))
+        {
+            month = latestMonth;
+        }
+
+        while (! month.isAfter(currentMonth.plusMonths(monthsAhead)))
+        {
+            String partitionName = historyTable.getTableName() + monthlyPrefix + month.format(partitionSuffixFormat);
+
+            if (! partitionNames.contains(partitionName))
+            {
+                ddlStatements.add("create table if not exists " + partitionName +
+                                          " partition of " + historyTable.getTableName() +
+                                          " for values from ('" + this.getBound(month) + "') to ('" + this.getBound(month.plusMonths(1)) + "');");
+            }
+
+            month = month.plusMonths(1);
+        }
+
+        return ddlStatements;
+    }
+
+
+    /**
+     * Return the month at the start of which a time partition ends.  The default partition, and any partition
+     * that was not created by this manager, has no upper bound.
+     *
+     * @param historyTable partitioned table
+     * @param partitionName name of the partition
+     * @return month or null
+     */
+    private YearMonth getUpperBound(RepositoryTable historyTable,
+                                    String          partitionName)
+    {
+        try
+        {
+            if (partitionName.startsWith(historyTable.getTableName() + earlierPrefix))
+            {
+                return YearMonth.parse(partitionName.substring(historyTable.getTableName().length() + earlierPrefix.length()), partitionSuffixFormat);
+            }
+            else if (partitionName.startsWith(historyTable.getTableName() + latePrefix))
+            {
+                return YearMonth.parse(partitionName.substring(historyTable.getTableName().length() + latePrefix.length()), partitionSuffixFormat);
+            }
+            else if (partitionName.startsWith(historyTable.getTableName() + monthlyPrefix))
+            {
+                return YearMonth.parse(partitionName.substring(historyTable.getTableName().length() + monthlyPrefix.length()), partitionSuffixFormat).plusMonths(1);
+            }
+        }
+        catch (Exception notTimePartition)
+        {
+            /*
+             * The suffix is not a month so this partition is left alone.
+             */
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the partition bound for the start of a month.  The version times are stored without a time zone
+     * in the local time of the server so the bound is in local time too.
+     *
+     * @param month month
+     * @return timestamp literal
+     */
+    private String getBound(YearMonth month)
+    {
+        return month.atDay(1).atStartOfDay().format(boundFormat);
+    }
+
+
+    /**
+     * Return the parameter list for a query on the system catalog.
+     *
+     * @param tableName name of the table to look up
+     * @return list of parameters
+     */
+    private List<JDBCDataValue> getParameters(String tableName)
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+
+        parameters.add(new JDBCDataValue(tableName, Types.VARCHAR));
+
+        return parameters;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "HistoryPartitionManager{" +
+                "repositoryName='" + repositoryName + '\'' +
+                ", schemaName='" + schemaName + '\'' +
+                ", retentionMonths=" + retentionMonths +
+                ", nextMaintenanceTime=" + nextMaintenanceTime +
+                '}';
+    }
+}
@@ -0,0 +1,393 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresAuditCode;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndexType;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+
+import java.sql.Connection;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * IndexAdvisor records the property names and comparison operators that appear in the queries issued by the
+ * repository.  Each use is matched to the search index that would support it.  When an index that has not been
+ * defined is needed by enough queries, the advisor recommends it in the audit log, or creates it if it has been
+ * configured to do so.  The advisor is shared by all the requests to the repository.
+ * <br><br>
+ * Indexes are created on a background thread with CREATE INDEX CONCURRENTLY so that neither the query that
+ * triggers the index nor the updates to the table wait for the index to be built.
+ */
+public class IndexAdvisor
+{
+    /*
+     * The number of queries that must need a missing index before it is recommended or created.
+     */
+    private static final int recommendationThreshold = 100;
+
+    /*
+     * The number of seconds that shutdown waits for an index that is being built.
+     */
+    private static final int shutdownWaitSeconds = 60;
+
+    private final String                    repositoryName;
+    private final String                    schemaName;
+    private final AuditLog                  auditLog;
+    private final JDBCResourceConnector     jdbcResourceConnector;
+    private final List<RepositoryIndexType> definedIndexTypes;
+    private final boolean                   createIndexes;
+    private final ExecutorService           indexBuilder;
+
+    private final Map<String, AtomicLong>           propertyUsage  = new ConcurrentHashMap<>();
+    private final Map<RepositoryIndex, AtomicLong>  indexDemand    = new ConcurrentHashMap<>();
+    private final Map<RepositoryIndex, Set<String>> indexSearches  = new ConcurrentHashMap<>();
+    private final Set<RepositoryIndex>              advisedIndexes = ConcurrentHashMap.newKeySet();
+
+
+    /**
+     * Constructor.  If missing indexes are to be created, the thread that builds them is started.
+     *
+     * @param repositoryName name of this repository
+     * @param schemaName name of the database schema holding the repository
+     * @param auditLog logging destination
+     * @param jdbcResourceConnector connector to the database
+     * @param definedIndexTypes categories of search index that are defined in the schema
+     * @param createIndexes should missing indexes be created rather than just recommended?
+     */
+    public IndexAdvisor(String                    repositoryName,
+                        String                    schemaName,
+                        AuditLog                  auditLog,
+                        JDBCResourceConnector     jdbcResourceConnector,
+                        List<RepositoryIndexType> definedIndexTypes,
+                        boolean                   createIndexes)
+    {
+        this.repositoryName        = repositoryName;
+        this.schemaName            = schemaName;
+        this.auditLog              = auditLog;
+        this.jdbcResourceConnector = jdbcResourceConnector;
+        this.definedIndexTypes     = definedIndexTypes;
+        this.createIndexes         = createIndexes;
+
+        if (createIndexes)
+        {
+            this.indexBuilder = Executors.newSingleThreadExecutor(runnable ->
+                                                                  {
+                                                                      Thread builderThread = new Thread(runnable, repositoryName + " index builder");
+                                                                      builderThread.setDaemon(true);
+                                                                      return builderThread;
+                                                                  });
+        }
+        else
+        {
+            this.indexBuilder = null;
+        }
+    }
+
+
+    /**
+     * Record that a query compares the values of a property in an attribute table.
+     *
+     * @param tableName name of the attribute table that is queried
+     * @param propertyName name of the property or null if the query looks at all the properties
+     * @param operator comparison operator
+     */
+    public void recordPropertyUse(String                     tableName,
+                                  String                     propertyName,
+                                  PropertyComparisonOperator operator)
+    {
+        this.recordUse(tableName, propertyName, operator, this.getIndexType(operator));
+    }
+
+
+    /**
+     * Record that a query selects instances by their type.  The type name column is matched with a pattern
+     * because it holds the names of the type and its supertypes.
+     *
+     * @param tableName name of the instance table that is queried
+     */
+    public void recordTypeUse(String tableName)
+    {
+        this.recordUse(tableName, RepositoryColumn.TYPE_NAME.getColumnName(), PropertyComparisonOperator.LIKE, RepositoryIndexType.TRIGRAM);
+    }
+
+
+    /**
+     * Return the number of times that each combination of table, property name and operator has appeared in a query.
+     *
+     * @return map of "table.property operator" to count
+     */
+    public Map<String, Long> getPropertyUsage()
+    {
+        Map<String, Long> results = new TreeMap<>();
+
+        for (Map.Entry<String, AtomicLong> usage : propertyUsage.entrySet())
+        {
+            results.put(usage.getKey(), usage.getValue().get());
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Return the indexes that are not defined in the schema (or created by the advisor) but have been needed by at
+     * least one query.  They are returned with the most needed index first.
+     *
+     * @return list of indexes
+     */
+    public List<RepositoryIndex> getRecommendedIndexes()
+    {
+        List<RepositoryIndex> recommendedIndexes = new ArrayList<>(indexDemand.keySet());
+
+        recommendedIndexes.sort((index1, index2) -> Long.compare(indexDemand.get(index2).get(), indexDemand.get(index1).get()));
+
+        return recommendedIndexes;
+    }
+
+
+    /**
+     * Stop the thread that builds indexes.  Any index that is being built is given a short time to complete and
+     * the indexes that are waiting to be built are abandoned.  They are needed again after the next restart.
+     */
+    public void shutdown()
+    {
+        if (indexBuilder != null)
+        {
+            indexBuilder.shutdown();
+
+            try
+            {
+                if (! indexBuilder.awaitTermination(shutdownWaitSeconds, TimeUnit.SECONDS))
+                {
+                    indexBuilder.shutdownNow();
+                }
+            }
+            catch (InterruptedException interrupted)
+            {
+                indexBuilder.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Record a use of a table and check whether the index that supports it is missing.
+     *
+     * @param tableName name of the table that is queried
+     * @param propertyName name of the property or null if the query looks at all the properties
+     * @param operator comparison operator
+     * @param indexType category of index that supports the comparison
+     */
+    private void recordUse(String                     tableName,
+                           String                     propertyName,
+                           PropertyComparisonOperator operator,
+                           RepositoryIndexType        indexType)
+    {
+        String searchDescription = tableName + "." + Objects.requireNonNullElse(propertyName, "*") + " " + operator.getName();
+
+        propertyUsage.computeIfAbsent(searchDescription, key -> new AtomicLong()).incrementAndGet();
+
+        RepositoryTable table = this.getTable(tableName);
+
+        if ((table != null) && (indexType != null) && ((definedIndexTypes == null) || (! definedIndexTypes.contains(indexType))))
+        {
+            RepositoryIndex index = RepositoryIndex.getIndex(table, indexType);
+
+            if ((index != null) && (! advisedIndexes.contains(index)))
+            {
+                indexSearches.computeIfAbsent(index, key -> ConcurrentHashMap.newKeySet()).add(searchDescription);
+
+                long demand = indexDemand.computeIfAbsent(index, key -> new AtomicLong()).incrementAndGet();
+
+                if ((demand >= recommendationThreshold) && (advisedIndexes.add(index)))
+                {
+                    this.adviseIndex(index, demand);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Recommend a missing index or queue it to be created.  Either way, the query that triggered it is not
+     * delayed.
+     *
+     * @param index missing index
+     * @param demand number of queries that needed the index
+     */
+    private void adviseIndex(RepositoryIndex index,
+                             long            demand)
+    {
+        final String methodName = "adviseIndex";
+
+        String searches = indexSearches.get(index).toString();
+
+        try
+        {
+            PostgreSQLSchemaDDL postgreSQLSchemaDDL = new PostgreSQLSchemaDDL(schemaName,
+                                                                              null,
+                                                                              null,
+                                                                              Collections.singletonList(index));
+
+            List<String> ddlStatements = postgreSQLSchemaDDL.getIndexDDLStatements();
+
+            if (createIndexes)
+            {
+                indexBuilder.execute(() -> this.createIndex(index, demand, searches, ddlStatements));
+            }
+            else if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    PostgresAuditCode.INDEX_RECOMMENDATION.getMessageDefinition(repositoryName,
+                                                                                                index.getIndexName(),
+                                                                                                Long.toString(demand),
+                                                                                                searches,
+                                                                                                String.join(" ", ddlStatements)));
+            }
+        }
+        catch (Exception error)
+        {
+            this.logError(methodName, error);
+        }
+    }
+
+
+    /**
+     * Create a missing index.  This runs on the index builder thread.  CREATE INDEX CONCURRENTLY can not run
+     * inside a transaction so the connection is switched to auto-commit while it is in use.  The connection
+     * pool switches it back when it is returned.  A failure to create the index is logged.  A concurrent build
+     * that fails leaves an invalid index behind, which must be dropped before the index can be created again.
+     *
+     * @param index missing index
+     * @param demand number of queries that needed the index
+     * @param searches description of the searches that needed the index
+     * @param ddlStatements statements that define the index
+     */
+    private void createIndex(RepositoryIndex index,
+                             long            demand,
+                             String          searches,
+                             List<String>    ddlStatements)
+    {
+        final String methodName = "createIndex";
+
+        List<String> concurrentDDLStatements = new ArrayList<>();
+
+        for (String ddlStatement : ddlStatements)
+        {
+            concurrentDDLStatements.add(ddlStatement.replaceFirst("^create index ", "create index concurrently "));
+        }
+
+        try (Connection jdbcConnection = jdbcResourceConnector.getDataSource().getConnection())
+        {
+            jdbcConnection.setAutoCommit(true);
+
+            jdbcResourceConnector.addDatabaseDefinitions(jdbcConnection, concurrentDDLStatements);
+
+            indexDemand.remove(index);
+
+            if (auditLog != null)
+            {
+                auditLog.logMessage(methodName,
+                                    PostgresAuditCode.INDEX_CREATED.getMessageDefinition(repositoryName,
+                                                                                         index.getIndexName(),
+                                                                                         Long.toString(demand),
+                                                                                         searches));
+            }
+        }
+        catch (Exception error)
+        {
+            this.logError(methodName, error);
+        }
+    }
+
+
+    /**
+     * Log an unexpected error from recommending or creating an index.
+     *
+     * @param methodName calling method
+     * @param error exception
+     */
+    private void logError(String    methodName,
+                          Exception error)
+    {
+        if (auditLog != null)
+        {
+            auditLog.logException(methodName,
+                                  PostgresAuditCode.UNEXPECTED_EXCEPTION.getMessageDefinition(repositoryName,
+                                                                                              error.getClass().getName(),
+                                                                                              methodName,
+                                                                                              error.getMessage()),
+                                  error);
+        }
+    }
+
+
+    /**
+     * Return the category of index that supports a comparison operator on the property values.
+     *
+     * @param operator comparison operator
+     * @return index type
+     */
+    private RepositoryIndexType getIndexType(PropertyComparisonOperator operator)
+    {
+        return switch (operator)
+        {
+            case EQ -> RepositoryIndexType.EXPRESSION;
+            case LIKE, NOT_LIKE, STARTS_WITH, ENDS_WITH,
+                 CASE_INSENSITIVE_LIKE, CASE_INSENSITIVE_NOT_LIKE, CASE_INSENSITIVE_STARTS_WITH,
+                 CASE_INSENSITIVE_ENDS_WITH, CASE_INSENSITIVE_EQ -> RepositoryIndexType.TRIGRAM;
+            default -> RepositoryIndexType.COMPOSITE;
+        };
+    }
+
+
+    /**
+     * Return the repository table with the supplied name.
+     *
+     * @param tableName name of table
+     * @return table or null
+     */
+    private RepositoryTable getTable(String tableName)
+    {
+        for (RepositoryTable table : RepositoryTable.values())
+        {
+            if (table.getTableName().equals(tableName))
+            {
+                return table;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return print out of variables in a JSON-style
+     */
+    @Override
+    public String toString()
+    {
+        return "IndexAdvisor{" +
+                "repositoryName='" + repositoryName + '\'' +
+                ", definedIndexTypes=" + definedIndexTypes +
+                ", createIndexes=" + createIndexes +
+                ", propertyUsage=" + propertyUsage +
+                ", advisedIndexes=" + advisedIndexes +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLColumn;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.frameworks.openmetadata.ffdc.PropertyServerException;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * InstanceWriteBatch collects the changes to the repository tables needed to save a group of instances, and then
+ * writes them with as few statements as possible.  The updates and deletes that share a SQL template are issued as
+ * a JDBC batch and then the new rows for each table are inserted with multi-row INSERT statements.
+ */
+class InstanceWriteBatch
+{
+    private final Map<String, List<List<JDBCDataValue>>>                 commands   = new LinkedHashMap<>();
+    private final Map<RepositoryTable, List<Map<String, JDBCDataValue>>> insertRows = new LinkedHashMap<>();
+
+
+    /**
+     * Add a parameterized update or delete command to the batch.
+     *
+     * @param sqlTemplate command with question mark placeholders
+     * @param parameters values for the placeholders
+     */
+    void addCommand(String              sqlTemplate,
+                    List<JDBCDataValue> parameters)
+    {
+        commands.computeIfAbsent(sqlTemplate, template -> new ArrayList<>()).add(parameters);
+    }
+
+
+    /**
+     * Add a new row for a table to the batch.
+     *
+     * @param table table to insert into
+     * @param row column names, values and types
+     */
+    void addRow(RepositoryTable            table,
+                Map<String, JDBCDataValue> row)
+    {
+        if (row != null)
+        {
+            insertRows.computeIfAbsent(table, rowTable -> new ArrayList<>()).add(row);
+        }
+    }
+
+
+    /**
+     * Add new rows for a table to the batch.
+     *
+     * @param table table to insert into
+     * @param rows list of column names, values and types
+     */
+    void addRows(RepositoryTable                  table,
+                 List<Map<String, JDBCDataValue>> rows)
+    {
+        if (rows != null)
+        {
+            for (Map<String, JDBCDataValue> row : rows)
+            {
+                this.addRow(table, row);
+            }
+        }
+    }
+
+
+    /**
+     * Add a new version of an instance to the batch.  The rows are added to the history tables and replace any
+     * previous version in the current version tables.
+     *
+     * @param historyTable table holding all versions of the instance
+     * @param historyAttributeTable table holding all versions of the instance's attributes
+     * @param instanceRow row for the new version of the instance
+     * @param attributeRows attribute rows for the new version of the instance
+     */
+    void addVersion(RepositoryTable                  historyTable,
+                    RepositoryTable                  historyAttributeTable,
+                    Map<String, JDBCDataValue>       instanceRow,
+                    List<Map<String, JDBCDataValue>> attributeRows)
+    {
+        this.addRow(historyTable, instanceRow);
+        this.addRows(historyAttributeTable, attributeRows);
+
+        this.replaceCurrentVersion(historyTable.getCurrentVersionTable(),
+                                   historyAttributeTable.getCurrentVersionTable(),
+                                   instanceRow,
+                                   attributeRows);
+    }
+
+
+    /**
+     * Add the replacement of the latest version of an instance in the current version tables to the batch.
+     * Any previous version of the instance and its attributes is removed before the new rows are inserted.
+     *
+     * @param currentTable current version table for the instance
+     * @param currentAttributeTable current version table for the instance's attributes
+     * @param instanceRow row for the new version of the instance
+     * @param attributeRows attribute rows for the new version of the instance
+     */
+    void replaceCurrentVersion(RepositoryTable                  currentTable,
+                               RepositoryTable                  currentAttributeTable,
+                               Map<String, JDBCDataValue>       instanceRow,
+                               List<Map<String, JDBCDataValue>> attributeRows)
+    {
+        List<JDBCDataValue> keyParameters = new ArrayList<>();
+        StringBuilder       keyClause     = new StringBuilder();
+
+        for (PostgreSQLColumn keyColumn : currentTable.getPrimaryKeys())
+        {
+            if (! keyParameters.isEmpty())
+            {
+                keyClause.append(" and ");
+            }
+
+            keyClause.append(keyColumn.getColumnName()).append(" = ?");
+            keyParameters.add(instanceRow.get(keyColumn.getColumnName()));
+        }
+
+        this.addCommand("delete from " + currentTable.getTableName() + " where " + keyClause, keyParameters);
+        this.addCommand("delete from " + currentAttributeTable.getTableName() + " where " + keyClause, keyParameters);
+
+        this.addRow(currentTable, instanceRow);
+        this.addRows(currentAttributeTable, attributeRows);
+    }
+
+
+    /**
+     * Return whether there is anything to write.
+     *
+     * @return boolean
+     */
+    boolean isEmpty()
+    {
+        return commands.isEmpty() && insertRows.isEmpty();
+    }
+
+
+    /**
+     * Write the changes to the database.  The commands are issued first so that the previous versions are
+     * ended and removed from the current version tables before the new versions are inserted.
+     *
+     * @param jdbcResourceConnector connector to the database
+     * @param jdbcConnection connection for the transaction
+     * @throws PropertyServerException problem communicating with the database
+     */
+    void write(JDBCResourceConnector jdbcResourceConnector,
+               Connection            jdbcConnection) throws PropertyServerException
+    {
+        for (Map.Entry<String, List<List<JDBCDataValue>>> command : commands.entrySet())
+        {
+            jdbcResourceConnector.issueSQLCommandBatch(jdbcConnection, command.getKey(), command.getValue());
+        }
+
+        for (Map.Entry<RepositoryTable, List<Map<String, JDBCDataValue>>> tableRows : insertRows.entrySet())
+        {
+            jdbcResourceConnector.insertRowsIntoTable(jdbcConnection, tableRows.getKey().getTableName(), tableRows.getValue());
+        }
+
+        commands.clear();
+        insertRows.clear();
+    }
+}
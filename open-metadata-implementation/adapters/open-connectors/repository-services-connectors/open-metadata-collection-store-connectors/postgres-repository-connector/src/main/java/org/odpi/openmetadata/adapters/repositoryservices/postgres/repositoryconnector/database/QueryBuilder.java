@@ -3,6 +3,7 @@
 
 package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
 
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.ffdc.PostgresErrorCode;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
 import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
@@ -20,11 +21,21 @@ import org.odpi.openmetadata.repositoryservices.ffdc.exception.TypeErrorExceptio
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
 import java.util.*;
+import java.util.regex.Pattern;
 
 /**
  * Translates open metadata query requests into SQL fragments that can be assembled before issuing
- * then to the database.
+ * then to the database.  The fragments contain a question mark placeholder wherever a value from the
+ * request is needed.  The values are added to the list of parameters supplied by the caller in the
+ * order that their placeholders appear in the fragments.  This means the SQL text only changes with the
+ * shape of the request, so the database can reuse the plans for prepared statements.
  */
 public class QueryBuilder
 {
@@ -59,6 +70,16 @@ public class QueryBuilder
     private SequencingOrder       sequencingOrder              = null;
     private int                   fromElement                  = 0;
     private int                   pageSize                     = 0;
+    private String                continuationToken            = null;
+    private ContinuationTokenCache continuationTokenCache      = null;
+    private IndexAdvisor          indexAdvisor                 = null;
+
+    private String                querySignature               = null;
+    private KeysetPosition        keysetPosition               = null;
+    private long                  cacheGeneration              = 0L;
+    private String                nextContinuationToken        = null;
+
+    private List<JDBCDataValue>   parameters                   = null;
 
 
     private static final Logger log = LoggerFactory.getLogger(QueryBuilder.class);
@@ -104,8 +125,8 @@ public class QueryBuilder
     {
         if (relationshipEndGUID != null)
         {
-            return " and (" + RepositoryColumn.END_1_GUID.getColumnName() + " = '" + relationshipEndGUID +
-                    "' or " + RepositoryColumn.END_2_GUID.getColumnName() + " = '" + relationshipEndGUID + "')";
+            return " and (" + RepositoryColumn.END_1_GUID.getColumnName() + " = " + this.bindString(relationshipEndGUID) +
+                    " or " + RepositoryColumn.END_2_GUID.getColumnName() + " = " + this.bindString(relationshipEndGUID) + ")";
         }
 
         return " ";
@@ -147,6 +168,13 @@ public class QueryBuilder
                 searchOperand = " ilike ";
             }
 
+            if (indexAdvisor != null)
+            {
+                indexAdvisor.recordPropertyUse(propertyTableName,
+                                               null,
+                                               ignoreCase ? PropertyComparisonOperator.CASE_INSENSITIVE_LIKE : PropertyComparisonOperator.LIKE);
+            }
+
             StringBuilder searchStringBuilder = new StringBuilder();
             if (! startsWith)
             {
@@ -180,7 +208,7 @@ public class QueryBuilder
      * @param propertyName name of the property to test (or null for any property)
      * @param propertyColumn is the property name an attribute name or a nested property name?
      * @param operator operator to compare the property value
-     * @param propertyValue property value to look for (already validated and escaped).
+     * @param propertyValue property value to look for (already validated).
      * @param principleTableName name of header table
      * @param propertyTableName name of attribute table
      * @return sub select statement
@@ -193,12 +221,12 @@ public class QueryBuilder
                                         String propertyTableName)
     {
         String subSelect  = " (" + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) +
-                                   " in (select " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) + " from " + propertyTableName +
+                                   " in (select " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) + " from " + RepositoryTable.getQueryTableName(propertyTableName, asOfTime) +
                                           " where (";
 
         if (propertyName != null)
         {
-            subSelect = subSelect + propertyColumn + "='" + propertyName + "'";
+            subSelect = subSelect + propertyColumn + " = " + this.bindString(propertyName);
 
             if (propertyValue != null)
             {
@@ -208,7 +236,7 @@ public class QueryBuilder
 
         if (propertyValue != null)
         {
-            subSelect = subSelect + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " " + operator + "  '" + escapePropertyValue(propertyValue) + "'";
+            subSelect = subSelect + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " " + operator + " " + this.bindString(propertyValue);
         }
 
         return subSelect + "))) ";
@@ -216,19 +244,83 @@ public class QueryBuilder
 
 
     /**
-     * Ensure any single quote in a property value is escaped.
+     * Add a value to the parameters for the query and return its placeholder.
      *
-     * @param propertyValue supplied property value
-     * @return escaped property value
+     * @param value value for the placeholder
+     * @param sqlType type of the value from java.sql.Types
+     * @return placeholder
      */
-    private String escapePropertyValue(Object propertyValue)
+    private String bind(Object value,
+                        int    sqlType)
     {
-        if (propertyValue != null)
+        parameters.add(new JDBCDataValue(value, sqlType));
+
+        return "?";
+    }
+
+
+    /**
+     * Add a string value to the parameters for the query and return its placeholder.
+     *
+     * @param value value for the placeholder - it is converted to a string
+     * @return placeholder
+     */
+    private String bindString(Object value)
+    {
+        if (value == null)
         {
-            return propertyValue.toString().replaceAll("'", "''");
+            return this.bind(null, Types.VARCHAR);
         }
 
-        return null;
+        return this.bind(value.toString(), Types.VARCHAR);
+    }
+
+
+    /**
+     * Add a list of strings to the parameters for the query as a single array value and return its placeholder.
+     * This is used with the any and all operators so that the SQL text does not depend on the length of the list.
+     *
+     * @param values values for the placeholder
+     * @return placeholder
+     */
+    private String bindStringArray(List<String> values)
+    {
+        return this.bind(values.toArray(new String[0]), Types.ARRAY);
+    }
+
+
+    /**
+     * Add a date to the parameters for the query and return its placeholder.
+     *
+     * @param date value for the placeholder
+     * @return placeholder
+     */
+    private String bindTimestamp(Date date)
+    {
+        return this.bind(new Timestamp(date.getTime()), Types.TIMESTAMP);
+    }
+
+
+    /**
+     * Add a value that is to be compared with one of the instance header columns to the parameters for the query
+     * and return its placeholder.  Dates are passed as timestamps.  Other values are passed as strings without a type
+     * so that the database converts them to the type of the column, as it would for a literal.
+     *
+     * @param value value for the placeholder
+     * @return placeholder
+     */
+    private String bindColumnValue(Object value)
+    {
+        if (value instanceof Date date)
+        {
+            return this.bindTimestamp(date);
+        }
+        else if (value == null)
+        {
+            return this.bind(null, Types.OTHER);
+        }
+
+        return this.bind(value.toString(), Types.OTHER);
     }
 
 
@@ -416,7 +508,7 @@ public class QueryBuilder
                         stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                     leafPropertyName,
                                                                                     stringPropertyOperator,
-                                                                                    this.escapePropertyValue(primitivePropertyValue.getPrimitiveValue()),
+                                                                                    primitivePropertyValue.getPrimitiveValue(),
                                                                                     principleTableName,
                                                                                     propertyTableName));
                     }
@@ -435,7 +527,7 @@ public class QueryBuilder
                     stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                 leafPropertyName,
                                                                                 stringPropertyOperator,
-                                                                                this.escapePropertyValue(enumPropertyValue.getSymbolicName()),
+                                                                                enumPropertyValue.getSymbolicName(),
                                                                                 principleTableName,
                                                                                 propertyTableName));
                 }
@@ -508,10 +600,15 @@ public class QueryBuilder
             String propertyNameMatchClause = this.getPropertyNameMatchClause(propertyTableName,
                                                                              topLevelPropertyName,
                                                                              leafPropertyName);
-            String rowMatchClause = "select 1 from " + propertyTableName +
+            String rowMatchClause = "select 1 from " + RepositoryTable.getQueryTableName(propertyTableName, asOfTime) +
                     " where " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " = " + RepositoryColumn.INSTANCE_GUID.getColumnName(propertyTableName) +
                     " and " + RepositoryColumn.VERSION.getColumnName(principleTableName) + " = " + RepositoryColumn.VERSION.getColumnName(propertyTableName);
 
+            if (indexAdvisor != null)
+            {
+                indexAdvisor.recordPropertyUse(propertyTableName, leafPropertyName, operator);
+            }
+
             if (operator == PropertyComparisonOperator.IS_NULL)
             {
                 if (propertyTableName != null)
@@ -543,63 +640,68 @@ public class QueryBuilder
                 {
                     case EQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " = '" + propertyValue + "') ";
+                        /*
+                         * The hash of the value is compared as well so the expression index on the hash can be
+                         * used for values that are too long for a btree index on the value itself.
+                         */
+                        return sqlClause + " and md5(" + RepositoryColumn.PROPERTY_VALUE.getColumnName() + ") = md5(" + this.bindString(propertyValue) + ")" +
+                                " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " = " + this.bindString(propertyValue) + ") ";
                     }
                     case NEQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " != '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " != " + this.bindString(propertyValue) + ") ";
                     }
                     case LT ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " < '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " < " + this.bindString(propertyValue) + ") ";
                     }
                     case LTE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " <= '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " <= " + this.bindString(propertyValue) + ") ";
                     }
                     case GT ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " > '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " > " + this.bindString(propertyValue) + ") ";
                     }
                     case GTE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " >= '" + propertyValue + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " >= " + this.bindString(propertyValue) + ") ";
                     }
                     case LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case NOT_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not like '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case CASE_INSENSITIVE_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case CASE_INSENSITIVE_NOT_LIKE ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " not ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case STARTS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + this.bindString(this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case ENDS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like '%" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                     }
                     case CASE_INSENSITIVE_STARTS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + this.bindString(this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                     }
                     case CASE_INSENSITIVE_ENDS_WITH ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                     }
                     case CASE_INSENSITIVE_EQ ->
                     {
-                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike '" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                        return sqlClause + " and " + RepositoryColumn.PROPERTY_VALUE.getColumnName() + " ilike " + this.bindString(this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                     }
                     case NOT_NULL ->
                     {
@@ -614,27 +716,27 @@ public class QueryBuilder
             {
                 case EQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " = '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " = " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case NEQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " != '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " != " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case LT ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " < '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " < " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case LTE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " <= '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " <= " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case GT ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " > '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " > " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case GTE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " >= '" + propertyValue + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " >= " + this.bindColumnValue(propertyValue) + ") ";
                 }
                 case IS_NULL ->
                 {
@@ -646,39 +748,39 @@ public class QueryBuilder
                 }
                 case LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case NOT_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " not like '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " not like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case CASE_INSENSITIVE_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case CASE_INSENSITIVE_NOT_LIKE ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " not ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " not ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case STARTS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + this.bindString(this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case ENDS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " like '%" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " like " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                 }
                 case CASE_INSENSITIVE_STARTS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '" + this.getSafePostgreSQLRegex(propertyValue) + "%') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + this.bindString(this.getSafePostgreSQLRegex(propertyValue) + "%") + ") ";
                 }
                 case CASE_INSENSITIVE_ENDS_WITH ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '%" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + this.bindString("%" + this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                 }
                 case CASE_INSENSITIVE_EQ ->
                 {
-                    return " (" + principleTableName + "." + propertyColumn + " ilike '" + this.getSafePostgreSQLRegex(propertyValue) + "') ";
+                    return " (" + principleTableName + "." + propertyColumn + " ilike " + this.bindString(this.getSafePostgreSQLRegex(propertyValue)) + ") ";
                 }
             }
         }
@@ -712,13 +814,13 @@ public class QueryBuilder
             }
             else
             {
-                return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = '" + leafPropertyName + "'";
+                return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = " + this.bindString(leafPropertyName);
             }
         }
         else
         {
-            return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = '" + topLevelPropertyName + "' and " +
-                   RepositoryColumn.PROPERTY_NAME.getColumnName(propertyTableName) + " like '%:" + leafPropertyName + "'";
+            return RepositoryColumn.ATTRIBUTE_NAME.getColumnName(propertyTableName) + " = " + this.bindString(topLevelPropertyName) + " and " +
+                   RepositoryColumn.PROPERTY_NAME.getColumnName(propertyTableName) + " like " + this.bindString("%:" + leafPropertyName);
         }
     }
 
@@ -750,8 +852,7 @@ public class QueryBuilder
         if (endMatchCriteria != null)
         {
             String endMatchOperand = " and ";
-            String guidMatchOperand = " or ";
-            String matchComparison = " = ";
+            String matchComparison = " = any (";
 
             if (endMatchCriteria == EndMatchCriteria.ANY)
             {
@@ -759,36 +860,18 @@ public class QueryBuilder
             }
             else if (endMatchCriteria == EndMatchCriteria.NONE)
             {
-                matchComparison = " != ";
-                guidMatchOperand = " and ";
+                matchComparison = " != all (";
             }
 
             StringBuilder stringBuilder = new StringBuilder();
-            boolean firstGUID = true;
 
             if (end1EntityGUIDs != null)
             {
                 stringBuilder.append(" (");
-
-                for (String end1EntityGUID : end1EntityGUIDs)
-                {
-                    if (firstGUID)
-                    {
-                        firstGUID = false;
-                    }
-                    else
-                    {
-                        stringBuilder.append(guidMatchOperand);
-                    }
-
-                    stringBuilder.append(RepositoryColumn.END_1_GUID.getColumnName());
-                    stringBuilder.append(matchComparison);
-                    stringBuilder.append("'");
-                    stringBuilder.append(end1EntityGUID);
-                    stringBuilder.append("'");
-                }
-
-                stringBuilder.append(") ");
+                stringBuilder.append(RepositoryColumn.END_1_GUID.getColumnName());
+                stringBuilder.append(matchComparison);
+                stringBuilder.append(this.bindStringArray(end1EntityGUIDs));
+                stringBuilder.append(")) ");
 
                 if (end2EntityGUIDs != null)
                 {
@@ -799,26 +882,10 @@ public class QueryBuilder
             if (end2EntityGUIDs != null)
             {
                 stringBuilder.append(" (");
-
-                for (String end2EntityGUID : end2EntityGUIDs)
-                {
-                    if (firstGUID)
-                    {
-                        firstGUID = false;
-                    }
-                    else
-                    {
-                        stringBuilder.append(guidMatchOperand);
-                    }
-
-                    stringBuilder.append(RepositoryColumn.END_2_GUID.getColumnName());
-                    stringBuilder.append(matchComparison);
-                    stringBuilder.append("'");
-                    stringBuilder.append(end2EntityGUID);
-                    stringBuilder.append("'");
-                }
-
-                stringBuilder.append(") ");
+                stringBuilder.append(RepositoryColumn.END_2_GUID.getColumnName());
+                stringBuilder.append(matchComparison);
+                stringBuilder.append(this.bindStringArray(end2EntityGUIDs));
+                stringBuilder.append(")) ");
             }
 
             if (! stringBuilder.isEmpty())
@@ -938,31 +1005,19 @@ public class QueryBuilder
 
                     if (instancePropertyValue instanceof PrimitivePropertyValue primitivePropertyValue)
                     {
-                        if (primitivePropertyValue.getPrimitiveDefCategory() == PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING)
-                        {
-                            stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
-                                                                                        leafPropertyName,
-                                                                                        propertyCondition.getOperator(),
-                                                                                        this.escapePropertyValue(primitivePropertyValue.getPrimitiveValue()),
-                                                                                        principleTableName,
-                                                                                        propertyTableName));
-                        }
-                        else
-                        {
-                            stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
-                                                                                        leafPropertyName,
-                                                                                        propertyCondition.getOperator(),
-                                                                                        primitivePropertyValue.getPrimitiveValue(),
-                                                                                        principleTableName,
-                                                                                        propertyTableName));
-                        }
+                        stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
+                                                                                    leafPropertyName,
+                                                                                    propertyCondition.getOperator(),
+                                                                                    primitivePropertyValue.getPrimitiveValue(),
+                                                                                    principleTableName,
+                                                                                    propertyTableName));
                     }
                     else if (instancePropertyValue instanceof EnumPropertyValue enumPropertyValue)
                     {
                         stringBuilder.append(this.getNestedPropertyComparisonClause(topLevelPropertyName,
                                                                                     leafPropertyName,
                                                                                     propertyCondition.getOperator(),
-                                                                                    this.escapePropertyValue(enumPropertyValue.getSymbolicName()),
+                                                                                    enumPropertyValue.getSymbolicName(),
                                                                                     principleTableName,
                                                                                     propertyTableName));
                     }
@@ -1049,16 +1104,16 @@ public class QueryBuilder
                      */
                     stringBuilder.append(" and (");
                     stringBuilder.append(RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()));
-                    stringBuilder.append(" like '%:");
+                    stringBuilder.append(" like ");
                     if (classificationCondition.getName() != null)
                     {
-                        stringBuilder.append(classificationCondition.getName());
+                        stringBuilder.append(this.bindString(this.getTypeNamePattern(classificationCondition.getName())));
                     }
                     else
                     {
-                        stringBuilder.append("%");
+                        stringBuilder.append(this.bindString(this.getTypeNamePattern("%")));
                     }
-                    stringBuilder.append(":%' ");
+                    stringBuilder.append(" ");
 
                     if (classificationCondition.getMatchProperties() != null)
                     {
@@ -1098,29 +1153,15 @@ public class QueryBuilder
     {
         if ((limitResultsByClassification != null) && (! limitResultsByClassification.isEmpty()))
         {
-            StringBuilder stringBuilder = new StringBuilder(" and (");
-            boolean       firstClassification = true;
+            List<String> typeNamePatterns = new ArrayList<>();
 
             for (String classificationName : limitResultsByClassification)
             {
-                if (firstClassification)
-                {
-                    firstClassification = false;
-                }
-                else
-                {
-                    stringBuilder.append(" or ");
-                }
-
-                stringBuilder.append(RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()));
-                stringBuilder.append(" like '%:");
-                stringBuilder.append(classificationName);
-                stringBuilder.append(":%'");
+                typeNamePatterns.add(this.getTypeNamePattern(classificationName));
             }
 
-            stringBuilder.append(")");
-
-            return stringBuilder.toString();
+            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName(RepositoryTable.CLASSIFICATION.getTableName()) +
+                    " like any (" + this.bindStringArray(typeNamePatterns) + "))";
         }
 
 
@@ -1170,40 +1211,44 @@ public class QueryBuilder
      */
     private String getTypeClause() throws RepositoryErrorException
     {
+        if ((indexAdvisor != null) && ((typeGUID != null) || ((subtypeGUIDs != null) && (! subtypeGUIDs.isEmpty()))))
+        {
+            indexAdvisor.recordTypeUse(principleTableName);
+        }
+
         if ((subtypeGUIDs != null) && (! subtypeGUIDs.isEmpty()))
         {
-            StringBuilder stringBuffer = new StringBuilder(" and (");
-            boolean       firstType    = true;
+            List<String> typeNamePatterns = new ArrayList<>();
 
             for (String subTypeGUID: subtypeGUIDs)
             {
-                if (firstType)
-                {
-                    firstType = false;
-                }
-                else
-                {
-                    stringBuffer.append(" or ");
-                }
-
-                stringBuffer.append(RepositoryColumn.TYPE_NAME.getColumnName());
-                stringBuffer.append(" like '%:");
-                stringBuffer.append(this.lookUpTypeName(subTypeGUID, subTypeGUIDsParameterName));
-                stringBuffer.append(":%' ");
+                typeNamePatterns.add(this.getTypeNamePattern(this.lookUpTypeName(subTypeGUID, subTypeGUIDsParameterName)));
             }
-            stringBuffer.append(")");
 
-            return stringBuffer.toString();
+            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName() + " like any (" + this.bindStringArray(typeNamePatterns) + "))";
         }
         else if (typeGUID != null)
         {
-            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName() + " like '%:" + this.lookUpTypeName(typeGUID, typeGUIDParameterName) + ":%')";
+            return " and (" + RepositoryColumn.TYPE_NAME.getColumnName() + " like " + this.bindString(this.getTypeNamePattern(this.lookUpTypeName(typeGUID, typeGUIDParameterName))) + ")";
         }
 
         return " ";
     }
 
 
+    /**
+     * Return the pattern that matches a type name within the type_name column.  This column holds the names of the
+     * type and its supertypes separated by colons.
+     *
+     * @param typeName name of the type (or % for any type)
+     * @return pattern for a like comparison
+     */
+    private String getTypeNamePattern(String typeName)
+    {
+        return "%:" + typeName + ":%";
+    }
+
+
     /**
      * Convert a typeDefGUID into a typeDefName.
      *
@@ -1266,7 +1311,7 @@ public class QueryBuilder
     {
         if (limitResultsByStatus == null)
         {
-            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " != '" + InstanceStatus.DELETED.getName() + "') ";
+            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " != " + this.bindString(InstanceStatus.DELETED.getName()) + ") ";
         }
         else if (limitResultsByStatus.isEmpty())
         {
@@ -1274,32 +1319,17 @@ public class QueryBuilder
         }
         else
         {
-            StringBuilder sqlClause = new StringBuilder(" and (");
-            boolean firstStatus = true;
+            List<String> statusNames = new ArrayList<>();
 
             for (InstanceStatus instanceStatus : limitResultsByStatus)
             {
                 if (instanceStatus != null)
                 {
-                    if (firstStatus)
-                    {
-                        firstStatus = false;
-                    }
-                    else
-                    {
-                        sqlClause.append(" or ");
-                    }
-
-                    sqlClause.append(RepositoryColumn.CURRENT_STATUS.getColumnName());
-                    sqlClause.append(" = '");
-                    sqlClause.append(instanceStatus.getName());
-                    sqlClause.append("'");
+                    statusNames.add(instanceStatus.getName());
                 }
             }
 
-            sqlClause.append(")");
-
-            return sqlClause.toString();
+            return " and (" + RepositoryColumn.CURRENT_STATUS.getColumnName() + " = any (" + this.bindStringArray(statusNames) + "))";
         }
     }
 
@@ -1315,6 +1345,18 @@ public class QueryBuilder
     }
 
 
+    /**
+     * Return the table to name in the from clause of the query on the principle table.  When there is no asOfTime
+     * this is the table holding the latest version of each instance, aliased with the principle table's name.
+     *
+     * @return table name, possibly with alias
+     */
+    public String getPrincipleQueryTableName()
+    {
+        return RepositoryTable.getQueryTableName(principleTableName, asOfTime);
+    }
+
+
     /**
      * Create the part of the where clause that ensures that the correct version is returned.
      *
@@ -1328,7 +1370,7 @@ public class QueryBuilder
         }
         else
         {
-            return " (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < '" + asOfTime + "' and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > '" + asOfTime + "')) ";
+            return " (" + RepositoryColumn.VERSION_START_TIME.getColumnName() + " < " + this.bindTimestamp(asOfTime) + " and (" + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null or " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " > " + this.bindTimestamp(asOfTime) + ")) ";
         }
     }
 
@@ -1348,11 +1390,15 @@ public class QueryBuilder
 
 
     /**
-     * Return the ORDER BY fragment.  Notice that ordering by property is currently ignored
+     * Return the ORDER BY fragment.  Notice that ordering by property is currently ignored.
+     * The instance GUID is added to the ordering so that instances created (or updated) at the same time are
+     * always returned in the same order, which is needed for paging.  It is also used to order the rows of a
+     * query that wraps the query built here, since the wrapping query does not keep the order of the inner one.
      *
+     * @param principleTableName name or alias of the table that the ordering will occur on
      * @return sequencing
      */
-    private String getSequencingOrder(String principleTableName)
+    String getSequencingOrder(String principleTableName)
     {
         if (sequencingOrder != null)
         {
@@ -1360,19 +1406,19 @@ public class QueryBuilder
             {
                 case ANY, CREATION_DATE_RECENT ->
                 {
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " desc ";
+                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " desc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " desc ";
                 }
                 case CREATION_DATE_OLDEST ->
                 {
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " asc ";
+                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " asc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " asc ";
                 }
                 case LAST_UPDATE_RECENT ->
                 {
-                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " desc ";
+                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " desc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " desc ";
                 }
                 case LAST_UPDATE_OLDEST ->
                 {
-                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " asc ";
+                    return " order by " + RepositoryColumn.UPDATE_TIME.getColumnName(principleTableName) + " asc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " asc ";
                 }
                 case GUID ->
                 {
@@ -1381,13 +1427,13 @@ public class QueryBuilder
                 case PROPERTY_DESCENDING ->
                 {
                     // todo temporary restriction
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " desc ";
+                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " desc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " desc ";
                     // return " order by " + this.mapPropertyNameToColumn(sequencingProperty, RepositoryColumn.ATTRIBUTE_NAME.getColumnName()) + " desc ";
                 }
                 case PROPERTY_ASCENDING ->
                 {
                     // todo temporary restriction
-                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " asc ";
+                    return " order by " + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + " asc, " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + " asc ";
                     // return " order by " + this.mapPropertyNameToColumn(sequencingProperty, RepositoryColumn.ATTRIBUTE_NAME.getColumnName()) + " asc ";
                 }
             }
@@ -1478,31 +1524,284 @@ public class QueryBuilder
 
 
     /**
-     * Return the paging requirements for the query.
+     * Set up the continuation token returned with the previous page of results.  It is used in place of the
+     * starting element to locate the next page.
+     *
+     * @param continuationToken opaque token from getNextContinuationToken()
+     */
+    public void setContinuationToken(String continuationToken)
+    {
+        this.continuationToken = continuationToken;
+    }
+
+
+    /**
+     * Set up the cache of continuation tokens for the repository.  When a page is requested by its starting
+     * element, and the cache holds the token returned with the previous page of the same query, the token is used.
+     *
+     * @param continuationTokenCache cache shared by the queries of this repository
+     */
+    public void setContinuationTokenCache(ContinuationTokenCache continuationTokenCache)
+    {
+        this.continuationTokenCache = continuationTokenCache;
+    }
+
+
+    /**
+     * Set up the index advisor for the repository.  It records the property names and operators used by the query.
+     *
+     * @param indexAdvisor advisor shared by the queries of this repository
+     */
+    public void setIndexAdvisor(IndexAdvisor indexAdvisor)
+    {
+        this.indexAdvisor = indexAdvisor;
+    }
+
+
+    /**
+     * Return the continuation token for the page after the one returned by the query.  This is null if the
+     * query returned fewer results than the page size, or the sequencing order does not support continuation tokens.
+     *
+     * @return opaque token or null
+     */
+    public String getNextContinuationToken()
+    {
+        return nextContinuationToken;
+    }
+
+
+    /**
+     * Record the results of the query so that the continuation token for the next page can be created.
+     * The last row is the row for the last instance on the page.
+     *
+     * @param lastRow last row returned
+     * @param resultCount number of instances returned
+     */
+    public void setPageResults(Map<String, JDBCDataValue> lastRow,
+                               int                        resultCount)
+    {
+        nextContinuationToken = null;
+
+        if ((querySignature != null) && (lastRow != null) && (resultCount >= pageSize))
+        {
+            JDBCDataValue guidValue = lastRow.get(RepositoryColumn.INSTANCE_GUID.getColumnName());
+            JDBCDataValue timeValue = lastRow.get(RepositoryColumn.CREATE_TIME.getColumnName());
+
+            if ((guidValue == null) || (guidValue.getDataValue() == null))
+            {
+                return;
+            }
+
+            String sequencingValue = "";
+
+            if (sequencingOrder != SequencingOrder.GUID)
+            {
+                if ((timeValue == null) || (! (timeValue.getDataValue() instanceof Timestamp timestamp)))
+                {
+                    return;
+                }
+
+                sequencingValue = timestamp.toLocalDateTime().toString();
+            }
+
+            int nextElement = this.getStartingElement() + resultCount;
+
+            nextContinuationToken = new KeysetPosition(querySignature,
+                                                       nextElement,
+                                                       sequencingValue,
+                                                       guidValue.getDataValue().toString()).getToken();
+
+            if (continuationTokenCache != null)
+            {
+                continuationTokenCache.put(querySignature, nextElement, nextContinuationToken, cacheGeneration);
+            }
+        }
+    }
+
+
+    /**
+     * Return the position of the first result of the query in the complete list of results.
+     *
+     * @return element number
+     */
+    private int getStartingElement()
+    {
+        if (keysetPosition != null)
+        {
+            return keysetPosition.nextElement;
+        }
+
+        return fromElement;
+    }
+
+
+    /**
+     * Return whether the sequencing order is on a column that is never null and so can be used to locate the
+     * next page from the last row of the previous one.  The update time is null for instances that have not been
+     * updated so these orders use the starting element.
+     *
+     * @return boolean
+     */
+    private boolean isKeysetPagingSupported()
+    {
+        return (sequencingOrder != SequencingOrder.LAST_UPDATE_RECENT) && (sequencingOrder != SequencingOrder.LAST_UPDATE_OLDEST);
+    }
+
+
+    /**
+     * Return whether the sequencing order returns the oldest (or lowest) values first.
+     *
+     * @return boolean
+     */
+    private boolean isAscending()
+    {
+        return (sequencingOrder == SequencingOrder.CREATION_DATE_OLDEST) ||
+               (sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) ||
+               (sequencingOrder == SequencingOrder.GUID);
+    }
+
+
+    /**
+     * Locate the position that the page starts from.  A continuation token supplied by the caller is used first.
+     * Otherwise, the continuation token cache is checked for a token returned with the page that ended at the
+     * starting element.  The cached token is removed so that it is only used once.  A token is ignored if it came
+     * from a different query.
+     *
+     * @param parameters parameters for the query before paging is added
+     */
+    private void setUpKeysetPosition(List<JDBCDataValue> parameters)
+    {
+        querySignature = null;
+        keysetPosition = null;
+
+        if ((pageSize > 0) && (this.isKeysetPagingSupported()))
+        {
+            querySignature = this.getQuerySignature(parameters);
+
+            String token = continuationToken;
+
+            if (continuationTokenCache != null)
+            {
+                cacheGeneration = continuationTokenCache.getGeneration();
+
+                if ((token == null) && (fromElement > 0))
+                {
+                    token = continuationTokenCache.take(querySignature, fromElement);
+                }
+            }
+
+            if (token != null)
+            {
+                keysetPosition = KeysetPosition.getKeysetPosition(token, querySignature);
+
+                if ((keysetPosition == null) && (log.isDebugEnabled()))
+                {
+                    log.debug("Continuation token " + token + " ignored for query " + this);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return a value that identifies the query independently of the page that is requested.
+     *
+     * @param parameters values for the placeholders in the query before paging is added
+     * @return hash of the query criteria
+     */
+    private String getQuerySignature(List<JDBCDataValue> parameters)
+    {
+        StringBuilder signature = new StringBuilder(principleTableName);
+
+        signature.append('|').append(relationshipEndGUID);
+        signature.append('|').append(end1EntityGUIDs);
+        signature.append('|').append(end2EntityGUIDs);
+        signature.append('|').append(endMatchCriteria);
+        signature.append('|').append(searchString).append(startsWith).append(endsWith).append(ignoreCase);
+        signature.append('|').append(searchProperties);
+        signature.append('|').append(matchClassifications);
+        signature.append('|').append(limitResultsByClassification);
+        signature.append('|').append(typeGUID);
+        signature.append('|').append(subtypeGUIDs);
+        signature.append('|').append(limitResultsByStatus);
+        signature.append('|').append(guidList);
+        signature.append('|').append(asOfTime == null ? null : asOfTime.getTime());
+        signature.append('|').append(sequencingProperty);
+        signature.append('|').append(sequencingOrder);
+        signature.append('|').append(pageSize);
+
+        if (parameters != null)
+        {
+            for (JDBCDataValue parameter : parameters)
+            {
+                Object value = parameter.getDataValue();
+
+                signature.append('|');
+
+                if (value instanceof Object[] arrayValue)
+                {
+                    signature.append(Arrays.toString(arrayValue));
+                }
+                else if (value instanceof long[] arrayValue)
+                {
+                    signature.append(Arrays.toString(arrayValue));
+                }
+                else
+                {
+                    signature.append(value);
+                }
+            }
+        }
+
+        return KeysetPosition.getHash(signature.toString());
+    }
+
+
+    /**
+     * Return the part of the where clause that starts the page after the last row of the previous page.
      *
      * @param principleTableName main table for ordering
+     * @return SQL command fragment
+     */
+    private String getKeysetClause(String principleTableName)
+    {
+        if (keysetPosition == null)
+        {
+            return "";
+        }
+
+        String comparison = this.isAscending() ? " > " : " < ";
+
+        if (sequencingOrder == SequencingOrder.GUID)
+        {
+            return " and " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + comparison + this.bindString(keysetPosition.instanceGUID) + " ";
+        }
+
+        return " and (" + RepositoryColumn.CREATE_TIME.getColumnName(principleTableName) + ", " + RepositoryColumn.INSTANCE_GUID.getColumnName(principleTableName) + ")" +
+                comparison + "(" + this.bind(keysetPosition.getSequencingTime(), Types.TIMESTAMP) + ", " + this.bindString(keysetPosition.instanceGUID) + ") ";
+    }
+
+
+    /**
+     * Return the paging requirements for the query.  When the page is located with a continuation token, the
+     * rows before it are skipped by the where clause rather than the offset so that the database does not need
+     * to read them.
+     *
      * @return paging
      */
-    private String getPaging(String principleTableName)
+    private String getPaging()
     {
         if (pageSize == 0)
         {
             return " ";
         }
+        else if (keysetPosition != null)
+        {
+            return " limit " + this.bind(pageSize, Types.INTEGER);
+        }
         else
         {
-            String sqlClause = "";
-
-            /*
-             * It is not valid to add paging if ordering is not specified.
-             */
-            if (sequencingOrder == null)
-            {
-                sequencingOrder = SequencingOrder.CREATION_DATE_RECENT;
-                sqlClause = this.getSequencingOrder(principleTableName);
-            }
-
-            return sqlClause + " limit " + pageSize +  " offset " + fromElement;
+            return " limit " + this.bind(pageSize, Types.INTEGER) +  " offset " + this.bind(fromElement, Types.INTEGER);
         }
     }
 
@@ -1527,29 +1826,7 @@ public class QueryBuilder
     {
         if ((guidList != null) && (! guidList.isEmpty()))
         {
-            StringBuilder stringBuilder = new StringBuilder(" and (");
-            boolean       firstGUID = true;
-
-            for (String guid : guidList)
-            {
-                if (firstGUID)
-                {
-                    firstGUID = false;
-                }
-                else
-                {
-                    stringBuilder.append(" or ");
-                }
-
-                stringBuilder.append(RepositoryColumn.INSTANCE_GUID.getColumnName());
-                stringBuilder.append(" = '");
-                stringBuilder.append(guid);
-                stringBuilder.append("' ");
-            }
-
-            stringBuilder.append(") ");
-
-            return stringBuilder.toString();
+            return " and (" + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = any (" + this.bindStringArray(guidList) + ")) ";
         }
 
         return " ";
@@ -1557,30 +1834,39 @@ public class QueryBuilder
 
 
     /**
-     * Return the where clause that identified the primary key of an entity, relationship or classification.
+     * Return the where clause that matches a list of primary keys of entities, relationships or classifications.
+     * The lists are passed as arrays so the SQL is the same however many keys are requested.
      *
-     * @param instanceGUID unique identifier of the associated entity or relationship
-     * @param version the version of the instance
-     * @param classificationName optional classification name
+     * @param instanceGUIDs unique identifiers of the associated entities or relationships
+     * @param versions the version of each instance
+     * @param classificationNames classification name for each key, or null if these are not classification keys
+     * @param parameters list of parameters for the query that the values for the clause are added to
      * @return where clause
      */
-    public String getPrimaryKeysClause(String instanceGUID,
-                                       long   version,
-                                       String classificationName)
+    public String getPrimaryKeysClause(List<String>        instanceGUIDs,
+                                       List<Long>          versions,
+                                       List<String>        classificationNames,
+                                       List<JDBCDataValue> parameters)
     {
-        if ((instanceGUID != null) && (version != 0L))
-        {
-            String sqlFragment = "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = '" + instanceGUID + "' and " + RepositoryColumn.VERSION.getColumnName() + " = " + version;
+        this.parameters = parameters;
 
-            if (classificationName != null)
-            {
-                sqlFragment = sqlFragment + " and " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() +  " = '" + classificationName + "' ";
-            }
+        long[] versionArray = new long[versions.size()];
 
-            return sqlFragment + ")";
+        for (int i = 0; i < versionArray.length; i++)
+        {
+            versionArray[i] = versions.get(i);
         }
 
-        return  " ";
+        if (classificationNames == null)
+        {
+            return "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + ", " + RepositoryColumn.VERSION.getColumnName() +
+                    ") in (select * from unnest(" + this.bindStringArray(instanceGUIDs) + ", " + this.bind(versionArray, Types.ARRAY) + "))";
+        }
+        else
+        {
+            return "(" + RepositoryColumn.INSTANCE_GUID.getColumnName() + ", " + RepositoryColumn.VERSION.getColumnName() + ", " + RepositoryColumn.CLASSIFICATION_NAME.getColumnName() +
+                    ") in (select * from unnest(" + this.bindStringArray(instanceGUIDs) + ", " + this.bind(versionArray, Types.ARRAY) + ", " + this.bindStringArray(classificationNames) + "))";
+        }
     }
 
 
@@ -1657,10 +1943,14 @@ public class QueryBuilder
     /**
      * Return the where clause built up from the query parameters supplied.
      *
+     * @param parameters list of parameters for the query that the values for the where clause are added to
      * @return SQL command fragment
+     * @throws RepositoryErrorException invalid search request
      */
-    public String getAsOfTimeWhereClause() throws RepositoryErrorException
+    public String getAsOfTimeWhereClause(List<JDBCDataValue> parameters) throws RepositoryErrorException
     {
+        this.parameters = parameters;
+
         String whereClause =
                 getAsOfTimeClause() +
                 getRelationshipEndGUIDClause() +
@@ -1686,14 +1976,31 @@ public class QueryBuilder
 
     /**
      * The sequencing (order by) and paging (limit/offset) can only be added at the end and may only include
+     * columns from the principle table.  It must follow the where clause because, when the page is located with
+     * a continuation token, it begins with an extra condition for the where clause.
      *
      * @param principleTableName main table that the ordering will occur on
+     * @param parameters list of parameters for the query that the values for the paging are added to
      * @return sql fragment
      */
-    public String getSequenceAndPaging(String principleTableName)
+    public String getSequenceAndPaging(String              principleTableName,
+                                       List<JDBCDataValue> parameters)
     {
-        String clause = getSequencingOrder(principleTableName) +
-                        getPaging(principleTableName);
+        this.parameters = parameters;
+
+        /*
+         * It is not valid to add paging if ordering is not specified.
+         */
+        if ((pageSize != 0) && (sequencingOrder == null))
+        {
+            sequencingOrder = SequencingOrder.CREATION_DATE_RECENT;
+        }
+
+        this.setUpKeysetPosition(parameters);
+
+        String clause = getKeysetClause(principleTableName) +
+                        getSequencingOrder(principleTableName) +
+                        getPaging();
 
         if (log.isDebugEnabled())
         {
@@ -1729,6 +2036,126 @@ public class QueryBuilder
                 ", sequencingOrder=" + sequencingOrder +
                 ", fromElement=" + fromElement +
                 ", pageSize=" + pageSize +
+                ", continuationToken='" + continuationToken + '\'' +
                 '}';
     }
+
+
+    /**
+     * The position of the last row of a page of results.  It is passed to the caller as an opaque continuation
+     * token.  The token includes a hash of the query so that it is only used with the query that created it.
+     */
+    private static class KeysetPosition
+    {
+        private static final String tokenVersion = "1";
+        private static final String separator    = "|";
+
+        private final String querySignature;
+        private final int    nextElement;
+        private final String sequencingValue;
+        private final String instanceGUID;
+
+
+        /**
+         * Constructor
+         *
+         * @param querySignature hash of the query
+         * @param nextElement element number of the first result on the next page
+         * @param sequencingValue value of the sequencing column in the last row (empty if ordered by GUID)
+         * @param instanceGUID instance GUID of the last row
+         */
+        KeysetPosition(String querySignature,
+                       int    nextElement,
+                       String sequencingValue,
+                       String instanceGUID)
+        {
+            this.querySignature  = querySignature;
+            this.nextElement     = nextElement;
+            this.sequencingValue = sequencingValue;
+            this.instanceGUID    = instanceGUID;
+        }
+
+
+        /**
+         * Decode a continuation token.
+         *
+         * @param token continuation token
+         * @param querySignature hash of the query that the token is to be used with
+         * @return position or null if the token is not valid for the query
+         */
+        static KeysetPosition getKeysetPosition(String token,
+                                                String querySignature)
+        {
+            try
+            {
+                String   decodedToken = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] fields       = decodedToken.split(Pattern.quote(separator), 5);
+
+                if ((fields.length == 5) && (tokenVersion.equals(fields[0])) && (fields[1].equals(querySignature)))
+                {
+                    KeysetPosition keysetPosition = new KeysetPosition(fields[1], Integer.parseInt(fields[2]), fields[3], fields[4]);
+
+                    if (! keysetPosition.sequencingValue.isEmpty())
+                    {
+                        keysetPosition.getSequencingTime();
+                    }
+
+                    return keysetPosition;
+                }
+            }
+            catch (RuntimeException error)
+            {
+                /*
+                 * Not a valid token.
+                 */
+            }
+
+            return null;
+        }
+
+
+        /**
+         * Return a hash of the supplied value to include in the token.
+         *
+         * @param value value to hash
+         * @return encoded hash
+         */
+        static String getHash(String value)
+        {
+            try
+            {
+                byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+
+                return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+            }
+            catch (NoSuchAlgorithmException error)
+            {
+                return Integer.toHexString(value.hashCode());
+            }
+        }
+
+
+        /**
+         * Return the sequencing value as a timestamp.
+         *
+         * @return timestamp
+         */
+        Timestamp getSequencingTime()
+        {
+            return Timestamp.valueOf(LocalDateTime.parse(sequencingValue));
+        }
+
+
+        /**
+         * Return the encoded token.
+         *
+         * @return opaque token
+         */
+        String getToken()
+        {
+            String token = tokenVersion + separator + querySignature + separator + nextElement + separator + sequencingValue + separator + instanceGUID;
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+        }
+    }
 }
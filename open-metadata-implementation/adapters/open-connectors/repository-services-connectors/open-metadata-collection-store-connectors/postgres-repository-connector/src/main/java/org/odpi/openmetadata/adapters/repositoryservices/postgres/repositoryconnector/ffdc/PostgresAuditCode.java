@@ -94,6 +94,69 @@ public enum PostgresAuditCode implements AuditLogMessageSet
                        "The repository mode is used to switch the repository into a read-only mode.  The default mode is read-write.  This value is changed using the 'repositoryMode' configuration property.  If it is set to 'readOnly' then repositoryMode=read-only; if it is set to anything else (or not set) then repositoryMode=read-write.",
                        "Check that this is the intended value.  Typically it is only changed from its default value of read-write for situations where you do not want any changes to be made to the metadata in the repository."),
 
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0009 - The PostgreSQL repository connector {0} is populating the current version tables in schema {1} from the version history
+     */
+    POPULATING_CURRENT_VERSION_TABLES("POSTGRES-REPOSITORY-CONNECTOR-0009",
+                       AuditLogRecordSeverityLevel.STARTUP,
+                       "The PostgreSQL repository connector {0} is populating the current version tables in schema {1} from the version history",
+                       "The repository schema was created by an earlier version of the connector that did not maintain the current version tables.  The latest version of each instance is copied into them before the repository starts.  This only happens once.",
+                       "No action is required.  The copy may take some time if the repository holds a lot of metadata."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0010 - The PostgreSQL repository connector {0} is using search indexes of types {1} and index advisor mode {2}
+     */
+    SEARCH_INDEXES("POSTGRES-REPOSITORY-CONNECTOR-0010",
+                       AuditLogRecordSeverityLevel.STARTUP,
+                       "The PostgreSQL repository connector {0} is using search indexes of types {1} and index advisor mode {2}",
+                       "The search indexes of these types are created on the current version tables if they are missing.  The categories are set with the 'searchIndexes' configuration property and the index advisor is controlled with the 'indexAdvisorMode' configuration property.",
+                       "Check that these are the intended values.  Trigram indexes need the pg_trgm extension, which must be available to the database."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0011 - The PostgreSQL repository connector {0} recommends creating index {1} because {2} queries have searched for {3} without it; the index is defined with: {4}
+     */
+    INDEX_RECOMMENDATION("POSTGRES-REPOSITORY-CONNECTOR-0011",
+                       AuditLogRecordSeverityLevel.ACTION,
+                       "The PostgreSQL repository connector {0} recommends creating index {1} because {2} queries have searched for {3} without it; the index is defined with: {4}",
+                       "The index advisor has recorded the property names and operators used in queries and these queries are likely to scan the whole table.",
+                       "Add the category of this index to the 'searchIndexes' configuration property, set 'indexAdvisorMode' to 'create', or issue the statement against the repository's schema."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0012 - The PostgreSQL repository connector {0} has created index {1} because {2} queries have searched for {3}
+     */
+    INDEX_CREATED("POSTGRES-REPOSITORY-CONNECTOR-0012",
+                       AuditLogRecordSeverityLevel.INFO,
+                       "The PostgreSQL repository connector {0} has created index {1} because {2} queries have searched for {3}",
+                       "The index advisor has created a missing search index.  Later queries can use it.",
+                       "No action is required.  Add the category of this index to the 'searchIndexes' configuration property so that it is defined when the repository schema is created."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0013 - The PostgreSQL repository connector {0} is partitioning the history tables in schema {1} on the version end time and keeping {2} months of history attached
+     */
+    HISTORY_PARTITIONING("POSTGRES-REPOSITORY-CONNECTOR-0013",
+                       AuditLogRecordSeverityLevel.STARTUP,
+                       "The PostgreSQL repository connector {0} is partitioning the history tables in schema {1} on the version end time and keeping {2} months of history attached",
+                       "The versions that are no longer the latest version are stored in monthly partitions that are created ahead of time.  This is switched on with the 'partitionHistoryTables' configuration property.  A value of 0 months means the partitions are never detached.",
+                       "Check that these are the intended values.  The partitioned tables need PostgreSQL 15 or later.  The number of months is set with the 'historyRetentionMonths' configuration property."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0014 - The PostgreSQL repository connector {0} cannot partition the history tables in schema {1} because they were created without partitions
+     */
+    HISTORY_NOT_PARTITIONED("POSTGRES-REPOSITORY-CONNECTOR-0014",
+                       AuditLogRecordSeverityLevel.ERROR,
+                       "The PostgreSQL repository connector {0} cannot partition the history tables in schema {1} because they were created without partitions",
+                       "The history tables are only partitioned when the repository schema is created.  The repository continues with the unpartitioned tables.",
+                       "Either remove the 'partitionHistoryTables' configuration property, or unload the repository and reload it into a new schema."),
+
+    /**
+     * POSTGRES-REPOSITORY-CONNECTOR-0015 - The PostgreSQL repository connector {0} has detached partition {1} from history table {2} because it only holds versions that ended before {3}
+     */
+    HISTORY_PARTITION_DETACHED("POSTGRES-REPOSITORY-CONNECTOR-0015",
+                       AuditLogRecordSeverityLevel.INFO,
+                       "The PostgreSQL repository connector {0} has detached partition {1} from history table {2} because it only holds versions that ended before {3}",
+                       "The versions in the partition are older than the 'historyRetentionMonths' configuration property allows.  They are no longer returned by history and asOfTime queries.  The detached partition is left in the schema as a standalone table.",
+                       "Archive the detached table if the old versions need to be kept and then drop it."),
+
     ;
 
     private final String                      logMessageId;
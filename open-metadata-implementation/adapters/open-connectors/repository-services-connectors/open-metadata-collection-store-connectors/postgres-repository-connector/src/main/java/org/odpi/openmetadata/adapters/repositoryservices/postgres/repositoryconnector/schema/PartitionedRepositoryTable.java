@@ -0,0 +1,169 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLColumn;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLForeignKey;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLPartitionedTable;
+
+import java.util.List;
+
+/**
+ * Defines a history table in the repository database schema that is range partitioned on the version end time.
+ * The latest version of each instance has no version end time, so it stays in the default partition until the
+ * next version is stored.  The closed versions then move into the time partitions that are maintained by the
+ * HistoryPartitionManager.  The default partition is limited to the versions with no end time, so adding a time
+ * partition does not scan it.
+ * <br><br>
+ * The unique index on the table includes the version end time, so it stops a version being stored twice while
+ * it is the latest version, but not once one of the copies has been closed out.  The repository only stores a
+ * version that is later than the version in the current version table, which has a primary key on the guid.
+ */
+public class PartitionedRepositoryTable implements PostgreSQLPartitionedTable
+{
+    private final RepositoryTable table;
+
+
+    /**
+     * Define a partitioned history table.
+     *
+     * @param table history table
+     */
+    public PartitionedRepositoryTable(RepositoryTable table)
+    {
+        this.table = table;
+    }
+
+
+    /**
+     * Return the history table that is partitioned.
+     *
+     * @return table
+     */
+    public RepositoryTable getRepositoryTable()
+    {
+        return table;
+    }
+
+
+    /**
+     * Return the column that the table is partitioned on.
+     *
+     * @return column
+     */
+    @Override
+    public PostgreSQLColumn getPartitionColumn()
+    {
+        return RepositoryColumn.VERSION_END_TIME;
+    }
+
+
+    /**
+     * The default partition only holds the versions that have not been closed out.
+     *
+     * @return true
+     */
+    @Override
+    public boolean isDefaultPartitionForNulls()
+    {
+        return true;
+    }
+
+
+    /**
+     * Return the name of the table.
+     *
+     * @return name
+     */
+    @Override
+    public String getTableName()
+    {
+        return table.getTableName();
+    }
+
+
+    /**
+     * Return the name of the table.
+     *
+     * @param schemaName name of schema
+     * @return name
+     */
+    @Override
+    public String getTableName(String schemaName)
+    {
+        return table.getTableName(schemaName);
+    }
+
+
+    /**
+     * Return the description of the table.
+     *
+     * @return text
+     */
+    @Override
+    public String getTableDescription()
+    {
+        return table.getTableDescription() + "  The table is partitioned on the version end time.";
+    }
+
+
+    /**
+     * Return the columns that are primary keys.
+     *
+     * @return list of columns
+     */
+    @Override
+    public List<PostgreSQLColumn> getPrimaryKeys()
+    {
+        return table.getPrimaryKeys();
+    }
+
+
+    /**
+     * Return the columns that are not primary keys.
+     *
+     * @return list of columns
+     */
+    @Override
+    public List<PostgreSQLColumn> getDataColumns()
+    {
+        return table.getDataColumns();
+    }
+
+
+    /**
+     * Return the columns that are added as an extension using ALTER TABLE.
+     *
+     * @return list of columns
+     */
+    @Override
+    public List<PostgreSQLColumn> getNewColumns()
+    {
+        return table.getNewColumns();
+    }
+
+
+    /**
+     * Return the list of foreign keys for this table.
+     *
+     * @return list
+     */
+    @Override
+    public List<PostgreSQLForeignKey> getForeignKeys()
+    {
+        return table.getForeignKeys();
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "PartitionedRepositoryTable{" + table.getTableName() + "}";
+    }
+}
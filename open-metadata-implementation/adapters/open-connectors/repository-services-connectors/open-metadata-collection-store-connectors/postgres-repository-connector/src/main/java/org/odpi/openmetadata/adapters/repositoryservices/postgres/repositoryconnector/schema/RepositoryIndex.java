@@ -0,0 +1,293 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLIndex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Defines the optional search indexes on the current version tables of the repository database schema.
+ * Queries for the latest versions of instances read these tables, so this is where the indexes help the searches
+ * that would otherwise scan every attribute value.
+ */
+public enum RepositoryIndex implements PostgreSQLIndex
+{
+    CURRENT_ENTITY_ATTRIBUTE_NAME("current_entity_attribute_value_name_idx",
+                                  RepositoryTable.CURRENT_ENTITY_ATTRIBUTE_VALUE,
+                                  RepositoryIndexType.COMPOSITE,
+                                  "btree",
+                                  new String[]{"attribute_name", "instance_guid"},
+                                  "Locates the entities that have a value for a named attribute."),
+
+    CURRENT_ENTITY_PROPERTY_VALUE_TRIGRAM("current_entity_attribute_value_trgm_idx",
+                                          RepositoryTable.CURRENT_ENTITY_ATTRIBUTE_VALUE,
+                                          RepositoryIndexType.TRIGRAM,
+                                          "gin",
+                                          new String[]{"property_value gin_trgm_ops"},
+                                          "Supports string-contains and regular expression searches on entity property values."),
+
+    CURRENT_ENTITY_PROPERTY_VALUE_HASH("current_entity_attribute_value_md5_idx",
+                                       RepositoryTable.CURRENT_ENTITY_ATTRIBUTE_VALUE,
+                                       RepositoryIndexType.EXPRESSION,
+                                       "btree",
+                                       new String[]{"attribute_name", "md5(property_value)"},
+                                       "Supports exact matches on entity property values of any length."),
+
+    CURRENT_ENTITY_TYPE_NAME_TRIGRAM("current_entity_type_name_trgm_idx",
+                                     RepositoryTable.CURRENT_ENTITY,
+                                     RepositoryIndexType.TRIGRAM,
+                                     "gin",
+                                     new String[]{"type_name gin_trgm_ops"},
+                                     "Supports the pattern matches on the type name hierarchy that select entities of a type and its subtypes."),
+
+    CURRENT_RELATIONSHIP_ATTRIBUTE_NAME("current_relationship_attribute_value_name_idx",
+                                        RepositoryTable.CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE,
+                                        RepositoryIndexType.COMPOSITE,
+                                        "btree",
+                                        new String[]{"attribute_name", "instance_guid"},
+                                        "Locates the relationships that have a value for a named attribute."),
+
+    CURRENT_RELATIONSHIP_PROPERTY_VALUE_TRIGRAM("current_relationship_attribute_value_trgm_idx",
+                                                RepositoryTable.CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE,
+                                                RepositoryIndexType.TRIGRAM,
+                                                "gin",
+                                                new String[]{"property_value gin_trgm_ops"},
+                                                "Supports string-contains and regular expression searches on relationship property values."),
+
+    CURRENT_RELATIONSHIP_PROPERTY_VALUE_HASH("current_relationship_attribute_value_md5_idx",
+                                             RepositoryTable.CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE,
+                                             RepositoryIndexType.EXPRESSION,
+                                             "btree",
+                                             new String[]{"attribute_name", "md5(property_value)"},
+                                             "Supports exact matches on relationship property values of any length."),
+
+    CURRENT_RELATIONSHIP_TYPE_NAME_TRIGRAM("current_relationship_type_name_trgm_idx",
+                                           RepositoryTable.CURRENT_RELATIONSHIP,
+                                           RepositoryIndexType.TRIGRAM,
+                                           "gin",
+                                           new String[]{"type_name gin_trgm_ops"},
+                                           "Supports the pattern matches on the type name hierarchy that select relationships of a type and its subtypes."),
+
+    CURRENT_CLASSIFICATION_ATTRIBUTE_NAME("current_classification_attribute_value_name_idx",
+                                          RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE,
+                                          RepositoryIndexType.COMPOSITE,
+                                          "btree",
+                                          new String[]{"attribute_name", "instance_guid"},
+                                          "Locates the classifications that have a value for a named attribute."),
+
+    CURRENT_CLASSIFICATION_PROPERTY_VALUE_TRIGRAM("current_classification_attribute_value_trgm_idx",
+                                                  RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE,
+                                                  RepositoryIndexType.TRIGRAM,
+                                                  "gin",
+                                                  new String[]{"property_value gin_trgm_ops"},
+                                                  "Supports string-contains and regular expression searches on classification property values."),
+
+    CURRENT_CLASSIFICATION_PROPERTY_VALUE_HASH("current_classification_attribute_value_md5_idx",
+                                               RepositoryTable.CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE,
+                                               RepositoryIndexType.EXPRESSION,
+                                               "btree",
+                                               new String[]{"attribute_name", "md5(property_value)"},
+                                               "Supports exact matches on classification property values of any length."),
+
+    CURRENT_CLASSIFICATION_TYPE_NAME_TRIGRAM("current_classification_type_name_trgm_idx",
+                                             RepositoryTable.CURRENT_CLASSIFICATION,
+                                             RepositoryIndexType.TRIGRAM,
+                                             "gin",
+                                             new String[]{"type_name gin_trgm_ops"},
+                                             "Supports the pattern matches on the type name hierarchy that select classifications of a type and its subtypes."),
+
+    ;
+
+    private final String              indexName;
+    private final RepositoryTable     table;
+    private final RepositoryIndexType indexType;
+    private final String              indexMethod;
+    private final String[]            indexedExpressions;
+    private final String              indexDescription;
+
+
+    /**
+     * Define a repository index.
+     *
+     * @param indexName name of the index
+     * @param table table that is indexed
+     * @param indexType category of index
+     * @param indexMethod index access method
+     * @param indexedExpressions columns or expressions to index
+     * @param indexDescription description of the index
+     */
+    RepositoryIndex(String              indexName,
+                    RepositoryTable     table,
+                    RepositoryIndexType indexType,
+                    String              indexMethod,
+                    String[]            indexedExpressions,
+                    String              indexDescription)
+    {
+        this.indexName          = indexName;
+        this.table              = table;
+        this.indexType          = indexType;
+        this.indexMethod        = indexMethod;
+        this.indexedExpressions = indexedExpressions;
+        this.indexDescription   = indexDescription;
+    }
+
+
+    /**
+     * Return the name of the index.
+     *
+     * @return name
+     */
+    @Override
+    public String getIndexName()
+    {
+        return indexName;
+    }
+
+
+    /**
+     * Return the name of the table that the index is defined on.
+     *
+     * @return name
+     */
+    @Override
+    public String getTableName()
+    {
+        return table.getTableName();
+    }
+
+
+    /**
+     * Return the table that the index is defined on.
+     *
+     * @return table
+     */
+    public RepositoryTable getTable()
+    {
+        return table;
+    }
+
+
+    /**
+     * Return the category of the index.
+     *
+     * @return index type
+     */
+    public RepositoryIndexType getIndexType()
+    {
+        return indexType;
+    }
+
+
+    /**
+     * Return the optional description of the index.
+     *
+     * @return text
+     */
+    @Override
+    public String getIndexDescription()
+    {
+        return indexDescription;
+    }
+
+
+    /**
+     * Return the index access method, such as btree or gin.
+     *
+     * @return name of access method
+     */
+    @Override
+    public String getIndexMethod()
+    {
+        return indexMethod;
+    }
+
+
+    /**
+     * Return the columns or expressions that are indexed, in order.
+     *
+     * @return list of column names or expressions
+     */
+    @Override
+    public List<String> getIndexedExpressions()
+    {
+        return Arrays.asList(indexedExpressions);
+    }
+
+
+    /**
+     * Return the name of the PostgreSQL extension that supplies the operator class used by the index.
+     *
+     * @return name of extension or null
+     */
+    @Override
+    public String getRequiredExtension()
+    {
+        return indexType.getRequiredExtension();
+    }
+
+
+    /**
+     * Return the indexes of the requested categories for schema building.
+     *
+     * @param indexTypes categories of index to include (maybe null)
+     * @return list of indexes
+     */
+    public static List<PostgreSQLIndex> getIndexes(List<RepositoryIndexType> indexTypes)
+    {
+        List<PostgreSQLIndex> indexes = new ArrayList<>();
+
+        if (indexTypes != null)
+        {
+            for (RepositoryIndex index : RepositoryIndex.values())
+            {
+                if (indexTypes.contains(index.getIndexType()))
+                {
+                    indexes.add(index);
+                }
+            }
+        }
+
+        return indexes;
+    }
+
+
+    /**
+     * Return the index of the requested category on a table.  A query on a history table is matched to the
+     * index on its current version table.
+     *
+     * @param table table that is queried
+     * @param indexType category of index
+     * @return index or null if there is no index of this category for the table
+     */
+    public static RepositoryIndex getIndex(RepositoryTable     table,
+                                           RepositoryIndexType indexType)
+    {
+        RepositoryTable indexedTable = table.getQueryTable(null);
+
+        for (RepositoryIndex index : RepositoryIndex.values())
+        {
+            if ((index.getTable() == indexedTable) && (index.getIndexType() == indexType))
+            {
+                return index;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "RepositoryIndex{" + indexName + "}";
+    }
+}
@@ -0,0 +1,114 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema;
+
+/**
+ * Describes the categories of search index that can be defined on the repository tables.  Each category is
+ * switched on through the connector's configuration properties.
+ */
+public enum RepositoryIndexType
+{
+    /**
+     * Multi-column btree indexes that let attribute lookups start from the attribute name.
+     */
+    COMPOSITE("composite", null, "Multi-column btree indexes that let attribute lookups start from the attribute name."),
+
+    /**
+     * GIN trigram indexes that support like, ilike and regular expression matches anywhere in a string value.
+     */
+    TRIGRAM("trigram", "pg_trgm", "GIN trigram indexes that support like, ilike and regular expression matches anywhere in a string value.  They need the pg_trgm extension."),
+
+    /**
+     * Btree indexes on expressions that support exact matches on property values of any length.
+     */
+    EXPRESSION("expression", null, "Btree indexes on a hash of the property value that support exact matches on property values of any length."),
+
+    ;
+
+    private final String name;
+    private final String requiredExtension;
+    private final String description;
+
+
+    /**
+     * Define a category of index.
+     *
+     * @param name name used in the configuration properties
+     * @param requiredExtension PostgreSQL extension needed by the indexes (or null)
+     * @param description description of the category
+     */
+    RepositoryIndexType(String name,
+                        String requiredExtension,
+                        String description)
+    {
+        this.name              = name;
+        this.requiredExtension = requiredExtension;
+        this.description       = description;
+    }
+
+
+    /**
+     * Return the name used in the configuration properties.
+     *
+     * @return name
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+
+    /**
+     * Return the PostgreSQL extension needed by this category of index.
+     *
+     * @return name of extension or null
+     */
+    public String getRequiredExtension()
+    {
+        return requiredExtension;
+    }
+
+
+    /**
+     * Return the description of the category.
+     *
+     * @return text
+     */
+    public String getDescription()
+    {
+        return description;
+    }
+
+
+    /**
+     * Return the index type with the supplied name.
+     *
+     * @param name name from the configuration properties
+     * @return index type or null if the name is not recognized
+     */
+    public static RepositoryIndexType getIndexType(String name)
+    {
+        for (RepositoryIndexType indexType : RepositoryIndexType.values())
+        {
+            if (indexType.getName().equalsIgnoreCase(name))
+            {
+                return indexType;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Standard toString method.
+     *
+     * @return JSON style description of variables.
+     */
+    @Override
+    public String toString()
+    {
+        return "RepositoryIndexType{" + name + "}";
+    }
+}
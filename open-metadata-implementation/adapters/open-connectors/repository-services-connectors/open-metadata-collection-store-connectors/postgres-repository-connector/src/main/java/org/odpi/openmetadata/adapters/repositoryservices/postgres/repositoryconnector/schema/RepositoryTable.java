@@ -143,7 +143,8 @@ public enum RepositoryTable implements PostgreSQLTable
                                    RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
                                    RepositoryColumn.ATTRIBUTE_TYPE_GUID,
                                    RepositoryColumn.ATTRIBUTE_TYPE_NAME},
-                           null
+                           new RepositoryColumn[]{
+                                   RepositoryColumn.VERSION_END_TIME}
     ),
 
     /**
@@ -163,7 +164,8 @@ public enum RepositoryTable implements PostgreSQLTable
                                            RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
                                            RepositoryColumn.ATTRIBUTE_TYPE_GUID,
                                            RepositoryColumn.ATTRIBUTE_TYPE_NAME},
-                                   null
+                                   new RepositoryColumn[]{
+                                           RepositoryColumn.VERSION_END_TIME}
     ),
 
     /**
@@ -182,7 +184,173 @@ public enum RepositoryTable implements PostgreSQLTable
                                          RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
                                          RepositoryColumn.ATTRIBUTE_TYPE_GUID,
                                          RepositoryColumn.ATTRIBUTE_TYPE_NAME},
-                                 null
+                                 new RepositoryColumn[]{
+                                         RepositoryColumn.VERSION_END_TIME}
+    ),
+
+    /**
+     * Latest version of each entity instance.
+     */
+    CURRENT_ENTITY("current_entity",
+                   "Latest version of each entity instance.  It is maintained alongside the entity table so queries for the latest versions do not scan the version history.",
+                   new RepositoryColumn[]{
+                           RepositoryColumn.INSTANCE_GUID},
+                   new RepositoryColumn[]{
+                           RepositoryColumn.VERSION,
+                           RepositoryColumn.VERSION_START_TIME,
+                           RepositoryColumn.VERSION_END_TIME,
+                           RepositoryColumn.IS_PROXY,
+                           RepositoryColumn.TYPE_GUID,
+                           RepositoryColumn.TYPE_NAME,
+                           RepositoryColumn.CURRENT_STATUS,
+                           RepositoryColumn.INSTANCE_PROVENANCE_TYPE,
+                           RepositoryColumn.METADATA_COLLECTION_GUID,
+                           RepositoryColumn.METADATA_COLLECTION_NAME,
+                           RepositoryColumn.MAPPING_PROPERTIES,
+                           RepositoryColumn.EFFECTIVE_FROM_TIME,
+                           RepositoryColumn.EFFECTIVE_TO_TIME,
+                           RepositoryColumn.REPLICATED_BY,
+                           RepositoryColumn.CREATED_BY,
+                           RepositoryColumn.UPDATED_BY,
+                           RepositoryColumn.MAINTAINED_BY,
+                           RepositoryColumn.CREATE_TIME,
+                           RepositoryColumn.UPDATE_TIME,
+                           RepositoryColumn.STATUS_ON_DELETE,
+                           RepositoryColumn.INSTANCE_LICENCE,
+                           RepositoryColumn.REIDENTIFIED_FROM_GUID,
+                           RepositoryColumn.LAST_REQUEST_ID},
+                   null,
+                   ENTITY
+    ),
+
+    /**
+     * Latest version of each relationship instance.
+     */
+    CURRENT_RELATIONSHIP("current_relationship",
+                         "Latest version of each relationship instance.  It is maintained alongside the relationship table so queries for the latest versions do not scan the version history.",
+                         new RepositoryColumn[]{
+                                 RepositoryColumn.INSTANCE_GUID},
+                         new RepositoryColumn[]{
+                                 RepositoryColumn.VERSION,
+                                 RepositoryColumn.VERSION_START_TIME,
+                                 RepositoryColumn.VERSION_END_TIME,
+                                 RepositoryColumn.TYPE_GUID,
+                                 RepositoryColumn.TYPE_NAME,
+                                 RepositoryColumn.END_1_GUID,
+                                 RepositoryColumn.END_2_GUID,
+                                 RepositoryColumn.CURRENT_STATUS,
+                                 RepositoryColumn.INSTANCE_PROVENANCE_TYPE,
+                                 RepositoryColumn.METADATA_COLLECTION_GUID,
+                                 RepositoryColumn.METADATA_COLLECTION_NAME,
+                                 RepositoryColumn.MAPPING_PROPERTIES,
+                                 RepositoryColumn.EFFECTIVE_FROM_TIME,
+                                 RepositoryColumn.EFFECTIVE_TO_TIME,
+                                 RepositoryColumn.REPLICATED_BY,
+                                 RepositoryColumn.CREATED_BY,
+                                 RepositoryColumn.UPDATED_BY,
+                                 RepositoryColumn.MAINTAINED_BY,
+                                 RepositoryColumn.CREATE_TIME,
+                                 RepositoryColumn.UPDATE_TIME,
+                                 RepositoryColumn.STATUS_ON_DELETE,
+                                 RepositoryColumn.INSTANCE_LICENCE,
+                                 RepositoryColumn.REIDENTIFIED_FROM_GUID,
+                                 RepositoryColumn.LAST_REQUEST_ID},
+                         null,
+                         RELATIONSHIP
+    ),
+
+    /**
+     * Latest version of each classification attached to an entity instance.
+     */
+    CURRENT_CLASSIFICATION("current_classification",
+                           "Latest version of each classification attached to an entity instance.  It is maintained alongside the classification table so queries for the latest versions do not scan the version history.",
+                           new RepositoryColumn[]{
+                                   RepositoryColumn.INSTANCE_GUID,
+                                   RepositoryColumn.CLASSIFICATION_NAME},
+                           new RepositoryColumn[]{
+                                   RepositoryColumn.VERSION,
+                                   RepositoryColumn.VERSION_START_TIME,
+                                   RepositoryColumn.VERSION_END_TIME,
+                                   RepositoryColumn.TYPE_GUID,
+                                   RepositoryColumn.TYPE_NAME,
+                                   RepositoryColumn.CURRENT_STATUS,
+                                   RepositoryColumn.INSTANCE_PROVENANCE_TYPE,
+                                   RepositoryColumn.METADATA_COLLECTION_GUID,
+                                   RepositoryColumn.METADATA_COLLECTION_NAME,
+                                   RepositoryColumn.MAPPING_PROPERTIES,
+                                   RepositoryColumn.EFFECTIVE_FROM_TIME,
+                                   RepositoryColumn.EFFECTIVE_TO_TIME,
+                                   RepositoryColumn.REPLICATED_BY,
+                                   RepositoryColumn.CREATED_BY,
+                                   RepositoryColumn.UPDATED_BY,
+                                   RepositoryColumn.MAINTAINED_BY,
+                                   RepositoryColumn.CREATE_TIME,
+                                   RepositoryColumn.UPDATE_TIME,
+                                   RepositoryColumn.STATUS_ON_DELETE,
+                                   RepositoryColumn.LAST_REQUEST_ID},
+                           null,
+                           CLASSIFICATION
+    ),
+
+    /**
+     * Attributes for the latest version of each entity.
+     */
+    CURRENT_ENTITY_ATTRIBUTE_VALUE("current_entity_attribute_value",
+                                   "Attributes for the latest version of each entity, or for entity properties that are collections.",
+                                   new RepositoryColumn[]{
+                                           RepositoryColumn.INSTANCE_GUID,
+                                           RepositoryColumn.PROPERTY_NAME},
+                                   new RepositoryColumn[]{
+                                           RepositoryColumn.VERSION,
+                                           RepositoryColumn.ATTRIBUTE_NAME,
+                                           RepositoryColumn.PROPERTY_VALUE,
+                                           RepositoryColumn.PROPERTY_CATEGORY,
+                                           RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
+                                           RepositoryColumn.ATTRIBUTE_TYPE_GUID,
+                                           RepositoryColumn.ATTRIBUTE_TYPE_NAME},
+                                   null,
+                                   ENTITY_ATTRIBUTE_VALUE
+    ),
+
+    /**
+     * Attributes for the latest version of each classification.
+     */
+    CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE("current_classification_attribute_value",
+                                           "Attributes for the latest version of each classification, or for classification properties that are collections.",
+                                           new RepositoryColumn[]{
+                                                   RepositoryColumn.INSTANCE_GUID,
+                                                   RepositoryColumn.CLASSIFICATION_NAME,
+                                                   RepositoryColumn.PROPERTY_NAME},
+                                           new RepositoryColumn[]{
+                                                   RepositoryColumn.VERSION,
+                                                   RepositoryColumn.ATTRIBUTE_NAME,
+                                                   RepositoryColumn.PROPERTY_VALUE,
+                                                   RepositoryColumn.PROPERTY_CATEGORY,
+                                                   RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
+                                                   RepositoryColumn.ATTRIBUTE_TYPE_GUID,
+                                                   RepositoryColumn.ATTRIBUTE_TYPE_NAME},
+                                           null,
+                                           CLASSIFICATION_ATTRIBUTE_VALUE
+    ),
+
+    /**
+     * Attributes for the latest version of each relationship.
+     */
+    CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE("current_relationship_attribute_value",
+                                         "Attributes for the latest version of each relationship, or for relationship properties that are collections.",
+                                         new RepositoryColumn[]{
+                                                 RepositoryColumn.INSTANCE_GUID,
+                                                 RepositoryColumn.PROPERTY_NAME},
+                                         new RepositoryColumn[]{
+                                                 RepositoryColumn.VERSION,
+                                                 RepositoryColumn.ATTRIBUTE_NAME,
+                                                 RepositoryColumn.PROPERTY_VALUE,
+                                                 RepositoryColumn.PROPERTY_CATEGORY,
+                                                 RepositoryColumn.IS_UNIQUE_ATTRIBUTE,
+                                                 RepositoryColumn.ATTRIBUTE_TYPE_GUID,
+                                                 RepositoryColumn.ATTRIBUTE_TYPE_NAME},
+                                         null,
+                                         RELATIONSHIP_ATTRIBUTE_VALUE
     ),
 
     ;
@@ -192,6 +360,7 @@ public enum RepositoryTable implements PostgreSQLTable
     private final RepositoryColumn[]     primaryKeys;
     private final RepositoryColumn[]     dataColumns;
     private final RepositoryColumn[]     newColumns;
+    private final RepositoryTable        historyTable;
 
 
     /**
@@ -208,12 +377,34 @@ public enum RepositoryTable implements PostgreSQLTable
                     RepositoryColumn[]     primaryKeys,
                     RepositoryColumn[]     dataColumns,
                     RepositoryColumn[]     newColumns)
+    {
+        this(tableName, tableDescription, primaryKeys, dataColumns, newColumns, null);
+    }
+
+
+    /**
+     * Define a repository table that holds the latest version of each instance stored in a history table.
+     *
+     * @param tableName name of the table
+     * @param tableDescription description of the table
+     * @param primaryKeys list of primary keys
+     * @param dataColumns list of additional columns
+     * @param newColumns list of columns added as an extension using ALTER TABLE
+     * @param historyTable table holding all versions of the instances
+     */
+    RepositoryTable(String                 tableName,
+                    String                 tableDescription,
+                    RepositoryColumn[]     primaryKeys,
+                    RepositoryColumn[]     dataColumns,
+                    RepositoryColumn[]     newColumns,
+                    RepositoryTable        historyTable)
     {
         this.tableName        = tableName;
         this.tableDescription = tableDescription;
         this.primaryKeys      = primaryKeys;
         this.dataColumns      = dataColumns;
         this.newColumns       = newColumns;
+        this.historyTable     = historyTable;
     }
 
 
@@ -229,8 +420,6 @@ public enum RepositoryTable implements PostgreSQLTable
     }
 
 
-
-
     /**
      * Return the name of the table.
      *
@@ -365,6 +554,137 @@ public enum RepositoryTable implements PostgreSQLTable
     }
 
 
+    /**
+     * Return the unqualified column names.
+     *
+     * @return list of column names
+     */
+    public List<String> getColumnNames()
+    {
+        List<String> columnNames = new ArrayList<>();
+
+        if (primaryKeys != null)
+        {
+            for (RepositoryColumn column: primaryKeys)
+            {
+                columnNames.add(column.getColumnName());
+            }
+        }
+
+        if (dataColumns != null)
+        {
+            for (RepositoryColumn column: dataColumns)
+            {
+                columnNames.add(column.getColumnName());
+            }
+        }
+
+        if (newColumns != null)
+        {
+            for (RepositoryColumn column: newColumns)
+            {
+                columnNames.add(column.getColumnName());
+            }
+        }
+
+        return columnNames;
+    }
+
+
+    /**
+     * Return the table holding all versions of the instances for a current version table.
+     *
+     * @return table or null if this is not a current version table
+     */
+    public RepositoryTable getHistoryTable()
+    {
+        return historyTable;
+    }
+
+
+    /**
+     * Return the table holding the latest version of each instance stored in this table.
+     *
+     * @return table or null if this table does not have a current version table
+     */
+    public RepositoryTable getCurrentVersionTable()
+    {
+        for (RepositoryTable table : RepositoryTable.values())
+        {
+            if (table.historyTable == this)
+            {
+                return table;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the table to read for a query on this table.  Queries for the latest versions (no asOfTime) read
+     * the current version table if there is one.
+     *
+     * @param asOfTime database time for the query
+     * @return table
+     */
+    public RepositoryTable getQueryTable(Date asOfTime)
+    {
+        if (asOfTime == null)
+        {
+            RepositoryTable currentVersionTable = this.getCurrentVersionTable();
+
+            if (currentVersionTable != null)
+            {
+                return currentVersionTable;
+            }
+        }
+
+        return this;
+    }
+
+
+    /**
+     * Return the table to name in the from clause of a query on this table.  When the query reads the current
+     * version table, it is given the name of this table as an alias so the column names qualified with this
+     * table's name still resolve.
+     *
+     * @param asOfTime database time for the query
+     * @return table name, possibly with alias
+     */
+    public String getQueryTableName(Date asOfTime)
+    {
+        RepositoryTable queryTable = this.getQueryTable(asOfTime);
+
+        if (queryTable != this)
+        {
+            return queryTable.getTableName() + " " + tableName;
+        }
+
+        return tableName;
+    }
+
+
+    /**
+     * Return the table to name in the from clause of a query on the named table.
+     *
+     * @param tableName name of a repository table
+     * @param asOfTime database time for the query
+     * @return table name, possibly with alias
+     */
+    public static String getQueryTableName(String tableName,
+                                           Date   asOfTime)
+    {
+        for (RepositoryTable table : RepositoryTable.values())
+        {
+            if (table.getTableName().equals(tableName))
+            {
+                return table.getQueryTableName(asOfTime);
+            }
+        }
+
+        return tableName;
+    }
 
 
     /**
@@ -396,6 +716,69 @@ public enum RepositoryTable implements PostgreSQLTable
     }
 
 
+    /**
+     * Return the optional search indexes that may be defined on this table.
+     *
+     * @return list of indexes (empty if there are none)
+     */
+    public List<RepositoryIndex> getIndexes()
+    {
+        List<RepositoryIndex> indexes = new ArrayList<>();
+
+        for (RepositoryIndex index : RepositoryIndex.values())
+        {
+            if (index.getTable() == this)
+            {
+                indexes.add(index);
+            }
+        }
+
+        return indexes;
+    }
+
+
+    /**
+     * Return the table holding the attributes of the instances stored in this table.
+     *
+     * @return table or null if this table does not hold instances
+     */
+    public RepositoryTable getAttributeTable()
+    {
+        return switch (this)
+        {
+            case ENTITY -> ENTITY_ATTRIBUTE_VALUE;
+            case RELATIONSHIP -> RELATIONSHIP_ATTRIBUTE_VALUE;
+            case CLASSIFICATION -> CLASSIFICATION_ATTRIBUTE_VALUE;
+            case CURRENT_ENTITY -> CURRENT_ENTITY_ATTRIBUTE_VALUE;
+            case CURRENT_RELATIONSHIP -> CURRENT_RELATIONSHIP_ATTRIBUTE_VALUE;
+            case CURRENT_CLASSIFICATION -> CURRENT_CLASSIFICATION_ATTRIBUTE_VALUE;
+            default -> null;
+        };
+    }
+
+
+    /**
+     * Return the tables that hold all versions of the instances and their attributes.  These are the tables
+     * that may be partitioned on the version end time.
+     *
+     * @return list of tables
+     */
+    public static List<RepositoryTable> getHistoryTables()
+    {
+        List<RepositoryTable> historyTables = new ArrayList<>();
+
+        for (RepositoryTable table : RepositoryTable.values())
+        {
+            if (table.getCurrentVersionTable() != null)
+            {
+                historyTables.add(table);
+            }
+        }
+
+        return historyTables;
+    }
+
+
     /**
      * Return the tables for schema building.
      *
@@ -407,6 +790,33 @@ public enum RepositoryTable implements PostgreSQLTable
     }
 
 
+    /**
+     * Return the tables for schema building with the history tables optionally partitioned on the version
+     * end time.
+     *
+     * @param partitionHistoryTables should the history tables be partitioned?
+     * @return list of tables
+     */
+    public static List<PostgreSQLTable> getTables(boolean partitionHistoryTables)
+    {
+        List<PostgreSQLTable> tables = new ArrayList<>();
+
+        for (RepositoryTable table : RepositoryTable.values())
+        {
+            if ((partitionHistoryTables) && (table.getCurrentVersionTable() != null))
+            {
+                tables.add(new PartitionedRepositoryTable(table));
+            }
+            else
+            {
+                tables.add(table);
+            }
+        }
+
+        return tables;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -0,0 +1,160 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that queries for the latest versions read the current version tables, that historical queries read
+ * the history tables, and that the current version tables are kept in step when instances are purged.
+ */
+public class CurrentVersionTablesTest
+{
+    private static final String repositoryName = "TestRepository";
+
+    private final OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+
+    @Test
+    public void testLatestVersionQueriesUseCurrentTables() throws Exception
+    {
+        QueryBuilder queryBuilder = this.getQueryBuilder(null);
+
+        assertEquals(queryBuilder.getPrincipleQueryTableName(), "current_entity entity");
+
+        String whereClause = queryBuilder.getAsOfTimeWhereClause(new ArrayList<>());
+
+        assertTrue(whereClause.contains(" from current_entity_attribute_value entity_attribute_value"));
+    }
+
+
+    @Test
+    public void testHistoricalQueriesUseHistoryTables() throws Exception
+    {
+        QueryBuilder queryBuilder = this.getQueryBuilder(new Date());
+
+        assertEquals(queryBuilder.getPrincipleQueryTableName(), RepositoryTable.ENTITY.getTableName());
+
+        String whereClause = queryBuilder.getAsOfTimeWhereClause(new ArrayList<>());
+
+        assertTrue(whereClause.contains(" from entity_attribute_value where "));
+        assertFalse(whereClause.contains("current_entity"));
+    }
+
+
+    @Test
+    public void testTableNamesWithoutCurrentTables()
+    {
+        assertEquals(RepositoryTable.CONTROL.getQueryTableName(null), RepositoryTable.CONTROL.getTableName());
+        assertEquals(RepositoryTable.getQueryTableName("unknown", null), "unknown");
+        assertEquals(RepositoryTable.ENTITY.getCurrentVersionTable(), RepositoryTable.CURRENT_ENTITY);
+        assertEquals(RepositoryTable.CURRENT_ENTITY.getHistoryTable(), RepositoryTable.ENTITY);
+    }
+
+
+    @Test
+    public void testPurgeRemovesCurrentVersion() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = this.getMockConnector(new ArrayList<>());
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        {
+            databaseStore.purgeRelationship("relationship-guid");
+        }
+
+        verify(jdbcResourceConnector).issueSQLCommand(any(Connection.class),
+                                                      eq("delete from current_relationship where instance_guid = ?"),
+                                                      anyList());
+        verify(jdbcResourceConnector).issueSQLCommand(any(Connection.class),
+                                                      eq("delete from current_relationship_attribute_value where instance_guid = ?"),
+                                                      anyList());
+    }
+
+
+    @Test
+    public void testPopulateCurrentVersionTables() throws Exception
+    {
+        List<String>          sqlCommands           = new ArrayList<>();
+        JDBCResourceConnector jdbcResourceConnector = this.getMockConnector(sqlCommands);
+
+        try (DatabaseStore databaseStore = new DatabaseStore(jdbcResourceConnector, repositoryName, repositoryHelper))
+        {
+            databaseStore.populateCurrentVersionTables();
+        }
+
+        assertEquals(sqlCommands.size(), 6);
+        assertTrue(sqlCommands.get(0).startsWith("insert into current_entity (instance_guid, version, "));
+        assertTrue(sqlCommands.get(0).contains(" where entity.version_end_time is null "));
+        assertTrue(sqlCommands.get(5).contains(" join current_classification on " +
+                                                       "current_classification.instance_guid = classification_attribute_value.instance_guid and " +
+                                                       "current_classification.classification_name = classification_attribute_value.classification_name and " +
+                                                       "current_classification.version = classification_attribute_value.version "));
+    }
+
+
+    /**
+     * Create a query for entities that match a search string.
+     *
+     * @param asOfTime time of the query or null for the latest versions
+     * @return query builder
+     * @throws Exception invalid query
+     */
+    private QueryBuilder getQueryBuilder(Date asOfTime) throws Exception
+    {
+        QueryBuilder queryBuilder = new QueryBuilder(RepositoryTable.ENTITY.getTableName(),
+                                                     RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
+                                                     repositoryHelper,
+                                                     repositoryName);
+
+        queryBuilder.setSearchString("asset", false, false, true);
+        queryBuilder.setAsOfTime(asOfTime);
+
+        return queryBuilder;
+    }
+
+
+    /**
+     * Create a connector that records the SQL commands that are issued without parameters.
+     *
+     * @param sqlCommands list for the commands
+     * @return mock connector
+     * @throws Exception problem setting up the mock
+     */
+    private JDBCResourceConnector getMockConnector(List<String> sqlCommands) throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        DataSource            dataSource            = mock(DataSource.class);
+
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcResourceConnector.getDataSource()).thenReturn(dataSource);
+
+        doAnswer(invocation ->
+        {
+            sqlCommands.add(invocation.getArgument(1));
+            return null;
+        }).when(jdbcResourceConnector).issueSQLCommand(any(Connection.class), anyString());
+
+        return jdbcResourceConnector;
+    }
+}
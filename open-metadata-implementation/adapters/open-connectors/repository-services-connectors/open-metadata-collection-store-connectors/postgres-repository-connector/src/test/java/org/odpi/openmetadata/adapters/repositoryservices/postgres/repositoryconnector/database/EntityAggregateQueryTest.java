@@ -0,0 +1,576 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCRowCursor;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ClassificationMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.EntityMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Compare the round trips to the database and the rows fetched for a page of entities when the properties and
+ * classifications are retrieved with separate queries and with the entity aggregate query.  The database is
+ * replaced by a mock JDBC resource connector that returns the rows the database would return and counts the
+ * requests.  For a page of 100 entities, each with 5 attributes and 2 classifications that each have 3 attributes,
+ * the separate queries need 4 round trips and fetch 1400 rows.  The aggregate query needs 1 round trip and
+ * fetches 100 rows.
+ */
+public class EntityAggregateQueryTest
+{
+    private static final String repositoryName = "TestRepository";
+
+    private static final int pageSize                     = 100;
+    private static final int attributesPerEntity          = 5;
+    private static final int classificationsPerEntity     = 2;
+    private static final int attributesPerClassification  = 3;
+
+    private final OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+    private final ObjectMapper         objectMapper     = new ObjectMapper();
+
+    private final List<Map<String, JDBCDataValue>> entityRows                  = new ArrayList<>();
+    private final List<Map<String, JDBCDataValue>> entityAttributeRows         = new ArrayList<>();
+    private final List<Map<String, JDBCDataValue>> classificationRows          = new ArrayList<>();
+    private final List<Map<String, JDBCDataValue>> classificationAttributeRows = new ArrayList<>();
+    private final List<Map<String, JDBCDataValue>> aggregateRows               = new ArrayList<>();
+
+    private int                 roundTrips          = 0;
+    private int                 rowsFetched         = 0;
+    private String              lastQuery           = null;
+    private List<JDBCDataValue> lastParameters      = null;
+
+
+    @BeforeMethod
+    public void createRows() throws Exception
+    {
+        entityRows.clear();
+        entityAttributeRows.clear();
+        classificationRows.clear();
+        classificationAttributeRows.clear();
+        aggregateRows.clear();
+
+        Timestamp createTime = Timestamp.valueOf("2024-03-01 10:15:30.123456");
+
+        for (int entityIndex = 0; entityIndex < pageSize; entityIndex++)
+        {
+            String     entityGUID = "entity-" + entityIndex;
+            BigDecimal version    = BigDecimal.valueOf(entityIndex + 1L);
+
+            Map<String, JDBCDataValue> entityRow = new HashMap<>();
+
+            entityRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(entityGUID, Types.VARCHAR));
+            entityRow.put(RepositoryColumn.VERSION.getColumnName(), new JDBCDataValue(version, Types.BIGINT));
+            entityRow.put(RepositoryColumn.TYPE_NAME.getColumnName(), new JDBCDataValue("Asset", Types.VARCHAR));
+            entityRow.put(RepositoryColumn.IS_PROXY.getColumnName(), new JDBCDataValue(false, Types.BOOLEAN));
+            entityRow.put(RepositoryColumn.CREATE_TIME.getColumnName(), new JDBCDataValue(createTime, Types.TIMESTAMP));
+            entityRow.put(RepositoryColumn.VERSION_START_TIME.getColumnName(), new JDBCDataValue(createTime, Types.TIMESTAMP));
+
+            entityRows.add(entityRow);
+
+            List<Map<String, JDBCDataValue>> attributes = new ArrayList<>();
+
+            for (int attributeIndex = 0; attributeIndex < attributesPerEntity; attributeIndex++)
+            {
+                attributes.add(this.getAttributeRow(entityGUID, null, version, attributeIndex));
+            }
+
+            entityAttributeRows.addAll(attributes);
+
+            List<Map<String, Object>> classifications = new ArrayList<>();
+
+            for (int classificationIndex = 0; classificationIndex < classificationsPerEntity; classificationIndex++)
+            {
+                String     classificationName    = "Classification" + classificationIndex;
+                BigDecimal classificationVersion = BigDecimal.valueOf(classificationIndex + 7L);
+
+                Map<String, JDBCDataValue> classificationRow = new HashMap<>();
+
+                classificationRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(entityGUID, Types.VARCHAR));
+                classificationRow.put(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), new JDBCDataValue(classificationName, Types.VARCHAR));
+                classificationRow.put(RepositoryColumn.VERSION.getColumnName(), new JDBCDataValue(classificationVersion, Types.BIGINT));
+                classificationRow.put(RepositoryColumn.CREATE_TIME.getColumnName(), new JDBCDataValue(createTime, Types.TIMESTAMP));
+
+                classificationRows.add(classificationRow);
+
+                List<Map<String, JDBCDataValue>> classificationAttributes = new ArrayList<>();
+
+                for (int attributeIndex = 0; attributeIndex < attributesPerClassification; attributeIndex++)
+                {
+                    classificationAttributes.add(this.getAttributeRow(entityGUID, classificationName, classificationVersion, attributeIndex));
+                }
+
+                classificationAttributeRows.addAll(classificationAttributes);
+
+                Map<String, Object> classification = new LinkedHashMap<>();
+
+                classification.put(EntityAggregateDecoder.CLASSIFICATION_FIELD, this.getJSONRow(classificationRow));
+                classification.put(EntityAggregateDecoder.ATTRIBUTES_FIELD, this.getJSONRows(classificationAttributes));
+
+                classifications.add(classification);
+            }
+
+            /*
+             * The aggregate row is the entity row plus the JSON that PostgreSQL builds with json_agg.
+             */
+            Map<String, JDBCDataValue> aggregateRow = new HashMap<>(entityRow);
+
+            aggregateRow.put(EntityAggregateDecoder.ATTRIBUTE_ROWS_COLUMN,
+                             new JDBCDataValue(objectMapper.writeValueAsString(this.getJSONRows(attributes)), Types.VARCHAR));
+            aggregateRow.put(EntityAggregateDecoder.CLASSIFICATION_ROWS_COLUMN,
+                             new JDBCDataValue(objectMapper.writeValueAsString(classifications), Types.VARCHAR));
+
+            aggregateRows.add(aggregateRow);
+        }
+
+        roundTrips     = 0;
+        rowsFetched    = 0;
+        lastQuery      = null;
+        lastParameters = null;
+    }
+
+
+    @Test
+    public void testRoundTripsAndRowsPerPage() throws Exception
+    {
+        List<EntityMapper> separateQueryEntities = this.getPage(false, null);
+
+        int separateQueryRoundTrips  = roundTrips;
+        int separateQueryRowsFetched = rowsFetched;
+
+        roundTrips  = 0;
+        rowsFetched = 0;
+
+        List<EntityMapper> aggregateQueryEntities = this.getPage(true, null);
+
+        assertEquals(separateQueryRoundTrips, 4);
+        assertEquals(separateQueryRowsFetched,
+                     pageSize * (1 + attributesPerEntity + classificationsPerEntity * (1 + attributesPerClassification)));
+
+        assertEquals(roundTrips, 1);
+        assertEquals(rowsFetched, pageSize);
+
+        /*
+         * Both approaches build the mappers from the same values.  The aggregate query also keeps the order of the page.
+         */
+        assertEquals(aggregateQueryEntities.size(), pageSize);
+        assertEquals(this.getEntities(aggregateQueryEntities), this.getEntities(separateQueryEntities));
+
+        for (int entityIndex = 0; entityIndex < pageSize; entityIndex++)
+        {
+            assertEquals(aggregateQueryEntities.get(entityIndex).getEntityTableRow().get(RepositoryColumn.INSTANCE_GUID.getColumnName()).getDataValue(),
+                         "entity-" + entityIndex);
+        }
+    }
+
+
+    @Test
+    public void testClassificationTimeParametersComeFirst() throws Exception
+    {
+        Date asOfTime = new Date();
+
+        this.getPage(true, asOfTime);
+
+        assertNotNull(lastQuery);
+        assertTrue(lastQuery.contains("json_agg"));
+        assertTrue(lastQuery.contains(" from (select distinct * from " + RepositoryTable.ENTITY.getTableName()));
+
+        /*
+         * The outer query repeats the ordering of the entity query since PostgreSQL may not keep it.
+         */
+        assertTrue(lastQuery.endsWith(") e order by " + RepositoryColumn.INSTANCE_GUID.getColumnName("e") + " asc;"));
+
+        /*
+         * The time and status values for the classification clause, then the same for the entity clause and
+         * finally the paging.
+         */
+        assertEquals(lastParameters.size(), 8);
+        assertEquals(lastParameters.get(0).getDataValue(), new Timestamp(asOfTime.getTime()));
+        assertEquals(lastParameters.get(1).getDataValue(), new Timestamp(asOfTime.getTime()));
+        assertEquals(lastParameters.get(3).getDataValue(), new Timestamp(asOfTime.getTime()));
+        assertEquals(lastParameters.get(6).getDataValue(), pageSize);
+        assertEquals(lastParameters.get(7).getDataValue(), 0);
+    }
+
+
+    /**
+     * Retrieve a page of entities through a database store that uses the mock connector.
+     *
+     * @param aggregateEntityQueries which query approach to use
+     * @param asOfTime time for the query
+     * @return entity mappers
+     * @throws Exception problem with the mocks
+     */
+    private List<EntityMapper> getPage(boolean aggregateEntityQueries,
+                                       Date    asOfTime) throws Exception
+    {
+        QueryBuilder entityQueryBuilder = new QueryBuilder(RepositoryTable.ENTITY.getTableName(),
+                                                           RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
+                                                           repositoryHelper,
+                                                           repositoryName);
+
+        entityQueryBuilder.setAsOfTime(asOfTime);
+        entityQueryBuilder.setSequencingOrder(SequencingOrder.GUID, null);
+        entityQueryBuilder.setPaging(0, pageSize);
+
+        try (DatabaseStore databaseStore = new DatabaseStore(this.getMockConnector(), repositoryName, repositoryHelper))
+        {
+            databaseStore.setAggregateEntityQueries(aggregateEntityQueries);
+
+            return databaseStore.retrieveEntitiesByProperties(entityQueryBuilder, null, asOfTime);
+        }
+    }
+
+
+    /**
+     * Create a JDBC resource connector that returns the test rows for each table and counts the requests.
+     *
+     * @return mock connector
+     * @throws Exception problem with the mocks
+     */
+    @SuppressWarnings("unchecked")
+    private JDBCResourceConnector getMockConnector() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        DataSource            dataSource            = mock(DataSource.class);
+
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcResourceConnector.getDataSource()).thenReturn(dataSource);
+
+        when(jdbcResourceConnector.getMatchingRows(any(Connection.class), anyString(), anyList(), anyMap())).thenAnswer(invocation ->
+        {
+            String sqlQuery = invocation.getArgument(1);
+
+            lastQuery      = sqlQuery;
+            lastParameters = invocation.getArgument(2);
+
+            if (sqlQuery.contains("json_agg"))
+            {
+                return this.fetch(aggregateRows);
+            }
+
+            return this.fetch(entityRows);
+        });
+
+        when(jdbcResourceConnector.getRowCursor(any(Connection.class), anyString(), anyList(), anyInt())).thenAnswer(invocation ->
+        {
+            String sqlQuery = invocation.getArgument(1);
+
+            lastQuery      = sqlQuery;
+            lastParameters = invocation.getArgument(2);
+
+            if (sqlQuery.contains("json_agg"))
+            {
+                return this.getRowCursor(this.fetch(aggregateRows));
+            }
+            else if (this.isQueryTable(sqlQuery, RepositoryTable.ENTITY_ATTRIBUTE_VALUE))
+            {
+                return this.getRowCursor(this.fetch(entityAttributeRows));
+            }
+            else if (this.isQueryTable(sqlQuery, RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE))
+            {
+                return this.getRowCursor(this.fetch(classificationAttributeRows));
+            }
+
+            return this.getRowCursor(this.fetch(entityRows));
+        });
+
+        when(jdbcResourceConnector.getMatchingRows(any(Connection.class), anyString(), anyString(), anyList(), anyMap())).thenAnswer(invocation ->
+        {
+            String tableName = invocation.getArgument(1);
+
+            if (this.isQueryTable(tableName, RepositoryTable.ENTITY_ATTRIBUTE_VALUE))
+            {
+                return this.fetch(entityAttributeRows);
+            }
+            else if (this.isQueryTable(tableName, RepositoryTable.CLASSIFICATION))
+            {
+                return this.fetch(classificationRows);
+            }
+            else if (this.isQueryTable(tableName, RepositoryTable.CLASSIFICATION_ATTRIBUTE_VALUE))
+            {
+                return this.fetch(classificationAttributeRows);
+            }
+
+            return this.fetch(entityRows);
+        });
+
+        return jdbcResourceConnector;
+    }
+
+
+    /**
+     * Return whether a query (or table name) reads the table, either directly or through its current version table.
+     *
+     * @param sqlQuery query or table name
+     * @param table history table
+     * @return boolean
+     */
+    private boolean isQueryTable(String          sqlQuery,
+                                 RepositoryTable table)
+    {
+        return this.isQueryTableName(sqlQuery, table.getTableName()) || this.isQueryTableName(sqlQuery, table.getQueryTableName(null));
+    }
+
+
+    /**
+     * Return whether a query selects from a table, or is the table name.
+     *
+     * @param sqlQuery query or table name
+     * @param tableName name of table
+     * @return boolean
+     */
+    private boolean isQueryTableName(String sqlQuery,
+                                     String tableName)
+    {
+        return sqlQuery.equals(tableName) || sqlQuery.contains("FROM " + tableName + " ");
+    }
+
+
+    /**
+     * Return a cursor over the rows that reads the columns by index, as the cursor from the database does.
+     *
+     * @param rows rows to return
+     * @return mock cursor
+     * @throws Exception problem with the mocks
+     */
+    private JDBCRowCursor getRowCursor(List<Map<String, JDBCDataValue>> rows) throws Exception
+    {
+        JDBCRowCursor rowCursor   = mock(JDBCRowCursor.class);
+        List<String>  columnNames = new ArrayList<>();
+        int[]         currentRow  = {-1};
+
+        when(rowCursor.next()).thenAnswer(invocation -> ++currentRow[0] < rows.size());
+        when(rowCursor.getColumnIndex(anyString())).thenAnswer(invocation ->
+        {
+            String columnName = invocation.getArgument(0);
+
+            if (! columnNames.contains(columnName))
+            {
+                columnNames.add(columnName);
+            }
+
+            return columnNames.indexOf(columnName) + 1;
+        });
+        when(rowCursor.getString(anyInt())).thenAnswer(invocation ->
+        {
+            int           columnIndex = invocation.getArgument(0);
+            JDBCDataValue dataValue   = rows.get(currentRow[0]).get(columnNames.get(columnIndex - 1));
+
+            return dataValue == null ? null : dataValue.getDataValue().toString();
+        });
+        when(rowCursor.getRow(anyMap())).thenAnswer(invocation -> rows.get(currentRow[0]));
+
+        return rowCursor;
+    }
+
+
+    /**
+     * Return copies of the rows, as the database would, and count the request.
+     *
+     * @param rows rows to return
+     * @return copied rows
+     */
+    private List<Map<String, JDBCDataValue>> fetch(List<Map<String, JDBCDataValue>> rows)
+    {
+        roundTrips++;
+        rowsFetched = rowsFetched + rows.size();
+
+        List<Map<String, JDBCDataValue>> results = new ArrayList<>();
+
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            results.add(new HashMap<>(row));
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Create an attribute row for an entity or classification.
+     *
+     * @param instanceGUID entity guid
+     * @param classificationName classification name or null for an entity attribute
+     * @param version version of the instance
+     * @param attributeIndex index of the attribute
+     * @return row
+     */
+    private Map<String, JDBCDataValue> getAttributeRow(String     instanceGUID,
+                                                       String     classificationName,
+                                                       BigDecimal version,
+                                                       int        attributeIndex)
+    {
+        Map<String, JDBCDataValue> attributeRow = new HashMap<>();
+
+        attributeRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(instanceGUID, Types.VARCHAR));
+        attributeRow.put(RepositoryColumn.VERSION.getColumnName(), new JDBCDataValue(version, Types.BIGINT));
+        attributeRow.put(RepositoryColumn.PROPERTY_NAME.getColumnName(), new JDBCDataValue("property" + attributeIndex, Types.VARCHAR));
+        attributeRow.put(RepositoryColumn.ATTRIBUTE_NAME.getColumnName(), new JDBCDataValue("property" + attributeIndex, Types.VARCHAR));
+        attributeRow.put(RepositoryColumn.PROPERTY_VALUE.getColumnName(), new JDBCDataValue("value \"" + attributeIndex + "\" of " + instanceGUID, Types.VARCHAR));
+        attributeRow.put(RepositoryColumn.IS_UNIQUE_ATTRIBUTE.getColumnName(), new JDBCDataValue(attributeIndex == 0, Types.BOOLEAN));
+
+        if (classificationName != null)
+        {
+            attributeRow.put(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), new JDBCDataValue(classificationName, Types.VARCHAR));
+        }
+
+        return attributeRow;
+    }
+
+
+    /**
+     * Convert rows into the form that json_agg writes them.
+     *
+     * @param rows table rows
+     * @return JSON-ready rows
+     */
+    private List<Map<String, Object>> getJSONRows(List<Map<String, JDBCDataValue>> rows)
+    {
+        List<Map<String, Object>> jsonRows = new ArrayList<>();
+
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            jsonRows.add(this.getJSONRow(row));
+        }
+
+        return jsonRows;
+    }
+
+
+    /**
+     * Convert a row into the form that PostgreSQL writes it in JSON.  Null columns are included.
+     *
+     * @param row table row
+     * @return JSON-ready row
+     */
+    private Map<String, Object> getJSONRow(Map<String, JDBCDataValue> row)
+    {
+        Map<String, Object> jsonRow = new LinkedHashMap<>();
+
+        jsonRow.put(RepositoryColumn.VERSION_END_TIME.getColumnName(), null);
+
+        for (String columnName : row.keySet())
+        {
+            Object value = row.get(columnName).getDataValue();
+
+            if (value instanceof Timestamp timestamp)
+            {
+                jsonRow.put(columnName, timestamp.toLocalDateTime().toString());
+            }
+            else if (value instanceof BigDecimal bigDecimal)
+            {
+                jsonRow.put(columnName, bigDecimal.longValue());
+            }
+            else
+            {
+                jsonRow.put(columnName, value);
+            }
+        }
+
+        return jsonRow;
+    }
+
+
+    /**
+     * Describe the values in the mappers so that they can be compared.
+     *
+     * @param entityMappers mappers
+     * @return description of each entity keyed by guid
+     * @throws Exception mapping problem
+     */
+    private Map<String, Object> getEntities(List<EntityMapper> entityMappers) throws Exception
+    {
+        Map<String, Object> entities = new HashMap<>();
+
+        for (EntityMapper entityMapper : entityMappers)
+        {
+            Map<String, String> entityRow = this.getValues(entityMapper.getEntityTableRow());
+
+            Map<String, Object> classifications = new HashMap<>();
+
+            for (ClassificationMapper classificationMapper : entityMapper.getClassificationMappers())
+            {
+                Map<String, String> classificationRow = this.getValues(classificationMapper.getClassificationTableRow());
+
+                classifications.put(classificationRow.get(RepositoryColumn.CLASSIFICATION_NAME.getColumnName()),
+                                    List.of(classificationRow, this.getValues(classificationMapper.getClassificationPropertiesTableRows())));
+            }
+
+            entities.put(entityRow.get(RepositoryColumn.INSTANCE_GUID.getColumnName()),
+                         List.of(entityRow, this.getValues(entityMapper.getEntityPropertiesTableRows()), classifications));
+        }
+
+        return entities;
+    }
+
+
+    /**
+     * Describe a list of rows whatever their order.
+     *
+     * @param rows rows
+     * @return set of descriptions
+     */
+    private Set<Map<String, String>> getValues(List<Map<String, JDBCDataValue>> rows)
+    {
+        Set<Map<String, String>> values = new HashSet<>();
+
+        for (Map<String, JDBCDataValue> row : rows)
+        {
+            values.add(this.getValues(row));
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Describe the values of a row.  Numbers are returned from the database as BigDecimal and from JSON as Long
+     * so the values are compared as strings.
+     *
+     * @param row row
+     * @return column names and values
+     */
+    private Map<String, String> getValues(Map<String, JDBCDataValue> row)
+    {
+        Map<String, String> values = new HashMap<>();
+
+        for (String columnName : row.keySet())
+        {
+            values.put(columnName, String.valueOf(row.get(columnName).getDataValue()));
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,157 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the DDL for the partitioned history tables and that the partition manager creates the partitions
+ * ahead of time, detaches the partitions that are older than the retention period, and adds a partition for
+ * versions that are closed out with an end time in a detached partition.
+ */
+public class HistoryPartitionManagerTest
+{
+    private static final String repositoryName = "TestRepository";
+
+
+    @Test
+    public void testPartitionedTableDDL() throws Exception
+    {
+        PostgreSQLSchemaDDL schemaDDL = new PostgreSQLSchemaDDL("repository_test", null, RepositoryTable.getTables(true));
+
+        List<String> ddlStatements = schemaDDL.getDDLStatements();
+
+        assertTrue(ddlStatements.stream().anyMatch(statement -> statement.startsWith("create table if not exists entity(") &&
+                                                                 statement.endsWith(") partition by range (version_end_time);") &&
+                                                                 ! statement.contains("primary key")));
+        assertTrue(ddlStatements.contains("create unique index if not exists entity_pk on entity (instance_guid, version, version_end_time) nulls not distinct;"));
+        assertTrue(ddlStatements.contains("create table if not exists entity_default partition of entity" +
+                                                  " (constraint entity_default_nulls check (version_end_time is null)) default;"));
+        assertTrue(ddlStatements.stream().anyMatch(statement -> statement.startsWith("create table if not exists entity_attribute_value(") &&
+                                                                 statement.contains("version_end_time timestamp")));
+        assertTrue(ddlStatements.stream().anyMatch(statement -> statement.startsWith("create table if not exists current_entity(") &&
+                                                                 statement.contains("constraint current_entity_pk primary key")));
+        assertTrue(ddlStatements.stream().noneMatch(statement -> statement.contains("current_entity partition")));
+    }
+
+
+    @Test
+    public void testPartitionsAreCreatedAhead()
+    {
+        HistoryPartitionManager partitionManager = new HistoryPartitionManager(repositoryName, "repository_test", null, null, 0);
+
+        List<String> ddlStatements = partitionManager.getCreatePartitionStatements(RepositoryTable.ENTITY,
+                                                                                   new ArrayList<>(),
+                                                                                   YearMonth.of(2026, 11));
+
+        assertEquals(ddlStatements.size(), 5);
+        assertEquals(ddlStatements.get(0), "create table if not exists entity_before_p202611 partition of entity for values from (minvalue) to ('2026-11-01 00:00:00');");
+        assertEquals(ddlStatements.get(1), "create table if not exists entity_p202611 partition of entity for values from ('2026-11-01 00:00:00') to ('2026-12-01 00:00:00');");
+        assertEquals(ddlStatements.get(4), "create table if not exists entity_p202702 partition of entity for values from ('2027-02-01 00:00:00') to ('2027-03-01 00:00:00');");
+
+        ddlStatements = partitionManager.getCreatePartitionStatements(RepositoryTable.ENTITY,
+                                                                      List.of("entity_default", "entity_before_p202611", "entity_p202611", "entity_p202612"),
+                                                                      YearMonth.of(2027, 2));
+
+        assertEquals(ddlStatements.size(), 5);
+        assertTrue(ddlStatements.get(0).startsWith("create table if not exists entity_p202701 "));
+        assertTrue(ddlStatements.get(4).startsWith("create table if not exists entity_p202705 "));
+    }
+
+
+    @Test
+    public void testOldPartitionsAreDetached() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = this.getMockConnector("_default", "_before_p202401", "_p202401", "_p202510", "_p202511", "_p202610");
+
+        HistoryPartitionManager partitionManager = new HistoryPartitionManager(repositoryName, "repository_test", null, jdbcResourceConnector, 12);
+
+        partitionManager.maintainPartitions(Date.from(LocalDate.of(2026, 10, 15).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+
+        verify(jdbcResourceConnector).issueSQLCommand(any(Connection.class), eq("alter table entity detach partition entity_before_p202401;"));
+        verify(jdbcResourceConnector).issueSQLCommand(any(Connection.class), eq("alter table entity detach partition entity_p202401;"));
+        verify(jdbcResourceConnector).issueSQLCommand(any(Connection.class), eq("alter table relationship_attribute_value detach partition relationship_attribute_value_p202401;"));
+        verify(jdbcResourceConnector, never()).issueSQLCommand(any(Connection.class), eq("alter table entity detach partition entity_p202510;"));
+        verify(jdbcResourceConnector, never()).issueSQLCommand(any(Connection.class), eq("alter table entity detach partition entity_default;"));
+        verify(jdbcResourceConnector).addDatabaseDefinitions(any(Connection.class),
+                                                             eq(List.of("create table if not exists entity_p202611 partition of entity for values from ('2026-11-01 00:00:00') to ('2026-12-01 00:00:00');",
+                                                                        "create table if not exists entity_p202612 partition of entity for values from ('2026-12-01 00:00:00') to ('2027-01-01 00:00:00');",
+                                                                        "create table if not exists entity_p202701 partition of entity for values from ('2027-01-01 00:00:00') to ('2027-02-01 00:00:00');")));
+
+        /*
+         * The versions closed out with an end time in the detached partitions have somewhere to go.
+         */
+        verify(jdbcResourceConnector).addDatabaseDefinitions(any(Connection.class),
+                                                             eq(List.of("create table if not exists entity_late_p202510 partition of entity for values from (minvalue) to ('2025-10-01 00:00:00');")));
+    }
+
+
+    @Test
+    public void testLatePartitionIsKeptForTheMonth() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = this.getMockConnector("_default", "_late_p202510", "_p202510", "_p202511", "_p202610", "_p202611", "_p202612", "_p202701");
+
+        HistoryPartitionManager partitionManager = new HistoryPartitionManager(repositoryName, "repository_test", null, jdbcResourceConnector, 12);
+
+        partitionManager.maintainPartitions(Date.from(LocalDate.of(2026, 10, 20).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+
+        verify(jdbcResourceConnector, never()).issueSQLCommand(any(Connection.class), anyString());
+        verify(jdbcResourceConnector, never()).addDatabaseDefinitions(any(Connection.class), anyList());
+    }
+
+
+    /**
+     * Create a connector that returns the same partitions for each history table.
+     *
+     * @param suffixes suffixes of the partition names after the table name
+     * @return mock connector
+     * @throws Exception problem with the mocks
+     */
+    private JDBCResourceConnector getMockConnector(String... suffixes) throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        DataSource            dataSource            = mock(DataSource.class);
+
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcResourceConnector.getDataSource()).thenReturn(dataSource);
+        when(jdbcResourceConnector.getMatchingRows(any(Connection.class), anyString(), anyList(), anyMap())).thenAnswer(invocation ->
+        {
+            List<JDBCDataValue> parameters = invocation.getArgument(2);
+            String              tableName  = parameters.get(0).getDataValue().toString();
+            List<Map<String, JDBCDataValue>> rows = new ArrayList<>();
+
+            for (String suffix : suffixes)
+            {
+                rows.add(Map.of("partition_name", new JDBCDataValue(tableName + suffix, Types.VARCHAR)));
+            }
+
+            return rows;
+        });
+
+        return jdbcResourceConnector;
+    }
+}
@@ -0,0 +1,143 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.ddl.postgres.PostgreSQLSchemaDDL;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndex;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryIndexType;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the DDL for the search indexes and that the index advisor records the searches and acts on the
+ * indexes that are missing.
+ */
+public class IndexAdvisorTest
+{
+    private static final String repositoryName = "TestRepository";
+
+
+    @Test
+    public void testSearchIndexDDL() throws Exception
+    {
+        PostgreSQLSchemaDDL schemaDDL = new PostgreSQLSchemaDDL("repository_test",
+                                                                null,
+                                                                null,
+                                                                RepositoryIndex.getIndexes(List.of(RepositoryIndexType.TRIGRAM,
+                                                                                                   RepositoryIndexType.EXPRESSION)));
+
+        List<String> ddlStatements = schemaDDL.getDDLStatements();
+
+        assertEquals(ddlStatements.get(1), "create extension if not exists pg_trgm;");
+        assertTrue(ddlStatements.contains("create index if not exists current_entity_attribute_value_trgm_idx on current_entity_attribute_value using gin (property_value gin_trgm_ops);"));
+        assertTrue(ddlStatements.contains("create index if not exists current_entity_attribute_value_md5_idx on current_entity_attribute_value using btree (attribute_name, md5(property_value));"));
+        assertTrue(ddlStatements.stream().noneMatch(statement -> statement.contains("_name_idx ")));
+        assertEquals(RepositoryTable.CURRENT_ENTITY.getIndexes(), List.of(RepositoryIndex.CURRENT_ENTITY_TYPE_NAME_TRIGRAM));
+    }
+
+
+    @Test
+    public void testQueriesAreRecorded() throws Exception
+    {
+        IndexAdvisor indexAdvisor = new IndexAdvisor(repositoryName, "repository_test", null, null, new ArrayList<>(), false);
+        QueryBuilder queryBuilder = new QueryBuilder(RepositoryTable.ENTITY.getTableName(),
+                                                     RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
+                                                     mock(OMRSRepositoryHelper.class),
+                                                     repositoryName);
+
+        queryBuilder.setIndexAdvisor(indexAdvisor);
+        queryBuilder.setSearchString("asset", false, false, true);
+        queryBuilder.getAsOfTimeWhereClause(new ArrayList<>());
+
+        assertEquals(indexAdvisor.getPropertyUsage().get("entity_attribute_value.* " + PropertyComparisonOperator.CASE_INSENSITIVE_LIKE.getName()),
+                     Long.valueOf(1));
+        assertEquals(indexAdvisor.getRecommendedIndexes(), List.of(RepositoryIndex.CURRENT_ENTITY_PROPERTY_VALUE_TRIGRAM));
+    }
+
+
+    @Test
+    public void testMissingIndexIsCreated() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        DataSource            dataSource            = mock(DataSource.class);
+        Connection            jdbcConnection        = mock(Connection.class);
+        List<String>          ddlStatements         = new ArrayList<>();
+        List<String>          builderThreads        = new ArrayList<>();
+
+        when(dataSource.getConnection()).thenReturn(jdbcConnection);
+        when(jdbcResourceConnector.getDataSource()).thenReturn(dataSource);
+
+        doAnswer(invocation ->
+        {
+            ddlStatements.addAll(invocation.getArgument(1));
+            builderThreads.add(Thread.currentThread().getName());
+            return null;
+        }).when(jdbcResourceConnector).addDatabaseDefinitions(any(Connection.class), anyList());
+
+        IndexAdvisor indexAdvisor = new IndexAdvisor(repositoryName,
+                                                     "repository_test",
+                                                     null,
+                                                     jdbcResourceConnector,
+                                                     List.of(RepositoryIndexType.TRIGRAM),
+                                                     true);
+
+        for (int queryCount = 0; queryCount < 150; queryCount++)
+        {
+            indexAdvisor.recordPropertyUse(RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(), "name", PropertyComparisonOperator.CASE_INSENSITIVE_LIKE);
+            indexAdvisor.recordPropertyUse(RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(), "qualifiedName", PropertyComparisonOperator.EQ);
+        }
+
+        /*
+         * Shutdown waits for the index that has been queued to be built.
+         */
+        indexAdvisor.shutdown();
+
+        verify(jdbcResourceConnector, times(1)).addDatabaseDefinitions(any(Connection.class),
+                                                                       anyList());
+        verify(jdbcConnection).setAutoCommit(true);
+        assertEquals(builderThreads, List.of(repositoryName + " index builder"));
+        assertTrue(ddlStatements.contains("create index concurrently if not exists current_entity_attribute_value_md5_idx on current_entity_attribute_value using btree (attribute_name, md5(property_value));"));
+        assertTrue(indexAdvisor.getRecommendedIndexes().isEmpty());
+        assertEquals(indexAdvisor.getPropertyUsage().size(), 2);
+    }
+
+
+    @Test
+    public void testDefinedIndexesAreNotRecommended() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        IndexAdvisor          indexAdvisor          = new IndexAdvisor(repositoryName,
+                                                                       "repository_test",
+                                                                       null,
+                                                                       jdbcResourceConnector,
+                                                                       List.of(RepositoryIndexType.values()),
+                                                                       true);
+
+        for (int queryCount = 0; queryCount < 150; queryCount++)
+        {
+            indexAdvisor.recordTypeUse(RepositoryTable.RELATIONSHIP.getTableName());
+        }
+
+        verify(jdbcResourceConnector, never()).getDataSource();
+        assertTrue(indexAdvisor.getRecommendedIndexes().isEmpty());
+    }
+}
@@ -0,0 +1,298 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that pages after the first are located from the last row of the previous page when a continuation
+ * token is available, and with the offset otherwise.  Cached tokens are used once, expire, and are removed when
+ * the repository is updated.
+ */
+public class KeysetPagingTest
+{
+    private static final String repositoryName = "TestRepository";
+    private static final String entityTable    = RepositoryTable.ENTITY.getTableName();
+    private static final long   tokenAge       = 60000L;
+
+    private final OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+    private final Timestamp lastCreateTime = Timestamp.valueOf("2024-03-01 10:15:30.123456");
+
+
+    @Test
+    public void testCachedTokenLocatesNextPage() throws Exception
+    {
+        ContinuationTokenCache cache = new ContinuationTokenCache(10, tokenAge);
+
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+        String       firstSQL  = this.getSQL(firstPage, new ArrayList<>());
+
+        assertTrue(firstSQL.contains(" offset "));
+        assertTrue(firstSQL.contains("order by entity.create_time desc, entity.instance_guid desc"));
+
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        String token = firstPage.getNextContinuationToken();
+
+        assertNotNull(token);
+
+        /*
+         * The same query for the next page picks up the token from the cache.
+         */
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        secondPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+        String              secondSQL  = this.getSQL(secondPage, parameters);
+
+        assertFalse(secondSQL.contains(" offset "));
+        assertTrue(secondSQL.contains(" and (entity.create_time, entity.instance_guid) < (?, ?) "));
+
+        int parameterCount = parameters.size();
+
+        assertEquals(parameters.get(parameterCount - 3).getDataValue(), lastCreateTime);
+        assertEquals(parameters.get(parameterCount - 2).getDataValue(), "guid-10");
+        assertEquals(parameters.get(parameterCount - 1).getDataValue(), 10);
+
+        /*
+         * The token for the page after records the element number that it starts from.
+         */
+        secondPage.setPageResults(this.getLastRow("guid-20"), 10);
+
+        assertNotNull(cache.take(this.getSignature(secondPage), 20));
+    }
+
+
+    @Test
+    public void testCachedTokenIsOnlyUsedOnce() throws Exception
+    {
+        ContinuationTokenCache cache = new ContinuationTokenCache(10, tokenAge);
+
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+
+        this.getSQL(firstPage, new ArrayList<>());
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        QueryBuilder secondPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+
+        assertFalse(this.getSQL(secondPage, new ArrayList<>()).contains(" offset "));
+
+        /*
+         * Another request for the same page does not reuse the position found by the first walk.
+         */
+        QueryBuilder repeatedPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+
+        assertTrue(this.getSQL(repeatedPage, new ArrayList<>()).contains(" offset "));
+    }
+
+
+    @Test
+    public void testUpdateRemovesCachedTokens() throws Exception
+    {
+        ContinuationTokenCache cache = new ContinuationTokenCache(10, tokenAge);
+
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+
+        this.getSQL(firstPage, new ArrayList<>());
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        cache.invalidate();
+
+        QueryBuilder secondPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+
+        assertTrue(this.getSQL(secondPage, new ArrayList<>()).contains(" offset "));
+
+        /*
+         * A query that started before an update does not save its token.
+         */
+        QueryBuilder beforeUpdate = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+
+        this.getSQL(beforeUpdate, new ArrayList<>());
+        cache.invalidate();
+        beforeUpdate.setPageResults(this.getLastRow("guid-10"), 10);
+
+        assertNotNull(beforeUpdate.getNextContinuationToken());
+        assertNull(cache.take(this.getSignature(beforeUpdate), 10));
+    }
+
+
+    @Test
+    public void testCachedTokenExpires() throws Exception
+    {
+        ContinuationTokenCache cache = new ContinuationTokenCache(10, 0L);
+
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+
+        this.getSQL(firstPage, new ArrayList<>());
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        Thread.sleep(5);
+
+        QueryBuilder secondPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+
+        assertTrue(this.getSQL(secondPage, new ArrayList<>()).contains(" offset "));
+    }
+
+
+    @Test
+    public void testTokenIsOnlyUsedForItsQuery() throws Exception
+    {
+        ContinuationTokenCache cache = new ContinuationTokenCache(10, tokenAge);
+
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 0, cache);
+
+        this.getSQL(firstPage, new ArrayList<>());
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        QueryBuilder otherQuery = this.getQueryBuilder("process", SequencingOrder.CREATION_DATE_RECENT, 10, cache);
+
+        assertTrue(this.getSQL(otherQuery, new ArrayList<>()).contains(" offset "));
+
+        QueryBuilder otherToken = this.getQueryBuilder("process", SequencingOrder.CREATION_DATE_RECENT, 10, null);
+
+        otherToken.setContinuationToken(firstPage.getNextContinuationToken());
+
+        assertTrue(this.getSQL(otherToken, new ArrayList<>()).contains(" offset "));
+
+        QueryBuilder badToken = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_RECENT, 10, null);
+
+        badToken.setContinuationToken("not a token");
+
+        assertTrue(this.getSQL(badToken, new ArrayList<>()).contains(" offset "));
+    }
+
+
+    @Test
+    public void testTokenSuppliedByCaller() throws Exception
+    {
+        QueryBuilder firstPage = this.getQueryBuilder("asset", SequencingOrder.GUID, 0, null);
+
+        this.getSQL(firstPage, new ArrayList<>());
+        firstPage.setPageResults(this.getLastRow("guid-10"), 10);
+
+        QueryBuilder secondPage = this.getQueryBuilder("asset", SequencingOrder.GUID, 0, null);
+
+        secondPage.setContinuationToken(firstPage.getNextContinuationToken());
+
+        String secondSQL = this.getSQL(secondPage, new ArrayList<>());
+
+        assertTrue(secondSQL.contains(" and entity.instance_guid > ? "));
+        assertFalse(secondSQL.contains(" offset "));
+    }
+
+
+    @Test
+    public void testNoTokenWhenNotNeeded() throws Exception
+    {
+        QueryBuilder lastPage = this.getQueryBuilder("asset", SequencingOrder.CREATION_DATE_OLDEST, 0, null);
+
+        this.getSQL(lastPage, new ArrayList<>());
+        lastPage.setPageResults(this.getLastRow("guid-5"), 5);
+
+        assertNull(lastPage.getNextContinuationToken());
+
+        /*
+         * The update time may be null so these orders always use the offset.
+         */
+        QueryBuilder updateOrder = this.getQueryBuilder("asset", SequencingOrder.LAST_UPDATE_RECENT, 0, null);
+
+        this.getSQL(updateOrder, new ArrayList<>());
+        updateOrder.setPageResults(this.getLastRow("guid-10"), 10);
+
+        assertNull(updateOrder.getNextContinuationToken());
+    }
+
+
+    /**
+     * Create a query for a page of entities.
+     *
+     * @param searchString search string
+     * @param sequencingOrder order
+     * @param fromElement starting element
+     * @param cache continuation token cache
+     * @return query builder
+     */
+    private QueryBuilder getQueryBuilder(String                 searchString,
+                                         SequencingOrder        sequencingOrder,
+                                         int                    fromElement,
+                                         ContinuationTokenCache cache)
+    {
+        QueryBuilder queryBuilder = new QueryBuilder(entityTable,
+                                                     RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName(),
+                                                     repositoryHelper,
+                                                     repositoryName);
+
+        queryBuilder.setSearchString(searchString, false, false, true);
+        queryBuilder.setSequencingOrder(sequencingOrder, null);
+        queryBuilder.setPaging(fromElement, 10);
+        queryBuilder.setContinuationTokenCache(cache);
+
+        return queryBuilder;
+    }
+
+
+    /**
+     * Build the SQL for the query.
+     *
+     * @param queryBuilder query
+     * @param parameters list for the parameters
+     * @return SQL
+     * @throws Exception invalid query
+     */
+    private String getSQL(QueryBuilder        queryBuilder,
+                          List<JDBCDataValue> parameters) throws Exception
+    {
+        return "select distinct * from " + entityTable + " where " +
+                queryBuilder.getAsOfTimeWhereClause(parameters) +
+                queryBuilder.getSequenceAndPaging(entityTable, parameters);
+    }
+
+
+    /**
+     * Return the signature for a query by decoding one of its tokens.
+     *
+     * @param queryBuilder query that has returned a full page
+     * @return signature
+     */
+    private String getSignature(QueryBuilder queryBuilder)
+    {
+        String token = new String(java.util.Base64.getUrlDecoder().decode(queryBuilder.getNextContinuationToken()));
+
+        return token.split("\\|")[1];
+    }
+
+
+    /**
+     * Create the last row of a page.
+     *
+     * @param guid instance guid
+     * @return row
+     */
+    private Map<String, JDBCDataValue> getLastRow(String guid)
+    {
+        Map<String, JDBCDataValue> row = new HashMap<>();
+
+        row.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(guid, Types.VARCHAR));
+        row.put(RepositoryColumn.CREATE_TIME.getColumnName(), new JDBCDataValue(lastCreateTime, Types.TIMESTAMP));
+
+        return row;
+    }
+}
@@ -0,0 +1,353 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.MatchCriteria;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.PrimitivePropertyValue;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyComparisonOperator;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.PropertyCondition;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.search.SearchProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.EntityDef;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.Test;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify the SQL text and the order of the parameters that the QueryBuilder produces for combinations of property,
+ * type, asOfTime and sequencing criteria.  Each value must be bound as a parameter in the same order as its
+ * placeholder appears in the SQL.
+ */
+public class QueryBuilderTest
+{
+    private static final String repositoryName = "TestRepository";
+    private static final String entityTable    = RepositoryTable.ENTITY.getTableName();
+    private static final String propertyTable  = RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getTableName();
+    private static final String deletedStatus  = InstanceStatus.DELETED.getName();
+
+    private final Date asOfTime = new Date(1700000000000L);
+
+
+    @Test
+    public void testDefaultQuery() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+        String              sql        = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" (version_end_time is null) "));
+        assertTrue(sql.contains(" and (current_status != ?) "));
+        assertFalse(sql.contains(" order by "));
+        assertFalse(sql.contains(" limit "));
+        assertEquals(this.getValues(parameters), List.of(deletedStatus));
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    @Test
+    public void testPropertyQuery() throws Exception
+    {
+        SearchProperties searchProperties = new SearchProperties();
+
+        searchProperties.setConditions(List.of(this.getCondition("qualifiedName", PropertyComparisonOperator.EQ, "Asset::1"),
+                                               this.getCondition("createdBy", PropertyComparisonOperator.EQ, "fred")));
+        searchProperties.setMatchCriteria(MatchCriteria.ALL);
+
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setSearchProperties(searchProperties);
+
+        String sql = this.getSQL(query, parameters);
+
+        /*
+         * Attribute values are matched in the property table; header properties are matched in their own column.
+         */
+        assertTrue(sql.contains(" exists (select 1 from " + RepositoryTable.ENTITY_ATTRIBUTE_VALUE.getQueryTableName(null) +
+                                " where entity.instance_guid = entity_attribute_value.instance_guid and entity.version = entity_attribute_value.version" +
+                                " and entity_attribute_value.attribute_name = ? and md5(property_value) = md5(?) and property_value = ?) "));
+        assertTrue(sql.contains(" and  (entity.created_by = ?) "));
+        assertEquals(this.getValues(parameters), List.of("qualifiedName", "Asset::1", "Asset::1", "fred", deletedStatus));
+        assertEquals(parameters.get(3).getTargetSQLType(), Types.OTHER);
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    @Test
+    public void testMatchAnyProperty() throws Exception
+    {
+        SearchProperties searchProperties = new SearchProperties();
+
+        searchProperties.setConditions(List.of(this.getCondition("name", PropertyComparisonOperator.LIKE, "a_b"),
+                                               this.getCondition("description", PropertyComparisonOperator.NEQ, "none")));
+        searchProperties.setMatchCriteria(MatchCriteria.ANY);
+
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setSearchProperties(searchProperties);
+
+        String sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" and property_value like ?)  or "));
+        assertTrue(sql.contains(" and property_value != ?) "));
+        assertEquals(this.getValues(parameters), List.of("name", "%a\\_b%", "description", "none", deletedStatus));
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    @Test
+    public void testTypeQuery() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setTypeGUID("asset-guid", "typeGUID");
+
+        String sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" and (type_name like ?)"));
+        assertEquals(this.getValues(parameters), List.of("%:Asset:%", deletedStatus));
+
+        parameters = new ArrayList<>();
+        query      = this.getQueryBuilder();
+
+        query.setTypeGUID("asset-guid", "typeGUID", List.of("asset-guid", "process-guid"), "subtypeGUIDs");
+        query.setLimitResultsByStatus(List.of(InstanceStatus.ACTIVE));
+
+        sql = this.getSQL(query, parameters);
+
+        /*
+         * The subtypes and statuses are each bound as one array so the SQL text does not depend on how many there are.
+         */
+        assertTrue(sql.contains(" and (type_name like any (?))"));
+        assertTrue(sql.contains(" and (current_status = any (?))"));
+        assertEquals(parameters.size(), 2);
+        assertEquals(parameters.get(0).getTargetSQLType(), Types.ARRAY);
+        assertEquals(Arrays.asList((Object[]) parameters.get(0).getDataValue()), List.of("%:Asset:%", "%:Process:%"));
+        assertEquals(Arrays.asList((Object[]) parameters.get(1).getDataValue()), List.of(InstanceStatus.ACTIVE.getName()));
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    @Test
+    public void testAsOfTimeQuery() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setAsOfTime(asOfTime);
+        query.setTypeGUID("asset-guid", "typeGUID");
+
+        String sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" (version_start_time < ? and (version_end_time is null or version_end_time > ?)) "));
+        assertEquals(query.getPrincipleQueryTableName(), entityTable);
+        assertEquals(this.getValues(parameters), List.of(new Timestamp(asOfTime.getTime()),
+                                                         new Timestamp(asOfTime.getTime()),
+                                                         "%:Asset:%",
+                                                         deletedStatus));
+        assertEquals(parameters.get(0).getTargetSQLType(), Types.TIMESTAMP);
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    @Test
+    public void testSequencingAndPaging() throws Exception
+    {
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setSequencingOrder(SequencingOrder.CREATION_DATE_OLDEST, null);
+        query.setPaging(20, 10);
+
+        String sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.endsWith(" order by entity.create_time asc, entity.instance_guid asc  limit ? offset ?;"));
+        assertEquals(this.getValues(parameters), List.of(deletedStatus, 10, 20));
+
+        /*
+         * Paging without an order uses the most recently created first so the pages are stable.
+         */
+        parameters = new ArrayList<>();
+        query      = this.getQueryBuilder();
+
+        query.setPaging(0, 5);
+
+        sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" order by entity.create_time desc, entity.instance_guid desc "));
+        assertEquals(this.getValues(parameters), List.of(deletedStatus, 5, 0));
+
+        parameters = new ArrayList<>();
+        query      = this.getQueryBuilder();
+
+        query.setSequencingOrder(SequencingOrder.GUID, null);
+
+        sql = this.getSQL(query, parameters);
+
+        assertTrue(sql.contains(" order by entity.instance_guid asc "));
+        assertFalse(sql.contains(" limit "));
+    }
+
+
+    @Test
+    public void testCombinedCriteriaParameterOrder() throws Exception
+    {
+        SearchProperties searchProperties = new SearchProperties();
+
+        searchProperties.setConditions(List.of(this.getCondition("qualifiedName", PropertyComparisonOperator.STARTS_WITH, "Asset")));
+        searchProperties.setMatchCriteria(MatchCriteria.ALL);
+
+        List<JDBCDataValue> parameters = new ArrayList<>();
+        QueryBuilder        query      = this.getQueryBuilder();
+
+        query.setAsOfTime(asOfTime);
+        query.setSearchProperties(searchProperties);
+        query.setTypeGUID("asset-guid", "typeGUID");
+        query.setSequencingOrder(SequencingOrder.CREATION_DATE_RECENT, null);
+        query.setPaging(0, 25);
+
+        String sql = this.getSQL(query, parameters);
+
+        /*
+         * The asOfTime clause comes first, then the property, type and status clauses, then the paging.
+         */
+        assertTrue(sql.contains(" exists (select 1 from " + propertyTable + " where "));
+        assertEquals(this.getValues(parameters), List.of(new Timestamp(asOfTime.getTime()),
+                                                         new Timestamp(asOfTime.getTime()),
+                                                         "qualifiedName",
+                                                         "Asset%",
+                                                         "%:Asset:%",
+                                                         deletedStatus,
+                                                         25,
+                                                         0));
+        assertEquals(this.countPlaceholders(sql), parameters.size());
+    }
+
+
+    /**
+     * Create a query on the entity table with a repository helper that knows the test types.
+     *
+     * @return query builder
+     * @throws Exception problem setting up the mock
+     */
+    private QueryBuilder getQueryBuilder() throws Exception
+    {
+        OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq("asset-guid"), anyString())).thenReturn(this.getTypeDef("Asset"));
+        when(repositoryHelper.getTypeDef(anyString(), anyString(), eq("process-guid"), anyString())).thenReturn(this.getTypeDef("Process"));
+
+        return new QueryBuilder(entityTable, propertyTable, repositoryHelper, repositoryName);
+    }
+
+
+    /**
+     * Return a type definition.
+     *
+     * @param typeName name of the type
+     * @return type definition
+     */
+    private EntityDef getTypeDef(String typeName)
+    {
+        EntityDef typeDef = new EntityDef();
+
+        typeDef.setName(typeName);
+
+        return typeDef;
+    }
+
+
+    /**
+     * Return a condition on a string property.
+     *
+     * @param propertyName name of the property
+     * @param operator comparison operator
+     * @param value value to compare with
+     * @return property condition
+     */
+    private PropertyCondition getCondition(String                     propertyName,
+                                           PropertyComparisonOperator operator,
+                                           String                     value)
+    {
+        PrimitivePropertyValue propertyValue = new PrimitivePropertyValue();
+
+        propertyValue.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        propertyValue.setPrimitiveValue(value);
+
+        PropertyCondition propertyCondition = new PropertyCondition();
+
+        propertyCondition.setProperty(propertyName);
+        propertyCondition.setOperator(operator);
+        propertyCondition.setValue(propertyValue);
+
+        return propertyCondition;
+    }
+
+
+    /**
+     * Build the SQL for the query.
+     *
+     * @param queryBuilder query
+     * @param parameters list for the parameters
+     * @return SQL
+     * @throws Exception invalid query
+     */
+    private String getSQL(QueryBuilder        queryBuilder,
+                          List<JDBCDataValue> parameters) throws Exception
+    {
+        return "select * from " + queryBuilder.getPrincipleQueryTableName() + " where " +
+                queryBuilder.getAsOfTimeWhereClause(parameters) +
+                queryBuilder.getSequenceAndPaging(entityTable, parameters);
+    }
+
+
+    /**
+     * Return the values of the parameters in order.
+     *
+     * @param parameters parameters for the query
+     * @return values
+     */
+    private List<Object> getValues(List<JDBCDataValue> parameters)
+    {
+        List<Object> values = new ArrayList<>();
+
+        for (JDBCDataValue parameter : parameters)
+        {
+            values.add(parameter.getDataValue());
+        }
+
+        return values;
+    }
+
+
+    /**
+     * Return the number of placeholders in the SQL.
+     *
+     * @param sql SQL text
+     * @return count
+     */
+    private int countPlaceholders(String sql)
+    {
+        return (int) sql.chars().filter(character -> character == '?').count();
+    }
+}
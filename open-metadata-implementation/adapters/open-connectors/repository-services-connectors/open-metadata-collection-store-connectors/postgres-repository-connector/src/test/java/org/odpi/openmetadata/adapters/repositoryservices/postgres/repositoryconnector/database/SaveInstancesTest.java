@@ -0,0 +1,573 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.database;
+
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCResourceConnector;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.JDBCRowCursor;
+import org.odpi.openmetadata.adapters.connectors.resource.jdbc.properties.JDBCDataValue;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.ClassificationMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.EntityMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.mappers.RelationshipMapper;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryColumn;
+import org.odpi.openmetadata.adapters.repositoryservices.postgres.repositoryconnector.schema.RepositoryTable;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Classification;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that saveInstances only writes the latest version of each instance in the group, skips versions that
+ * are not later than the stored version, closes out the stored versions that are replaced, only adds proxies
+ * for relationship ends that are unknown, and saves the classifications of the supplied entities independently of
+ * the entity versions.  The database is replaced by a mock JDBC resource connector that returns the stored
+ * versions from the current version tables and records the commands and rows that are written.
+ */
+public class SaveInstancesTest
+{
+    private static final String repositoryName = "TestRepository";
+    private static final long   hour           = 3600000L;
+
+    private final OMRSRepositoryHelper repositoryHelper = mock(OMRSRepositoryHelper.class);
+    private final Date                 updateTime       = new Date(System.currentTimeMillis() - hour);
+
+    private final Map<RepositoryTable, List<Object[]>>         storedRows   = new HashMap<>();
+    private final Map<String, List<List<JDBCDataValue>>>        commands     = new LinkedHashMap<>();
+    private final Map<String, List<Map<String, JDBCDataValue>>> insertedRows = new HashMap<>();
+
+
+    @BeforeMethod
+    public void clearDatabase()
+    {
+        storedRows.clear();
+        commands.clear();
+        insertedRows.clear();
+    }
+
+
+    @Test
+    public void testOnlyLatestVersionInGroupIsSaved() throws Exception
+    {
+        List<EntityMapper> entityMappers = List.of(this.getEntityMapper("entity1", 1, List.of()),
+                                                   this.getEntityMapper("entity1", 3, List.of()),
+                                                   this.getEntityMapper("entity1", 2, List.of()));
+
+        this.saveInstances(entityMappers, null);
+
+        List<Map<String, JDBCDataValue>> entityRows = this.getInsertedRows(RepositoryTable.ENTITY);
+
+        assertEquals(entityRows.size(), 1);
+        assertEquals(this.getVersion(entityRows.get(0)), 3L);
+        assertEquals(this.getInsertedRows(RepositoryTable.CURRENT_ENTITY).size(), 1);
+
+        /*
+         * The instance is new so there is no stored version to close out.
+         */
+        assertNull(this.getEndVersionParameters(RepositoryTable.ENTITY));
+    }
+
+
+    @Test
+    public void testVersionsAreCheckedAgainstCurrentTables() throws Exception
+    {
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity1", 2);
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity2", 5);
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity3", 4);
+
+        List<EntityMapper> entityMappers = List.of(this.getEntityMapper("entity1", 3, List.of()),
+                                                   this.getEntityMapper("entity2", 4, List.of()),
+                                                   this.getEntityMapper("entity3", 4, List.of()));
+
+        this.saveInstances(entityMappers, null);
+
+        /*
+         * Only entity1 is later than its stored version.
+         */
+        List<Map<String, JDBCDataValue>> entityRows = this.getInsertedRows(RepositoryTable.ENTITY);
+
+        assertEquals(entityRows.size(), 1);
+        assertEquals(entityRows.get(0).get(RepositoryColumn.INSTANCE_GUID.getColumnName()).getDataValue(), "entity1");
+
+        List<List<JDBCDataValue>> endVersionParameters = this.getEndVersionParameters(RepositoryTable.ENTITY);
+
+        assertEquals(endVersionParameters.size(), 1);
+        assertEquals(endVersionParameters.get(0).get(0).getDataValue(), new Timestamp(updateTime.getTime() - 1));
+        assertEquals(endVersionParameters.get(0).get(1).getDataValue(), "entity1");
+        assertEquals(endVersionParameters.get(0).get(2).getDataValue(), 2L);
+
+        /*
+         * A version that has already been closed out keeps its end time.
+         */
+        assertTrue(commands.containsKey("update " + RepositoryTable.ENTITY.getTableName() +
+                                                " set " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " = ?" +
+                                                " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?" +
+                                                " and " + RepositoryColumn.VERSION.getColumnName() + " = ?" +
+                                                " and " + RepositoryColumn.VERSION_END_TIME.getColumnName() + " is null"));
+
+        List<List<JDBCDataValue>> currentDeletes = commands.get("delete from " + RepositoryTable.CURRENT_ENTITY.getTableName() +
+                                                                        " where " + RepositoryColumn.INSTANCE_GUID.getColumnName() + " = ?");
+
+        assertEquals(currentDeletes.size(), 1);
+        assertEquals(currentDeletes.get(0).get(0).getDataValue(), "entity1");
+    }
+
+
+    @Test
+    public void testRelationshipVersionsAndEnds() throws Exception
+    {
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity2", 1);
+        this.storeVersion(RepositoryTable.CURRENT_RELATIONSHIP, "relationship2", 6);
+
+        EntityMapper entity1 = this.getEntityMapper("entity1", 1, List.of());
+
+        RelationshipMapper relationship1 = this.getRelationshipMapper("relationship1", 1, "entity1", "entity2");
+        RelationshipMapper relationship2 = this.getRelationshipMapper("relationship2", 7, "entity2", "entity3");
+        RelationshipMapper relationship3 = this.getRelationshipMapper("relationship3", 1, "entity3", "entity4");
+
+        this.saveInstances(List.of(entity1), List.of(relationship1, relationship2, relationship3));
+
+        /*
+         * entity1 is in the group and entity2 is stored so only entity3 and entity4 need proxies.  The proxy
+         * for entity3 is only added once even though it is the end of two relationships.
+         */
+        List<String> entityGUIDs = new ArrayList<>();
+
+        for (Map<String, JDBCDataValue> entityRow : this.getInsertedRows(RepositoryTable.ENTITY))
+        {
+            entityGUIDs.add(entityRow.get(RepositoryColumn.INSTANCE_GUID.getColumnName()).getDataValue().toString());
+        }
+
+        assertEquals(entityGUIDs, List.of("entity1", "entity3", "entity4"));
+        assertTrue(this.getInsertedRows(RepositoryTable.ENTITY).get(1).containsKey(RepositoryColumn.IS_PROXY.getColumnName()));
+
+        assertEquals(this.getInsertedRows(RepositoryTable.RELATIONSHIP).size(), 3);
+
+        List<List<JDBCDataValue>> endVersionParameters = this.getEndVersionParameters(RepositoryTable.RELATIONSHIP);
+
+        assertEquals(endVersionParameters.size(), 1);
+        assertEquals(endVersionParameters.get(0).get(1).getDataValue(), "relationship2");
+        assertEquals(endVersionParameters.get(0).get(2).getDataValue(), 6L);
+    }
+
+
+    @Test
+    public void testStaleRelationshipDoesNotAddProxies() throws Exception
+    {
+        this.storeVersion(RepositoryTable.CURRENT_RELATIONSHIP, "relationship1", 3);
+
+        this.saveInstances(null, List.of(this.getRelationshipMapper("relationship1", 2, "entity1", "entity2")));
+
+        assertTrue(insertedRows.isEmpty());
+        assertTrue(commands.isEmpty());
+    }
+
+
+    @Test
+    public void testClassificationsAreMergedIndependently() throws Exception
+    {
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity1", 1);
+        this.storeClassificationVersion("entity1", "Confidentiality", 3);
+        this.storeClassificationVersion("entity1", "Retention", 1);
+
+        /*
+         * The older entity version carries the latest version of the Retention classification.
+         */
+        EntityMapper olderEntity1 = this.getEntityMapper("entity1",
+                                                         1,
+                                                         List.of(this.getClassificationMapper("entity1", "Retention", 5)));
+        EntityMapper entity1      = this.getEntityMapper("entity1",
+                                                         2,
+                                                         List.of(this.getClassificationMapper("entity1", "Confidentiality", 3),
+                                                                 this.getClassificationMapper("entity1", "Retention", 2),
+                                                                 this.getClassificationMapper("entity1", "Memento", 1)));
+
+        RelationshipMapper   relationship1       = this.getRelationshipMapper("relationship1", 1, "entity1", "entity5");
+        ClassificationMapper proxyClassification = this.getClassificationMapper("entity5", "Confidentiality", 1);
+
+        when(relationship1.getEnd2Mapper().getClassificationMappers()).thenReturn(List.of(proxyClassification));
+
+        this.saveInstances(List.of(olderEntity1, entity1), List.of(relationship1));
+
+        /*
+         * Confidentiality on entity1 is unchanged, Retention on entity1 is replaced by version 5 and the others are new.
+         */
+        List<String> classificationKeys = new ArrayList<>();
+
+        for (Map<String, JDBCDataValue> classificationRow : this.getInsertedRows(RepositoryTable.CLASSIFICATION))
+        {
+            classificationKeys.add(classificationRow.get(RepositoryColumn.INSTANCE_GUID.getColumnName()).getDataValue() + "::" +
+                                   classificationRow.get(RepositoryColumn.CLASSIFICATION_NAME.getColumnName()).getDataValue() + "::" +
+                                   this.getVersion(classificationRow));
+        }
+
+        assertEquals(classificationKeys, List.of("entity1::Retention::5", "entity1::Memento::1", "entity5::Confidentiality::1"));
+        assertEquals(this.getInsertedRows(RepositoryTable.CURRENT_CLASSIFICATION).size(), 3);
+
+        List<List<JDBCDataValue>> endVersionParameters = this.getEndVersionParameters(RepositoryTable.CLASSIFICATION);
+
+        assertEquals(endVersionParameters.size(), 1);
+        assertEquals(endVersionParameters.get(0).get(1).getDataValue(), "entity1");
+        assertEquals(endVersionParameters.get(0).get(2).getDataValue(), "Retention");
+        assertEquals(endVersionParameters.get(0).get(3).getDataValue(), 1L);
+    }
+
+
+    @Test
+    public void testClassificationsOfUnchangedEntityAreSaved() throws Exception
+    {
+        this.storeVersion(RepositoryTable.CURRENT_ENTITY, "entity1", 2);
+        this.storeClassificationVersion("entity1", "Retention", 1);
+
+        EntityMapper entity1 = this.getEntityMapper("entity1",
+                                                    2,
+                                                    List.of(this.getClassificationMapper("entity1", "Retention", 2)));
+
+        this.saveInstances(List.of(entity1), null);
+
+        /*
+         * The entity is already stored, but its classification is later than the stored one.
+         */
+        assertTrue(this.getInsertedRows(RepositoryTable.ENTITY).isEmpty());
+        assertNull(this.getEndVersionParameters(RepositoryTable.ENTITY));
+
+        List<Map<String, JDBCDataValue>> classificationRows = this.getInsertedRows(RepositoryTable.CLASSIFICATION);
+
+        assertEquals(classificationRows.size(), 1);
+        assertEquals(this.getVersion(classificationRows.get(0)), 2L);
+        assertEquals(this.getEndVersionParameters(RepositoryTable.CLASSIFICATION).get(0).get(3).getDataValue(), 1L);
+    }
+
+
+    /**
+     * Save the instances through a database store that uses the mock connector.
+     *
+     * @param entityMappers entities to save
+     * @param relationshipMappers relationships to save
+     * @throws Exception problem with the mocks
+     */
+    private void saveInstances(List<EntityMapper>       entityMappers,
+                               List<RelationshipMapper> relationshipMappers) throws Exception
+    {
+        try (DatabaseStore databaseStore = new DatabaseStore(this.getMockConnector(), repositoryName, repositoryHelper))
+        {
+            databaseStore.saveInstances(entityMappers, relationshipMappers);
+        }
+    }
+
+
+    /**
+     * Record that a version of an instance is stored in a current version table.
+     *
+     * @param currentTable current version table
+     * @param guid unique identifier of the instance
+     * @param version stored version
+     */
+    private void storeVersion(RepositoryTable currentTable,
+                              String          guid,
+                              long            version)
+    {
+        storedRows.computeIfAbsent(currentTable, table -> new ArrayList<>()).add(new Object[]{guid, version});
+    }
+
+
+    /**
+     * Record that a version of a classification is stored in the current classification table.
+     *
+     * @param entityGUID unique identifier of the classified entity
+     * @param classificationName name of the classification
+     * @param version stored version
+     */
+    private void storeClassificationVersion(String entityGUID,
+                                            String classificationName,
+                                            long   version)
+    {
+        storedRows.computeIfAbsent(RepositoryTable.CURRENT_CLASSIFICATION, table -> new ArrayList<>()).add(new Object[]{entityGUID, classificationName, version});
+    }
+
+
+    /**
+     * Return the rows inserted into a table.
+     *
+     * @param table table
+     * @return rows in the order they were inserted
+     */
+    private List<Map<String, JDBCDataValue>> getInsertedRows(RepositoryTable table)
+    {
+        return insertedRows.getOrDefault(table.getTableName(), List.of());
+    }
+
+
+    /**
+     * Return the parameters of the commands that closed out stored versions in a history table.
+     *
+     * @param historyTable table holding all versions of the instances
+     * @return parameter sets or null if no versions were closed out
+     */
+    private List<List<JDBCDataValue>> getEndVersionParameters(RepositoryTable historyTable)
+    {
+        for (Map.Entry<String, List<List<JDBCDataValue>>> command : commands.entrySet())
+        {
+            if (command.getKey().startsWith("update " + historyTable.getTableName() + " set " + RepositoryColumn.VERSION_END_TIME.getColumnName()))
+            {
+                return command.getValue();
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Return the version stored in a row.
+     *
+     * @param row table row
+     * @return version
+     */
+    private long getVersion(Map<String, JDBCDataValue> row)
+    {
+        return (Long) row.get(RepositoryColumn.VERSION.getColumnName()).getDataValue();
+    }
+
+
+    /**
+     * Create a connector that returns the stored versions and records the commands and rows that are written.
+     *
+     * @return mock connector
+     * @throws Exception problem with the mocks
+     */
+    @SuppressWarnings("unchecked")
+    private JDBCResourceConnector getMockConnector() throws Exception
+    {
+        JDBCResourceConnector jdbcResourceConnector = mock(JDBCResourceConnector.class);
+        DataSource            dataSource            = mock(DataSource.class);
+
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcResourceConnector.getDataSource()).thenReturn(dataSource);
+
+        when(jdbcResourceConnector.getRowCursor(any(Connection.class), anyString(), anyList(), anyInt())).thenAnswer(invocation ->
+        {
+            String sqlQuery = invocation.getArgument(1);
+
+            for (RepositoryTable currentTable : List.of(RepositoryTable.CURRENT_ENTITY, RepositoryTable.CURRENT_RELATIONSHIP, RepositoryTable.CURRENT_CLASSIFICATION))
+            {
+                if (sqlQuery.contains(" from " + currentTable.getTableName() + " where "))
+                {
+                    return this.getRowCursor(storedRows.getOrDefault(currentTable, List.of()));
+                }
+            }
+
+            return this.getRowCursor(List.of());
+        });
+
+        doAnswer(invocation ->
+        {
+            commands.computeIfAbsent(invocation.getArgument(1), template -> new ArrayList<>()).addAll(invocation.getArgument(2));
+            return null;
+        }).when(jdbcResourceConnector).issueSQLCommandBatch(any(Connection.class), anyString(), anyList());
+
+        doAnswer(invocation ->
+        {
+            insertedRows.computeIfAbsent(invocation.getArgument(1), tableName -> new ArrayList<>()).addAll(invocation.getArgument(2));
+            return null;
+        }).when(jdbcResourceConnector).insertRowsIntoTable(any(Connection.class), anyString(), anyList());
+
+        return jdbcResourceConnector;
+    }
+
+
+    /**
+     * Return a cursor over rows whose columns are read by index, as the cursor from the database does.
+     *
+     * @param rows column values of each row
+     * @return mock cursor
+     * @throws Exception problem with the mocks
+     */
+    private JDBCRowCursor getRowCursor(List<Object[]> rows) throws Exception
+    {
+        JDBCRowCursor rowCursor  = mock(JDBCRowCursor.class);
+        int[]         currentRow = {-1};
+
+        when(rowCursor.next()).thenAnswer(invocation -> ++currentRow[0] < rows.size());
+        when(rowCursor.getString(anyInt())).thenAnswer(invocation -> rows.get(currentRow[0])[invocation.<Integer>getArgument(0) - 1]);
+        when(rowCursor.getLong(anyInt())).thenAnswer(invocation -> rows.get(currentRow[0])[invocation.<Integer>getArgument(0) - 1]);
+
+        return rowCursor;
+    }
+
+
+    /**
+     * Return a mapper for a version of an entity.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version number
+     * @param classificationMappers classifications of the entity
+     * @return mock mapper
+     * @throws Exception problem with the mocks
+     */
+    private EntityMapper getEntityMapper(String                     guid,
+                                         long                       version,
+                                         List<ClassificationMapper> classificationMappers) throws Exception
+    {
+        EntityDetail entityDetail = new EntityDetail();
+
+        entityDetail.setGUID(guid);
+        entityDetail.setVersion(version);
+        entityDetail.setUpdateTime(updateTime);
+
+        EntityMapper entityMapper = mock(EntityMapper.class);
+
+        when(entityMapper.getEntityDetail()).thenReturn(entityDetail);
+        when(entityMapper.getEntityTableRow()).thenReturn(this.getInstanceRow(guid, null, version));
+        when(entityMapper.getEntityPropertiesTableRows()).thenReturn(List.of());
+        when(entityMapper.getClassificationMappers()).thenReturn(classificationMappers);
+
+        return entityMapper;
+    }
+
+
+    /**
+     * Return a mapper for the proxy of an entity at the end of a relationship.
+     *
+     * @param guid unique identifier of the entity
+     * @return mock mapper
+     * @throws Exception problem with the mocks
+     */
+    private EntityMapper getEntityProxyMapper(String guid) throws Exception
+    {
+        EntityProxy entityProxy = new EntityProxy();
+
+        entityProxy.setGUID(guid);
+        entityProxy.setVersion(1L);
+
+        Map<String, JDBCDataValue> proxyRow = this.getInstanceRow(guid, null, 1L);
+
+        proxyRow.put(RepositoryColumn.IS_PROXY.getColumnName(), new JDBCDataValue(true, Types.BOOLEAN));
+
+        EntityMapper entityMapper = mock(EntityMapper.class);
+
+        when(entityMapper.getEntityProxy()).thenReturn(entityProxy);
+        when(entityMapper.getEntityTableRow()).thenReturn(proxyRow);
+        when(entityMapper.getUniquePropertiesTableRows()).thenReturn(List.of());
+        when(entityMapper.getClassificationMappers()).thenReturn(List.of());
+
+        return entityMapper;
+    }
+
+
+    /**
+     * Return a mapper for a version of a relationship.
+     *
+     * @param guid unique identifier of the relationship
+     * @param version version number
+     * @param end1GUID unique identifier of the entity at end 1
+     * @param end2GUID unique identifier of the entity at end 2
+     * @return mock mapper
+     * @throws Exception problem with the mocks
+     */
+    private RelationshipMapper getRelationshipMapper(String guid,
+                                                     long   version,
+                                                     String end1GUID,
+                                                     String end2GUID) throws Exception
+    {
+        EntityMapper end1Mapper = this.getEntityProxyMapper(end1GUID);
+        EntityMapper end2Mapper = this.getEntityProxyMapper(end2GUID);
+
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setVersion(version);
+        relationship.setUpdateTime(updateTime);
+        relationship.setEntityOneProxy(end1Mapper.getEntityProxy());
+        relationship.setEntityTwoProxy(end2Mapper.getEntityProxy());
+
+        RelationshipMapper relationshipMapper = mock(RelationshipMapper.class);
+
+        when(relationshipMapper.getRelationship()).thenReturn(relationship);
+        when(relationshipMapper.getRelationshipTableRow()).thenReturn(this.getInstanceRow(guid, null, version));
+        when(relationshipMapper.getRelationshipPropertiesTableRows()).thenReturn(List.of());
+        when(relationshipMapper.getEnd1Mapper()).thenReturn(end1Mapper);
+        when(relationshipMapper.getEnd2Mapper()).thenReturn(end2Mapper);
+
+        return relationshipMapper;
+    }
+
+
+    /**
+     * Return a mapper for a version of a classification.
+     *
+     * @param entityGUID unique identifier of the classified entity
+     * @param classificationName name of the classification
+     * @param version version number
+     * @return mock mapper
+     * @throws Exception problem with the mocks
+     */
+    private ClassificationMapper getClassificationMapper(String entityGUID,
+                                                         String classificationName,
+                                                         long   version) throws Exception
+    {
+        Classification classification = new Classification();
+
+        classification.setName(classificationName);
+        classification.setVersion(version);
+        classification.setUpdateTime(updateTime);
+
+        ClassificationMapper classificationMapper = mock(ClassificationMapper.class);
+
+        when(classificationMapper.getEntityGUID()).thenReturn(entityGUID);
+        when(classificationMapper.getClassification()).thenReturn(classification);
+        when(classificationMapper.getClassificationTableRow()).thenReturn(this.getInstanceRow(entityGUID, classificationName, version));
+        when(classificationMapper.getClassificationPropertiesTableRows()).thenReturn(List.of());
+
+        return classificationMapper;
+    }
+
+
+    /**
+     * Return the key columns of a row for an instance.
+     *
+     * @param guid unique identifier of the instance (or the classified entity)
+     * @param classificationName name of the classification or null for an entity or relationship
+     * @param version version number
+     * @return row
+     */
+    private Map<String, JDBCDataValue> getInstanceRow(String guid,
+                                                      String classificationName,
+                                                      long   version)
+    {
+        Map<String, JDBCDataValue> instanceRow = new HashMap<>();
+
+        instanceRow.put(RepositoryColumn.INSTANCE_GUID.getColumnName(), new JDBCDataValue(guid, Types.VARCHAR));
+        instanceRow.put(RepositoryColumn.VERSION.getColumnName(), new JDBCDataValue(version, Types.BIGINT));
+
+        if (classificationName != null)
+        {
+            instanceRow.put(RepositoryColumn.CLASSIFICATION_NAME.getColumnName(), new JDBCDataValue(classificationName, Types.VARCHAR));
+        }
+
+        return instanceRow;
+    }
+}
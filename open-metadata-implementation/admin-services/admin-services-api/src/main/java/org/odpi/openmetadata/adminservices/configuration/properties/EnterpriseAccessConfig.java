@@ -36,6 +36,44 @@ import static com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility.PUBLIC_
  *     <li>
  *         remoteEnterpriseOMRSTopicConnection - connection for the remote (external) enterprise OMRS Topic connector.
  *     </li>
+ *     <li>
+ *         parallelFederation - flag to indicate whether federated queries are issued to the cohort members in
+ *                              parallel (true) or one after another (false).
+ *     </li>
+ *     <li>
+ *         maxFederationWorkers - maximum number of worker threads that the server uses to run parallel federated
+ *                                queries.  Zero means use the default.
+ *     </li>
+ *     <li>
+ *         federationTimeout - maximum time (in milliseconds) that a parallel federated query waits for a cohort
+ *                             member to respond.  Zero means use the default.
+ *     </li>
+ *     <li>
+ *         hedgedRetrieval - flag to indicate whether requests to retrieve a single instance are issued to all
+ *                           cohort members at once and complete as soon as the instance's home repository responds.
+ *                           This only applies when parallelFederation is set.
+ *     </li>
+ *     <li>
+ *         referenceCopyDeadline - time (in milliseconds) that a hedged retrieval waits for the home repository
+ *                                 before it accepts a reference copy of the instance.  Zero means use the default.
+ *     </li>
+ *     <li>
+ *         instanceHomeLocator - flag to indicate whether the server remembers the home repository of the instances
+ *                               it sees so requests for a single instance can go straight to its home repository.
+ *     </li>
+ *     <li>
+ *         instanceHomeLocatorSize - maximum number of instances that the instance home locator remembers.
+ *                                   Zero means use the default.
+ *     </li>
+ *     <li>
+ *         orderedFederatedPaging - flag to indicate whether the results of federated queries are merged into a
+ *                                  single list ordered by the requested sequencing property/order, with each page
+ *                                  continuing from the position each cohort member reached on the previous page.
+ *     </li>
+ *     <li>
+ *         pagingCursorCacheSize - maximum number of continuation cursors that ordered federated paging remembers.
+ *                                 Zero means use the default.
+ *     </li>
  * </ul>
  */
 @JsonAutoDetect(getterVisibility=PUBLIC_ONLY, setterVisibility=PUBLIC_ONLY, fieldVisibility=NONE)
@@ -48,6 +86,15 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     private Connection                       enterpriseOMRSTopicConnection       = null;
     private OpenMetadataEventProtocolVersion enterpriseOMRSTopicProtocolVersion  = null;
     private Connection                       remoteEnterpriseOMRSTopicConnection = null;
+    private boolean                          parallelFederation                  = false;
+    private int                              maxFederationWorkers                = 0;
+    private long                             federationTimeout                   = 0L;
+    private boolean                          hedgedRetrieval                     = false;
+    private long                             referenceCopyDeadline               = 0L;
+    private boolean                          instanceHomeLocator                 = false;
+    private int                              instanceHomeLocatorSize             = 0;
+    private boolean                          orderedFederatedPaging              = false;
+    private int                              pagingCursorCacheSize               = 0;
 
 
     /**
@@ -75,6 +122,15 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
             this.enterpriseOMRSTopicConnection = template.getEnterpriseOMRSTopicConnection();
             this.enterpriseOMRSTopicProtocolVersion = template.getEnterpriseOMRSTopicProtocolVersion();
             this.remoteEnterpriseOMRSTopicConnection = template.getRemoteEnterpriseOMRSTopicConnection();
+            this.parallelFederation = template.getParallelFederation();
+            this.maxFederationWorkers = template.getMaxFederationWorkers();
+            this.federationTimeout = template.getFederationTimeout();
+            this.hedgedRetrieval = template.getHedgedRetrieval();
+            this.referenceCopyDeadline = template.getReferenceCopyDeadline();
+            this.instanceHomeLocator = template.getInstanceHomeLocator();
+            this.instanceHomeLocatorSize = template.getInstanceHomeLocatorSize();
+            this.orderedFederatedPaging = template.getOrderedFederatedPaging();
+            this.pagingCursorCacheSize = template.getPagingCursorCacheSize();
         }
     }
 
@@ -218,6 +274,216 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     }
 
 
+    /**
+     * Return whether federated queries are issued to the cohort members in parallel.
+     *
+     * @return boolean flag
+     */
+    public boolean getParallelFederation()
+    {
+        return parallelFederation;
+    }
+
+
+    /**
+     * Set up whether federated queries are issued to the cohort members in parallel.
+     *
+     * @param parallelFederation boolean flag
+     */
+    public void setParallelFederation(boolean parallelFederation)
+    {
+        this.parallelFederation = parallelFederation;
+    }
+
+
+    /**
+     * Return the maximum number of worker threads used to run parallel federated queries.  Zero means use the default.
+     *
+     * @return int
+     */
+    public int getMaxFederationWorkers()
+    {
+        return maxFederationWorkers;
+    }
+
+
+    /**
+     * Set up the maximum number of worker threads used to run parallel federated queries.  Zero means use the default.
+     *
+     * @param maxFederationWorkers int
+     */
+    public void setMaxFederationWorkers(int maxFederationWorkers)
+    {
+        this.maxFederationWorkers = maxFederationWorkers;
+    }
+
+
+    /**
+     * Return the maximum time (in milliseconds) that a parallel federated query waits for a cohort member to respond.
+     * Zero means use the default.
+     *
+     * @return long
+     */
+    public long getFederationTimeout()
+    {
+        return federationTimeout;
+    }
+
+
+    /**
+     * Set up the maximum time (in milliseconds) that a parallel federated query waits for a cohort member to respond.
+     * Zero means use the default.
+     *
+     * @param federationTimeout long
+     */
+    public void setFederationTimeout(long federationTimeout)
+    {
+        this.federationTimeout = federationTimeout;
+    }
+
+
+    /**
+     * Return whether requests to retrieve a single instance complete as soon as the instance's home repository responds.
+     *
+     * @return boolean flag
+     */
+    public boolean getHedgedRetrieval()
+    {
+        return hedgedRetrieval;
+    }
+
+
+    /**
+     * Set up whether requests to retrieve a single instance complete as soon as the instance's home repository responds.
+     *
+     * @param hedgedRetrieval boolean flag
+     */
+    public void setHedgedRetrieval(boolean hedgedRetrieval)
+    {
+        this.hedgedRetrieval = hedgedRetrieval;
+    }
+
+
+    /**
+     * Return the time (in milliseconds) that a hedged retrieval waits for the home repository before it accepts
+     * a reference copy.  Zero means use the default.
+     *
+     * @return long
+     */
+    public long getReferenceCopyDeadline()
+    {
+        return referenceCopyDeadline;
+    }
+
+
+    /**
+     * Set up the time (in milliseconds) that a hedged retrieval waits for the home repository before it accepts
+     * a reference copy.  Zero means use the default.
+     *
+     * @param referenceCopyDeadline long
+     */
+    public void setReferenceCopyDeadline(long referenceCopyDeadline)
+    {
+        this.referenceCopyDeadline = referenceCopyDeadline;
+    }
+
+
+    /**
+     * Return whether the server remembers the home repository of the instances it sees so requests for a single
+     * instance can go straight to its home repository.
+     *
+     * @return boolean flag
+     */
+    public boolean getInstanceHomeLocator()
+    {
+        return instanceHomeLocator;
+    }
+
+
+    /**
+     * Set up whether the server remembers the home repository of the instances it sees so requests for a single
+     * instance can go straight to its home repository.
+     *
+     * @param instanceHomeLocator boolean flag
+     */
+    public void setInstanceHomeLocator(boolean instanceHomeLocator)
+    {
+        this.instanceHomeLocator = instanceHomeLocator;
+    }
+
+
+    /**
+     * Return the maximum number of instances that the instance home locator remembers.  Zero means use the default.
+     *
+     * @return int
+     */
+    public int getInstanceHomeLocatorSize()
+    {
+        return instanceHomeLocatorSize;
+    }
+
+
+    /**
+     * Set up the maximum number of instances that the instance home locator remembers.  Zero means use the default.
+     *
+     * @param instanceHomeLocatorSize int
+     */
+    public void setInstanceHomeLocatorSize(int instanceHomeLocatorSize)
+    {
+        this.instanceHomeLocatorSize = instanceHomeLocatorSize;
+    }
+
+
+    /**
+     * Return whether the results of federated queries are merged into a single list ordered by the requested
+     * sequencing property/order, with each page continuing from the position each cohort member reached on the
+     * previous page.
+     *
+     * @return boolean flag
+     */
+    public boolean getOrderedFederatedPaging()
+    {
+        return orderedFederatedPaging;
+    }
+
+
+    /**
+     * Set up whether the results of federated queries are merged into a single list ordered by the requested
+     * sequencing property/order, with each page continuing from the position each cohort member reached on the
+     * previous page.
+     *
+     * @param orderedFederatedPaging boolean flag
+     */
+    public void setOrderedFederatedPaging(boolean orderedFederatedPaging)
+    {
+        this.orderedFederatedPaging = orderedFederatedPaging;
+    }
+
+
+    /**
+     * Return the maximum number of continuation cursors that ordered federated paging remembers.  Zero means use
+     * the default.
+     *
+     * @return int
+     */
+    public int getPagingCursorCacheSize()
+    {
+        return pagingCursorCacheSize;
+    }
+
+
+    /**
+     * Set up the maximum number of continuation cursors that ordered federated paging remembers.  Zero means use
+     * the default.
+     *
+     * @param pagingCursorCacheSize int
+     */
+    public void setPagingCursorCacheSize(int pagingCursorCacheSize)
+    {
+        this.pagingCursorCacheSize = pagingCursorCacheSize;
+    }
+
+
     /**
      * Standard toString method.
      *
@@ -232,6 +498,15 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
                        ", enterpriseOMRSTopicConnection=" + enterpriseOMRSTopicConnection +
                        ", enterpriseOMRSTopicProtocolVersion=" + enterpriseOMRSTopicProtocolVersion +
                        ", remoteEnterpriseOMRSTopicConnection=" + remoteEnterpriseOMRSTopicConnection +
+                       ", parallelFederation=" + parallelFederation +
+                       ", maxFederationWorkers=" + maxFederationWorkers +
+                       ", federationTimeout=" + federationTimeout +
+                       ", hedgedRetrieval=" + hedgedRetrieval +
+                       ", referenceCopyDeadline=" + referenceCopyDeadline +
+                       ", instanceHomeLocator=" + instanceHomeLocator +
+                       ", instanceHomeLocatorSize=" + instanceHomeLocatorSize +
+                       ", orderedFederatedPaging=" + orderedFederatedPaging +
+                       ", pagingCursorCacheSize=" + pagingCursorCacheSize +
                        '}';
     }
 
@@ -254,7 +529,16 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
             return false;
         }
         EnterpriseAccessConfig that = (EnterpriseAccessConfig) objectToCompare;
-        return Objects.equals(enterpriseMetadataCollectionName, that.enterpriseMetadataCollectionName) &&
+        return parallelFederation == that.parallelFederation &&
+                       maxFederationWorkers == that.maxFederationWorkers &&
+                       federationTimeout == that.federationTimeout &&
+                       hedgedRetrieval == that.hedgedRetrieval &&
+                       referenceCopyDeadline == that.referenceCopyDeadline &&
+                       instanceHomeLocator == that.instanceHomeLocator &&
+                       instanceHomeLocatorSize == that.instanceHomeLocatorSize &&
+                       orderedFederatedPaging == that.orderedFederatedPaging &&
+                       pagingCursorCacheSize == that.pagingCursorCacheSize &&
+                       Objects.equals(enterpriseMetadataCollectionName, that.enterpriseMetadataCollectionName) &&
                        Objects.equals(enterpriseMetadataCollectionId, that.enterpriseMetadataCollectionId) &&
                        Objects.equals(enterpriseOMRSTopicConnection, that.enterpriseOMRSTopicConnection) &&
                        enterpriseOMRSTopicProtocolVersion == that.enterpriseOMRSTopicProtocolVersion &&
@@ -272,6 +556,9 @@ public class EnterpriseAccessConfig extends AdminServicesConfigHeader
     public int hashCode()
     {
         return Objects.hash(enterpriseMetadataCollectionName, enterpriseMetadataCollectionId, enterpriseOMRSTopicConnection,
-                            enterpriseOMRSTopicProtocolVersion, remoteEnterpriseOMRSTopicConnection);
+                            enterpriseOMRSTopicProtocolVersion, remoteEnterpriseOMRSTopicConnection,
+                            parallelFederation, maxFederationWorkers, federationTimeout,
+                            hedgedRetrieval, referenceCopyDeadline, instanceHomeLocator, instanceHomeLocatorSize,
+                            orderedFederatedPaging, pagingCursorCacheSize);
     }
 }
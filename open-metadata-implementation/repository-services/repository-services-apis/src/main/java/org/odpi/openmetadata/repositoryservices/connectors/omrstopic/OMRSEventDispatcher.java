@@ -0,0 +1,241 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.future.OMRSFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * OMRSEventDispatcher passes the events received by the OMRSTopicConnector to its listeners on a fixed set of
+ * lanes.  Each lane is a thread with its own queue, so events on different lanes are processed concurrently
+ * and events on the same lane are processed in the order they were dispatched.  The OMRSTopicConnector chooses
+ * the lane from the instance GUID of each instance event so that the events for an instance stay in order.
+ * <br><br>
+ * Events without a lane key, such as the registry and type events, are barriers: the dispatcher waits for the
+ * lanes to finish the events already dispatched and then processes the event on the calling thread.  This means
+ * an instance event is never processed before a type event that was received ahead of it.
+ * <br><br>
+ * Each dispatched event is registered with the InternalOMRSEventProcessingContext of the calling thread, so
+ * the event bus connector only records an event as processed once its lane has finished with it.
+ */
+class OMRSEventDispatcher
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSEventDispatcher.class);
+
+    private static final int laneQueueSize = 1000;
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+
+    /**
+     * Constructor starts the lane threads.
+     *
+     * @param threadName name used as the prefix of the lane thread names
+     * @param laneCount number of lanes
+     */
+    OMRSEventDispatcher(String threadName,
+                        int    laneCount)
+    {
+        for (int laneNumber = 0; laneNumber < laneCount; laneNumber++)
+        {
+            Lane lane = new Lane();
+
+            Thread laneThread = new Thread(lane, threadName + "-" + laneNumber);
+            laneThread.setDaemon(true);
+            laneThread.start();
+
+            lanes.add(lane);
+        }
+    }
+
+
+    /**
+     * Pass an event to the lane for its key.  If the lane's queue is full, the caller waits for space.
+     *
+     * @param laneKey key that selects the lane, or null if the event is a barrier
+     * @param eventProcessor processing of the event
+     */
+    void dispatch(String   laneKey,
+                  Runnable eventProcessor)
+    {
+        if (laneKey == null)
+        {
+            this.waitForLanes();
+            eventProcessor.run();
+        }
+        else
+        {
+            InternalOMRSEventProcessingContext processingContext = InternalOMRSEventProcessingContext.getInstance();
+
+            LaneTask laneTask = new LaneTask(processingContext.getCurrentMessageId(), eventProcessor);
+
+            lanes.get(Math.floorMod(laneKey.hashCode(), lanes.size())).submit(laneTask);
+
+            processingContext.addAsyncProcessingResult(laneTask);
+        }
+    }
+
+
+    /**
+     * Wait until each lane has processed the events dispatched to it so far.
+     */
+    void waitForLanes()
+    {
+        CountDownLatch lanesDrained = new CountDownLatch(lanes.size());
+
+        for (Lane lane : lanes)
+        {
+            lane.submit(new LaneTask(null, lanesDrained::countDown));
+        }
+
+        try
+        {
+            lanesDrained.await();
+        }
+        catch (InterruptedException interrupted)
+        {
+            log.debug("Interrupted while waiting for the listener lanes");
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Stop the lane threads once they have processed the events already dispatched.
+     */
+    void shutdown()
+    {
+        for (Lane lane : lanes)
+        {
+            lane.submit(new LaneTask(null, null));
+        }
+    }
+
+
+    /**
+     * A Lane processes its events one at a time in the order they were submitted.
+     */
+    private static class Lane implements Runnable
+    {
+        private final BlockingQueue<LaneTask> laneTasks = new LinkedBlockingQueue<>(laneQueueSize);
+
+
+        /**
+         * Add a task to the end of the lane, waiting for space if necessary.
+         *
+         * @param laneTask task to add
+         */
+        void submit(LaneTask laneTask)
+        {
+            try
+            {
+                laneTasks.put(laneTask);
+            }
+            catch (InterruptedException interrupted)
+            {
+                log.debug("Interrupted while waiting to dispatch event: {}", laneTask.messageId);
+                Thread.currentThread().interrupt();
+            }
+        }
+
+
+        /**
+         * Process the tasks until a task without a processor is received.
+         */
+        @Override
+        public void run()
+        {
+            while (true)
+            {
+                try
+                {
+                    LaneTask laneTask = laneTasks.take();
+
+                    if (laneTask.eventProcessor == null)
+                    {
+                        return;
+                    }
+
+                    laneTask.run();
+                }
+                catch (InterruptedException interrupted)
+                {
+                    log.debug("Listener lane interrupted");
+                    return;
+                }
+                catch (Exception error)
+                {
+                    log.error("Unexpected exception from listener lane", error);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * A LaneTask is the processing of one event on a lane.  It is done once the processing has returned and any
+     * asynchronous processing that the listeners registered with the lane's processing context is complete.
+     */
+    private static class LaneTask implements Runnable, OMRSFuture
+    {
+        private final    String     messageId;
+        private final    Runnable   eventProcessor;
+        private volatile OMRSFuture processingResult = null;
+
+
+        /**
+         * Constructor
+         *
+         * @param messageId identifier of the event
+         * @param eventProcessor processing of the event
+         */
+        LaneTask(String   messageId,
+                 Runnable eventProcessor)
+        {
+            this.messageId      = messageId;
+            this.eventProcessor = eventProcessor;
+        }
+
+
+        /**
+         * Process the event with a new processing context.
+         */
+        @Override
+        public void run()
+        {
+            InternalOMRSEventProcessingContext.clear();
+            InternalOMRSEventProcessingContext.getInstance().setCurrentMessageId(messageId);
+
+            try
+            {
+                eventProcessor.run();
+            }
+            finally
+            {
+                processingResult = InternalOMRSEventProcessingContext.getInstance().getOverallAsyncProcessingResult();
+                InternalOMRSEventProcessingContext.clear();
+            }
+        }
+
+
+        /**
+         * Return whether the processing of the event is complete.
+         *
+         * @return boolean
+         */
+        @Override
+        public boolean isDone()
+        {
+            OMRSFuture result = processingResult;
+
+            return (result != null) && (result.isDone());
+        }
+    }
+}
@@ -16,12 +16,15 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedExcep
 import org.odpi.openmetadata.repositoryservices.auditlog.OMRSAuditingComponent;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic.OpenMetadataTopicListener;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
 import org.odpi.openmetadata.repositoryservices.events.OMRSEventProtocolVersion;
 import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
 import org.odpi.openmetadata.repositoryservices.events.OMRSRegistryEvent;
 import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
 import org.odpi.openmetadata.repositoryservices.events.beans.OMRSEventBean;
 import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2InstanceSection;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSLogicErrorException;
@@ -59,6 +62,20 @@ import java.util.concurrent.CompletionException;
  *         connectors that implement OpenMetadataTopic.
  *     </li>
  * </ul>
+ * <p>
+ *     By default, the inbound events are passed to each listener in turn on the event bus connector's thread.
+ *     If the listenerLanes configuration property is greater than 1, the instance events are passed to the
+ *     listeners on that number of lanes (threads) by an OMRSEventDispatcher.  The lane is chosen from the
+ *     instance GUID so the events for each instance are processed in the order they were received.
+ *     Events for different instances may be processed concurrently, so the listeners must be thread-safe.
+ * </p>
+ * <p>
+ *     Each inbound event is parsed and unpacked once, and the resulting OMRS event object is passed to
+ *     every listener.  This saves one event wrapper per listener; the entities, relationships and other
+ *     beans inside the event were already shared.  Nothing stops a listener from changing the shared
+ *     event, so the listeners must leave it unchanged by convention.  A listener that needs to change the
+ *     instances in an event works on a copy made with the OMRSInstanceEvent copy constructor.
+ * </p>
  */
 public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
                                                                  VirtualConnectorExtension,
@@ -79,6 +96,7 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     private String                    connectionName       = OMRSAuditingComponent.OMRS_TOPIC_CONNECTOR.getComponentName();
     private String                    topicName = unknownTopicName;
     private OMRSEventProtocolVersion  eventProtocolVersion = OMRSEventProtocolVersion.V2;
+    private OMRSEventDispatcher       eventDispatcher      = null;
 
     protected AuditLog auditLog = null;
 
@@ -137,6 +155,25 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     }
 
 
+    /**
+     * Return the number of milliseconds that an outbound event publisher may hold the instance events for this
+     * topic so that repeated events for the same instance can be coalesced.  This is set with the
+     * eventCoalescingWindow configuration property.
+     *
+     * @return window in milliseconds; zero means the events are sent immediately
+     */
+    public int getEventCoalescingWindow()
+    {
+        if (connectionBean != null)
+        {
+            return super.getIntConfigurationProperty(OMRSTopicProvider.EVENT_COALESCING_WINDOW_PROPERTY_NAME,
+                                                     connectionBean.getConfigurationProperties());
+        }
+
+        return 0;
+    }
+
+
     /**
      * Register a listener object.  This object will be supplied with all the events
      * received on the topic.
@@ -269,6 +306,17 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
         }
         else
         {
+            if (connectionBean != null)
+            {
+                int listenerLanes = super.getIntConfigurationProperty(OMRSTopicProvider.LISTENER_LANES_PROPERTY_NAME,
+                                                                      connectionBean.getConfigurationProperties());
+
+                if (listenerLanes > 1)
+                {
+                    eventDispatcher = new OMRSEventDispatcher("OMRSTopicListenerLane: " + topicName, listenerLanes);
+                }
+            }
+
             for (OpenMetadataTopicConnector eventBusConnector : eventBusConnectors)
             {
                 eventBusConnector.start();
@@ -455,7 +503,6 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     public void processEvent(String event)
     {
         final String actionDescription = "Process an OMRS Event";
-        final String methodName = "processEvent";
 
         if (event != null)
         {
@@ -484,28 +531,14 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             if (eventBean instanceof OMRSEventV2 finalEventBean)
             {
-                //internalTopicListeners.parallelStream().forEach((topicListener) ->
-                for (OMRSTopicListener topicListener : internalTopicListeners)
+                if (eventDispatcher == null)
                 {
-                    try
-                    {
-                        this.processOMRSEvent(finalEventBean, topicListener);
-                    }
-                    catch (Exception  error)
-                    {
-                        log.debug("Unable to pass event to one of the topic listeners");
-
-                        if (auditLog != null)
-                        {
-                            auditLog.logException(methodName,
-                                                  OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
-                                                                                                            error.toString(),
-                                                                                                            topicListener.toString()),
-                                                  event,
-                                                  error);
-                        }
-                    }
-                } //);
+                    this.distributeEvent(event, finalEventBean);
+                }
+                else
+                {
+                    eventDispatcher.dispatch(getLaneKey(finalEventBean), () -> this.distributeEvent(event, finalEventBean));
+                }
             }
         }
         else
@@ -521,15 +554,81 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
 
     /**
-     * Process the OMRS Event bean.  The processing is careful of nulls and ignores an event
-     * that is incorrectly formatted.  The assumption is that the unformatted part of the message
-     * is an extension from a newer version of the protocol and can be ignored.
+     * Pass a parsed event to each of the registered listeners.  The event is unpacked into its OMRS event
+     * object once and the same object is passed to every listener.
+     *
+     * @param event inbound event
+     * @param eventBean parsed event
+     */
+    private void distributeEvent(String      event,
+                                 OMRSEventV2 eventBean)
+    {
+        final String methodName = "processEvent";
+
+        OMRSEvent omrsEvent = this.getOMRSEvent(eventBean);
+
+        if (omrsEvent != null)
+        {
+            for (OMRSTopicListener topicListener : internalTopicListeners)
+            {
+                try
+                {
+                    this.processOMRSEvent(omrsEvent, topicListener);
+                }
+                catch (Exception  error)
+                {
+                    log.debug("Unable to pass event to one of the topic listeners");
+
+                    if (auditLog != null)
+                    {
+                        auditLog.logException(methodName,
+                                              OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event,
+                                                                                                        error.toString(),
+                                                                                                        topicListener.toString()),
+                                              event,
+                                              error);
+                    }
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return the key that selects the listener lane for an event.  Instance events are kept in order for each
+     * instance.  Instance events without an instance GUID are kept in order for their type.  The other events
+     * have no key so that they are processed once the events received before them are complete.
+     *
+     * @param event parsed event
+     * @return lane key or null
+     */
+    static String getLaneKey(OMRSEventV2 event)
+    {
+        if ((event.getEventCategory() == OMRSEventCategory.INSTANCE) && (event.getInstanceEventSection() != null))
+        {
+            OMRSEventV2InstanceSection instanceSection = event.getInstanceEventSection();
+
+            if (instanceSection.getInstanceGUID() != null)
+            {
+                return instanceSection.getInstanceGUID();
+            }
+
+            return instanceSection.getTypeDefName();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Unpack the OMRS Event bean into the OMRS event object for its category.  The processing is careful of
+     * nulls and ignores an event that is incorrectly formatted.  The assumption is that the unformatted part
+     * of the message is an extension from a newer version of the protocol and can be ignored.
      *
      * @param event Version 1 of the OMRSEvent that defines the category and payload of the incoming event.
-     * @param topicListener listener that will receive the event.
+     * @return OMRS event or null if the event is not understood
      */
-    private void processOMRSEvent(OMRSEventV2 event,
-                                  OMRSTopicListener  topicListener)
+    private OMRSEvent getOMRSEvent(OMRSEventV2 event)
     {
         String   actionDescription = "Process Incoming Event";
 
@@ -543,9 +642,9 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
              */
             switch (event.getEventCategory())
             {
-                case REGISTRY -> topicListener.processRegistryEvent(new OMRSRegistryEvent(event));
-                case TYPEDEF -> topicListener.processTypeDefEvent(new OMRSTypeDefEvent(event));
-                case INSTANCE -> topicListener.processInstanceEvent(new OMRSInstanceEvent(event));
+                case REGISTRY -> { return new OMRSRegistryEvent(event); }
+                case TYPEDEF -> { return new OMRSTypeDefEvent(event); }
+                case INSTANCE -> { return new OMRSInstanceEvent(event); }
                 default ->
                 {
                     /*
@@ -575,6 +674,32 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
 
             log.debug("Null OMRS Event received :(");
         }
+
+        return null;
+    }
+
+
+    /**
+     * Pass an OMRS event to a listener.  The event is shared with the other listeners.
+     *
+     * @param event unpacked inbound event
+     * @param topicListener listener that will receive the event.
+     */
+    private void processOMRSEvent(OMRSEvent          event,
+                                  OMRSTopicListener  topicListener)
+    {
+        if (event instanceof OMRSRegistryEvent registryEvent)
+        {
+            topicListener.processRegistryEvent(registryEvent);
+        }
+        else if (event instanceof OMRSTypeDefEvent typeDefEvent)
+        {
+            topicListener.processTypeDefEvent(typeDefEvent);
+        }
+        else if (event instanceof OMRSInstanceEvent instanceEvent)
+        {
+            topicListener.processInstanceEvent(instanceEvent);
+        }
     }
 
     /**
@@ -587,6 +712,11 @@ public class OMRSTopicConnector extends ConnectorBase implements OMRSTopic,
     {
         super.disconnect();
 
+        if (eventDispatcher != null)
+        {
+            eventDispatcher.shutdown();
+        }
+
         final String actionDescription = "Disconnect OMRS Topic Connector";
 
         if ((auditLog != null) && (! unknownTopicName.equals(topicName)))
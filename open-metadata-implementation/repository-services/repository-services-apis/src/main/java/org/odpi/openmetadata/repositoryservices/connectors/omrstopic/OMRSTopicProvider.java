@@ -14,6 +14,9 @@ import java.util.List;
  */
 public class OMRSTopicProvider extends OpenConnectorProviderBase
 {
+    public static final String LISTENER_LANES_PROPERTY_NAME           = "listenerLanes";
+    public static final String EVENT_COALESCING_WINDOW_PROPERTY_NAME = "eventCoalescingWindow";
+
     /**
      * Constructor used to initialize the ConnectorProviderBase with the Java class name of the specific
      * OMRS Connector implementation.
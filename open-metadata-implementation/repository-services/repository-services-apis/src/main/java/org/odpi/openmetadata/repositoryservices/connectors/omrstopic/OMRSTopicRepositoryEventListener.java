@@ -20,7 +20,8 @@ public interface OMRSTopicRepositoryEventListener
 
 
     /**
-     * Method to pass an Instance event received on topic.
+     * Method to pass an Instance event received on topic.  The event is shared with the other listeners
+     * and must not be changed.  Use the OMRSInstanceEvent copy constructor to create a copy to change.
      *
      * @param event inbound event
      */
@@ -2,16 +2,22 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
 import org.odpi.openmetadata.frameworks.auditlog.AuditLoggingComponent;
 import org.odpi.openmetadata.frameworks.auditlog.ComponentDescription;
 import org.odpi.openmetadata.frameworks.connectors.ConnectorBase;
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
 import org.odpi.openmetadata.frameworks.connectors.properties.beans.Endpoint;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
@@ -27,10 +33,19 @@ import org.slf4j.LoggerFactory;
  * extend this class to include the interaction with the eventing/messaging layer.
  * <ul>
  *     <li>
- *         For inbound events it should call the protected distributeEvents() method.
+ *         For inbound events it should call the protected deliverIncomingEvent() method.  The events are handed
+ *         to the listener thread through a queue.  The listener thread blocks on the queue when there are
+ *         no events, and passes all the events waiting on the queue to the listeners each time it wakes up.
+ *         Implementations that call deliverIncomingEvent() must override isPollingForEvents() to return false.
+ *         The queue is bounded unless isIncomingEventQueueBounded() is overridden to return false.
+ *         Older implementations that override checkForIncomingEvents() are still polled every sleepTime
+ *         milliseconds.
  *     </li>
  *     <li>
- *         For outbound events, callers will invoke the sendEvent() method.
+ *         For outbound events, callers will invoke the sendEvent() method.  Implementations that send the
+ *         events to another process should pass them through encodeOutgoingEvent() so that they are sent
+ *         with the configured OpenMetadataTopicEventEncoding.  Incoming events are decoded before they are
+ *         passed to the listeners, whichever encoding they were sent with.
  *     </li>
  *     <li>
  *         When the server no longer needs the topic, it will call disconnect().
@@ -46,12 +61,30 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     private static final String       defaultThreadName = "OpenMetadataTopicListener";
     private static final String       defaultTopicName  = "OpenMetadataTopic";
 
+    private static final int          defaultIncomingEventQueueSize = 1000;
+    private static final int          maxEventBatchSize             = 100;
+
+    /*
+     * Placed on the incoming event queue by disconnect() to wake the listener thread.
+     */
+    private static final IncomingEvent endOfEvents = new IncomingEvent(null, null);
+
     private volatile boolean keepRunning = false;
 
     private final List<OpenMetadataTopicListener> topicListeners     = new ArrayList<>();
     private String                                listenerThreadName = defaultThreadName;
     private String                                topicName          = defaultTopicName;
     private int                                   sleepTime          = 100;
+    private OpenMetadataTopicEventEncoding        eventEncoding      = OpenMetadataTopicEventEncoding.JSON;
+
+    private volatile BlockingQueue<IncomingEvent> incomingEventQueue = new LinkedBlockingQueue<>(defaultIncomingEventQueueSize);
+    private volatile Thread                       listenerThread     = null;
+
+    /*
+     * Events sent to this topic by the listeners while the listener thread is distributing an event.  They are
+     * only accessed by the listener thread so that it never blocks on the incoming event queue.
+     */
+    private final Queue<IncomingEvent>            listenerEvents     = new ArrayDeque<>();
 
     protected AuditLog auditLog = null;
 
@@ -64,6 +97,44 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Call made by the ConnectorProvider to initialize the Connector with the base services.  The incoming event
+     * queue is created here, rather than in start(), because some implementations begin to receive events before
+     * they call start() on this class.
+     *
+     * @param connectorInstanceId   unique id for the connector instance   useful for messages etc
+     * @param connection   POJO for the configuration used to create the connector.
+     * @throws ConnectorCheckedException problem initializing the connector
+     */
+    @Override
+    public void initialize(String     connectorInstanceId,
+                           Connection connection) throws ConnectorCheckedException
+    {
+        super.initialize(connectorInstanceId, connection);
+
+        int queueSize = defaultIncomingEventQueueSize;
+
+        if ((connection != null) && (connection.getConfigurationProperties() != null))
+        {
+            Object incomingEventQueueSize = connection.getConfigurationProperties().get(OpenMetadataTopicProvider.INCOMING_EVENT_QUEUE_SIZE_PROPERTY_NAME);
+
+            if ((incomingEventQueueSize instanceof Integer configuredSize) && (configuredSize > 0))
+            {
+                queueSize = configuredSize;
+            }
+        }
+
+        if (this.isIncomingEventQueueBounded())
+        {
+            incomingEventQueue = new LinkedBlockingQueue<>(queueSize);
+        }
+        else
+        {
+            incomingEventQueue = new LinkedBlockingQueue<>();
+        }
+    }
+
+
     /**
      * Receive an audit log object that can be used to record audit log messages.  The caller has initialized it
      * with the correct component description and log destinations.
@@ -106,31 +177,59 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                                 this.getConnection().toString());
         }
 
+        boolean pollingForEvents = this.isPollingForEvents();
+
         while (keepRunning)
         {
             try
             {
-                try
-                {
-                    List<IncomingEvent> receivedEvents = checkForIncomingEvents();
+                List<IncomingEvent> receivedEvents = new ArrayList<>();
 
-                    if ((receivedEvents != null) && (!receivedEvents.isEmpty()))
+                if (pollingForEvents)
+                {
+                    try
                     {
-                        for (IncomingEvent event : receivedEvents)
+                        List<IncomingEvent> polledEvents = checkForIncomingEvents();
+
+                        if (polledEvents != null)
                         {
-                            if (event != null)
-                            {
-                                this.distributeEvent(event);
-                            }
+                            receivedEvents.addAll(polledEvents);
                         }
                     }
+                    catch (Exception   error)
+                    {
+                        log.error("Bad exception from checkForEvents", error);
+                    }
+
+                    incomingEventQueue.drainTo(receivedEvents);
+                }
+                else
+                {
+                    /*
+                     * Wait for the next event and then take any others that are waiting so that they are
+                     * distributed without waking the thread again.
+                     */
+                    receivedEvents.add(incomingEventQueue.take());
+                    incomingEventQueue.drainTo(receivedEvents, maxEventBatchSize - 1);
                 }
-                catch (Exception   error)
+
+                for (IncomingEvent event : receivedEvents)
                 {
-                    log.error("Bad exception from checkForEvents", error);
+                    if ((event != null) && (event != endOfEvents))
+                    {
+                        this.distributeEvent(event);
+                    }
+
+                    while (! listenerEvents.isEmpty())
+                    {
+                        this.distributeEvent(listenerEvents.remove());
+                    }
                 }
 
-                Thread.sleep(sleepTime);
+                if (pollingForEvents)
+                {
+                    Thread.sleep(sleepTime);
+                }
             }
             catch (InterruptedException   wakeUp)
             {
@@ -154,6 +253,27 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
      */
     private void distributeEvent(IncomingEvent event)
     {
+        final String actionDescription = "distributeEvent";
+
+        String json;
+
+        try
+        {
+            json = OpenMetadataTopicEventEncoding.decodeEvent(event.getJson());
+        }
+        catch (Exception error)
+        {
+            if (auditLog != null)
+            {
+                auditLog.logException(actionDescription,
+                                      OMRSAuditCode.EVENT_PARSING_ERROR.getMessageDefinition(event.getJson(), error.toString()),
+                                      error);
+            }
+
+            event.setState(IncomingEventState.DISTRIBUTED_TO_ALL_TOPIC_LISTENERS);
+            return;
+        }
+
         //Initially clear the async event processing context to ensure that it will only
         //have results from processing this event
         InternalOMRSEventProcessingContext.clear();
@@ -162,17 +282,15 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         {
             try
             {
-                topicListener.processEvent(event.getJson());
+                topicListener.processEvent(json);
             }
             catch (Exception  error)
             {
-                final String   actionDescription = "distributeEvent";
-
                 if (auditLog != null)
                 {
                     auditLog.logException(actionDescription,
-                                          OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(event.getJson(), error.toString()),
-                                          event.getJson(),
+                                          OMRSAuditCode.EVENT_PROCESSING_ERROR.getMessageDefinition(json, error.toString()),
+                                          json,
                                           error);
                 }
             }
@@ -190,6 +308,100 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
     }
 
 
+    /**
+     * Indicates whether the listener thread needs to call checkForIncomingEvents() to find the new events.
+     * Implementations that pass their events to deliverIncomingEvent() override this method to return false
+     * so that the listener thread blocks until an event arrives, rather than waking every sleepTime milliseconds.
+     *
+     * @return boolean
+     */
+    protected boolean isPollingForEvents()
+    {
+        return true;
+    }
+
+
+    /**
+     * Indicates whether the incoming event queue has a maximum size.  A bounded queue makes the callers of
+     * deliverIncomingEvent() wait when the listeners fall behind.  Implementations override this method to
+     * return false if their callers must never wait.  For example, the callers may be other threads in the
+     * server that are themselves waiting for this topic's listeners, or threads that limit the number of
+     * events waiting on the queue in some other way.  This method is called from initialize().
+     *
+     * @return boolean
+     */
+    protected boolean isIncomingEventQueueBounded()
+    {
+        return true;
+    }
+
+
+    /**
+     * Pass an event received from the eventing/messaging layer to the listener thread.  If the incoming event
+     * queue is bounded and full, the caller waits until there is space, which slows the receipt of events to the
+     * speed of the listeners.  Events sent to the topic by a listener while it is processing an event are queued
+     * separately so that the listener thread does not wait for itself.
+     *
+     * @param event received event
+     */
+    protected void deliverIncomingEvent(IncomingEvent event)
+    {
+        if (event != null)
+        {
+            if (Thread.currentThread() == listenerThread)
+            {
+                listenerEvents.add(event);
+            }
+            else
+            {
+                try
+                {
+                    while (! incomingEventQueue.offer(event, sleepTime, TimeUnit.MILLISECONDS))
+                    {
+                        /*
+                         * Events received before start() wait for the listener thread rather than being discarded.
+                         */
+                        if ((listenerThread != null) && (! keepRunning))
+                        {
+                            log.debug("Event discarded because the topic connector is shutting down: {}", event.getMessageId());
+                            return;
+                        }
+                    }
+                }
+                catch (InterruptedException interrupted)
+                {
+                    log.debug("Interrupted while waiting to queue event: {}", event.getMessageId());
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Encode an event with the encoding from the eventEncoding configuration property before it is sent to
+     * the event bus.
+     *
+     * @param event JSON event
+     * @return encoded event
+     */
+    protected String encodeOutgoingEvent(String event)
+    {
+        return eventEncoding.encodeEvent(event);
+    }
+
+
+    /**
+     * Return the number of events that have been received but not yet passed to the listeners.
+     *
+     * @return count of events
+     */
+    protected int getIncomingEventCount()
+    {
+        return incomingEventQueue.size();
+    }
+
+
     /**
      * Look to see if there is one of more new events to process.
      *
@@ -286,16 +498,24 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
                 {
                     this.sleepTime = (Integer)sleepTime;
                 }
+
+                Object   eventEncoding = configurationProperties.get(OpenMetadataTopicProvider.EVENT_ENCODING_PROPERTY_NAME);
+
+                if (eventEncoding != null)
+                {
+                    this.eventEncoding = OpenMetadataTopicEventEncoding.getEventEncoding(eventEncoding.toString());
+                }
             }
         }
 
-        Thread listenerThread = new Thread(this, listenerThreadName);
+        listenerThread = new Thread(this, listenerThreadName);
         listenerThread.start();
     }
 
 
     /**
-     * Free up any resources held since the connector is no longer needed.
+     * Free up any resources held since the connector is no longer needed.  The listener thread is woken so that
+     * it can stop.
      *
      * @throws ConnectorCheckedException the connector detected a problem.
      */
@@ -305,5 +525,10 @@ public abstract class OpenMetadataTopicConnector extends ConnectorBase implement
         super.disconnect();
 
         keepRunning = false;
+
+        if ((! incomingEventQueue.offer(endOfEvents)) && (listenerThread != null))
+        {
+            listenerThread.interrupt();
+        }
     }
 }
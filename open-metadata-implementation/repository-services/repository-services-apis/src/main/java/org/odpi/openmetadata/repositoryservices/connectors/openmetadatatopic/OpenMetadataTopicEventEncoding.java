@@ -0,0 +1,293 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * OpenMetadataTopicEventEncoding defines how the events are encoded when they are sent to an event bus topic.
+ * The events are JSON strings.  The encodings are:
+ * <ul>
+ *     <li>
+ *         JSON: the event is sent as it is.  This is the default.
+ *     </li>
+ *     <li>
+ *         COMPRESSED_JSON: the event is compressed with the deflate algorithm, using a shared dictionary of the
+ *         field names, type names and enum values that are repeated in open metadata events.  The compressed
+ *         bytes are encoded in base64 so that they can be sent through the string-based topic interfaces, and
+ *         prefixed with a marker character and the dictionary version.
+ *     </li>
+ * </ul>
+ * A JSON event always starts with '{' so the marker tells a receiving topic connector how to decode each event.
+ * Topic connectors therefore accept both encodings, whatever encoding they are configured to send.
+ * Consumers that only understand JSON can still read the topic as long as no producer is configured
+ * to send COMPRESSED_JSON.
+ */
+public enum OpenMetadataTopicEventEncoding
+{
+    /**
+     * Events are sent as JSON text.
+     */
+    JSON            (0, "json",           "Events are sent as JSON text."),
+
+    /**
+     * Events are sent as JSON compressed with a shared dictionary of open metadata names.
+     */
+    COMPRESSED_JSON (1, "compressedJSON", "Events are sent as JSON compressed with a shared dictionary of open metadata names.");
+
+
+    /*
+     * Marker at the start of an encoded event.  It is a control character so it can not start a JSON event.
+     */
+    private static final char encodedEventMarker = '\u001F';
+
+    /*
+     * Identifies the dictionary used to compress the event.  A new dictionary must have a new version
+     * so that the events compressed with the old dictionary can still be decoded.
+     */
+    private static final char dictionaryVersion = '1';
+
+    /*
+     * Largest event that is decoded.  Deflate can expand a small event by a factor of a thousand so an
+     * event that decodes to more than this is rejected rather than filling the heap.
+     */
+    private static final int maxDecodedEventSize = 64 * 1024 * 1024;
+
+    /*
+     * Deflate matches text at the end of the dictionary with shorter codes, so the most common
+     * names are at the end.
+     */
+    private static final byte[] dictionary = ("\"classificationOrigin\":\"ASSIGNED\",\"classificationOrigin\":\"PROPAGATED\"," +
+                                              "\"replicatedBy\":\"maintainedBy\":[\"instanceLicense\":\"reIdentifiedFromGUID\":" +
+                                              "\"mappingProperties\":\"instanceURL\":\"updatedBy\":\"updateTime\":\"maintainedBy\":" +
+                                              "\"errorSection\":\"registryEventSection\":\"typeDefEventSection\":\"typeDef\":" +
+                                              "\"originalTypeDefSummary\":\"typeDefEventType\":\"NEW_TYPEDEF_EVENT\"," +
+                                              "\"registrationTimestamp\":\"remoteConnection\":\"registryEventType\":" +
+                                              "\"REFRESH_REGISTRATION_REQUEST\",\"REGISTRATION_EVENT\",\"relationship\":" +
+                                              "\"originalRelationship\":{\"class\":\"Relationship\",\"entityOneProxy\":" +
+                                              "\"entityTwoProxy\":{\"class\":\"EntityProxy\",\"RELATIONSHIP_DEF\"," +
+                                              "\"CLASSIFICATION_DEF\",\"NEW_RELATIONSHIP_EVENT\",\"UPDATED_RELATIONSHIP_EVENT\"," +
+                                              "\"DELETED_RELATIONSHIP_EVENT\",\"NEW_ENTITY_EVENT\",\"DELETED_ENTITY_EVENT\"," +
+                                              "\"CLASSIFIED_ENTITY_EVENT\",\"RECLASSIFIED_ENTITY_EVENT\",\"DECLASSIFIED_ENTITY_EVENT\"," +
+                                              "\"UPDATED_ENTITY_EVENT\",\"LOCAL_COHORT\",\"EXTERNAL_SOURCE\",\"DEREGISTERED_REPOSITORY\"," +
+                                              "\"OM_PRIMITIVE_TYPE_INT\",\"OM_PRIMITIVE_TYPE_LONG\",\"OM_PRIMITIVE_TYPE_BOOLEAN\"," +
+                                              "\"OM_PRIMITIVE_TYPE_DATE\",{\"class\":\"MapPropertyValue\",\"mapValues\":" +
+                                              "{\"class\":\"ArrayPropertyValue\",\"arrayCount\":\"arrayValues\":" +
+                                              "{\"class\":\"EnumPropertyValue\",\"instancePropertyCategory\":\"ENUM\",\"ordinal\":\"symbolicName\":" +
+                                              "\"description\":\"name\":\"qualifiedName\":\"displayName\":\"status\":\"DELETED\"," +
+                                              "\"status\":\"ACTIVE\"},\"version\":\"guid\":\"createdBy\":\"createTime\":" +
+                                              "\"instanceProvenanceType\":\"LOCAL_COHORT\",\"metadataCollectionId\":\"metadataCollectionName\":" +
+                                              "\"classifications\":[{\"class\":\"Classification\",\"headerVersion\":1,\"version\":0," +
+                                              "\"originator\":{\"metadataCollectionId\":\"serverName\":\"serverType\":\"organizationName\":" +
+                                              "{\"class\":\"OMRSEventV1\",\"protocolVersionId\":\"OMRS V2.0\",\"timestamp\":" +
+                                              "\"eventCategory\":\"INSTANCE\",\"instanceEventSection\":{\"eventType\":" +
+                                              "\"typeDefGUID\":\"typeDefName\":\"instanceGUID\":\"originalEntity\":\"entity\":" +
+                                              "{\"class\":\"EntityDetail\",\"headerVersion\":1,\"type\":{\"class\":\"InstanceType\"," +
+                                              "\"headerVersion\":1,\"typeDefCategory\":\"ENTITY_DEF\",\"typeDefGUID\":\"typeDefName\":" +
+                                              "\"typeDefVersion\":\"typeDefSuperTypes\":[{\"class\":\"TypeDefLink\",\"validStatusList\":" +
+                                              "\"validInstanceProperties\":[\"properties\":{\"class\":\"InstanceProperties\",\"headerVersion\":1," +
+                                              "\"instanceProperties\":{\"qualifiedName\":{\"class\":\"PrimitivePropertyValue\",\"headerVersion\":1," +
+                                              "\"instancePropertyCategory\":\"PRIMITIVE\",\"typeName\":\"string\"," +
+                                              "\"primitiveDefCategory\":\"OM_PRIMITIVE_TYPE_STRING\",\"primitiveValue\":").getBytes(StandardCharsets.UTF_8);
+
+    private final int    ordinal;
+    private final String name;
+    private final String description;
+
+
+    /**
+     * Constructor to set up a single instances of the enum.
+     *
+     * @param ordinal numerical representation of the encoding
+     * @param name name of the encoding used in configuration
+     * @param description description of the encoding
+     */
+    OpenMetadataTopicEventEncoding(int ordinal, String name, String description)
+    {
+        this.ordinal     = ordinal;
+        this.name        = name;
+        this.description = description;
+    }
+
+
+    /**
+     * Return the encoding with the supplied name.  The default is JSON.
+     *
+     * @param name name of the encoding from the configuration (may be null)
+     * @return encoding
+     */
+    public static OpenMetadataTopicEventEncoding getEventEncoding(String name)
+    {
+        for (OpenMetadataTopicEventEncoding eventEncoding : OpenMetadataTopicEventEncoding.values())
+        {
+            if (eventEncoding.getName().equalsIgnoreCase(name) || eventEncoding.name().equalsIgnoreCase(name))
+            {
+                return eventEncoding;
+            }
+        }
+
+        return JSON;
+    }
+
+
+    /**
+     * Encode an event before it is sent to the topic.
+     *
+     * @param event JSON event
+     * @return encoded event
+     */
+    public String encodeEvent(String event)
+    {
+        if ((this == JSON) || (event == null))
+        {
+            return event;
+        }
+
+        Deflater              deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        ByteArrayOutputStream encoded  = new ByteArrayOutputStream();
+        byte[]                buffer   = new byte[4096];
+
+        try
+        {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(event.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+
+            while (! deflater.finished())
+            {
+                encoded.write(buffer, 0, deflater.deflate(buffer));
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+
+        return String.valueOf(encodedEventMarker) + dictionaryVersion + Base64.getEncoder().encodeToString(encoded.toByteArray());
+    }
+
+
+    /**
+     * Return the JSON for an event received from the topic, whichever encoding it was sent with.
+     *
+     * @param event received event
+     * @return JSON event
+     * @throws IllegalArgumentException the event is encoded with an unknown dictionary, is corrupt or is too large
+     */
+    public static String decodeEvent(String event) throws IllegalArgumentException
+    {
+        return decodeEvent(event, maxDecodedEventSize);
+    }
+
+
+    /**
+     * Return the JSON for an event received from the topic, stopping if the decoded event grows beyond the
+     * supplied size.
+     *
+     * @param event received event
+     * @param maxDecodedSize largest number of bytes that the decoded event may contain
+     * @return JSON event
+     * @throws IllegalArgumentException the event is encoded with an unknown dictionary, is corrupt or is too large
+     */
+    static String decodeEvent(String event,
+                              int    maxDecodedSize) throws IllegalArgumentException
+    {
+        if ((event == null) || (event.isEmpty()) || (event.charAt(0) != encodedEventMarker))
+        {
+            return event;
+        }
+
+        if ((event.length() < 2) || (event.charAt(1) != dictionaryVersion))
+        {
+            throw new IllegalArgumentException("Event is encoded with an unknown dictionary version");
+        }
+
+        Inflater              inflater = new Inflater();
+        ByteArrayOutputStream decoded  = new ByteArrayOutputStream();
+        byte[]                buffer   = new byte[4096];
+
+        try
+        {
+            inflater.setInput(Base64.getDecoder().decode(event.substring(2)));
+
+            while (! inflater.finished())
+            {
+                int length = inflater.inflate(buffer);
+
+                if (length == 0)
+                {
+                    if (inflater.needsDictionary())
+                    {
+                        inflater.setDictionary(dictionary);
+                    }
+                    else if (inflater.needsInput())
+                    {
+                        throw new IllegalArgumentException("Encoded event is truncated");
+                    }
+                }
+
+                if (decoded.size() + length > maxDecodedSize)
+                {
+                    throw new IllegalArgumentException("Encoded event decodes to more than " + maxDecodedSize + " bytes");
+                }
+
+                decoded.write(buffer, 0, length);
+            }
+        }
+        catch (DataFormatException error)
+        {
+            throw new IllegalArgumentException("Encoded event is corrupt: " + error.getMessage(), error);
+        }
+        finally
+        {
+            inflater.end();
+        }
+
+        return decoded.toString(StandardCharsets.UTF_8);
+    }
+
+
+    /**
+     * Return the numeric representation of the encoding.
+     *
+     * @return int ordinal
+     */
+    public int getOrdinal() { return ordinal; }
+
+
+    /**
+     * Return the name of the encoding used in configuration.
+     *
+     * @return String name
+     */
+    public String getName() { return name; }
+
+
+    /**
+     * Return the description of the encoding.
+     *
+     * @return String description
+     */
+    public String getDescription() { return description; }
+
+
+    /**
+     * toString() JSON-style
+     *
+     * @return string description
+     */
+    @Override
+    public String toString()
+    {
+        return "OpenMetadataTopicEventEncoding{" +
+                "ordinal=" + ordinal +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
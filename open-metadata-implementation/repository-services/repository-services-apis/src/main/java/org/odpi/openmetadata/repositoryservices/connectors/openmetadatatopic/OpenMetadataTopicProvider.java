@@ -20,6 +20,9 @@ public abstract class OpenMetadataTopicProvider extends OpenConnectorProviderBas
     public static final String EVENT_DIRECTION_OUT_ONLY      = "outOnly";
     public static final String EVENT_DIRECTION_IN_ONLY       = "inOnly";
 
+    public static final String INCOMING_EVENT_QUEUE_SIZE_PROPERTY_NAME = "incomingEventQueueSize";
+    public static final String EVENT_ENCODING_PROPERTY_NAME            = "eventEncoding";
+
 
     /**
      * Constructor for an open connector provider.
@@ -0,0 +1,165 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * OMRSGUIDStrategy defines how a repository connector, or an archive builder, creates the GUIDs for new instances.
+ * The strategies are:
+ * <ul>
+ *     <li>
+ *         RANDOM: random (version 4) UUIDs.  This is the default.
+ *     </li>
+ *     <li>
+ *         TIME_ORDERED: time-ordered (version 7) UUIDs.  The first 48 bits are the creation time in milliseconds
+ *         and the next 12 bits are a counter that orders the GUIDs created in the same millisecond.  The remaining
+ *         62 bits are random.  GUIDs created in the same JVM are strictly increasing, even if the clock goes back
+ *         or more than 4096 GUIDs are created in a millisecond, because the counter then carries into the time.
+ *         New GUIDs therefore sort after the existing ones, so a database index on the GUID is appended to rather
+ *         than updated at random places.
+ *     </li>
+ * </ul>
+ */
+public enum OMRSGUIDStrategy
+{
+    /**
+     * Random (version 4) UUIDs.
+     */
+    RANDOM       (0, "random",       "Random (version 4) UUIDs."),
+
+    /**
+     * Time-ordered (version 7) UUIDs.
+     */
+    TIME_ORDERED (1, "time-ordered", "Time-ordered (version 7) UUIDs with a counter for the GUIDs created in the same millisecond.");
+
+
+    private static final int  counterBits = 12;
+    private static final long versionBits = 0x7000L;
+    private static final long variantBits = 0x8000000000000000L;
+    private static final long randomMask  = 0x3FFFFFFFFFFFFFFFL;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    /*
+     * Time in milliseconds shifted left by the counter bits, plus the counter, for the last time-ordered GUID.
+     */
+    private static final AtomicLong lastTimeAndCounter = new AtomicLong();
+
+    private final int    ordinal;
+    private final String name;
+    private final String description;
+
+
+    /**
+     * Constructor to set up a single instances of the enum.
+     *
+     * @param ordinal numerical representation of the strategy
+     * @param name name of the strategy used in configuration
+     * @param description description of the strategy
+     */
+    OMRSGUIDStrategy(int ordinal, String name, String description)
+    {
+        this.ordinal     = ordinal;
+        this.name        = name;
+        this.description = description;
+    }
+
+
+    /**
+     * Return the strategy with the supplied name.  The default is RANDOM.
+     *
+     * @param name name of the strategy from the configuration (may be null)
+     * @return strategy
+     */
+    public static OMRSGUIDStrategy getGUIDStrategy(String name)
+    {
+        for (OMRSGUIDStrategy guidStrategy : OMRSGUIDStrategy.values())
+        {
+            if (guidStrategy.getName().equalsIgnoreCase(name) || guidStrategy.name().equalsIgnoreCase(name))
+            {
+                return guidStrategy;
+            }
+        }
+
+        return RANDOM;
+    }
+
+
+    /**
+     * Return a new GUID.
+     *
+     * @return guid
+     */
+    public String getNewGUID()
+    {
+        if (this == TIME_ORDERED)
+        {
+            return getTimeOrderedUUID(System.currentTimeMillis()).toString();
+        }
+
+        return UUID.randomUUID().toString();
+    }
+
+
+    /**
+     * Return a time-ordered UUID for the supplied time.  The time and counter are taken from the last UUID if
+     * it is not before the supplied time so that the UUIDs are strictly increasing.
+     *
+     * @param currentTime time in milliseconds
+     * @return UUID
+     */
+    static UUID getTimeOrderedUUID(long currentTime)
+    {
+        long timeAndCounter = lastTimeAndCounter.updateAndGet(last -> Math.max(last + 1, currentTime << counterBits));
+        long time           = timeAndCounter >>> counterBits;
+        long counter        = timeAndCounter & ((1L << counterBits) - 1);
+
+        long mostSignificantBits  = (time << 16) | versionBits | counter;
+        long leastSignificantBits = (random.nextLong() & randomMask) | variantBits;
+
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+
+    /**
+     * Return the numeric representation of the strategy.
+     *
+     * @return int ordinal
+     */
+    public int getOrdinal() { return ordinal; }
+
+
+    /**
+     * Return the name of the strategy used in configuration.
+     *
+     * @return String name
+     */
+    public String getName() { return name; }
+
+
+    /**
+     * Return the description of the strategy.
+     *
+     * @return String description
+     */
+    public String getDescription() { return description; }
+
+
+    /**
+     * toString() JSON-style
+     *
+     * @return string description
+     */
+    @Override
+    public String toString()
+    {
+        return "OMRSGUIDStrategy{" +
+                "ordinal=" + ordinal +
+                ", name='" + name + '\'' +
+                ", description='" + description + '\'' +
+                '}';
+    }
+}
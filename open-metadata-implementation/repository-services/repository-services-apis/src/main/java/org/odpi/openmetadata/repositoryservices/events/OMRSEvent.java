@@ -96,6 +96,37 @@ public abstract class OMRSEvent
     }
 
 
+    /**
+     * Copy constructor used by the subclasses to create a private copy of an event.  The header and error
+     * properties are copied.  The beans they refer to are shared with the template.
+     *
+     * @param template event to copy
+     */
+    protected OMRSEvent(OMRSEvent template)
+    {
+        if (template != null)
+        {
+            this.eventTimestamp = template.eventTimestamp == null ? null : new Date(template.eventTimestamp.getTime());
+            this.eventDirection = template.eventDirection;
+            this.eventCategory = template.eventCategory;
+            this.eventOriginator = template.eventOriginator;
+            this.genericErrorCode = template.genericErrorCode;
+            this.errorMessage = template.errorMessage;
+            this.targetMetadataCollectionId = template.targetMetadataCollectionId;
+            this.targetRemoteConnection = template.targetRemoteConnection;
+            this.targetTypeDefSummary = template.targetTypeDefSummary;
+            this.targetAttributeTypeDef = template.targetAttributeTypeDef;
+            this.targetInstanceGUID = template.targetInstanceGUID;
+            this.otherOrigin = template.otherOrigin;
+            this.otherMetadataCollectionId = template.otherMetadataCollectionId;
+            this.otherTypeDefSummary = template.otherTypeDefSummary;
+            this.otherTypeDef = template.otherTypeDef;
+            this.otherAttributeTypeDef = template.otherAttributeTypeDef;
+            this.otherInstanceGUID = template.otherInstanceGUID;
+        }
+    }
+
+
     /**
      * Outbound event constructor used when there is no error.
      *
@@ -9,6 +9,9 @@ import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2Insta
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
+
 
 /**
  * Structure of an instance event.
@@ -111,6 +114,82 @@ public class OMRSInstanceEvent extends OMRSEvent
     }
 
 
+    /**
+     * Copy constructor.  An inbound event is shared by all the listeners of the OMRSTopicConnector,
+     * so a listener that needs to change the instances in an event uses this constructor to make
+     * its own copy of them first.
+     *
+     * @param template event to copy
+     */
+    public OMRSInstanceEvent(OMRSInstanceEvent template)
+    {
+        super(template);
+
+        if (template != null)
+        {
+            this.instanceEventType = template.instanceEventType;
+
+            this.typeDefGUID = template.typeDefGUID;
+            this.typeDefName = template.typeDefName;
+            this.instanceGUID = template.instanceGUID;
+            this.originalEntity = template.originalEntity == null ? null : new EntityDetail(template.originalEntity);
+            this.entity = template.entity == null ? null : new EntityDetail(template.entity);
+            this.entityProxy = template.entityProxy == null ? null : new EntityProxy(template.entityProxy);
+            this.originalRelationship = template.originalRelationship == null ? null : new Relationship(template.originalRelationship);
+            this.relationship = template.relationship == null ? null : new Relationship(template.relationship);
+            this.originalClassification = template.originalClassification == null ? null : new Classification(template.originalClassification);
+            this.classification = template.classification == null ? null : new Classification(template.classification);
+            this.instanceBatch = copyInstanceBatch(template.instanceBatch);
+            this.homeMetadataCollectionId = template.homeMetadataCollectionId;
+
+            this.originalHomeMetadataCollectionId = template.originalHomeMetadataCollectionId;
+            this.originalTypeDefSummary = template.originalTypeDefSummary;
+            this.originalInstanceGUID = template.originalInstanceGUID;
+            this.errorCode = template.errorCode;
+        }
+    }
+
+
+    /**
+     * Copy the entities and relationships of a batch event.
+     *
+     * @param template batch to copy
+     * @return copied batch or null
+     */
+    private static InstanceGraph copyInstanceBatch(InstanceGraph template)
+    {
+        if (template == null)
+        {
+            return null;
+        }
+
+        List<EntityDetail> entities      = null;
+        List<Relationship> relationships = null;
+
+        if (template.getEntities() != null)
+        {
+            entities = new ArrayList<>();
+
+            for (EntityDetail entity : template.getEntities())
+            {
+                entities.add(entity == null ? null : new EntityDetail(entity));
+            }
+        }
+
+        if (template.getRelationships() != null)
+        {
+            relationships = new ArrayList<>();
+
+            for (Relationship relationship : template.getRelationships())
+            {
+                relationships.add(relationship == null ? null : new Relationship(relationship));
+            }
+        }
+
+        return new InstanceGraph(entities, relationships);
+    }
+
+
     /**
      * Constructor for instance events related to a change to an entity.
      *
@@ -1380,6 +1380,51 @@ public enum OMRSAuditCode implements AuditLogMessageSet
                                        "The local server is processing a federated query to all members of the connected cohorts.  However one of the members is not responding correctly and so it has been skipped from the call. The remote server is probably not running, or has been incorrectly configured.",
                                        "Validate the availability and configuration of the remote server.  It may be a temporary failure due to an outage in the network or the server itself.  However, if the remote server is not configured correctly, or has changed its metadata collection id, then this wil lbe a permanent error and this server will not be included in the federated query until it is fixed."),
 
+    /**
+     * OMRS-AUDIT-0402 - Federated request {0} timed out waiting {1} milliseconds for a response from repository {2}
+     */
+    FEDERATED_MEMBER_TIMEOUT("OMRS-AUDIT-0402",
+                             AuditLogRecordSeverityLevel.ACTION,
+                             "Federated request {0} timed out waiting {1} milliseconds for a response from repository {2}",
+                             "The local server is processing a federated query in parallel across the members of the connected cohorts.  One of the members did not respond within the configured federation timeout and so its call has been cancelled.  The results from the other members are returned to the caller.",
+                             "Validate the availability and performance of the remote server.  If it is routinely slower than the federation timeout, increase the federationTimeout value in the enterprise access configuration."),
+
+    /**
+     * OMRS-AUDIT-0403 - The enterprise repository services are issuing federated queries in parallel using up to {0} worker threads with a timeout of {1} milliseconds per repository
+     */
+    PARALLEL_FEDERATION_ENABLED("OMRS-AUDIT-0403",
+                                AuditLogRecordSeverityLevel.STARTUP,
+                                "The enterprise repository services are issuing federated queries in parallel using up to {0} worker threads with a timeout of {1} milliseconds per repository",
+                                "The local server has been configured to issue federated queries to each member of the connected cohorts at the same time.  The response time of a federated query is governed by the slowest member rather than the sum of the response times of all members.",
+                                "No action is required.  The number of worker threads and the timeout are set in the enterprise access configuration."),
+
+    /**
+     * OMRS-AUDIT-0404 - The enterprise repository services return a single instance as soon as its home repository responds, or a reference copy after {0} milliseconds
+     */
+    HEDGED_RETRIEVAL_ENABLED("OMRS-AUDIT-0404",
+                             AuditLogRecordSeverityLevel.STARTUP,
+                             "The enterprise repository services return a single instance as soon as its home repository responds, or a reference copy after {0} milliseconds",
+                             "The local server has been configured to request a single metadata instance from all members of the connected cohorts at the same time and to stop waiting once the home repository for the instance has responded.  Classifications homed in repositories that have not responded by then are not included in the result.",
+                             "No action is required.  The reference copy deadline is set in the enterprise access configuration."),
+
+    /**
+     * OMRS-AUDIT-0405 - The enterprise repository services are remembering the home repository of up to {0} instances
+     */
+    INSTANCE_HOME_LOCATOR_ENABLED("OMRS-AUDIT-0405",
+                                  AuditLogRecordSeverityLevel.STARTUP,
+                                  "The enterprise repository services are remembering the home repository of up to {0} instances",
+                                  "The local server has been configured to learn the home repository of metadata instances from the results of federated queries and from instance events.  Requests for a single instance are sent straight to its home repository and only sent to all members of the connected cohorts if the home repository is not known or does not return the instance.",
+                                  "No action is required.  The number of instances remembered is set in the enterprise access configuration."),
+
+    /**
+     * OMRS-AUDIT-0406 - The enterprise repository services are returning federated query results in a single order, remembering up to {0} continuation cursors
+     */
+    ORDERED_FEDERATED_PAGING_ENABLED("OMRS-AUDIT-0406",
+                                     AuditLogRecordSeverityLevel.STARTUP,
+                                     "The enterprise repository services are returning federated query results in a single order, remembering up to {0} continuation cursors",
+                                     "The local server has been configured to merge the sorted results from each member of the connected cohorts into a single ordered page.  The position reached in each member is remembered so the next page continues from that position rather than re-reading the earlier pages.",
+                                     "No action is required.  The number of continuation cursors remembered is set in the enterprise access configuration."),
+
     /**
      * OMRS-AUDIT-8001 - Received unknown event: {0}
      */
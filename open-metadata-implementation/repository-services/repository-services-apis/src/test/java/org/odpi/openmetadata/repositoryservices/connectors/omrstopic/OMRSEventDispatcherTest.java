@@ -0,0 +1,182 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.omrstopic;
+
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventCategory;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2InstanceSection;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the OMRSEventDispatcher keeps the events for each instance in order while it processes the events
+ * for different instances concurrently, and that barrier events wait for the events before them.
+ */
+public class OMRSEventDispatcherTest
+{
+    private static final int laneCount     = 8;
+    private static final int instanceCount = 50;
+    private static final int versionCount  = 200;
+
+
+    @Test
+    public void testEventsStayInOrderForEachInstance()
+    {
+        OMRSEventDispatcher              eventDispatcher  = new OMRSEventDispatcher("TestLane", laneCount);
+        Map<String, List<Integer>>       receivedVersions = new ConcurrentHashMap<>();
+        Map<String, Thread>              laneThreads      = new ConcurrentHashMap<>();
+        AtomicInteger                    laneOverlaps     = new AtomicInteger();
+
+        for (int version = 0; version < versionCount; version++)
+        {
+            for (int instance = 0; instance < instanceCount; instance++)
+            {
+                final String instanceGUID = "guid-" + instance;
+                final int    eventVersion = version;
+
+                eventDispatcher.dispatch(instanceGUID, () ->
+                {
+                    Thread previousThread = laneThreads.put(instanceGUID, Thread.currentThread());
+
+                    if ((previousThread != null) && (previousThread != Thread.currentThread()))
+                    {
+                        laneOverlaps.incrementAndGet();
+                    }
+
+                    receivedVersions.computeIfAbsent(instanceGUID, guid -> new ArrayList<>()).add(eventVersion);
+                });
+            }
+        }
+
+        eventDispatcher.waitForLanes();
+        eventDispatcher.shutdown();
+
+        assertEquals(receivedVersions.size(), instanceCount);
+        assertEquals(laneOverlaps.get(), 0);
+
+        for (List<Integer> versions : receivedVersions.values())
+        {
+            assertEquals(versions.size(), versionCount);
+
+            for (int version = 0; version < versionCount; version++)
+            {
+                assertEquals(versions.get(version).intValue(), version);
+            }
+        }
+
+        assertTrue(laneThreads.values().stream().distinct().count() > 1);
+    }
+
+
+    @Test
+    public void testBarrierWaitsForEarlierEvents()
+    {
+        OMRSEventDispatcher eventDispatcher = new OMRSEventDispatcher("TestLane", laneCount);
+        AtomicInteger       processedCount  = new AtomicInteger();
+        List<Integer>       countAtBarrier  = new ArrayList<>();
+
+        for (int instance = 0; instance < instanceCount; instance++)
+        {
+            eventDispatcher.dispatch("guid-" + instance, () ->
+            {
+                sleep(1);
+                processedCount.incrementAndGet();
+            });
+        }
+
+        eventDispatcher.dispatch(null, () -> countAtBarrier.add(processedCount.get()));
+        eventDispatcher.shutdown();
+
+        assertEquals(countAtBarrier, List.of(instanceCount));
+    }
+
+
+    @Test
+    public void testLaneKeys()
+    {
+        OMRSEventV2                instanceEvent   = new OMRSEventV2();
+        OMRSEventV2InstanceSection instanceSection = new OMRSEventV2InstanceSection();
+
+        instanceSection.setTypeDefName("Asset");
+        instanceEvent.setEventCategory(OMRSEventCategory.INSTANCE);
+        instanceEvent.setInstanceEventSection(instanceSection);
+
+        assertEquals(OMRSTopicConnector.getLaneKey(instanceEvent), "Asset");
+
+        instanceSection.setInstanceGUID("guid-1");
+
+        assertEquals(OMRSTopicConnector.getLaneKey(instanceEvent), "guid-1");
+
+        OMRSEventV2 typeDefEvent = new OMRSEventV2();
+
+        typeDefEvent.setEventCategory(OMRSEventCategory.TYPEDEF);
+
+        assertNull(OMRSTopicConnector.getLaneKey(typeDefEvent));
+    }
+
+
+    @Test
+    public void testDifferentInstancesRunConcurrently()
+    {
+        OMRSEventDispatcher eventDispatcher = new OMRSEventDispatcher("TestLane", laneCount);
+        CountDownLatch      bothRunning     = new CountDownLatch(2);
+        List<Boolean>       overlapped      = Collections.synchronizedList(new ArrayList<>());
+
+        /*
+         * Each event waits until two events are running at once, which can only happen if the events for
+         * different instances are processed on different lanes at the same time.
+         */
+        for (int instance = 0; instance < instanceCount; instance++)
+        {
+            eventDispatcher.dispatch("guid-" + instance, () ->
+            {
+                bothRunning.countDown();
+
+                try
+                {
+                    overlapped.add(bothRunning.await(10, TimeUnit.SECONDS));
+                }
+                catch (InterruptedException interrupted)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+
+        eventDispatcher.waitForLanes();
+        eventDispatcher.shutdown();
+
+        assertEquals(overlapped.size(), instanceCount);
+        assertTrue(overlapped.stream().allMatch(Boolean::booleanValue));
+    }
+
+
+    /**
+     * Sleep for the requested time.
+     *
+     * @param milliseconds time to sleep
+     */
+    private static void sleep(long milliseconds)
+    {
+        try
+        {
+            Thread.sleep(milliseconds);
+        }
+        catch (InterruptedException interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import org.odpi.openmetadata.frameworks.connectors.properties.beans.Connection;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that events delivered to the OpenMetadataTopicConnector are passed to the listeners as soon as they
+ * arrive, rather than after the sleep time, that the listener thread waits without polling when there are no
+ * events, that senders do not wait when the queue is unbounded, that events delivered before start() are
+ * kept, and that it stops when the connector is disconnected.
+ */
+public class OpenMetadataTopicConnectorTest
+{
+    /*
+     * Much longer than the time allowed for the events to arrive so that a polling listener thread would fail the test.
+     */
+    private static final int sleepTime = 60000;
+
+
+    @Test
+    public void testEventsAreHandedOff() throws Exception
+    {
+        TestTopicConnector topicConnector = new TestTopicConnector();
+        List<String>       receivedEvents = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch     allReceived    = new CountDownLatch(3);
+
+        topicConnector.registerListener(event ->
+                                        {
+                                            receivedEvents.add(event);
+
+                                            /*
+                                             * Events sent by a listener are distributed once it returns.
+                                             */
+                                            if ("event-1".equals(event))
+                                            {
+                                                topicConnector.sendEvent("event-3");
+                                            }
+
+                                            allReceived.countDown();
+                                        });
+        topicConnector.start();
+
+        topicConnector.sendEvent("event-1");
+        topicConnector.sendEvent("event-2");
+
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(receivedEvents.size(), 3);
+        assertEquals(receivedEvents.get(0), "event-1");
+        assertTrue(receivedEvents.contains("event-2"));
+        assertTrue(receivedEvents.contains("event-3"));
+
+        Thread listenerThread = topicConnector.getListenerThread();
+
+        for (int i = 0; (i < 100) && (listenerThread.getState() != Thread.State.WAITING); i++)
+        {
+            Thread.sleep(10);
+        }
+
+        assertEquals(listenerThread.getState(), Thread.State.WAITING);
+        assertEquals(topicConnector.getIncomingEventCount(), 0);
+
+        topicConnector.disconnect();
+        listenerThread.join(10000);
+
+        assertTrue(! listenerThread.isAlive());
+    }
+
+
+    @Test
+    public void testUnboundedQueueDoesNotBlockSenders() throws Exception
+    {
+        TestTopicConnector topicConnector  = new TestTopicConnector(false);
+        List<String>       receivedEvents  = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch     listenerBusy    = new CountDownLatch(1);
+        CountDownLatch     releaseListener = new CountDownLatch(1);
+        CountDownLatch     allReceived     = new CountDownLatch(10);
+
+        topicConnector.registerListener(event ->
+                                        {
+                                            listenerBusy.countDown();
+
+                                            try
+                                            {
+                                                releaseListener.await();
+                                            }
+                                            catch (InterruptedException interrupted)
+                                            {
+                                                Thread.currentThread().interrupt();
+                                            }
+
+                                            receivedEvents.add(event);
+                                            allReceived.countDown();
+                                        });
+        topicConnector.start();
+
+        topicConnector.sendEvent("event-0");
+        assertTrue(listenerBusy.await(10, TimeUnit.SECONDS));
+
+        /*
+         * The configured queue size is 1, so a bounded queue would make the sender wait for the sleep time.
+         */
+        for (int eventNumber = 1; eventNumber < 10; eventNumber++)
+        {
+            topicConnector.sendEvent("event-" + eventNumber);
+        }
+
+        assertEquals(topicConnector.getIncomingEventCount(), 9);
+
+        releaseListener.countDown();
+
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(receivedEvents.size(), 10);
+
+        topicConnector.disconnect();
+    }
+
+
+    @Test
+    public void testEventsDeliveredBeforeStartAreKept() throws Exception
+    {
+        TestTopicConnector topicConnector = new TestTopicConnector(false);
+        List<String>       receivedEvents = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch     allReceived    = new CountDownLatch(3);
+
+        topicConnector.registerListener(event ->
+                                        {
+                                            receivedEvents.add(event);
+                                            allReceived.countDown();
+                                        });
+
+        /*
+         * Some implementations start receiving events before they call start() on the base class.
+         */
+        topicConnector.sendEvent("event-1");
+        topicConnector.sendEvent("event-2");
+        topicConnector.sendEvent("event-3");
+
+        topicConnector.start();
+
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(receivedEvents, List.of("event-1", "event-2", "event-3"));
+
+        topicConnector.disconnect();
+    }
+
+
+    @Test
+    public void testEncodedEventsAreDecoded() throws Exception
+    {
+        TestTopicConnector topicConnector = new TestTopicConnector();
+        List<String>       receivedEvents = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch     allReceived    = new CountDownLatch(2);
+
+        topicConnector.registerListener(event ->
+                                        {
+                                            receivedEvents.add(event);
+                                            allReceived.countDown();
+                                        });
+        topicConnector.start();
+
+        topicConnector.sendEvent(OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent("{\"eventCategory\":\"INSTANCE\"}"));
+        topicConnector.sendEvent("{\"eventCategory\":\"TYPEDEF\"}");
+
+        assertTrue(allReceived.await(10, TimeUnit.SECONDS));
+        assertEquals(receivedEvents, List.of("{\"eventCategory\":\"INSTANCE\"}", "{\"eventCategory\":\"TYPEDEF\"}"));
+
+        topicConnector.disconnect();
+    }
+
+
+    /**
+     * Topic connector that delivers the events it sends to its own listeners.
+     */
+    private static class TestTopicConnector extends OpenMetadataTopicConnector
+    {
+        private final boolean boundedQueue;
+
+        private Thread listenerThread = null;
+
+
+        /**
+         * Set up the connection with a long sleep time.
+         *
+         * @throws Exception problem initializing the connector
+         */
+        TestTopicConnector() throws Exception
+        {
+            this(true);
+        }
+
+
+        /**
+         * Set up the connection with a long sleep time.  A connector with an unbounded queue is configured with an
+         * incoming event queue size of 1 to show that the size is ignored.
+         *
+         * @param boundedQueue should the incoming event queue be bounded?
+         * @throws Exception problem initializing the connector
+         */
+        TestTopicConnector(boolean boundedQueue) throws Exception
+        {
+            this.boundedQueue = boundedQueue;
+
+            Connection connection = new Connection();
+
+            if (boundedQueue)
+            {
+                connection.setConfigurationProperties(Map.of("sleepTime", sleepTime));
+            }
+            else
+            {
+                connection.setConfigurationProperties(Map.of("sleepTime", sleepTime,
+                                                             OpenMetadataTopicProvider.INCOMING_EVENT_QUEUE_SIZE_PROPERTY_NAME, 1));
+            }
+
+            super.initialize("TestTopicConnector", connection);
+        }
+
+
+        /**
+         * Record the listener thread.
+         */
+        @Override
+        public void run()
+        {
+            listenerThread = Thread.currentThread();
+            super.run();
+        }
+
+
+        /**
+         * Return the listener thread once it has started.
+         *
+         * @return thread
+         * @throws InterruptedException interrupted while waiting
+         */
+        Thread getListenerThread() throws InterruptedException
+        {
+            while (listenerThread == null)
+            {
+                Thread.sleep(10);
+            }
+
+            return listenerThread;
+        }
+
+
+        /**
+         * Deliver the event to the listener thread.
+         *
+         * @param event event to send
+         */
+        @Override
+        public void sendEvent(String event)
+        {
+            super.deliverIncomingEvent(new IncomingEvent(event, event));
+        }
+
+
+        /**
+         * Events are delivered rather than polled for.
+         *
+         * @return false
+         */
+        @Override
+        protected boolean isPollingForEvents()
+        {
+            return false;
+        }
+
+
+        /**
+         * Return whether the incoming event queue is bounded.
+         *
+         * @return boolean
+         */
+        @Override
+        protected boolean isIncomingEventQueueBounded()
+        {
+            return boundedQueue;
+        }
+    }
+}
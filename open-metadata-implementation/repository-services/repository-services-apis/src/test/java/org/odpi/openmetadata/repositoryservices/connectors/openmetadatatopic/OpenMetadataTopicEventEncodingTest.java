@@ -0,0 +1,187 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.openmetadatatopic;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.*;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.PrimitiveDefCategory;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.typedefs.TypeDefCategory;
+import org.odpi.openmetadata.repositoryservices.events.OMRSEventOriginator;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.Deflater;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+/**
+ * Verify that events are returned unchanged after they are encoded and decoded, that JSON events pass through
+ * the decoding unchanged, that events which decode to more than the limit are rejected, and that compression
+ * with the dictionary makes an instance event smaller.
+ */
+public class OpenMetadataTopicEventEncodingTest
+{
+    @Test
+    public void testGetEventEncoding()
+    {
+        assertEquals(OpenMetadataTopicEventEncoding.getEventEncoding("compressedJSON"), OpenMetadataTopicEventEncoding.COMPRESSED_JSON);
+        assertEquals(OpenMetadataTopicEventEncoding.getEventEncoding("COMPRESSED_JSON"), OpenMetadataTopicEventEncoding.COMPRESSED_JSON);
+        assertEquals(OpenMetadataTopicEventEncoding.getEventEncoding("json"), OpenMetadataTopicEventEncoding.JSON);
+        assertEquals(OpenMetadataTopicEventEncoding.getEventEncoding(null), OpenMetadataTopicEventEncoding.JSON);
+    }
+
+
+    @Test
+    public void testRoundTrip() throws Exception
+    {
+        String event        = this.getInstanceEvent();
+        String encodedEvent = OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent(event);
+
+        assertNotEquals(encodedEvent.charAt(0), '{');
+        assertEquals(OpenMetadataTopicEventEncoding.decodeEvent(encodedEvent), event);
+        assertEquals(OpenMetadataTopicEventEncoding.JSON.encodeEvent(event), event);
+        assertEquals(OpenMetadataTopicEventEncoding.decodeEvent(event), event);
+
+        String unicodeEvent = "{\"displayName\":\"Données clients ✓\"}";
+
+        assertEquals(OpenMetadataTopicEventEncoding.decodeEvent(OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent(unicodeEvent)), unicodeEvent);
+    }
+
+
+    @Test
+    public void testBadEncodedEvents() throws Exception
+    {
+        String encodedEvent = OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent(this.getInstanceEvent());
+
+        expectThrows(IllegalArgumentException.class, () -> OpenMetadataTopicEventEncoding.decodeEvent(encodedEvent.charAt(0) + "9" + encodedEvent.substring(2)));
+        expectThrows(IllegalArgumentException.class, () -> OpenMetadataTopicEventEncoding.decodeEvent(encodedEvent.substring(0, encodedEvent.length() / 2)));
+    }
+
+
+    @Test
+    public void testOversizedEventIsRejected()
+    {
+        String event        = "{\"description\":\"" + "a".repeat(100000) + "\"}";
+        String encodedEvent = OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent(event);
+
+        /*
+         * The repeated text compresses to a few hundred bytes, so only the decoded size shows it is too large.
+         */
+        assertTrue(encodedEvent.length() < 1000);
+        assertEquals(OpenMetadataTopicEventEncoding.decodeEvent(encodedEvent, event.length()), event);
+        expectThrows(IllegalArgumentException.class, () -> OpenMetadataTopicEventEncoding.decodeEvent(encodedEvent, event.length() - 1));
+    }
+
+
+    /**
+     * Compare the size of an instance event as JSON, compressed without the dictionary and compressed with the
+     * dictionary.
+     */
+    @Test
+    public void testCompressedEventIsSmaller() throws Exception
+    {
+        String event            = this.getInstanceEvent();
+        int    jsonSize         = event.getBytes(StandardCharsets.UTF_8).length;
+        int    noDictionarySize = this.getCompressedSizeWithoutDictionary(event);
+        int    encodedSize      = OpenMetadataTopicEventEncoding.COMPRESSED_JSON.encodeEvent(event).length();
+
+        assertTrue(encodedSize * 3 < jsonSize);
+        assertTrue(encodedSize < noDictionarySize * 4 / 3);
+    }
+
+
+    /**
+     * Return the size of the event compressed without the dictionary.
+     *
+     * @param event JSON event
+     * @return bytes
+     */
+    private int getCompressedSizeWithoutDictionary(String event)
+    {
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+        byte[]   buffer   = new byte[65536];
+
+        deflater.setInput(event.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+
+        int size = deflater.deflate(buffer);
+
+        deflater.end();
+
+        return size;
+    }
+
+
+    /**
+     * Return a typical event for an updated entity.
+     *
+     * @return JSON event
+     * @throws Exception problem creating the JSON
+     */
+    private String getInstanceEvent() throws Exception
+    {
+        InstanceType instanceType = new InstanceType();
+
+        instanceType.setTypeDefCategory(TypeDefCategory.ENTITY_DEF);
+        instanceType.setTypeDefGUID("0db3e6ec-f5ef-4d75-ae38-b7ee6fd6ec0a");
+        instanceType.setTypeDefName("GlossaryTerm");
+        instanceType.setTypeDefVersion(1L);
+
+        PrimitivePropertyValue qualifiedName = new PrimitivePropertyValue();
+
+        qualifiedName.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        qualifiedName.setPrimitiveValue("GlossaryTerm::Coco Pharmaceuticals::Patient Identifier");
+        qualifiedName.setTypeName("string");
+
+        PrimitivePropertyValue displayName = new PrimitivePropertyValue();
+
+        displayName.setPrimitiveDefCategory(PrimitiveDefCategory.OM_PRIMITIVE_TYPE_STRING);
+        displayName.setPrimitiveValue("Patient Identifier");
+        displayName.setTypeName("string");
+
+        InstanceProperties properties = new InstanceProperties();
+
+        properties.setProperty("qualifiedName", qualifiedName);
+        properties.setProperty("displayName", displayName);
+
+        Classification classification = new Classification();
+
+        classification.setName("Confidentiality");
+        classification.setClassificationOrigin(ClassificationOrigin.ASSIGNED);
+
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(UUID.randomUUID().toString());
+        entity.setType(instanceType);
+        entity.setInstanceProvenanceType(InstanceProvenanceType.LOCAL_COHORT);
+        entity.setMetadataCollectionId(UUID.randomUUID().toString());
+        entity.setMetadataCollectionName("cocoMDS1");
+        entity.setCreatedBy("garygeeke");
+        entity.setCreateTime(new Date());
+        entity.setVersion(3L);
+        entity.setStatus(InstanceStatus.ACTIVE);
+        entity.setProperties(properties);
+        entity.setClassifications(List.of(classification));
+
+        OMRSEventOriginator eventOriginator = new OMRSEventOriginator();
+
+        eventOriginator.setMetadataCollectionId(entity.getMetadataCollectionId());
+        eventOriginator.setServerName("cocoMDS1");
+        eventOriginator.setServerType("Metadata Access Store");
+        eventOriginator.setOrganizationName("Coco Pharmaceuticals");
+
+        OMRSInstanceEvent instanceEvent = new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, entity, entity);
+
+        instanceEvent.setEventOriginator(eventOriginator);
+
+        return new ObjectMapper().writeValueAsString(instanceEvent.getOMRSEventV1());
+    }
+}
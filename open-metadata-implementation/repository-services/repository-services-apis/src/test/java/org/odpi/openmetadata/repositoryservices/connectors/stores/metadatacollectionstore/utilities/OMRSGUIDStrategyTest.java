@@ -0,0 +1,113 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities;
+
+import org.testng.annotations.Test;
+
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the time-ordered GUIDs are valid version 7 UUIDs that are strictly increasing, and that they are
+ * added at the end of a sorted index where random GUIDs are added throughout it.
+ */
+public class OMRSGUIDStrategyTest
+{
+    private static final int guidCount = 20000;
+
+
+    /**
+     * Validate the look up of the strategy from the configuration.
+     */
+    @Test
+    public void testGetGUIDStrategy()
+    {
+        assertEquals(OMRSGUIDStrategy.getGUIDStrategy("time-ordered"), OMRSGUIDStrategy.TIME_ORDERED);
+        assertEquals(OMRSGUIDStrategy.getGUIDStrategy("TIME_ORDERED"), OMRSGUIDStrategy.TIME_ORDERED);
+        assertEquals(OMRSGUIDStrategy.getGUIDStrategy("random"), OMRSGUIDStrategy.RANDOM);
+        assertEquals(OMRSGUIDStrategy.getGUIDStrategy(null), OMRSGUIDStrategy.RANDOM);
+        assertEquals(OMRSGUIDStrategy.getGUIDStrategy("unknown"), OMRSGUIDStrategy.RANDOM);
+    }
+
+
+    /**
+     * Validate the version and variant of the time-ordered GUIDs and that the time is at the start of the GUID.
+     */
+    @Test
+    public void testTimeOrderedGUIDFormat()
+    {
+        long before = System.currentTimeMillis();
+        UUID uuid   = UUID.fromString(OMRSGUIDStrategy.TIME_ORDERED.getNewGUID());
+
+        assertEquals(uuid.version(), 7);
+        assertEquals(uuid.variant(), 2);
+        assertTrue((uuid.getMostSignificantBits() >>> 16) >= before);
+        assertEquals(UUID.fromString(OMRSGUIDStrategy.RANDOM.getNewGUID()).version(), 4);
+    }
+
+
+    /**
+     * Validate that the GUIDs increase when more than 4096 are created in the same millisecond and when the
+     * clock goes back.
+     */
+    @Test
+    public void testTimeOrderedGUIDsIncrease()
+    {
+        long   currentTime  = System.currentTimeMillis() + 3600000L;
+        String previousGUID = OMRSGUIDStrategy.getTimeOrderedUUID(currentTime).toString();
+
+        for (int i = 0; i < 5000; i++)
+        {
+            String guid = OMRSGUIDStrategy.getTimeOrderedUUID(currentTime).toString();
+
+            assertTrue(guid.compareTo(previousGUID) > 0);
+            previousGUID = guid;
+        }
+
+        String guid = OMRSGUIDStrategy.getTimeOrderedUUID(currentTime - 60000L).toString();
+
+        assertTrue(guid.compareTo(previousGUID) > 0);
+    }
+
+
+    /**
+     * Compare where the new GUIDs are added to a sorted index.  This is the pattern of the inserts into the
+     * primary key index of a repository database.  Every time-ordered GUID is added at the end of the index.
+     */
+    @Test
+    public void testIndexLocality()
+    {
+        assertEquals(this.getAppendedCount(OMRSGUIDStrategy.TIME_ORDERED), guidCount);
+        assertTrue(this.getAppendedCount(OMRSGUIDStrategy.RANDOM) < guidCount / 100);
+    }
+
+
+    /**
+     * Add new GUIDs to a sorted set and count the GUIDs that are added after all the existing ones.
+     *
+     * @param guidStrategy strategy for the GUIDs
+     * @return count of the GUIDs added at the end
+     */
+    private int getAppendedCount(OMRSGUIDStrategy guidStrategy)
+    {
+        TreeSet<String> index         = new TreeSet<>();
+        int             appendedCount = 0;
+
+        for (int i = 0; i < guidCount; i++)
+        {
+            String guid = guidStrategy.getNewGUID();
+
+            if (index.isEmpty() || (guid.compareTo(index.last()) > 0))
+            {
+                appendedCount++;
+            }
+
+            index.add(guid);
+        }
+
+        return appendedCount;
+    }
+}
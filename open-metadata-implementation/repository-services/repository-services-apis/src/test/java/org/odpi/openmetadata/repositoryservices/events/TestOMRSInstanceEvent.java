@@ -0,0 +1,121 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+
+package org.odpi.openmetadata.repositoryservices.events;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2;
+import org.odpi.openmetadata.repositoryservices.events.beans.v2.OMRSEventV2InstanceSection;
+import org.testng.annotations.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify that the OMRSInstanceEvent copy constructor gives a listener its own copy of the instances in an
+ * inbound event, so changing the copy does not change the event that is shared with the other listeners.
+ */
+public class TestOMRSInstanceEvent
+{
+    /**
+     * Return an entity for the test events.
+     *
+     * @param guid unique identifier of the entity
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setVersion(3L);
+
+        return entity;
+    }
+
+
+    /**
+     * Return an inbound event built from the event bean that the topic connector parses.
+     *
+     * @param instanceSection instance content of the event
+     * @return inbound event
+     */
+    private OMRSInstanceEvent getInboundEvent(OMRSEventV2InstanceSection instanceSection)
+    {
+        OMRSEventV2 eventBean = new OMRSEventV2();
+
+        eventBean.setTimestamp(new Date());
+        eventBean.setEventCategory(OMRSEventCategory.INSTANCE);
+        eventBean.setOriginator(new OMRSEventOriginator());
+        eventBean.setInstanceEventSection(instanceSection);
+
+        return new OMRSInstanceEvent(eventBean);
+    }
+
+
+    @Test
+    public void testCopyHasItsOwnEntity()
+    {
+        OMRSEventV2InstanceSection instanceSection = new OMRSEventV2InstanceSection();
+
+        instanceSection.setEventType(OMRSInstanceEventType.UPDATED_ENTITY_EVENT);
+        instanceSection.setInstanceGUID("guid-1");
+        instanceSection.setTypeDefName("Asset");
+        instanceSection.setOriginalEntity(getEntity("guid-1"));
+        instanceSection.setEntity(getEntity("guid-1"));
+
+        OMRSInstanceEvent sharedEvent = getInboundEvent(instanceSection);
+        OMRSInstanceEvent copiedEvent = new OMRSInstanceEvent(sharedEvent);
+
+        assertEquals(copiedEvent.getInstanceEventType(), OMRSInstanceEventType.UPDATED_ENTITY_EVENT);
+        assertEquals(copiedEvent.getEventDirection(), OMRSEventDirection.INBOUND);
+        assertEquals(copiedEvent.getEventCategory(), OMRSEventCategory.INSTANCE);
+        assertEquals(copiedEvent.getInstanceGUID(), "guid-1");
+        assertEquals(copiedEvent.getTypeDefName(), "Asset");
+        assertEquals(copiedEvent.getEntity(), sharedEvent.getEntity());
+        assertNotSame(copiedEvent.getEntity(), sharedEvent.getEntity());
+        assertNotSame(copiedEvent.getOriginalEntity(), sharedEvent.getOriginalEntity());
+        assertNull(copiedEvent.getRelationship());
+
+        copiedEvent.getEntity().setVersion(4L);
+
+        assertEquals(sharedEvent.getEntity().getVersion(), 3L);
+    }
+
+
+    @Test
+    public void testCopyHasItsOwnBatch()
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID("guid-3");
+
+        OMRSEventV2InstanceSection instanceSection = new OMRSEventV2InstanceSection();
+
+        instanceSection.setEventType(OMRSInstanceEventType.BATCH_INSTANCES_EVENT);
+        instanceSection.setInstanceBatch(new InstanceGraph(List.of(getEntity("guid-1"), getEntity("guid-2")),
+                                                           List.of(relationship)));
+
+        OMRSInstanceEvent sharedEvent = getInboundEvent(instanceSection);
+        OMRSInstanceEvent copiedEvent = new OMRSInstanceEvent(sharedEvent);
+
+        List<EntityDetail> sharedEntities = sharedEvent.getInstanceBatch().getEntities();
+        List<EntityDetail> copiedEntities = copiedEvent.getInstanceBatch().getEntities();
+
+        assertEquals(copiedEntities, sharedEntities);
+        assertNotSame(copiedEntities.get(0), sharedEntities.get(0));
+        assertEquals(copiedEvent.getInstanceBatch().getRelationships().get(0).getGUID(), "guid-3");
+        assertNotSame(copiedEvent.getInstanceBatch().getRelationships().get(0),
+                      sharedEvent.getInstanceBatch().getRelationships().get(0));
+
+        copiedEntities.get(1).setVersion(7L);
+
+        assertEquals(sharedEntities.get(1).getVersion(), 3L);
+    }
+}
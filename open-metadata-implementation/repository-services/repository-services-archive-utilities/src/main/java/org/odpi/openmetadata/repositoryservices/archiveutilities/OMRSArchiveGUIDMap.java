@@ -6,18 +6,18 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import org.apache.commons.io.FileUtils;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.UUID;
 
 /**
  * OMRSArchiveGUIDMap is a utility to create a persisted list of GUIDs used by an archive builder.
  * This helps the archive builder use the same GUIDs each time the archive is built.  GUIDs for
- * new elements are created automatically.
+ * new elements are created automatically, using the GUID strategy supplied when the map is created.
  */
 public class OMRSArchiveGUIDMap
 {
@@ -28,6 +28,7 @@ public class OMRSArchiveGUIDMap
     private static final ObjectReader OBJECT_READER = OBJECT_MAPPER.reader();
 
     private final String              guidMapFileName;
+    private final OMRSGUIDStrategy    guidStrategy;
     private       Map<String, String> idToGUIDMap;
     private final Map<String, String> usedIdToGUIDMap = new HashMap<>();
 
@@ -38,8 +39,22 @@ public class OMRSArchiveGUIDMap
      * @param guidMapFileName name of the file name where the GUIDs are stashed.
      */
     public OMRSArchiveGUIDMap(String guidMapFileName)
+    {
+        this(guidMapFileName, OMRSGUIDStrategy.RANDOM);
+    }
+
+
+    /**
+     * Constructor for the GUIDMap that creates the GUIDs for new elements with the requested strategy.
+     *
+     * @param guidMapFileName name of the file name where the GUIDs are stashed.
+     * @param guidStrategy how to create the GUIDs for new elements
+     */
+    public OMRSArchiveGUIDMap(String           guidMapFileName,
+                              OMRSGUIDStrategy guidStrategy)
     {
         this.guidMapFileName = guidMapFileName;
+        this.guidStrategy    = guidStrategy == null ? OMRSGUIDStrategy.RANDOM : guidStrategy;
 
         this.loadGUIDs();
     }
@@ -96,7 +111,7 @@ public class OMRSArchiveGUIDMap
 
         if (guid == null)
         {
-            guid = UUID.randomUUID().toString();
+            guid = guidStrategy.getNewGUID();
         }
 
         setGUID(id, guid);
@@ -31,9 +31,12 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryeventmapper.OMRSRepositoryEventMapperConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectionConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSEnterpriseConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederatedPagingManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSConnection;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.EnterpriseOMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventExchangeRule;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSInstanceHomeLocator;
 import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSRepositoryEventManager;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSConfigErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
@@ -91,6 +94,9 @@ public class OMRSOperationalServices
     private OMRSRepositoryEventManager     localRepositoryEventManager         = null;
     private OMRSMetadataHighwayManager     metadataHighwayManager              = null;
     private OMRSEnterpriseConnectorManager enterpriseConnectorManager          = null;
+    private FederationWorkerPool           federationWorkerPool                = null;
+    private OMRSInstanceHomeLocator        instanceHomeLocator                 = null;
+    private FederatedPagingManager         federatedPagingManager              = null;
     private String                         enterpriseMetadataCollectionId      = null;
     private String                         enterpriseMetadataCollectionName    = null;
     private OMRSTopicConnector             enterpriseOMRSTopicConnector        = null;
@@ -171,7 +177,10 @@ public class OMRSOperationalServices
                                                         auditLog.createNewAuditLog(OMRSAuditingComponent.ENTERPRISE_REPOSITORY_CONNECTOR),
                                                         enterpriseMetadataCollectionId,
                                                         enterpriseMetadataCollectionName,
-                                                        localMetadataCollectionId);
+                                                        localMetadataCollectionId,
+                                                        federationWorkerPool,
+                                                        instanceHomeLocator,
+                                                        federatedPagingManager);
 
             try
             {
@@ -407,6 +416,14 @@ public class OMRSOperationalServices
                                                    new OMRSRepositoryContentValidator(localRepositoryContentManager),
                                                    auditLog.createNewAuditLog(OMRSAuditingComponent.REPOSITORY_EVENT_MANAGER));
 
+            /*
+             * The instance home locator learns about the changes to the instances homed in the local repository.
+             */
+            if (instanceHomeLocator != null)
+            {
+                this.localRepositoryEventManager.registerRepositoryEventProcessor(instanceHomeLocator);
+            }
+
             /*
              * If the enterprise repository services topic is active, then register an event publisher for it.
              * This topic is active if the Open Metadata Access Services (OMASs) are active.
@@ -517,6 +534,7 @@ public class OMRSOperationalServices
                                                        localRepositoryContentManager,
                                                        enterpriseConnectorManager,
                                                        enterpriseOMRSTopicConnector,
+                                                       instanceHomeLocator,
                                                        cohortConfigList);
         }
 
@@ -784,6 +802,53 @@ public class OMRSOperationalServices
              */
             enterpriseMetadataCollectionId = enterpriseAccessConfig.getEnterpriseMetadataCollectionId();
             enterpriseMetadataCollectionName = enterpriseAccessConfig.getEnterpriseMetadataCollectionName();
+
+            /*
+             * The worker pool is shared by all the enterprise connectors created for the access services in this server.
+             */
+            if (enterpriseAccessConfig.getParallelFederation())
+            {
+                federationWorkerPool = new FederationWorkerPool(localServerName,
+                                                                enterpriseAccessConfig.getMaxFederationWorkers(),
+                                                                enterpriseAccessConfig.getFederationTimeout(),
+                                                                enterpriseAccessConfig.getHedgedRetrieval(),
+                                                                enterpriseAccessConfig.getReferenceCopyDeadline());
+
+                auditLog.logMessage(actionDescription,
+                                    OMRSAuditCode.PARALLEL_FEDERATION_ENABLED.getMessageDefinition(Integer.toString(federationWorkerPool.getMaxWorkers()),
+                                                                                                   Long.toString(federationWorkerPool.getTimeout())));
+
+                if (federationWorkerPool.getHedgedRetrieval())
+                {
+                    auditLog.logMessage(actionDescription,
+                                        OMRSAuditCode.HEDGED_RETRIEVAL_ENABLED.getMessageDefinition(Long.toString(federationWorkerPool.getReferenceCopyDeadline())));
+                }
+            }
+
+            /*
+             * The instance home locator is also shared by all the enterprise connectors.  It is registered with the
+             * repository event managers as they are created so that it learns from the instance events.
+             */
+            if (enterpriseAccessConfig.getInstanceHomeLocator())
+            {
+                instanceHomeLocator = new OMRSInstanceHomeLocator(localServerName,
+                                                                  enterpriseAccessConfig.getInstanceHomeLocatorSize());
+
+                auditLog.logMessage(actionDescription,
+                                    OMRSAuditCode.INSTANCE_HOME_LOCATOR_ENABLED.getMessageDefinition(Integer.toString(instanceHomeLocator.getMaxInstances())));
+            }
+
+            /*
+             * The continuation cursors for ordered federated paging are shared by all the enterprise connectors
+             * so a caller can page through the results using any of the access services.
+             */
+            if (enterpriseAccessConfig.getOrderedFederatedPaging())
+            {
+                federatedPagingManager = new FederatedPagingManager(enterpriseAccessConfig.getPagingCursorCacheSize());
+
+                auditLog.logMessage(actionDescription,
+                                    OMRSAuditCode.ORDERED_FEDERATED_PAGING_ENABLED.getMessageDefinition(Integer.toString(federatedPagingManager.getMaxCursors())));
+            }
         }
 
         return enterpriseConnectorManager;
@@ -903,6 +968,8 @@ public class OMRSOperationalServices
      * @param enterpriseTopicConnector connector to the enterprise repository services Topic Connector.
      *                                 The cohorts replicate their events to the enterprise OMRS Topic so
      *                                 the Open Metadata Access Services (OMASs) can monitor changing metadata.
+     * @param instanceHomeLocator locator that learns the home repository of instances from the cohort events.
+     *                            It is null if the locator is not configured.
      * @param cohortConfigList list of cohorts to connect to (and the configuration to do it)
      * @return newly created and initialized metadata highway manager.
      */
@@ -913,6 +980,7 @@ public class OMRSOperationalServices
                                                           OMRSRepositoryContentManager    localRepositoryContentManager,
                                                           OMRSConnectionConsumer          connectionConsumer,
                                                           OMRSTopicConnector              enterpriseTopicConnector,
+                                                          OMRSInstanceHomeLocator         instanceHomeLocator,
                                                           List<CohortConfig>              cohortConfigList)
     {
         /*
@@ -925,6 +993,7 @@ public class OMRSOperationalServices
                                                                                             localRepositoryContentManager,
                                                                                             connectionConsumer,
                                                                                             enterpriseTopicConnector,
+                                                                                            instanceHomeLocator,
                                                                                             auditLog.createNewAuditLog(OMRSAuditingComponent.METADATA_HIGHWAY_MANAGER));
 
         /*
@@ -1099,6 +1168,11 @@ public class OMRSOperationalServices
             }
         }
 
+        if (federationWorkerPool != null)
+        {
+            federationWorkerPool.shutdown();
+        }
+
         if (archiveManager != null)
         {
             archiveManager.close();
@@ -12,6 +12,9 @@ import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectionCheckedExcepti
 import org.odpi.openmetadata.frameworks.connectors.ffdc.ConnectorCheckedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnectorProviderBase;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederatedPagingManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSInstanceHomeLocator;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 
 import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
@@ -39,7 +42,9 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
     private final String                       enterpriseMetadataCollectionId;
     private final String                       enterpriseMetadataCollectionName;
     private final String                       localMetadataCollectionId;
-
+    private final FederationWorkerPool         federationWorkerPool;
+    private final OMRSInstanceHomeLocator      instanceHomeLocator;
+    private final FederatedPagingManager       federatedPagingManager;
 
 
     /**
@@ -58,6 +63,10 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
      * @param enterpriseMetadataCollectionName name of the combined metadata collection covered by the connected open
      *                                        metadata repositories.  Used for messages.
      * @param localMetadataCollectionId metadata collection id of local repository
+     * @param federationWorkerPool worker threads for parallel federated queries - null means issue them sequentially
+     * @param instanceHomeLocator remembers the home repository of instances - null means always call all repositories
+     * @param federatedPagingManager merges federated query results into a single order - null means return the
+     *                               results from each repository unmerged
      */
     public EnterpriseOMRSConnectorProvider(OMRSConnectorManager         connectorManager,
                                            OMRSRepositoryContentManager repositoryContentManager,
@@ -67,7 +76,10 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
                                            AuditLog                     auditLog,
                                            String                       enterpriseMetadataCollectionId,
                                            String                       enterpriseMetadataCollectionName,
-                                           String                       localMetadataCollectionId)
+                                           String                       localMetadataCollectionId,
+                                           FederationWorkerPool         federationWorkerPool,
+                                           OMRSInstanceHomeLocator      instanceHomeLocator,
+                                           FederatedPagingManager       federatedPagingManager)
     {
         super();
         super.setConnectorComponentDescription(OMRSAuditingComponent.ENTERPRISE_REPOSITORY_CONNECTOR);
@@ -86,6 +98,9 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
         this.enterpriseMetadataCollectionId = enterpriseMetadataCollectionId;
         this.enterpriseMetadataCollectionName = enterpriseMetadataCollectionName;
         this.localMetadataCollectionId = localMetadataCollectionId;
+        this.federationWorkerPool = federationWorkerPool;
+        this.instanceHomeLocator = instanceHomeLocator;
+        this.federatedPagingManager = federatedPagingManager;
     }
 
 
@@ -132,6 +147,9 @@ public class EnterpriseOMRSConnectorProvider extends OMRSRepositoryConnectorProv
          * Set the localMetadataCollectionId in the connector so that it is available during creation of the EnterpriseMetadataCollection, during setMetaadataCollectionId().
          */
         connector.setLocalMetadataCollectionId(localMetadataCollectionId);
+        connector.setFederationWorkerPool(federationWorkerPool);
+        connector.setInstanceHomeLocator(instanceHomeLocator);
+        connector.setFederatedPagingManager(federatedPagingManager);
 
         connector.setMetadataCollectionId(enterpriseMetadataCollectionId);
         connector.setMetadataCollectionName(enterpriseMetadataCollectionName);
@@ -18,10 +18,14 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederatedPageRequest;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationControl;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.HedgedFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.ParallelFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.SequentialFederationControl;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.*;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSInstanceHomeLocator;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
@@ -137,7 +141,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         GetAllTypesExecutor executor = new GetAllTypesExecutor(userId,
                                                                methodName,
                                                                localMetadataCollectionId,
@@ -897,17 +901,25 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
-        GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
+        GetEntityDetailExecutor executor = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
 
         /*
-         * Ready to process the request.  Create requests occur in the first repository that accepts the call.
-         * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
+         * If the home repository of the instance is known, the request goes straight to it.
          */
-        federationControl.executeCommand(executor);
+        if (! this.retrieveFromHomeRepository(userId, guid, cohortConnectors, executor, methodName))
+        {
+            /*
+             * Ready to process the request.  Create requests occur in the first repository that accepts the call.
+             * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+             * there are no positive results from any repository.
+             */
+            FederationControl federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool()));
+
+            executor = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
+            federationControl.executeCommand(executor);
+        }
 
-        return executor.isEntityKnown(true);
+        return this.learnInstanceHome(executor.isEntityKnown(true));
     }
 
 
@@ -946,17 +958,25 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
-        GetEntitySummaryExecutor executor          = new GetEntitySummaryExecutor(userId, guid, auditLog, methodName);
+        GetEntitySummaryExecutor executor = new GetEntitySummaryExecutor(userId, guid, auditLog, methodName);
 
         /*
-         * Ready to process the request.  Get requests occur in the first repository that accepts the call.
-         * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
+         * If the home repository of the instance is known, the request goes straight to it.
          */
-        federationControl.executeCommand(executor);
+        if (! this.retrieveFromHomeRepository(userId, guid, cohortConnectors, executor, methodName))
+        {
+            /*
+             * Ready to process the request.  Get requests occur in the first repository that accepts the call.
+             * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+             * there are no positive results from any repository.
+             */
+            FederationControl federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool()));
 
-        return executor.getEntitySummary();
+            executor = new GetEntitySummaryExecutor(userId, guid, auditLog, methodName);
+            federationControl.executeCommand(executor);
+        }
+
+        return this.learnInstanceHome(executor.getEntitySummary());
     }
 
 
@@ -996,12 +1016,20 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
-        GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
+        GetEntityDetailExecutor executor = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
 
-        federationControl.executeCommand(executor);
+        /*
+         * If the home repository of the instance is known, the request goes straight to it.
+         */
+        if (! this.retrieveFromHomeRepository(userId, guid, cohortConnectors, executor, methodName))
+        {
+            FederationControl federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool()));
+
+            executor = new GetEntityDetailExecutor(userId, guid, auditLog, methodName);
+            federationControl.executeCommand(executor);
+        }
 
-        return executor.getEntityDetail();
+        return this.learnInstanceHome(executor.getEntityDetail());
     }
 
 
@@ -1046,7 +1074,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool()));
         GetEntityDetailExecutor executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -1068,7 +1096,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
             {
                 cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+                federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool()));
                 executor          = new GetEntityDetailExecutor(userId, guid, asOfTime, auditLog, methodName);
 
                 retryCount ++;
@@ -1133,7 +1161,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         GetEntityDetailHistoryExecutor executor          = new GetEntityDetailHistoryExecutor(userId,
                                                                                               guid,
                                                                                               fromTime,
@@ -1208,7 +1236,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl                federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         GetClassificationHistoryExecutor executor          = new GetClassificationHistoryExecutor(userId,
                                                                                                   guid,
                                                                                                   classificationName,
@@ -1305,21 +1333,29 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, entityGUID, relationshipTypeGUID, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromRelationshipElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl                 federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         GetRelationshipsForEntityExecutor executor          = new GetRelationshipsForEntityExecutor(userId,
                                                                                                     entityGUID,
                                                                                                     relationshipTypeGUID,
-                                                                                                    fromRelationshipElement,
+                                                                                                    pageRequest.getStartingElement(),
                                                                                                     limitResultsByStatus,
                                                                                                     asOfTime,
                                                                                                     sequencingProperty,
                                                                                                     sequencingOrder,
-                                                                                                    pageSize,
+                                                                                                    pageRequest.getPageSize(),
                                                                                                     localMetadataCollectionId,
                                                                                                     auditLog,
                                                                                                     repositoryValidator,
                                                                                                     methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1327,7 +1363,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        List<Relationship> results = executor.getResults(enterpriseParentConnector);
+        List<Relationship> results = pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector));
 
         if ((results == null) || (results.isEmpty()))
         {
@@ -1424,23 +1460,31 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, entityTypeGUID, matchProperties, matchCriteria, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromEntityElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindEntitiesByPropertyExecutor executor          = new FindEntitiesByPropertyExecutor(userId,
                                                                                               entityTypeGUID,
                                                                                               matchProperties,
                                                                                               matchCriteria,
-                                                                                              fromEntityElement,
+                                                                                              pageRequest.getStartingElement(),
                                                                                               limitResultsByStatus,
                                                                                               limitResultsByClassification,
                                                                                               asOfTime,
                                                                                               sequencingProperty,
                                                                                               sequencingOrder,
-                                                                                              pageSize,
+                                                                                              pageRequest.getPageSize(),
                                                                                               localMetadataCollectionId,
                                                                                               auditLog,
                                                                                               repositoryValidator,
                                                                                               methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1448,7 +1492,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector, this)));
     }
 
 
@@ -1530,23 +1574,31 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, entityTypeGUID, entitySubtypeGUIDs, searchProperties, limitResultsByStatus, searchClassifications, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromEntityElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindEntitiesExecutor executor          = new FindEntitiesExecutor(userId,
                                                                           entityTypeGUID,
                                                                           entitySubtypeGUIDs,
                                                                           searchProperties,
-                                                                          fromEntityElement,
+                                                                          pageRequest.getStartingElement(),
                                                                           limitResultsByStatus,
                                                                           searchClassifications,
                                                                           asOfTime,
                                                                           sequencingProperty,
                                                                           sequencingOrder,
-                                                                          pageSize,
+                                                                          pageRequest.getPageSize(),
                                                                           localMetadataCollectionId,
                                                                           auditLog,
                                                                           repositoryValidator,
                                                                           methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1554,7 +1606,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector, this)));
     }
 
 
@@ -1642,23 +1694,31 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, entityTypeGUID, classificationName, matchClassificationProperties, matchCriteria, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromEntityElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl                    federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindEntitiesByClassificationExecutor executor          = new FindEntitiesByClassificationExecutor(userId,
                                                                                                           entityTypeGUID,
                                                                                                           classificationName,
                                                                                                           matchClassificationProperties,
                                                                                                           matchCriteria,
-                                                                                                          fromEntityElement,
+                                                                                                          pageRequest.getStartingElement(),
                                                                                                           limitResultsByStatus,
                                                                                                           asOfTime,
                                                                                                           sequencingProperty,
                                                                                                           sequencingOrder,
-                                                                                                          pageSize,
+                                                                                                          pageRequest.getPageSize(),
                                                                                                           localMetadataCollectionId,
                                                                                                           auditLog,
                                                                                                           repositoryValidator,
                                                                                                           methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1666,7 +1726,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector, this)));
     }
 
 
@@ -1756,25 +1816,33 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, entityTypeGUID, searchString, startsWith, endsWith, ignoreCase, limitResultsByStatus, limitResultsByClassification, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromEntityElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindEntitiesByPropertyValueExecutor executor          = new FindEntitiesByPropertyValueExecutor(userId,
                                                                                                         entityTypeGUID,
                                                                                                         searchString,
                                                                                                         startsWith,
                                                                                                         endsWith,
                                                                                                         ignoreCase,
-                                                                                                        fromEntityElement,
+                                                                                                        pageRequest.getStartingElement(),
                                                                                                         limitResultsByStatus,
                                                                                                         limitResultsByClassification,
                                                                                                         asOfTime,
                                                                                                         sequencingProperty,
                                                                                                         sequencingOrder,
-                                                                                                        pageSize,
+                                                                                                        pageRequest.getPageSize(),
                                                                                                         localMetadataCollectionId,
                                                                                                         auditLog,
                                                                                                         repositoryValidator,
                                                                                                         methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -1782,7 +1850,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector, this);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector, this)));
     }
 
 
@@ -1819,17 +1887,25 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
-        GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
+        GetRelationshipExecutor executor = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
 
         /*
-         * Ready to process the request.  Create requests occur in the first repository that accepts the call.
-         * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
+         * If the home repository of the instance is known, the request goes straight to it.
          */
-        federationControl.executeCommand(executor);
+        if (! this.retrieveFromHomeRepository(userId, guid, cohortConnectors, executor, methodName))
+        {
+            /*
+             * Ready to process the request.  Create requests occur in the first repository that accepts the call.
+             * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+             * there are no positive results from any repository.
+             */
+            FederationControl federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName));
 
-        return executor.isRelationshipKnown();
+            executor = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
+            federationControl.executeCommand(executor);
+        }
+
+        return this.learnInstanceHome(executor.isRelationshipKnown());
     }
 
 
@@ -1868,17 +1944,25 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
-        GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
+        GetRelationshipExecutor executor = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
 
         /*
-         * Ready to process the request.  Create requests occur in the first repository that accepts the call.
-         * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
-         * there are no positive results from any repository.
+         * If the home repository of the instance is known, the request goes straight to it.
          */
-        federationControl.executeCommand(executor);
+        if (! this.retrieveFromHomeRepository(userId, guid, cohortConnectors, executor, methodName))
+        {
+            /*
+             * Ready to process the request.  Create requests occur in the first repository that accepts the call.
+             * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
+             * there are no positive results from any repository.
+             */
+            FederationControl federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName));
+
+            executor = new GetRelationshipExecutor(userId, guid, auditLog, methodName);
+            federationControl.executeCommand(executor);
+        }
 
-        return executor.getRelationship();
+        return this.learnInstanceHome(executor.getRelationship());
     }
 
 
@@ -1921,7 +2005,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl       federationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl       federationControl = getRetrievalFederationControl(userId, cohortConnectors, methodName, new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName));
         GetRelationshipExecutor executor          = new GetRelationshipExecutor(userId, guid, asOfTime, auditLog, methodName);
 
         /*
@@ -1985,7 +2069,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederationControl              federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         GetRelationshipHistoryExecutor executor          = new GetRelationshipHistoryExecutor(userId,
                                                                                               guid,
                                                                                               fromTime,
@@ -2096,7 +2180,13 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, relationshipTypeGUID, relationshipSubtypeGUIDs, end1EntityGUIDs, end2EntityGUIDs, endMatchCriteria, matchProperties, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromRelationshipElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl         federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindRelationshipsExecutor executor          = new FindRelationshipsExecutor(userId,
                                                                                     relationshipTypeGUID,
                                                                                     relationshipSubtypeGUIDs,
@@ -2104,17 +2194,19 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
                                                                                     end2EntityGUIDs,
                                                                                     endMatchCriteria,
                                                                                     matchProperties,
-                                                                                    fromRelationshipElement,
+                                                                                    pageRequest.getStartingElement(),
                                                                                     limitResultsByStatus,
                                                                                     asOfTime,
                                                                                     sequencingProperty,
                                                                                     sequencingOrder,
-                                                                                    pageSize,
+                                                                                    pageRequest.getPageSize(),
                                                                                     localMetadataCollectionId,
                                                                                     auditLog,
                                                                                     repositoryValidator,
                                                                                     methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -2122,7 +2214,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector)));
     }
 
 
@@ -2204,22 +2296,30 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, relationshipTypeGUID, matchProperties, matchCriteria, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromRelationshipElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl                   federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindRelationshipsByPropertyExecutor executor          = new FindRelationshipsByPropertyExecutor(userId,
                                                                                                         relationshipTypeGUID,
                                                                                                         matchProperties,
                                                                                                         matchCriteria,
-                                                                                                        fromRelationshipElement,
+                                                                                                        pageRequest.getStartingElement(),
                                                                                                         limitResultsByStatus,
                                                                                                         asOfTime,
                                                                                                         sequencingProperty,
                                                                                                         sequencingOrder,
-                                                                                                        pageSize,
+                                                                                                        pageRequest.getPageSize(),
                                                                                                         localMetadataCollectionId,
                                                                                                         auditLog,
                                                                                                         repositoryValidator,
                                                                                                         methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -2227,7 +2327,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector)));
     }
 
 
@@ -2314,24 +2414,32 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         List<OMRSRepositoryConnector> cohortConnectors = enterpriseParentConnector.getCohortConnectors(methodName);
 
-        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName);
+        FederatedPageRequest pageRequest = this.getFederatedPageRequest(Arrays.asList(methodName, userId, relationshipTypeGUID, searchString, startsWith, endsWith, ignoreCase, limitResultsByStatus, asOfTime, sequencingProperty, sequencingOrder),
+                                                                        fromRelationshipElement,
+                                                                        sequencingProperty,
+                                                                        sequencingOrder,
+                                                                        pageSize);
+
+        FederationControl                        federationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, enterpriseParentConnector.getFederationWorkerPool());
         FindRelationshipsByPropertyValueExecutor executor          = new FindRelationshipsByPropertyValueExecutor(userId,
                                                                                                                   relationshipTypeGUID,
                                                                                                                   searchString,
                                                                                                                   startsWith,
                                                                                                                   endsWith,
                                                                                                                   ignoreCase,
-                                                                                                                  fromRelationshipElement,
+                                                                                                                  pageRequest.getStartingElement(),
                                                                                                                   limitResultsByStatus,
                                                                                                                   asOfTime,
                                                                                                                   sequencingProperty,
                                                                                                                   sequencingOrder,
-                                                                                                                  pageSize,
+                                                                                                                  pageRequest.getPageSize(),
                                                                                                                   localMetadataCollectionId,
                                                                                                                   auditLog,
                                                                                                                   repositoryValidator,
                                                                                                                   methodName);
 
+        pageRequest.setUpExecutor(executor);
+
         /*
          * Ready to process the request.  Create requests occur in the first repository that accepts the call.
          * Some repositories may produce exceptions.  These exceptions are saved and will be returned if
@@ -2339,7 +2447,7 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
          */
         federationControl.executeCommand(executor);
 
-        return executor.getResults(enterpriseParentConnector);
+        return this.learnInstanceHomes(pageRequest.getResults(executor, executor.getResults(enterpriseParentConnector)));
     }
 
 
@@ -4378,6 +4486,177 @@ class EnterpriseOMRSMetadataCollection extends OMRSMetadataCollectionBase
      */
 
 
+    /**
+     * Return the federation control to use to retrieve a single instance.  If hedged retrieval is configured,
+     * the request completes as soon as the home repository for the instance responds.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param methodName calling method
+     * @param defaultFederationControl federation control to use if hedged retrieval is not configured
+     * @return federation control
+     */
+    private FederationControl getRetrievalFederationControl(String                        userId,
+                                                            List<OMRSRepositoryConnector> cohortConnectors,
+                                                            String                        methodName,
+                                                            FederationControl             defaultFederationControl)
+    {
+        FederationWorkerPool workerPool = enterpriseParentConnector.getFederationWorkerPool();
+
+        if ((workerPool != null) && (workerPool.getHedgedRetrieval()))
+        {
+            return new HedgedFederationControl(userId, cohortConnectors, auditLog, methodName, workerPool);
+        }
+
+        return defaultFederationControl;
+    }
+
+
+    /**
+     * Return the paging parameters for a federated query.  If ordered federated paging is configured, and the query
+     * requests an order, the results from each repository are merged into a single order and each repository
+     * continues from the position it reached on the previous page.
+     *
+     * @param queryParameters parameters that identify the query (including the calling user and method)
+     * @param fromElement starting element requested by the caller
+     * @param sequencingProperty name of the property used to sequence the results
+     * @param sequencingOrder requested order of the results
+     * @param pageSize maximum number of results requested by the caller
+     * @return page request
+     */
+    private FederatedPageRequest getFederatedPageRequest(List<Object>    queryParameters,
+                                                         int             fromElement,
+                                                         String          sequencingProperty,
+                                                         SequencingOrder sequencingOrder,
+                                                         int             pageSize)
+    {
+        return new FederatedPageRequest(enterpriseParentConnector.getFederatedPagingManager(),
+                                        repositoryHelper,
+                                        queryParameters,
+                                        fromElement,
+                                        sequencingProperty,
+                                        sequencingOrder,
+                                        pageSize);
+    }
+
+
+    /**
+     * Issue a request for a single instance to the instance's home repository, if it is known to the instance home
+     * locator and is currently registered.  If the home repository does not return the instance, the locator
+     * forgets the instance and the caller falls back to issuing the request to all repositories.  If the home
+     * repository returns an entity, the other repositories are asked for the entity's classifications that they
+     * are home for, as they would be in a federated retrieval.
+     *
+     * @param userId calling user
+     * @param guid unique identifier of the instance
+     * @param cohortConnectors list of connectors to the registered repositories
+     * @param executor executor for the request
+     * @param methodName calling method
+     * @return boolean true means the home repository returned the instance
+     * @throws RepositoryErrorException problem with the state of the home repository.
+     */
+    private boolean retrieveFromHomeRepository(String                        userId,
+                                               String                        guid,
+                                               List<OMRSRepositoryConnector> cohortConnectors,
+                                               HedgedRepositoryExecutor      executor,
+                                               String                        methodName) throws RepositoryErrorException
+    {
+        OMRSInstanceHomeLocator instanceHomeLocator = enterpriseParentConnector.getInstanceHomeLocator();
+
+        if ((instanceHomeLocator == null) || (cohortConnectors == null))
+        {
+            return false;
+        }
+
+        String homeMetadataCollectionId = instanceHomeLocator.getHomeMetadataCollectionId(guid);
+
+        if (homeMetadataCollectionId != null)
+        {
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            {
+                if ((cohortConnector != null) && (homeMetadataCollectionId.equals(cohortConnector.getMetadataCollectionId())))
+                {
+                    FederationControl federationControl = new SequentialFederationControl(userId,
+                                                                                          Collections.singletonList(cohortConnector),
+                                                                                          auditLog,
+                                                                                          methodName);
+
+                    federationControl.executeCommand((RepositoryExecutor)executor);
+
+                    if (executor.isAuthoritativeResultAvailable())
+                    {
+                        /*
+                         * Entity retrievals pick up the classifications homed in the other repositories.
+                         */
+                        List<OMRSRepositoryConnector> otherConnectors = new ArrayList<>(cohortConnectors);
+
+                        otherConnectors.remove(cohortConnector);
+
+                        if (! otherConnectors.isEmpty())
+                        {
+                            ParallelFederationControl augmentationControl = new ParallelFederationControl(userId,
+                                                                                                          otherConnectors,
+                                                                                                          auditLog,
+                                                                                                          methodName,
+                                                                                                          enterpriseParentConnector.getFederationWorkerPool());
+
+                            augmentationControl.executeAugmentation((RepositoryExecutor)executor);
+                        }
+
+                        return true;
+                    }
+
+                    break;
+                }
+            }
+
+            instanceHomeLocator.forgetInstance(guid);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Remember the home repository of an instance returned to the caller.
+     *
+     * @param instance retrieved instance (may be null)
+     * @param <T> type of instance
+     * @return the instance
+     */
+    private <T extends InstanceHeader> T learnInstanceHome(T instance)
+    {
+        OMRSInstanceHomeLocator instanceHomeLocator = enterpriseParentConnector.getInstanceHomeLocator();
+
+        if (instanceHomeLocator != null)
+        {
+            instanceHomeLocator.learnInstanceHome(instance);
+        }
+
+        return instance;
+    }
+
+
+    /**
+     * Remember the home repository of the instances returned to the caller.
+     *
+     * @param instances retrieved instances (may be null)
+     * @param <T> type of instance
+     * @return the instances
+     */
+    private <T extends InstanceHeader> List<T> learnInstanceHomes(List<T> instances)
+    {
+        OMRSInstanceHomeLocator instanceHomeLocator = enterpriseParentConnector.getInstanceHomeLocator();
+
+        if (instanceHomeLocator != null)
+        {
+            instanceHomeLocator.learnInstanceHomes(instances);
+        }
+
+        return instances;
+    }
+
+
     /**
      * Indicates to the caller that the method called is not supported by the enterprise connector.
      *
@@ -14,6 +14,9 @@ import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollec
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorConsumer;
 import org.odpi.openmetadata.repositoryservices.enterprise.connectormanager.OMRSConnectorManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederatedPagingManager;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control.FederationWorkerPool;
+import org.odpi.openmetadata.repositoryservices.eventmanagement.OMRSInstanceHomeLocator;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.OMRSRuntimeException;
@@ -46,7 +49,10 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     private String                              localMetadataCollectionId = null;
     private List<FederatedConnector>            remoteCohortConnectors    = new ArrayList<>();
 
-    private String callingServiceName = null;
+    private String                  callingServiceName     = null;
+    private FederationWorkerPool    federationWorkerPool   = null;
+    private OMRSInstanceHomeLocator instanceHomeLocator    = null;
+    private FederatedPagingManager  federatedPagingManager = null;
 
     private static final Logger log = LoggerFactory.getLogger(EnterpriseOMRSRepositoryConnector.class);
 
@@ -107,6 +113,75 @@ public class EnterpriseOMRSRepositoryConnector extends OMRSRepositoryConnector i
     }
 
 
+    /**
+     * Set up the worker threads used to issue federated queries in parallel.  Null means the federated queries are
+     * issued sequentially.
+     *
+     * @param federationWorkerPool worker pool shared by all enterprise connectors in the server
+     */
+    void setFederationWorkerPool(FederationWorkerPool federationWorkerPool)
+    {
+        this.federationWorkerPool = federationWorkerPool;
+    }
+
+
+    /**
+     * Return the worker threads used to issue federated queries in parallel.
+     *
+     * @return worker pool or null
+     */
+    FederationWorkerPool getFederationWorkerPool()
+    {
+        return federationWorkerPool;
+    }
+
+
+    /**
+     * Set up the locator that remembers the home repository of instances.  Null means that requests for a single
+     * instance are always issued to all repositories.
+     *
+     * @param instanceHomeLocator locator shared by all enterprise connectors in the server
+     */
+    void setInstanceHomeLocator(OMRSInstanceHomeLocator instanceHomeLocator)
+    {
+        this.instanceHomeLocator = instanceHomeLocator;
+    }
+
+
+    /**
+     * Return the locator that remembers the home repository of instances.
+     *
+     * @return locator or null
+     */
+    OMRSInstanceHomeLocator getInstanceHomeLocator()
+    {
+        return instanceHomeLocator;
+    }
+
+
+    /**
+     * Set up the manager that merges the results of federated queries into a single order.  Null means that the
+     * results from each repository are returned unmerged.
+     *
+     * @param federatedPagingManager paging manager shared by all enterprise connectors in the server
+     */
+    void setFederatedPagingManager(FederatedPagingManager federatedPagingManager)
+    {
+        this.federatedPagingManager = federatedPagingManager;
+    }
+
+
+    /**
+     * Return the manager that merges the results of federated queries into a single order.
+     *
+     * @return paging manager or null
+     */
+    FederatedPagingManager getFederatedPagingManager()
+    {
+        return federatedPagingManager;
+    }
+
+
     /**
      * Indicates that the connector is completely configured and can begin processing.
      *
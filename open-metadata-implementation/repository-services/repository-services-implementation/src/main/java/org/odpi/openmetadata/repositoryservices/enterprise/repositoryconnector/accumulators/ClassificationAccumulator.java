@@ -59,6 +59,25 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
     }
 
 
+    /**
+     * Return whether the copy of the entity from its home repository has been retrieved.
+     *
+     * @return flag
+     */
+    public boolean isHomeInstanceRetrieved()
+    {
+        return ! isInPhaseOne();
+    }
+
+
+    /**
+     * Return whether any copy of the entity has been retrieved.
+     *
+     * @return flag
+     */
+    public abstract boolean isInstanceRetrieved();
+
+
     /**
      * Remember that a specific metadata collection has already been called.
      *
@@ -94,7 +113,7 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
      *
      * @param retrievedClassifications classifications from a repository
      */
-    public void saveClassifications(List<Classification> retrievedClassifications)
+    public synchronized void saveClassifications(List<Classification> retrievedClassifications)
     {
         if (retrievedClassifications != null)
         {
@@ -124,7 +143,7 @@ public abstract class ClassificationAccumulator extends MaintenanceAccumulator
      * @param returnDeletedClassifications should classifications in deleted status be returned?
      * @return null or list of classifications
      */
-    List<Classification> getClassifications(boolean returnDeletedClassifications)
+    synchronized List<Classification> getClassifications(boolean returnDeletedClassifications)
     {
         if (allClassifications.isEmpty())
         {
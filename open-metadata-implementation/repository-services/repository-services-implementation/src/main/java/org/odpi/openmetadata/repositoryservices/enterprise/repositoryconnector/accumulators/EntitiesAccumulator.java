@@ -118,6 +118,8 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
                 this.addEntity(entity, metadataCollectionId);
             }
 
+            super.saveMemberResults(metadataCollectionId, entities);
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -125,6 +127,8 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
         }
         else
         {
+            super.saveMemberResults(metadataCollectionId, null);
+
             /*
              * Even though results were not found it was still a successful request.
              */
@@ -215,7 +219,7 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
      * @param entityGUID unique identifier for entity of interest
      * @return null or list of metadata collection ids
      */
-    public List<String> getContributingMetadataCollections(String entityGUID)
+    public synchronized List<String> getContributingMetadataCollections(String entityGUID)
     {
         return accumulatedEntitySources.get(entityGUID);
     }
@@ -226,7 +230,7 @@ public class EntitiesAccumulator extends QueryInstanceAccumulatorBase
      *
      * @return null or list of GUIDs
      */
-    public List<String> getResultsForAugmentation()
+    public synchronized List<String> getResultsForAugmentation()
     {
         if (! accumulatedEntities.isEmpty())
         {
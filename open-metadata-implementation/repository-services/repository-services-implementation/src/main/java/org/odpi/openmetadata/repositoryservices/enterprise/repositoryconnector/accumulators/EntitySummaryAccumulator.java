@@ -77,6 +77,18 @@ public class EntitySummaryAccumulator extends ClassificationAccumulator
     }
 
 
+    /**
+     * Return whether any copy of the entity has been retrieved.
+     *
+     * @return flag
+     */
+    @Override
+    public boolean isInstanceRetrieved()
+    {
+        return currentSavedEntity != null;
+    }
+
+
     /**
      * Return the list of GUIDs for the entities returned from the query.
      *
@@ -4,10 +4,13 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryValidator;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * QueryAccumulatorBase acts as a base class to the accumulators that need to visit each repository and
@@ -17,6 +20,13 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
 {
     protected List<String>            locallyStoredInstancesGUIDs = new ArrayList<>();
 
+    /*
+     * Used for globally ordered paging - the starting element requested from each repository and the
+     * instances each repository returned, in the order they were returned.
+     */
+    private Map<String, Integer>                       memberStartingElements = null;
+    private final Map<String, List<InstanceHeader>>    memberResults          = new HashMap<>();
+
     /**
      * Construct a query accumulator.  This base class manages the common variables needed to
      * control the execution of requests across all members of the cohort(s).
@@ -54,4 +64,75 @@ public class QueryInstanceAccumulatorBase extends QueryAccumulatorBase
     {
         return ! (locallyStoredInstancesGUIDs.contains(instanceGUID));
     }
+
+
+    /**
+     * Set up the starting element to request from each repository.  This is used when the results from
+     * the repositories are merged into a single ordered list and the position reached in each repository
+     * on the previous page is known.
+     *
+     * @param memberStartingElements map of metadata collection id to starting element
+     */
+    public synchronized void setMemberStartingElements(Map<String, Integer> memberStartingElements)
+    {
+        this.memberStartingElements = memberStartingElements;
+    }
+
+
+    /**
+     * Return the starting element to request from a repository.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @param defaultStartingElement starting element to use if there is no specific value for the repository
+     * @return starting element
+     */
+    public synchronized int getStartingElement(String metadataCollectionId,
+                                               int    defaultStartingElement)
+    {
+        if ((memberStartingElements != null) && (metadataCollectionId != null))
+        {
+            Integer startingElement = memberStartingElements.get(metadataCollectionId);
+
+            if (startingElement != null)
+            {
+                return startingElement;
+            }
+        }
+
+        return defaultStartingElement;
+    }
+
+
+    /**
+     * Save the list of instances returned by a repository in the order that they were returned.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @param instances list of instances returned from the repository
+     */
+    void saveMemberResults(String                         metadataCollectionId,
+                           List<? extends InstanceHeader> instances)
+    {
+        if (metadataCollectionId != null)
+        {
+            if (instances == null)
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>());
+            }
+            else
+            {
+                memberResults.put(metadataCollectionId, new ArrayList<>(instances));
+            }
+        }
+    }
+
+
+    /**
+     * Return the instances returned by each repository in the order that they were returned.
+     *
+     * @return map of metadata collection id to list of instances
+     */
+    public synchronized Map<String, List<InstanceHeader>> getMemberResults()
+    {
+        return new HashMap<>(memberResults);
+    }
 }
@@ -0,0 +1,96 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+
+
+/**
+ * RelationshipAccumulator accumulates a single relationship received from a collection of open metadata
+ * repositories.  The copy from the home repository is preferred.  Otherwise, it keeps the latest version.
+ *
+ * This class may be called simultaneously from different threads, so it must be thread-safe.
+ */
+public class RelationshipAccumulator extends MaintenanceAccumulator
+{
+    private volatile Relationship currentSavedRelationship = null;
+    private volatile boolean      homeRelationshipRetrieved = false;
+
+
+    /**
+     * Construct a relationship accumulator.
+     *
+     * @param auditLog audit log provides destination for log messages
+     */
+    public RelationshipAccumulator(AuditLog auditLog)
+    {
+        super(auditLog);
+    }
+
+
+    /**
+     * Provide a relationship received from an open metadata repository.
+     *
+     * @param incomingRelationship relationship returned from an open metadata repository
+     * @param metadataCollectionId unique identifier for the collection of metadata stored in this repository
+     */
+    public synchronized void addRelationship(Relationship incomingRelationship,
+                                             String       metadataCollectionId)
+    {
+        if ((incomingRelationship != null) && (incomingRelationship.getGUID() != null))
+        {
+            if (metadataCollectionId.equals(incomingRelationship.getMetadataCollectionId()))
+            {
+                /*
+                 * The home repository is found - assume it is the latest version.
+                 */
+                currentSavedRelationship = incomingRelationship;
+                homeRelationshipRetrieved = true;
+            }
+            else if (! homeRelationshipRetrieved)
+            {
+                /*
+                 * This incoming instance is ignored if we already have a later version.
+                 */
+                if (! super.currentInstanceIsBest(currentSavedRelationship, incomingRelationship))
+                {
+                    currentSavedRelationship = incomingRelationship;
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Return whether the copy of the relationship from its home repository has been retrieved.
+     *
+     * @return flag
+     */
+    public boolean isHomeInstanceRetrieved()
+    {
+        return homeRelationshipRetrieved;
+    }
+
+
+    /**
+     * Return whether any copy of the relationship has been retrieved.
+     *
+     * @return flag
+     */
+    public boolean isInstanceRetrieved()
+    {
+        return currentSavedRelationship != null;
+    }
+
+
+    /**
+     * Extract the resulting relationship.
+     *
+     * @return relationship or null
+     */
+    public Relationship getResult()
+    {
+        return currentSavedRelationship;
+    }
+}
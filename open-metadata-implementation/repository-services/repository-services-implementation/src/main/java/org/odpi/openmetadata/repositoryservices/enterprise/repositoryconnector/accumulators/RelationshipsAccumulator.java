@@ -91,6 +91,8 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
                 this.addRelationship(relationship, metadataCollectionId);
             }
 
+            super.saveMemberResults(metadataCollectionId, relationships);
+
             /*
              * Record that this repository has returned results from the request.
              */
@@ -98,6 +100,8 @@ public class RelationshipsAccumulator extends QueryInstanceAccumulatorBase
         }
         else
         {
+            super.saveMemberResults(metadataCollectionId, null);
+
             /*
              * Even though results were not found it was still a successful request.
              */
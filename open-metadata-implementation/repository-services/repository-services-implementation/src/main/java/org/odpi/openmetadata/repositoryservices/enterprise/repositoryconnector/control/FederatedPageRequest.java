@@ -0,0 +1,142 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.PageableRepositoryExecutor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FederatedPageRequest works out the paging parameters to send to each repository for one page of a federated
+ * query, and assembles the page that is returned to the caller.  If there is no paging manager, or the query does
+ * not request an order, the caller's paging parameters are passed to every repository and the results are
+ * returned as they are accumulated.  Otherwise, each repository is asked for a sorted page from the position it
+ * reached on the previous page and the results are merged into a single order by the FederatedPagingManager.
+ */
+public class FederatedPageRequest
+{
+    private final FederatedPagingManager pagingManager;
+    private final OMRSRepositoryHelper   repositoryHelper;
+    private final List<Object>           queryParameters;
+    private final int                    fromElement;
+    private final String                 sequencingProperty;
+    private final SequencingOrder        sequencingOrder;
+    private final int                    pageSize;
+    private final Map<String, Integer>   memberStartingElements;
+
+
+    /**
+     * Create the page request.
+     *
+     * @param pagingManager paging manager for the server - null means ordered paging is not enabled
+     * @param repositoryHelper helper used to compare instance properties
+     * @param queryParameters parameters that identify the query (including the calling user and method)
+     * @param fromElement starting element requested by the caller
+     * @param sequencingProperty name of the property used to sequence the results
+     * @param sequencingOrder requested order of the results
+     * @param pageSize maximum number of results requested by the caller
+     */
+    public FederatedPageRequest(FederatedPagingManager pagingManager,
+                                OMRSRepositoryHelper   repositoryHelper,
+                                List<Object>           queryParameters,
+                                int                    fromElement,
+                                String                 sequencingProperty,
+                                SequencingOrder        sequencingOrder,
+                                int                    pageSize)
+    {
+        if ((pagingManager != null) && (pagingManager.isOrderedPagingRequired(sequencingOrder, pageSize)))
+        {
+            this.pagingManager = pagingManager;
+            this.memberStartingElements = pagingManager.getMemberStartingElements(queryParameters, fromElement);
+        }
+        else
+        {
+            this.pagingManager = null;
+            this.memberStartingElements = null;
+        }
+
+        this.repositoryHelper = repositoryHelper;
+        this.queryParameters = queryParameters;
+        this.fromElement = fromElement;
+        this.sequencingProperty = sequencingProperty;
+        this.sequencingOrder = sequencingOrder;
+        this.pageSize = pageSize;
+    }
+
+
+    /**
+     * Return the starting element to request from each repository that does not have a recorded position.
+     *
+     * @return int
+     */
+    public int getStartingElement()
+    {
+        if (pagingManager == null)
+        {
+            return fromElement;
+        }
+
+        return 0;
+    }
+
+
+    /**
+     * Return the page size to request from each repository.  When there is no recorded position, each
+     * repository returns all of its results up to the end of the requested page.
+     *
+     * @return int
+     */
+    public int getPageSize()
+    {
+        if ((pagingManager != null) && (memberStartingElements == null))
+        {
+            return fromElement + pageSize;
+        }
+
+        return pageSize;
+    }
+
+
+    /**
+     * Pass the recorded position of each repository to the executor.
+     *
+     * @param executor executor for the query
+     */
+    public void setUpExecutor(PageableRepositoryExecutor executor)
+    {
+        if (memberStartingElements != null)
+        {
+            executor.setMemberStartingElements(memberStartingElements);
+        }
+    }
+
+
+    /**
+     * Return the page of results for the caller.
+     *
+     * @param executor executor that has run the query
+     * @param accumulatedResults unique list of the best copy of each instance
+     * @param <T> type of instance
+     * @return list of instances or null
+     */
+    public <T extends InstanceHeader> List<T> getResults(PageableRepositoryExecutor executor,
+                                                         List<T>                    accumulatedResults)
+    {
+        if (pagingManager == null)
+        {
+            return accumulatedResults;
+        }
+
+        return pagingManager.getOrderedPage(queryParameters,
+                                            fromElement,
+                                            pageSize,
+                                            memberStartingElements,
+                                            executor.getMemberResults(),
+                                            accumulatedResults,
+                                            FederatedPagingManager.getComparator(repositoryHelper, sequencingProperty, sequencingOrder));
+    }
+}
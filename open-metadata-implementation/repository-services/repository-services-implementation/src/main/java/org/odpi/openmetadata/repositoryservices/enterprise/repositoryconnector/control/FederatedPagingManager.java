@@ -0,0 +1,419 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceProperties;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryHelper;
+import org.odpi.openmetadata.repositoryservices.localrepository.repositorycontentmanager.OMRSRepositoryContentHelper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * FederatedPagingManager returns a globally ordered page of results from a federated query.  Each member of the
+ * cohort(s) returns its own page of results sorted by the requested sequencing property/order.  These pages are
+ * combined with a k-way merge so that the enterprise page holds the first pageSize instances across all the
+ * members.
+ * <p>
+ * Once a page is returned, the manager keeps a continuation cursor that records the position each member reached.
+ * The cursor is keyed on the query parameters and the starting element of the next page.  When the caller asks
+ * for that next page, each member is asked for a page starting from its own position rather than re-reading all
+ * the earlier pages.  If there is no cursor (for example, the caller jumps ahead or the cursor has been discarded)
+ * each member is asked for all the results up to the end of the requested page and the earlier ones are skipped.
+ * <p>
+ * There is one manager for each server.  It is shared by all the enterprise repository connectors created for the
+ * server's access services.  The number of cursors is bounded, and the least recently used cursors are discarded
+ * first.
+ */
+public class FederatedPagingManager
+{
+    /**
+     * Default maximum number of continuation cursors to remember.
+     */
+    public static final int DEFAULT_MAX_CURSORS = 1000;
+
+    private final int                                   maxCursors;
+    private final Map<CursorKey, Map<String, Integer>>  cursors;
+
+
+    /**
+     * Constructor for the paging manager.
+     *
+     * @param maxCursors maximum number of continuation cursors to remember - zero or less means use the default
+     */
+    public FederatedPagingManager(int maxCursors)
+    {
+        this.maxCursors = (maxCursors > 0) ? maxCursors : DEFAULT_MAX_CURSORS;
+        this.cursors = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CursorKey, Map<String, Integer>> eldest)
+            {
+                return size() > FederatedPagingManager.this.maxCursors;
+            }
+        };
+    }
+
+
+    /**
+     * Return the maximum number of continuation cursors that are remembered.
+     *
+     * @return int
+     */
+    public int getMaxCursors()
+    {
+        return maxCursors;
+    }
+
+
+    /**
+     * Return the number of continuation cursors currently remembered.
+     *
+     * @return int
+     */
+    public synchronized int getCursorCount()
+    {
+        return cursors.size();
+    }
+
+
+    /**
+     * Return whether a query's results can be merged into a single ordered list.  This needs a sequencing order
+     * that defines an order, and a page size.
+     *
+     * @param sequencingOrder requested order of the results
+     * @param pageSize maximum number of results
+     * @return boolean flag
+     */
+    public boolean isOrderedPagingRequired(SequencingOrder sequencingOrder,
+                                           int             pageSize)
+    {
+        return (sequencingOrder != null) && (sequencingOrder != SequencingOrder.ANY) && (pageSize > 0);
+    }
+
+
+    /**
+     * Return the starting element for each member that continues the query from the previous page.
+     *
+     * @param queryParameters parameters that identify the query (including the calling user and method)
+     * @param fromElement starting element of the requested page
+     * @return map of metadata collection id to starting element, or null if there is no cursor for this page
+     */
+    public synchronized Map<String, Integer> getMemberStartingElements(List<Object> queryParameters,
+                                                                       int          fromElement)
+    {
+        if (fromElement == 0)
+        {
+            return new HashMap<>();
+        }
+
+        Map<String, Integer> memberPositions = cursors.get(new CursorKey(queryParameters, fromElement));
+
+        if (memberPositions != null)
+        {
+            return new HashMap<>(memberPositions);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Merge the results from each member into the requested page and save the cursor for the following page.
+     *
+     * @param queryParameters parameters that identify the query (including the calling user and method)
+     * @param fromElement starting element of the requested page
+     * @param pageSize maximum number of results
+     * @param memberStartingElements starting element requested from each member (null means each member returned
+     *                               its results from the start)
+     * @param memberResults results returned from each member in the order they were returned
+     * @param accumulatedResults unique list of the best copy of each instance
+     * @param comparator ordering of the results
+     * @param <T> type of instance
+     * @return list of instances in the requested order or null if there are no more results
+     */
+    public <T extends InstanceHeader> List<T> getOrderedPage(List<Object>                      queryParameters,
+                                                             int                               fromElement,
+                                                             int                               pageSize,
+                                                             Map<String, Integer>              memberStartingElements,
+                                                             Map<String, List<InstanceHeader>> memberResults,
+                                                             List<T>                           accumulatedResults,
+                                                             Comparator<InstanceHeader>        comparator)
+    {
+        if ((accumulatedResults == null) || (accumulatedResults.isEmpty()) || (memberResults == null))
+        {
+            return null;
+        }
+
+        Map<String, T> bestInstances = new HashMap<>();
+
+        for (T instance : accumulatedResults)
+        {
+            if ((instance != null) && (instance.getGUID() != null))
+            {
+                bestInstances.put(instance.getGUID(), instance);
+            }
+        }
+
+        /*
+         * Without a cursor, each member returned its results from the start so the earlier pages are skipped.
+         */
+        int                  elementsToSkip  = 0;
+        Map<String, Integer> memberPositions = new HashMap<>();
+
+        if (memberStartingElements == null)
+        {
+            elementsToSkip = fromElement;
+        }
+        else
+        {
+            /*
+             * Members that did not respond this time keep their position for the next page.
+             */
+            memberPositions.putAll(memberStartingElements);
+        }
+
+        List<String> mergedGUIDs = mergeMemberResults(memberResults,
+                                                      elementsToSkip + pageSize,
+                                                      comparator,
+                                                      memberPositions);
+
+        List<T> results = new ArrayList<>();
+
+        for (int i = elementsToSkip; i < mergedGUIDs.size(); i++)
+        {
+            T instance = bestInstances.get(mergedGUIDs.get(i));
+
+            if (instance != null)
+            {
+                results.add(instance);
+            }
+        }
+
+        if (results.isEmpty())
+        {
+            return null;
+        }
+
+        synchronized (this)
+        {
+            cursors.put(new CursorKey(queryParameters, fromElement + results.size()), memberPositions);
+        }
+
+        return results;
+    }
+
+
+    /**
+     * Merge the sorted results from each member using a heap.  Each member's list is sorted, so the next instance
+     * in the merged list is always at the head of one of the lists.  Copies of the same instance from different
+     * members are only included once.  Since each member has returned up to a full page of results, the merge is
+     * complete before the end of any member's list is reached.
+     *
+     * @param memberResults results returned from each member in the order they were returned
+     * @param maxResults number of unique instances needed
+     * @param comparator ordering of the results
+     * @param memberPositions starting position of each member - updated with the position reached
+     * @return list of unique instance GUIDs in order
+     */
+    static List<String> mergeMemberResults(Map<String, List<InstanceHeader>> memberResults,
+                                           int                               maxResults,
+                                           Comparator<InstanceHeader>        comparator,
+                                           Map<String, Integer>              memberPositions)
+    {
+        Comparator<MemberHead> headComparator = (one, two) ->
+        {
+            int result = comparator.compare(one.current(), two.current());
+
+            if (result == 0)
+            {
+                /*
+                 * Break ties with the GUID so copies of the same instance are adjacent, then the member so that
+                 * the order is stable.
+                 */
+                result = compareStrings(one.current().getGUID(), two.current().getGUID());
+            }
+
+            if (result == 0)
+            {
+                result = compareStrings(one.metadataCollectionId, two.metadataCollectionId);
+            }
+
+            return result;
+        };
+
+        PriorityQueue<MemberHead> heap = new PriorityQueue<>(headComparator);
+
+        for (String metadataCollectionId : memberResults.keySet())
+        {
+            List<InstanceHeader> instances = memberResults.get(metadataCollectionId);
+
+            if ((instances != null) && (! instances.isEmpty()))
+            {
+                heap.add(new MemberHead(metadataCollectionId, instances));
+            }
+        }
+
+        List<String> mergedGUIDs  = new ArrayList<>();
+        Set<String>  includedGUIDs = new HashSet<>();
+
+        while ((! heap.isEmpty()) && (mergedGUIDs.size() < maxResults))
+        {
+            InstanceHeader instance = consumeHead(heap, memberPositions);
+
+            if ((instance.getGUID() != null) && (includedGUIDs.add(instance.getGUID())))
+            {
+                mergedGUIDs.add(instance.getGUID());
+            }
+        }
+
+        /*
+         * Step over any remaining copies of the instances already returned so they do not appear on the next page.
+         */
+        while ((! heap.isEmpty()) && (includedGUIDs.contains(heap.peek().current().getGUID())))
+        {
+            consumeHead(heap, memberPositions);
+        }
+
+        return mergedGUIDs;
+    }
+
+
+    /**
+     * Remove the instance at the head of the heap and advance the position of the member that returned it.
+     *
+     * @param heap heap of member lists
+     * @param memberPositions position reached in each member
+     * @return instance
+     */
+    private static InstanceHeader consumeHead(PriorityQueue<MemberHead> heap,
+                                              Map<String, Integer>      memberPositions)
+    {
+        MemberHead     head     = heap.poll();
+        InstanceHeader instance = head.current();
+
+        memberPositions.merge(head.metadataCollectionId, 1, Integer::sum);
+
+        head.index++;
+
+        if (head.index < head.instances.size())
+        {
+            heap.add(head);
+        }
+
+        return instance;
+    }
+
+
+    /**
+     * Compare two strings allowing for nulls.
+     *
+     * @param one first string
+     * @param two second string
+     * @return sort result
+     */
+    private static int compareStrings(String one,
+                                      String two)
+    {
+        if (one == null)
+        {
+            return (two == null) ? 0 : -1;
+        }
+        else if (two == null)
+        {
+            return 1;
+        }
+
+        return one.compareTo(two);
+    }
+
+
+    /**
+     * Return the comparator that orders instances in the same way as the repositories' own paging.
+     *
+     * @param repositoryHelper helper with the property comparison logic
+     * @param sequencingProperty name of the property used to sequence the results (for property orders)
+     * @param sequencingOrder requested order of the results
+     * @return comparator
+     */
+    public static Comparator<InstanceHeader> getComparator(OMRSRepositoryHelper repositoryHelper,
+                                                           String               sequencingProperty,
+                                                           SequencingOrder      sequencingOrder)
+    {
+        if ((sequencingOrder == SequencingOrder.PROPERTY_ASCENDING) || (sequencingOrder == SequencingOrder.PROPERTY_DESCENDING))
+        {
+            return (one, two) -> repositoryHelper.compareProperties(getProperties(one),
+                                                                    getProperties(two),
+                                                                    sequencingProperty,
+                                                                    sequencingOrder);
+        }
+
+        return (one, two) -> OMRSRepositoryContentHelper.compareInstances(one, two, sequencingOrder);
+    }
+
+
+    /**
+     * Extract the properties from an entity or relationship.
+     *
+     * @param instance instance
+     * @return properties or null
+     */
+    private static InstanceProperties getProperties(InstanceHeader instance)
+    {
+        if (instance instanceof EntityDetail entity)
+        {
+            return entity.getProperties();
+        }
+        else if (instance instanceof Relationship relationship)
+        {
+            return relationship.getProperties();
+        }
+
+        return null;
+    }
+
+
+    /**
+     * The current position in one member's results.
+     */
+    private static class MemberHead
+    {
+        final String               metadataCollectionId;
+        final List<InstanceHeader> instances;
+        int                        index = 0;
+
+        MemberHead(String               metadataCollectionId,
+                   List<InstanceHeader> instances)
+        {
+            this.metadataCollectionId = metadataCollectionId;
+            this.instances = instances;
+        }
+
+        InstanceHeader current()
+        {
+            return instances.get(index);
+        }
+    }
+
+
+    /**
+     * Key for a continuation cursor - the query and the starting element of the page it continues.
+     *
+     * @param queryParameters parameters that identify the query
+     * @param fromElement starting element of the next page
+     */
+    private record CursorKey(List<Object> queryParameters, int fromElement)
+    {
+    }
+}
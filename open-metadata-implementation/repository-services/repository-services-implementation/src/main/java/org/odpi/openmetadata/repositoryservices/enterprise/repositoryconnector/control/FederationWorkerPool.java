@@ -0,0 +1,249 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * FederationWorkerPool is the bounded pool of worker threads used by the ParallelFederationControl to issue
+ * the calls to each member of the cohort(s) at the same time.  There is one pool for each server.  It is shared
+ * by all the enterprise repository connectors created for the server's access services, so the number of threads
+ * making federated calls is bounded no matter how many requests are in flight.
+ * <p>
+ * When all the worker threads are busy and the queue is full, the request to the cohort member is rejected.  Its
+ * future completes exceptionally and the member is skipped.  Running the request on the caller's thread instead
+ * would bypass the per-member timeout, so one slow member could hold up the whole federated call.
+ * <p>
+ * The pool also records whether single-instance retrievals should be hedged.  That is, issued to every cohort
+ * member at once and completed as soon as the home repository responds (see HedgedFederationControl).
+ */
+public class FederationWorkerPool
+{
+    /**
+     * Default maximum number of worker threads.
+     */
+    public static final int  DEFAULT_MAX_WORKERS = 20;
+
+    /**
+     * Default number of milliseconds to wait for a cohort member to respond.
+     */
+    public static final long DEFAULT_TIMEOUT     = 60000L;
+
+    /**
+     * Default number of milliseconds to wait for the home repository before a reference copy is accepted.
+     */
+    public static final long DEFAULT_REFERENCE_COPY_DEADLINE = 1000L;
+
+    private final String             serverName;
+    private final int                maxWorkers;
+    private final long               timeout;
+    private final boolean            hedgedRetrieval;
+    private final long               referenceCopyDeadline;
+    private final ThreadPoolExecutor workerThreads;
+
+
+    /**
+     * Constructor for the worker pool.
+     *
+     * @param serverName name of the local server - used to name the threads
+     * @param maxWorkers maximum number of worker threads - zero or less means use the default
+     * @param timeout maximum time in milliseconds to wait for a cohort member - zero or less means use the default
+     */
+    public FederationWorkerPool(String serverName,
+                                int    maxWorkers,
+                                long   timeout)
+    {
+        this(serverName, maxWorkers, timeout, false, 0L);
+    }
+
+
+    /**
+     * Constructor for the worker pool.
+     *
+     * @param serverName name of the local server - used to name the threads
+     * @param maxWorkers maximum number of worker threads - zero or less means use the default
+     * @param timeout maximum time in milliseconds to wait for a cohort member - zero or less means use the default
+     * @param hedgedRetrieval should single-instance retrievals complete as soon as the home repository responds?
+     * @param referenceCopyDeadline time in milliseconds to wait for the home repository before accepting a
+     *                              reference copy - zero or less means use the default
+     */
+    public FederationWorkerPool(String  serverName,
+                                int     maxWorkers,
+                                long    timeout,
+                                boolean hedgedRetrieval,
+                                long    referenceCopyDeadline)
+    {
+        this.serverName            = serverName;
+        this.maxWorkers            = (maxWorkers > 0) ? maxWorkers : DEFAULT_MAX_WORKERS;
+        this.timeout               = (timeout > 0) ? timeout : DEFAULT_TIMEOUT;
+        this.hedgedRetrieval       = hedgedRetrieval;
+        this.referenceCopyDeadline = (referenceCopyDeadline > 0) ? referenceCopyDeadline : DEFAULT_REFERENCE_COPY_DEADLINE;
+
+        this.workerThreads = new ThreadPoolExecutor(this.maxWorkers,
+                                                    this.maxWorkers,
+                                                    60L,
+                                                    TimeUnit.SECONDS,
+                                                    new LinkedBlockingQueue<>(this.maxWorkers * 4),
+                                                    new WorkerThreadFactory(serverName),
+                                                    new ThreadPoolExecutor.AbortPolicy());
+        this.workerThreads.allowCoreThreadTimeOut(true);
+    }
+
+
+    /**
+     * Return the name of the server that owns this pool.
+     *
+     * @return server name
+     */
+    public String getServerName()
+    {
+        return serverName;
+    }
+
+
+    /**
+     * Return the maximum number of worker threads.
+     *
+     * @return int
+     */
+    public int getMaxWorkers()
+    {
+        return maxWorkers;
+    }
+
+
+    /**
+     * Return the maximum time in milliseconds to wait for a single cohort member to respond.
+     *
+     * @return long
+     */
+    public long getTimeout()
+    {
+        return timeout;
+    }
+
+
+    /**
+     * Return whether single-instance retrievals should complete as soon as the home repository responds.
+     *
+     * @return boolean flag
+     */
+    public boolean getHedgedRetrieval()
+    {
+        return hedgedRetrieval;
+    }
+
+
+    /**
+     * Return the time in milliseconds to wait for the home repository before a reference copy is accepted.
+     *
+     * @return long
+     */
+    public long getReferenceCopyDeadline()
+    {
+        return referenceCopyDeadline;
+    }
+
+
+    /**
+     * Queue a request to a cohort member.  If the pool is saturated, the returned future has already failed
+     * with a RejectedExecutionException.
+     *
+     * @param request request to run
+     * @param <T> type of result
+     * @return future for the result
+     */
+    <T> Future<T> submit(Callable<T> request)
+    {
+        try
+        {
+            return workerThreads.submit(request);
+        }
+        catch (RejectedExecutionException error)
+        {
+            return CompletableFuture.failedFuture(error);
+        }
+    }
+
+
+    /**
+     * Create a completion service that queues requests to the worker threads and returns their responses
+     * in the order that they complete.
+     *
+     * @param <T> type of result
+     * @return new completion service
+     */
+    <T> CompletionService<T> newCompletionService()
+    {
+        return new ExecutorCompletionService<>(workerThreads);
+    }
+
+
+    /**
+     * Return whether the pool is accepting work.
+     *
+     * @return boolean flag
+     */
+    boolean isActive()
+    {
+        return ! workerThreads.isShutdown();
+    }
+
+
+    /**
+     * Stop the worker threads.  Requests that are in flight are interrupted.
+     */
+    public void shutdown()
+    {
+        workerThreads.shutdownNow();
+    }
+
+
+    /**
+     * WorkerThreadFactory creates named daemon threads so the worker threads are easy to identify in thread dumps
+     * and do not prevent the JVM from shutting down.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory
+    {
+        private final String        threadNamePrefix;
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+
+        /**
+         * Constructor.
+         *
+         * @param serverName name of the local server
+         */
+        WorkerThreadFactory(String serverName)
+        {
+            this.threadNamePrefix = serverName + "-FederationWorker-";
+        }
+
+
+        /**
+         * Create a new worker thread.
+         *
+         * @param runnable work for the thread
+         * @return new thread
+         */
+        @Override
+        public Thread newThread(Runnable runnable)
+        {
+            Thread thread = new Thread(runnable, threadNamePrefix + threadNumber.getAndIncrement());
+
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    }
+}
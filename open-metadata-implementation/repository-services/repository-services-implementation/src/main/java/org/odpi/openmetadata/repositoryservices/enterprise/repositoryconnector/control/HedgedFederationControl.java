@@ -0,0 +1,224 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.HedgedRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
+import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HedgedFederationControl retrieves a single instance by issuing the request to every cohort member at once.
+ * It returns as soon as the home repository for the instance responds, since its copy is authoritative.
+ * If the home repository has not responded by the reference copy deadline configured in the worker pool,
+ * the best reference copy retrieved so far is returned.  If no copy has been retrieved by then, it carries on
+ * waiting for the first copy, all members to respond or the worker pool's timeout.  The requests still in flight
+ * are then cancelled.
+ * <p>
+ * Unlike the ParallelFederationControl, there is no augmentation sweep.  Classifications homed in a repository
+ * that has not responded when the request completes are not included in the result.  This is the price of
+ * not waiting for the slowest cohort member.
+ * <p>
+ * If there is no worker pool, the executor does not support hedging, or there is only one cohort member to call,
+ * the request is handled by the ParallelFederationControl.
+ */
+public class HedgedFederationControl extends FederationControlBase
+{
+    private final ParallelFederationControl parallelFederationControl;
+    private final FederationWorkerPool      workerPool;
+
+
+    /**
+     * Constructor for a federated retrieval.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param auditLog logging destination
+     * @param methodName calling method
+     * @param workerPool worker threads for the server - null means issue the requests sequentially
+     */
+    public HedgedFederationControl(String                        userId,
+                                   List<OMRSRepositoryConnector> cohortConnectors,
+                                   AuditLog                      auditLog,
+                                   String                        methodName,
+                                   FederationWorkerPool          workerPool)
+    {
+        super(userId, cohortConnectors, auditLog, methodName);
+
+        this.workerPool = workerPool;
+        this.parallelFederationControl = new ParallelFederationControl(userId, cohortConnectors, auditLog, methodName, workerPool);
+    }
+
+
+    /**
+     * Issue the federated command.
+     *
+     * @param executor command to execute
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     * This is probably a logic error rather than an outage
+     */
+    public void executeCommand(RepositoryExecutor executor) throws RepositoryErrorException
+    {
+        if ((workerPool == null) || (! workerPool.isActive()) ||
+            (! (executor instanceof HedgedRepositoryExecutor hedgedExecutor)) ||
+            (cohortConnectors == null) || (cohortConnectors.size() < 2))
+        {
+            parallelFederationControl.executeCommand(executor);
+            return;
+        }
+
+        CompletionService<Boolean>                    completionService = workerPool.newCompletionService();
+        Map<Future<Boolean>, OMRSRepositoryConnector> requestsInFlight  = new HashMap<>();
+
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                RepositoryExecutor     clone              = (RepositoryExecutor) hedgedExecutor.getClone();
+
+                try
+                {
+                    requestsInFlight.put(completionService.submit(() -> issueRequest(clone, cohortConnector, metadataCollection)),
+                                         cohortConnector);
+                }
+                catch (RejectedExecutionException error)
+                {
+                    /*
+                     * The worker pool is saturated so this member is skipped.
+                     */
+                    auditLog.logException(methodName,
+                                          OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(cohortConnector.getRepositoryName(),
+                                                                                                          error.getClass().getName(),
+                                                                                                          error.getMessage()),
+                                          error);
+                }
+            }
+        }
+
+        long start                 = System.nanoTime();
+        long deadline              = start + TimeUnit.MILLISECONDS.toNanos(workerPool.getTimeout());
+        long referenceCopyDeadline = start + TimeUnit.MILLISECONDS.toNanos(workerPool.getReferenceCopyDeadline());
+
+        try
+        {
+            while ((! requestsInFlight.isEmpty()) && (! hedgedExecutor.isAuthoritativeResultAvailable()))
+            {
+                long now = System.nanoTime();
+
+                if ((now >= referenceCopyDeadline) && (hedgedExecutor.isResultAvailable()))
+                {
+                    break;
+                }
+
+                if (now >= deadline)
+                {
+                    for (OMRSRepositoryConnector cohortConnector : requestsInFlight.values())
+                    {
+                        auditLog.logMessage(methodName,
+                                            OMRSAuditCode.FEDERATED_MEMBER_TIMEOUT.getMessageDefinition(methodName,
+                                                                                                        Long.toString(workerPool.getTimeout()),
+                                                                                                        cohortConnector.getRepositoryName()));
+                    }
+                    break;
+                }
+
+                /*
+                 * Wake up at the reference copy deadline (if it is still to come) to see if a reference copy can be used.
+                 */
+                long waitUntil = (now < referenceCopyDeadline) ? Math.min(referenceCopyDeadline, deadline) : deadline;
+
+                Future<Boolean> response = completionService.poll(waitUntil - now, TimeUnit.NANOSECONDS);
+
+                if (response != null)
+                {
+                    OMRSRepositoryConnector cohortConnector = requestsInFlight.remove(response);
+
+                    checkResponse(response, cohortConnector);
+                }
+            }
+        }
+        catch (InterruptedException error)
+        {
+            /*
+             * The calling thread is being stopped so stop the work in flight.
+             */
+            Thread.currentThread().interrupt();
+        }
+        finally
+        {
+            for (Future<Boolean> requestInFlight : requestsInFlight.keySet())
+            {
+                requestInFlight.cancel(true);
+            }
+        }
+    }
+
+
+    /**
+     * Issue the request to a single cohort member.  This runs in a worker thread.
+     *
+     * @param executor executor clone for this cohort member
+     * @param cohortConnector connector to the cohort member
+     * @param metadataCollection metadata collection of the cohort member
+     * @return boolean true means that the executor has the results it needs
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private Boolean issueRequest(RepositoryExecutor      executor,
+                                 OMRSRepositoryConnector cohortConnector,
+                                 OMRSMetadataCollection  metadataCollection) throws RepositoryErrorException
+    {
+        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+        if (metadataCollectionId != null)
+        {
+            return executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Check whether a completed request failed.
+     *
+     * @param response completed request
+     * @param cohortConnector connector to the cohort member that the request was issued to
+     * @throws RepositoryErrorException null metadata collection
+     * @throws InterruptedException the calling thread is being stopped
+     */
+    private void checkResponse(Future<Boolean>         response,
+                               OMRSRepositoryConnector cohortConnector) throws RepositoryErrorException,
+                                                                               InterruptedException
+    {
+        try
+        {
+            response.get();
+        }
+        catch (ExecutionException error)
+        {
+            if (error.getCause() instanceof RepositoryErrorException repositoryErrorException)
+            {
+                throw repositoryErrorException;
+            }
+
+            auditLog.logException(methodName,
+                                  OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(cohortConnector.getRepositoryName(),
+                                                                                                  error.getCause().getClass().getName(),
+                                                                                                  error.getCause().getMessage()),
+                                  error.getCause());
+        }
+    }
+}
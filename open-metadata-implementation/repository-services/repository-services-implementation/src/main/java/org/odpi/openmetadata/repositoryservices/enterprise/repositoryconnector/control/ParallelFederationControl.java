@@ -3,22 +3,37 @@
 package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
 
 import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.ffdc.OMRSAuditCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.RepositoryErrorException;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * ParallelFederationControl uses multiple worker threads to perform the calls to different systems in parallel.
+ * Each cohort member is called by its own clone of the executor.  The clones share the executor's accumulator
+ * which is thread-safe.  The elapsed time of the request is therefore governed by the slowest cohort member
+ * (up to the timeout configured in the worker pool) rather than the sum of the response times of all members.
+ * <p>
+ * If there is no worker pool, the executor can not be cloned, or there is only one cohort member to call,
+ * the request is issued sequentially in the caller's thread.
  */
 public class ParallelFederationControl extends FederationControlBase
 {
-    // todo at this point the parallel federation control uses the sequential federation control since the worker threads are not implemented.
     private final SequentialFederationControl sequentialFederationControl;
+    private final FederationWorkerPool        workerPool;
+
 
     /**
-     * Constructor for a federated query
+     * Constructor for a federated query that has no worker pool.  The requests are issued sequentially.
      *
      * @param userId calling user
      * @param cohortConnectors list of connectors to call
@@ -29,10 +44,30 @@ public class ParallelFederationControl extends FederationControlBase
                                      List<OMRSRepositoryConnector> cohortConnectors,
                                      AuditLog                      auditLog,
                                      String                        methodName)
+    {
+        this(userId, cohortConnectors, auditLog, methodName, null);
+    }
+
+
+    /**
+     * Constructor for a federated query.
+     *
+     * @param userId calling user
+     * @param cohortConnectors list of connectors to call
+     * @param auditLog logging destination
+     * @param methodName calling method
+     * @param workerPool worker threads for the server - null means issue the requests sequentially
+     */
+    public ParallelFederationControl(String                        userId,
+                                     List<OMRSRepositoryConnector> cohortConnectors,
+                                     AuditLog                      auditLog,
+                                     String                        methodName,
+                                     FederationWorkerPool          workerPool)
     {
         super(userId, cohortConnectors, auditLog, methodName);
 
-        sequentialFederationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
+        this.workerPool = workerPool;
+        this.sequentialFederationControl = new SequentialFederationControl(userId, cohortConnectors, auditLog, methodName);
     }
 
 
@@ -45,6 +80,221 @@ public class ParallelFederationControl extends FederationControlBase
      */
     public void executeCommand(RepositoryExecutor executor) throws RepositoryErrorException
     {
-        sequentialFederationControl.executeCommand(executor);
+        if ((workerPool == null) || (! workerPool.isActive()) ||
+            (! (executor instanceof CloneableRepositoryExecutor cloneableExecutor)) ||
+            (cohortConnectors == null) || (cohortConnectors.size() < 2))
+        {
+            sequentialFederationControl.executeCommand(executor);
+            return;
+        }
+
+        /*
+         * This is the first sweep of the repositories - used to gather the results.  Each repository
+         * is called by its own clone of the executor.  The clones share the accumulator.
+         */
+        List<MemberRequest> requests = new ArrayList<>();
+
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+                RepositoryExecutor     clone              = (RepositoryExecutor) cloneableExecutor.getClone();
+
+                requests.add(new MemberRequest(cohortConnector,
+                                               workerPool.submit(() -> issueRequest(clone, cohortConnector, metadataCollection))));
+            }
+        }
+
+        waitForResponses(requests);
+
+        /*
+         * All repositories have been called.
+         * The executor may choose to augment each result element by making another sweep of the repositories.
+         */
+        this.executeAugmentation(executor);
+    }
+
+
+    /**
+     * Make the augmentation sweep of the repositories for results that the executor has already retrieved.
+     * This is used on its own when the results came from the home repository of an instance, so that the
+     * classifications homed in the other repositories are still included.  Each repository is called in
+     * parallel (if there is a worker pool), working through the list of results.
+     *
+     * @param executor command whose results are to be augmented
+     * @throws RepositoryErrorException problem with the state of one of the repositories.
+     * This is probably a logic error rather than an outage
+     */
+    public void executeAugmentation(RepositoryExecutor executor) throws RepositoryErrorException
+    {
+        List<String> resultGUIDs = executor.getResultsForAugmentation();
+
+        if ((resultGUIDs == null) || (cohortConnectors == null))
+        {
+            return;
+        }
+
+        if ((workerPool == null) || (! workerPool.isActive()) || (cohortConnectors.size() < 2))
+        {
+            for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+            {
+                if (cohortConnector != null)
+                {
+                    augmentResults(executor, resultGUIDs, cohortConnector, cohortConnector.getMetadataCollection());
+                }
+            }
+
+            return;
+        }
+
+        List<MemberRequest> requests = new ArrayList<>();
+
+        for (OMRSRepositoryConnector cohortConnector : cohortConnectors)
+        {
+            if (cohortConnector != null)
+            {
+                OMRSMetadataCollection metadataCollection = cohortConnector.getMetadataCollection();
+
+                requests.add(new MemberRequest(cohortConnector,
+                                               workerPool.submit(() -> augmentResults(executor, resultGUIDs, cohortConnector, metadataCollection))));
+            }
+        }
+
+        waitForResponses(requests);
+    }
+
+
+    /**
+     * Issue the request to a single cohort member.  This runs in a worker thread.
+     *
+     * @param executor executor clone for this cohort member
+     * @param cohortConnector connector to the cohort member
+     * @param metadataCollection metadata collection of the cohort member
+     * @return boolean true means that the executor has the results it needs
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private Boolean issueRequest(RepositoryExecutor      executor,
+                                 OMRSRepositoryConnector cohortConnector,
+                                 OMRSMetadataCollection  metadataCollection) throws RepositoryErrorException
+    {
+        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+        if (metadataCollectionId != null)
+        {
+            return executor.issueRequestToRepository(metadataCollectionId, metadataCollection);
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Augment each of the results from a single cohort member.  This runs in a worker thread.
+     *
+     * @param executor original executor
+     * @param resultGUIDs unique identifiers of the results to augment
+     * @param cohortConnector connector to the cohort member
+     * @param metadataCollection metadata collection of the cohort member
+     * @return boolean true when complete
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private Boolean augmentResults(RepositoryExecutor      executor,
+                                   List<String>            resultGUIDs,
+                                   OMRSRepositoryConnector cohortConnector,
+                                   OMRSMetadataCollection  metadataCollection) throws RepositoryErrorException
+    {
+        String metadataCollectionId = this.validateMetadataCollection(cohortConnector, metadataCollection, methodName);
+
+        if (metadataCollectionId != null)
+        {
+            for (String resultGUID : resultGUIDs)
+            {
+                if (Thread.currentThread().isInterrupted())
+                {
+                    break;
+                }
+
+                executor.augmentResultFromRepository(resultGUID, metadataCollectionId, metadataCollection);
+            }
+        }
+
+        return true;
+    }
+
+
+    /**
+     * Wait for each of the cohort members to respond.  All members share the same deadline.  Any member that has
+     * not responded by the deadline is cancelled and its results (if any) are ignored.
+     *
+     * @param requests requests in flight
+     * @throws RepositoryErrorException null metadata collection
+     */
+    private void waitForResponses(List<MemberRequest> requests) throws RepositoryErrorException
+    {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(workerPool.getTimeout());
+
+        for (MemberRequest request : requests)
+        {
+            try
+            {
+                request.response.get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            catch (TimeoutException error)
+            {
+                request.response.cancel(true);
+
+                auditLog.logMessage(methodName,
+                                    OMRSAuditCode.FEDERATED_MEMBER_TIMEOUT.getMessageDefinition(methodName,
+                                                                                                Long.toString(workerPool.getTimeout()),
+                                                                                                request.cohortConnector.getRepositoryName()));
+            }
+            catch (InterruptedException error)
+            {
+                /*
+                 * The calling thread is being stopped so stop the work in flight.
+                 */
+                for (MemberRequest requestInFlight : requests)
+                {
+                    requestInFlight.response.cancel(true);
+                }
+
+                Thread.currentThread().interrupt();
+                return;
+            }
+            catch (ExecutionException error)
+            {
+                if (error.getCause() instanceof RepositoryErrorException repositoryErrorException)
+                {
+                    /*
+                     * The request is failing so stop the work still in flight.
+                     */
+                    for (MemberRequest requestInFlight : requests)
+                    {
+                        requestInFlight.response.cancel(true);
+                    }
+
+                    throw repositoryErrorException;
+                }
+
+                auditLog.logException(methodName,
+                                      OMRSAuditCode.SKIPPING_METADATA_COLLECTION.getMessageDefinition(request.cohortConnector.getRepositoryName(),
+                                                                                                      error.getCause().getClass().getName(),
+                                                                                                      error.getCause().getMessage()),
+                                      error.getCause());
+            }
+        }
+    }
+
+
+    /**
+     * MemberRequest links a request in flight with the cohort member it was issued to.
+     *
+     * @param cohortConnector connector to the cohort member
+     * @param response future for the response
+     */
+    private record MemberRequest(OMRSRepositoryConnector cohortConnector,
+                                 Future<Boolean>         response)
+    {
     }
 }
@@ -188,7 +188,7 @@ public class FindEntitiesByClassificationExecutor extends PageableEntityReposito
                                                                                          classificationName,
                                                                                          matchClassificationProperties,
                                                                                          matchCriteria,
-                                                                                         startingElement,
+                                                                                         getStartingElement(metadataCollectionId),
                                                                                          limitResultsByStatus,
                                                                                          asOfTime,
                                                                                          sequencingProperty,
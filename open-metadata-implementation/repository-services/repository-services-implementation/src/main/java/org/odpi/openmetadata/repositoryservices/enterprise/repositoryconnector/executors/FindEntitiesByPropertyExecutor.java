@@ -186,7 +186,7 @@ public class FindEntitiesByPropertyExecutor extends PageableEntityRepositoryExec
                                                                                    instanceTypeGUID,
                                                                                    matchProperties,
                                                                                    matchCriteria,
-                                                                                   startingElement,
+                                                                                   getStartingElement(metadataCollectionId),
                                                                                    limitResultsByStatus,
                                                                                    limitResultsByClassification,
                                                                                    asOfTime,
@@ -206,7 +206,7 @@ public class FindEntitiesByPropertyValueExecutor extends PageableEntityRepositor
                                                                                         startsWith,
                                                                                         endsWith,
                                                                                         ignoreCase,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         limitResultsByClassification,
                                                                                         asOfTime,
@@ -189,7 +189,7 @@ public class FindEntitiesExecutor extends PageableEntityRepositoryExecutorBase
                                                                          instanceTypeGUID,
                                                                          instanceSubtypeGUIDs,
                                                                          matchProperties,
-                                                                         startingElement,
+                                                                         getStartingElement(metadataCollectionId),
                                                                          limitResultsByStatus,
                                                                          matchClassifications,
                                                                          asOfTime,
@@ -190,7 +190,7 @@ public class FindRelationshipsByPropertyExecutor extends PageableRepositoryExecu
                                                                                         instanceTypeGUID,
                                                                                         matchProperties,
                                                                                         matchCriteria,
-                                                                                        startingElement,
+                                                                                        getStartingElement(metadataCollectionId),
                                                                                         limitResultsByStatus,
                                                                                         asOfTime,
                                                                                         sequencingProperty,
@@ -205,7 +205,7 @@ public class FindRelationshipsByPropertyValueExecutor extends PageableRepository
                                                                                              startsWith,
                                                                                              endsWith,
                                                                                              ignoreCase,
-                                                                                             startingElement,
+                                                                                             getStartingElement(metadataCollectionId),
                                                                                              limitResultsByStatus,
                                                                                              asOfTime,
                                                                                              sequencingProperty,
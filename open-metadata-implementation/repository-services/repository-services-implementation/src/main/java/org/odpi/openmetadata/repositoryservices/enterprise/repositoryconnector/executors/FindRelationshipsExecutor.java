@@ -215,7 +215,7 @@ public class FindRelationshipsExecutor extends PageableRepositoryExecutorBase
                                                                               end2EntityGUIDs,
                                                                               endMatchCriteria,
                                                                               matchProperties,
-                                                                              startingElement,
+                                                                              getStartingElement(metadataCollectionId),
                                                                               limitResultsByStatus,
                                                                               asOfTime,
                                                                               sequencingProperty,
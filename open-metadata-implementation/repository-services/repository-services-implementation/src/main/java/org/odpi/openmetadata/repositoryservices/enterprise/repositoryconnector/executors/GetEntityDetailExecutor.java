@@ -113,6 +113,19 @@ public class GetEntityDetailExecutor extends GetEntityExecutor
     }
 
 
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     * This is used when setting up the parallel execution of the work.  Each clone executes
+     * the calls to a single open metadata repository.
+     *
+     * @return clone of this executor
+     */
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetEntityDetailExecutor(userId, entityGUID, asOfTime, accumulator, methodName);
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      * Create requests occur in the first repository that accepts the call.
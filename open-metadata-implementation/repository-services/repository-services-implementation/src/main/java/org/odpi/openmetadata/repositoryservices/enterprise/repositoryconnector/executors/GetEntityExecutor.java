@@ -14,7 +14,7 @@ import java.util.List;
  * GetEntityExecutor provides the common base executor for the getEntityXXX methods.  It is focused on managing the classifications.
  * Its subtypes manage the entity summary or entity detail.
  */
-public abstract class GetEntityExecutor extends RepositoryExecutorBase
+public abstract class GetEntityExecutor extends RepositoryExecutorBase implements HedgedRepositoryExecutor
 {
     private   final ClassificationAccumulator accumulator;
 
@@ -41,6 +41,30 @@ public abstract class GetEntityExecutor extends RepositoryExecutorBase
     }
 
 
+    /**
+     * Return whether the copy of the entity from its home repository has been retrieved.
+     *
+     * @return boolean flag
+     */
+    @Override
+    public boolean isAuthoritativeResultAvailable()
+    {
+        return accumulator.isHomeInstanceRetrieved();
+    }
+
+
+    /**
+     * Return whether any copy of the entity (home or reference copy) has been retrieved.
+     *
+     * @return boolean flag
+     */
+    @Override
+    public boolean isResultAvailable()
+    {
+        return accumulator.isInstanceRetrieved();
+    }
+
+
     /**
      * Return the results that need further augmentation.
      *
@@ -58,6 +58,19 @@ public class GetEntitySummaryExecutor extends GetEntityExecutor
     }
 
 
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     * This is used when setting up the parallel execution of the work.  Each clone executes
+     * the calls to a single open metadata repository.
+     *
+     * @return clone of this executor
+     */
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetEntitySummaryExecutor(userId, entityGUID, accumulator, methodName);
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      * Create requests occur in the first repository that accepts the call.
@@ -9,7 +9,7 @@ import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedExcep
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
-import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.MaintenanceAccumulator;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.RelationshipAccumulator;
 import org.odpi.openmetadata.repositoryservices.ffdc.OMRSErrorCode;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
@@ -17,15 +17,16 @@ import java.util.Date;
 
 /**
  * GetRelationshipExecutor provides the executor for the isRelationshipKnown and getRelationship methods.
+ * When the repositories are called sequentially, the first relationship retrieved is returned.  When they are
+ * called in parallel, the copy from the home repository is preferred; otherwise the latest version is returned.
  */
-public class GetRelationshipExecutor extends RepositoryExecutorBase
+public class GetRelationshipExecutor extends RepositoryExecutorBase implements HedgedRepositoryExecutor
 {
-    private final MaintenanceAccumulator accumulator;
-    private final String                 relationshipGUID;
+    private final RelationshipAccumulator accumulator;
+    private final String                  relationshipGUID;
 
 
     private Date                   asOfTime              = null;
-    private Relationship           retrievedRelationship = null;
 
 
 
@@ -42,11 +43,7 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
                                    AuditLog auditLog,
                                    String    methodName)
     {
-        super(userId, methodName);
-
-        this.accumulator = new MaintenanceAccumulator(auditLog);
-
-        this.relationshipGUID = relationshipGUID;
+        this(userId, relationshipGUID, null, new RelationshipAccumulator(auditLog), methodName);
     }
 
 
@@ -64,16 +61,72 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
                                    Date      asOfTime,
                                    AuditLog  auditLog,
                                    String    methodName)
+    {
+        this(userId, relationshipGUID, asOfTime, new RelationshipAccumulator(auditLog), methodName);
+    }
+
+
+    /**
+     * Constructor takes the parameters for the request.
+     *
+     * @param userId unique identifier for requesting user.
+     * @param relationshipGUID unique identifier (guid) for the new entity's type.
+     * @param asOfTime is this a historical query.
+     * @param accumulator to use
+     * @param methodName calling method
+     */
+    private GetRelationshipExecutor(String                  userId,
+                                    String                  relationshipGUID,
+                                    Date                    asOfTime,
+                                    RelationshipAccumulator accumulator,
+                                    String                  methodName)
     {
         super(userId, methodName);
 
-        this.accumulator = new MaintenanceAccumulator(auditLog);
+        this.accumulator = accumulator;
 
         this.relationshipGUID = relationshipGUID;
         this.asOfTime = asOfTime;
     }
 
 
+    /**
+     * Return a clone of this executor with the same command parameters and accumulator instance.
+     * This is used when setting up the parallel execution of the work.  Each clone executes
+     * the calls to a single open metadata repository.
+     *
+     * @return clone of this executor
+     */
+    public CloneableRepositoryExecutor getClone()
+    {
+        return new GetRelationshipExecutor(userId, relationshipGUID, asOfTime, accumulator, methodName);
+    }
+
+
+    /**
+     * Return whether the copy of the relationship from its home repository has been retrieved.
+     *
+     * @return boolean flag
+     */
+    @Override
+    public boolean isAuthoritativeResultAvailable()
+    {
+        return accumulator.isHomeInstanceRetrieved();
+    }
+
+
+    /**
+     * Return whether any copy of the relationship (home or reference copy) has been retrieved.
+     *
+     * @return boolean flag
+     */
+    @Override
+    public boolean isResultAvailable()
+    {
+        return accumulator.isInstanceRetrieved();
+    }
+
+
     /**
      * Perform the required action for the supplied repository.
      * Create requests occur in the first repository that accepts the call.
@@ -95,6 +148,8 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
             /*
              * Issue the request and return if it succeeds
              */
+            Relationship retrievedRelationship;
+
             if (asOfTime == null)
             {
                 retrievedRelationship = metadataCollection.isRelationshipKnown(userId, relationshipGUID);
@@ -105,6 +160,7 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
             }
             if (retrievedRelationship != null)
             {
+                accumulator.addRelationship(retrievedRelationship, metadataCollectionId);
                 result = true;
             }
         }
@@ -148,6 +204,8 @@ public class GetRelationshipExecutor extends RepositoryExecutorBase
                                                      RepositoryErrorException,
                                                      UserNotAuthorizedException
     {
+        Relationship retrievedRelationship = accumulator.getResult();
+
         if (retrievedRelationship != null)
         {
             return retrievedRelationship;
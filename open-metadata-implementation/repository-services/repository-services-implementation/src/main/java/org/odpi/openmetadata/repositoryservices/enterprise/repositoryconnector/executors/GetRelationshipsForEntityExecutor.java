@@ -173,7 +173,7 @@ public class GetRelationshipsForEntityExecutor extends PageableRepositoryExecuto
             List<Relationship> results = metadataCollection.getRelationshipsForEntity(userId,
                                                                                       entityGUID,
                                                                                       instanceTypeGUID,
-                                                                                      startingElement,
+                                                                                      getStartingElement(metadataCollectionId),
                                                                                       limitResultsByStatus,
                                                                                       asOfTime,
                                                                                       sequencingProperty,
@@ -0,0 +1,26 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+/**
+ * HedgedRepositoryExecutor describes the interface for a cloneable executor that retrieves a single instance.
+ * The request is issued to all repositories at once and can stop as soon as the home (authoritative) copy of the
+ * instance is retrieved.  A reference copy is only used if the home copy is not retrieved in time.
+ */
+public interface HedgedRepositoryExecutor extends CloneableRepositoryExecutor
+{
+    /**
+     * Return whether the copy of the instance from its home repository has been retrieved.
+     *
+     * @return boolean flag
+     */
+    boolean isAuthoritativeResultAvailable();
+
+
+    /**
+     * Return whether any copy of the instance (home or reference copy) has been retrieved.
+     *
+     * @return boolean flag
+     */
+    boolean isResultAvailable();
+}
@@ -0,0 +1,32 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * PageableRepositoryExecutor describes the interface for a cloneable executor that retrieves a page of instances
+ * from each repository.  It allows the results from each repository to be merged into a single ordered list, and
+ * each repository to be asked for the next page from the position it reached on the previous page.
+ */
+public interface PageableRepositoryExecutor extends CloneableRepositoryExecutor
+{
+    /**
+     * Set up the starting element to request from each repository.  Repositories that are not in the map
+     * use the starting element supplied when the executor was created.
+     *
+     * @param memberStartingElements map of metadata collection id to starting element
+     */
+    void setMemberStartingElements(Map<String, Integer> memberStartingElements);
+
+
+    /**
+     * Return the instances returned by each repository in the order that they were returned.
+     *
+     * @return map of metadata collection id to list of instances
+     */
+    Map<String, List<InstanceHeader>> getMemberResults();
+}
@@ -6,18 +6,20 @@ package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.InvalidParameterException;
 import org.odpi.openmetadata.frameworks.openmetadata.ffdc.UserNotAuthorizedException;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
 import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceStatus;
 import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.accumulators.QueryInstanceAccumulatorBase;
 import org.odpi.openmetadata.repositoryservices.ffdc.exception.*;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 
 /**
- * CloneableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
+ * PageableRepositoryExecutorBase provides a base class for executors that can be cloned and run in
  * parallel so the call to each repository runs in a different thread.
  */
-abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecutorBase
+abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecutorBase implements PageableRepositoryExecutor
 {
     private final QueryInstanceAccumulatorBase queryInstanceAccumulator;
 
@@ -71,6 +73,43 @@ abstract class PageableRepositoryExecutorBase extends CloneableRepositoryExecuto
     }
 
 
+    /**
+     * Set up the starting element to request from each repository.  Repositories that are not in the map
+     * use the starting element supplied when the executor was created.
+     *
+     * @param memberStartingElements map of metadata collection id to starting element
+     */
+    @Override
+    public void setMemberStartingElements(Map<String, Integer> memberStartingElements)
+    {
+        queryInstanceAccumulator.setMemberStartingElements(memberStartingElements);
+    }
+
+
+    /**
+     * Return the instances returned by each repository in the order that they were returned.
+     *
+     * @return map of metadata collection id to list of instances
+     */
+    @Override
+    public Map<String, List<InstanceHeader>> getMemberResults()
+    {
+        return queryInstanceAccumulator.getMemberResults();
+    }
+
+
+    /**
+     * Return the starting element to request from a specific repository.
+     *
+     * @param metadataCollectionId unique identifier of the repository's metadata collection
+     * @return starting element
+     */
+    int getStartingElement(String metadataCollectionId)
+    {
+        return queryInstanceAccumulator.getStartingElement(metadataCollectionId, startingElement);
+    }
+
+
     /**
      * Return any of the exceptions that are common to paging requests.
      *
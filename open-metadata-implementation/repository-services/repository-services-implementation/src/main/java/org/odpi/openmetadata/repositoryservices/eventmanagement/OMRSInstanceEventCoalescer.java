@@ -0,0 +1,368 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.eventmanagement;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * OMRSInstanceEventCoalescer holds the outbound new and updated instance events for a short window so that a
+ * burst of changes to the same instance is sent to the cohort as a single event.  It is used by the
+ * OMRSRepositoryEventPublisher when the cohort's instances topic has an event coalescing window.
+ * <br><br>
+ * Within the window, the events for an instance are combined as follows:
+ * <ul>
+ *     <li>An update that follows a new instance event becomes a new instance event for the latest version.</li>
+ *     <li>An update that follows an update becomes one update from the first original version to the
+ *     latest version.</li>
+ *     <li>A purge that follows a new instance event cancels them both since the other members never
+ *     need to know the instance existed.  This is not done for an entity that is at the end of a held
+ *     relationship event, because the relationship event would then refer to an entity the other members
+ *     have never seen.</li>
+ *     <li>A purge that follows an update replaces the update.</li>
+ * </ul>
+ * Any event that is not held, such as a delete, a classification change or a batch event, sends all the held
+ * events first so that the cohort receives the events in the order they happened.
+ * The held events are sent when the window that started with the first of them expires.
+ */
+class OMRSInstanceEventCoalescer
+{
+    private static final Logger log = LoggerFactory.getLogger(OMRSInstanceEventCoalescer.class);
+
+    private final Map<String, OMRSInstanceEvent> heldEvents = new LinkedHashMap<>();
+    private final Consumer<OMRSInstanceEvent>    eventSender;
+    private final long                           coalescingWindow;
+    private final ScheduledExecutorService       windowTimer;
+
+    private boolean windowOpen = false;
+
+
+    /**
+     * Constructor starts the timer thread.
+     *
+     * @param threadName name of the timer thread
+     * @param coalescingWindow number of milliseconds to hold the events for
+     * @param eventSender sends an event to the cohort
+     */
+    OMRSInstanceEventCoalescer(String                      threadName,
+                               long                        coalescingWindow,
+                               Consumer<OMRSInstanceEvent> eventSender)
+    {
+        this.coalescingWindow = coalescingWindow;
+        this.eventSender      = eventSender;
+        this.windowTimer      = Executors.newSingleThreadScheduledExecutor(runnable ->
+                                                                           {
+                                                                               Thread timerThread = new Thread(runnable, threadName);
+                                                                               timerThread.setDaemon(true);
+                                                                               return timerThread;
+                                                                           });
+    }
+
+
+    /**
+     * Hold, combine or send an outbound instance event.
+     *
+     * @param instanceEvent event to send
+     */
+    synchronized void sendInstanceEvent(OMRSInstanceEvent instanceEvent)
+    {
+        String                instanceGUID = instanceEvent.getInstanceGUID();
+        OMRSInstanceEventType eventType    = instanceEvent.getInstanceEventType();
+        OMRSInstanceEvent     heldEvent    = null;
+
+        if (instanceGUID != null)
+        {
+            heldEvent = heldEvents.get(instanceGUID);
+        }
+
+        if (heldEvent != null)
+        {
+            OMRSInstanceEventType heldEventType = heldEvent.getInstanceEventType();
+
+            if (isUpdate(eventType) && isSameKind(heldEventType, eventType))
+            {
+                OMRSInstanceEvent combinedEvent = combineEvents(heldEvent, instanceEvent);
+
+                if (combinedEvent != null)
+                {
+                    /*
+                     * Replacing the value of an existing key keeps its place in the map, so the combined
+                     * event is still sent before the events held after the first event for this instance.
+                     */
+                    this.holdEvent(instanceGUID, combinedEvent);
+                    return;
+                }
+            }
+
+            if (isPurge(eventType) && isSameKind(heldEventType, eventType))
+            {
+                if (isNew(heldEventType) && (! this.isReferenced(instanceGUID)))
+                {
+                    heldEvents.remove(instanceGUID);
+                    log.debug("Instance {} purged within the coalescing window; no events sent", instanceGUID);
+                    return;
+                }
+
+                if (isUpdate(heldEventType))
+                {
+                    heldEvents.remove(instanceGUID);
+                }
+            }
+        }
+
+        if ((instanceGUID != null) && (! heldEvents.containsKey(instanceGUID)) && (isNew(eventType) || isUpdate(eventType)))
+        {
+            this.holdEvent(instanceGUID, instanceEvent);
+        }
+        else
+        {
+            /*
+             * The held events happened before this event, so they are sent first.  If this event is a new or
+             * updated instance event that could not be combined with the held event for its instance, it is held
+             * in a new window.
+             */
+            this.sendHeldEvents();
+
+            if ((instanceGUID != null) && (isNew(eventType) || isUpdate(eventType)))
+            {
+                this.holdEvent(instanceGUID, instanceEvent);
+            }
+            else
+            {
+                eventSender.accept(instanceEvent);
+            }
+        }
+    }
+
+
+    /**
+     * Send the held events and stop the timer thread.
+     */
+    void shutdown()
+    {
+        synchronized (this)
+        {
+            this.sendHeldEvents();
+        }
+
+        windowTimer.shutdown();
+    }
+
+
+    /**
+     * Hold an event until the window closes, opening the window if necessary.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @param instanceEvent event to hold
+     */
+    private void holdEvent(String            instanceGUID,
+                           OMRSInstanceEvent instanceEvent)
+    {
+        heldEvents.put(instanceGUID, instanceEvent);
+
+        if (! windowOpen)
+        {
+            windowOpen = true;
+            windowTimer.schedule(this::closeWindow, coalescingWindow, TimeUnit.MILLISECONDS);
+        }
+    }
+
+
+    /**
+     * Send the events held during the window.
+     */
+    private synchronized void closeWindow()
+    {
+        try
+        {
+            this.sendHeldEvents();
+        }
+        catch (Exception error)
+        {
+            log.error("Unexpected exception sending coalesced events", error);
+        }
+    }
+
+
+    /**
+     * Send the held events in the order they were held.
+     */
+    private void sendHeldEvents()
+    {
+        List<OMRSInstanceEvent> eventsToSend = new ArrayList<>(heldEvents.values());
+
+        heldEvents.clear();
+        windowOpen = false;
+
+        for (OMRSInstanceEvent heldEvent : eventsToSend)
+        {
+            eventSender.accept(heldEvent);
+        }
+    }
+
+
+    /**
+     * Return whether a held relationship event has the entity at one of its ends.
+     *
+     * @param entityGUID unique identifier of the entity
+     * @return boolean
+     */
+    private boolean isReferenced(String entityGUID)
+    {
+        for (OMRSInstanceEvent heldEvent : heldEvents.values())
+        {
+            for (Relationship relationship : new Relationship[]{heldEvent.getRelationship(), heldEvent.getOriginalRelationship()})
+            {
+                if ((relationship != null) &&
+                    (((relationship.getEntityOneProxy() != null) && (entityGUID.equals(relationship.getEntityOneProxy().getGUID()))) ||
+                     ((relationship.getEntityTwoProxy() != null) && (entityGUID.equals(relationship.getEntityTwoProxy().getGUID())))))
+                {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Combine a held new or updated instance event with a later update to the same instance.
+     *
+     * @param heldEvent event that is held
+     * @param updateEvent later update event
+     * @return combined event or null if they can not be combined
+     */
+    private static OMRSInstanceEvent combineEvents(OMRSInstanceEvent heldEvent,
+                                                   OMRSInstanceEvent updateEvent)
+    {
+        OMRSInstanceEvent combinedEvent = null;
+
+        switch (heldEvent.getInstanceEventType())
+        {
+            case NEW_ENTITY_EVENT ->
+            {
+                if (updateEvent.getEntity() != null)
+                {
+                    combinedEvent = new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT,
+                                                          updateEvent.getEntity());
+                }
+            }
+            case UPDATED_ENTITY_EVENT ->
+            {
+                if ((heldEvent.getOriginalEntity() != null) && (updateEvent.getEntity() != null))
+                {
+                    combinedEvent = new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT,
+                                                          heldEvent.getOriginalEntity(),
+                                                          updateEvent.getEntity());
+                }
+            }
+            case NEW_RELATIONSHIP_EVENT ->
+            {
+                if (updateEvent.getRelationship() != null)
+                {
+                    combinedEvent = new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT,
+                                                          updateEvent.getRelationship());
+                }
+            }
+            case UPDATED_RELATIONSHIP_EVENT ->
+            {
+                if ((heldEvent.getOriginalRelationship() != null) && (updateEvent.getRelationship() != null))
+                {
+                    combinedEvent = new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_RELATIONSHIP_EVENT,
+                                                          heldEvent.getOriginalRelationship(),
+                                                          updateEvent.getRelationship());
+                }
+            }
+        }
+
+        if (combinedEvent != null)
+        {
+            combinedEvent.setEventOriginator(updateEvent.getEventOriginator());
+        }
+
+        return combinedEvent;
+    }
+
+
+    /**
+     * Return whether an event type announces a new instance.
+     *
+     * @param eventType type of event
+     * @return boolean
+     */
+    private static boolean isNew(OMRSInstanceEventType eventType)
+    {
+        return (eventType == OMRSInstanceEventType.NEW_ENTITY_EVENT) ||
+               (eventType == OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT);
+    }
+
+
+    /**
+     * Return whether an event type announces a new version of an instance.
+     *
+     * @param eventType type of event
+     * @return boolean
+     */
+    private static boolean isUpdate(OMRSInstanceEventType eventType)
+    {
+        return (eventType == OMRSInstanceEventType.UPDATED_ENTITY_EVENT) ||
+               (eventType == OMRSInstanceEventType.UPDATED_RELATIONSHIP_EVENT);
+    }
+
+
+    /**
+     * Return whether an event type announces that an instance has been removed from the repository.
+     *
+     * @param eventType type of event
+     * @return boolean
+     */
+    private static boolean isPurge(OMRSInstanceEventType eventType)
+    {
+        return (eventType == OMRSInstanceEventType.PURGED_ENTITY_EVENT) ||
+               (eventType == OMRSInstanceEventType.DELETE_PURGED_ENTITY_EVENT) ||
+               (eventType == OMRSInstanceEventType.PURGED_RELATIONSHIP_EVENT) ||
+               (eventType == OMRSInstanceEventType.DELETE_PURGED_RELATIONSHIP_EVENT);
+    }
+
+
+    /**
+     * Return whether two event types are both about entities or both about relationships.
+     *
+     * @param firstEventType type of one event
+     * @param secondEventType type of the other event
+     * @return boolean
+     */
+    private static boolean isSameKind(OMRSInstanceEventType firstEventType,
+                                      OMRSInstanceEventType secondEventType)
+    {
+        return isRelationshipEvent(firstEventType) == isRelationshipEvent(secondEventType);
+    }
+
+
+    /**
+     * Return whether an event type is one of the relationship events handled by the coalescer.
+     *
+     * @param eventType type of event
+     * @return boolean
+     */
+    private static boolean isRelationshipEvent(OMRSInstanceEventType eventType)
+    {
+        return (eventType == OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT) ||
+               (eventType == OMRSInstanceEventType.UPDATED_RELATIONSHIP_EVENT) ||
+               (eventType == OMRSInstanceEventType.PURGED_RELATIONSHIP_EVENT) ||
+               (eventType == OMRSInstanceEventType.DELETE_PURGED_RELATIONSHIP_EVENT);
+    }
+}
@@ -0,0 +1,248 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.eventmanagement;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSTypeDefEvent;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OMRSInstanceHomeLocator remembers the home metadata collection of the metadata instances that the local server
+ * has seen.  It is used by the enterprise repository services to send a request for a single instance straight to
+ * its home repository rather than to every member of the connected cohorts.
+ * <p>
+ * The locator learns from the instances returned by the enterprise repository services and from the instance
+ * events that flow through the repository event managers it is registered with.  Re-homed and re-identified
+ * instances are updated, and purged instances are removed.  The number of instances remembered is bounded, and
+ * the least recently used entries are discarded first.
+ * <p>
+ * The locator is only a hint.  If the home repository does not return the instance, the caller forgets the
+ * entry and falls back to issuing the request to all members of the cohorts.
+ */
+public class OMRSInstanceHomeLocator extends OMRSRepositoryEventBuilder
+{
+    /**
+     * Default maximum number of instances to remember.
+     */
+    public static final int DEFAULT_MAX_INSTANCES = 100000;
+
+    private final int                 maxInstances;
+    private final Map<String, String> homeMetadataCollectionIds;
+
+
+    /**
+     * Constructor for the locator.
+     *
+     * @param serverName name of the local server
+     * @param maxInstances maximum number of instances to remember - zero or less means use the default
+     */
+    public OMRSInstanceHomeLocator(String serverName,
+                                   int    maxInstances)
+    {
+        super(serverName + " Instance Home Locator");
+
+        this.maxInstances = (maxInstances > 0) ? maxInstances : DEFAULT_MAX_INSTANCES;
+        this.homeMetadataCollectionIds = new LinkedHashMap<>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest)
+            {
+                return size() > OMRSInstanceHomeLocator.this.maxInstances;
+            }
+        };
+    }
+
+
+    /**
+     * Return the maximum number of instances that are remembered.
+     *
+     * @return int
+     */
+    public int getMaxInstances()
+    {
+        return maxInstances;
+    }
+
+
+    /**
+     * Return the number of instances currently remembered.
+     *
+     * @return int
+     */
+    public synchronized int getInstanceCount()
+    {
+        return homeMetadataCollectionIds.size();
+    }
+
+
+    /**
+     * Return the metadata collection id of the home repository for an instance.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @return metadata collection id or null if the home is not known
+     */
+    public synchronized String getHomeMetadataCollectionId(String instanceGUID)
+    {
+        if (instanceGUID != null)
+        {
+            return homeMetadataCollectionIds.get(instanceGUID);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Remember the home repository of an instance.
+     *
+     * @param instanceGUID unique identifier of the instance
+     * @param homeMetadataCollectionId metadata collection id of the instance's home repository
+     */
+    public synchronized void learnInstanceHome(String instanceGUID,
+                                               String homeMetadataCollectionId)
+    {
+        if ((instanceGUID != null) && (homeMetadataCollectionId != null))
+        {
+            homeMetadataCollectionIds.put(instanceGUID, homeMetadataCollectionId);
+        }
+    }
+
+
+    /**
+     * Remember the home repository of an instance.
+     *
+     * @param instance instance retrieved from a repository or received in an event
+     */
+    public void learnInstanceHome(InstanceHeader instance)
+    {
+        if (instance != null)
+        {
+            this.learnInstanceHome(instance.getGUID(), instance.getMetadataCollectionId());
+        }
+    }
+
+
+    /**
+     * Remember the home repository of each instance in a list.
+     *
+     * @param instances instances retrieved from a repository or received in an event
+     */
+    public void learnInstanceHomes(List<? extends InstanceHeader> instances)
+    {
+        if (instances != null)
+        {
+            for (InstanceHeader instance : instances)
+            {
+                this.learnInstanceHome(instance);
+            }
+        }
+    }
+
+
+    /**
+     * Forget the home repository of an instance because it has been purged, re-identified, or it was not found
+     * in the remembered home.
+     *
+     * @param instanceGUID unique identifier of the instance
+     */
+    public synchronized void forgetInstance(String instanceGUID)
+    {
+        if (instanceGUID != null)
+        {
+            homeMetadataCollectionIds.remove(instanceGUID);
+        }
+    }
+
+
+    /**
+     * TypeDef events do not change the home of any instance.
+     *
+     * @param sourceName name of the event manager
+     * @param typeDefEvent properties of the event
+     */
+    public void sendTypeDefEvent(String           sourceName,
+                                 OMRSTypeDefEvent typeDefEvent)
+    {
+        // Nothing to do
+    }
+
+
+    /**
+     * Update the locator from an instance event.
+     *
+     * @param sourceName name of the event manager
+     * @param instanceEvent properties of the event
+     */
+    public void sendInstanceEvent(String            sourceName,
+                                  OMRSInstanceEvent instanceEvent)
+    {
+        if ((instanceEvent == null) || (instanceEvent.getInstanceEventType() == null))
+        {
+            return;
+        }
+
+        switch (instanceEvent.getInstanceEventType())
+        {
+            case PURGED_ENTITY_EVENT, DELETE_PURGED_ENTITY_EVENT, PURGED_RELATIONSHIP_EVENT, DELETE_PURGED_RELATIONSHIP_EVENT ->
+            {
+                this.forgetInstance(instanceEvent.getInstanceGUID());
+            }
+
+            case REFRESH_ENTITY_REQUEST, REFRESH_RELATIONSHIP_REQUEST ->
+            {
+                this.learnInstanceHome(instanceEvent.getInstanceGUID(), instanceEvent.getHomeMetadataCollectionId());
+            }
+
+            case BATCH_INSTANCES_EVENT ->
+            {
+                InstanceGraph instanceBatch = instanceEvent.getInstanceBatch();
+
+                if (instanceBatch != null)
+                {
+                    this.learnInstanceHomes(instanceBatch.getEntities());
+                    this.learnInstanceHomes(instanceBatch.getRelationships());
+                }
+            }
+
+            case INSTANCE_ERROR_EVENT, UNKNOWN_INSTANCE_EVENT ->
+            {
+                // Nothing to do
+            }
+
+            default ->
+            {
+                /*
+                 * A re-identified instance has a new GUID.  A re-homed instance carries the metadata collection id
+                 * of its new home.
+                 */
+                if (instanceEvent.getOriginalInstanceGUID() != null)
+                {
+                    this.forgetInstance(instanceEvent.getOriginalInstanceGUID());
+                }
+
+                EntityDetail entity = instanceEvent.getEntity();
+                Relationship relationship = instanceEvent.getRelationship();
+
+                if (entity != null)
+                {
+                    this.learnInstanceHome(entity);
+                }
+                else if (instanceEvent.getEntityProxy() != null)
+                {
+                    this.learnInstanceHome(instanceEvent.getEntityProxy());
+                }
+                else if (relationship != null)
+                {
+                    this.learnInstanceHome(relationship);
+                }
+            }
+        }
+    }
+}
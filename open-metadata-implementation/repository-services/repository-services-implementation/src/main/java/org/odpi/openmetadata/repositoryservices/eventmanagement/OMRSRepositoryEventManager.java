@@ -312,7 +312,16 @@ public class OMRSRepositoryEventManager extends OMRSRepositoryEventBuilder
                 }
             }
 
-            if (validEntities.size() > 0 || validRelationships.size() > 0)
+            if (((eventEntities == null) || (validEntities.size() == eventEntities.size())) &&
+                ((eventRelationships == null) || (validRelationships.size() == eventRelationships.size())) &&
+                (validEntities.size() > 0 || validRelationships.size() > 0))
+            {
+                /*
+                 * Every instance in the batch is valid so the event is passed on unchanged.
+                 */
+                validEvent = true;
+            }
+            else if (validEntities.size() > 0 || validRelationships.size() > 0)
             {
                 /*
                  * Can't just update the instance graph on the event, so we'll
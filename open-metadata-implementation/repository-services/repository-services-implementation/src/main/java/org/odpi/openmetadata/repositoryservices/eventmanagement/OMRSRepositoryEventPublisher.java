@@ -20,6 +20,8 @@ import java.util.concurrent.CompletionException;
 
 /**
  * OMRSRepositoryEventPublisher publishes TypeDef and Instance OMRS Events to the supplied OMRSTopicConnector.
+ * If an event coalescing window is set, the new and updated instance events are held for the window so that
+ * repeated changes to the same instance are sent as one event (see OMRSInstanceEventCoalescer).
  */
 public class OMRSRepositoryEventPublisher extends OMRSRepositoryEventBuilder
 {
@@ -30,6 +32,7 @@ public class OMRSRepositoryEventPublisher extends OMRSRepositoryEventBuilder
     private final List<OMRSTopicConnector>   typesTopicConnectors;
     private final List<OMRSTopicConnector>   instancesTopicConnectors;
     private final AuditLog                   auditLog;
+    private volatile OMRSInstanceEventCoalescer eventCoalescer = null;
 
 
     /**
@@ -141,6 +144,37 @@ public class OMRSRepositoryEventPublisher extends OMRSRepositoryEventBuilder
     }
 
 
+    /**
+     * Set up the number of milliseconds that new and updated instance events are held for so that repeated
+     * changes to the same instance are sent as one event.  The events are sent immediately until this method
+     * is called with a positive value.
+     *
+     * @param coalescingWindow window in milliseconds
+     */
+    public void setEventCoalescingWindow(long coalescingWindow)
+    {
+        if ((coalescingWindow > 0) && (eventCoalescer == null))
+        {
+            eventCoalescer = new OMRSInstanceEventCoalescer("OMRSEventCoalescer: " + eventProcessorName,
+                                                            coalescingWindow,
+                                                            this::publishInstanceEvent);
+        }
+    }
+
+
+    /**
+     * Send any instance events held for coalescing and stop holding events.
+     */
+    public void disconnect()
+    {
+        if (eventCoalescer != null)
+        {
+            eventCoalescer.shutdown();
+            eventCoalescer = null;
+        }
+    }
+
+
     /**
      * Send the TypeDef event to the OMRS Topic connector (providing TypeDef Events are enabled).
      *
@@ -209,18 +243,52 @@ public class OMRSRepositoryEventPublisher extends OMRSRepositoryEventBuilder
 
             if (validatedEvent != null)
             {
-                for (OMRSTopicConnector omrsTopicConnector : instancesTopicConnectors)
+                OMRSInstanceEventCoalescer coalescer = eventCoalescer;
+
+                if (coalescer == null)
                 {
-                    log.debug("topicConnector: " + omrsTopicConnector);
-                    omrsTopicConnector.sendInstanceEvent(instanceEvent);
+                    this.publishInstanceEvent(instanceEvent);
                 }
+                else
+                {
+                    coalescer.sendInstanceEvent(instanceEvent);
+                }
+            }
+        }
+        catch (Exception error)
+        {
+            auditLog.logException(actionDescription,
+                                  OMRSAuditCode.SEND_INSTANCE_EVENT_ERROR.getMessageDefinition(sourceName),
+                                  "instanceEvent {" + instanceEvent + "}",
+                                  error);
+
+            log.debug("Exception: ", error);
+        }
+    }
+
+
+    /**
+     * Send an instance event to each of the instance topic connectors.
+     *
+     * @param instanceEvent properties of the event to send
+     */
+    private void publishInstanceEvent(OMRSInstanceEvent instanceEvent)
+    {
+        String actionDescription = "Send Instance Event";
+
+        try
+        {
+            for (OMRSTopicConnector omrsTopicConnector : instancesTopicConnectors)
+            {
+                log.debug("topicConnector: " + omrsTopicConnector);
+                omrsTopicConnector.sendInstanceEvent(instanceEvent);
             }
         }
         // exceptions from sendEvent are wrapped in CompletionException
         catch (CompletionException exception)
         {
             auditLog.logException(actionDescription,
-                    OMRSAuditCode.SEND_INSTANCE_EVENT_ERROR.getMessageDefinition(sourceName),
+                    OMRSAuditCode.SEND_INSTANCE_EVENT_ERROR.getMessageDefinition(eventProcessorName),
                     "instanceEvent {" + instanceEvent + "}",
                     exception.getCause());
             log.debug("Completion exception with cause ", exception.getCause());
@@ -228,11 +296,11 @@ public class OMRSRepositoryEventPublisher extends OMRSRepositoryEventBuilder
         catch (Exception error)
         {
             auditLog.logException(actionDescription,
-                                  OMRSAuditCode.SEND_INSTANCE_EVENT_ERROR.getMessageDefinition(sourceName),
+                                  OMRSAuditCode.SEND_INSTANCE_EVENT_ERROR.getMessageDefinition(eventProcessorName),
                                   "instanceEvent {" + instanceEvent + "}",
                                   error);
 
             log.debug("Exception: ", error);
         }
     }
-}
\ No newline at end of file
+}
@@ -2414,9 +2414,9 @@ public class OMRSRepositoryContentHelper extends OMRSRepositoryPropertiesUtiliti
      * @param sequencingOrder nominated non-property sort order
      * @return sort result
      */
-    private static int  compareInstances(InstanceHeader  one,
-                                         InstanceHeader  two,
-                                         SequencingOrder sequencingOrder)
+    public static int  compareInstances(InstanceHeader  one,
+                                        InstanceHeader  two,
+                                        SequencingOrder sequencingOrder)
     {
 
         int sortResult;
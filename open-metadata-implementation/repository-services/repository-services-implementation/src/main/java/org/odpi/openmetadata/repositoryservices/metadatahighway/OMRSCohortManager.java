@@ -83,6 +83,8 @@ public class OMRSCohortManager
      *                           null, the cohort registry does not publish connections for members of the open
      *                           metadata repository cohort.
      * @param enterpriseTopicConnector Connector to the federated OMRS Topic.
+     * @param instanceHomeLocator locator that learns the home repository of instances from the cohort events.
+     *                            It may be null.
      * @param cohortRegistryStore the cohort registry store where details of members of the cohort are kept
      * @param cohortRegistrationTopicConnector Connector to the cohort's registration OMRS Topic
      * @param cohortRegistrationTopicConnection Connection to the cohort's registration OMRS Topic
@@ -102,6 +104,7 @@ public class OMRSCohortManager
                            OMRSRepositoryContentManager     localRepositoryContentManager,
                            OMRSConnectionConsumer           connectionConsumer,
                            OMRSTopicConnector               enterpriseTopicConnector,
+                           OMRSInstanceHomeLocator          instanceHomeLocator,
                            OMRSCohortRegistryStore          cohortRegistryStore,
                            Connection                       cohortRegistrationTopicConnection,
                            OMRSTopicConnector               cohortRegistrationTopicConnector,
@@ -209,6 +212,14 @@ public class OMRSCohortManager
                                                                                         instancesTopicConnectors,
                                                                                         auditLog.createNewAuditLog(OMRSAuditingComponent.EVENT_PUBLISHER));
 
+                    /*
+                     * The instances topic may allow repeated events for the same instance to be coalesced.
+                     */
+                    if (cohortInstancesTopicConnector != null)
+                    {
+                        outboundRepositoryEventPublisher.setEventCoalescingWindow(cohortInstancesTopicConnector.getEventCoalescingWindow());
+                    }
+
                     localRepositoryEventManager.registerRepositoryEventProcessor(outboundRepositoryEventPublisher);
                 }
 
@@ -256,6 +267,15 @@ public class OMRSCohortManager
                 this.cohortRepositoryEventManager.registerRepositoryEventProcessor(enterpriseEventPublisher);
             }
 
+            /*
+             * If the enterprise repository services are remembering the home repository of instances, then
+             * they learn from the instance events received from the cohort.
+             */
+            if (instanceHomeLocator != null)
+            {
+                this.cohortRepositoryEventManager.registerRepositoryEventProcessor(instanceHomeLocator);
+            }
+
             this.cohortConnectionStatus = CohortConnectionStatus.NEW;
         }
         catch (Exception error)
@@ -504,6 +524,11 @@ public class OMRSCohortManager
         {
             cohortConnectionStatus = CohortConnectionStatus.DISCONNECTING;
 
+            if (outboundRepositoryEventPublisher != null)
+            {
+                outboundRepositoryEventPublisher.disconnect();
+            }
+
             if (cohortRegistry != null)
             {
                 cohortRegistry.disconnectFromCohort(unregister);
@@ -45,6 +45,7 @@ public class OMRSMetadataHighwayManager
     private final OMRSRepositoryContentManager localRepositoryContentManager;      /* set in constructor */
     private final OMRSConnectionConsumer       enterpriseAccessConnectionConsumer; /* set in constructor */
     private final OMRSTopicConnector           enterpriseAccessTopicConnector;     /* set in constructor */
+    private final OMRSInstanceHomeLocator      instanceHomeLocator;                /* set in constructor */
     private final AuditLog                     auditLog;
 
     private static final Logger log = LoggerFactory.getLogger(OMRSMetadataHighwayManager.class);
@@ -61,6 +62,7 @@ public class OMRSMetadataHighwayManager
      *                                        passed around the cohort.
      * @param enterpriseAccessConnectionConsumer connection consumer for managing the connections of enterprise access.
      * @param enterpriseAccessTopicConnector connector for the OMRS Topic for enterprise access.
+     * @param instanceHomeLocator locator that learns the home repository of instances from the cohort events.
      * @param auditLog audit log for this component.
      */
     public OMRSMetadataHighwayManager(String                          localServerName,
@@ -70,6 +72,7 @@ public class OMRSMetadataHighwayManager
                                       OMRSRepositoryContentManager    localRepositoryContentManager,
                                       OMRSConnectionConsumer          enterpriseAccessConnectionConsumer,
                                       OMRSTopicConnector              enterpriseAccessTopicConnector,
+                                      OMRSInstanceHomeLocator         instanceHomeLocator,
                                       AuditLog                        auditLog)
     {
         this.localServerName = localServerName;
@@ -79,6 +82,7 @@ public class OMRSMetadataHighwayManager
         this.localRepositoryContentManager = localRepositoryContentManager;
         this.enterpriseAccessConnectionConsumer = enterpriseAccessConnectionConsumer;
         this.enterpriseAccessTopicConnector = enterpriseAccessTopicConnector;
+        this.instanceHomeLocator = instanceHomeLocator;
         this.auditLog = auditLog;
     }
 
@@ -234,6 +238,7 @@ public class OMRSMetadataHighwayManager
                                      localRepositoryContentManager,
                                      enterpriseAccessConnectionConsumer,
                                      enterpriseAccessTopicConnector,
+                                     instanceHomeLocator,
                                      cohortRegistryStore,
                                      cohortConfig.getCohortOMRSRegistrationTopicConnection(),
                                      cohortRegistrationTopicConnector,
@@ -615,6 +620,7 @@ public class OMRSMetadataHighwayManager
                 ", localRepositoryContentManager=" + localRepositoryContentManager +
                 ", enterpriseAccessConnectionConsumer=" + enterpriseAccessConnectionConsumer +
                 ", enterpriseAccessTopicConnector=" + enterpriseAccessTopicConnector +
+                ", instanceHomeLocator=" + instanceHomeLocator +
                 '}';
     }
 }
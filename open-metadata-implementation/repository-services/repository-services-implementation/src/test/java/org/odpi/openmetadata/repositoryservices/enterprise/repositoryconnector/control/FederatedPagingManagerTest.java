@@ -0,0 +1,259 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.SequencingOrder;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceHeader;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.PageableRepositoryExecutor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the FederatedPagingManager returns a single ordered list of results across the members of the
+ * cohort, and that each page continues from the position each member reached on the previous page.
+ */
+public class FederatedPagingManagerTest
+{
+    private static final List<Object> queryParameters = Arrays.asList("findEntities", "testUser", "testType");
+
+
+    @Test
+    public void testPagesAreGloballyOrdered()
+    {
+        FederatedPagingManager paging  = new FederatedPagingManager(10);
+        TestMembers            members = new TestMembers();
+
+        members.addMember("member1", "a", "d", "g", "j");
+        members.addMember("member2", "b", "e", "h");
+        members.addMember("member3", "c", "f", "i", "k", "l");
+
+        assertEquals(members.getPage(paging, 0, 4), Arrays.asList("a", "b", "c", "d"));
+        assertEquals(members.getPage(paging, 4, 4), Arrays.asList("e", "f", "g", "h"));
+        assertEquals(members.getPage(paging, 8, 4), Arrays.asList("i", "j", "k", "l"));
+        assertNull(members.getPage(paging, 12, 4));
+    }
+
+
+    @Test
+    public void testEarlierPagesAreNotReRead()
+    {
+        FederatedPagingManager paging  = new FederatedPagingManager(10);
+        TestMembers            members = new TestMembers();
+
+        members.addMember("member1", "a", "c", "e", "g", "i", "k");
+        members.addMember("member2", "b", "d", "f", "h", "j", "l");
+
+        members.getPage(paging, 0, 3);
+        members.getPage(paging, 3, 3);
+
+        /*
+         * The second page continues from each member's position so no member is asked to start from zero
+         * again, and each member is asked for no more than a page.
+         */
+        assertEquals(members.getRequestedStartingElement("member1"), 2);
+        assertEquals(members.getRequestedStartingElement("member2"), 1);
+        assertEquals(members.getRequestedPageSize(), 3);
+        assertEquals(paging.getCursorCount(), 2);
+    }
+
+
+    @Test
+    public void testPageWithoutCursor()
+    {
+        FederatedPagingManager paging  = new FederatedPagingManager(10);
+        TestMembers            members = new TestMembers();
+
+        members.addMember("member1", "a", "c", "e", "g");
+        members.addMember("member2", "b", "d", "f", "h");
+
+        /*
+         * Jumping straight to the second page means each member must return its results from the start.
+         */
+        assertEquals(members.getPage(paging, 3, 3), Arrays.asList("d", "e", "f"));
+        assertEquals(members.getRequestedPageSize(), 6);
+
+        /*
+         * The following page can then use the cursor.
+         */
+        assertEquals(members.getPage(paging, 6, 3), Arrays.asList("g", "h"));
+        assertEquals(members.getRequestedPageSize(), 3);
+    }
+
+
+    @Test
+    public void testReferenceCopiesAreReturnedOnce()
+    {
+        FederatedPagingManager paging  = new FederatedPagingManager(10);
+        TestMembers            members = new TestMembers();
+
+        members.addMember("member1", "a", "b", "c", "d", "e");
+        members.addMember("member2", "a", "b", "c", "d", "e");
+        members.addMember("member3", "c", "f");
+
+        assertEquals(members.getPage(paging, 0, 3), Arrays.asList("a", "b", "c"));
+        assertEquals(members.getPage(paging, 3, 3), Arrays.asList("d", "e", "f"));
+        assertNull(members.getPage(paging, 6, 3));
+    }
+
+
+    @Test
+    public void testLeastRecentlyUsedCursorIsDiscarded()
+    {
+        FederatedPagingManager paging  = new FederatedPagingManager(1);
+        TestMembers            members = new TestMembers();
+
+        members.addMember("member1", "a", "b", "c", "d");
+
+        members.getPage(paging, 0, 1);
+        members.getPage(paging, 1, 1);
+
+        assertEquals(paging.getCursorCount(), 1);
+        assertNull(paging.getMemberStartingElements(queryParameters, 1));
+        assertTrue(paging.getMemberStartingElements(queryParameters, 2) != null);
+    }
+
+
+    /**
+     * Simulates the members of the cohort.  Each member returns its instances sorted by GUID.
+     */
+    private static class TestMembers
+    {
+        private final Map<String, List<InstanceHeader>> memberInstances = new LinkedHashMap<>();
+        private final Map<String, Integer>              requestedStartingElements = new HashMap<>();
+        private int                                     requestedPageSize = 0;
+
+
+        void addMember(String metadataCollectionId, String... guids)
+        {
+            List<InstanceHeader> instances = new ArrayList<>();
+
+            for (String guid : guids)
+            {
+                EntityDetail entity = new EntityDetail();
+
+                entity.setGUID(guid);
+                entity.setMetadataCollectionId(metadataCollectionId);
+                instances.add(entity);
+            }
+
+            memberInstances.put(metadataCollectionId, instances);
+        }
+
+
+        int getRequestedStartingElement(String metadataCollectionId)
+        {
+            return requestedStartingElements.get(metadataCollectionId);
+        }
+
+
+        int getRequestedPageSize()
+        {
+            return requestedPageSize;
+        }
+
+
+        /**
+         * Issue the query to each member and return the GUIDs in the page.
+         */
+        List<String> getPage(FederatedPagingManager paging, int fromElement, int pageSize)
+        {
+            FederatedPageRequest pageRequest = new FederatedPageRequest(paging,
+                                                                        null,
+                                                                        queryParameters,
+                                                                        fromElement,
+                                                                        null,
+                                                                        SequencingOrder.GUID,
+                                                                        pageSize);
+            TestExecutor executor = new TestExecutor();
+
+            pageRequest.setUpExecutor(executor);
+
+            requestedPageSize = pageRequest.getPageSize();
+
+            Map<String, InstanceHeader> accumulated = new LinkedHashMap<>();
+
+            for (String metadataCollectionId : memberInstances.keySet())
+            {
+                List<InstanceHeader> instances = memberInstances.get(metadataCollectionId);
+                int                  start     = executor.getStartingElement(metadataCollectionId, pageRequest.getStartingElement());
+                int                  end       = Math.min(instances.size(), start + requestedPageSize);
+                List<InstanceHeader> page      = (start < end) ? instances.subList(start, end) : Collections.emptyList();
+
+                requestedStartingElements.put(metadataCollectionId, start);
+                executor.memberResults.put(metadataCollectionId, new ArrayList<>(page));
+
+                for (InstanceHeader instance : page)
+                {
+                    accumulated.put(instance.getGUID(), instance);
+                }
+            }
+
+            List<InstanceHeader> results = pageRequest.getResults(executor, new ArrayList<>(accumulated.values()));
+
+            if (results == null)
+            {
+                return null;
+            }
+
+            List<String> guids = new ArrayList<>();
+
+            for (InstanceHeader instance : results)
+            {
+                guids.add(instance.getGUID());
+            }
+
+            return guids;
+        }
+    }
+
+
+    /**
+     * Executor that records the starting elements and returns the members' results.
+     */
+    private static class TestExecutor implements PageableRepositoryExecutor
+    {
+        private       Map<String, Integer>              memberStartingElements = null;
+        private final Map<String, List<InstanceHeader>> memberResults          = new HashMap<>();
+
+        int getStartingElement(String metadataCollectionId, int defaultStartingElement)
+        {
+            if ((memberStartingElements != null) && (memberStartingElements.get(metadataCollectionId) != null))
+            {
+                return memberStartingElements.get(metadataCollectionId);
+            }
+
+            return defaultStartingElement;
+        }
+
+        @Override
+        public void setMemberStartingElements(Map<String, Integer> memberStartingElements)
+        {
+            this.memberStartingElements = memberStartingElements;
+        }
+
+        @Override
+        public Map<String, List<InstanceHeader>> getMemberResults()
+        {
+            return memberResults;
+        }
+
+        @Override
+        public CloneableRepositoryExecutor getClone()
+        {
+            return this;
+        }
+    }
+}
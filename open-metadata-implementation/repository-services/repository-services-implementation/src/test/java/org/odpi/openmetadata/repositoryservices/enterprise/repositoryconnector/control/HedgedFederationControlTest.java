@@ -0,0 +1,176 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.GetEntityDetailExecutor;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the HedgedFederationControl returns as soon as the home repository responds, and falls back
+ * to a reference copy when the home repository is slow.
+ */
+public class HedgedFederationControlTest
+{
+    private static final String entityGUID       = "testEntityGUID";
+    private static final String homeRepository   = "member0";
+
+    private final AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+
+
+    @Test
+    public void testHomeCopyEndsRequest() throws Exception
+    {
+        FederationWorkerPool workerPool = new FederationWorkerPool("testServer", 10, 20000L, true, 5000L);
+
+        try
+        {
+            /*
+             * A reference copy arrives first, then the home copy.  The third member never responds in time.
+             */
+            List<OMRSRepositoryConnector> cohortConnectors = getCohortConnectors(new long[]{ 200L, 50L, 10000L });
+
+            GetEntityDetailExecutor executor = new GetEntityDetailExecutor("testUser", entityGUID, auditLog, "testHomeCopyEndsRequest");
+            FederationControl federationControl = new HedgedFederationControl("testUser",
+                                                                              cohortConnectors,
+                                                                              auditLog,
+                                                                              "testHomeCopyEndsRequest",
+                                                                              workerPool);
+
+            long start = System.currentTimeMillis();
+            federationControl.executeCommand(executor);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed < 2000L, "Elapsed time " + elapsed + " ms did not stop at the home repository");
+            assertEquals(executor.getEntityDetail().getVersion(), 0L);
+        }
+        finally
+        {
+            workerPool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testReferenceCopyAfterDeadline() throws Exception
+    {
+        FederationWorkerPool workerPool = new FederationWorkerPool("testServer", 10, 20000L, true, 300L);
+
+        try
+        {
+            /*
+             * The home repository is too slow so the reference copy is returned after the reference copy deadline.
+             */
+            List<OMRSRepositoryConnector> cohortConnectors = getCohortConnectors(new long[]{ 10000L, 50L });
+
+            GetEntityDetailExecutor executor = new GetEntityDetailExecutor("testUser", entityGUID, auditLog, "testReferenceCopyAfterDeadline");
+            FederationControl federationControl = new HedgedFederationControl("testUser",
+                                                                              cohortConnectors,
+                                                                              auditLog,
+                                                                              "testReferenceCopyAfterDeadline",
+                                                                              workerPool);
+
+            long start = System.currentTimeMillis();
+            federationControl.executeCommand(executor);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed >= 300L);
+            assertTrue(elapsed < 2000L, "Elapsed time " + elapsed + " ms did not respect the reference copy deadline");
+            assertEquals(executor.getEntityDetail().getVersion(), 1L);
+        }
+        finally
+        {
+            workerPool.shutdown();
+        }
+    }
+
+
+    /**
+     * Create a connector for each cohort member.  The first member is the home repository for the entity.
+     *
+     * @param latencies response time of each member
+     * @return list of connectors
+     */
+    private List<OMRSRepositoryConnector> getCohortConnectors(long[] latencies)
+    {
+        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+
+        for (int i = 0; i < latencies.length; i++)
+        {
+            cohortConnectors.add(new TestRepositoryConnector("member" + i, i, latencies[i]));
+        }
+
+        return cohortConnectors;
+    }
+
+
+    /**
+     * Repository connector for a cohort member with a fixed response time.
+     */
+    private static class TestRepositoryConnector extends OMRSRepositoryConnector
+    {
+        TestRepositoryConnector(String metadataCollectionId, long version, long latency)
+        {
+            super.repositoryName = metadataCollectionId;
+            super.metadataCollectionId = metadataCollectionId;
+            super.metadataCollection = new TestMetadataCollection(this, metadataCollectionId, version, latency);
+        }
+    }
+
+
+    /**
+     * Metadata collection that returns its copy of the entity after its response time.  The version number
+     * identifies which member supplied the copy.
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        private final long version;
+        private final long latency;
+
+        TestMetadataCollection(OMRSRepositoryConnector parentConnector, String metadataCollectionId, long version, long latency)
+        {
+            super(parentConnector, metadataCollectionId, null, null, metadataCollectionId);
+
+            this.version = version;
+            this.latency = latency;
+        }
+
+        @Override
+        public String getMetadataCollectionId(String userId)
+        {
+            return metadataCollectionId;
+        }
+
+        @Override
+        public EntityDetail isEntityKnown(String userId, String guid)
+        {
+            try
+            {
+                Thread.sleep(latency);
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+
+            EntityDetail entity = new EntityDetail();
+
+            entity.setGUID(guid);
+            entity.setMetadataCollectionId(homeRepository);
+            entity.setVersion(version);
+
+            return entity;
+        }
+    }
+}
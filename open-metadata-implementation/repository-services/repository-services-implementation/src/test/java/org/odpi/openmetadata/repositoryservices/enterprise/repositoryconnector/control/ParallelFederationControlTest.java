@@ -0,0 +1,304 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.control;
+
+import org.odpi.openmetadata.frameworks.auditlog.AuditLog;
+import org.odpi.openmetadata.frameworks.auditlog.ComponentDevelopmentStatus;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollection;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.OMRSMetadataCollectionBase;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.repositoryconnector.OMRSRepositoryConnector;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.CloneableRepositoryExecutor;
+import org.odpi.openmetadata.repositoryservices.enterprise.repositoryconnector.executors.RepositoryExecutor;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the ParallelFederationControl calls the cohort members at the same time.
+ */
+public class ParallelFederationControlTest
+{
+    private static final long[] memberLatencies = { 100L, 200L, 300L, 400L, 500L, 600L };
+
+    private final AuditLog auditLog = new AuditLog(null, 1, ComponentDevelopmentStatus.IN_DEVELOPMENT, null, null, null);
+
+    private FederationWorkerPool workerPool = null;
+
+
+    @BeforeClass
+    public void setUp()
+    {
+        workerPool = new FederationWorkerPool("testServer", 10, 5000L);
+    }
+
+
+    @AfterClass
+    public void tearDown()
+    {
+        workerPool.shutdown();
+    }
+
+
+    @Test
+    public void testElapsedTimeIsSlowestMember() throws Exception
+    {
+        List<OMRSRepositoryConnector> cohortConnectors = getCohortConnectors(memberLatencies);
+        long                          slowestMember    = 0L;
+        long                          allMembers       = 0L;
+
+        for (long memberLatency : memberLatencies)
+        {
+            slowestMember = Math.max(slowestMember, memberLatency);
+            allMembers = allMembers + memberLatency;
+        }
+
+        TestExecutor executor = new TestExecutor();
+        FederationControl federationControl = new ParallelFederationControl("testUser",
+                                                                            cohortConnectors,
+                                                                            auditLog,
+                                                                            "testElapsedTimeIsSlowestMember",
+                                                                            workerPool);
+
+        long start = System.currentTimeMillis();
+        federationControl.executeCommand(executor);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(executor.responders.size(), memberLatencies.length);
+        assertTrue(elapsed >= slowestMember);
+        assertTrue(elapsed < (slowestMember + allMembers) / 2, "Elapsed time " + elapsed + " ms is not close to the slowest member");
+    }
+
+
+    @Test
+    public void testSlowMemberIsCancelled() throws Exception
+    {
+        FederationWorkerPool          shortTimeoutPool = new FederationWorkerPool("testServer", 10, 300L);
+        List<OMRSRepositoryConnector> cohortConnectors = getCohortConnectors(new long[]{ 50L, 100L, 10000L });
+
+        try
+        {
+            TestExecutor executor = new TestExecutor();
+            FederationControl federationControl = new ParallelFederationControl("testUser",
+                                                                                cohortConnectors,
+                                                                                auditLog,
+                                                                                "testSlowMemberIsCancelled",
+                                                                                shortTimeoutPool);
+
+            long start = System.currentTimeMillis();
+            federationControl.executeCommand(executor);
+            long elapsed = System.currentTimeMillis() - start;
+
+            assertTrue(elapsed < 2000L, "Elapsed time " + elapsed + " ms did not respect the timeout");
+            assertTrue(executor.responders.contains("member0"));
+            assertTrue(executor.responders.contains("member1"));
+            assertFalse(executor.responders.contains("member2"));
+        }
+        finally
+        {
+            shortTimeoutPool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testSaturatedPoolSkipsMembers() throws Exception
+    {
+        /*
+         * One worker thread and a queue of four requests, so two of the seven members are rejected.
+         */
+        FederationWorkerPool          smallPool        = new FederationWorkerPool("testServer", 1, 5000L);
+        List<OMRSRepositoryConnector> cohortConnectors = getCohortConnectors(new long[]{ 50L, 50L, 50L, 50L, 50L, 50L, 50L });
+        String                        callerThread     = Thread.currentThread().getName();
+
+        try
+        {
+            TestExecutor executor = new TestExecutor();
+            FederationControl federationControl = new ParallelFederationControl("testUser",
+                                                                                cohortConnectors,
+                                                                                auditLog,
+                                                                                "testSaturatedPoolSkipsMembers",
+                                                                                smallPool);
+
+            federationControl.executeCommand(executor);
+
+            assertEquals(executor.responders.size(), 5);
+            assertFalse(executor.responderThreads.contains(callerThread));
+        }
+        finally
+        {
+            smallPool.shutdown();
+        }
+    }
+
+
+    @Test
+    public void testAugmentationOnlyCallsEachMember() throws Exception
+    {
+        AugmentingExecutor executor = new AugmentingExecutor();
+
+        ParallelFederationControl federationControl = new ParallelFederationControl("testUser",
+                                                                                    getCohortConnectors(new long[]{ 10L, 10L, 10L }),
+                                                                                    auditLog,
+                                                                                    "testAugmentationOnlyCallsEachMember",
+                                                                                    workerPool);
+
+        federationControl.executeAugmentation(executor);
+
+        assertEquals(executor.augmentingMembers, Set.of("member0", "member1", "member2"));
+        assertTrue(executor.responders.isEmpty());
+    }
+
+
+    @Test
+    public void testNoWorkerPoolIsSequential() throws Exception
+    {
+        long[]       latencies = { 100L, 100L, 100L };
+        TestExecutor executor  = new TestExecutor();
+
+        FederationControl federationControl = new ParallelFederationControl("testUser",
+                                                                            getCohortConnectors(latencies),
+                                                                            auditLog,
+                                                                            "testNoWorkerPoolIsSequential");
+
+        long start = System.currentTimeMillis();
+        federationControl.executeCommand(executor);
+        long elapsed = System.currentTimeMillis() - start;
+
+        assertEquals(executor.responders.size(), latencies.length);
+        assertTrue(elapsed >= 300L);
+    }
+
+
+    /**
+     * Create a connector for each cohort member.
+     *
+     * @param latencies response time of each member
+     * @return list of connectors
+     */
+    private List<OMRSRepositoryConnector> getCohortConnectors(long[] latencies)
+    {
+        List<OMRSRepositoryConnector> cohortConnectors = new ArrayList<>();
+
+        for (int i = 0; i < latencies.length; i++)
+        {
+            cohortConnectors.add(new TestRepositoryConnector("member" + i, latencies[i]));
+        }
+
+        return cohortConnectors;
+    }
+
+
+    /**
+     * Repository connector for a cohort member with a fixed response time.
+     */
+    private static class TestRepositoryConnector extends OMRSRepositoryConnector
+    {
+        TestRepositoryConnector(String metadataCollectionId, long latency)
+        {
+            super.repositoryName = metadataCollectionId;
+            super.metadataCollectionId = metadataCollectionId;
+            super.metadataCollection = new TestMetadataCollection(this, metadataCollectionId, latency);
+        }
+    }
+
+
+    /**
+     * Metadata collection that reports the response time of its cohort member.
+     */
+    private static class TestMetadataCollection extends OMRSMetadataCollectionBase
+    {
+        private final long latency;
+
+        TestMetadataCollection(OMRSRepositoryConnector parentConnector, String metadataCollectionId, long latency)
+        {
+            super(parentConnector, metadataCollectionId, null, null, metadataCollectionId);
+
+            this.latency = latency;
+        }
+
+        @Override
+        public String getMetadataCollectionId(String userId)
+        {
+            return metadataCollectionId;
+        }
+    }
+
+
+    /**
+     * Executor that waits for the response time of each cohort member and records which members responded.
+     * The clones share the set of responders in the same way that real executors share their accumulator.
+     */
+    private static class TestExecutor implements RepositoryExecutor, CloneableRepositoryExecutor
+    {
+        private final Set<String> responders;
+        private final Set<String> responderThreads;
+
+        TestExecutor()
+        {
+            this(ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet());
+        }
+
+        private TestExecutor(Set<String> responders,
+                             Set<String> responderThreads)
+        {
+            this.responders       = responders;
+            this.responderThreads = responderThreads;
+        }
+
+        @Override
+        public CloneableRepositoryExecutor getClone()
+        {
+            return new TestExecutor(responders, responderThreads);
+        }
+
+        @Override
+        public boolean issueRequestToRepository(String metadataCollectionId, OMRSMetadataCollection metadataCollection)
+        {
+            try
+            {
+                Thread.sleep(((TestMetadataCollection)metadataCollection).latency);
+
+                responders.add(metadataCollectionId);
+                responderThreads.add(Thread.currentThread().getName());
+            }
+            catch (InterruptedException error)
+            {
+                Thread.currentThread().interrupt();
+            }
+
+            return false;
+        }
+    }
+
+
+    /**
+     * Executor that has one result to augment and records the members asked to augment it.
+     */
+    private static class AugmentingExecutor extends TestExecutor
+    {
+        private final Set<String> augmentingMembers = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public List<String> getResultsForAugmentation()
+        {
+            return List.of("result1");
+        }
+
+        @Override
+        public void augmentResultFromRepository(String                 resultGUID,
+                                                String                 metadataCollectionId,
+                                                OMRSMetadataCollection metadataCollection)
+        {
+            augmentingMembers.add(metadataCollectionId);
+        }
+    }
+}
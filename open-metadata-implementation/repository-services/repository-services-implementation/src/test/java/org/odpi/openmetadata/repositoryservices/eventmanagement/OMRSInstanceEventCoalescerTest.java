@@ -0,0 +1,262 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.eventmanagement;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityProxy;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.InstanceGraph;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEvent;
+import org.odpi.openmetadata.repositoryservices.events.OMRSInstanceEventType;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+/**
+ * Verify that the OMRSInstanceEventCoalescer sends only the latest version of each instance changed within
+ * the window, cancels instances that are created and purged within the window unless a held relationship
+ * refers to them, sends the held events before any event that is not held, and sends a combined event in the
+ * place of the first event it replaces.
+ */
+public class OMRSInstanceEventCoalescerTest
+{
+    private static final long longWindow = 60000;
+
+
+    @Test
+    public void testUpdatesAreCoalesced()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity1", 1), getEntity("entity1", 2)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity1", 2), getEntity("entity1", 3)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity1", 3), getEntity("entity1", 4)));
+
+        assertTrue(sentEvents.isEmpty());
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 1);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.UPDATED_ENTITY_EVENT);
+        assertEquals(sentEvents.get(0).getOriginalEntity().getVersion(), 1L);
+        assertEquals(sentEvents.get(0).getEntity().getVersion(), 4L);
+    }
+
+
+    @Test
+    public void testNewInstanceIncludesLaterUpdates()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT, getRelationship("relationship1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_RELATIONSHIP_EVENT, getRelationship("relationship1", 1), getRelationship("relationship1", 2)));
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 1);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT);
+        assertEquals(sentEvents.get(0).getRelationship().getVersion(), 2L);
+    }
+
+
+    @Test
+    public void testMergedEventKeepsItsPlace()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        /*
+         * The relationship refers to the entity, so the entity must still be sent first after it is updated.
+         */
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT, getRelationship("relationship1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity1", 1), getEntity("entity1", 2)));
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 2);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        assertEquals(sentEvents.get(0).getInstanceGUID(), "entity1");
+        assertEquals(sentEvents.get(0).getEntity().getVersion(), 2L);
+        assertEquals(sentEvents.get(1).getInstanceEventType(), OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT);
+        assertEquals(sentEvents.get(1).getInstanceGUID(), "relationship1");
+    }
+
+
+    @Test
+    public void testCreateThenPurgeCancels()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity1", 1), getEntity("entity1", 2)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.DELETE_PURGED_ENTITY_EVENT, getEntity("entity1", 2)));
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.UPDATED_ENTITY_EVENT, getEntity("entity2", 1), getEntity("entity2", 2)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.PURGED_ENTITY_EVENT, getEntity("entity2", 2)));
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 1);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.PURGED_ENTITY_EVENT);
+        assertEquals(sentEvents.get(0).getInstanceGUID(), "entity2");
+    }
+
+
+    @Test
+    public void testPurgeOfReferencedEntityIsSent()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        /*
+         * The held relationship refers to entity1, so the new entity event is still needed.
+         */
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT, getRelationship("relationship1", 1, "entity1", "entity2")));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.PURGED_ENTITY_EVENT, getEntity("entity1", 1)));
+
+        assertEquals(sentEvents.size(), 3);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        assertEquals(sentEvents.get(0).getInstanceGUID(), "entity1");
+        assertEquals(sentEvents.get(1).getInstanceEventType(), OMRSInstanceEventType.NEW_RELATIONSHIP_EVENT);
+        assertEquals(sentEvents.get(2).getInstanceEventType(), OMRSInstanceEventType.PURGED_ENTITY_EVENT);
+        assertEquals(sentEvents.get(2).getInstanceGUID(), "entity1");
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 3);
+    }
+
+
+    @Test
+    public void testOtherEventsKeepTheirOrder()
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", longWindow, sentEvents::add);
+
+        /*
+         * An event that is not held sends all the held events first, even those for other instances.
+         */
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity1", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.DELETED_ENTITY_EVENT, getEntity("entity2", 2)));
+
+        assertEquals(sentEvents.size(), 2);
+        assertEquals(sentEvents.get(0).getInstanceEventType(), OMRSInstanceEventType.NEW_ENTITY_EVENT);
+        assertEquals(sentEvents.get(0).getInstanceGUID(), "entity1");
+        assertEquals(sentEvents.get(1).getInstanceEventType(), OMRSInstanceEventType.DELETED_ENTITY_EVENT);
+        assertEquals(sentEvents.get(1).getInstanceGUID(), "entity2");
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity3", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity4", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.DELETED_ENTITY_EVENT, getEntity("entity3", 2)));
+
+        assertEquals(sentEvents.size(), 5);
+        assertEquals(sentEvents.get(2).getInstanceGUID(), "entity3");
+        assertEquals(sentEvents.get(3).getInstanceGUID(), "entity4");
+        assertEquals(sentEvents.get(4).getInstanceEventType(), OMRSInstanceEventType.DELETED_ENTITY_EVENT);
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity5", 1)));
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.BATCH_INSTANCES_EVENT, new InstanceGraph()));
+
+        assertEquals(sentEvents.size(), 7);
+        assertEquals(sentEvents.get(5).getInstanceGUID(), "entity5");
+        assertEquals(sentEvents.get(6).getInstanceEventType(), OMRSInstanceEventType.BATCH_INSTANCES_EVENT);
+
+        coalescer.shutdown();
+
+        assertEquals(sentEvents.size(), 7);
+    }
+
+
+    @Test
+    public void testEventsAreSentWhenTheWindowCloses() throws InterruptedException
+    {
+        List<OMRSInstanceEvent>    sentEvents = Collections.synchronizedList(new ArrayList<>());
+        OMRSInstanceEventCoalescer coalescer  = new OMRSInstanceEventCoalescer("TestCoalescer", 50, sentEvents::add);
+
+        coalescer.sendInstanceEvent(new OMRSInstanceEvent(OMRSInstanceEventType.NEW_ENTITY_EVENT, getEntity("entity1", 1)));
+
+        for (int wait = 0; (wait < 100) && (sentEvents.isEmpty()); wait++)
+        {
+            Thread.sleep(20);
+        }
+
+        assertEquals(sentEvents.size(), 1);
+
+        coalescer.shutdown();
+    }
+
+
+    /**
+     * Return a version of an entity.
+     *
+     * @param guid unique identifier of the entity
+     * @param version version number
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid,
+                                   long   version)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setVersion(version);
+
+        return entity;
+    }
+
+
+    /**
+     * Return a version of a relationship.
+     *
+     * @param guid unique identifier of the relationship
+     * @param version version number
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid,
+                                         long   version)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setVersion(version);
+
+        return relationship;
+    }
+
+
+    /**
+     * Return a version of a relationship between two entities.
+     *
+     * @param guid unique identifier of the relationship
+     * @param version version number
+     * @param end1GUID unique identifier of the entity at end 1
+     * @param end2GUID unique identifier of the entity at end 2
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid,
+                                         long   version,
+                                         String end1GUID,
+                                         String end2GUID)
+    {
+        Relationship relationship = this.getRelationship(guid, version);
+        EntityProxy  end1         = new EntityProxy();
+        EntityProxy  end2         = new EntityProxy();
+
+        end1.setGUID(end1GUID);
+        end2.setGUID(end2GUID);
+        relationship.setEntityOneProxy(end1);
+        relationship.setEntityTwoProxy(end2);
+
+        return relationship;
+    }
+}
@@ -0,0 +1,132 @@
+/* SPDX-License-Identifier: Apache-2.0 */
+/* Copyright Contributors to the ODPi Egeria project. */
+package org.odpi.openmetadata.repositoryservices.eventmanagement;
+
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.EntityDetail;
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.properties.instances.Relationship;
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+/**
+ * Verify that the OMRSInstanceHomeLocator keeps track of the home of instances as they change.
+ */
+public class OMRSInstanceHomeLocatorTest
+{
+    private static final String sourceName = "testCohort";
+    private static final String serverName = "testServer";
+    private static final String serverType = "testServerType";
+    private static final String orgName    = "testOrg";
+
+
+    @Test
+    public void testNewInstances()
+    {
+        OMRSInstanceHomeLocator locator = new OMRSInstanceHomeLocator(serverName, 10);
+
+        locator.processNewEntityEvent(sourceName, "home1", serverName, serverType, orgName, getEntity("entity1", "home1"));
+        locator.processNewRelationshipEvent(sourceName, "home2", serverName, serverType, orgName, getRelationship("relationship1", "home2"));
+
+        assertEquals(locator.getHomeMetadataCollectionId("entity1"), "home1");
+        assertEquals(locator.getHomeMetadataCollectionId("relationship1"), "home2");
+        assertNull(locator.getHomeMetadataCollectionId("unknown"));
+    }
+
+
+    @Test
+    public void testReHomedEntity()
+    {
+        OMRSInstanceHomeLocator locator = new OMRSInstanceHomeLocator(serverName, 10);
+
+        locator.processNewEntityEvent(sourceName, "home1", serverName, serverType, orgName, getEntity("entity1", "home1"));
+        locator.processReHomedEntityEvent(sourceName, "home2", serverName, serverType, orgName, "home1", getEntity("entity1", "home2"));
+
+        assertEquals(locator.getHomeMetadataCollectionId("entity1"), "home2");
+    }
+
+
+    @Test
+    public void testReIdentifiedEntity()
+    {
+        OMRSInstanceHomeLocator locator = new OMRSInstanceHomeLocator(serverName, 10);
+
+        locator.processNewEntityEvent(sourceName, "home1", serverName, serverType, orgName, getEntity("entity1", "home1"));
+        locator.processReIdentifiedEntityEvent(sourceName, "home1", serverName, serverType, orgName, "entity1", getEntity("entity2", "home1"));
+
+        assertNull(locator.getHomeMetadataCollectionId("entity1"));
+        assertEquals(locator.getHomeMetadataCollectionId("entity2"), "home1");
+    }
+
+
+    @Test
+    public void testPurgedEntity()
+    {
+        OMRSInstanceHomeLocator locator = new OMRSInstanceHomeLocator(serverName, 10);
+        EntityDetail            entity  = getEntity("entity1", "home1");
+
+        locator.processNewEntityEvent(sourceName, "home1", serverName, serverType, orgName, entity);
+        locator.processPurgedEntityEvent(sourceName, "home1", serverName, serverType, orgName, entity);
+
+        assertNull(locator.getHomeMetadataCollectionId("entity1"));
+    }
+
+
+    @Test
+    public void testLeastRecentlyUsedInstanceIsDiscarded()
+    {
+        OMRSInstanceHomeLocator locator = new OMRSInstanceHomeLocator(serverName, 3);
+
+        locator.learnInstanceHome("entity1", "home1");
+        locator.learnInstanceHome("entity2", "home1");
+        locator.learnInstanceHome("entity3", "home1");
+
+        /*
+         * Using entity1 means that entity2 is now the least recently used.
+         */
+        assertEquals(locator.getHomeMetadataCollectionId("entity1"), "home1");
+
+        locator.learnInstanceHome("entity4", "home1");
+
+        assertEquals(locator.getInstanceCount(), 3);
+        assertNull(locator.getHomeMetadataCollectionId("entity2"));
+        assertEquals(locator.getHomeMetadataCollectionId("entity1"), "home1");
+        assertEquals(locator.getHomeMetadataCollectionId("entity4"), "home1");
+    }
+
+
+    /**
+     * Create an entity for an event.
+     *
+     * @param guid unique identifier of the entity
+     * @param homeMetadataCollectionId home of the entity
+     * @return entity
+     */
+    private EntityDetail getEntity(String guid, String homeMetadataCollectionId)
+    {
+        EntityDetail entity = new EntityDetail();
+
+        entity.setGUID(guid);
+        entity.setMetadataCollectionId(homeMetadataCollectionId);
+
+        return entity;
+    }
+
+
+    /**
+     * Create a relationship for an event.
+     *
+     * @param guid unique identifier of the relationship
+     * @param homeMetadataCollectionId home of the relationship
+     * @return relationship
+     */
+    private Relationship getRelationship(String guid, String homeMetadataCollectionId)
+    {
+        Relationship relationship = new Relationship();
+
+        relationship.setGUID(guid);
+        relationship.setMetadataCollectionId(homeMetadataCollectionId);
+
+        return relationship;
+    }
+}
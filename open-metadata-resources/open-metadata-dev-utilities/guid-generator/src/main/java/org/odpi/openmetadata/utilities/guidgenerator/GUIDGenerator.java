@@ -2,30 +2,39 @@
 /* Copyright Contributors to the ODPi Egeria project. */
 package org.odpi.openmetadata.utilities.guidgenerator;
 
+import org.odpi.openmetadata.repositoryservices.connectors.stores.metadatacollectionstore.utilities.OMRSGUIDStrategy;
+
 import java.util.*;
 
 /**
- * ServerOps provides a utility for starting and stopping servers on an OMAG Server Platform.
+ * GUIDGenerator provides a utility for printing out new GUIDs for use in type definitions and other reference data.
  */
 public class GUIDGenerator
 {
 
     /**
-     * Main program that controls the operation of the utility.  The parameters are passed space separated.
-     * The parameters are used to override the utility's default values. If mode is set to "interactive"
-     * the caller is prompted for a command and one to many server names.
+     * Main program that controls the operation of the utility.  The optional parameter is the name of the
+     * GUID strategy: "random" (the default) or "time-ordered".
      *
-     * @param args 1. service platform URL root, 2. client userId, 3. mode 4. server name 5. server name ...
+     * @param args 1. GUID strategy
      */
     public static void main(String[] args)
     {
+        OMRSGUIDStrategy guidStrategy = OMRSGUIDStrategy.RANDOM;
+
+        if (args.length > 0)
+        {
+            guidStrategy = OMRSGUIDStrategy.getGUIDStrategy(args[0]);
+        }
+
         System.out.println("==============================================");
         System.out.println(" GUID Generator: " + new Date() + " [" + new Date().getTime() + "L]");
+        System.out.println(" Strategy: " + guidStrategy.getName());
         System.out.println("==============================================");
 
         for (int i=0; i<10 ; i++)
         {
-            System.out.println(UUID.randomUUID());
+            System.out.println(guidStrategy.getNewGUID());
         }
 
         System.exit(0);